@@ -0,0 +1,55 @@
+package com.veterinaria.clinica_veternica.benchmark;
+
+import com.veterinaria.clinica_veternica.service.disponibilidad.AgendaDia;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo de slots de la agenda de un veterinario (lo que usa HorarioServiceImpl.obtenerDisponibilidad
+ * y la búsqueda de la próxima disponibilidad), según la ocupación del día.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AgendaBenchmark {
+
+    /**
+     * Fracción de slots ocupados.
+     */
+    @Param({"0.0", "0.5", "1.0"})
+    public double ocupacion;
+
+    private AgendaDia agenda;
+    private int desdeMinuto;
+
+    @Setup
+    public void preparar() {
+        agenda = FixturesBenchmark.agenda(ocupacion);
+        desdeMinuto = AgendaDia.minuto(LocalTime.of(9, 10));
+    }
+
+    @Benchmark
+    public List<AgendaDia.Slot> calcularSlots() {
+        return agenda.slots();
+    }
+
+    @Benchmark
+    public Optional<AgendaDia.Slot> primerSlotLibre() {
+        return agenda.primerSlotLibre(desdeMinuto);
+    }
+}
@@ -0,0 +1,77 @@
+package com.veterinaria.clinica_veternica.benchmark;
+
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.Servicio;
+import com.veterinaria.clinica_veternica.dto.request.agenda.CitaRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.agenda.CitaResponseDTO;
+import com.veterinaria.clinica_veternica.mapper.agenda.CitaMapper;
+import com.veterinaria.clinica_veternica.mapper.agenda.CitaMapperImpl;
+import com.veterinaria.clinica_veternica.service.impl.CitaPriceCalculationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo del precio de una cita y conversión Cita → CitaResponseDTO con el mapper de MapStruct.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CitaBenchmark {
+
+    private static final int CITAS_LISTADO = 50;
+
+    private CitaPriceCalculationService calculoPrecio;
+    private CitaMapper citaMapper;
+    private Servicio servicio;
+    private CitaRequestDTO citaNormal;
+    private CitaRequestDTO citaEmergencia;
+    private Cita cita;
+    private List<Cita> citas;
+
+    @Setup
+    public void preparar() {
+        calculoPrecio = new CitaPriceCalculationService();
+        citaMapper = new CitaMapperImpl();
+        servicio = FixturesBenchmark.servicio();
+        citaNormal = FixturesBenchmark.citaRequest(false);
+        citaEmergencia = FixturesBenchmark.citaRequest(true);
+        citas = FixturesBenchmark.citasDelDia(CITAS_LISTADO);
+        cita = citas.get(0);
+    }
+
+    @Benchmark
+    public BigDecimal precioCitaNormal() {
+        return calculoPrecio.calcularPrecioFinal(servicio, citaNormal);
+    }
+
+    @Benchmark
+    public BigDecimal precioCitaEmergencia() {
+        return calculoPrecio.calcularPrecioFinal(servicio, citaEmergencia);
+    }
+
+    @Benchmark
+    public CitaResponseDTO mapearCita() {
+        return citaMapper.toResponseDTO(cita);
+    }
+
+    /**
+     * Una página de listado de citas.
+     */
+    @Benchmark
+    public List<CitaResponseDTO> mapearListadoCitas() {
+        return citaMapper.toResponseDTOList(citas);
+    }
+}
@@ -0,0 +1,130 @@
+package com.veterinaria.clinica_veternica.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara dos resultados JSON de JMH (el actual y la referencia guardada) benchmark a benchmark.
+ *
+ * En modo throughput (thrpt) más es mejor; en el resto (avgt, sample, ss) menos es mejor.
+ * Una variación en el sentido malo mayor que la tolerancia es una regresión, salvo que la diferencia
+ * quepa en el margen de error de JMH de ambas mediciones (ruido).
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+final class ComparadorReferencia {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ComparadorReferencia() {
+    }
+
+    /**
+     * @param resultados JSON de la ejecución actual
+     * @param referencia JSON de la referencia
+     * @param toleranciaPorcentaje Variación máxima aceptada, en %
+     * @return Una comparación por benchmark de la ejecución actual
+     */
+    static List<Comparacion> comparar(Path resultados, Path referencia, double toleranciaPorcentaje) throws IOException {
+        Map<String, Puntuacion> actuales = leer(resultados);
+        Map<String, Puntuacion> anteriores = leer(referencia);
+        List<Comparacion> comparaciones = new ArrayList<>();
+        for (Map.Entry<String, Puntuacion> entrada : actuales.entrySet()) {
+            Puntuacion actual = entrada.getValue();
+            Puntuacion anterior = anteriores.get(entrada.getKey());
+            if (anterior == null) {
+                comparaciones.add(new Comparacion(entrada.getKey(), actual, null, null, Veredicto.NUEVO));
+            } else if (!actual.unidad().equals(anterior.unidad()) || anterior.valor() == 0) {
+                comparaciones.add(new Comparacion(entrada.getKey(), actual, anterior, null, Veredicto.NO_COMPARABLE));
+            } else {
+                double variacion = (actual.valor() - anterior.valor()) / anterior.valor() * 100;
+                double empeora = actual.masEsMejor() ? -variacion : variacion;
+                boolean dentroDelError = Math.abs(actual.valor() - anterior.valor()) <= actual.error() + anterior.error();
+                Veredicto veredicto = dentroDelError ? Veredicto.IGUAL
+                        : empeora > toleranciaPorcentaje ? Veredicto.REGRESION
+                        : empeora < -toleranciaPorcentaje ? Veredicto.MEJORA
+                        : Veredicto.IGUAL;
+                comparaciones.add(new Comparacion(entrada.getKey(), actual, anterior, variacion, veredicto));
+            }
+        }
+        return comparaciones;
+    }
+
+    /**
+     * Tabla de texto con las comparaciones.
+     */
+    static String formatear(List<Comparacion> comparaciones) {
+        StringBuilder tabla = new StringBuilder(String.format("%-75s %14s %14s %10s  %s%n",
+                "Benchmark", "Referencia", "Actual", "Variación", "Resultado"));
+        for (Comparacion c : comparaciones) {
+            tabla.append(String.format("%-75s %14s %14s %10s  %s%n",
+                    c.benchmark(),
+                    c.referencia() != null ? c.referencia().formatear() : "-",
+                    c.actual().formatear(),
+                    c.variacionPorcentaje() != null ? String.format("%+.1f%%", c.variacionPorcentaje()) : "-",
+                    c.veredicto()));
+        }
+        return tabla.toString();
+    }
+
+    private static Map<String, Puntuacion> leer(Path archivo) throws IOException {
+        Map<String, Puntuacion> puntuaciones = new LinkedHashMap<>();
+        for (JsonNode resultado : MAPPER.readTree(archivo.toFile())) {
+            JsonNode metrica = resultado.path("primaryMetric");
+            String modo = resultado.path("mode").asText();
+            // Con una sola iteración JMH no calcula el error ("NaN")
+            double error = metrica.path("scoreError").asDouble();
+            puntuaciones.put(clave(resultado), new Puntuacion(metrica.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metrica.path("scoreUnit").asText(), modo));
+        }
+        return puntuaciones;
+    }
+
+    /**
+     * Nombre del benchmark sin el paquete, con sus @Param ordenados: AgendaBenchmark.calcularSlots(ocupacion=0.5) [avgt].
+     */
+    private static String clave(JsonNode resultado) {
+        String benchmark = resultado.path("benchmark").asText()
+                .replace(ComparadorReferencia.class.getPackageName() + ".", "");
+        Map<String, String> params = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> campos = resultado.path("params").fields();
+        campos.forEachRemaining(campo -> params.put(campo.getKey(), campo.getValue().asText()));
+        if (params.isEmpty()) {
+            return benchmark + " [" + resultado.path("mode").asText() + "]";
+        }
+        StringBuilder clave = new StringBuilder(benchmark).append('(');
+        params.forEach((nombre, valor) -> clave.append(nombre).append('=').append(valor).append(','));
+        clave.setLength(clave.length() - 1);
+        return clave.append(") [").append(resultado.path("mode").asText()).append(']').toString();
+    }
+
+    enum Veredicto {
+        IGUAL, MEJORA, REGRESION, NUEVO, NO_COMPARABLE
+    }
+
+    record Puntuacion(double valor, double error, String unidad, String modo) {
+
+        boolean masEsMejor() {
+            return "thrpt".equals(modo);
+        }
+
+        String formatear() {
+            return String.format("%.3f %s", valor, unidad);
+        }
+    }
+
+    record Comparacion(String benchmark, Puntuacion actual, Puntuacion referencia,
+                       Double variacionPorcentaje, Veredicto veredicto) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.veterinaria.clinica_veternica.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Ejecuta los benchmarks JMH, guarda el resultado en JSON y lo compara con la referencia guardada.
+ *
+ * Lo lanza el perfil Maven "benchmark" (mvn -Pbenchmark verify); se configura con propiedades del sistema:
+ * - jmh.incluir: expresión regular de los benchmarks a ejecutar (por defecto todos)
+ * - jmh.forks, jmh.calentamiento, jmh.iteraciones: forks e iteraciones de 1 s de calentamiento y medición
+ * - jmh.resultados: archivo JSON del resultado
+ * - jmh.referencia: archivo JSON de referencia; si existe, se imprime la comparación
+ * - jmh.tolerancia: variación máxima aceptada, en % (por defecto 10)
+ * - jmh.guardarReferencia: si es true, el resultado pasa a ser la nueva referencia
+ * - jmh.fallarSiRegresion: si es true, termina con error cuando algún benchmark empeora más que la tolerancia
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+public final class EjecutorBenchmarks {
+
+    private EjecutorBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path resultados = Path.of(System.getProperty("jmh.resultados", "target/jmh/resultados.json"));
+        Path referencia = Path.of(System.getProperty("jmh.referencia", "src/jmh/referencia.json"));
+        double tolerancia = Double.parseDouble(System.getProperty("jmh.tolerancia", "10"));
+        Files.createDirectories(resultados.toAbsolutePath().getParent());
+
+        Options opciones = new OptionsBuilder()
+                .include(EjecutorBenchmarks.class.getPackageName() + "\\..*" + System.getProperty("jmh.incluir", ".*"))
+                .forks(Integer.getInteger("jmh.forks", 1))
+                .warmupIterations(Integer.getInteger("jmh.calentamiento", 3))
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(Integer.getInteger("jmh.iteraciones", 5))
+                .measurementTime(TimeValue.seconds(1))
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultados.toString())
+                .build();
+        new Runner(opciones).run();
+        System.out.println("Resultados JMH: " + resultados.toAbsolutePath());
+
+        boolean regresion = false;
+        if (Files.exists(referencia)) {
+            List<ComparadorReferencia.Comparacion> comparaciones =
+                    ComparadorReferencia.comparar(resultados, referencia, tolerancia);
+            System.out.printf("%nComparación con %s (tolerancia %.1f%%):%n%n", referencia, tolerancia);
+            System.out.print(ComparadorReferencia.formatear(comparaciones));
+            regresion = comparaciones.stream()
+                    .anyMatch(c -> c.veredicto() == ComparadorReferencia.Veredicto.REGRESION);
+        } else {
+            System.out.println("Sin referencia en " + referencia + " (se guarda con -Djmh.guardarReferencia=true)");
+        }
+
+        if (Boolean.getBoolean("jmh.guardarReferencia")) {
+            Files.createDirectories(referencia.toAbsolutePath().getParent());
+            Files.copy(resultados, referencia, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Referencia actualizada: " + referencia.toAbsolutePath());
+        } else if (regresion && Boolean.getBoolean("jmh.fallarSiRegresion")) {
+            System.err.println("Hay benchmarks más lentos que la referencia por encima de la tolerancia");
+            System.exit(1);
+        }
+    }
+}
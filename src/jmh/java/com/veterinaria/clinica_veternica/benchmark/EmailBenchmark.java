@@ -0,0 +1,51 @@
+package com.veterinaria.clinica_veternica.benchmark;
+
+import com.veterinaria.clinica_veternica.service.EmailService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación del HTML de los correos (EmailService.generarTemplateHtml), sin enviarlos.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmailBenchmark {
+
+    @Param({"info", "success", "error"})
+    public String tipo;
+
+    private EmailService emailService;
+    private String contenido;
+
+    @Setup
+    public void preparar() {
+        // El cliente de SendGrid solo se usa al enviar
+        emailService = new EmailService(null);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "notificaciones@clinica.com");
+        contenido = """
+                <p>Hola <strong>Ana María Gómez</strong>,</p>
+                <p>Le recordamos la cita de <strong>Mascota 1</strong> el <strong>15/12/2025</strong>
+                a las <strong>10:00</strong> con el Dr. Carlos Pérez (Consulta General).</p>
+                <p>Por favor llegue 10 minutos antes.</p>
+                """;
+    }
+
+    @Benchmark
+    public String generarTemplateHtml() {
+        return emailService.generarTemplateHtml("Recordatorio de cita", contenido, tipo);
+    }
+}
@@ -0,0 +1,179 @@
+package com.veterinaria.clinica_veternica.benchmark;
+
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
+import com.veterinaria.clinica_veternica.domain.agenda.Horario;
+import com.veterinaria.clinica_veternica.domain.agenda.Servicio;
+import com.veterinaria.clinica_veternica.domain.agenda.TipoServicio;
+import com.veterinaria.clinica_veternica.domain.paciente.Especie;
+import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
+import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
+import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
+import com.veterinaria.clinica_veternica.dto.request.agenda.CitaRequestDTO;
+import com.veterinaria.clinica_veternica.service.disponibilidad.AgendaDia;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de prueba de los benchmarks, construidos con las entidades y DTOs reales del dominio
+ * (sin base de datos): una jornada de 08:00 a 18:00 con citas de 30 minutos.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+final class FixturesBenchmark {
+
+    static final LocalTime INICIO_JORNADA = LocalTime.of(8, 0);
+    static final LocalTime FIN_JORNADA = LocalTime.of(18, 0);
+    static final int DURACION_CITA = 30;
+
+    private FixturesBenchmark() {
+    }
+
+    static Propietario propietario() {
+        return Propietario.builder()
+                .idPropietario(1L)
+                .documento("1020304050")
+                .tipoDocumento("CC")
+                .nombres("Ana María")
+                .apellidos("Gómez Restrepo")
+                .telefono("3001234567")
+                .email("ana.gomez@correo.com")
+                .direccion("Calle 10 # 20-30")
+                .build();
+    }
+
+    static Mascota mascota(long id, Propietario propietario) {
+        return Mascota.builder()
+                .idMascota(id)
+                .nombre("Mascota " + id)
+                .sexo("Macho")
+                .fechaNacimiento(LocalDate.of(2020, 5, 10))
+                .peso(12.5)
+                .propietario(propietario)
+                .especie(Especie.builder().idEspecie(1L).nombre("Canino").build())
+                .build();
+    }
+
+    static Veterinario veterinario() {
+        return Veterinario.builder()
+                .idPersonal(1L)
+                .nombres("Carlos")
+                .apellidos("Pérez")
+                .documento("80123456")
+                .correo("carlos.perez@clinica.com")
+                .telefono("3109876543")
+                .especialidad("Medicina Interna")
+                .registroProfesional("MV-12345")
+                .build();
+    }
+
+    static Servicio servicio() {
+        return Servicio.builder()
+                .idServicio(1L)
+                .nombre("Consulta General")
+                .tipoServicio(TipoServicio.CONSULTA_GENERAL)
+                .categoria(TipoServicio.CONSULTA_GENERAL.getCategoria())
+                .precio(new BigDecimal("50000.00"))
+                .duracionEstimadaMinutos(DURACION_CITA)
+                .build();
+    }
+
+    /**
+     * Cita válida para un día hábil futuro, dentro de la jornada y alineada con sus intervalos.
+     */
+    static Cita cita(long id, Mascota mascota, Veterinario veterinario, Servicio servicio, LocalTime hora) {
+        return Cita.builder()
+                .idCita(id)
+                .mascota(mascota)
+                .veterinario(veterinario)
+                .servicio(servicio)
+                .fechaCita(proximoDiaHabil())
+                .horaCita(hora)
+                .duracionEstimadaMinutos(DURACION_CITA)
+                .estado(EstadoCita.CONFIRMADA)
+                .motivoConsulta("Control anual y vacunación")
+                .precioFinal(servicio.getPrecio())
+                .build();
+    }
+
+    /**
+     * Citas consecutivas de la jornada, una por mascota.
+     */
+    static List<Cita> citasDelDia(int cantidad) {
+        Propietario propietario = propietario();
+        Veterinario veterinario = veterinario();
+        Servicio servicio = servicio();
+        List<Cita> citas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            LocalTime hora = INICIO_JORNADA.plusMinutes((long) (i % 20) * DURACION_CITA);
+            citas.add(cita(i + 1L, mascota(i + 1L, propietario), veterinario, servicio, hora));
+        }
+        return citas;
+    }
+
+    static CitaRequestDTO citaRequest(boolean emergencia) {
+        return CitaRequestDTO.builder()
+                .idMascota(1L)
+                .idVeterinario(1L)
+                .idServicio(1L)
+                .fechaCita(proximoDiaHabil())
+                .horaCita(LocalTime.of(10, 0))
+                .motivo("Control anual y vacunación")
+                .esEmergencia(emergencia)
+                .build();
+    }
+
+    static Horario horario(Veterinario veterinario, DayOfWeek dia) {
+        return Horario.builder()
+                .idHorario(1L)
+                .veterinario(veterinario)
+                .diaSemana(dia)
+                .horaInicio(INICIO_JORNADA)
+                .horaFin(FIN_JORNADA)
+                .duracionCitaMinutos(DURACION_CITA)
+                .maxCitasSimultaneas(1)
+                .activo(true)
+                .build();
+    }
+
+    /**
+     * Agenda de la jornada (mañana y tarde) con la proporción indicada de slots ocupados.
+     *
+     * @param ocupacion Fracción de slots ocupados, entre 0 y 1
+     */
+    static AgendaDia agenda(double ocupacion) {
+        List<AgendaDia.Tramo> tramos = List.of(
+                new AgendaDia.Tramo(1L, AgendaDia.minuto(INICIO_JORNADA), AgendaDia.minuto(LocalTime.NOON), DURACION_CITA, 1),
+                new AgendaDia.Tramo(2L, AgendaDia.minuto(LocalTime.of(14, 0)), AgendaDia.minuto(FIN_JORNADA), DURACION_CITA, 2));
+        List<AgendaDia.CitaOcupada> citas = new ArrayList<>();
+        long idCita = 1;
+        for (AgendaDia.Tramo tramo : tramos) {
+            int slots = (tramo.fin() - tramo.inicio()) / tramo.paso();
+            int cada = ocupacion <= 0 ? Integer.MAX_VALUE : (int) Math.max(1, Math.round(1 / ocupacion));
+            for (int i = 0; i < slots; i += cada) {
+                int inicio = tramo.inicio() + i * tramo.paso();
+                citas.add(new AgendaDia.CitaOcupada(idCita++, inicio, inicio + tramo.paso(),
+                        EstadoCita.CONFIRMADA.name(), "Mascota " + idCita, "Consulta General"));
+            }
+        }
+        return new AgendaDia(tramos, citas);
+    }
+
+    /**
+     * Próximo lunes a viernes (a partir de mañana), para que la cita no quede en el pasado.
+     */
+    static LocalDate proximoDiaHabil() {
+        LocalDate fecha = LocalDate.now().plusDays(1);
+        while (fecha.getDayOfWeek() == DayOfWeek.SATURDAY || fecha.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            fecha = fecha.plusDays(1);
+        }
+        return fecha;
+    }
+}
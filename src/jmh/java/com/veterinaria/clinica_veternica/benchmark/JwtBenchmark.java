@@ -0,0 +1,59 @@
+package com.veterinaria.clinica_veternica.benchmark;
+
+import com.veterinaria.clinica_veternica.security.jwt.JwtProperties;
+import com.veterinaria.clinica_veternica.security.jwt.JwtUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validación de tokens JWT (firma HMAC y expiración) en cada petición autenticada.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtBenchmark {
+
+    private static final String SECRETO = "clave-de-benchmark-con-longitud-suficiente-para-hs512-0123456789abcdef";
+
+    private JwtUtils jwtUtils;
+    private String tokenValido;
+    private String tokenFirmaInvalida;
+
+    @Setup
+    public void preparar() {
+        jwtUtils = new JwtUtils(propiedades(SECRETO));
+        tokenValido = jwtUtils.generateTokenFromUsername("veterinario@clinica.com");
+        tokenFirmaInvalida = new JwtUtils(propiedades(SECRETO + "-otra"))
+                .generateTokenFromUsername("veterinario@clinica.com");
+    }
+
+    @Benchmark
+    public boolean validarTokenValido() {
+        return jwtUtils.validateJwtToken(tokenValido);
+    }
+
+    /**
+     * Token con firma de otra clave: recorre el camino de rechazo (excepción y log de error).
+     */
+    @Benchmark
+    public boolean validarTokenFirmaInvalida() {
+        return jwtUtils.validateJwtToken(tokenFirmaInvalida);
+    }
+
+    private static JwtProperties propiedades(String secreto) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(secreto);
+        return properties;
+    }
+}
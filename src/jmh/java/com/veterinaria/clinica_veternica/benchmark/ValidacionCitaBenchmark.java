@@ -0,0 +1,87 @@
+package com.veterinaria.clinica_veternica.benchmark;
+
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.Horario;
+import com.veterinaria.clinica_veternica.patterns.behavioral.chain.ValidacionDatosHandler;
+import com.veterinaria.clinica_veternica.patterns.behavioral.chain.ValidacionDisponibilidadHandler;
+import com.veterinaria.clinica_veternica.patterns.behavioral.chain.ValidacionHandler;
+import com.veterinaria.clinica_veternica.patterns.behavioral.chain.ValidacionPermisoHandler;
+import com.veterinaria.clinica_veternica.patterns.behavioral.chain.ValidacionStockHandler;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import com.veterinaria.clinica_veternica.repository.HorarioRepository;
+import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cadena de validaciones de una cita nueva (ValidacionHandler.validar), en el orden de CitaValidationService.
+ *
+ * En la cadena completa los repositorios son stubs de Mockito (como en ValidacionDisponibilidadHandlerTest):
+ * se mide el trabajo en memoria, no las consultas.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidacionCitaBenchmark {
+
+    private ValidacionHandler cadenaCompleta;
+    private ValidacionHandler cadenaSinDisponibilidad;
+    private Cita cita;
+
+    @Setup
+    public void preparar() {
+        Cita existente = FixturesBenchmark.citasDelDia(1).get(0);
+        cita = FixturesBenchmark.cita(100L, existente.getMascota(), existente.getVeterinario(), existente.getServicio(),
+                LocalTime.of(16, 0));
+
+        HorarioRepository horarioRepository = mock(HorarioRepository.class);
+        CitaRepository citaRepository = mock(CitaRepository.class);
+        VeterinarioRepository veterinarioRepository = mock(VeterinarioRepository.class);
+        List<Horario> horarios = List.of(
+                FixturesBenchmark.horario(cita.getVeterinario(), cita.getFechaCita().getDayOfWeek()));
+        when(horarioRepository.findByVeterinario(any())).thenReturn(horarios);
+        when(citaRepository.findCitasSolapadas(any(), any(), any(), any(), any())).thenReturn(List.of());
+
+        cadenaCompleta = new ValidacionDatosHandler();
+        cadenaCompleta
+                .setSiguiente(new ValidacionDisponibilidadHandler(horarioRepository, citaRepository,
+                        veterinarioRepository))
+                .setSiguiente(new ValidacionPermisoHandler())
+                .setSiguiente(new ValidacionStockHandler());
+
+        cadenaSinDisponibilidad = new ValidacionDatosHandler();
+        cadenaSinDisponibilidad
+                .setSiguiente(new ValidacionPermisoHandler())
+                .setSiguiente(new ValidacionStockHandler());
+    }
+
+    @Benchmark
+    public boolean cadenaCompleta() {
+        return cadenaCompleta.validar(cita);
+    }
+
+    /**
+     * Solo las validaciones sin estado (datos, permiso, stock).
+     */
+    @Benchmark
+    public boolean cadenaSinDisponibilidad() {
+        return cadenaSinDisponibilidad.validar(cita);
+    }
+}
@@ -0,0 +1,101 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executors de las tareas en segundo plano, uno por carga de trabajo.
+ *
+ * Cada pool es acotado (hilos y cola) y tiene su política de rechazo, de modo que una
+ * carga (p. ej. reportes) no agota los hilos de las demás. Los límites se definen en
+ * application-*.properties con el prefijo "app.async" (ver {@link AsyncProperties}).
+ * Las métricas de cada pool se consultan en /api/admin/monitoreo/ejecutores.
+ *
+ * Uso: {@code @Async(AsyncConfig.EJECUTOR_RECORDATORIOS)}; un @Async sin nombre usa el
+ * pool de notificaciones.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-23
+ */
+@Slf4j
+@Configuration
+public class AsyncConfig {
+
+    public static final String EJECUTOR_NOTIFICACIONES = "ejecutorNotificaciones";
+    public static final String EJECUTOR_RECORDATORIOS = "ejecutorRecordatorios";
+    public static final String EJECUTOR_REPORTES = "ejecutorReportes";
+    public static final String EJECUTOR_MANTENIMIENTO = "ejecutorMantenimiento";
+
+    private final AsyncProperties properties;
+    private final TaskDecorator propagacionContexto = new PropagacionContextoDecorator();
+
+    public AsyncConfig(AsyncProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean(EJECUTOR_NOTIFICACIONES)
+    public EjecutorMonitorizado ejecutorNotificaciones() {
+        return crearEjecutor("notificaciones", properties.getNotificaciones());
+    }
+
+    @Bean(EJECUTOR_RECORDATORIOS)
+    public EjecutorMonitorizado ejecutorRecordatorios() {
+        return crearEjecutor("recordatorios", properties.getRecordatorios());
+    }
+
+    @Bean(EJECUTOR_REPORTES)
+    public EjecutorMonitorizado ejecutorReportes() {
+        return crearEjecutor("reportes", properties.getReportes());
+    }
+
+    @Bean(EJECUTOR_MANTENIMIENTO)
+    public EjecutorMonitorizado ejecutorMantenimiento() {
+        return crearEjecutor("mantenimiento", properties.getMantenimiento());
+    }
+
+    private EjecutorMonitorizado crearEjecutor(String nombre, AsyncProperties.Pool pool) {
+        EjecutorMonitorizado ejecutor = new EjecutorMonitorizado(nombre, pool, propagacionContexto);
+        ejecutor.setAwaitTerminationMillis(properties.getTiempoEsperaApagado().toMillis());
+        log.info("Pool {}: {}-{} hilos, cola {}, rechazo {} (hilos virtuales: {})", nombre,
+                pool.getHilos(), pool.getHilosMaximos(), pool.getCapacidadCola(),
+                pool.getPoliticaRechazo(), pool.isHilosVirtuales());
+        return ejecutor;
+    }
+
+    /**
+     * Habilita @Async. Con app.async.habilitado=false (tests) los métodos @Async se
+     * ejecutan en el hilo que los invoca.
+     */
+    @Configuration
+    @EnableAsync
+    @ConditionalOnProperty(name = "app.async.habilitado", havingValue = "true", matchIfMissing = true)
+    static class HabilitarAsync implements AsyncConfigurer {
+
+        private final Executor ejecutorPorDefecto;
+
+        HabilitarAsync(@Qualifier(EJECUTOR_NOTIFICACIONES) Executor ejecutorPorDefecto) {
+            this.ejecutorPorDefecto = ejecutorPorDefecto;
+        }
+
+        @Override
+        public Executor getAsyncExecutor() {
+            return ejecutorPorDefecto;
+        }
+
+        @Override
+        public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+            return (error, metodo, parametros) -> log.error("Error en tarea asíncrona {}.{}: {}",
+                    metodo.getDeclaringClass().getSimpleName(), metodo.getName(), error.getMessage(), error);
+        }
+    }
+}
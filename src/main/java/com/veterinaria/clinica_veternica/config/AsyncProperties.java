@@ -0,0 +1,115 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propiedades de los executors de tareas en segundo plano (@Async) y del programador (@Scheduled).
+ * Se cargan desde application-*.properties con el prefijo "app.async".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.async")
+@Getter
+@Setter
+public class AsyncProperties {
+
+    /**
+     * Si es false, los métodos @Async se ejecutan en el hilo que los invoca (tests).
+     */
+    private boolean habilitado = true;
+
+    /**
+     * Envío inmediato de notificaciones y correos.
+     */
+    private Pool notificaciones = new Pool(2, 8, 500, false, PoliticaRechazo.EJECUTAR_EN_LLAMADOR);
+
+    /**
+     * Programación de recordatorios de citas.
+     */
+    private Pool recordatorios = new Pool(2, 4, 1000, false, PoliticaRechazo.EJECUTAR_EN_LLAMADOR);
+
+    /**
+     * Generación de reportes; cola corta para no acumular trabajos pesados.
+     */
+    private Pool reportes = new Pool(2, 2, 20, false, PoliticaRechazo.ABORTAR);
+
+    /**
+     * Tareas de mantenimiento (limpiezas, consolidaciones).
+     */
+    private Pool mantenimiento = new Pool(1, 2, 100, false, PoliticaRechazo.DESCARTAR);
+
+    /**
+     * Hilos del programador de tareas @Scheduled.
+     */
+    private int hilosProgramador = 2;
+
+    /**
+     * Tiempo máximo de espera para terminar las tareas en curso al apagar la aplicación.
+     */
+    private Duration tiempoEsperaApagado = Duration.ofSeconds(10);
+
+    /**
+     * Identificador de esta instancia en los bloqueos de tareas programadas.
+     * Si está vacío se usa "pid@host".
+     */
+    private String nodo;
+
+    /**
+     * Configuración de un pool de ejecución.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+
+        /**
+         * Hilos que se mantienen activos.
+         */
+        private int hilos;
+
+        /**
+         * Hilos máximos; se crean solo cuando la cola está llena.
+         */
+        private int hilosMaximos;
+
+        /**
+         * Capacidad de la cola de tareas pendientes.
+         */
+        private int capacidadCola;
+
+        /**
+         * Usar hilos virtuales (los límites de hilos siguen acotando la concurrencia).
+         */
+        private boolean hilosVirtuales;
+
+        /**
+         * Qué hacer con una tarea cuando la cola y los hilos están llenos.
+         */
+        private PoliticaRechazo politicaRechazo;
+    }
+
+    /**
+     * Políticas de rechazo de un pool saturado.
+     */
+    public enum PoliticaRechazo {
+        /**
+         * La tarea se ejecuta en el hilo que la envía (contrapresión).
+         */
+        EJECUTAR_EN_LLAMADOR,
+        /**
+         * Se lanza TaskRejectedException al que envía la tarea.
+         */
+        ABORTAR,
+        /**
+         * La tarea se descarta y se registra una advertencia.
+         */
+        DESCARTAR
+    }
+}
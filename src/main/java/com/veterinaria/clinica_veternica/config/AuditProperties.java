@@ -0,0 +1,45 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propiedades del sistema de auditoría (AuditLogger).
+ * Se cargan desde application-*.properties con el prefijo "app.audit".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.audit")
+@Getter
+@Setter
+public class AuditProperties {
+
+    /**
+     * Persistir los registros en la tabla registros_auditoria (write-behind).
+     * Si es false, la auditoría solo vive en memoria.
+     */
+    private boolean persistenceEnabled = false;
+
+    /**
+     * Capacidad del buffer circular en memoria. Se redondea a potencia de 2.
+     */
+    private int ringCapacity = 16384;
+
+    /**
+     * Número máximo de filas por lote JDBC.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Intervalo entre vaciados del buffer hacia la base de datos.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Escribir también cada registro en el log de la aplicación (nivel DEBUG).
+     */
+    private boolean logToSlf4j = true;
+}
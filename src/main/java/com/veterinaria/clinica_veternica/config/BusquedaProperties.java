@@ -0,0 +1,50 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propiedades de la búsqueda por nombre (índice de trigramas y búsqueda global).
+ * Se cargan desde application-*.properties con el prefijo "app.busqueda".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.busqueda")
+@Getter
+@Setter
+public class BusquedaProperties {
+
+    /**
+     * Si es false, las búsquedas usan las consultas LIKE de los repositorios.
+     */
+    private boolean indiceHabilitado = true;
+
+    /**
+     * Número máximo de resultados por tipo de entidad.
+     */
+    private int maximoResultados = 100;
+
+    /**
+     * Similitud de trigramas mínima (0-1) para aceptar una palabra parecida pero no igual.
+     */
+    private double similitudMinima = 0.3;
+
+    /**
+     * Filas por página al cargar el índice al arrancar.
+     */
+    private int tamanioLoteCarga = 1000;
+
+    /**
+     * Tipos de entidad que la búsqueda global consulta en paralelo
+     * (cada uno ocupa una conexión del pool mientras dura).
+     */
+    private int paralelismo = 3;
+
+    /**
+     * Tiempo máximo de espera por la búsqueda global completa.
+     */
+    private Duration tiempoMaximo = Duration.ofSeconds(10);
+}
@@ -1,13 +1,22 @@
 package com.veterinaria.clinica_veternica.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCache;
-import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Configuración de Spring Cache para mejorar el rendimiento del sistema.
@@ -15,18 +24,24 @@ import java.util.Arrays;
  * Implementa caché en memoria para consultas frecuentes, reduciendo la carga
  * en la base de datos y mejorando los tiempos de respuesta.
  *
- * Esta configuración utiliza SimpleCacheManager con ConcurrentMapCache,
- * apropiado para desarrollo y aplicaciones de tamaño medio.
+ * Esta configuración utiliza CaffeineCacheManager: cada caché tiene un tamaño
+ * (o peso) máximo, TTL de escritura/acceso, admisión W-TinyLFU y contadores de
+ * aciertos/fallos/desalojos. Los límites se definen en application-*.properties
+ * con el prefijo "app.cache" (ver {@link CacheTierProperties}).
  *
- * NOTA: Para aplicaciones de alto tráfico, considerar Redis o Hazelcast.
+ * Con spring.cache.type=none (perfil dev) se registra un NoOpCacheManager y
+ * las anotaciones de caché no tienen efecto.
+ *
+ * NOTA: Para despliegues con varias instancias, considerar Redis o Hazelcast.
  *
  * Patrones de diseño relacionados:
  * - Proxy Pattern: El caché actúa como proxy del servicio real
  *
  * @author Clínica Veterinaria Team
- * @version 1.0
+ * @version 2.0
  * @since 2025-11-02
  */
+@Slf4j
 @Configuration
 @EnableCaching
 public class CacheConfig {
@@ -43,6 +58,26 @@ public class CacheConfig {
     public static final String CACHE_RAZAS = "razas";
     public static final String CACHE_INSUMOS = "insumos";
     public static final String CACHE_VETERINARIOS = "veterinarios";
+    public static final String CACHE_INVENTARIO = "inventario";
+
+    /**
+     * Nombres de todos los cachés registrados.
+     *
+     * - servicios: Tipos de servicios (consultas, cirugías, vacunaciones, etc.). Cambio: Baja
+     * - mascotas: Información básica de mascotas activas. Cambio: Media
+     * - propietarios: Información de contacto de propietarios. Cambio: Media
+     * - horarios: Disponibilidad y horarios de atención. Cambio: Baja
+     * - especies: Catálogo de especies. Cambio: Muy baja
+     * - razas: Catálogo de razas por especie. Cambio: Muy baja
+     * - insumos: Catálogo de insumos médicos y medicamentos. Cambio: Baja
+     * - veterinarios: Información de veterinarios activos. Cambio: Baja
+     * - inventario: Listado del inventario de insumos activos; se invalida tras cada
+     *   movimiento de stock (MotorMovimientosStock). Cambio: Alta
+     */
+    public static final List<String> CACHE_NAMES = List.of(
+            CACHE_SERVICIOS, CACHE_MASCOTAS, CACHE_PROPIETARIOS, CACHE_HORARIOS,
+            CACHE_ESPECIES, CACHE_RAZAS, CACHE_INSUMOS, CACHE_VETERINARIOS,
+            CACHE_INVENTARIO);
 
     /**
      * Configuración del CacheManager.
@@ -67,55 +102,82 @@ public class CacheConfig {
      * }
      * </pre>
      *
+     * @param properties Límites y TTL por caché (prefijo "app.cache")
+     * @param cacheType Valor de spring.cache.type; "none" deshabilita el caché
      * @return CacheManager configurado con los cachés definidos
      */
     @Bean
-    public CacheManager cacheManager() {
-        SimpleCacheManager cacheManager = new SimpleCacheManager();
-
-        cacheManager.setCaches(Arrays.asList(
-                // Caché para servicios veterinarios
-                // Datos: Tipos de servicios (consultas, cirugías, vacunaciones, etc.)
-                // Frecuencia de cambio: Baja
-                new ConcurrentMapCache(CACHE_SERVICIOS),
+    public CacheManager cacheManager(CacheTierProperties properties,
+                                     @Value("${spring.cache.type:}") String cacheType) {
+        if ("none".equalsIgnoreCase(cacheType)) {
+            log.info("Caché deshabilitado (spring.cache.type=none)");
+            return new NoOpCacheManager();
+        }
 
-                // Caché para mascotas
-                // Datos: Información básica de mascotas activas
-                // Frecuencia de cambio: Media
-                new ConcurrentMapCache(CACHE_MASCOTAS),
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Solo se permiten los cachés definidos aquí (no se crean cachés dinámicos sin límite)
+        cacheManager.setCacheNames(List.of());
 
-                // Caché para propietarios
-                // Datos: Información de contacto de propietarios
-                // Frecuencia de cambio: Media
-                new ConcurrentMapCache(CACHE_PROPIETARIOS),
+        for (String cacheName : CACHE_NAMES) {
+            cacheManager.registerCustomCache(cacheName, buildCache(properties.resolve(cacheName)).build());
+        }
 
-                // Caché para horarios de veterinarios
-                // Datos: Disponibilidad y horarios de atención
-                // Frecuencia de cambio: Baja
-                new ConcurrentMapCache(CACHE_HORARIOS),
-
-                // Caché para especies
-                // Datos: Catálogo de especies (perro, gato, ave, etc.)
-                // Frecuencia de cambio: Muy baja
-                new ConcurrentMapCache(CACHE_ESPECIES),
-
-                // Caché para razas
-                // Datos: Catálogo de razas por especie
-                // Frecuencia de cambio: Muy baja
-                new ConcurrentMapCache(CACHE_RAZAS),
-
-                // Caché para insumos
-                // Datos: Catálogo de insumos médicos y medicamentos
-                // Frecuencia de cambio: Baja
-                new ConcurrentMapCache(CACHE_INSUMOS),
+        return cacheManager;
+    }
 
-                // Caché para veterinarios
-                // Datos: Información de veterinarios activos
-                // Frecuencia de cambio: Baja
-                new ConcurrentMapCache(CACHE_VETERINARIOS)
-        ));
+    /**
+     * Construye el builder de Caffeine a partir de la configuración de un caché.
+     *
+     * @param spec Configuración efectiva del caché
+     * @return Builder de Caffeine configurado
+     */
+    static Caffeine<Object, Object> buildCache(CacheTierProperties.Spec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight())
+                    .weigher((key, value) -> value instanceof Collection<?> collection
+                            ? Math.max(1, collection.size())
+                            : 1);
+        } else if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        if (Boolean.TRUE.equals(spec.getRecordStats())) {
+            builder.recordStats();
+        }
+        return builder;
+    }
 
-        return cacheManager;
+    /**
+     * Obtiene las estadísticas (aciertos, fallos, desalojos, tamaño) de cada caché.
+     *
+     * @param cacheManager CacheManager de la aplicación
+     * @return Estadísticas por nombre de caché; vacío si el caché está deshabilitado
+     */
+    public static Map<String, Map<String, Object>> obtenerEstadisticas(CacheManager cacheManager) {
+        Map<String, Map<String, Object>> resultado = new LinkedHashMap<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                Map<String, Object> datos = new LinkedHashMap<>();
+                datos.put("entradas", nativeCache.estimatedSize());
+                datos.put("aciertos", stats.hitCount());
+                datos.put("fallos", stats.missCount());
+                datos.put("tasaAciertos", stats.hitRate());
+                datos.put("desalojos", stats.evictionCount());
+                datos.put("pesoDesalojado", stats.evictionWeight());
+                resultado.put(cacheName, datos);
+            }
+        }
+        return resultado;
     }
 
     /**
@@ -132,18 +194,11 @@ public class CacheConfig {
      *    - Transacciones financieras
      *
      * 3. ESTRATEGIAS DE INVALIDACIÓN:
-     *    - Time-based: Evictar después de X tiempo (no implementado aquí)
+     *    - Time-based: Evictar después de X tiempo (app.cache.*.expire-after-write/access)
      *    - Event-based: Evictar cuando se modifica la entidad (recomendado)
      *
      * 4. MEJORAS FUTURAS:
-     *    - Implementar TTL (Time To Live) para cada caché
      *    - Migrar a Redis para aplicaciones distribuidas
-     *    - Implementar estadísticas de hit/miss del caché
-     *    - Configurar tamaño máximo de cada caché
-     *
-
-     * - Redis con Spring Data Redis
-     * - Hazelcast para caché distribuido
-     * - Caffeine como implementación más eficiente
+     *    - Hazelcast para caché distribuido
      */
 }
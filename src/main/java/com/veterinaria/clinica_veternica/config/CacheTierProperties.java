@@ -0,0 +1,105 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Propiedades de configuración del nivel de caché (Caffeine).
+ * Se cargan desde application-*.properties con el prefijo "app.cache".
+ *
+ * Ejemplo:
+ * <pre>
+ * app.cache.defaults.maximum-size=1000
+ * app.cache.defaults.expire-after-write=10m
+ * app.cache.specs.especies.maximum-size=200
+ * app.cache.specs.especies.expire-after-write=1h
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+@Getter
+@Setter
+public class CacheTierProperties {
+
+    /**
+     * Configuración aplicada a todos los cachés que no definan la suya.
+     */
+    private Spec defaults = Spec.porDefecto();
+
+    /**
+     * Configuración específica por nombre de caché (servicios, mascotas, ...).
+     * Los valores no definidos se heredan de {@link #defaults}.
+     */
+    private Map<String, Spec> specs = new HashMap<>();
+
+    /**
+     * Devuelve la configuración efectiva de un caché, combinando la específica
+     * con los valores por defecto.
+     *
+     * @param cacheName Nombre del caché
+     * @return Configuración efectiva
+     */
+    public Spec resolve(String cacheName) {
+        Spec specific = specs.get(cacheName);
+        if (specific == null) {
+            return defaults;
+        }
+        Spec merged = new Spec();
+        merged.setMaximumSize(specific.getMaximumSize() != null ? specific.getMaximumSize() : defaults.getMaximumSize());
+        merged.setMaximumWeight(specific.getMaximumWeight() != null ? specific.getMaximumWeight() : defaults.getMaximumWeight());
+        merged.setExpireAfterWrite(specific.getExpireAfterWrite() != null ? specific.getExpireAfterWrite() : defaults.getExpireAfterWrite());
+        merged.setExpireAfterAccess(specific.getExpireAfterAccess() != null ? specific.getExpireAfterAccess() : defaults.getExpireAfterAccess());
+        merged.setRecordStats(specific.getRecordStats() != null ? specific.getRecordStats() : defaults.getRecordStats());
+        return merged;
+    }
+
+    /**
+     * Límites y tiempos de vida de un caché. Un campo null hereda el valor de {@link #defaults}.
+     */
+    @Getter
+    @Setter
+    public static class Spec {
+
+        /**
+         * Número máximo de entradas. Se ignora si se define {@link #maximumWeight}.
+         */
+        private Long maximumSize;
+
+        /**
+         * Peso máximo total. Las colecciones pesan su tamaño, el resto pesa 1.
+         */
+        private Long maximumWeight;
+
+        /**
+         * Tiempo de vida desde la escritura.
+         */
+        private Duration expireAfterWrite;
+
+        /**
+         * Tiempo de vida desde el último acceso.
+         */
+        private Duration expireAfterAccess;
+
+        /**
+         * Registrar estadísticas de aciertos, fallos y desalojos.
+         */
+        private Boolean recordStats;
+
+        /**
+         * Valores por defecto de todos los cachés: 1000 entradas, 10 minutos desde la escritura y estadísticas.
+         */
+        static Spec porDefecto() {
+            Spec spec = new Spec();
+            spec.setMaximumSize(1000L);
+            spec.setExpireAfterWrite(Duration.ofMinutes(10));
+            spec.setRecordStats(Boolean.TRUE);
+            return spec;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propiedades del envío de comunicaciones (outbox de la tabla comunicaciones y cliente SendGrid).
+ * Se cargan desde application-*.properties con el prefijo "app.comunicaciones".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.comunicaciones")
+@Getter
+@Setter
+public class ComunicacionesProperties {
+
+    /**
+     * Si es false, el despachador no envía las comunicaciones programadas.
+     */
+    private boolean outboxHabilitado = true;
+
+    /**
+     * Espera entre ejecuciones del despachador (la usa @Scheduled).
+     */
+    private Duration intervalo = Duration.ofSeconds(15);
+
+    /**
+     * Comunicaciones que reclama cada nodo por transacción.
+     */
+    private int tamanioLote = 100;
+
+    /**
+     * Tiempo durante el cual una comunicación reclamada queda reservada para el nodo que la
+     * reclamó. Si el nodo cae antes de registrar el resultado, otro la reintenta al vencer.
+     */
+    private Duration arriendo = Duration.ofMinutes(5);
+
+    /**
+     * Espera antes del primer reintento; se duplica en cada intento fallido.
+     */
+    private Duration esperaReintento = Duration.ofMinutes(1);
+
+    /**
+     * Espera máxima entre reintentos.
+     */
+    private Duration esperaMaximaReintento = Duration.ofHours(1);
+
+    /**
+     * URL del endpoint mail/send de SendGrid.
+     */
+    private String sendgridUrl = "https://api.sendgrid.com/v3/mail/send";
+
+    /**
+     * Destinatarios por petición a SendGrid (una personalización por destinatario, máximo 1000).
+     */
+    private int destinatariosPorPeticion = 1000;
+
+    /**
+     * Peticiones a SendGrid en curso a la vez.
+     */
+    private int enviosConcurrentes = 8;
+
+    /**
+     * Tiempo máximo de conexión con SendGrid.
+     */
+    private Duration tiempoConexion = Duration.ofSeconds(10);
+
+    /**
+     * Tiempo máximo de respuesta de cada petición a SendGrid.
+     */
+    private Duration tiempoMaximoEnvio = Duration.ofSeconds(30);
+}
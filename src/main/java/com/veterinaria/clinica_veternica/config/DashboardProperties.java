@@ -0,0 +1,36 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propiedades de las estadísticas del dashboard.
+ * Se cargan desde application-*.properties con el prefijo "app.dashboard".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.dashboard")
+@Getter
+@Setter
+public class DashboardProperties {
+
+    /**
+     * Vigencia máxima de la instantánea de estadísticas generales.
+     * Los eventos de citas la invalidan antes; el resto de cambios se reflejan al vencer.
+     */
+    private Duration snapshotTtl = Duration.ofSeconds(30);
+
+    /**
+     * Número de consultas COUNT que se ejecutan en paralelo al recalcular
+     * (cada una ocupa una conexión del pool mientras dura).
+     */
+    private int parallelism = 3;
+
+    /**
+     * Tiempo máximo de espera por el recálculo completo.
+     */
+    private Duration queryTimeout = Duration.ofSeconds(10);
+}
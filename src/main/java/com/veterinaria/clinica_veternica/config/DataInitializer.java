@@ -1,6 +1,7 @@
 package com.veterinaria.clinica_veternica.config;
 
 import com.veterinaria.clinica_veternica.domain.usuario.Usuario;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
 import com.veterinaria.clinica_veternica.repository.UsuarioRepository;
 import com.veterinaria.clinica_veternica.domain.usuario.RolUsuario; // <-- AJUSTA si tu enum está en otro paquete
 import lombok.RequiredArgsConstructor;
@@ -80,4 +81,23 @@ public class DataInitializer {
             }
         };
     }
+
+    /**
+     * Completa minuto_inicio/minuto_fin en las citas creadas antes de que existieran
+     * esas columnas (ddl-auto=update las agrega vacías), para que la detección de
+     * solapes por intervalo las tenga en cuenta.
+     */
+    @Bean
+    CommandLineRunner completarIntervalosCitas(CitaRepository citaRepository) {
+        return args -> {
+            try {
+                int actualizadas = citaRepository.completarIntervalosMinutos();
+                if (actualizadas > 0) {
+                    log.info("✅ Intervalo en minutos calculado para {} citas existentes", actualizadas);
+                }
+            } catch (Exception e) {
+                log.error("❌ ERROR al calcular el intervalo en minutos de las citas: {}", e.getMessage(), e);
+            }
+        };
+    }
 }
@@ -0,0 +1,40 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propiedades del índice de disponibilidad de veterinarios.
+ * Se cargan desde application-*.properties con el prefijo "app.disponibilidad".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.disponibilidad")
+@Getter
+@Setter
+public class DisponibilidadProperties {
+
+    /**
+     * Número máximo de agendas (veterinario + día) en memoria.
+     */
+    private long maximoAgendas = 20_000;
+
+    /**
+     * Vigencia máxima de una agenda en memoria. Los eventos de citas y los cambios de
+     * horario la mantienen al día; el vencimiento cubre cambios hechos por otras vías.
+     */
+    private Duration expiracion = Duration.ofMinutes(10);
+
+    /**
+     * Días que se recorren por defecto al buscar el próximo hueco libre.
+     */
+    private int diasBusquedaPorDefecto = 14;
+
+    /**
+     * Máximo de días que se permite recorrer al buscar el próximo hueco libre.
+     */
+    private int maximoDiasBusqueda = 90;
+}
@@ -0,0 +1,116 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Executor acotado (cola y hilos máximos) de una carga de trabajo, con métricas propias.
+ *
+ * CARACTERÍSTICAS:
+ * - Hilos con nombre "&lt;pool&gt;-N", de plataforma o virtuales
+ * - Política de rechazo configurable cuando la cola y los hilos están llenos
+ * - Propaga el MDC y el SecurityContext del hilo que envía la tarea
+ * - Métricas: tareas enviadas, completadas, fallidas y rechazadas, profundidad de la
+ *   cola, hilos activos, espera en cola y duración
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-23
+ */
+@Slf4j
+public class EjecutorMonitorizado extends ThreadPoolTaskExecutor {
+
+    private final String nombre;
+
+    private final AtomicLong enviadas = new AtomicLong();
+    private final AtomicLong completadas = new AtomicLong();
+    private final AtomicLong fallidas = new AtomicLong();
+    private final AtomicLong rechazadas = new AtomicLong();
+    private final AtomicLong esperaTotalMs = new AtomicLong();
+    private final LongAccumulator esperaMaximaMs = new LongAccumulator(Math::max, 0);
+    private final AtomicLong duracionTotalMs = new AtomicLong();
+
+    public EjecutorMonitorizado(String nombre, AsyncProperties.Pool pool, TaskDecorator contexto) {
+        this.nombre = nombre;
+        int hilos = Math.max(1, pool.getHilos());
+        setCorePoolSize(hilos);
+        setMaxPoolSize(Math.max(hilos, pool.getHilosMaximos()));
+        setQueueCapacity(Math.max(0, pool.getCapacidadCola()));
+        setThreadNamePrefix(nombre + "-");
+        setDaemon(true);
+        setVirtualThreads(pool.isHilosVirtuales());
+        setRejectedExecutionHandler(politicaRechazo(pool.getPoliticaRechazo()));
+        setTaskDecorator(tarea -> medir(contexto.decorate(tarea)));
+        setWaitForTasksToCompleteOnShutdown(true);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    private Runnable medir(Runnable tarea) {
+        long enviadaEn = System.nanoTime();
+        enviadas.incrementAndGet();
+        return () -> {
+            long inicio = System.nanoTime();
+            long esperaMs = TimeUnit.NANOSECONDS.toMillis(inicio - enviadaEn);
+            esperaTotalMs.addAndGet(esperaMs);
+            esperaMaximaMs.accumulate(esperaMs);
+            boolean exito = false;
+            try {
+                tarea.run();
+                exito = true;
+            } finally {
+                duracionTotalMs.addAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+                (exito ? completadas : fallidas).incrementAndGet();
+            }
+        };
+    }
+
+    private RejectedExecutionHandler politicaRechazo(AsyncProperties.PoliticaRechazo politica) {
+        return (tarea, executor) -> {
+            rechazadas.incrementAndGet();
+            switch (politica == null ? AsyncProperties.PoliticaRechazo.EJECUTAR_EN_LLAMADOR : politica) {
+                case EJECUTAR_EN_LLAMADOR -> {
+                    if (!executor.isShutdown()) {
+                        tarea.run();
+                    }
+                }
+                case ABORTAR -> throw new RejectedExecutionException(
+                        "Pool " + nombre + " saturado: " + executor.getQueue().size() + " tareas en cola");
+                case DESCARTAR -> log.warn("Pool {} saturado: tarea descartada", nombre);
+            }
+        };
+    }
+
+    /**
+     * Obtiene las métricas del pool.
+     *
+     * @return Mapa de métricas (contadores, cola, hilos y latencias en ms)
+     */
+    public Map<String, Object> getEstadisticas() {
+        long terminadas = completadas.get() + fallidas.get();
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("enviadas", enviadas.get());
+        datos.put("completadas", completadas.get());
+        datos.put("fallidas", fallidas.get());
+        datos.put("rechazadas", rechazadas.get());
+        datos.put("enCola", getQueueSize());
+        datos.put("activas", getActiveCount());
+        datos.put("hilos", getPoolSize());
+        datos.put("hilosMaximos", getMaxPoolSize());
+        datos.put("esperaPromedioMs", terminadas == 0 ? 0 : esperaTotalMs.get() / terminadas);
+        datos.put("esperaMaximaMs", esperaMaximaMs.get());
+        datos.put("duracionPromedioMs", terminadas == 0 ? 0 : duracionTotalMs.get() / terminadas);
+        return datos;
+    }
+}
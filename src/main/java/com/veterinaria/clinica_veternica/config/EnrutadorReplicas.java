@@ -0,0 +1,316 @@
+package com.veterinaria.clinica_veternica.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envía las transacciones de solo lectura a las réplicas y el resto a la base de datos principal.
+ *
+ * El DataSource de la aplicación pasa a ser un {@link LazyConnectionDataSourceProxy} que solo
+ * pide la conexión real al ejecutar la primera sentencia, cuando ya se sabe si la transacción
+ * es @Transactional(readOnly = true):
+ * - Lectura: se usa la siguiente réplica disponible (rotación); si ninguna lo está, o la
+ *   conexión falla, se usa la principal
+ * - Una réplica deja de estar disponible cuando su retraso de replicación supera
+ *   app.datasource.replicas.retraso-maximo o la comprobación periódica falla; vuelve
+ *   a recibir lecturas en la siguiente comprobación correcta
+ * - Lectura de escrituras propias: tras confirmar una transacción de escritura, las lecturas
+ *   del mismo usuario van a la principal durante app.datasource.replicas.ventana-lectura-propia
+ *
+ * Las sentencias fuera de una transacción (autocommit) siempre van a la principal.
+ *
+ * Las lecturas que llenan una caché van a la principal con {@link #enPrincipal}: un acierto de
+ * caché no pasa por el enrutamiento, así que un dato leído con retraso de una réplica se serviría
+ * hasta que la entrada expire, aunque la escritura ya la hubiera invalidado. Son:
+ * - Métodos @Cacheable/@CachePut (advisor de {@link ReplicasConfig})
+ * - CachedServiceProxy (listados de mascotas y propietarios)
+ * - JwtPrincipalCache (usuario autenticado por token)
+ * - IndiceDisponibilidad (horarios y agendas del día, en una transacción propia)
+ * enPrincipal solo afecta a transacciones que aún no tienen conexión; por eso el índice de
+ * disponibilidad, al que se llama con la transacción del servicio ya iniciada, abre la suya.
+ *
+ * La ventana de lectura propia es local a cada instancia: tras una escritura, una lectura del mismo
+ * usuario atendida por otro nodo puede ir a una réplica.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+@Slf4j
+public class EnrutadorReplicas extends AbstractDataSource {
+
+    private final List<Replica> replicas;
+    private final ReplicasProperties properties;
+    private final Cache<String, LocalDateTime> escriturasRecientes;
+    private final AtomicInteger siguiente = new AtomicInteger();
+
+    private final AtomicLong lecturasReplica = new AtomicLong();
+    private final AtomicLong lecturasPrimarioSinReplica = new AtomicLong();
+    private final AtomicLong lecturasPrimarioLecturaPropia = new AtomicLong();
+    private final AtomicLong lecturasPrimarioCache = new AtomicLong();
+    private final AtomicLong fallosConexionReplica = new AtomicLong();
+    private final AtomicLong escriturasRegistradas = new AtomicLong();
+
+    private volatile DataSource primario;
+
+    /**
+     * Profundidad de llamadas a enPrincipal en el hilo actual.
+     */
+    private static final ThreadLocal<int[]> LECTURAS_PRINCIPAL = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * @param replicas Pools de las réplicas, por nombre
+     * @param properties Propiedades de las réplicas
+     */
+    public EnrutadorReplicas(Map<String, DataSource> replicas, ReplicasProperties properties) {
+        this.replicas = replicas.entrySet().stream()
+                .map(replica -> new Replica(replica.getKey(), replica.getValue()))
+                .toList();
+        this.properties = properties;
+        this.escriturasRecientes = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getVentanaLecturaPropia())
+                .build();
+    }
+
+    /**
+     * Crea el DataSource de la aplicación sobre la base de datos principal y comprueba las réplicas.
+     *
+     * @param principal DataSource de la base de datos principal
+     * @return DataSource que enruta cada transacción según sea de solo lectura
+     */
+    public DataSource enrutar(DataSource principal) {
+        this.primario = principal;
+        verificar();
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(new PrincipalConEscrituras(principal));
+        proxy.setReadOnlyDataSource(this);
+        return proxy;
+    }
+
+    /**
+     * Comprueba la disponibilidad y el retraso de replicación de cada réplica.
+     *
+     * @return Réplicas disponibles
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.intervalo-verificacion:10s}",
+               initialDelayString = "${app.datasource.replicas.intervalo-verificacion:10s}")
+    public int verificar() {
+        int disponibles = 0;
+        for (Replica replica : replicas) {
+            replica.verificar();
+            if (replica.disponible) {
+                disponibles++;
+            }
+        }
+        return disponibles;
+    }
+
+    /**
+     * Conexión para una transacción de solo lectura (la pide el proxy al ejecutar su primera sentencia).
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (LECTURAS_PRINCIPAL.get()[0] > 0) {
+            lecturasPrimarioCache.incrementAndGet();
+            return primario.getConnection();
+        }
+        if (escriturasRecientes.getIfPresent(usuarioActual()) != null) {
+            lecturasPrimarioLecturaPropia.incrementAndGet();
+            return primario.getConnection();
+        }
+        int total = replicas.size();
+        int inicio = Math.floorMod(siguiente.getAndIncrement(), Math.max(1, total));
+        for (int i = 0; i < total; i++) {
+            Replica replica = replicas.get((inicio + i) % total);
+            if (!replica.disponible) {
+                continue;
+            }
+            try {
+                Connection conexion = replica.dataSource.getConnection();
+                lecturasReplica.incrementAndGet();
+                return conexion;
+            } catch (SQLException e) {
+                fallosConexionReplica.incrementAndGet();
+                replica.marcarNoDisponible("sin conexión: " + e.getMessage());
+            }
+        }
+        lecturasPrimarioSinReplica.incrementAndGet();
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Las conexiones de solo lectura usan las credenciales configuradas de cada réplica");
+    }
+
+    /**
+     * Ejecuta una lectura cuyas transacciones de solo lectura usan la base de datos principal.
+     *
+     * Solo afecta a las transacciones que aún no han obtenido su conexión (el proxy la pide en
+     * la primera sentencia). Sin réplicas configuradas no cambia nada.
+     *
+     * @param lectura Lectura a ejecutar
+     * @param <T> Tipo del resultado
+     * @param <E> Excepción que puede lanzar la lectura
+     * @return Resultado de la lectura
+     */
+    public static <T, E extends Throwable> T enPrincipal(Lectura<T, E> lectura) throws E {
+        int[] profundidad = LECTURAS_PRINCIPAL.get();
+        profundidad[0]++;
+        try {
+            return lectura.leer();
+        } finally {
+            if (--profundidad[0] == 0) {
+                LECTURAS_PRINCIPAL.remove();
+            }
+        }
+    }
+
+    /**
+     * Obtiene las métricas del enrutamiento.
+     *
+     * @return Mapa de contadores y estado de cada réplica
+     */
+    public Map<String, Object> getEstadisticas() {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("habilitado", true);
+        datos.put("lecturasReplica", lecturasReplica.get());
+        datos.put("lecturasPrincipalSinReplica", lecturasPrimarioSinReplica.get());
+        datos.put("lecturasPrincipalLecturaPropia", lecturasPrimarioLecturaPropia.get());
+        datos.put("lecturasPrincipalCache", lecturasPrimarioCache.get());
+        datos.put("fallosConexionReplica", fallosConexionReplica.get());
+        datos.put("escriturasRegistradas", escriturasRegistradas.get());
+        datos.put("usuariosConLecturaPropia", escriturasRecientes.estimatedSize());
+        List<Map<String, Object>> estados = new ArrayList<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> estado = new LinkedHashMap<>();
+            estado.put("nombre", replica.nombre);
+            estado.put("disponible", replica.disponible);
+            estado.put("retrasoSegundos", replica.retrasoSegundos);
+            estado.put("motivo", replica.motivo);
+            estado.put("verificadaEn", replica.verificadaEn);
+            estados.add(estado);
+        }
+        datos.put("replicas", estados);
+        return datos;
+    }
+
+    private void registrarEscritura(String usuario) {
+        escriturasRecientes.put(usuario, LocalDateTime.now());
+        escriturasRegistradas.incrementAndGet();
+    }
+
+    private static String usuarioActual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : "";
+    }
+
+    /**
+     * Estado de una réplica; lo actualiza la comprobación periódica y lo leen las peticiones.
+     */
+    private final class Replica {
+
+        private final String nombre;
+        private final DataSource dataSource;
+        private volatile boolean disponible;
+        private volatile Double retrasoSegundos;
+        private volatile String motivo = "sin verificar";
+        private volatile LocalDateTime verificadaEn;
+
+        private Replica(String nombre, DataSource dataSource) {
+            this.nombre = nombre;
+            this.dataSource = dataSource;
+        }
+
+        private void verificar() {
+            verificadaEn = LocalDateTime.now();
+            try (Connection conexion = dataSource.getConnection();
+                 Statement sentencia = conexion.createStatement();
+                 ResultSet resultado = sentencia.executeQuery(properties.getConsultaRetraso())) {
+                retrasoSegundos = resultado.next() ? resultado.getDouble(1) : null;
+                Duration maximo = properties.getRetrasoMaximo();
+                if (retrasoSegundos == null) {
+                    marcarNoDisponible("la consulta de retraso no devolvió filas");
+                } else if (retrasoSegundos * 1000 > maximo.toMillis()) {
+                    marcarNoDisponible("retraso de " + retrasoSegundos + " s (máximo " + maximo.toSeconds() + " s)");
+                } else {
+                    if (!disponible) {
+                        log.info("Réplica {} disponible para lecturas (retraso {} s)", nombre, retrasoSegundos);
+                    }
+                    motivo = null;
+                    disponible = true;
+                }
+            } catch (SQLException e) {
+                retrasoSegundos = null;
+                marcarNoDisponible("error al verificar: " + e.getMessage());
+            }
+        }
+
+        private void marcarNoDisponible(String causa) {
+            if (disponible) {
+                log.warn("Réplica {} fuera de las lecturas: {}", nombre, causa);
+            }
+            motivo = causa;
+            disponible = false;
+        }
+    }
+
+    /**
+     * DataSource principal que recuerda, al confirmarse cada transacción de escritura,
+     * qué usuario escribió (para enviar sus siguientes lecturas a la principal).
+     */
+    private final class PrincipalConEscrituras extends DelegatingDataSource {
+
+        private PrincipalConEscrituras(DataSource principal) {
+            super(principal);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection conexion = super.getConnection();
+            if (TransactionSynchronizationManager.isSynchronizationActive()
+                    && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                String usuario = usuarioActual();
+                if (!usuario.isEmpty()) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            registrarEscritura(usuario);
+                        }
+                    });
+                }
+            }
+            return conexion;
+        }
+    }
+
+    /**
+     * Lectura ejecutada por {@link #enPrincipal}.
+     */
+    @FunctionalInterface
+    public interface Lectura<T, E extends Throwable> {
+        T leer() throws E;
+    }
+}
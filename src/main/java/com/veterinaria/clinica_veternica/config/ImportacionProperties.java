@@ -0,0 +1,50 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Propiedades de la importación masiva (propietarios, mascotas, insumos y citas).
+ * Se cargan desde application-*.properties con el prefijo "app.importacion".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.importacion")
+@Getter
+@Setter
+public class ImportacionProperties {
+
+    /**
+     * Directorio local donde se guardan los archivos recibidos mientras se importan.
+     */
+    private Path directorio = Path.of(System.getProperty("java.io.tmpdir"), "clinica-importaciones");
+
+    /**
+     * Registros que se insertan por transacción (un INSERT por lotes en JDBC).
+     */
+    private int tamanioLote = 1000;
+
+    /**
+     * Importaciones que pueden ejecutarse a la vez en la instancia.
+     */
+    private int importacionesSimultaneas = 1;
+
+    /**
+     * Errores por fila que se guardan en el trabajo; el resto solo se cuenta.
+     */
+    private int maximoErroresReportados = 100;
+
+    /**
+     * Tiempo que se recuerdan los trabajos terminados para consultar su resultado.
+     */
+    private Duration retencion = Duration.ofHours(24);
+
+    /**
+     * Máximo de trabajos que se recuerdan en memoria.
+     */
+    private int maximoTrabajos = 100;
+}
@@ -0,0 +1,41 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propiedades de los movimientos de stock (MotorMovimientosStock).
+ * Se cargan desde application-*.properties con el prefijo "app.inventario".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.inventario")
+@Getter
+@Setter
+public class InventarioProperties {
+
+    /**
+     * Intentos adicionales de un lote de movimientos que falla por un conflicto de
+     * concurrencia (versión desactualizada, bloqueo no obtenido o deadlock).
+     */
+    private int reintentosMaximos = 3;
+
+    /**
+     * Espera antes del primer reintento; se duplica en cada intento.
+     */
+    private Duration esperaReintento = Duration.ofMillis(20);
+
+    /**
+     * Máximo de movimientos aceptados en un lote.
+     */
+    private int maximoMovimientosPorLote = 1000;
+
+    /**
+     * Si al arrancar se crean los inventarios que faltan y se corrigen los desviados del
+     * stock del insumo (una instancia a la vez, en segundo plano).
+     */
+    private boolean reconciliarAlIniciar = true;
+}
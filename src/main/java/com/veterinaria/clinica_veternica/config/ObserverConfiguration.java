@@ -4,12 +4,18 @@ import com.veterinaria.clinica_veternica.patterns.behavioral.observer.AuditoriaO
 import com.veterinaria.clinica_veternica.patterns.behavioral.observer.CitaSubject;
 import com.veterinaria.clinica_veternica.patterns.behavioral.observer.NotificacionObserver;
 import com.veterinaria.clinica_veternica.patterns.behavioral.observer.RecordatorioObserver;
+import com.veterinaria.clinica_veternica.patterns.behavioral.observer.TipoEventoCita;
+import com.veterinaria.clinica_veternica.patterns.structural.facade.EstadisticasDashboardSnapshot;
+import com.veterinaria.clinica_veternica.service.disponibilidad.IndiceDisponibilidad;
+import com.veterinaria.clinica_veternica.service.reporte.AgregadorDiarioCitas;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
 
 import jakarta.annotation.PostConstruct;
 
+import java.util.EnumSet;
+
 /**
  * Configuración para registrar Observers en el patrón Observer.
  *
@@ -21,7 +27,12 @@ import jakarta.annotation.PostConstruct;
  * OBSERVERS REGISTRADOS:
  * - AuditoriaObserver: Registra eventos en el sistema de auditoría
  * - NotificacionObserver: Envía notificaciones automáticas a usuarios
+ *   (cambios de estado solo hacia CONFIRMADA y ATENDIDA)
  * - RecordatorioObserver: Crea recordatorios para citas programadas
+ *   (cambios de estado solo hacia CONFIRMADA, CANCELADA y ATENDIDA)
+ * - EstadisticasDashboardSnapshot: Invalida la instantánea de estadísticas del dashboard
+ * - IndiceDisponibilidad: Mantiene al día las agendas de disponibilidad en memoria
+ * - AgregadorDiarioCitas: Marca los días a recalcular en el resumen diario de citas
  * - InventarioObserver: Actualiza inventario cuando se usan insumos
  *
  * @author Clínica Veterinaria Team
@@ -37,6 +48,9 @@ public class ObserverConfiguration {
     private final AuditoriaObserver auditoriaObserver;
     private final NotificacionObserver notificacionObserver;
     private final RecordatorioObserver recordatorioObserver;
+    private final EstadisticasDashboardSnapshot estadisticasDashboardSnapshot;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    private final AgregadorDiarioCitas agregadorDiarioCitas;
 
     /**
      * Registra todos los observers en CitaSubject al iniciar la aplicación.
@@ -50,10 +64,16 @@ public class ObserverConfiguration {
     @PostConstruct
     public void registrarObservers() {
         citaSubject.addObserver(auditoriaObserver);
-        citaSubject.addObserver(notificacionObserver);
-        citaSubject.addObserver(recordatorioObserver);
+        citaSubject.addObserver(notificacionObserver, EnumSet.allOf(TipoEventoCita.class),
+                NotificacionObserver.ESTADOS_NOTIFICADOS);
+        citaSubject.addObserver(recordatorioObserver, EnumSet.allOf(TipoEventoCita.class),
+                RecordatorioObserver.ESTADOS_RECORDATORIO);
+        citaSubject.addObserver(estadisticasDashboardSnapshot);
+        citaSubject.addObserver(indiceDisponibilidad);
+        citaSubject.addObserver(agregadorDiarioCitas);
 
-        log.info("✓ Observer Pattern activado: 3 observers registrados exitosamente");
-        log.debug("Observers registrados: AuditoriaObserver, NotificacionObserver, RecordatorioObserver");
+        log.info("✓ Observer Pattern activado: 6 observers registrados exitosamente");
+        log.debug("Observers registrados: AuditoriaObserver, NotificacionObserver, RecordatorioObserver, "
+                + "EstadisticasDashboardSnapshot, IndiceDisponibilidad, AgregadorDiarioCitas");
     }
 }
@@ -0,0 +1,37 @@
+package com.veterinaria.clinica_veternica.config;
+
+import com.veterinaria.clinica_veternica.patterns.behavioral.observer.AsyncCitaEventDispatcher;
+import com.veterinaria.clinica_veternica.patterns.behavioral.observer.CitaEventDispatcher;
+import com.veterinaria.clinica_veternica.patterns.behavioral.observer.SyncCitaEventDispatcher;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Configuración del modo de entrega de eventos de CitaSubject.
+ *
+ * - app.observer.dispatch.mode=sync: los observadores se ejecutan en el hilo de la petición
+ * - app.observer.dispatch.mode=async: cada observador tiene su cola acotada y su executor
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-20
+ */
+@Slf4j
+@Configuration
+public class ObserverDispatchConfig {
+
+    @Bean
+    public CitaEventDispatcher citaEventDispatcher(ObserverDispatchProperties properties,
+                                                   CitaRepository citaRepository,
+                                                   PlatformTransactionManager transactionManager) {
+        if (properties.isAsync()) {
+            log.info("Observer Pattern: entrega asíncrona por observador");
+            return new AsyncCitaEventDispatcher(properties, citaRepository, transactionManager);
+        }
+        log.info("Observer Pattern: entrega síncrona");
+        return new SyncCitaEventDispatcher();
+    }
+}
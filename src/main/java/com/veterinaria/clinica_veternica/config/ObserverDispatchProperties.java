@@ -0,0 +1,62 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propiedades de entrega de eventos de CitaSubject a los observadores.
+ * Se cargan desde application-*.properties con el prefijo "app.observer.dispatch".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.observer.dispatch")
+@Getter
+@Setter
+public class ObserverDispatchProperties {
+
+    /**
+     * Modo de entrega: "sync" (hilo de la petición) o "async" (cola y executor por observador).
+     */
+    private String mode = "sync";
+
+    /**
+     * Capacidad de la cola de cada carril de un observador.
+     * Cuando se llena, el hilo que notifica espera hueco (contrapresión, ver enqueueTimeout).
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * Número de carriles (hilos) por observador. Los eventos de una misma cita
+     * van siempre al mismo carril, por lo que se entregan en orden.
+     */
+    private int lanesPerObserver = 2;
+
+    /**
+     * Usar hilos virtuales en lugar de hilos de plataforma.
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * Encolar los eventos solo después del commit de la transacción que los generó.
+     * Si la transacción hace rollback, los eventos se descartan.
+     */
+    private boolean afterCommit = true;
+
+    /**
+     * Tiempo máximo que el hilo que notifica espera hueco en una cola llena.
+     * Pasado este tiempo el evento se descarta y se cuenta en "descartados".
+     */
+    private Duration enqueueTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Tiempo máximo de espera para vaciar las colas al apagar la aplicación.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    public boolean isAsync() {
+        return "async".equalsIgnoreCase(mode);
+    }
+}
@@ -0,0 +1,48 @@
+package com.veterinaria.clinica_veternica.config;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+
+/**
+ * TaskDecorator que lleva al hilo del executor el contexto del hilo que envía la tarea:
+ * el MDC de logging y el SecurityContext (usuario autenticado).
+ *
+ * Al terminar la tarea se restaura el contexto que tenía el hilo, de modo que un hilo
+ * reutilizado del pool no conserva datos de la tarea anterior.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-23
+ */
+public class PropagacionContextoDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable tarea) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        SecurityContext seguridad = SecurityContextHolder.getContext();
+        return () -> {
+            Map<String, String> mdcAnterior = MDC.getCopyOfContextMap();
+            SecurityContext seguridadAnterior = SecurityContextHolder.getContext();
+            establecerMdc(mdc);
+            SecurityContextHolder.setContext(seguridad);
+            try {
+                tarea.run();
+            } finally {
+                establecerMdc(mdcAnterior);
+                SecurityContextHolder.setContext(seguridadAnterior);
+            }
+        };
+    }
+
+    private static void establecerMdc(Map<String, String> contexto) {
+        if (contexto == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(contexto);
+        }
+    }
+}
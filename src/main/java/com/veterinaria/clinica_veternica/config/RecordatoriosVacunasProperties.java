@@ -0,0 +1,46 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propiedades de los recordatorios de próximas dosis de vacunas.
+ * Se cargan desde application-*.properties con el prefijo "app.vacunas.recordatorios".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.vacunas.recordatorios")
+@Getter
+@Setter
+public class RecordatoriosVacunasProperties {
+
+    /**
+     * Si es false, no se generan recordatorios de vacunas.
+     */
+    private boolean habilitado = true;
+
+    /**
+     * Espera entre comprobaciones de la fecha de la próxima revisión (la usa @Scheduled).
+     * La comprobación no consulta la base de datos si todavía no vence nada.
+     */
+    private Duration intervalo = Duration.ofHours(1);
+
+    /**
+     * Días antes de la próxima dosis en que se envía el recordatorio.
+     */
+    private int diasAnticipacion = 7;
+
+    /**
+     * Días máximos entre revisiones aunque no se espere ninguna dosis: cubre las vacunaciones
+     * registradas por otras instancias, que no avisan a esta.
+     */
+    private int diasMaximosSinRevisar = 1;
+
+    /**
+     * Dosis pendientes que se leen e insertan por transacción.
+     */
+    private int tamanioLote = 500;
+}
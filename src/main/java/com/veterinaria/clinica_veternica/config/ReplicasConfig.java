@@ -0,0 +1,116 @@
+package com.veterinaria.clinica_veternica.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réplicas de lectura (app.datasource.replicas.habilitado=true).
+ *
+ * Crea un pool Hikari de solo lectura por réplica y envuelve el DataSource "dataSource"
+ * (el de Spring Boot o el de {@link DatabaseConfig} en producción) con el enrutamiento
+ * de {@link EnrutadorReplicas}, de modo que repositorios, JdbcTemplate y transacciones
+ * siguen usando un único DataSource.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replicas", name = "habilitado", havingValue = "true")
+public class ReplicasConfig implements DisposableBean {
+
+    private static final String DATASOURCE_PRINCIPAL = "dataSource";
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public EnrutadorReplicas enrutadorReplicas(ReplicasProperties properties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (ReplicasProperties.Nodo nodo : properties.getNodos()) {
+            String nombre = "replica-" + (replicas.size() + 1);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName(nombre);
+            config.setJdbcUrl(nodo.getUrl());
+            config.setUsername(nodo.getUsuario());
+            config.setPassword(nodo.getContrasena());
+            config.setReadOnly(true);
+            config.setMaximumPoolSize(Math.max(1, properties.getTamanioPool()));
+            config.setMinimumIdle(1);
+            config.setConnectionTimeout(properties.getTiempoEsperaConexion().toMillis());
+            // La réplica puede no estar lista al arrancar: la comprobación periódica la incorpora después
+            config.setInitializationFailTimeout(-1);
+            HikariDataSource pool = new HikariDataSource(config);
+            pools.add(pool);
+            replicas.put(nombre, pool);
+        }
+        return new EnrutadorReplicas(replicas, properties);
+    }
+
+    /**
+     * Envuelve el DataSource principal con el enrutamiento a las réplicas.
+     */
+    @Bean
+    public static BeanPostProcessor enrutamientoReplicasPostProcessor(ObjectProvider<EnrutadorReplicas> enrutador,
+                                                                      ObjectProvider<ReplicasProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!DATASOURCE_PRINCIPAL.equals(beanName) || !(bean instanceof DataSource principal)) {
+                    return bean;
+                }
+                if (properties.getObject().getNodos().isEmpty()) {
+                    log.warn("Réplicas de lectura habilitadas sin nodos configurados: se usa solo la base de datos principal");
+                    return bean;
+                }
+                log.info("Lecturas enrutadas a {} réplicas (retraso máximo {})",
+                        properties.getObject().getNodos().size(), properties.getObject().getRetrasoMaximo());
+                return enrutador.getObject().enrutar(principal);
+            }
+        };
+    }
+
+    /**
+     * Envía a la principal las lecturas de los métodos que llenan la caché de Spring.
+     * Precedencia máxima: envuelve a los interceptores de caché y de transacción.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor lecturaPrincipalAlCachearAdvisor() {
+        Pointcut llenanCache = new ComposablePointcut(new AnnotationMatchingPointcut(null, Cacheable.class, true))
+                .union(new AnnotationMatchingPointcut(null, CachePut.class, true));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(llenanCache,
+                (MethodInterceptor) invocacion -> EnrutadorReplicas.enPrincipal(invocacion::proceed));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
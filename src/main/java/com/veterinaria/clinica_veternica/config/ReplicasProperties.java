@@ -0,0 +1,81 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propiedades de las réplicas de lectura de la base de datos.
+ * Se cargan desde application-*.properties con el prefijo "app.datasource.replicas".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replicas")
+@Getter
+@Setter
+public class ReplicasProperties {
+
+    /**
+     * Si es false (o no hay nodos), todas las transacciones usan la base de datos principal.
+     */
+    private boolean habilitado = false;
+
+    /**
+     * Réplicas a las que se envían las transacciones de solo lectura.
+     */
+    private List<Nodo> nodos = new ArrayList<>();
+
+    /**
+     * Conexiones máximas del pool de cada réplica.
+     */
+    private int tamanioPool = 10;
+
+    /**
+     * Tiempo máximo de espera de una conexión de réplica antes de usar la principal.
+     */
+    private Duration tiempoEsperaConexion = Duration.ofSeconds(2);
+
+    /**
+     * Retraso de replicación máximo aceptado; una réplica más atrasada deja de recibir lecturas.
+     */
+    private Duration retrasoMaximo = Duration.ofSeconds(5);
+
+    /**
+     * Espera entre comprobaciones del retraso de las réplicas (la usa @Scheduled).
+     */
+    private Duration intervaloVerificacion = Duration.ofSeconds(10);
+
+    /**
+     * Tiempo durante el que las lecturas de un usuario van a la principal después de que
+     * confirme una escritura (lee sus propios cambios aunque la réplica vaya atrasada).
+     */
+    private Duration ventanaLecturaPropia = Duration.ofSeconds(10);
+
+    /**
+     * Consulta que devuelve el retraso de la réplica en segundos (PostgreSQL en streaming:
+     * 0 si ya aplicó todo lo recibido).
+     */
+    private String consultaRetraso = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    /**
+     * Conexión a una réplica.
+     */
+    @Getter
+    @Setter
+    public static class Nodo {
+
+        /**
+         * URL JDBC de la réplica.
+         */
+        private String url;
+
+        private String usuario;
+
+        private String contrasena;
+    }
+}
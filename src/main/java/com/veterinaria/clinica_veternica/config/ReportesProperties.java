@@ -0,0 +1,45 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Propiedades de los trabajos de reportes en segundo plano y de su almacén de archivos.
+ * Se cargan desde application-*.properties con el prefijo "app.reportes".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.reportes")
+@Getter
+@Setter
+public class ReportesProperties {
+
+    /**
+     * Directorio local donde se guardan los reportes generados.
+     */
+    private Path directorio = Path.of(System.getProperty("java.io.tmpdir"), "clinica-reportes");
+
+    /**
+     * Trabajos en curso (pendientes o en proceso) permitidos por usuario.
+     */
+    private int trabajosPorUsuario = 2;
+
+    /**
+     * Tiempo que se conservan los trabajos y los archivos generados sin usarse.
+     */
+    private Duration retencion = Duration.ofHours(24);
+
+    /**
+     * Espera entre limpiezas de archivos vencidos (la usa @Scheduled).
+     */
+    private Duration intervaloLimpieza = Duration.ofHours(1);
+
+    /**
+     * Máximo de trabajos que se recuerdan en memoria para consultar su estado.
+     */
+    private int maximoTrabajos = 1000;
+}
@@ -0,0 +1,49 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propiedades del resumen diario de citas (tabla resumen_diario_citas).
+ * Se cargan desde application-*.properties con el prefijo "app.rollups".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rollups")
+@Getter
+@Setter
+public class RollupsProperties {
+
+    /**
+     * Espera entre recálculos de los días modificados por eventos de citas (la usa @Scheduled).
+     */
+    private Duration intervalo = Duration.ofSeconds(10);
+
+    /**
+     * Expresión cron de la reconciliación diaria (la usa @Scheduled).
+     */
+    private String cronReconciliacion = "0 30 2 * * *";
+
+    /**
+     * Días hacia atrás desde hoy que recalcula la reconciliación diaria.
+     */
+    private int diasAtras = 35;
+
+    /**
+     * Días hacia adelante desde hoy que recalcula la reconciliación diaria (citas futuras).
+     */
+    private int diasAdelante = 120;
+
+    /**
+     * Días que se recalculan por transacción en una reconstrucción completa.
+     */
+    private int diasPorLote = 31;
+
+    /**
+     * Si es true, al arrancar se reconstruye todo el resumen cuando la tabla está vacía.
+     */
+    private boolean reconstruirAlIniciar = true;
+}
@@ -0,0 +1,40 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Habilita las tareas @Scheduled (monitoreo de stock, despacho de comunicaciones).
+ *
+ * Las tareas se ejecutan en un programador propio de app.async.hilos-programador hilos
+ * ("programador-N"); las que no deben correr en varias instancias a la vez se protegen
+ * con BloqueoTareas.
+ *
+ * Con app.scheduling.enabled=false (tests) no se ejecuta ninguna tarea programada;
+ * los componentes siguen disponibles para invocarse directamente.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.1
+ * @since 2025-11-22
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(AsyncProperties properties) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(1, properties.getHilosProgramador()));
+        scheduler.setThreadNamePrefix("programador-");
+        scheduler.setErrorHandler(error -> log.error("Error en tarea programada: {}", error.getMessage(), error));
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationMillis(properties.getTiempoEsperaApagado().toMillis());
+        return scheduler;
+    }
+}
@@ -0,0 +1,28 @@
+package com.veterinaria.clinica_veternica.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propiedades del historial de versiones de historias clínicas (HistoriaClinicaCaretaker).
+ * Se cargan desde application-*.properties con el prefijo "app.historia-clinica.versiones".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.historia-clinica.versiones")
+@Getter
+@Setter
+public class VersionesHistoriaProperties {
+
+    /**
+     * Cada cuántas versiones se guarda una copia completa; entre una y otra se guardan deltas,
+     * así que reconstruir una versión aplica como mucho este número de filas.
+     */
+    private int snapshotCada = 10;
+
+    /**
+     * Máximo de versiones reconstruidas que se mantienen en memoria (LRU, todas las historias).
+     */
+    private long maximoEnMemoria = 1000;
+}
@@ -0,0 +1,35 @@
+package com.veterinaria.clinica_veternica.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Ejecuta las respuestas asíncronas de Spring MVC (StreamingResponseBody: exportaciones
+ * NDJSON y reportes en streaming) en el pool acotado de reportes, en lugar de crear un
+ * hilo por petición. El tiempo máximo lo fija spring.mvc.async.request-timeout.
+ *
+ * El pool se obtiene de forma diferida: en los tests de controladores (@WebMvcTest)
+ * no existe y se usa el executor por defecto de Spring MVC.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-23
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<AsyncTaskExecutor> ejecutorReportes;
+
+    public WebAsyncConfig(@Qualifier(AsyncConfig.EJECUTOR_REPORTES) ObjectProvider<AsyncTaskExecutor> ejecutorReportes) {
+        this.ejecutorReportes = ejecutorReportes;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        ejecutorReportes.ifAvailable(configurer::setTaskExecutor);
+    }
+}
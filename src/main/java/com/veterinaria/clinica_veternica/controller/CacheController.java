@@ -0,0 +1,47 @@
+package com.veterinaria.clinica_veternica.controller;
+
+import com.veterinaria.clinica_veternica.config.CacheConfig;
+import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controlador de administración del caché.
+ * Expone las estadísticas de cada caché (aciertos, fallos, desalojos) y permite limpiarlos.
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+@Tag(name = "Caché", description = "Estadísticas y administración del caché")
+public class CacheController {
+
+    private final CacheManager cacheManager;
+
+    @Operation(summary = "Obtener estadísticas del caché",
+               description = "Entradas, aciertos, fallos, tasa de aciertos y desalojos de cada caché")
+    @GetMapping("/estadisticas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Map<String, Object>>> obtenerEstadisticas() {
+        return ResponseEntity.ok(CacheConfig.obtenerEstadisticas(cacheManager));
+    }
+
+    @Operation(summary = "Limpiar un caché")
+    @DeleteMapping("/{nombre}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> limpiar(@PathVariable String nombre) {
+        Cache cache = cacheManager.getCache(nombre);
+        if (cache == null) {
+            throw new ResourceNotFoundException("Caché", "nombre", nombre);
+        }
+        cache.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
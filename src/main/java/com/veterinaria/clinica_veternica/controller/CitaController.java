@@ -1,8 +1,11 @@
 package com.veterinaria.clinica_veternica.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.veterinaria.clinica_veternica.dto.request.agenda.CitaRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.agenda.CitaResponseDTO;
 import com.veterinaria.clinica_veternica.service.interfaces.ICitaService;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,6 +16,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -32,6 +36,7 @@ import java.util.List;
 public class CitaController {
 
     private final ICitaService citaService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Crear nueva cita", description = "Crea una nueva cita usando Builder pattern y valida con Chain of Responsibility")
     @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'RECEPCIONISTA', 'PROPIETARIO')")
@@ -62,6 +67,22 @@ public class CitaController {
         return ResponseEntity.ok(citaService.listarTodos());
     }
 
+    @Operation(summary = "Listar citas paginadas",
+               description = "Paginación keyset ordenada por fecha, hora e ID. Enviar siguienteCursor para la página siguiente")
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaKeysetDTO<CitaResponseDTO>> listarPagina(
+            @Parameter(description = "Cursor de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(citaService.listarPagina(cursor, limite));
+    }
+
+    @Operation(summary = "Exportar todas las citas en streaming",
+               description = "Respuesta NDJSON (una cita por línea) leída de la base de datos por lotes")
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTodos() {
+        return StreamingUtils.ndjson(objectMapper, citaService::recorrerTodos);
+    }
+
     @Operation(summary = "Listar citas por veterinario")
     @GetMapping("/veterinario/{idVeterinario}")
     public ResponseEntity<List<CitaResponseDTO>> listarPorVeterinario(
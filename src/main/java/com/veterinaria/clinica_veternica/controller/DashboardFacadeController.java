@@ -1,15 +1,19 @@
 package com.veterinaria.clinica_veternica.controller;
 
+import com.veterinaria.clinica_veternica.dto.response.facade.ActividadDashboardDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.DashboardResponseDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.EstadisticasGeneralesDTO;
 import com.veterinaria.clinica_veternica.patterns.structural.facade.DashboardFacadeService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 
 
 /**
@@ -18,7 +22,7 @@ import org.springframework.web.bind.annotation.*;
  * coordinación de múltiples servicios para dashboards y resúmenes.
  *
  * @author Clínica Veterinaria Team
- * @version 3.0 - Refactorizado para usar DashboardFacadeService especializado
+ * @version 3.1 - Actividad diaria desde el resumen diario de citas
  * @since 2025-11-17
  */
 @RestController
@@ -44,4 +48,14 @@ public class DashboardFacadeController {
     public ResponseEntity<EstadisticasGeneralesDTO> obtenerEstadisticas() {
         return ResponseEntity.ok(dashboardFacadeService.obtenerEstadisticasGenerales());
     }
+
+    @Operation(summary = "Obtener actividad diaria",
+               description = "Obtiene citas totales, atendidas, canceladas e ingresos por día en un rango de fechas, desde el resumen diario de citas.")
+    @GetMapping("/actividad")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO')")
+    public ResponseEntity<ActividadDashboardDTO> obtenerActividad(
+            @Parameter(description = "Fecha de inicio") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @Parameter(description = "Fecha de fin") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+        return ResponseEntity.ok(dashboardFacadeService.obtenerActividad(fechaInicio, fechaFin));
+    }
 }
@@ -1,8 +1,11 @@
 package com.veterinaria.clinica_veternica.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.veterinaria.clinica_veternica.dto.request.clinico.HistoriaClinicaRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.clinico.HistoriaClinicaResponseDTO;
 import com.veterinaria.clinica_veternica.service.interfaces.IHistoriaClinicaService;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -53,6 +57,7 @@ import java.util.List;
 public class HistoriaClinicaController {
 
     private final IHistoriaClinicaService historiaClinicaService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Crear nueva historia clínica")
     @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO')")
@@ -104,6 +109,25 @@ public class HistoriaClinicaController {
         return ResponseEntity.ok(historiaClinicaService.listarActivas());
     }
 
+    @Operation(summary = "Listar historias clínicas paginadas",
+               description = "Paginación keyset por ID. Enviar siguienteCursor para la página siguiente")
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaKeysetDTO<HistoriaClinicaResponseDTO>> listarPagina(
+            @Parameter(description = "Cursor de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(required = false) Integer limite,
+            @Parameter(description = "Solo historias activas") @RequestParam(defaultValue = "false") boolean soloActivas) {
+        return ResponseEntity.ok(historiaClinicaService.listarPagina(cursor, limite, soloActivas));
+    }
+
+    @Operation(summary = "Exportar historias clínicas en streaming",
+               description = "Respuesta NDJSON (una historia por línea) leída de la base de datos por lotes")
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTodas(
+            @Parameter(description = "Solo historias activas") @RequestParam(defaultValue = "false") boolean soloActivas) {
+        return StreamingUtils.<HistoriaClinicaResponseDTO>ndjson(objectMapper,
+                consumidor -> historiaClinicaService.recorrerTodas(soloActivas, consumidor));
+    }
+
     @Operation(summary = "Guardar memento", description = "Guarda un snapshot del estado actual (Memento pattern)")
     @PostMapping("/{id}/memento")
     public ResponseEntity<Void> guardarMemento(
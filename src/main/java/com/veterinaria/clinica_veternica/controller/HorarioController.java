@@ -3,6 +3,7 @@ package com.veterinaria.clinica_veternica.controller;
 import com.veterinaria.clinica_veternica.dto.request.agenda.HorarioRequestDTO;
 import com.veterinaria.clinica_veternica.dto.response.agenda.DisponibilidadVeterinarioDTO;
 import com.veterinaria.clinica_veternica.dto.response.agenda.HorarioResponseDTO;
+import com.veterinaria.clinica_veternica.dto.response.agenda.ProximaDisponibilidadDTO;
 import com.veterinaria.clinica_veternica.service.interfaces.IHorarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -110,5 +112,17 @@ public class HorarioController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
         return ResponseEntity.ok(horarioService.obtenerDisponibilidad(idVeterinario, fecha));
     }
-}
 
+    @Operation(summary = "Buscar el próximo slot libre de uno o varios veterinarios",
+            description = "Devuelve el primer slot libre de cada veterinario, del más temprano al más tardío")
+    @GetMapping("/disponibilidad/proxima")
+    public ResponseEntity<List<ProximaDisponibilidadDTO>> buscarProximaDisponibilidad(
+            @Parameter(description = "IDs de los veterinarios (si se omite, todos los activos)")
+            @RequestParam(required = false) List<Long> idsVeterinarios,
+            @Parameter(description = "Instante desde el que buscar (formato: yyyy-MM-ddTHH:mm, por defecto ahora)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @Parameter(description = "Número de días a recorrer")
+            @RequestParam(required = false) Integer dias) {
+        return ResponseEntity.ok(horarioService.buscarProximaDisponibilidad(idsVeterinarios, desde, dias));
+    }
+}
@@ -0,0 +1,62 @@
+package com.veterinaria.clinica_veternica.controller;
+
+import com.veterinaria.clinica_veternica.dto.response.importacion.TrabajoImportacionDTO;
+import com.veterinaria.clinica_veternica.service.importacion.ImportadorMasivo;
+import com.veterinaria.clinica_veternica.service.importacion.TipoImportacion;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+
+/**
+ * Controlador de importación masiva de datos (migraciones desde otros sistemas).
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+@RestController
+@RequestMapping("/api/admin/importaciones")
+@RequiredArgsConstructor
+@Tag(name = "Importaciones", description = "Importación masiva de propietarios, mascotas, insumos y citas")
+public class ImportacionController {
+
+    private static final String RUTA_IMPORTACIONES = "/api/admin/importaciones/";
+
+    private final ImportadorMasivo importadorMasivo;
+
+    @Operation(summary = "Enviar importación masiva",
+               description = "Importa en segundo plano un archivo CSV (con cabecera) o JSON (arreglo de objetos) de "
+                       + "PROPIETARIOS, MASCOTAS, INSUMOS o CITAS y devuelve el trabajo para consultar su progreso. "
+                       + "Los registros ya existentes se omiten y las filas inválidas se reportan sin detener la carga.")
+    @PostMapping(value = "/{tipo}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TrabajoImportacionDTO> enviar(
+            @Parameter(description = "Tipo de registros del archivo") @PathVariable TipoImportacion tipo,
+            @Parameter(description = "Archivo .csv o .json") @RequestParam("archivo") MultipartFile archivo) {
+        TrabajoImportacionDTO trabajo = importadorMasivo.enviar(tipo, archivo);
+        return ResponseEntity.accepted()
+                .location(URI.create(RUTA_IMPORTACIONES + trabajo.getId()))
+                .body(trabajo);
+    }
+
+    @Operation(summary = "Consultar importación",
+               description = "Estado, progreso, filas insertadas, omitidas y con error, y los primeros errores por fila.")
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TrabajoImportacionDTO> consultar(@PathVariable String id) {
+        return ResponseEntity.ok(importadorMasivo.consultar(id));
+    }
+}
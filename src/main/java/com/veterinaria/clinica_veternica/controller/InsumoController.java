@@ -1,8 +1,11 @@
 package com.veterinaria.clinica_veternica.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.veterinaria.clinica_veternica.dto.request.inventario.InsumoRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.inventario.InsumoResponseDTO;
 import com.veterinaria.clinica_veternica.service.interfaces.IInsumoService;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -29,6 +33,7 @@ import java.util.List;
 public class InsumoController {
 
     private final IInsumoService insumoService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Crear nuevo insumo")
     @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'AUXILIAR')")
@@ -72,6 +77,25 @@ public class InsumoController {
         return ResponseEntity.ok(insumoService.listarActivos());
     }
 
+    @Operation(summary = "Listar insumos paginados",
+               description = "Paginación keyset por ID. Enviar siguienteCursor para la página siguiente")
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaKeysetDTO<InsumoResponseDTO>> listarPagina(
+            @Parameter(description = "Cursor de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(required = false) Integer limite,
+            @Parameter(description = "Solo insumos activos") @RequestParam(defaultValue = "false") boolean soloActivos) {
+        return ResponseEntity.ok(insumoService.listarPagina(cursor, limite, soloActivos));
+    }
+
+    @Operation(summary = "Exportar insumos en streaming",
+               description = "Respuesta NDJSON (un insumo por línea) leída de la base de datos por lotes")
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTodos(
+            @Parameter(description = "Solo insumos activos") @RequestParam(defaultValue = "false") boolean soloActivos) {
+        return StreamingUtils.<InsumoResponseDTO>ndjson(objectMapper,
+                consumidor -> insumoService.recorrerTodos(soloActivos, consumidor));
+    }
+
     @Operation(summary = "Listar insumos con stock bajo")
     @GetMapping("/stock-bajo")
     public ResponseEntity<List<InsumoResponseDTO>> listarConStockBajo() {
@@ -1,14 +1,22 @@
 package com.veterinaria.clinica_veternica.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.veterinaria.clinica_veternica.dto.request.inventario.LoteMovimientosStockRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.inventario.InventarioResponseDTO;
+import com.veterinaria.clinica_veternica.dto.response.inventario.MovimientoStockResponseDTO;
 import com.veterinaria.clinica_veternica.service.interfaces.IInventarioService;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -27,6 +35,7 @@ import java.util.List;
 public class InventarioController {
 
     private final IInventarioService inventarioService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Buscar inventario por ID")
     @GetMapping("/{id}")
@@ -48,6 +57,22 @@ public class InventarioController {
         return ResponseEntity.ok(inventarioService.listarTodos());
     }
 
+    @Operation(summary = "Listar registros de inventario paginados",
+               description = "Paginación keyset por ID. Enviar siguienteCursor para la página siguiente")
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaKeysetDTO<InventarioResponseDTO>> listarPagina(
+            @Parameter(description = "Cursor de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(inventarioService.listarPagina(cursor, limite));
+    }
+
+    @Operation(summary = "Exportar registros de inventario en streaming",
+               description = "Respuesta NDJSON (un registro por línea) leída de la base de datos por lotes")
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTodos() {
+        return StreamingUtils.<InventarioResponseDTO>ndjson(objectMapper, inventarioService::recorrerTodos);
+    }
+
     @Operation(summary = "Listar inventario con stock bajo", description = "Obtiene insumos que requieren reorden")
     @GetMapping("/stock-bajo")
     public ResponseEntity<List<InventarioResponseDTO>> listarConStockBajo() {
@@ -66,5 +91,21 @@ public class InventarioController {
         return ResponseEntity.ok(inventarioService.listarOrdenadosPorValor());
     }
 
-}
+    @Operation(summary = "Aplicar un lote de movimientos de stock",
+               description = "Entradas, salidas y ajustes; se aplican todos o ninguno. " +
+                       "El stock nunca queda negativo aunque haya consumos concurrentes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'AUXILIAR')")
+    @PostMapping("/movimientos")
+    public ResponseEntity<List<MovimientoStockResponseDTO>> aplicarMovimientos(
+            @Valid @RequestBody LoteMovimientosStockRequestDTO requestDTO) {
+        return ResponseEntity.ok(inventarioService.aplicarMovimientos(requestDTO.getMovimientos()));
+    }
 
+    @Operation(summary = "Listar los movimientos de stock de un insumo", description = "Del más reciente al más antiguo")
+    @GetMapping("/insumo/{idInsumo}/movimientos")
+    public ResponseEntity<List<MovimientoStockResponseDTO>> listarMovimientos(
+            @Parameter(description = "ID del insumo") @PathVariable Long idInsumo,
+            @Parameter(description = "Máximo de movimientos (máximo 100)") @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(inventarioService.listarMovimientos(idInsumo, limite));
+    }
+}
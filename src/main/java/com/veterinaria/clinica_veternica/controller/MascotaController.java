@@ -1,9 +1,13 @@
 package com.veterinaria.clinica_veternica.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.veterinaria.clinica_veternica.dto.request.paciente.MascotaRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.paciente.MascotaResponseDTO;
 import com.veterinaria.clinica_veternica.service.interfaces.IMascotaService;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,6 +26,7 @@ import java.util.List;
 public class MascotaController {
 
     private final IMascotaService mascotaService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Crear nueva mascota", 
                description = "Los propietarios solo pueden crear mascotas para sí mismos. " +
@@ -58,6 +64,25 @@ public class MascotaController {
         return ResponseEntity.ok(mascotaService.listarActivas());
     }
 
+    @Operation(summary = "Listar mascotas paginadas",
+               description = "Paginación keyset por ID. Enviar siguienteCursor para la página siguiente")
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaKeysetDTO<MascotaResponseDTO>> listarPagina(
+            @Parameter(description = "Cursor de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(required = false) Integer limite,
+            @Parameter(description = "Solo mascotas activas") @RequestParam(defaultValue = "false") boolean soloActivas) {
+        return ResponseEntity.ok(mascotaService.listarPagina(cursor, limite, soloActivas));
+    }
+
+    @Operation(summary = "Exportar mascotas en streaming",
+               description = "Respuesta NDJSON (una mascota por línea) leída de la base de datos por lotes")
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTodas(
+            @Parameter(description = "Solo mascotas activas") @RequestParam(defaultValue = "false") boolean soloActivas) {
+        return StreamingUtils.<MascotaResponseDTO>ndjson(objectMapper,
+                consumidor -> mascotaService.recorrerTodas(soloActivas, consumidor));
+    }
+
     @Operation(summary = "Listar mascotas por propietario")
     @GetMapping("/propietario/{idPropietario}")
     public ResponseEntity<List<MascotaResponseDTO>> listarPorPropietario(@PathVariable Long idPropietario) {
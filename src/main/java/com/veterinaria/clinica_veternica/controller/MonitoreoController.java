@@ -0,0 +1,121 @@
+package com.veterinaria.clinica_veternica.controller;
+
+import com.veterinaria.clinica_veternica.config.EjecutorMonitorizado;
+import com.veterinaria.clinica_veternica.config.EnrutadorReplicas;
+import com.veterinaria.clinica_veternica.patterns.behavioral.memento.HistoriaClinicaCaretaker;
+import com.veterinaria.clinica_veternica.patterns.behavioral.observer.CitaSubject;
+import com.veterinaria.clinica_veternica.service.comunicacion.ProgramadorRecordatoriosVacunas;
+import com.veterinaria.clinica_veternica.service.importacion.ImportadorMasivo;
+import com.veterinaria.clinica_veternica.service.inventario.MotorMovimientosStock;
+import com.veterinaria.clinica_veternica.service.reporte.AgregadorDiarioCitas;
+import com.veterinaria.clinica_veternica.service.reporte.GestorTrabajosReporte;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador de monitoreo interno (colas y ejecución en segundo plano).
+ */
+@RestController
+@RequestMapping("/api/admin/monitoreo")
+@RequiredArgsConstructor
+@Tag(name = "Monitoreo", description = "Métricas de colas y procesos en segundo plano")
+public class MonitoreoController {
+
+    private final CitaSubject citaSubject;
+    private final List<EjecutorMonitorizado> ejecutores;
+    private final GestorTrabajosReporte gestorTrabajosReporte;
+    private final AgregadorDiarioCitas agregadorDiarioCitas;
+    private final MotorMovimientosStock motorMovimientosStock;
+    private final HistoriaClinicaCaretaker historiaClinicaCaretaker;
+    private final ProgramadorRecordatoriosVacunas programadorRecordatoriosVacunas;
+    private final ImportadorMasivo importadorMasivo;
+    private final ObjectProvider<EnrutadorReplicas> enrutadorReplicas;
+
+    @Operation(summary = "Obtener métricas de entrega de los observers de citas",
+               description = "Eventos suscritos, invocaciones, errores y duración por observer; en modo asíncrono también "
+                       + "encolados, completados, fallidos, rechazados por contrapresión, pendientes y latencia")
+    @GetMapping("/observers")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Map<String, Object>>> obtenerEstadisticasObservers() {
+        return ResponseEntity.ok(citaSubject.getEstadisticasEntrega());
+    }
+
+    @Operation(summary = "Obtener métricas de los pools de tareas en segundo plano",
+               description = "Tareas enviadas, completadas, fallidas y rechazadas, cola, hilos activos y latencias por pool")
+    @GetMapping("/ejecutores")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Map<String, Object>>> obtenerEstadisticasEjecutores() {
+        Map<String, Map<String, Object>> resultado = new LinkedHashMap<>();
+        ejecutores.forEach(ejecutor -> resultado.put(ejecutor.getNombre(), ejecutor.getEstadisticas()));
+        return ResponseEntity.ok(resultado);
+    }
+
+    @Operation(summary = "Obtener métricas de los trabajos de reporte",
+               description = "Trabajos enviados, generados, reutilizados del almacén, fallidos, rechazados y en curso")
+    @GetMapping("/reportes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticasReportes() {
+        return ResponseEntity.ok(gestorTrabajosReporte.getEstadisticas());
+    }
+
+    @Operation(summary = "Obtener métricas del resumen diario de citas",
+               description = "Días pendientes de recalcular, días recalculados, filas escritas, fallos y última reconciliación")
+    @GetMapping("/resumen-citas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticasResumenCitas() {
+        return ResponseEntity.ok(agregadorDiarioCitas.getEstadisticas());
+    }
+
+    @Operation(summary = "Obtener métricas de los movimientos de stock",
+               description = "Movimientos aplicados, lotes, rechazos por stock insuficiente, reintentos y conflictos")
+    @GetMapping("/stock")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticasStock() {
+        return ResponseEntity.ok(motorMovimientosStock.getEstadisticas());
+    }
+
+    @Operation(summary = "Obtener métricas del historial de versiones de historias clínicas",
+               description = "Snapshots y deltas guardados, tamaño guardado, reconstrucciones y uso de la memoria de versiones recientes")
+    @GetMapping("/historias-clinicas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticasHistoriasClinicas() {
+        return ResponseEntity.ok(historiaClinicaCaretaker.getEstadisticas());
+    }
+
+    @Operation(summary = "Obtener métricas de los recordatorios de vacunas",
+               description = "Próxima revisión, revisiones hechas y omitidas, dosis revisadas, recordatorios creados y duplicados omitidos")
+    @GetMapping("/recordatorios-vacunas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticasRecordatoriosVacunas() {
+        return ResponseEntity.ok(programadorRecordatoriosVacunas.getEstadisticas());
+    }
+
+    @Operation(summary = "Obtener métricas de las importaciones masivas",
+               description = "Importaciones enviadas, completadas, fallidas, rechazadas y en curso, filas insertadas y lotes rechazados")
+    @GetMapping("/importaciones")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticasImportaciones() {
+        return ResponseEntity.ok(importadorMasivo.getEstadisticas());
+    }
+
+    @Operation(summary = "Obtener métricas del enrutamiento a réplicas de lectura",
+               description = "Lecturas servidas por réplicas y por la principal (sin réplica disponible o por lectura de "
+                       + "escrituras propias) y estado y retraso de cada réplica")
+    @GetMapping("/replicas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticasReplicas() {
+        EnrutadorReplicas enrutador = enrutadorReplicas.getIfAvailable();
+        return ResponseEntity.ok(enrutador != null ? enrutador.getEstadisticas() : Map.of("habilitado", false));
+    }
+}
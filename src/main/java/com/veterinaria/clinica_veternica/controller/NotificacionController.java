@@ -1,8 +1,11 @@
 package com.veterinaria.clinica_veternica.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.veterinaria.clinica_veternica.dto.request.comunicacion.NotificacionRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.comunicacion.NotificacionResponseDTO;
 import com.veterinaria.clinica_veternica.service.interfaces.INotificacionService;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -30,6 +34,7 @@ import java.util.List;
 public class NotificacionController {
 
     private final INotificacionService notificacionService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Enviar notificación a un usuario", 
                description = "Envía una notificación a un usuario por el canal especificado (EMAIL, SMS, WHATSAPP, PUSH). Todo es simulado.")
@@ -52,6 +57,22 @@ public class NotificacionController {
         return ResponseEntity.ok(notificacionService.listarTodas());
     }
 
+    @Operation(summary = "Listar notificaciones paginadas",
+               description = "Paginación keyset por ID. Enviar siguienteCursor para la página siguiente")
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaKeysetDTO<NotificacionResponseDTO>> listarPagina(
+            @Parameter(description = "Cursor de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(notificacionService.listarPagina(cursor, limite));
+    }
+
+    @Operation(summary = "Exportar notificaciones en streaming",
+               description = "Respuesta NDJSON (una notificación por línea) leída de la base de datos por lotes")
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTodas() {
+        return StreamingUtils.ndjson(objectMapper, notificacionService::recorrerTodas);
+    }
+
     @Operation(summary = "Listar notificaciones por usuario")
     @GetMapping("/usuario/{idUsuario}")
     public ResponseEntity<List<NotificacionResponseDTO>> listarPorUsuario(
@@ -1,11 +1,15 @@
 package com.veterinaria.clinica_veternica.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.veterinaria.clinica_veternica.domain.usuario.Usuario;
 import com.veterinaria.clinica_veternica.dto.request.paciente.PropietarioRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.paciente.PropietarioResponseDTO;
 import com.veterinaria.clinica_veternica.repository.UsuarioRepository;
 import com.veterinaria.clinica_veternica.service.interfaces.IPropietarioService;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +19,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -25,6 +30,7 @@ import java.util.List;
 public class PropietarioController {
 
     private final IPropietarioService propietarioService;
+    private final ObjectMapper objectMapper;
     private final UsuarioRepository usuarioRepository;
 
     @Operation(summary = "Crear nuevo propietario")
@@ -61,6 +67,25 @@ public class PropietarioController {
         return ResponseEntity.ok(propietarioService.listarActivos());
     }
 
+    @Operation(summary = "Listar propietarios paginados",
+               description = "Paginación keyset por ID. Enviar siguienteCursor para la página siguiente")
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaKeysetDTO<PropietarioResponseDTO>> listarPagina(
+            @Parameter(description = "Cursor de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(required = false) Integer limite,
+            @Parameter(description = "Solo propietarios activos") @RequestParam(defaultValue = "false") boolean soloActivos) {
+        return ResponseEntity.ok(propietarioService.listarPagina(cursor, limite, soloActivos));
+    }
+
+    @Operation(summary = "Exportar propietarios en streaming",
+               description = "Respuesta NDJSON (un propietario por línea) leída de la base de datos por lotes")
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTodos(
+            @Parameter(description = "Solo propietarios activos") @RequestParam(defaultValue = "false") boolean soloActivos) {
+        return StreamingUtils.<PropietarioResponseDTO>ndjson(objectMapper,
+                consumidor -> propietarioService.recorrerTodos(soloActivos, consumidor));
+    }
+
     @Operation(summary = "Buscar propietarios por nombre")
     @GetMapping("/buscar")
     public ResponseEntity<List<PropietarioResponseDTO>> buscarPorNombre(@RequestParam String nombre) {
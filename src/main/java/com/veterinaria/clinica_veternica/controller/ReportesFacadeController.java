@@ -1,18 +1,32 @@
 package com.veterinaria.clinica_veternica.controller;
 
+import com.veterinaria.clinica_veternica.dto.request.reporte.TrabajoReporteRequestDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.ReporteCitasDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.ReporteInventarioDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.ReporteVeterinariosDTO;
+import com.veterinaria.clinica_veternica.dto.response.facade.TrabajoReporteDTO;
+import com.veterinaria.clinica_veternica.patterns.structural.bridge.ReporteCitasAbstraction;
+import com.veterinaria.clinica_veternica.patterns.structural.bridge.ReporteService;
 import com.veterinaria.clinica_veternica.patterns.structural.facade.ReporteFacadeService;
+import com.veterinaria.clinica_veternica.service.reporte.GestorTrabajosReporte;
+import com.veterinaria.clinica_veternica.service.reporte.TrabajoReporte;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.time.LocalDate;
 
 /**
@@ -21,7 +35,7 @@ import java.time.LocalDate;
  * que requieren coordinación de múltiples servicios.
  *
  * @author Clínica Veterinaria Team
- * @version 3.0 - Refactorizado para usar ReporteFacadeService especializado
+ * @version 3.1 - Trabajos de reportes en segundo plano (GestorTrabajosReporte)
  * @since 2025-11-17
  */
 @RestController
@@ -31,15 +45,76 @@ import java.time.LocalDate;
 public class ReportesFacadeController {
 
     private final ReporteFacadeService reporteFacadeService;
+    private final ReporteService reporteService;
+    private final GestorTrabajosReporte gestorTrabajosReporte;
 
     @Operation(summary = "Obtener reporte de citas",
-               description = "Genera reporte de citas en un rango de fechas con estadísticas.")
+               description = "Genera reporte de citas en un rango de fechas con estadísticas. Con incluirDetalle=false "
+                       + "solo devuelve los totales (por estado y por día), calculados con una consulta agregada.")
     @GetMapping("/citas")
     @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO')")
     public ResponseEntity<ReporteCitasDTO> obtenerReporteCitas(
             @Parameter(description = "Fecha de inicio") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
-            @Parameter(description = "Fecha de fin") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
-        return ResponseEntity.ok(reporteFacadeService.generarReporteCitas(fechaInicio, fechaFin));
+            @Parameter(description = "Fecha de fin") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @Parameter(description = "Incluir la lista de citas") @RequestParam(defaultValue = "true") boolean incluirDetalle) {
+        return ResponseEntity.ok(reporteFacadeService.generarReporteCitas(fechaInicio, fechaFin, incluirDetalle));
+    }
+
+    @Operation(summary = "Exportar citas en streaming",
+               description = "Descarga el reporte de citas (pdf, excel o json) escrito fila a fila mientras se lee "
+                       + "de la base de datos. Sin fechas se exportan todas las citas.")
+    @GetMapping("/citas/exportar")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO')")
+    public ResponseEntity<StreamingResponseBody> exportarCitas(
+            @Parameter(description = "Formato: pdf, excel o json") @RequestParam(defaultValue = "json") String formato,
+            @Parameter(description = "Fecha de inicio") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @Parameter(description = "Fecha de fin") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+        ReporteCitasAbstraction reporte = reporteService.crearReporte(formato, fechaInicio, fechaFin);
+        StreamingResponseBody cuerpo = salida -> reporteService.exportar(reporte, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(reporte.getTipoMime()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("reporte-citas." + reporte.getExtension())
+                        .build()
+                        .toString())
+                .body(cuerpo);
+    }
+
+    @Operation(summary = "Enviar trabajo de reporte",
+               description = "Genera el reporte en segundo plano (CITAS, VETERINARIOS o EXPORTACION_CITAS) y devuelve "
+                       + "el trabajo para consultar su progreso. Si ya existe un archivo con los mismos parámetros "
+                       + "y los datos no cambiaron, se reutiliza.")
+    @PostMapping("/trabajos")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO')")
+    public ResponseEntity<TrabajoReporteDTO> enviarTrabajo(@Valid @RequestBody TrabajoReporteRequestDTO request) {
+        TrabajoReporteDTO trabajo = gestorTrabajosReporte.enviar(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/facade/reportes/trabajos/" + trabajo.getId()))
+                .body(trabajo);
+    }
+
+    @Operation(summary = "Consultar trabajo de reporte",
+               description = "Estado y progreso de un trabajo enviado por el usuario actual.")
+    @GetMapping("/trabajos/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO')")
+    public ResponseEntity<TrabajoReporteDTO> consultarTrabajo(@PathVariable String id) {
+        return ResponseEntity.ok(gestorTrabajosReporte.consultar(id));
+    }
+
+    @Operation(summary = "Descargar reporte generado",
+               description = "Descarga el archivo de un trabajo COMPLETADO. Admite If-None-Match con el ETag devuelto.")
+    @GetMapping("/trabajos/{id}/descarga")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO')")
+    public ResponseEntity<Resource> descargarTrabajo(@PathVariable String id) {
+        TrabajoReporte trabajo = gestorTrabajosReporte.obtenerParaDescarga(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(trabajo.getTipoMime()))
+                .eTag(trabajo.getClave())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(trabajo.getNombreArchivo())
+                        .build()
+                        .toString())
+                .body(new FileSystemResource(trabajo.getArchivo()));
     }
 
     @Operation(summary = "Obtener reporte de inventario",
@@ -1,8 +1,11 @@
 package com.veterinaria.clinica_veternica.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.veterinaria.clinica_veternica.dto.request.clinico.VacunacionRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.clinico.VacunacionResponseDTO;
 import com.veterinaria.clinica_veternica.service.interfaces.IVacunacionService;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -37,6 +41,7 @@ import java.util.List;
 public class VacunacionController {
 
     private final IVacunacionService vacunacionService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Crear vacunación",
                description = "Crea una nueva vacunación para una historia clínica específica")
@@ -56,6 +61,24 @@ public class VacunacionController {
         return ResponseEntity.ok(vacunacionService.listarTodas());
     }
 
+    @Operation(summary = "Listar vacunaciones paginadas",
+               description = "Paginación keyset por ID. Enviar siguienteCursor para la página siguiente")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO')")
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaKeysetDTO<VacunacionResponseDTO>> listarPagina(
+            @Parameter(description = "Cursor de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(vacunacionService.listarPagina(cursor, limite));
+    }
+
+    @Operation(summary = "Exportar vacunaciones en streaming",
+               description = "Respuesta NDJSON (una vacunación por línea) leída de la base de datos por lotes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO')")
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTodas() {
+        return StreamingUtils.ndjson(objectMapper, vacunacionService::recorrerTodas);
+    }
+
     @Operation(summary = "Listar vacunaciones por historia clínica",
                description = "Lista todas las vacunaciones de una historia clínica específica")
     @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'PROPIETARIO', 'AUXILIAR')")
@@ -1,9 +1,13 @@
 package com.veterinaria.clinica_veternica.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.veterinaria.clinica_veternica.dto.request.usuario.VeterinarioRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.usuario.VeterinarioResponseDTO;
 import com.veterinaria.clinica_veternica.service.interfaces.IVeterinarioService;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,6 +26,7 @@ import java.util.List;
 public class VeterinarioController {
 
     private final IVeterinarioService veterinarioService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Crear nuevo veterinario")
     @PreAuthorize("hasRole('ADMIN')")
@@ -71,6 +77,25 @@ public class VeterinarioController {
         return ResponseEntity.ok(veterinarioService.listarActivos());
     }
 
+    @Operation(summary = "Listar veterinarios paginados",
+               description = "Paginación keyset por ID. Enviar siguienteCursor para la página siguiente")
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaKeysetDTO<VeterinarioResponseDTO>> listarPagina(
+            @Parameter(description = "Cursor de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(required = false) Integer limite,
+            @Parameter(description = "Solo veterinarios activos") @RequestParam(defaultValue = "false") boolean soloActivos) {
+        return ResponseEntity.ok(veterinarioService.listarPagina(cursor, limite, soloActivos));
+    }
+
+    @Operation(summary = "Exportar veterinarios en streaming",
+               description = "Respuesta NDJSON (un veterinario por línea) leída de la base de datos por lotes")
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTodos(
+            @Parameter(description = "Solo veterinarios activos") @RequestParam(defaultValue = "false") boolean soloActivos) {
+        return StreamingUtils.<VeterinarioResponseDTO>ndjson(objectMapper,
+                consumidor -> veterinarioService.recorrerTodos(soloActivos, consumidor));
+    }
+
     @Operation(summary = "Listar veterinarios disponibles")
     @GetMapping("/disponibles")
     public ResponseEntity<List<VeterinarioResponseDTO>> listarDisponibles() {
@@ -28,6 +28,10 @@ import java.time.LocalTime;
  *
  * Estados posibles: PROGRAMADA, CONFIRMADA, ATENDIDA, CANCELADA, NO_ASISTIO
  *
+ * El grafo {@link #GRAFO_LISTADO} carga en la misma consulta todo lo que lee CitaMapper
+ * (mascota con propietario, especie e historia clínica, veterinario y servicio); lo usan
+ * las consultas de listados de CitaRepository para no hacer una consulta extra por fila.
+ *
  * @author Clínica Veterinaria Team
  * @version 1.0
  * @since 2025-11-02
@@ -40,8 +44,23 @@ import java.time.LocalTime;
            @Index(name = "idx_cita_servicio", columnList = "id_servicio"),
            @Index(name = "idx_cita_fecha", columnList = "fecha_cita"),
            @Index(name = "idx_cita_estado", columnList = "estado"),
-           @Index(name = "idx_cita_fecha_hora", columnList = "fecha_cita, hora_cita")
+           @Index(name = "idx_cita_fecha_hora", columnList = "fecha_cita, hora_cita"),
+           @Index(name = "idx_cita_fecha_vet_estado", columnList = "fecha_cita, id_veterinario, estado"),
+           @Index(name = "idx_cita_vet_fecha_intervalo",
+                  columnList = "id_veterinario, fecha_cita, minuto_inicio, minuto_fin")
        })
+@NamedEntityGraph(name = Cita.GRAFO_LISTADO,
+       attributeNodes = {
+           @NamedAttributeNode(value = "mascota", subgraph = "mascota"),
+           @NamedAttributeNode("veterinario"),
+           @NamedAttributeNode("servicio")
+       },
+       subgraphs = @NamedSubgraph(name = "mascota", attributeNodes = {
+           @NamedAttributeNode("propietario"),
+           @NamedAttributeNode("especie"),
+           // Lado inverso de un @OneToOne: Hibernate no puede cargarlo de forma diferida
+           @NamedAttributeNode("historiaClinica")
+       }))
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -51,6 +70,21 @@ import java.time.LocalTime;
 @ToString(exclude = {"mascota", "veterinario", "servicio"})
 public class Cita {
 
+    /**
+     * Grafo de carga de los listados: relaciones que lee CitaMapper.
+     */
+    public static final String GRAFO_LISTADO = "Cita.listado";
+
+    /**
+     * Duración usada para detectar solapes cuando la cita no tiene duración estimada.
+     */
+    public static final int DURACION_POR_DEFECTO_MINUTOS = 30;
+
+    /**
+     * Minutos de un día; ningún intervalo de cita termina después.
+     */
+    public static final int MINUTOS_DIA = 24 * 60;
+
     /**
      * Identificador único de la cita.
      */
@@ -109,6 +143,22 @@ public class Cita {
     @Column(nullable = false)
     private Integer duracionEstimadaMinutos;
 
+    /**
+     * Minuto del día en que empieza la cita (hora * 60 + minuto).
+     * Se calcula al guardar; junto con minutoFin permite detectar solapes
+     * con el índice idx_cita_vet_fecha_intervalo.
+     */
+    @Column(name = "minuto_inicio")
+    @Setter(AccessLevel.NONE)
+    private Integer minutoInicio;
+
+    /**
+     * Minuto del día en que termina la cita (exclusivo), limitado al final del día.
+     */
+    @Column(name = "minuto_fin")
+    @Setter(AccessLevel.NONE)
+    private Integer minutoFin;
+
     /**
      * Estado actual de la cita.
      */
@@ -220,6 +270,38 @@ public class Cita {
     // MÉTODOS DE NEGOCIO
     // ===================================================================
 
+    /**
+     * Calcula el intervalo [minutoInicio, minutoFin) a partir de la hora y la duración.
+     * Se ejecuta antes de persistir o actualizar.
+     */
+    @PrePersist
+    @PreUpdate
+    public void calcularIntervaloMinutos() {
+        if (horaCita == null) {
+            minutoInicio = null;
+            minutoFin = null;
+            return;
+        }
+        minutoInicio = minutoDelDia(horaCita);
+        minutoFin = Math.min(minutoInicio + getDuracionEfectivaMinutos(), MINUTOS_DIA);
+    }
+
+    /**
+     * Duración que ocupa la cita en la agenda del veterinario.
+     */
+    public int getDuracionEfectivaMinutos() {
+        return duracionEstimadaMinutos != null && duracionEstimadaMinutos > 0
+            ? duracionEstimadaMinutos
+            : DURACION_POR_DEFECTO_MINUTOS;
+    }
+
+    /**
+     * Convierte una hora en minutos desde el inicio del día.
+     */
+    public static int minutoDelDia(LocalTime hora) {
+        return hora.getHour() * 60 + hora.getMinute();
+    }
+
     /**
      * Obtiene la hora de fin estimada (calculada).
      */
@@ -0,0 +1,28 @@
+package com.veterinaria.clinica_veternica.domain.agenda;
+
+/**
+ * Proyección agregada de citas por veterinario y estado, con los datos del veterinario
+ * que necesita el reporte de atenciones.
+ *
+ * @param idVeterinario ID del veterinario
+ * @param nombres Nombres del veterinario
+ * @param apellidos Apellidos del veterinario
+ * @param especialidad Especialidad del veterinario
+ * @param estado Estado de las citas
+ * @param total Número de citas
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+public record ConteoCitasVeterinario(Long idVeterinario,
+                                     String nombres,
+                                     String apellidos,
+                                     String especialidad,
+                                     EstadoCita estado,
+                                     Long total) {
+
+    public String nombreCompleto() {
+        return nombres + " " + apellidos;
+    }
+}
@@ -0,0 +1,19 @@
+package com.veterinaria.clinica_veternica.domain.agenda;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Proyección del resumen diario de citas agrupado por día y estado.
+ *
+ * @param fecha Fecha de las citas
+ * @param estado Estado de las citas
+ * @param total Número de citas
+ * @param ingresos Suma del precio final de las citas
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+public record ResumenCitasDia(LocalDate fecha, EstadoCita estado, Long total, BigDecimal ingresos) {
+}
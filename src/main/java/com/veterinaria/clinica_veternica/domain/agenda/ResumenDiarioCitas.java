@@ -0,0 +1,79 @@
+package com.veterinaria.clinica_veternica.domain.agenda;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Resumen diario de citas: número de citas e ingresos por día, veterinario, servicio y estado.
+ *
+ * Es una tabla derivada de citas que se recalcula por días completos
+ * (ver AgregadorDiarioCitas); los reportes y el dashboard leen rangos de esta tabla
+ * en lugar de recorrer todas las citas.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+@Entity
+@Table(name = "resumen_diario_citas",
+       uniqueConstraints = @UniqueConstraint(name = "uk_resumen_diario_citas",
+               columnNames = {"fecha", "id_veterinario", "id_servicio", "estado"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumenDiarioCitas {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_resumen")
+    private Long idResumen;
+
+    /**
+     * Fecha de las citas.
+     */
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    /**
+     * ID del veterinario de las citas.
+     */
+    @Column(name = "id_veterinario", nullable = false)
+    private Long idVeterinario;
+
+    /**
+     * ID del servicio de las citas.
+     */
+    @Column(name = "id_servicio", nullable = false)
+    private Long idServicio;
+
+    /**
+     * Estado de las citas.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoCita estado;
+
+    /**
+     * Número de citas.
+     */
+    @Column(name = "total_citas", nullable = false)
+    private Long totalCitas;
+
+    /**
+     * Suma del precio final de las citas.
+     */
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal ingresos;
+
+    /**
+     * Fecha en que se recalculó el día.
+     */
+    @Column(name = "actualizado_en", nullable = false)
+    private LocalDateTime actualizadoEn;
+}
@@ -0,0 +1,52 @@
+package com.veterinaria.clinica_veternica.domain.auditoria;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro persistente (solo inserción) de una operación de auditoría.
+ *
+ * Lo escribe en lotes el AuditLogger (write-behind); nunca se actualiza ni se elimina.
+ * Los índices cubren las consultas por entidad, usuario y rango de fechas.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-20
+ */
+@Entity
+@Table(name = "registros_auditoria",
+       indexes = {
+           @Index(name = "idx_auditoria_fecha", columnList = "fecha_hora"),
+           @Index(name = "idx_auditoria_entidad_fecha", columnList = "entidad, fecha_hora"),
+           @Index(name = "idx_auditoria_usuario_fecha", columnList = "usuario, fecha_hora")
+       })
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RegistroAuditoria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idRegistro;
+
+    @Column(name = "fecha_hora", nullable = false, updatable = false)
+    private LocalDateTime fechaHora;
+
+    @Column(nullable = false, length = 30, updatable = false)
+    private String accion;
+
+    @Column(nullable = false, length = 100, updatable = false)
+    private String entidad;
+
+    @Column(updatable = false)
+    private Long entidadId;
+
+    @Column(length = 100, updatable = false)
+    private String usuario;
+
+    @Column(length = 2000, updatable = false)
+    private String detalles;
+}
@@ -0,0 +1,50 @@
+package com.veterinaria.clinica_veternica.domain.clinico;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Proyección con la próxima dosis pendiente de una vacuna y los datos del propietario
+ * a quien se le recuerda.
+ *
+ * @param idVacunacion ID de la vacunación que programó la próxima dosis
+ * @param idMascota ID de la mascota
+ * @param nombreMascota Nombre de la mascota
+ * @param nombreVacuna Nombre de la vacuna
+ * @param fechaProximaDosis Fecha programada de la próxima dosis
+ * @param nombresPropietario Nombres del propietario
+ * @param apellidosPropietario Apellidos del propietario
+ * @param emailPropietario Email del propietario
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+public record DosisPendiente(Long idVacunacion,
+                             Long idMascota,
+                             String nombreMascota,
+                             String nombreVacuna,
+                             LocalDate fechaProximaDosis,
+                             String nombresPropietario,
+                             String apellidosPropietario,
+                             String emailPropietario) {
+
+    /**
+     * Clave que identifica el recordatorio de esta dosis: una por mascota, vacuna y fecha,
+     * de modo que una misma dosis no se recuerda dos veces y la del siguiente ciclo sí.
+     *
+     * @return Clave de deduplicación del recordatorio
+     */
+    public String claveRecordatorio() {
+        return "VACUNA:" + idMascota + ":" + nombreVacuna.trim().toUpperCase(Locale.ROOT) + ":" + fechaProximaDosis;
+    }
+
+    /**
+     * Nombre completo del propietario.
+     *
+     * @return Nombres y apellidos
+     */
+    public String nombrePropietario() {
+        return nombresPropietario + " " + apellidosPropietario;
+    }
+}
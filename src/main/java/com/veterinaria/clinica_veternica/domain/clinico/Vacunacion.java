@@ -46,6 +46,8 @@ import java.time.LocalDateTime;
            @Index(name = "idx_vacunacion_insumo", columnList = "id_insumo"),
            @Index(name = "idx_vacunacion_fecha", columnList = "fecha_aplicacion"),
            @Index(name = "idx_vacunacion_proxima", columnList = "fecha_proxima_dosis"),
+           @Index(name = "idx_vacunacion_proxima_pendiente",
+                  columnList = "esquema_completo, vigente, fecha_proxima_dosis"),
            @Index(name = "idx_vacunacion_nombre", columnList = "nombre_vacuna")
        })
 @EntityListeners(AuditingEntityListener.class)
@@ -0,0 +1,68 @@
+package com.veterinaria.clinica_veternica.domain.clinico;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa una versión guardada (memento) de una historia clínica.
+ *
+ * Las versiones son de solo inserción y se numeran desde 1 por historia. Cada cierto número
+ * de versiones se guarda una copia completa de los campos (snapshot); las demás guardan solo
+ * los campos que cambiaron respecto de la versión anterior (delta), en JSON.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-26
+ */
+@Entity
+@Immutable
+@Table(name = "versiones_historia_clinica",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_version_historia", columnNames = {"id_historia_clinica", "version"})
+       })
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VersionHistoriaClinica {
+
+    /**
+     * Identificador único de la fila.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idVersion;
+
+    /**
+     * ID de la historia clínica versionada.
+     */
+    @Column(name = "id_historia_clinica", nullable = false, updatable = false)
+    private Long idHistoriaClinica;
+
+    /**
+     * Número de versión dentro de la historia (1, 2, 3...).
+     */
+    @Column(nullable = false, updatable = false)
+    private Integer version;
+
+    /**
+     * true si el contenido es una copia completa; false si es un delta sobre la versión anterior.
+     */
+    @Column(nullable = false, updatable = false)
+    private Boolean completa;
+
+    /**
+     * Campos de la versión en JSON (todos en un snapshot, solo los modificados en un delta).
+     */
+    @Column(nullable = false, updatable = false, columnDefinition = "TEXT")
+    private String contenido;
+
+    /**
+     * Fecha y hora en que se guardó la versión.
+     */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime fechaSnapshot;
+}
@@ -26,7 +26,8 @@ import java.time.LocalDateTime;
            @Index(name = "idx_comunicacion_canal", columnList = "canal"),
            @Index(name = "idx_comunicacion_destinatario", columnList = "destinatario_email"),
            @Index(name = "idx_comunicacion_enviada", columnList = "enviada"),
-           @Index(name = "idx_comunicacion_cita", columnList = "id_cita")
+           @Index(name = "idx_comunicacion_cita", columnList = "id_cita"),
+           @Index(name = "idx_comunicacion_outbox", columnList = "enviada, fecha_programada_envio")
        })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
@@ -145,6 +146,13 @@ public class Comunicacion {
     @Builder.Default
     private Integer maxIntentos = 3;
 
+    /**
+     * Fecha a partir de la cual se puede volver a intentar el envío (espera tras un fallo,
+     * o reserva del nodo que la reclamó mientras la envía).
+     */
+    @Column(name = "proximo_intento")
+    private LocalDateTime proximoIntento;
+
     /**
      * Mensaje de error si falló.
      */
@@ -159,6 +167,14 @@ public class Comunicacion {
     @Column(name = "id_externo", length = 100)
     private String idExterno;
 
+    /**
+     * Clave que identifica el hecho que originó la comunicación (p. ej. la próxima dosis de
+     * una vacuna), para no generarla dos veces. Nula en las comunicaciones sin deduplicación.
+     */
+    @Size(max = 200, message = "La clave de deduplicación no puede exceder 200 caracteres")
+    @Column(name = "clave_deduplicacion", unique = true, length = 200)
+    private String claveDeduplicacion;
+
     /**
      * Fecha de creación.
      */
@@ -175,6 +191,7 @@ public class Comunicacion {
         this.fechaEnvio = LocalDateTime.now();
         this.idExterno = idExterno;
         this.mensajeError = null;
+        this.proximoIntento = null;
     }
 
     public void registrarFalloEnvio(String error) {
@@ -0,0 +1,34 @@
+package com.veterinaria.clinica_veternica.domain.inventario;
+
+/**
+ * Proyección de un inventario en alerta de stock, calculada en una sola consulta.
+ *
+ * @param idInventario ID del inventario consolidado
+ * @param insumo Nombre del insumo
+ * @param cantidadActual Stock disponible
+ * @param stockMinimo Stock mínimo del insumo
+ * @param stockMaximo Stock máximo del insumo (puede ser null)
+ * @param nivel Nivel de alerta actual
+ * @param nivelNotificado Nivel de la última alerta notificada (null si no se ha notificado)
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-22
+ */
+public record AlertaStock(Long idInventario,
+                          String insumo,
+                          Integer cantidadActual,
+                          Integer stockMinimo,
+                          Integer stockMaximo,
+                          NivelAlertaStock nivel,
+                          NivelAlertaStock nivelNotificado) {
+
+    /**
+     * Verifica si la alerta debe notificarse: es nueva o su nivel empeoró.
+     *
+     * @return true si debe incluirse en el resumen
+     */
+    public boolean requiereNotificacion() {
+        return nivel.esMasGraveQue(nivelNotificado);
+    }
+}
@@ -0,0 +1,46 @@
+package com.veterinaria.clinica_veternica.domain.inventario;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que registra la última alerta de stock notificada para un inventario.
+ *
+ * El monitoreo de stock solo vuelve a notificar un insumo cuando su nivel empeora;
+ * el registro se elimina cuando el stock se recupera por encima del mínimo.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Entity
+@Table(name = "alertas_stock_notificadas")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertaStockNotificada {
+
+    /**
+     * ID del inventario consolidado alertado.
+     */
+    @Id
+    @Column(name = "id_inventario")
+    private Long idInventario;
+
+    /**
+     * Nivel de la última alerta notificada.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NivelAlertaStock nivel;
+
+    /**
+     * Fecha de la última notificación.
+     */
+    @Column(nullable = false)
+    private LocalDateTime fechaNotificacion;
+}
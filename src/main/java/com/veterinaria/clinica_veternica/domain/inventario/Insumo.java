@@ -3,6 +3,7 @@ package com.veterinaria.clinica_veternica.domain.inventario;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -194,6 +195,15 @@ public class Insumo {
     @Builder.Default
     private Boolean activo = true;
 
+    /**
+     * Versión para bloqueo optimista. Los movimientos de stock la incrementan, de modo que
+     * guardar un insumo leído antes de un movimiento falla en lugar de pisar la cantidad.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Fecha y hora de creación del registro.
      */
@@ -3,6 +3,7 @@ package com.veterinaria.clinica_veternica.domain.inventario;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -126,6 +127,14 @@ public class Inventario {
     @Builder.Default
     private Boolean requiereReorden = false;
 
+    /**
+     * Versión para bloqueo optimista (ver MotorMovimientosStock).
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Fecha y hora de última actualización del inventario.
      */
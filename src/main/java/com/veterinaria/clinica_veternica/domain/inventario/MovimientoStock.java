@@ -0,0 +1,75 @@
+package com.veterinaria.clinica_veternica.domain.inventario;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa un movimiento en el libro de movimientos de stock.
+ *
+ * El libro es de solo inserción: cada entrada, salida o ajuste del stock de un insumo
+ * agrega una fila y ninguna se modifica después. La suma de las cantidades de un insumo
+ * coincide con su stock, lo que permite auditar y detectar desviaciones.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-25
+ */
+@Entity
+@Immutable
+@Table(name = "movimientos_stock",
+       indexes = {
+           @Index(name = "idx_movimiento_insumo_fecha", columnList = "id_insumo, fecha")
+       })
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovimientoStock {
+
+    /**
+     * Identificador único del movimiento.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idMovimiento;
+
+    /**
+     * ID del insumo afectado.
+     */
+    @Column(name = "id_insumo", nullable = false, updatable = false)
+    private Long idInsumo;
+
+    /**
+     * Tipo de movimiento.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private TipoMovimientoStock tipo;
+
+    /**
+     * Variación del stock: positiva en entradas, negativa en salidas.
+     */
+    @Column(nullable = false, updatable = false)
+    private Integer cantidad;
+
+    /**
+     * Stock del insumo después de aplicar el movimiento.
+     */
+    @Column(nullable = false, updatable = false)
+    private Integer stockResultante;
+
+    /**
+     * Origen del movimiento (p. ej. "VACUNACION:HC-15", "LOTE").
+     */
+    @Column(length = 100, updatable = false)
+    private String referencia;
+
+    /**
+     * Fecha y hora del movimiento.
+     */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime fecha;
+}
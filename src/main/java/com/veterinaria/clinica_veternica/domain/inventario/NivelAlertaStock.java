@@ -0,0 +1,44 @@
+package com.veterinaria.clinica_veternica.domain.inventario;
+
+/**
+ * Enum que representa la gravedad de una alerta de stock de un insumo.
+ *
+ * Los niveles están ordenados de menor a mayor gravedad:
+ * - BAJO: Stock igual o inferior al mínimo
+ * - CRITICO: Stock igual o inferior a la mitad del mínimo
+ * - AGOTADO: Stock en cero
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-22
+ */
+public enum NivelAlertaStock {
+    BAJO("Stock Bajo"),
+    CRITICO("Stock Crítico"),
+    AGOTADO("Stock Agotado");
+
+    private final String displayName;
+
+    NivelAlertaStock(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Obtiene el nombre descriptivo del nivel.
+     *
+     * @return Nombre del nivel
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Verifica si este nivel es más grave que otro.
+     *
+     * @param otro Nivel a comparar (null equivale a sin alerta)
+     * @return true si este nivel es más grave
+     */
+    public boolean esMasGraveQue(NivelAlertaStock otro) {
+        return otro == null || ordinal() > otro.ordinal();
+    }
+}
@@ -0,0 +1,28 @@
+package com.veterinaria.clinica_veternica.domain.inventario;
+
+/**
+ * Movimiento de stock pendiente de aplicar por MotorMovimientosStock.
+ *
+ * @param idInsumo ID del insumo
+ * @param tipo Tipo de movimiento
+ * @param cantidad Unidades del movimiento: positivas en entradas y salidas, con signo en ajustes
+ * @param referencia Origen del movimiento (opcional)
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-25
+ */
+public record SolicitudMovimientoStock(Long idInsumo,
+                                       TipoMovimientoStock tipo,
+                                       int cantidad,
+                                       String referencia) {
+
+    /**
+     * Variación del stock que produce el movimiento.
+     *
+     * @return Cantidad con signo (negativa en salidas)
+     */
+    public int variacion() {
+        return tipo == TipoMovimientoStock.SALIDA ? -cantidad : cantidad;
+    }
+}
@@ -0,0 +1,43 @@
+package com.veterinaria.clinica_veternica.domain.inventario;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección con el stock de un insumo leído tras aplicar un movimiento.
+ *
+ * @param idInsumo ID del insumo
+ * @param nombre Nombre del insumo
+ * @param activo Si el insumo está activo
+ * @param cantidadStock Stock actual
+ * @param stockMinimo Stock mínimo (punto de reorden)
+ * @param precioCompra Precio unitario de compra
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-25
+ */
+public record StockInsumo(Long idInsumo,
+                          String nombre,
+                          Boolean activo,
+                          Integer cantidadStock,
+                          Integer stockMinimo,
+                          BigDecimal precioCompra) {
+
+    /**
+     * Valor del stock a precio de compra.
+     *
+     * @return precioCompra * cantidadStock, o null si no hay precio
+     */
+    public BigDecimal valorTotal() {
+        return precioCompra != null ? precioCompra.multiply(BigDecimal.valueOf(cantidadStock)) : null;
+    }
+
+    /**
+     * Verifica si el stock quedó en el punto de reorden o por debajo.
+     *
+     * @return true si requiere reorden
+     */
+    public boolean requiereReorden() {
+        return stockMinimo != null && cantidadStock <= stockMinimo;
+    }
+}
@@ -0,0 +1,19 @@
+package com.veterinaria.clinica_veternica.domain.inventario;
+
+/**
+ * Enum que representa el tipo de un movimiento de stock registrado en el libro de movimientos.
+ *
+ * Tipos:
+ * - ENTRADA: Ingreso de unidades (compra, devolución)
+ * - SALIDA: Consumo de unidades (vacunación, uso en consulta)
+ * - AJUSTE: Corrección manual del stock (edición del insumo, conteo físico)
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-25
+ */
+public enum TipoMovimientoStock {
+    ENTRADA,
+    SALIDA,
+    AJUSTE
+}
@@ -2,6 +2,7 @@ package com.veterinaria.clinica_veternica.domain.paciente;
 
 import com.veterinaria.clinica_veternica.domain.agenda.Cita;
 import com.veterinaria.clinica_veternica.domain.clinico.HistoriaClinica;
+import com.veterinaria.clinica_veternica.service.busqueda.IndiceBusquedaListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -34,7 +35,7 @@ import java.util.List;
            @Index(name = "idx_mascota_raza", columnList = "id_raza"),
            @Index(name = "idx_mascota_activo", columnList = "activo")
        })
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, IndiceBusquedaListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
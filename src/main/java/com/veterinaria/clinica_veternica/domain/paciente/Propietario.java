@@ -1,6 +1,7 @@
 package com.veterinaria.clinica_veternica.domain.paciente;
 
 import com.veterinaria.clinica_veternica.domain.usuario.Usuario;
+import com.veterinaria.clinica_veternica.service.busqueda.IndiceBusquedaListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -33,7 +34,7 @@ import java.util.List;
            @UniqueConstraint(name = "uk_propietario_documento", columnNames = "documento"),
            @UniqueConstraint(name = "uk_propietario_email", columnNames = "email")
        })
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, IndiceBusquedaListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
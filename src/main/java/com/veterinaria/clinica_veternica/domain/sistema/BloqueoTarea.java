@@ -0,0 +1,51 @@
+package com.veterinaria.clinica_veternica.domain.sistema;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa el bloqueo de una tarea programada entre instancias.
+ *
+ * Una tarea solo se ejecuta en la instancia que consigue el bloqueo (bloqueadoHasta
+ * vencido); si esa instancia cae, el bloqueo vence solo al llegar a bloqueadoHasta.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-23
+ */
+@Entity
+@Table(name = "bloqueos_tareas")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BloqueoTarea {
+
+    /**
+     * Nombre único de la tarea.
+     */
+    @Id
+    @Column(length = 100)
+    private String nombre;
+
+    /**
+     * Fecha hasta la cual la tarea está bloqueada.
+     */
+    @Column(name = "bloqueado_hasta", nullable = false)
+    private LocalDateTime bloqueadoHasta;
+
+    /**
+     * Fecha en que se adquirió el bloqueo.
+     */
+    @Column(name = "bloqueado_en", nullable = false)
+    private LocalDateTime bloqueadoEn;
+
+    /**
+     * Instancia que tiene (o tuvo) el bloqueo.
+     */
+    @Column(name = "bloqueado_por", nullable = false, length = 255)
+    private String bloqueadoPor;
+}
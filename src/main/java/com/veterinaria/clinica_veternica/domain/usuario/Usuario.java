@@ -1,5 +1,6 @@
 package com.veterinaria.clinica_veternica.domain.usuario;
 
+import com.veterinaria.clinica_veternica.security.jwt.JwtPrincipalCacheListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -38,7 +39,7 @@ import java.time.LocalDateTime;
            @Index(name = "idx_usuario_email", columnList = "email"),
            @Index(name = "idx_usuario_rol", columnList = "rol")
        })
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, JwtPrincipalCacheListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
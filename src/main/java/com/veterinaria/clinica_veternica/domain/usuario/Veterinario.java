@@ -2,6 +2,7 @@ package com.veterinaria.clinica_veternica.domain.usuario;
 
 import com.veterinaria.clinica_veternica.domain.agenda.Cita;
 import com.veterinaria.clinica_veternica.domain.agenda.Horario;
+import com.veterinaria.clinica_veternica.service.busqueda.IndiceBusquedaListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -39,6 +40,7 @@ import java.util.List;
            @Index(name = "idx_veterinario_especialidad", columnList = "especialidad")
        })
 @DiscriminatorValue("VETERINARIO")
+@EntityListeners(IndiceBusquedaListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
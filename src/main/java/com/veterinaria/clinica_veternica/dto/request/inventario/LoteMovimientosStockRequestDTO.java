@@ -0,0 +1,30 @@
+package com.veterinaria.clinica_veternica.dto.request.inventario;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de Request para un lote de movimientos de stock (se aplican todos o ninguno).
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-25
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoteMovimientosStockRequestDTO {
+
+    /**
+     * Movimientos en el orden en que deben aplicarse.
+     */
+    @NotEmpty(message = "El lote debe tener al menos un movimiento")
+    private List<@Valid MovimientoStockRequestDTO> movimientos;
+}
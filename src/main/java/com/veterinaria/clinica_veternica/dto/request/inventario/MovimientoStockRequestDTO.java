@@ -0,0 +1,47 @@
+package com.veterinaria.clinica_veternica.dto.request.inventario;
+
+import com.veterinaria.clinica_veternica.domain.inventario.TipoMovimientoStock;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de Request para un movimiento de stock de un lote.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-25
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovimientoStockRequestDTO {
+
+    /**
+     * ID del insumo.
+     */
+    @NotNull(message = "El insumo es obligatorio")
+    private Long idInsumo;
+
+    /**
+     * Tipo de movimiento (ENTRADA, SALIDA, AJUSTE).
+     */
+    @NotNull(message = "El tipo de movimiento es obligatorio")
+    private TipoMovimientoStock tipo;
+
+    /**
+     * Unidades: positivas en entradas y salidas, con signo en ajustes.
+     */
+    @NotNull(message = "La cantidad es obligatoria")
+    private Integer cantidad;
+
+    /**
+     * Origen del movimiento (factura, conteo físico, etc.).
+     */
+    @Size(max = 100, message = "La referencia no puede exceder 100 caracteres")
+    private String referencia;
+}
@@ -0,0 +1,49 @@
+package com.veterinaria.clinica_veternica.dto.request.reporte;
+
+import com.veterinaria.clinica_veternica.service.reporte.TipoTrabajoReporte;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO de Request para enviar un trabajo de reporte en segundo plano.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrabajoReporteRequestDTO {
+
+    /**
+     * Reporte a generar.
+     */
+    @NotNull(message = "El tipo de reporte es obligatorio")
+    private TipoTrabajoReporte tipo;
+
+    /**
+     * Formato de la exportación de citas: pdf, excel o json.
+     * Los reportes CITAS y VETERINARIOS se generan siempre en JSON.
+     */
+    @Pattern(regexp = "(?i)pdf|excel|xlsx|json", message = "El formato debe ser pdf, excel o json")
+    @Builder.Default
+    private String formato = "json";
+
+    /**
+     * Fecha de inicio del rango (obligatoria salvo en EXPORTACION_CITAS).
+     */
+    private LocalDate fechaInicio;
+
+    /**
+     * Fecha de fin del rango (obligatoria salvo en EXPORTACION_CITAS).
+     */
+    private LocalDate fechaFin;
+}
@@ -0,0 +1,28 @@
+package com.veterinaria.clinica_veternica.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para una página obtenida con paginación keyset (seek).
+ * Para pedir la página siguiente se envía siguienteCursor como parámetro "cursor".
+ *
+ * @param <T> Tipo de los elementos
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-20
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaKeysetDTO<T> {
+    private List<T> contenido;
+    private int tamanio;
+    private boolean hayMas;
+    private String siguienteCursor;
+}
@@ -0,0 +1,48 @@
+package com.veterinaria.clinica_veternica.dto.response.agenda;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO de Response con el próximo slot libre de un veterinario.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-21
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProximaDisponibilidadDTO {
+
+    /**
+     * ID del veterinario.
+     */
+    private Long idVeterinario;
+
+    /**
+     * Nombre completo del veterinario.
+     */
+    private String nombreVeterinario;
+
+    /**
+     * Fecha del slot libre.
+     */
+    private LocalDate fecha;
+
+    /**
+     * Hora de inicio del slot libre.
+     */
+    private LocalTime hora;
+
+    /**
+     * Duración del slot en minutos (duración de cita del horario).
+     */
+    private Integer duracionMinutos;
+}
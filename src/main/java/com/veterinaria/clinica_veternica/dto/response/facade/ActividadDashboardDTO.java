@@ -0,0 +1,52 @@
+package com.veterinaria.clinica_veternica.dto.response.facade;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO para la actividad diaria de la clínica en un rango de fechas (gráficas del dashboard).
+ * Se calcula a partir del resumen diario de citas.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActividadDashboardDTO {
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+
+    /**
+     * Actividad por día, en orden de fecha (solo días con citas).
+     */
+    private List<ActividadDiaDTO> dias;
+    private Long totalCitas;
+    private Long totalAtendidas;
+    private Long totalCanceladas;
+    private BigDecimal totalIngresos;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ActividadDiaDTO {
+        private LocalDate fecha;
+        private Long totalCitas;
+        private Long citasAtendidas;
+        private Long citasCanceladas;
+
+        /**
+         * Suma del precio final de las citas atendidas del día.
+         */
+        private BigDecimal ingresos;
+    }
+}
@@ -6,12 +6,14 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO para reporte de citas en un rango de fechas.
- * Incluye las citas y estadísticas del período.
+ * Incluye las citas (si se pidió el detalle) y estadísticas del período.
  * Reemplaza el uso de Map<String, Object> para type-safety.
  *
  * @author Clínica Veterinaria Team
@@ -25,9 +27,28 @@ import java.util.List;
 public class ReporteCitasDTO {
     private LocalDate fechaInicio;
     private LocalDate fechaFin;
+
+    /**
+     * Detalle de las citas; null si el reporte se pidió sin detalle.
+     */
     private List<CitaResponseDTO> citas;
     private Integer totalCitas;
     private Long citasAtendidas;
     private Long citasProgramadas;
     private Long citasCanceladas;
+
+    /**
+     * Número de citas por estado (todos los estados, incluidos los que no tienen citas).
+     */
+    private Map<String, Long> citasPorEstado;
+
+    /**
+     * Número de citas por día, en orden de fecha (solo días con citas).
+     */
+    private Map<LocalDate, Long> citasPorDia;
+
+    /**
+     * Suma del precio final de las citas atendidas del período.
+     */
+    private BigDecimal ingresos;
 }
@@ -0,0 +1,52 @@
+package com.veterinaria.clinica_veternica.dto.response.facade;
+
+import com.veterinaria.clinica_veternica.service.reporte.EstadoTrabajoReporte;
+import com.veterinaria.clinica_veternica.service.reporte.TipoTrabajoReporte;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO con el estado de un trabajo de reporte en segundo plano.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrabajoReporteDTO {
+
+    private String id;
+    private TipoTrabajoReporte tipo;
+    private String formato;
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    private EstadoTrabajoReporte estado;
+
+    /**
+     * Avance de 0 a 100.
+     */
+    private Integer progreso;
+    private Long filasProcesadas;
+    private Long totalFilas;
+
+    /**
+     * true si se sirvió un archivo ya generado con los mismos parámetros y datos.
+     */
+    private Boolean reutilizado;
+    private String error;
+    private LocalDateTime creadoEn;
+    private LocalDateTime finalizadoEn;
+
+    /**
+     * Ruta de descarga, presente cuando el trabajo está COMPLETADO.
+     */
+    private String urlDescarga;
+}
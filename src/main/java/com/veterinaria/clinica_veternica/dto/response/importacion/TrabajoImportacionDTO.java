@@ -0,0 +1,55 @@
+package com.veterinaria.clinica_veternica.dto.response.importacion;
+
+import com.veterinaria.clinica_veternica.service.importacion.EstadoImportacion;
+import com.veterinaria.clinica_veternica.service.importacion.FormatoImportacion;
+import com.veterinaria.clinica_veternica.service.importacion.TipoImportacion;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO con el estado de una importación masiva.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrabajoImportacionDTO {
+
+    private String id;
+    private TipoImportacion tipo;
+    private FormatoImportacion formato;
+    private String nombreArchivo;
+    private EstadoImportacion estado;
+
+    /**
+     * Avance de 0 a 100, según los bytes del archivo ya procesados.
+     */
+    private Integer progreso;
+    private Long filasLeidas;
+    private Long filasInsertadas;
+
+    /**
+     * Filas ya existentes (o repetidas en el archivo) que no se insertaron.
+     */
+    private Long filasOmitidas;
+    private Long filasConError;
+    private Integer lotes;
+
+    /**
+     * Primeros errores por fila ("Fila N: motivo"), hasta app.importacion.maximo-errores-reportados.
+     */
+    private List<String> errores;
+    private String error;
+    private LocalDateTime creadoEn;
+    private LocalDateTime iniciadoEn;
+    private LocalDateTime finalizadoEn;
+}
@@ -0,0 +1,31 @@
+package com.veterinaria.clinica_veternica.dto.response.inventario;
+
+import com.veterinaria.clinica_veternica.domain.inventario.TipoMovimientoStock;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de Response para un movimiento del libro de stock.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-25
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovimientoStockResponseDTO {
+
+    private Long idMovimiento;
+    private Long idInsumo;
+    private TipoMovimientoStock tipo;
+    private Integer cantidad;
+    private Integer stockResultante;
+    private String referencia;
+    private LocalDateTime fecha;
+}
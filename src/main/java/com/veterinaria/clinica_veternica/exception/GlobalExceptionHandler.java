@@ -2,6 +2,7 @@ package com.veterinaria.clinica_veternica.exception;
 
 import com.veterinaria.clinica_veternica.dto.response.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -128,6 +129,34 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
+    /**
+     * Maneja ConcurrencyFailureException (409 Conflict).
+     * Se lanza cuando otra operación modificó el mismo registro a la vez (bloqueo optimista)
+     * o no se pudo obtener un bloqueo; el cliente puede reintentar con los datos actuales.
+     *
+     * @param ex Excepción
+     * @param request Request web
+     * @return ResponseEntity con ErrorResponse
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyFailure(
+            ConcurrencyFailureException ex,
+            WebRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error(HttpStatus.CONFLICT.getReasonPhrase())
+                .message("El registro fue modificado por otra operación. Consulte los datos actuales e intente de nuevo")
+                .path(getPath(request))
+                .traceId(generateTraceId())
+                .build();
+
+        log.warn("Conflicto de concurrencia: {}", ex.getMessage());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     /**
      * Maneja MethodArgumentNotValidException (errores de @Valid en RequestBody).
      * Se lanza automáticamente cuando fallan las validaciones de Bean Validation.
@@ -24,6 +24,12 @@ public interface HistoriaClinicaMapper {
     @Mapping(target = "cantidadVacunas", source = "vacunaciones", qualifiedByName = "contarLista")
     HistoriaClinicaResponseDTO toResponseDTO(HistoriaClinica historia);
 
+    @Named("sinConteos")
+    @Mapping(target = "mascota", source = "mascota", qualifiedByName = "mapMascotaSimple")
+    @Mapping(target = "cantidadEvoluciones", ignore = true)
+    @Mapping(target = "cantidadVacunas", ignore = true)
+    HistoriaClinicaResponseDTO toResponseDTOSinConteos(HistoriaClinica historia);
+
     List<HistoriaClinicaResponseDTO> toResponseDTOList(List<HistoriaClinica> historias);
 
     @Mapping(target = "idHistoriaClinica", ignore = true)
@@ -30,6 +30,7 @@ public interface InsumoMapper {
     @Mapping(target = "fechaUltimaCompra", ignore = true)
     @Mapping(target = "fechaCreacion", ignore = true)
     @Mapping(target = "fechaModificacion", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Insumo toEntity(InsumoRequestDTO requestDTO);
 
     /**
@@ -68,6 +69,7 @@ public interface InsumoMapper {
     @Mapping(target = "fechaUltimaCompra", ignore = true)
     @Mapping(target = "fechaCreacion", ignore = true)
     @Mapping(target = "fechaModificacion", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateEntityFromDTO(InsumoRequestDTO requestDTO, @MappingTarget Insumo insumo);
 
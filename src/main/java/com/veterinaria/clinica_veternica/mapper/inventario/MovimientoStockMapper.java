@@ -0,0 +1,53 @@
+package com.veterinaria.clinica_veternica.mapper.inventario;
+
+import com.veterinaria.clinica_veternica.domain.inventario.MovimientoStock;
+import com.veterinaria.clinica_veternica.domain.inventario.SolicitudMovimientoStock;
+import com.veterinaria.clinica_veternica.dto.request.inventario.MovimientoStockRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.inventario.MovimientoStockResponseDTO;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+/**
+ * Mapper para convertir entre MovimientoStock (Entity) y sus DTOs.
+ * MapStruct genera automáticamente la implementación.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-25
+ */
+@Mapper(componentModel = "spring")
+public interface MovimientoStockMapper {
+
+    /**
+     * Convierte un MovimientoStockRequestDTO en la solicitud que aplica el motor de stock.
+     *
+     * @param requestDTO DTO de request
+     * @return Solicitud de movimiento
+     */
+    SolicitudMovimientoStock toSolicitud(MovimientoStockRequestDTO requestDTO);
+
+    /**
+     * Convierte una lista de MovimientoStockRequestDTO en solicitudes.
+     *
+     * @param requestDTOs DTOs de request
+     * @return Solicitudes de movimiento
+     */
+    List<SolicitudMovimientoStock> toSolicitudList(List<MovimientoStockRequestDTO> requestDTOs);
+
+    /**
+     * Convierte un MovimientoStock (Entity) a MovimientoStockResponseDTO.
+     *
+     * @param movimiento Entidad
+     * @return DTO de response
+     */
+    MovimientoStockResponseDTO toResponseDTO(MovimientoStock movimiento);
+
+    /**
+     * Convierte una lista de MovimientoStock a lista de MovimientoStockResponseDTO.
+     *
+     * @param movimientos Lista de entidades
+     * @return Lista de DTOs
+     */
+    List<MovimientoStockResponseDTO> toResponseDTOList(List<MovimientoStock> movimientos);
+}
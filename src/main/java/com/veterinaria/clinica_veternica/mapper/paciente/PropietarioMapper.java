@@ -44,6 +44,20 @@ public interface PropietarioMapper {
     @Mapping(target = "cantidadMascotas", expression = "java(propietario.getCantidadMascotas())")
     PropietarioResponseDTO toResponseDTO(Propietario propietario);
 
+    /**
+     * Convierte un Propietario a PropietarioResponseDTO sin inicializar la colección de
+     * mascotas. El llamador asigna cantidadMascotas a partir de un conteo agrupado.
+     *
+     * @param propietario Entidad
+     * @return DTO de response sin cantidadMascotas
+     */
+    @Named("sinConteos")
+    @Mapping(target = "nombreCompleto", expression = "java(getNombreCompleto(propietario))")
+    @Mapping(target = "edad", ignore = true)
+    @Mapping(target = "direccionCompleta", expression = "java(getDireccionCompleta(propietario))")
+    @Mapping(target = "cantidadMascotas", ignore = true)
+    PropietarioResponseDTO toResponseDTOSinConteos(Propietario propietario);
+
     /**
      * Convierte una lista de Propietario a lista de PropietarioResponseDTO.
      *
@@ -44,6 +44,21 @@ public interface VeterinarioMapper {
     @Mapping(target = "usuario", source = "usuario", qualifiedByName = "mapUsuarioSimple")
     VeterinarioResponseDTO toResponseDTO(Veterinario veterinario);
 
+    /**
+     * Convierte un Veterinario a VeterinarioResponseDTO sin inicializar las colecciones de
+     * citas y horarios. El llamador asigna los conteos a partir de consultas agrupadas.
+     *
+     * @param veterinario Entidad
+     * @return DTO de response sin cantidadCitas ni cantidadHorarios
+     */
+    @Named("sinConteos")
+    @Mapping(target = "nombreCompleto", source = "veterinario", qualifiedByName = "getNombreCompletoVet")
+    @Mapping(target = "disponible", source = "activo")
+    @Mapping(target = "cantidadCitas", ignore = true)
+    @Mapping(target = "cantidadHorarios", ignore = true)
+    @Mapping(target = "usuario", source = "usuario", qualifiedByName = "mapUsuarioSimple")
+    VeterinarioResponseDTO toResponseDTOSinConteos(Veterinario veterinario);
+
     /**
      * Convierte una lista de Veterinario a lista de VeterinarioResponseDTO.
      *
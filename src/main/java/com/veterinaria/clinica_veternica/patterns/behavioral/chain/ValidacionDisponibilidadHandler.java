@@ -5,6 +5,8 @@ import com.veterinaria.clinica_veternica.domain.agenda.Horario;
 import com.veterinaria.clinica_veternica.exception.ValidationException;
 import com.veterinaria.clinica_veternica.repository.CitaRepository;
 import com.veterinaria.clinica_veternica.repository.HorarioRepository;
+import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import com.veterinaria.clinica_veternica.service.disponibilidad.AgendaDia;
 import com.veterinaria.clinica_veternica.util.Constants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +33,12 @@ import java.util.stream.Collectors;
  * - Valida que no haya conflictos con otras citas
  * - Valida el límite de citas simultáneas
  *
+ * Detección de solapes (siempre contra la base de datos: el IndiceDisponibilidad de cada nodo puede
+ * ir por detrás de una cancelación o reprogramación reciente y rechazaría un hueco ya libre):
+ * - Bloqueo de la fila del veterinario hasta el commit: dos reservas concurrentes del mismo
+ *   veterinario se serializan y la segunda ve la cita de la primera
+ * - Consulta sobre el intervalo indexado [minuto_inicio, minuto_fin) de la cita
+ *
  * @author Clínica Veterinaria Team
  * @version 1.0
  * @since 2025-11-04
@@ -42,6 +50,7 @@ public class ValidacionDisponibilidadHandler extends ValidacionHandler {
 
     private final HorarioRepository horarioRepository;
     private final CitaRepository citaRepository;
+    private final VeterinarioRepository veterinarioRepository;
 
     @Override
     protected boolean validarEspecifico(Cita cita) throws ValidationException {
@@ -54,10 +63,10 @@ public class ValidacionDisponibilidadHandler extends ValidacionHandler {
         }
 
         // Validar que la hora esté dentro del horario del veterinario
-        validarHorarioVeterinario(cita);
+        List<Horario> horariosDelDia = validarHorarioVeterinario(cita);
 
         // Validar que no haya conflictos con otras citas
-        validarConflictosCitas(cita);
+        validarConflictosCitas(cita, horariosDelDia);
 
         log.debug("Validación de disponibilidad: OK");
         return true;
@@ -65,8 +74,10 @@ public class ValidacionDisponibilidadHandler extends ValidacionHandler {
 
     /**
      * Valida que la hora de la cita esté dentro del horario laboral del veterinario.
+     *
+     * @return Horarios activos del veterinario para el día de la cita
      */
-    private void validarHorarioVeterinario(Cita cita) throws ValidationException {
+    private List<Horario> validarHorarioVeterinario(Cita cita) throws ValidationException {
         DayOfWeek diaSemana = cita.getFechaCita().getDayOfWeek();
         List<Horario> horariosDelDia = horarioRepository.findByVeterinario(cita.getVeterinario())
                 .stream()
@@ -122,6 +133,7 @@ public class ValidacionDisponibilidadHandler extends ValidacionHandler {
                 validarAlineacionConIntervalo(cita, horarioValido);
             }
         }
+        return horariosDelDia;
     }
 
     /**
@@ -150,51 +162,52 @@ public class ValidacionDisponibilidadHandler extends ValidacionHandler {
     /**
      * Valida que no haya conflictos con otras citas del veterinario.
      */
-    private void validarConflictosCitas(Cita cita) throws ValidationException {
+    private void validarConflictosCitas(Cita cita, List<Horario> horariosDelDia) throws ValidationException {
         LocalDate fechaCita = cita.getFechaCita();
         LocalTime horaCita = cita.getHoraCita();
-        Integer duracionMinutos = cita.getDuracionEstimadaMinutos() != null
-                ? cita.getDuracionEstimadaMinutos()
-                : 30;
+        int minutoInicio = Cita.minutoDelDia(horaCita);
+        int minutoFin = Math.min(minutoInicio + cita.getDuracionEfectivaMinutos(), Cita.MINUTOS_DIA);
+        int maxCitasSimultaneas = maxCitasSimultaneas(horariosDelDia, horaCita);
 
-        LocalTime horaFinCita = horaCita.plusMinutes(duracionMinutos);
+        // 1. Serializar las reservas del veterinario hasta el commit de esta transacción
+        veterinarioRepository.bloquearParaReserva(cita.getVeterinario().getIdPersonal());
 
-        // Buscar citas que se solapen con el rango de tiempo
+        // 2. Buscar citas que se solapen con el intervalo (ya con las reservas concurrentes confirmadas)
         List<Cita> citasSolapadas = citaRepository.findCitasSolapadas(
                 cita.getVeterinario(),
                 fechaCita,
                 horaCita,
-                horaFinCita,
+                AgendaDia.hora(minutoFin % Cita.MINUTOS_DIA),
                 cita.getIdCita() // null para nuevas citas, ID para actualizaciones
         );
 
-        if (!citasSolapadas.isEmpty()) {
-            // Obtener el horario para verificar maxCitasSimultaneas
-            DayOfWeek diaSemana = fechaCita.getDayOfWeek();
-            List<Horario> horariosDelDia = horarioRepository.findByVeterinario(cita.getVeterinario())
-                    .stream()
-                    .filter(h -> h.getDiaSemana().equals(diaSemana) && Boolean.TRUE.equals(h.getActivo()))
-                    .filter(h -> !horaCita.isBefore(h.getHoraInicio()) && horaCita.isBefore(h.getHoraFin()))
-                    .collect(Collectors.toList());
-
-            int maxCitasSimultaneas = horariosDelDia.isEmpty() ? 1 :
-                    horariosDelDia.get(0).getMaxCitasSimultaneas() != null ?
-                    horariosDelDia.get(0).getMaxCitasSimultaneas() : 1;
-
-            // Si ya hay el máximo de citas simultáneas, rechazar
-            if (citasSolapadas.size() >= maxCitasSimultaneas) {
-                String citasInfo = citasSolapadas.stream()
-                        .map(c -> c.getHoraCita() + " (" + c.getMascota().getNombre() + ")")
-                        .collect(Collectors.joining(", "));
-
-                throw new ValidationException(
-                        "El veterinario ya tiene " + citasSolapadas.size() + " cita(s) en ese horario. " +
-                        "Citas existentes: " + citasInfo + ". Máximo permitido: " + maxCitasSimultaneas,
-                        "horaCita",
-                        "Ya existe(n) cita(s) en ese horario"
-                );
-            }
+        // Si ya hay el máximo de citas simultáneas, rechazar
+        if (citasSolapadas.size() >= maxCitasSimultaneas) {
+            throw conflicto(citasSolapadas.size(), citasSolapadas.stream()
+                    .map(c -> c.getHoraCita() + " (" + c.getMascota().getNombre() + ")")
+                    .collect(Collectors.joining(", ")), maxCitasSimultaneas);
         }
     }
+
+    /**
+     * Máximo de citas simultáneas del horario en el que empieza la cita (1 por defecto).
+     */
+    private int maxCitasSimultaneas(List<Horario> horariosDelDia, LocalTime horaCita) {
+        return horariosDelDia.stream()
+                .filter(h -> !horaCita.isBefore(h.getHoraInicio()) && horaCita.isBefore(h.getHoraFin()))
+                .findFirst()
+                .map(Horario::getMaxCitasSimultaneas)
+                .filter(max -> max > 0)
+                .orElse(1);
+    }
+
+    private ValidationException conflicto(int existentes, String citasInfo, int maxCitasSimultaneas) {
+        return new ValidationException(
+                "El veterinario ya tiene " + existentes + " cita(s) en ese horario. " +
+                "Citas existentes: " + citasInfo + ". Máximo permitido: " + maxCitasSimultaneas,
+                "horaCita",
+                "Ya existe(n) cita(s) en ese horario"
+        );
+    }
 }
 
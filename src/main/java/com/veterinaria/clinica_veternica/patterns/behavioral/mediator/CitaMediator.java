@@ -2,6 +2,9 @@ package com.veterinaria.clinica_veternica.patterns.behavioral.mediator;
 
 import com.veterinaria.clinica_veternica.domain.agenda.Cita;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+
 /**
  * Patrón Mediator: CitaMediator (Interface)
  *
@@ -49,5 +52,13 @@ public interface CitaMediator {
      * @param evento Tipo de evento
      */
     void notificarCambio(Long citaId, String evento);
-}
 
+    /**
+     * Notifica a los componentes que una cita cambió de fecha u hora.
+     *
+     * @param cita Cita ya guardada con la nueva fecha/hora
+     * @param fechaOriginal Fecha anterior de la cita
+     * @param horaOriginal Hora anterior de la cita
+     */
+    void notificarReprogramacion(Cita cita, LocalDate fechaOriginal, LocalTime horaOriginal);
+}
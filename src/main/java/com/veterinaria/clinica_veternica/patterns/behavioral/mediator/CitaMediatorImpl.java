@@ -8,6 +8,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+
 /**
  * Patrón Mediator: CitaMediatorImpl
  *
@@ -112,6 +115,12 @@ public class CitaMediatorImpl implements CitaMediator {
         }
     }
 
+    @Override
+    public void notificarReprogramacion(Cita cita, LocalDate fechaOriginal, LocalTime horaOriginal) {
+        log.debug("Mediador: Notificando reprogramación de cita ID: {}", cita.getIdCita());
+        citaSubject.notifyCitaUpdated(cita, fechaOriginal, horaOriginal);
+    }
+
     private void validarDisponibilidadVeterinario(Cita cita) {
         log.debug("Mediador: Validando disponibilidad del veterinario");
         if (cita.getVeterinario() == null || !cita.getVeterinario().getActivo()) {
@@ -1,53 +1,129 @@
 package com.veterinaria.clinica_veternica.patterns.behavioral.memento;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.veterinaria.clinica_veternica.config.VersionesHistoriaProperties;
 import com.veterinaria.clinica_veternica.domain.clinico.HistoriaClinica;
+import com.veterinaria.clinica_veternica.domain.clinico.VersionHistoriaClinica;
+import com.veterinaria.clinica_veternica.repository.VersionHistoriaClinicaRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Patrón Memento: HistoriaClinicaCaretaker
  *
  * Gestiona y almacena los mementos de historias clínicas.
- * Mantiene un historial de snapshots y permite restaurar estados previos.
+ * Mantiene un historial versionado y permite restaurar estados previos.
  *
  * Justificación:
  * - Gestiona el ciclo de vida de los mementos
  * - Mantiene un historial de cambios
  * - Permite restaurar a estados previos
  *
+ * Almacenamiento:
+ * - Cada memento es una versión en la tabla versiones_historia_clinica (1, 2, 3...), en la
+ *   transacción en curso: el historial sobrevive a reinicios y es el mismo en todas las instancias
+ * - Cada snapshotCada versiones se guarda una copia completa; las demás guardan solo los
+ *   campos que cambiaron respecto de la anterior. Restaurar una versión lee en una consulta
+ *   su snapshot y los deltas siguientes y los aplica en orden
+ * - Las versiones reconstruidas recientes se mantienen en un LRU acotado (Caffeine,
+ *   seguro entre hilos); las versiones son inmutables, así que nunca hay que invalidarlas
+ * - Dos guardados simultáneos de la misma historia compiten por el mismo número de versión:
+ *   la restricción única rechaza el segundo con un conflicto de concurrencia
+ *
  * @author Clínica Veterinaria Team
- * @version 1.0
+ * @version 2.0
  * @since 2025-11-04
  */
 @Slf4j
 @Component
 public class HistoriaClinicaCaretaker {
 
-    private final Map<Long, List<HistoriaClinicaMemento>> historiales = new HashMap<>();
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> TIPO_CAMPOS = new TypeReference<>() { };
+
+    private static final String CAMPO_NUMERO = "numero";
+    private static final String CAMPO_ANTECEDENTES_MEDICOS = "medicos";
+    private static final String CAMPO_ANTECEDENTES_QUIRURGICOS = "quirurgicos";
+    private static final String CAMPO_ALERGIAS = "alergias";
+    private static final String CAMPO_ENFERMEDADES_CRONICAS = "cronicas";
+    private static final String CAMPO_MEDICAMENTOS_ACTUALES = "medicamentos";
+    private static final String CAMPO_OBSERVACIONES = "observaciones";
+    private static final String CAMPO_FECHA_CREACION = "creacion";
+
+    private final VersionHistoriaClinicaRepository versionRepository;
+    private final VersionesHistoriaProperties properties;
     private final HistoriaClinicaOriginator originator = new HistoriaClinicaOriginator();
-    private static final int MAX_MEMENTOS_POR_HISTORIA = 10;
+    private final Cache<Clave, HistoriaClinicaMemento> recientes;
+
+    private final AtomicLong snapshots = new AtomicLong();
+    private final AtomicLong deltas = new AtomicLong();
+    private final AtomicLong caracteresGuardados = new AtomicLong();
+    private final AtomicLong reconstrucciones = new AtomicLong();
+    private final AtomicLong deltasAplicados = new AtomicLong();
+
+    public HistoriaClinicaCaretaker(VersionHistoriaClinicaRepository versionRepository,
+                                    VersionesHistoriaProperties properties) {
+        this.versionRepository = versionRepository;
+        this.properties = properties;
+        this.recientes = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximoEnMemoria())
+                .recordStats()
+                .build();
+    }
 
     /**
-     * Guarda un memento de la historia clínica.
+     * Guarda un memento de la historia clínica como una nueva versión.
      *
      * @param historiaClinica Historia clínica de la cual guardar el memento
+     * @throws ConcurrencyFailureException si otra transacción guardó la misma versión a la vez
      */
+    @Transactional
     public void guardarMemento(HistoriaClinica historiaClinica) {
         Long id = historiaClinica.getIdHistoriaClinica();
         HistoriaClinicaMemento memento = originator.crearMemento(historiaClinica);
+        Map<String, String> campos = aCampos(memento);
 
-        historiales.computeIfAbsent(id, k -> new ArrayList<>()).add(memento);
+        int anterior = ultimaVersion(id);
+        int version = anterior + 1;
+        boolean completa = (version - 1) % Math.max(1, properties.getSnapshotCada()) == 0;
+        Map<String, String> contenido = completa ? campos : diferencia(aCampos(base(id, anterior)), campos);
+        String json = escribir(contenido);
 
-        // Limitar el número de mementos por historia
-        List<HistoriaClinicaMemento> mementos = historiales.get(id);
-        if (mementos.size() > MAX_MEMENTOS_POR_HISTORIA) {
-            mementos.remove(0); // Eliminar el más antiguo
+        try {
+            versionRepository.saveAndFlush(VersionHistoriaClinica.builder()
+                    .idHistoriaClinica(id)
+                    .version(version)
+                    .completa(completa)
+                    .contenido(json)
+                    .fechaSnapshot(memento.getFechaSnapshot())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new ConcurrencyFailureException(
+                    "La versión " + version + " de la historia clínica " + id + " ya fue guardada por otra operación", e);
         }
+        (completa ? snapshots : deltas).incrementAndGet();
+        caracteresGuardados.addAndGet(json.length());
 
-        log.info("Memento guardado para historia clínica ID: {}. Total mementos: {}", 
-                id, mementos.size());
+        // La versión solo entra en memoria si la transacción se confirma
+        HistoriaClinicaMemento guardado = desdeCampos(id, version, campos, memento.getFechaSnapshot());
+        alConfirmar(() -> recientes.put(new Clave(id, version), guardado));
+
+        log.info("Memento guardado para historia clínica ID: {}. Versión: {} ({})",
+                id, version, completa ? "completa" : contenido.size() + " campos modificados");
     }
 
     /**
@@ -56,17 +132,17 @@ public class HistoriaClinicaCaretaker {
      * @param historiaClinica Historia clínica a restaurar
      * @return true si se restauró exitosamente
      */
+    @Transactional(readOnly = true)
     public boolean restaurarUltimoMemento(HistoriaClinica historiaClinica) {
         Long id = historiaClinica.getIdHistoriaClinica();
-        List<HistoriaClinicaMemento> mementos = historiales.get(id);
+        int ultima = ultimaVersion(id);
 
-        if (mementos == null || mementos.isEmpty()) {
+        if (ultima == 0) {
             log.warn("No hay mementos para restaurar en historia clínica ID: {}", id);
             return false;
         }
 
-        HistoriaClinicaMemento ultimoMemento = mementos.get(mementos.size() - 1);
-        originator.restaurarDesdeMemento(historiaClinica, ultimoMemento);
+        originator.restaurarDesdeMemento(historiaClinica, obtener(id, ultima));
         return true;
     }
 
@@ -74,20 +150,19 @@ public class HistoriaClinicaCaretaker {
      * Restaura la historia clínica a un memento específico.
      *
      * @param historiaClinica Historia clínica a restaurar
-     * @param indice Índice del memento en el historial
+     * @param indice Índice del memento en el historial (versión - 1)
      * @return true si se restauró exitosamente
      */
+    @Transactional(readOnly = true)
     public boolean restaurarMemento(HistoriaClinica historiaClinica, int indice) {
         Long id = historiaClinica.getIdHistoriaClinica();
-        List<HistoriaClinicaMemento> mementos = historiales.get(id);
 
-        if (mementos == null || indice < 0 || indice >= mementos.size()) {
+        if (indice < 0 || indice >= ultimaVersion(id)) {
             log.warn("Índice de memento inválido: {} para historia clínica ID: {}", indice, id);
             return false;
         }
 
-        HistoriaClinicaMemento memento = mementos.get(indice);
-        originator.restaurarDesdeMemento(historiaClinica, memento);
+        originator.restaurarDesdeMemento(historiaClinica, obtener(id, indice + 1));
         return true;
     }
 
@@ -95,11 +170,17 @@ public class HistoriaClinicaCaretaker {
      * Obtiene el historial de mementos de una historia clínica.
      *
      * @param idHistoriaClinica ID de la historia clínica
-     * @return Lista de mementos (inmutable)
+     * @return Lista de mementos, de la versión 1 a la última (inmutable)
      */
+    @Transactional(readOnly = true)
     public List<HistoriaClinicaMemento> obtenerHistorial(Long idHistoriaClinica) {
-        List<HistoriaClinicaMemento> mementos = historiales.get(idHistoriaClinica);
-        return mementos != null ? Collections.unmodifiableList(mementos) : Collections.emptyList();
+        List<HistoriaClinicaMemento> mementos = new ArrayList<>();
+        Map<String, String> campos = new HashMap<>();
+        for (VersionHistoriaClinica fila : versionRepository.findByIdHistoriaClinicaOrderByVersion(idHistoriaClinica)) {
+            aplicar(campos, fila);
+            mementos.add(desdeCampos(idHistoriaClinica, fila.getVersion(), campos, fila.getFechaSnapshot()));
+        }
+        return Collections.unmodifiableList(mementos);
     }
 
     /**
@@ -108,9 +189,140 @@ public class HistoriaClinicaCaretaker {
      * @param idHistoriaClinica ID de la historia clínica
      * @return Número de mementos
      */
+    @Transactional(readOnly = true)
     public int obtenerCantidadMementos(Long idHistoriaClinica) {
-        List<HistoriaClinicaMemento> mementos = historiales.get(idHistoriaClinica);
-        return mementos != null ? mementos.size() : 0;
+        return ultimaVersion(idHistoriaClinica);
+    }
+
+    /**
+     * Obtiene las métricas del historial de versiones.
+     *
+     * @return Mapa con los contadores y el uso de la memoria de versiones recientes
+     */
+    public Map<String, Object> getEstadisticas() {
+        CacheStats stats = recientes.stats();
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("snapshots", snapshots.get());
+        datos.put("deltas", deltas.get());
+        datos.put("caracteresGuardados", caracteresGuardados.get());
+        datos.put("reconstrucciones", reconstrucciones.get());
+        datos.put("deltasAplicados", deltasAplicados.get());
+        datos.put("enMemoria", recientes.estimatedSize());
+        datos.put("aciertosMemoria", stats.hitCount());
+        datos.put("fallosMemoria", stats.missCount());
+        return datos;
+    }
+
+    private int ultimaVersion(Long idHistoriaClinica) {
+        Integer ultima = versionRepository.findUltimaVersion(idHistoriaClinica);
+        return ultima != null ? ultima : 0;
+    }
+
+    /**
+     * Obtiene una versión de la memoria o, si no está, la reconstruye desde la base de datos.
+     */
+    private HistoriaClinicaMemento obtener(Long idHistoriaClinica, int version) {
+        return recientes.get(new Clave(idHistoriaClinica, version), clave -> reconstruir(idHistoriaClinica, version));
+    }
+
+    /**
+     * Versión sobre la que calcular un delta. Si no está en memoria se reconstruye sin
+     * guardarla: puede leer filas de la transacción en curso, que aún podría revertirse.
+     */
+    private HistoriaClinicaMemento base(Long idHistoriaClinica, int version) {
+        HistoriaClinicaMemento enMemoria = recientes.getIfPresent(new Clave(idHistoriaClinica, version));
+        return enMemoria != null ? enMemoria : reconstruir(idHistoriaClinica, version);
+    }
+
+    private HistoriaClinicaMemento reconstruir(Long idHistoriaClinica, int version) {
+        List<VersionHistoriaClinica> cadena = versionRepository.findCadenaHasta(idHistoriaClinica, version);
+        if (cadena.isEmpty() || cadena.get(cadena.size() - 1).getVersion() != version) {
+            throw new IllegalStateException(
+                    "Versión " + version + " de la historia clínica " + idHistoriaClinica + " no encontrada");
+        }
+        Map<String, String> campos = new HashMap<>();
+        cadena.forEach(fila -> aplicar(campos, fila));
+        reconstrucciones.incrementAndGet();
+        deltasAplicados.addAndGet(cadena.size() - 1L);
+        return desdeCampos(idHistoriaClinica, version, campos, cadena.get(cadena.size() - 1).getFechaSnapshot());
+    }
+
+    private static void aplicar(Map<String, String> campos, VersionHistoriaClinica fila) {
+        if (Boolean.TRUE.equals(fila.getCompleta())) {
+            campos.clear();
+        }
+        campos.putAll(leer(fila.getContenido()));
+    }
+
+    private static Map<String, String> diferencia(Map<String, String> anterior, Map<String, String> actual) {
+        Map<String, String> cambios = new LinkedHashMap<>();
+        actual.forEach((campo, valor) -> {
+            if (!Objects.equals(anterior.get(campo), valor)) {
+                cambios.put(campo, valor);
+            }
+        });
+        return cambios;
     }
-}
 
+    private static Map<String, String> aCampos(HistoriaClinicaMemento memento) {
+        Map<String, String> campos = new LinkedHashMap<>();
+        campos.put(CAMPO_NUMERO, memento.getNumeroHistoria());
+        campos.put(CAMPO_ANTECEDENTES_MEDICOS, memento.getAntecedentesMedicos());
+        campos.put(CAMPO_ANTECEDENTES_QUIRURGICOS, memento.getAntecedentesQuirurgicos());
+        campos.put(CAMPO_ALERGIAS, memento.getAlergias());
+        campos.put(CAMPO_ENFERMEDADES_CRONICAS, memento.getEnfermedadesCronicas());
+        campos.put(CAMPO_MEDICAMENTOS_ACTUALES, memento.getMedicamentosActuales());
+        campos.put(CAMPO_OBSERVACIONES, memento.getObservacionesGenerales());
+        campos.put(CAMPO_FECHA_CREACION, memento.getFechaCreacion() != null ? memento.getFechaCreacion().toString() : null);
+        return campos;
+    }
+
+    private static HistoriaClinicaMemento desdeCampos(Long idHistoriaClinica, int version,
+                                                      Map<String, String> campos, LocalDateTime fechaSnapshot) {
+        String fechaCreacion = campos.get(CAMPO_FECHA_CREACION);
+        return HistoriaClinicaMemento.builder()
+                .idHistoriaClinica(idHistoriaClinica)
+                .version(version)
+                .numeroHistoria(campos.get(CAMPO_NUMERO))
+                .antecedentesMedicos(campos.get(CAMPO_ANTECEDENTES_MEDICOS))
+                .antecedentesQuirurgicos(campos.get(CAMPO_ANTECEDENTES_QUIRURGICOS))
+                .alergias(campos.get(CAMPO_ALERGIAS))
+                .enfermedadesCronicas(campos.get(CAMPO_ENFERMEDADES_CRONICAS))
+                .medicamentosActuales(campos.get(CAMPO_MEDICAMENTOS_ACTUALES))
+                .observacionesGenerales(campos.get(CAMPO_OBSERVACIONES))
+                .fechaCreacion(fechaCreacion != null ? LocalDateTime.parse(fechaCreacion) : null)
+                .fechaSnapshot(fechaSnapshot)
+                .build();
+    }
+
+    private static String escribir(Map<String, String> campos) {
+        try {
+            return JSON.writeValueAsString(campos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la versión de la historia clínica", e);
+        }
+    }
+
+    private static Map<String, String> leer(String contenido) {
+        try {
+            return JSON.readValue(contenido, TIPO_CAMPOS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Versión de historia clínica corrupta", e);
+        }
+    }
+
+    private static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    private record Clave(Long idHistoriaClinica, int version) { }
+}
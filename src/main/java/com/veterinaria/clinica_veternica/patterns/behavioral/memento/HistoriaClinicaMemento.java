@@ -33,6 +33,10 @@ public class HistoriaClinicaMemento {
     private final String medicamentosActuales;
     private final String observacionesGenerales;
     private final LocalDateTime fechaCreacion;
+    /**
+     * Número de versión en el historial (null si aún no se ha guardado).
+     */
+    private final Integer version;
     @Builder.Default
     private final LocalDateTime fechaSnapshot = LocalDateTime.now();
 }
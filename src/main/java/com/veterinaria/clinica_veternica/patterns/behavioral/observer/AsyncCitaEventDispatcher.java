@@ -0,0 +1,237 @@
+package com.veterinaria.clinica_veternica.patterns.behavioral.observer;
+
+import com.veterinaria.clinica_veternica.config.ObserverDispatchProperties;
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.BiConsumer;
+
+/**
+ * Entrega asíncrona de eventos: cada observador tiene su propia cola acotada y sus hilos.
+ *
+ * CARACTERÍSTICAS:
+ * - Un observador lento (email, BD) no afecta la latencia de crear/confirmar/cancelar citas
+ *   ni a los demás observadores
+ * - Orden por cita: los eventos de una misma cita van siempre al mismo carril (hilo)
+ * - Después del commit: si hay una transacción activa, el evento se encola en afterCommit
+ * - Contrapresión: con la cola llena, el hilo que notifica espera hueco en la cola del carril
+ *   (hasta app.observer.dispatch.enqueue-timeout); si no lo hay, el evento se descarta y se
+ *   cuenta en "descartados". Nunca se entrega en el hilo que notifica, para no romper el orden
+ *   por cita ni ejecutar el observador dentro de la transacción de la petición
+ * - Cada entrega recarga la cita en una transacción nueva (REQUIRES_NEW), de modo que las
+ *   asociaciones LAZY (mascota, propietario...) se pueden recorrer fuera de la petición original
+ *   y un fallo del observador no marca para rollback ninguna otra transacción
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-20
+ */
+@Slf4j
+public class AsyncCitaEventDispatcher implements CitaEventDispatcher, DisposableBean {
+
+    private final ObserverDispatchProperties properties;
+    private final CitaRepository citaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<CitaObserver, ObserverLanes> lanesPorObserver = new ConcurrentHashMap<>();
+
+    public AsyncCitaEventDispatcher(ObserverDispatchProperties properties,
+                                    CitaRepository citaRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.citaRepository = citaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void dispatch(SuscripcionCita suscripcion, Cita cita, TipoEventoCita evento,
+                         BiConsumer<CitaObserver, Cita> accion) {
+        ObserverLanes lanes = lanesPorObserver.computeIfAbsent(suscripcion.getObserver(), ObserverLanes::new);
+
+        if (properties.isAfterCommit() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lanes.submit(suscripcion, cita, evento, accion);
+                }
+            });
+        } else {
+            lanes.submit(suscripcion, cita, evento, accion);
+        }
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getEstadisticas() {
+        Map<String, Map<String, Object>> resultado = new LinkedHashMap<>();
+        for (ObserverLanes lanes : lanesPorObserver.values()) {
+            String clave = resultado.containsKey(lanes.nombre)
+                    ? lanes.nombre + "@" + Integer.toHexString(System.identityHashCode(lanes.observer))
+                    : lanes.nombre;
+            resultado.put(clave, lanes.estadisticas());
+        }
+        return resultado;
+    }
+
+    @Override
+    public Map<String, Object> getEstadisticas(CitaObserver observer) {
+        ObserverLanes lanes = lanesPorObserver.get(observer);
+        return lanes == null ? Map.of() : lanes.estadisticas();
+    }
+
+    @Override
+    public void destroy() {
+        long timeoutMs = properties.getShutdownTimeout().toMillis();
+        lanesPorObserver.values().forEach(lanes -> lanes.shutdown(timeoutMs));
+    }
+
+    /**
+     * Entrega el evento recargando la cita en una transacción propia (REQUIRES_NEW).
+     */
+    private boolean entregar(SuscripcionCita suscripcion, Cita cita, BiConsumer<CitaObserver, Cita> accion) {
+        if (cita.getIdCita() == null) {
+            return suscripcion.invocar(cita, accion);
+        }
+        Boolean ok = transactionTemplate.execute(status -> {
+            Cita actual = citaRepository.findById(cita.getIdCita()).orElse(cita);
+            boolean exito = suscripcion.invocar(actual, accion);
+            if (!exito) {
+                status.setRollbackOnly();
+            }
+            return exito;
+        });
+        return Boolean.TRUE.equals(ok);
+    }
+
+    /**
+     * Carriles (executors de un hilo) y métricas de un observador.
+     */
+    private final class ObserverLanes {
+
+        private final String nombre;
+        private final CitaObserver observer;
+        private final ThreadPoolExecutor[] carriles;
+
+        private final AtomicLong encolados = new AtomicLong();
+        private final AtomicLong completados = new AtomicLong();
+        private final AtomicLong fallidos = new AtomicLong();
+        private final AtomicLong rechazados = new AtomicLong();
+        private final AtomicLong descartados = new AtomicLong();
+        private final AtomicLong latenciaTotalMs = new AtomicLong();
+        private final LongAccumulator latenciaMaximaMs = new LongAccumulator(Math::max, 0);
+
+        ObserverLanes(CitaObserver observer) {
+            this.observer = observer;
+            this.nombre = observer.getClass().getSimpleName();
+            int numeroCarriles = Math.max(1, properties.getLanesPerObserver());
+            this.carriles = new ThreadPoolExecutor[numeroCarriles];
+            for (int i = 0; i < numeroCarriles; i++) {
+                carriles[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                        threadFactory("observer-" + nombre + "-" + i + "-"),
+                        this::esperarHueco);
+            }
+            log.info("Observer {}: {} carriles asíncronos (capacidad {}, hilos virtuales: {})",
+                    nombre, numeroCarriles, properties.getQueueCapacity(), properties.isVirtualThreads());
+        }
+
+        void submit(SuscripcionCita suscripcion, Cita cita, TipoEventoCita evento,
+                    BiConsumer<CitaObserver, Cita> accion) {
+            long encoladoEn = System.nanoTime();
+            encolados.incrementAndGet();
+            carril(cita).execute(() -> {
+                long latenciaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - encoladoEn);
+                latenciaTotalMs.addAndGet(latenciaMs);
+                latenciaMaximaMs.accumulate(latenciaMs);
+                if (entregar(suscripcion, cita, accion)) {
+                    completados.incrementAndGet();
+                } else {
+                    fallidos.incrementAndGet();
+                    log.warn("Observer {}: fallo al procesar {} de la cita {}", nombre, evento, cita.getIdCita());
+                }
+            });
+        }
+
+        /**
+         * Contrapresión: con la cola llena, el hilo que notifica espera hueco en la misma cola
+         * (se conserva el orden FIFO del carril). Si el carril está apagado o no se libera
+         * hueco a tiempo, el evento se descarta.
+         */
+        private void esperarHueco(Runnable tarea, ThreadPoolExecutor executor) {
+            rechazados.incrementAndGet();
+            long timeoutMs = properties.getEnqueueTimeout().toMillis();
+            try {
+                if (!executor.isShutdown()
+                        && executor.getQueue().offer(tarea, timeoutMs, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            descartados.incrementAndGet();
+            log.warn("Observer {}: cola llena, evento descartado tras esperar {} ms", nombre, timeoutMs);
+        }
+
+        private ThreadPoolExecutor carril(Cita cita) {
+            if (cita.getIdCita() == null) {
+                return carriles[0];
+            }
+            return carriles[Math.floorMod(Long.hashCode(cita.getIdCita()), carriles.length)];
+        }
+
+        private ThreadFactory threadFactory(String prefijo) {
+            if (properties.isVirtualThreads()) {
+                return Thread.ofVirtual().name(prefijo, 0).factory();
+            }
+            return Thread.ofPlatform().name(prefijo, 0).daemon(true).factory();
+        }
+
+        Map<String, Object> estadisticas() {
+            long pendientes = 0;
+            for (ThreadPoolExecutor carril : carriles) {
+                pendientes += carril.getQueue().size() + carril.getActiveCount();
+            }
+            long terminados = completados.get() + fallidos.get();
+            Map<String, Object> datos = new LinkedHashMap<>();
+            datos.put("encolados", encolados.get());
+            datos.put("completados", completados.get());
+            datos.put("fallidos", fallidos.get());
+            datos.put("rechazados", rechazados.get());
+            datos.put("descartados", descartados.get());
+            datos.put("pendientes", pendientes);
+            datos.put("latenciaPromedioMs", terminados == 0 ? 0 : latenciaTotalMs.get() / terminados);
+            datos.put("latenciaMaximaMs", latenciaMaximaMs.get());
+            return datos;
+        }
+
+        void shutdown(long timeoutMs) {
+            for (ThreadPoolExecutor carril : carriles) {
+                carril.shutdown();
+            }
+            try {
+                for (ThreadPoolExecutor carril : carriles) {
+                    if (!carril.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                        log.warn("Observer {}: {} eventos sin entregar al apagar", nombre, carril.shutdownNow().size());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
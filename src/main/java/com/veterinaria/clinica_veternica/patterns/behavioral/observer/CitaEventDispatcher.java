@@ -0,0 +1,50 @@
+package com.veterinaria.clinica_veternica.patterns.behavioral.observer;
+
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Estrategia de entrega de eventos de CitaSubject a cada observador.
+ *
+ * Implementaciones:
+ * - SyncCitaEventDispatcher: Invoca al observador en el hilo actual (tests, modo "sync")
+ * - AsyncCitaEventDispatcher: Cola acotada y executor propios por observador (modo "async")
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-20
+ */
+public interface CitaEventDispatcher {
+
+    /**
+     * Entrega un evento de cita a un observador. La invocación debe hacerse con
+     * {@link SuscripcionCita#invocar}, que aísla los errores y registra las métricas.
+     *
+     * @param suscripcion Suscripción del observador destino
+     * @param cita Cita asociada al evento
+     * @param evento Tipo de evento (para logs y métricas)
+     * @param accion Invocación concreta sobre el observador
+     */
+    void dispatch(SuscripcionCita suscripcion, Cita cita, TipoEventoCita evento, BiConsumer<CitaObserver, Cita> accion);
+
+    /**
+     * Métricas de entrega por observador (encolados, completados, rechazados, pendientes...).
+     *
+     * @return Métricas por nombre de observador; vacío si el modo no las registra
+     */
+    default Map<String, Map<String, Object>> getEstadisticas() {
+        return Map.of();
+    }
+
+    /**
+     * Métricas de entrega de un observador.
+     *
+     * @param observer Observador
+     * @return Métricas del observador; vacío si el modo no las registra o aún no recibió eventos
+     */
+    default Map<String, Object> getEstadisticas(CitaObserver observer) {
+        return Map.of();
+    }
+}
@@ -1,38 +1,98 @@
 package com.veterinaria.clinica_veternica.patterns.behavioral.observer;
 
 import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 /**
  * Patrón Observer: CitaSubject
  *
- * Mantiene una lista de observadores y notifica automáticamente
+ * Mantiene las suscripciones de los observadores y notifica automáticamente
  * cuando ocurren cambios en las citas.
  *
+ * REGISTRO:
+ * - Cada observador se suscribe a tipos de evento ({@link TipoEventoCita}) y, para
+ *   CAMBIO_ESTADO, a estados destino; solo recibe esos eventos
+ * - Las suscripciones se guardan en una instantánea inmutable (arreglos por tipo de evento
+ *   y por estado destino) que se reemplaza atómicamente al agregar o quitar observadores:
+ *   notificar solo lee la instantánea vigente, sin bloqueos ni copias
+ * - Cada suscripción registra invocaciones, errores y duración de su observador
+ *
+ * La entrega a cada observador la realiza un {@link CitaEventDispatcher}:
+ * síncrona por defecto, o asíncrona con cola propia por observador
+ * (app.observer.dispatch.mode=async).
+ *
  * @author Clínica Veterinaria Team
- * @version 1.0
+ * @version 2.0
  * @since 2025-11-04
  */
 @Slf4j
 @Component
 public class CitaSubject {
 
-    private static final String MSG_ERROR_NOTIFICAR = "Error al notificar observador {}: {}";
-    private static final String MSG_ERROR_INESPERADO = "Error inesperado al notificar observador {}: {}";
+    private static final Map<String, EstadoCita> ESTADOS_POR_NOMBRE = new HashMap<>();
+
+    static {
+        for (EstadoCita estado : EstadoCita.values()) {
+            ESTADOS_POR_NOMBRE.put(estado.name(), estado);
+        }
+    }
+
+    private final AtomicReference<Suscripciones> suscripciones = new AtomicReference<>(Suscripciones.VACIAS);
+    private final CitaEventDispatcher dispatcher;
+
+    /**
+     * Crea un sujeto con entrega síncrona.
+     */
+    public CitaSubject() {
+        this(new SyncCitaEventDispatcher());
+    }
 
-    private final List<CitaObserver> observers = new ArrayList<>();
+    @Autowired
+    public CitaSubject(CitaEventDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
 
     /**
-     * Agrega un observador.
+     * Agrega un observador suscrito a todos los eventos.
      */
     public void addObserver(CitaObserver observer) {
-        if (observer != null && !observers.contains(observer)) {
-            observers.add(observer);
-            log.debug("Observador agregado: {}", observer.getClass().getSimpleName());
+        addObserver(observer, EnumSet.allOf(TipoEventoCita.class), EnumSet.allOf(EstadoCita.class));
+    }
+
+    /**
+     * Agrega un observador suscrito a algunos eventos. Si ya estaba registrado no se modifica.
+     *
+     * @param observer Observador
+     * @param eventos Tipos de evento que recibe
+     * @param estados Estados destino de CAMBIO_ESTADO que recibe; los cambios hacia estados
+     *                que no son un EstadoCita solo los reciben los suscritos a todos
+     */
+    public void addObserver(CitaObserver observer, Set<TipoEventoCita> eventos, Set<EstadoCita> estados) {
+        if (observer == null) {
+            return;
+        }
+        Suscripciones anteriores = suscripciones.getAndUpdate(actuales -> actuales.contiene(observer)
+                ? actuales
+                : actuales.con(new SuscripcionCita(observer, eventos, estados)));
+        if (!anteriores.contiene(observer)) {
+            log.debug("Observador agregado: {} (eventos: {})", observer.getClass().getSimpleName(), eventos);
         }
     }
 
@@ -40,66 +100,162 @@ public class CitaSubject {
      * Elimina un observador.
      */
     public void removeObserver(CitaObserver observer) {
-        observers.remove(observer);
+        if (observer == null) {
+            return;
+        }
+        suscripciones.updateAndGet(actuales -> actuales.sin(observer));
         log.debug("Observador eliminado: {}", observer.getClass().getSimpleName());
     }
 
     /**
-     * Notifica a todos los observadores sobre un cambio de estado.
+     * Notifica a los observadores suscritos al estado nuevo sobre un cambio de estado.
      */
     public void notifyStateChanged(Cita cita, String estadoAnterior, String estadoNuevo) {
-        log.debug("Notificando cambio de estado de cita {}: {} -> {}", 
-                 cita.getIdCita(), estadoAnterior, estadoNuevo);
-        
-        for (CitaObserver observer : observers) {
-            try {
-                observer.onCitaStateChanged(cita, estadoAnterior, estadoNuevo);
-            } catch (IllegalArgumentException | IllegalStateException e) {
-                log.error(MSG_ERROR_NOTIFICAR, 
-                         observer.getClass().getSimpleName(), e.getMessage(), e);
-            } catch (RuntimeException e) {
-                log.error(MSG_ERROR_INESPERADO, 
-                         observer.getClass().getSimpleName(), e.getMessage(), e);
-            }
+        SuscripcionCita[] destinos = suscripciones.get().cambioEstado(ESTADOS_POR_NOMBRE.get(estadoNuevo));
+        if (destinos.length == 0) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Notificando cambio de estado de cita {}: {} -> {}",
+                     cita.getIdCita(), estadoAnterior, estadoNuevo);
+        }
+        BiConsumer<CitaObserver, Cita> accion = (o, c) -> o.onCitaStateChanged(c, estadoAnterior, estadoNuevo);
+        for (SuscripcionCita suscripcion : destinos) {
+            dispatcher.dispatch(suscripcion, cita, TipoEventoCita.CAMBIO_ESTADO, accion);
         }
     }
 
     /**
-     * Notifica a todos los observadores sobre una nueva cita.
+     * Notifica a los observadores suscritos sobre una nueva cita.
      */
     public void notifyCitaCreated(Cita cita) {
         log.debug("Notificando creación de cita: {}", cita.getIdCita());
-        
-        for (CitaObserver observer : observers) {
-            try {
-                observer.onCitaCreated(cita);
-            } catch (IllegalArgumentException | IllegalStateException e) {
-                log.error(MSG_ERROR_NOTIFICAR, 
-                         observer.getClass().getSimpleName(), e.getMessage(), e);
-            } catch (RuntimeException e) {
-                log.error(MSG_ERROR_INESPERADO, 
-                         observer.getClass().getSimpleName(), e.getMessage(), e);
-            }
+
+        for (SuscripcionCita suscripcion : suscripciones.get().de(TipoEventoCita.CREADA)) {
+            dispatcher.dispatch(suscripcion, cita, TipoEventoCita.CREADA, CitaObserver::onCitaCreated);
         }
     }
 
     /**
-     * Notifica a todos los observadores sobre una cita cancelada.
+     * Notifica a los observadores suscritos sobre una cita cancelada.
      */
     public void notifyCitaCancelled(Cita cita, String motivo) {
+        SuscripcionCita[] destinos = suscripciones.get().de(TipoEventoCita.CANCELADA);
+        if (destinos.length == 0) {
+            return;
+        }
         log.debug("Notificando cancelación de cita {}: {}", cita.getIdCita(), motivo);
-        
-        for (CitaObserver observer : observers) {
-            try {
-                observer.onCitaCancelled(cita, motivo);
-            } catch (IllegalArgumentException | IllegalStateException e) {
-                log.error(MSG_ERROR_NOTIFICAR, 
-                         observer.getClass().getSimpleName(), e.getMessage(), e);
-            } catch (RuntimeException e) {
-                log.error(MSG_ERROR_INESPERADO, 
-                         observer.getClass().getSimpleName(), e.getMessage(), e);
+        BiConsumer<CitaObserver, Cita> accion = (o, c) -> o.onCitaCancelled(c, motivo);
+        for (SuscripcionCita suscripcion : destinos) {
+            dispatcher.dispatch(suscripcion, cita, TipoEventoCita.CANCELADA, accion);
+        }
+    }
+
+    /**
+     * Notifica a los observadores suscritos sobre una cita reprogramada (cambio de fecha/hora).
+     */
+    public void notifyCitaUpdated(Cita cita, LocalDate fechaOriginal, LocalTime horaOriginal) {
+        SuscripcionCita[] destinos = suscripciones.get().de(TipoEventoCita.REPROGRAMADA);
+        if (destinos.length == 0) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Notificando reprogramación de cita {}: {} {}", cita.getIdCita(), fechaOriginal, horaOriginal);
+        }
+        BiConsumer<CitaObserver, Cita> accion = (o, c) -> o.onCitaUpdated(c, fechaOriginal, horaOriginal);
+        for (SuscripcionCita suscripcion : destinos) {
+            dispatcher.dispatch(suscripcion, cita, TipoEventoCita.REPROGRAMADA, accion);
+        }
+    }
+
+    /**
+     * Métricas por observador: suscripción, invocaciones, errores y duración, más las
+     * métricas de entrega del modo asíncrono (encolados, rechazados, pendientes, latencia).
+     */
+    public Map<String, Map<String, Object>> getEstadisticasEntrega() {
+        Map<String, Map<String, Object>> resultado = new LinkedHashMap<>();
+        for (SuscripcionCita suscripcion : suscripciones.get().todas) {
+            Map<String, Object> datos = suscripcion.getEstadisticas();
+            datos.putAll(dispatcher.getEstadisticas(suscripcion.getObserver()));
+            String clave = resultado.containsKey(suscripcion.getNombre())
+                    ? suscripcion.getNombre() + "@" + Integer.toHexString(System.identityHashCode(suscripcion.getObserver()))
+                    : suscripcion.getNombre();
+            resultado.put(clave, datos);
+        }
+        return resultado;
+    }
+
+    /**
+     * Instantánea inmutable de las suscripciones, indexada por tipo de evento y por estado
+     * destino. Los arreglos no se modifican después de construirse.
+     */
+    private static final class Suscripciones {
+
+        static final Suscripciones VACIAS = new Suscripciones(new SuscripcionCita[0]);
+
+        final SuscripcionCita[] todas;
+        private final SuscripcionCita[][] porEvento;
+
+        /**
+         * Suscritos a CAMBIO_ESTADO por estado destino; la última posición es para los
+         * estados que no son un EstadoCita.
+         */
+        private final SuscripcionCita[][] porEstado;
+
+        Suscripciones(SuscripcionCita[] todas) {
+            this.todas = todas;
+            TipoEventoCita[] eventos = TipoEventoCita.values();
+            this.porEvento = new SuscripcionCita[eventos.length][];
+            for (TipoEventoCita evento : eventos) {
+                porEvento[evento.ordinal()] = filtrar(todas, s -> s.incluye(evento));
+            }
+            EstadoCita[] estados = EstadoCita.values();
+            this.porEstado = new SuscripcionCita[estados.length + 1][];
+            for (EstadoCita estado : estados) {
+                porEstado[estado.ordinal()] = filtrar(todas, s -> s.incluye(estado));
+            }
+            porEstado[estados.length] = filtrar(todas, SuscripcionCita::incluyeTodosLosEstados);
+        }
+
+        SuscripcionCita[] de(TipoEventoCita evento) {
+            return porEvento[evento.ordinal()];
+        }
+
+        SuscripcionCita[] cambioEstado(EstadoCita estado) {
+            return porEstado[estado == null ? porEstado.length - 1 : estado.ordinal()];
+        }
+
+        boolean contiene(CitaObserver observer) {
+            for (SuscripcionCita suscripcion : todas) {
+                if (suscripcion.getObserver().equals(observer)) {
+                    return true;
+                }
             }
+            return false;
+        }
+
+        Suscripciones con(SuscripcionCita suscripcion) {
+            SuscripcionCita[] nuevas = Arrays.copyOf(todas, todas.length + 1);
+            nuevas[todas.length] = suscripcion;
+            return new Suscripciones(nuevas);
+        }
+
+        Suscripciones sin(CitaObserver observer) {
+            if (!contiene(observer)) {
+                return this;
+            }
+            return new Suscripciones(filtrar(todas, s -> !s.getObserver().equals(observer)));
+        }
+
+        private static SuscripcionCita[] filtrar(SuscripcionCita[] origen,
+                                                 Predicate<SuscripcionCita> condicion) {
+            List<SuscripcionCita> resultado = new ArrayList<>(origen.length);
+            for (SuscripcionCita suscripcion : origen) {
+                if (condicion.test(suscripcion)) {
+                    resultado.add(suscripcion);
+                }
+            }
+            return resultado.toArray(new SuscripcionCita[0]);
         }
     }
 }
-
@@ -2,25 +2,34 @@ package com.veterinaria.clinica_veternica.patterns.behavioral.observer;
 
 import com.veterinaria.clinica_veternica.domain.agenda.Cita;
 import com.veterinaria.clinica_veternica.domain.comunicacion.Comunicacion;
-import com.veterinaria.clinica_veternica.domain.inventario.Inventario;
+import com.veterinaria.clinica_veternica.domain.inventario.AlertaStock;
+import com.veterinaria.clinica_veternica.domain.inventario.AlertaStockNotificada;
+import com.veterinaria.clinica_veternica.domain.inventario.NivelAlertaStock;
 import com.veterinaria.clinica_veternica.domain.usuario.Personal;
 import com.veterinaria.clinica_veternica.domain.usuario.RolUsuario;
 import com.veterinaria.clinica_veternica.domain.usuario.Usuario;
 import com.veterinaria.clinica_veternica.patterns.creational.abstractfactory.EmailNotificacionFactory;
-import com.veterinaria.clinica_veternica.patterns.creational.abstractfactory.NotificacionFactory;
+import com.veterinaria.clinica_veternica.repository.AlertaStockNotificadaRepository;
 import com.veterinaria.clinica_veternica.repository.ComunicacionRepository;
 import com.veterinaria.clinica_veternica.repository.InventarioRepository;
 import com.veterinaria.clinica_veternica.repository.PersonalRepository;
 import com.veterinaria.clinica_veternica.repository.UsuarioRepository;
 import com.veterinaria.clinica_veternica.service.interfaces.IInventarioService;
+import com.veterinaria.clinica_veternica.service.programacion.BloqueoTareas;
 import com.veterinaria.clinica_veternica.util.Constants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -63,6 +72,26 @@ public class InventarioObserver {
     private final UsuarioRepository usuarioRepository;
     private final ComunicacionRepository comunicacionRepository;
     private final PersonalRepository personalRepository;
+    private final AlertaStockNotificadaRepository alertaStockRepository;
+    private final BloqueoTareas bloqueoTareas;
+
+    /**
+     * Niveles en el orden en que se muestran en el resumen.
+     */
+    private static final List<NivelAlertaStock> NIVELES_POR_GRAVEDAD =
+            List.of(NivelAlertaStock.AGOTADO, NivelAlertaStock.CRITICO, NivelAlertaStock.BAJO);
+
+    /**
+     * Máximo de insumos listados por nivel en el resumen.
+     */
+    private static final int MAXIMO_FILAS_POR_NIVEL = 200;
+
+    /**
+     * Bloqueo del monitoreo entre instancias: una sola lo ejecuta cada hora.
+     */
+    private static final String TAREA_MONITOREO_STOCK = "inventario.monitoreo-stock";
+    private static final Duration BLOQUEO_MAXIMO_MONITOREO = Duration.ofMinutes(30);
+    private static final Duration BLOQUEO_MINIMO_MONITOREO = Duration.ofMinutes(5);
 
     /**
      * Observa cambios en el inventario cuando se crea una cita.
@@ -109,202 +138,162 @@ public class InventarioObserver {
     }
 
     /**
-     * Monitorea el inventario periódicamente y genera alertas de stock bajo.
-     * Se ejecuta cada hora para verificar el estado del inventario.
+     * Ejecuta el monitoreo de stock cada hora, en una sola instancia a la vez.
+     */
+    @Scheduled(fixedRate = Constants.UNA_HORA_MS) // Cada hora
+    public void monitorearStockProgramado() {
+        bloqueoTareas.ejecutar(TAREA_MONITOREO_STOCK, BLOQUEO_MAXIMO_MONITOREO, BLOQUEO_MINIMO_MONITOREO,
+                this::monitorearStock);
+    }
+
+    /**
+     * Monitorea el inventario y genera alertas de stock.
+     * Lo ejecuta cada hora monitorearStockProgramado.
      *
      * PROPÓSITO: Detecta automáticamente problemas de inventario y genera alertas.
+     *
+     * FUNCIONAMIENTO:
+     * - Los niveles BAJO, CRITICO y AGOTADO se calculan en una sola consulta agregada
+     * - Solo se notifican las alertas nuevas o cuyo nivel empeoró desde la última notificación
+     * - Todas las alertas nuevas se envían en un único resumen por destinatario
+     * - Las alertas de insumos recuperados se descartan para volver a notificar una nueva caída
      */
-    @Scheduled(fixedRate = Constants.UNA_HORA_MS) // Cada hora
     public void monitorearStock() {
         log.debug("InventarioObserver: Iniciando monitoreo de stock");
 
-        List<Inventario> inventarios = inventarioRepository.findAll();
+        List<AlertaStock> alertas = inventarioRepository.findAlertasStock();
+        int recuperadas = alertaStockRepository.eliminarRecuperadas();
+
+        List<AlertaStock> nuevas = alertas.stream()
+                .filter(AlertaStock::requiereNotificacion)
+                .toList();
+        // Nivel mejorado sin recuperarse: se actualiza sin notificar, para avisar si vuelve a empeorar
+        List<AlertaStock> mejoradas = alertas.stream()
+                .filter(alerta -> alerta.nivelNotificado() != null
+                        && alerta.nivelNotificado().esMasGraveQue(alerta.nivel()))
+                .toList();
 
-        for (Inventario inventario : inventarios) {
-            verificarStockBajo(inventario);
-            verificarStockCritico(inventario);
-            verificarStockAgotado(inventario);
+        // Si nadie recibió el resumen, las alertas quedan pendientes para la próxima ejecución
+        if (!nuevas.isEmpty() && enviarResumenAlertas(nuevas)) {
+            registrarAlertasNotificadas(nuevas);
         }
+        registrarAlertasNotificadas(mejoradas);
 
-        log.debug("InventarioObserver: Monitoreo de stock completado");
+        log.debug("InventarioObserver: Monitoreo de stock completado - {} en alerta, {} nuevas, {} recuperadas",
+                alertas.size(), nuevas.size(), recuperadas);
     }
 
     /**
-     * Verifica si el stock está bajo y genera alerta si es necesario.
-     *
-     * PROPÓSITO: Detecta cuando el stock está por debajo del mínimo establecido.
+     * Registra el nivel notificado de cada alerta.
      *
-     * @param inventario Inventario a verificar
+     * @param alertas Alertas a registrar
      */
-    private void verificarStockBajo(Inventario inventario) {
-        Integer cantidadActual = inventario.getCantidadActual();
-        Integer stockMinimo = inventario.getInsumo().getStockMinimo();
-        
-        if (cantidadActual <= stockMinimo && cantidadActual > stockMinimo / 2) {
-            log.warn("Stock bajo detectado: {} - Disponible: {}, Mínimo: {}", 
-                    inventario.getInsumo().getNombre(),
-                    cantidadActual,
-                    stockMinimo);
-
-            enviarAlertaStockBajo(inventario);
+    private void registrarAlertasNotificadas(List<AlertaStock> alertas) {
+        if (alertas.isEmpty()) {
+            return;
         }
+        LocalDateTime ahora = LocalDateTime.now();
+        alertaStockRepository.saveAll(alertas.stream()
+                .map(alerta -> AlertaStockNotificada.builder()
+                        .idInventario(alerta.idInventario())
+                        .nivel(alerta.nivel())
+                        .fechaNotificacion(ahora)
+                        .build())
+                .toList());
     }
 
     /**
-     * Verifica si el stock está crítico y genera alerta urgente.
+     * Envía el resumen de alertas de stock a todos los administradores y auxiliares activos.
      *
-     * PROPÓSITO: Detecta cuando el stock está muy bajo y requiere acción inmediata.
+     * PROPÓSITO: Un solo correo por destinatario con todas las alertas nuevas.
      *
-     * @param inventario Inventario a verificar
+     * @param alertas Alertas nuevas a notificar
+     * @return true si al menos un destinatario recibió el resumen
      */
-    private void verificarStockCritico(Inventario inventario) {
-        Integer cantidadActual = inventario.getCantidadActual();
-        Integer stockMinimo = inventario.getInsumo().getStockMinimo();
-        
-        if (cantidadActual <= stockMinimo / 2 && cantidadActual > 0) {
-            log.error("Stock crítico detectado: {} - Disponible: {}, Mínimo: {}", 
-                    inventario.getInsumo().getNombre(),
-                    cantidadActual,
-                    stockMinimo);
-
-            enviarAlertaStockCritico(inventario);
-        }
+    private boolean enviarResumenAlertas(List<AlertaStock> alertas) {
+        Map<NivelAlertaStock, List<AlertaStock>> porNivel = alertas.stream()
+                .collect(Collectors.groupingBy(AlertaStock::nivel,
+                        () -> new EnumMap<>(NivelAlertaStock.class), Collectors.toList()));
+
+        alertas.forEach(alerta -> log.warn("{} detectado: {} - Disponible: {}, Mínimo: {}",
+                alerta.nivel().getDisplayName(), alerta.insumo(), alerta.cantidadActual(), alerta.stockMinimo()));
+
+        return enviarNotificacion(construirAsuntoResumen(porNivel), construirResumen(porNivel));
     }
 
     /**
-     * Verifica si el stock está agotado y genera alerta urgente.
-     *
-     * PROPÓSITO: Detecta cuando el stock llega a cero y requiere reposición inmediata.
-     *
-     * @param inventario Inventario a verificar
+     * Construye el asunto del resumen con el número de alertas por nivel.
      */
-    private void verificarStockAgotado(Inventario inventario) {
-        Integer cantidadActual = inventario.getCantidadActual();
-        if (cantidadActual != null && cantidadActual == 0) {
-            log.error("Stock agotado detectado: {}", inventario.getInsumo().getNombre());
-            enviarAlertaStockAgotado(inventario);
+    private String construirAsuntoResumen(Map<NivelAlertaStock, List<AlertaStock>> porNivel) {
+        List<String> conteos = new ArrayList<>();
+        for (NivelAlertaStock nivel : NIVELES_POR_GRAVEDAD) {
+            List<AlertaStock> alertasNivel = porNivel.get(nivel);
+            if (alertasNivel != null) {
+                conteos.add(alertasNivel.size() + " " + nivel.getDisplayName().toLowerCase());
+            }
         }
+        return "Resumen de Alertas de Stock: " + String.join(", ", conteos);
     }
 
     /**
-     * Envía alerta de stock bajo.
-     *
-     * PROPÓSITO: Notifica a los responsables cuando el stock está bajo.
-     *
-     * @param inventario Inventario con stock bajo
+     * Construye el HTML del resumen, con una tabla por nivel de la más grave a la más leve.
      */
-    private void enviarAlertaStockBajo(Inventario inventario) {
-        String mensaje = String.format("""
-                <p>Alerta: <strong>Stock bajo detectado</strong></p>
-                
-                <div style="background-color: #fef3c7; padding: 20px; border-radius: 8px; border-left: 4px solid #f59e0b; margin: 20px 0;">
-                    <h3 style="margin-top: 0; color: #92400e;">Detalles del Insumo:</h3>
-                    <table style="width: 100%%; border-collapse: collapse;">
-                        <tr>
-                            <td style="padding: 8px 0; color: #4b5563; font-weight: 600;">Insumo:</td>
-                            <td style="padding: 8px 0; color: #1f2937;">%s</td>
-                        </tr>
-                        <tr>
-                            <td style="padding: 8px 0; color: #4b5563; font-weight: 600;">Stock disponible:</td>
-                            <td style="padding: 8px 0; color: #dc2626; font-weight: 600;">%d</td>
-                        </tr>
-                        <tr>
-                            <td style="padding: 8px 0; color: #4b5563; font-weight: 600;">Stock mínimo:</td>
-                            <td style="padding: 8px 0; color: #1f2937;">%d</td>
-                        </tr>
-                        <tr>
-                            <td style="padding: 8px 0; color: #4b5563; font-weight: 600;">Stock máximo:</td>
-                            <td style="padding: 8px 0; color: #1f2937;">%s</td>
-                        </tr>
-                    </table>
-                </div>
-                
-                <p><strong>Por favor, considere realizar una compra para reponer el inventario.</strong></p>
-                """,
-                inventario.getInsumo().getNombre(),
-                inventario.getCantidadActual(),
-                inventario.getInsumo().getStockMinimo(),
-                inventario.getInsumo().getStockMaximo() != null ? inventario.getInsumo().getStockMaximo().toString() : "N/A"
-        );
-
-        enviarNotificacion("Alerta de Stock Bajo", mensaje);
-    }
+    private String construirResumen(Map<NivelAlertaStock, List<AlertaStock>> porNivel) {
+        StringBuilder html = new StringBuilder();
+        int total = porNivel.values().stream().mapToInt(List::size).sum();
+        html.append(String.format("<p>Alerta: <strong>%d insumo(s)</strong> requieren atención.</p>%n", total));
 
-    /**
-     * Envía alerta de stock crítico.
-     *
-     * PROPÓSITO: Notifica urgentemente cuando el stock está muy bajo.
-     *
-     * @param inventario Inventario con stock crítico
-     */
-    private void enviarAlertaStockCritico(Inventario inventario) {
-        String mensaje = String.format("""
-                <p><strong style="color: #dc2626; font-size: 18px;">⚠️ ALERTA CRÍTICA: Stock muy bajo</strong></p>
-                
-                <div style="background-color: #fee2e2; padding: 20px; border-radius: 8px; border-left: 4px solid #dc2626; margin: 20px 0;">
-                    <h3 style="margin-top: 0; color: #991b1b;">Detalles del Insumo:</h3>
-                    <table style="width: 100%%; border-collapse: collapse;">
-                        <tr>
-                            <td style="padding: 8px 0; color: #4b5563; font-weight: 600;">Insumo:</td>
-                            <td style="padding: 8px 0; color: #1f2937;">%s</td>
-                        </tr>
-                        <tr>
-                            <td style="padding: 8px 0; color: #4b5563; font-weight: 600;">Stock disponible:</td>
-                            <td style="padding: 8px 0; color: #dc2626; font-weight: 700; font-size: 18px;">%d</td>
-                        </tr>
-                        <tr>
-                            <td style="padding: 8px 0; color: #4b5563; font-weight: 600;">Stock mínimo:</td>
-                            <td style="padding: 8px 0; color: #1f2937;">%d</td>
-                        </tr>
-                    </table>
-                </div>
-                
-                <p style="color: #dc2626; font-weight: 600; font-size: 16px;">🚨 URGENTE: Se requiere reposición inmediata.</p>
-                """,
-                inventario.getInsumo().getNombre(),
-                inventario.getCantidadActual(),
-                inventario.getInsumo().getStockMinimo()
-        );
+        for (NivelAlertaStock nivel : NIVELES_POR_GRAVEDAD) {
+            List<AlertaStock> alertasNivel = porNivel.get(nivel);
+            if (alertasNivel != null) {
+                agregarSeccion(html, nivel, alertasNivel);
+            }
+        }
 
-        enviarNotificacion("Alerta Crítica de Stock", mensaje);
+        html.append("<p><strong>Por favor, considere realizar una compra para reponer el inventario.</strong></p>\n");
+        return html.toString();
     }
 
     /**
-     * Envía alerta de stock agotado.
-     *
-     * PROPÓSITO: Notifica urgentemente cuando el stock se agota.
-     *
-     * @param inventario Inventario agotado
+     * Agrega al resumen la tabla de alertas de un nivel.
      */
-    private void enviarAlertaStockAgotado(Inventario inventario) {
-        String mensaje = String.format("""
-                <p><strong style="color: #dc2626; font-size: 20px;">🚨 ALERTA URGENTE: Stock Agotado</strong></p>
-                
-                <div style="background-color: #fee2e2; padding: 20px; border-radius: 8px; border-left: 4px solid #dc2626; margin: 20px 0;">
-                    <h3 style="margin-top: 0; color: #991b1b;">Detalles del Insumo:</h3>
+    private void agregarSeccion(StringBuilder html, NivelAlertaStock nivel, List<AlertaStock> alertas) {
+        boolean urgente = nivel != NivelAlertaStock.BAJO;
+        String fondo = urgente ? "#fee2e2" : "#fef3c7";
+        String borde = urgente ? "#dc2626" : "#f59e0b";
+        String titulo = urgente ? "#991b1b" : "#92400e";
+
+        html.append(String.format("""
+                <div style="background-color: %s; padding: 20px; border-radius: 8px; border-left: 4px solid %s; margin: 20px 0;">
+                    <h3 style="margin-top: 0; color: %s;">%s (%d)</h3>
                     <table style="width: 100%%; border-collapse: collapse;">
                         <tr>
-                            <td style="padding: 8px 0; color: #4b5563; font-weight: 600;">Insumo:</td>
-                            <td style="padding: 8px 0; color: #1f2937; font-weight: 600;">%s</td>
-                        </tr>
-                        <tr>
-                            <td style="padding: 8px 0; color: #4b5563; font-weight: 600;">Stock disponible:</td>
-                            <td style="padding: 8px 0; color: #dc2626; font-weight: 700; font-size: 20px;">0</td>
+                            <th style="padding: 8px 0; color: #4b5563; text-align: left;">Insumo</th>
+                            <th style="padding: 8px 0; color: #4b5563; text-align: left;">Stock disponible</th>
+                            <th style="padding: 8px 0; color: #4b5563; text-align: left;">Stock mínimo</th>
+                            <th style="padding: 8px 0; color: #4b5563; text-align: left;">Stock máximo</th>
                         </tr>
+                """, fondo, borde, titulo, nivel.getDisplayName(), alertas.size()));
+
+        alertas.stream().limit(MAXIMO_FILAS_POR_NIVEL).forEach(alerta -> html.append(String.format("""
                         <tr>
-                            <td style="padding: 8px 0; color: #4b5563; font-weight: 600;">Stock mínimo:</td>
+                            <td style="padding: 8px 0; color: #1f2937;">%s</td>
+                            <td style="padding: 8px 0; color: #dc2626; font-weight: 600;">%d</td>
                             <td style="padding: 8px 0; color: #1f2937;">%d</td>
+                            <td style="padding: 8px 0; color: #1f2937;">%s</td>
                         </tr>
-                    </table>
-                </div>
-                
-                <p style="color: #dc2626; font-weight: 700; font-size: 18px;">⚠️ URGENTE: El insumo se ha agotado. Se requiere reposición inmediata.</p>
                 """,
-                inventario.getInsumo().getNombre(),
-                inventario.getInsumo().getStockMinimo()
-        );
+                HtmlUtils.htmlEscape(alerta.insumo()),
+                alerta.cantidadActual(),
+                alerta.stockMinimo(),
+                alerta.stockMaximo() != null ? alerta.stockMaximo().toString() : "N/A")));
 
-        enviarNotificacion("Alerta Urgente: Stock Agotado", mensaje);
+        html.append("    </table>\n");
+        if (alertas.size() > MAXIMO_FILAS_POR_NIVEL) {
+            html.append(String.format("    <p style=\"color: #4b5563;\">... y %d insumo(s) más.</p>%n",
+                    alertas.size() - MAXIMO_FILAS_POR_NIVEL));
+        }
+        html.append("</div>\n");
     }
 
     /**
@@ -315,16 +304,17 @@ public class InventarioObserver {
      *
      * @param asunto Asunto de la notificación
      * @param mensaje Mensaje de la notificación
+     * @return true si al menos un correo se envió correctamente
      */
-    private void enviarNotificacion(String asunto, String mensaje) {
+    private boolean enviarNotificacion(String asunto, String mensaje) {
         try {
             // Obtener emails de administradores y auxiliares activos
-            List<Usuario> usuariosNotificar = usuarioRepository.findByRolAndEstado(RolUsuario.ADMIN, true);
+            List<Usuario> usuariosNotificar = new ArrayList<>(usuarioRepository.findByRolAndEstado(RolUsuario.ADMIN, true));
             usuariosNotificar.addAll(usuarioRepository.findByRolAndEstado(RolUsuario.AUXILIAR, true));
             
             if (usuariosNotificar.isEmpty()) {
                 log.warn("No hay usuarios activos para notificar sobre stock bajo");
-                return;
+                return false;
             }
             
             // Enviar correo a cada usuario y guardar en BD
@@ -343,11 +333,11 @@ public class InventarioObserver {
                         boolean enviado = enviador.enviar(mensajeNotificacion);
                         
                         // Guardar notificación en la base de datos
-                        String nombreDestinatario = obtenerNombreDestinatario(usuario);
+                        Optional<Personal> personal = personalRepository.findByUsuario(usuario);
                         guardarNotificacionStockEnBD(
-                            nombreDestinatario,
+                            personal.map(Personal::getNombreCompleto).orElse(usuario.getUsername()),
                             usuario.getEmail(),
-                            obtenerTelefonoDestinatario(usuario),
+                            personal.map(Personal::getTelefono).orElse(null),
                             asunto,
                             mensaje,
                             enviado,
@@ -370,30 +360,13 @@ public class InventarioObserver {
             
             log.info("Notificaciones de inventario enviadas: {} exitosas, {} fallidas - Asunto: {}", 
                     enviados, fallidos, asunto);
+            return enviados > 0;
         } catch (IllegalArgumentException | IllegalStateException e) {
             log.error("Error de validación al enviar notificación de inventario: {}", e.getMessage(), e);
         } catch (RuntimeException e) {
             log.error("Error al enviar notificación de inventario: {}", e.getMessage(), e);
         }
-    }
-    
-    /**
-     * Obtiene el nombre del destinatario desde Personal o Usuario.
-     */
-    private String obtenerNombreDestinatario(Usuario usuario) {
-        Optional<Personal> personal = personalRepository.findByUsuario(usuario);
-        if (personal.isPresent()) {
-            return personal.get().getNombreCompleto();
-        }
-        return usuario.getUsername();
-    }
-    
-    /**
-     * Obtiene el teléfono del destinatario desde Personal.
-     */
-    private String obtenerTelefonoDestinatario(Usuario usuario) {
-        Optional<Personal> personal = personalRepository.findByUsuario(usuario);
-        return personal.map(Personal::getTelefono).orElse(null);
+        return false;
     }
     
     /**
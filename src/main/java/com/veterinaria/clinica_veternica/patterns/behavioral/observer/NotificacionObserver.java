@@ -13,6 +13,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.format.DateTimeFormatter;
+import java.util.Set;
 
 /**
  * Observador concreto que envía notificaciones cuando cambia el estado de una cita.
@@ -26,6 +27,12 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class NotificacionObserver implements CitaObserver {
 
+    /**
+     * Estados destino de los cambios de estado que generan notificación
+     * (suscripción en CitaSubject).
+     */
+    public static final Set<EstadoCita> ESTADOS_NOTIFICADOS = Set.of(EstadoCita.CONFIRMADA, EstadoCita.ATENDIDA);
+
     private final EmailNotificacionFactory emailFactory;
     private final EmailService emailService;
     private final ComunicacionRepository comunicacionRepository;
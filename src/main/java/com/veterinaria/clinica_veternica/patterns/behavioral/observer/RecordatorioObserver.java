@@ -1,20 +1,26 @@
 package com.veterinaria.clinica_veternica.patterns.behavioral.observer;
 
+import com.veterinaria.clinica_veternica.config.AsyncConfig;
 import com.veterinaria.clinica_veternica.domain.agenda.Cita;
 import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
 import com.veterinaria.clinica_veternica.domain.comunicacion.Comunicacion;
 import com.veterinaria.clinica_veternica.patterns.creational.abstractfactory.NotificacionFactory;
 import com.veterinaria.clinica_veternica.patterns.creational.abstractfactory.EmailNotificacionFactory;
 import com.veterinaria.clinica_veternica.patterns.creational.singleton.ConfigurationManager;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
 import com.veterinaria.clinica_veternica.repository.ComunicacionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Set;
 
 /**
  * Patrón Observer: RecordatorioObserver
@@ -47,16 +53,26 @@ import java.time.temporal.ChronoUnit;
 @Component
 public class RecordatorioObserver implements CitaObserver {
 
+    /**
+     * Estados destino de los cambios de estado que programan o cancelan recordatorios
+     * (suscripción en CitaSubject).
+     */
+    public static final Set<EstadoCita> ESTADOS_RECORDATORIO =
+            Set.of(EstadoCita.CONFIRMADA, EstadoCita.CANCELADA, EstadoCita.ATENDIDA);
+
     private final ComunicacionRepository comunicacionRepository;
+    private final CitaRepository citaRepository;
     private final EmailNotificacionFactory emailFactory;
     private final RecordatorioObserver self;
     private final ConfigurationManager configurationManager;
 
     public RecordatorioObserver(ComunicacionRepository comunicacionRepository,
+                                CitaRepository citaRepository,
                                 EmailNotificacionFactory emailFactory,
                                 @Lazy RecordatorioObserver self,
                                 ConfigurationManager configurationManager) {
         this.comunicacionRepository = comunicacionRepository;
+        this.citaRepository = citaRepository;
         this.emailFactory = emailFactory;
         this.self = self;
         this.configurationManager = configurationManager;
@@ -75,7 +91,7 @@ public class RecordatorioObserver implements CitaObserver {
 
         // Solo programar recordatorios para citas confirmadas
         if (EstadoCita.CONFIRMADA.name().equals(estadoNuevo)) {
-            self.programarRecordatorios(cita);
+            programarDespuesDelCommit(cita);
         } else if (EstadoCita.CANCELADA.name().equals(estadoNuevo) ||
                    EstadoCita.ATENDIDA.name().equals(estadoNuevo)) {
             // Cancelar recordatorios pendientes si la cita se cancela o atiende
@@ -94,7 +110,7 @@ public class RecordatorioObserver implements CitaObserver {
         log.debug("RecordatorioObserver: Nueva cita creada: {}", cita.getIdCita());
 
         if (cita.getEstado() == EstadoCita.CONFIRMADA) {
-            self.programarRecordatorios(cita);
+            programarDespuesDelCommit(cita);
         }
     }
 
@@ -127,20 +143,42 @@ public class RecordatorioObserver implements CitaObserver {
         
         // Reprogramar recordatorios con la nueva fecha/hora si la cita está confirmada
         if (cita.getEstado() == EstadoCita.CONFIRMADA) {
+            programarDespuesDelCommit(cita);
+        }
+    }
+
+    /**
+     * Programa los recordatorios en el pool de recordatorios cuando la transacción que
+     * confirmó la cita haga commit (o de inmediato si no hay transacción).
+     *
+     * @param cita Cita confirmada
+     */
+    private void programarDespuesDelCommit(Cita cita) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    self.programarRecordatorios(cita);
+                }
+            });
+        } else {
             self.programarRecordatorios(cita);
         }
     }
 
     /**
      * Programa recordatorios automáticos para una cita.
+     * Se ejecuta en el pool de recordatorios; la cita se vuelve a leer en la transacción
+     * del método para recorrer sus asociaciones fuera de la petición original.
      *
      * PROPÓSITO: Crea recordatorios programados para diferentes momentos antes de la cita.
      *
-     * @param cita Cita para la cual programar recordatorios
+     * @param citaConfirmada Cita para la cual programar recordatorios
      */
-    @Async
-    public void programarRecordatorios(Cita cita) {
-        log.info("Programando recordatorios para cita: {}", cita.getIdCita());
+    @Async(AsyncConfig.EJECUTOR_RECORDATORIOS)
+    @Transactional
+    public void programarRecordatorios(Cita citaConfirmada) {
+        log.info("Programando recordatorios para cita: {}", citaConfirmada.getIdCita());
 
         // Verificar si los recordatorios automáticos están habilitados
         Boolean recordatoriosHabilitados = configurationManager.getRecordatoriosAutomaticos();
@@ -149,6 +187,9 @@ public class RecordatorioObserver implements CitaObserver {
             return;
         }
 
+        Cita cita = citaConfirmada.getIdCita() == null
+                ? citaConfirmada
+                : citaRepository.findById(citaConfirmada.getIdCita()).orElse(citaConfirmada);
         LocalDateTime fechaHoraCita = LocalDateTime.of(cita.getFechaCita(), cita.getHoraCita());
         LocalDateTime ahora = LocalDateTime.now();
 
@@ -186,20 +227,22 @@ public class RecordatorioObserver implements CitaObserver {
     /**
      * Crea un recordatorio programado.
      *
-     * PROPÓSITO: Crea la entidad Comunicacion que será procesada por un scheduler.
+     * PROPÓSITO: Crea la entidad Comunicacion que enviará DespachadorComunicaciones
+     * cuando llegue su fecha programada. El mensaje se guarda completo porque el
+     * despachador no vuelve a consultar la cita.
      *
      * @param cita Cita asociada
      * @param fechaEnvio Fecha y hora en que se debe enviar el recordatorio
-     * @param mensaje Mensaje del recordatorio
+     * @param descripcion Descripción del recordatorio (para el log)
      */
-    private void crearRecordatorio(Cita cita, LocalDateTime fechaEnvio, String mensaje) {
+    private void crearRecordatorio(Cita cita, LocalDateTime fechaEnvio, String descripcion) {
         Comunicacion comunicacion = Comunicacion.builder()
                 .tipo("RECORDATORIO")
                 .canal("EMAIL")
                 .destinatarioNombre(cita.getMascota().getPropietario().getNombreCompleto())
                 .destinatarioEmail(cita.getMascota().getPropietario().getEmail())
                 .asunto("Recordatorio de Cita")
-                .mensaje(mensaje)
+                .mensaje(construirMensajeRecordatorio(cita))
                 .cita(cita)
                 .fechaProgramadaEnvio(fechaEnvio)
                 .enviada(false)
@@ -208,7 +251,36 @@ public class RecordatorioObserver implements CitaObserver {
                 .build();
 
         comunicacionRepository.save(comunicacion);
-        log.debug("Recordatorio creado: {} para fecha {}", comunicacion.getIdComunicacion(), fechaEnvio);
+        log.debug("Recordatorio creado: {} ({}) para fecha {}", comunicacion.getIdComunicacion(), descripcion, fechaEnvio);
+    }
+
+    /**
+     * Construye el mensaje de recordatorio con los datos de la cita.
+     *
+     * @param cita Cita a recordar
+     * @return Mensaje en texto plano
+     */
+    private String construirMensajeRecordatorio(Cita cita) {
+        return String.format("""
+                Estimado/a %s,
+                
+                Le recordamos que tiene una cita programada para su mascota %s:
+                Fecha: %s
+                Hora: %s
+                Veterinario: %s
+                Servicio: %s
+                
+                Por favor confirme su asistencia.
+                
+                Saludos,
+                Clínica Veterinaria""",
+                cita.getMascota().getPropietario().getNombreCompleto(),
+                cita.getMascota().getNombre(),
+                cita.getFechaCita(),
+                cita.getHoraCita(),
+                cita.getVeterinario().getNombreCompleto(),
+                cita.getServicio().getNombre()
+        );
     }
 
     /**
@@ -233,13 +305,14 @@ public class RecordatorioObserver implements CitaObserver {
 
     /**
      * Envía un recordatorio inmediatamente.
-     * Este método es llamado por el scheduler cuando es hora de enviar un recordatorio.
+     * Los recordatorios programados los envía DespachadorComunicaciones; este método
+     * permite enviar uno de inmediato.
      *
      * PROPÓSITO: Procesa y envía recordatorios programados.
      *
      * @param comunicacion Comunicación (recordatorio) a enviar
      */
-    @Async
+    @Async(AsyncConfig.EJECUTOR_NOTIFICACIONES)
     public void enviarRecordatorio(Comunicacion comunicacion) {
         if (com.veterinaria.clinica_veternica.util.Constants.isTrue(comunicacion.getEnviada())) {
             log.debug("Recordatorio {} ya fue enviado", comunicacion.getIdComunicacion());
@@ -259,30 +332,7 @@ public class RecordatorioObserver implements CitaObserver {
             }
 
             String emailPropietario = cita.getMascota().getPropietario().getEmail();
-            String nombreMascota = cita.getMascota().getNombre();
-            String nombrePropietario = cita.getMascota().getPropietario().getNombreCompleto();
-
-            // Construir mensaje
-            String mensaje = String.format("""
-                    Estimado/a %s,
-                    
-                    Le recordamos que tiene una cita programada para su mascota %s:
-                    Fecha: %s
-                    Hora: %s
-                    Veterinario: %s
-                    Servicio: %s
-                    
-                    Por favor confirme su asistencia.
-                    
-                    Saludos,
-                    Clínica Veterinaria""",
-                    nombrePropietario,
-                    nombreMascota,
-                    cita.getFechaCita(),
-                    cita.getHoraCita(),
-                    cita.getVeterinario().getNombreCompleto(),
-                    cita.getServicio().getNombre()
-            );
+            String mensaje = construirMensajeRecordatorio(cita);
 
             // Enviar notificación usando Abstract Factory
             var mensajeNotificacion = emailFactory.crearMensaje(emailPropietario, "Recordatorio de Cita", mensaje);
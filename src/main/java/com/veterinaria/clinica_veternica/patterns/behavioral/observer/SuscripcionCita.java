@@ -0,0 +1,123 @@
+package com.veterinaria.clinica_veternica.patterns.behavioral.observer;
+
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Suscripción de un observador a CitaSubject: tipos de evento, estados destino de
+ * CAMBIO_ESTADO y métricas de sus invocaciones.
+ *
+ * Es inmutable salvo por los contadores (LongAdder), de modo que se comparte sin
+ * sincronización entre los hilos que notifican.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+@Slf4j
+public final class SuscripcionCita {
+
+    private static final String MSG_ERROR_NOTIFICAR = "Error al notificar observador {}: {}";
+    private static final String MSG_ERROR_INESPERADO = "Error inesperado al notificar observador {}: {}";
+
+    private final CitaObserver observer;
+    private final String nombre;
+    private final Set<TipoEventoCita> eventos;
+    private final Set<EstadoCita> estados;
+
+    private final LongAdder invocaciones = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final LongAdder duracionTotalNanos = new LongAdder();
+    private final LongAccumulator duracionMaximaNanos = new LongAccumulator(Math::max, 0);
+
+    SuscripcionCita(CitaObserver observer, Set<TipoEventoCita> eventos, Set<EstadoCita> estados) {
+        this.observer = observer;
+        this.nombre = observer.getClass().getSimpleName();
+        this.eventos = Collections.unmodifiableSet(eventos.isEmpty()
+                ? EnumSet.noneOf(TipoEventoCita.class) : EnumSet.copyOf(eventos));
+        this.estados = Collections.unmodifiableSet(estados.isEmpty()
+                ? EnumSet.noneOf(EstadoCita.class) : EnumSet.copyOf(estados));
+    }
+
+    public CitaObserver getObserver() {
+        return observer;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public boolean incluye(TipoEventoCita evento) {
+        return eventos.contains(evento);
+    }
+
+    /**
+     * @return true si recibe los cambios de estado hacia el estado indicado
+     */
+    public boolean incluye(EstadoCita estado) {
+        return eventos.contains(TipoEventoCita.CAMBIO_ESTADO) && estados.contains(estado);
+    }
+
+    /**
+     * @return true si recibe los cambios hacia cualquier estado, incluidos los que no son un EstadoCita
+     */
+    public boolean incluyeTodosLosEstados() {
+        return eventos.contains(TipoEventoCita.CAMBIO_ESTADO) && estados.size() == EstadoCita.values().length;
+    }
+
+    /**
+     * Invoca al observador aislando sus errores y midiendo la duración.
+     *
+     * @return true si el observador terminó sin errores
+     */
+    public boolean invocar(Cita cita, BiConsumer<CitaObserver, Cita> accion) {
+        long inicio = System.nanoTime();
+        try {
+            accion.accept(observer, cita);
+            return true;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            errores.increment();
+            log.error(MSG_ERROR_NOTIFICAR, nombre, e.getMessage(), e);
+        } catch (RuntimeException e) {
+            errores.increment();
+            log.error(MSG_ERROR_INESPERADO, nombre, e.getMessage(), e);
+        } finally {
+            long duracion = System.nanoTime() - inicio;
+            invocaciones.increment();
+            duracionTotalNanos.add(duracion);
+            duracionMaximaNanos.accumulate(duracion);
+        }
+        return false;
+    }
+
+    /**
+     * Obtiene las métricas de invocación del observador.
+     *
+     * @return Mapa de métricas (eventos suscritos, invocaciones, errores y duraciones en ms)
+     */
+    public Map<String, Object> getEstadisticas() {
+        long total = invocaciones.sum();
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("eventos", eventos);
+        if (eventos.contains(TipoEventoCita.CAMBIO_ESTADO)) {
+            datos.put("estados", estados);
+        }
+        datos.put("invocaciones", total);
+        datos.put("errores", errores.sum());
+        datos.put("duracionPromedioMs", total == 0 ? 0.0
+                : TimeUnit.NANOSECONDS.toMicros(duracionTotalNanos.sum() / total) / 1000.0);
+        datos.put("duracionMaximaMs", TimeUnit.NANOSECONDS.toMicros(duracionMaximaNanos.get()) / 1000.0);
+        return datos;
+    }
+}
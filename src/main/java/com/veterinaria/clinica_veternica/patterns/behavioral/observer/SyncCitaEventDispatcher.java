@@ -0,0 +1,24 @@
+package com.veterinaria.clinica_veternica.patterns.behavioral.observer;
+
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Entrega síncrona de eventos: el observador se ejecuta en el hilo que notifica.
+ *
+ * Es el modo por defecto (app.observer.dispatch.mode=sync) y el que usan los tests.
+ * Los errores de un observador se registran y no afectan al resto.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-20
+ */
+public class SyncCitaEventDispatcher implements CitaEventDispatcher {
+
+    @Override
+    public void dispatch(SuscripcionCita suscripcion, Cita cita, TipoEventoCita evento,
+                         BiConsumer<CitaObserver, Cita> accion) {
+        suscripcion.invocar(cita, accion);
+    }
+}
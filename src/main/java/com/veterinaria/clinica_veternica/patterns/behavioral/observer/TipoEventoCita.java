@@ -0,0 +1,26 @@
+package com.veterinaria.clinica_veternica.patterns.behavioral.observer;
+
+/**
+ * Tipos de evento que CitaSubject entrega a sus observadores.
+ *
+ * Cada observador se suscribe a un subconjunto de tipos (y, para CAMBIO_ESTADO, de
+ * estados destino); CitaSubject solo le entrega esos eventos.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+public enum TipoEventoCita {
+
+    /** Se creó una cita ({@link CitaObserver#onCitaCreated}). */
+    CREADA,
+
+    /** Cambió el estado de una cita ({@link CitaObserver#onCitaStateChanged}). */
+    CAMBIO_ESTADO,
+
+    /** Se canceló una cita ({@link CitaObserver#onCitaCancelled}). */
+    CANCELADA,
+
+    /** Se reprogramó una cita ({@link CitaObserver#onCitaUpdated}). */
+    REPROGRAMADA
+}
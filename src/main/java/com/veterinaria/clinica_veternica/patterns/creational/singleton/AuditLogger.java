@@ -1,13 +1,27 @@
 package com.veterinaria.clinica_veternica.patterns.creational.singleton;
 
+import com.veterinaria.clinica_veternica.config.AuditProperties;
+import com.veterinaria.clinica_veternica.domain.auditoria.RegistroAuditoria;
+import com.veterinaria.clinica_veternica.repository.RegistroAuditoriaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
 
 /**
  * Patrón Singleton: AuditLogger
@@ -19,7 +33,15 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  * - Garantiza un único punto de auditoría en todo el sistema
  * - Evita inconsistencias en logs de auditoría
  * - Thread-safe para operaciones concurrentes
- * - Almacenamiento en memoria con posibilidad de persistencia
+ * - Almacenamiento en memoria con persistencia write-behind
+ *
+ * Funcionamiento:
+ * - log() solo reserva una posición en un buffer circular (AtomicLong + AtomicReferenceArray),
+ *   sin bloqueos ni recorridos de la cola
+ * - Con app.audit.persistence-enabled=true, un hilo en segundo plano vacía el buffer
+ *   en lotes JDBC hacia la tabla registros_auditoria (solo inserción)
+ * - getLogsByEntidad/Usuario/DateRange consultan la tabla por índices cuando hay persistencia;
+ *   getAllLogs, getLogsByAccion y getLogCount trabajan sobre la ventana en memoria
  *
  * Uso:
  * - Registrar operaciones CRUD de entidades críticas
@@ -28,20 +50,79 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  * - Cumplimiento de normativas (GDPR, HIPAA veterinaria)
  *
  * @author Clínica Veterinaria Team
- * @version 1.0
+ * @version 2.0
  * @since 2025-11-04
  */
 @Slf4j
 @Component
 public class AuditLogger {
 
-    // Cola thread-safe para almacenar logs de auditoría
-    private final ConcurrentLinkedQueue<AuditLog> auditLogs = new ConcurrentLinkedQueue<>();
+    private static final String SQL_INSERT =
+            "INSERT INTO registros_auditoria (fecha_hora, accion, entidad, entidad_id, usuario, detalles) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final AuditProperties properties;
+    private final ObjectProvider<JdbcTemplate> jdbcTemplateProvider;
+    private final ObjectProvider<RegistroAuditoriaRepository> repositoryProvider;
+
+    // Buffer circular: cada log reserva una secuencia y escribe en la posición (secuencia & mascara)
+    private final AtomicReferenceArray<AuditLog> buffer;
+    private final int mascara;
+    private final AtomicLong siguienteSecuencia = new AtomicLong();
+
+    // Secuencia desde la que la ventana en memoria es visible (clearLogs)
+    private volatile long inicioVisible = 0;
+
+    // Secuencia hasta la que ya se persistió (solo la modifica flush())
+    private long persistidoHasta = 0;
+    private final AtomicLong descartados = new AtomicLong();
+
+    private ScheduledExecutorService flusher;
+
+    public AuditLogger(AuditProperties properties,
+                       ObjectProvider<JdbcTemplate> jdbcTemplateProvider,
+                       ObjectProvider<RegistroAuditoriaRepository> repositoryProvider) {
+        this.properties = properties;
+        this.jdbcTemplateProvider = jdbcTemplateProvider;
+        this.repositoryProvider = repositoryProvider;
+        int capacidad = Integer.highestOneBit(Math.max(2, properties.getRingCapacity()) * 2 - 1);
+        this.buffer = new AtomicReferenceArray<>(capacidad);
+        this.mascara = capacidad - 1;
+    }
 
-    // Límite de logs en memoria (se puede configurar)
-    private static final int MAX_LOGS_IN_MEMORY = 10000;
+    /**
+     * Inicia el hilo de vaciado hacia la base de datos si la persistencia está habilitada.
+     */
+    @PostConstruct
+    public void iniciar() {
+        if (!isPersistenciaHabilitada()) {
+            return;
+        }
+        long intervaloMs = Math.max(10, properties.getFlushInterval().toMillis());
+        flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("audit-flusher")
+                .daemon(true)
+                .factory());
+        flusher.scheduleWithFixedDelay(this::flushSeguro, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        log.info("Auditoría persistente habilitada (buffer {}, lote {}, intervalo {} ms)",
+                buffer.length(), properties.getBatchSize(), intervaloMs);
+    }
 
-    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    /**
+     * Detiene el hilo de vaciado y persiste los registros pendientes.
+     */
+    @PreDestroy
+    public void detener() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flushSeguro();
+        }
+    }
 
     /**
      * Registra una operación de auditoría.
@@ -53,7 +134,9 @@ public class AuditLogger {
      * @param detalles Detalles adicionales
      */
     public void log(String accion, String entidad, Long entidadId, String usuario, String detalles) {
+        long secuencia = siguienteSecuencia.getAndIncrement();
         AuditLog auditLog = AuditLog.builder()
+                .secuencia(secuencia)
                 .timestamp(LocalDateTime.now())
                 .accion(accion)
                 .entidad(entidad)
@@ -62,20 +145,11 @@ public class AuditLogger {
                 .detalles(detalles)
                 .build();
 
-        auditLogs.offer(auditLog);
+        buffer.set((int) (secuencia & mascara), auditLog);
 
-        // Log adicional con SLF4J para persistencia
-        log.info("AUDIT: {} | {} | {} | ID:{} | Usuario:{} | {}",
-                auditLog.getTimestamp().format(formatter),
-                auditLog.getAccion(),
-                auditLog.getEntidad(),
-                auditLog.getEntidadId(),
-                auditLog.getUsuario(),
-                auditLog.getDetalles());
-
-        // Limitar tamaño en memoria
-        if (auditLogs.size() > MAX_LOGS_IN_MEMORY) {
-            auditLogs.poll(); // Eliminar el más antiguo
+        if (properties.isLogToSlf4j() && log.isDebugEnabled()) {
+            log.debug("AUDIT: {} | {} | {} | ID:{} | Usuario:{} | {}",
+                    auditLog.getTimestamp(), accion, entidad, entidadId, usuario, detalles);
         }
     }
 
@@ -133,59 +207,178 @@ public class AuditLogger {
      * Obtiene todos los logs de auditoría en memoria.
      */
     public List<AuditLog> getAllLogs() {
-        return new ArrayList<>(auditLogs);
+        return ventanaEnMemoria(auditLog -> true);
     }
 
     /**
      * Obtiene logs filtrados por entidad.
      */
     public List<AuditLog> getLogsByEntidad(String entidad) {
-        return auditLogs.stream()
-                .filter(log -> entidad.equals(log.getEntidad()))
-                .toList();
+        if (isPersistenciaHabilitada()) {
+            flush();
+            return toAuditLogs(repositoryProvider.getObject().findByEntidadOrderByFechaHoraAsc(entidad));
+        }
+        return ventanaEnMemoria(auditLog -> entidad.equals(auditLog.getEntidad()));
     }
 
     /**
      * Obtiene logs filtrados por usuario.
      */
     public List<AuditLog> getLogsByUsuario(String usuario) {
-        return auditLogs.stream()
-                .filter(log -> usuario.equals(log.getUsuario()))
-                .toList();
+        if (isPersistenciaHabilitada()) {
+            flush();
+            return toAuditLogs(repositoryProvider.getObject().findByUsuarioOrderByFechaHoraAsc(usuario));
+        }
+        return ventanaEnMemoria(auditLog -> usuario.equals(auditLog.getUsuario()));
     }
 
     /**
      * Obtiene logs filtrados por acción.
      */
     public List<AuditLog> getLogsByAccion(String accion) {
-        return auditLogs.stream()
-                .filter(log -> accion.equals(log.getAccion()))
-                .toList();
+        return ventanaEnMemoria(auditLog -> accion.equals(auditLog.getAccion()));
     }
 
     /**
      * Obtiene logs en un rango de fechas.
      */
     public List<AuditLog> getLogsByDateRange(LocalDateTime inicio, LocalDateTime fin) {
-        return auditLogs.stream()
-                .filter(log -> !log.getTimestamp().isBefore(inicio) &&
-                              !log.getTimestamp().isAfter(fin))
-                .toList();
+        if (isPersistenciaHabilitada()) {
+            flush();
+            return toAuditLogs(repositoryProvider.getObject().findByFechaHoraBetweenOrderByFechaHoraAsc(inicio, fin));
+        }
+        return ventanaEnMemoria(auditLog -> !auditLog.getTimestamp().isBefore(inicio) &&
+                                            !auditLog.getTimestamp().isAfter(fin));
     }
 
     /**
-     * Limpia todos los logs de auditoría.
+     * Limpia los logs de auditoría en memoria.
+     * Los registros ya persistidos no se eliminan (la tabla es de solo inserción).
      */
     public void clearLogs() {
-        log.warn("Limpiando todos los logs de auditoría");
-        auditLogs.clear();
+        log.warn("Limpiando todos los logs de auditoría en memoria");
+        inicioVisible = siguienteSecuencia.get();
     }
 
     /**
-     * Obtiene el número de logs almacenados.
+     * Obtiene el número de logs almacenados en memoria.
      */
     public int getLogCount() {
-        return auditLogs.size();
+        long fin = siguienteSecuencia.get();
+        return (int) (fin - primeraSecuenciaVisible(fin));
+    }
+
+    /**
+     * Obtiene el número de logs que se perdieron porque el buffer se llenó
+     * antes de poder persistirlos.
+     */
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    /**
+     * Persiste en lotes JDBC los logs pendientes del buffer.
+     *
+     * Se detiene en la primera posición que aún no ha sido publicada por su hilo
+     * y continúa desde ahí en el siguiente vaciado.
+     *
+     * @return Número de registros persistidos
+     */
+    public synchronized int flush() {
+        if (!isPersistenciaHabilitada()) {
+            return 0;
+        }
+        long fin = siguienteSecuencia.get();
+        long desde = persistidoHasta;
+        if (fin - desde > buffer.length()) {
+            long perdidos = fin - buffer.length() - desde;
+            descartados.addAndGet(perdidos);
+            log.warn("Buffer de auditoría lleno: {} registros descartados sin persistir", perdidos);
+            desde = fin - buffer.length();
+        }
+
+        List<AuditLog> pendientes = new ArrayList<>();
+        long secuencia = desde;
+        while (secuencia < fin) {
+            AuditLog auditLog = buffer.get((int) (secuencia & mascara));
+            if (auditLog == null || auditLog.getSecuencia() != secuencia) {
+                break;
+            }
+            pendientes.add(auditLog);
+            secuencia++;
+        }
+        if (pendientes.isEmpty()) {
+            persistidoHasta = secuencia;
+            return 0;
+        }
+
+        JdbcTemplate jdbcTemplate = jdbcTemplateProvider.getObject();
+        jdbcTemplate.batchUpdate(SQL_INSERT, pendientes, Math.max(1, properties.getBatchSize()), (ps, auditLog) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(auditLog.getTimestamp()));
+            ps.setString(2, truncar(auditLog.getAccion(), 30));
+            ps.setString(3, truncar(auditLog.getEntidad() != null ? auditLog.getEntidad() : "N/A", 100));
+            if (auditLog.getEntidadId() != null) {
+                ps.setLong(4, auditLog.getEntidadId());
+            } else {
+                ps.setNull(4, Types.BIGINT);
+            }
+            ps.setString(5, truncar(auditLog.getUsuario(), 100));
+            ps.setString(6, truncar(auditLog.getDetalles(), 2000));
+        });
+        persistidoHasta = secuencia;
+        log.debug("Auditoría: {} registros persistidos", pendientes.size());
+        return pendientes.size();
+    }
+
+    private void flushSeguro() {
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            log.error("Error al persistir registros de auditoría: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Error inesperado al persistir registros de auditoría: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean isPersistenciaHabilitada() {
+        return properties.isPersistenceEnabled();
+    }
+
+    private long primeraSecuenciaVisible(long fin) {
+        return Math.max(inicioVisible, fin - buffer.length());
+    }
+
+    private List<AuditLog> ventanaEnMemoria(Predicate<AuditLog> filtro) {
+        long fin = siguienteSecuencia.get();
+        List<AuditLog> resultado = new ArrayList<>();
+        for (long secuencia = primeraSecuenciaVisible(fin); secuencia < fin; secuencia++) {
+            AuditLog auditLog = buffer.get((int) (secuencia & mascara));
+            if (auditLog != null && auditLog.getSecuencia() == secuencia && filtro.test(auditLog)) {
+                resultado.add(auditLog);
+            }
+        }
+        return resultado;
+    }
+
+    private static List<AuditLog> toAuditLogs(List<RegistroAuditoria> registros) {
+        return registros.stream()
+                .map(registro -> AuditLog.builder()
+                        .secuencia(-1)
+                        .timestamp(registro.getFechaHora())
+                        .accion(registro.getAccion())
+                        .entidad(registro.getEntidad())
+                        .entidadId(registro.getEntidadId())
+                        .usuario(registro.getUsuario())
+                        .detalles(registro.getDetalles())
+                        .build())
+                .toList();
+    }
+
+    private static String truncar(String valor, int maximo) {
+        if (valor == null || valor.length() <= maximo) {
+            return valor;
+        }
+        return valor.substring(0, maximo);
     }
 
     /**
@@ -194,6 +387,7 @@ public class AuditLogger {
     @lombok.Data
     @lombok.Builder
     public static class AuditLog {
+        private long secuencia;
         private LocalDateTime timestamp;
         private String accion;
         private String entidad;
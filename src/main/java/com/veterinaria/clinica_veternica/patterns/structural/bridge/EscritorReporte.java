@@ -0,0 +1,35 @@
+package com.veterinaria.clinica_veternica.patterns.structural.bridge;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Escritor incremental de un reporte, obtenido de ReporteImplementor.abrirEscritor.
+ *
+ * Cada fila se escribe en la salida a medida que llega; el resumen (totales), que solo
+ * se conoce al final, se escribe en finalizar. La memoria usada no depende del número
+ * de filas.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-23
+ */
+public interface EscritorReporte {
+
+    /**
+     * Escribe una fila; los valores van en el orden de las columnas del reporte.
+     *
+     * @param valores Valores de la fila
+     * @throws IOException si falla la escritura
+     */
+    void escribirFila(Object... valores) throws IOException;
+
+    /**
+     * Escribe el resumen y el cierre del documento y vacía el buffer.
+     * No cierra la salida.
+     *
+     * @param resumen Totales del reporte
+     * @throws IOException si falla la escritura
+     */
+    void finalizar(Map<String, Object> resumen) throws IOException;
+}
@@ -0,0 +1,52 @@
+package com.veterinaria.clinica_veternica.patterns.structural.bridge;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escritor por defecto para los ReporteImplementor sin soporte incremental: acumula las
+ * filas y, al finalizar, escribe el resultado de generarReporte.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-23
+ */
+class EscritorReporteAcumulado implements EscritorReporte {
+
+    private final ReporteImplementor implementor;
+    private final OutputStream salida;
+    private final String titulo;
+    private final List<String> columnas;
+    private final Map<String, Object> datos;
+    private final List<Map<String, Object>> filas = new ArrayList<>();
+
+    EscritorReporteAcumulado(ReporteImplementor implementor, OutputStream salida, String titulo,
+                             Map<String, Object> encabezado, List<String> columnas) {
+        this.implementor = implementor;
+        this.salida = salida;
+        this.titulo = titulo;
+        this.columnas = columnas;
+        this.datos = new LinkedHashMap<>(encabezado);
+    }
+
+    @Override
+    public void escribirFila(Object... valores) {
+        Map<String, Object> fila = new LinkedHashMap<>();
+        for (int i = 0; i < columnas.size() && i < valores.length; i++) {
+            fila.put(columnas.get(i), valores[i]);
+        }
+        filas.add(fila);
+    }
+
+    @Override
+    public void finalizar(Map<String, Object> resumen) throws IOException {
+        datos.put("filas", filas);
+        datos.putAll(resumen);
+        salida.write(implementor.generarReporte(datos, titulo));
+        salida.flush();
+    }
+}
@@ -0,0 +1,82 @@
+package com.veterinaria.clinica_veternica.patterns.structural.bridge;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escritor incremental para los formatos de texto por líneas (PDF y Excel simulados):
+ * una línea por fila con los valores separados, y el resumen como pares clave-valor.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-23
+ */
+class EscritorReporteTexto implements EscritorReporte {
+
+    private final Writer escritor;
+    private final String separadorColumnas;
+    private final String separadorResumen;
+
+    EscritorReporteTexto(OutputStream salida, String separadorColumnas, String separadorResumen) {
+        this.escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        this.separadorColumnas = separadorColumnas;
+        this.separadorResumen = separadorResumen;
+    }
+
+    /**
+     * Escribe una línea de texto tal cual.
+     */
+    void escribirLinea(String linea) throws IOException {
+        escritor.write(linea);
+        escritor.write('\n');
+    }
+
+    /**
+     * Escribe los pares clave-valor, uno por línea.
+     */
+    void escribirPares(Map<String, Object> pares) throws IOException {
+        for (Map.Entry<String, Object> par : pares.entrySet()) {
+            escribirLinea(par.getKey() + separadorResumen + formatear(par.getValue()));
+        }
+    }
+
+    /**
+     * Escribe la línea de nombres de columnas y envía al cliente lo escrito hasta ahora.
+     */
+    void escribirColumnas(List<String> columnas) throws IOException {
+        escribirFila(columnas.toArray());
+        escritor.flush();
+    }
+
+    @Override
+    public void escribirFila(Object... valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                escritor.write(separadorColumnas);
+            }
+            escritor.write(formatear(valores[i]));
+        }
+        escritor.write('\n');
+    }
+
+    @Override
+    public void finalizar(Map<String, Object> resumen) throws IOException {
+        escritor.write('\n');
+        escribirPares(resumen);
+        escritor.flush();
+    }
+
+    private static String formatear(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        // Un salto de línea o tabulador dentro de un valor rompería la fila
+        return valor.toString().replace('\t', ' ').replace('\r', ' ').replace('\n', ' ');
+    }
+}
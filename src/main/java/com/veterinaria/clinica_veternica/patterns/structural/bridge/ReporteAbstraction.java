@@ -2,7 +2,11 @@ package com.veterinaria.clinica_veternica.patterns.structural.bridge;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Map;
+import java.util.function.LongConsumer;
 
 /**
  * Patrón Bridge: ReporteAbstraction (Abstract)
@@ -22,6 +26,11 @@ import java.util.Map;
 @Slf4j
 public abstract class ReporteAbstraction {
 
+    /**
+     * Cada cuántas filas se informa el avance de un reporte en streaming.
+     */
+    public static final int PASO_PROGRESO = 500;
+
     protected ReporteImplementor implementor;
 
     protected ReporteAbstraction(ReporteImplementor implementor) {
@@ -40,6 +49,77 @@ public abstract class ReporteAbstraction {
         return implementor.generarReporte(datos, titulo);
     }
 
+    /**
+     * Genera el reporte fila a fila directamente en la salida, sin cargar todas las filas
+     * en memoria. Debe invocarse dentro de una transacción si las filas se leen de un
+     * Stream JPA.
+     *
+     * @param salida Salida del reporte (no se cierra)
+     * @throws IOException si falla la escritura
+     */
+    public void generar(OutputStream salida) throws IOException {
+        generar(salida, filas -> { });
+    }
+
+    /**
+     * Genera el reporte en streaming informando el número de filas escritas cada
+     * {@value #PASO_PROGRESO} filas y al terminar.
+     *
+     * @param salida Salida del reporte (no se cierra)
+     * @param progreso Recibe el número de filas escritas hasta el momento
+     * @throws IOException si falla la escritura
+     */
+    public void generar(OutputStream salida, LongConsumer progreso) throws IOException {
+        log.info("Generando reporte en streaming con formato: {}", implementor.getExtension());
+        EscritorReporte escritor = contarFilas(
+                implementor.abrirEscritor(salida, obtenerTitulo(), obtenerEncabezado(), obtenerColumnas()), progreso);
+        Map<String, Object> resumen = escribirFilas(escritor);
+        escritor.finalizar(resumen);
+    }
+
+    private static EscritorReporte contarFilas(EscritorReporte escritor, LongConsumer progreso) {
+        return new EscritorReporte() {
+            private long filas;
+
+            @Override
+            public void escribirFila(Object... valores) throws IOException {
+                escritor.escribirFila(valores);
+                if (++filas % PASO_PROGRESO == 0) {
+                    progreso.accept(filas);
+                }
+            }
+
+            @Override
+            public void finalizar(Map<String, Object> resumen) throws IOException {
+                escritor.finalizar(resumen);
+                progreso.accept(filas);
+            }
+        };
+    }
+
+    /**
+     * Parámetros del reporte que se escriben antes de las filas.
+     *
+     * @return Map con los parámetros del reporte
+     */
+    protected abstract Map<String, Object> obtenerEncabezado();
+
+    /**
+     * Nombres de las columnas de cada fila del reporte.
+     *
+     * @return Lista de columnas
+     */
+    protected abstract List<String> obtenerColumnas();
+
+    /**
+     * Escribe las filas del reporte en el escritor a medida que se leen.
+     *
+     * @param escritor Escritor del reporte
+     * @return Resumen (totales) que se escribe después de las filas
+     * @throws IOException si falla la escritura
+     */
+    protected abstract Map<String, Object> escribirFilas(EscritorReporte escritor) throws IOException;
+
     /**
      * Recopila los datos necesarios para el reporte.
      * Debe ser implementado por las subclases concretas.
@@ -2,14 +2,20 @@ package com.veterinaria.clinica_veternica.patterns.structural.bridge;
 
 import com.veterinaria.clinica_veternica.domain.agenda.Cita;
 import com.veterinaria.clinica_veternica.repository.CitaRepository;
-import lombok.RequiredArgsConstructor;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Patrón Bridge: ReporteCitasAbstraction
@@ -22,6 +28,9 @@ import java.util.Map;
  * - Permite generar el mismo reporte en PDF, Excel o JSON
  * - Facilita agregar nuevos formatos sin modificar la lógica
  *
+ * En generar(OutputStream) las citas se leen con un Stream JPA (mascota y veterinario
+ * cargados en la misma consulta, fetch size configurado) y se escriben una a una.
+ *
  * @author Clínica Veterinaria Team
  * @version 1.0
  * @since 2025-11-04
@@ -29,13 +38,26 @@ import java.util.Map;
 @Slf4j
 public class ReporteCitasAbstraction extends ReporteAbstraction {
 
+    private static final List<String> COLUMNAS = List.of("id", "mascota", "veterinario", "fecha", "hora", "estado");
+
     private final CitaRepository citaRepository;
+    private final EntityManager entityManager;
     private LocalDate fechaInicio;
     private LocalDate fechaFin;
 
     public ReporteCitasAbstraction(ReporteImplementor implementor, CitaRepository citaRepository) {
+        this(implementor, citaRepository, null);
+    }
+
+    /**
+     * @param entityManager EntityManager de la transacción del reporte; si se indica, el
+     *                      contexto de persistencia se limpia por lotes al escribir las filas
+     */
+    public ReporteCitasAbstraction(ReporteImplementor implementor, CitaRepository citaRepository,
+                                   EntityManager entityManager) {
         super(implementor);
         this.citaRepository = citaRepository;
+        this.entityManager = entityManager;
     }
 
     public ReporteCitasAbstraction setRangoFechas(LocalDate fechaInicio, LocalDate fechaFin) {
@@ -54,7 +76,7 @@ public class ReporteCitasAbstraction extends ReporteAbstraction {
             java.time.LocalDateTime fin = fechaFin.atTime(23, 59, 59);
             citas = citaRepository.findCitasEnRango(inicio, fin);
         } else {
-            citas = citaRepository.findAll();
+            citas = citaRepository.findAllConRelaciones();
         }
 
         Map<String, Object> datos = new HashMap<>();
@@ -75,6 +97,60 @@ public class ReporteCitasAbstraction extends ReporteAbstraction {
         return datos;
     }
 
+    @Override
+    protected Map<String, Object> obtenerEncabezado() {
+        Map<String, Object> encabezado = new LinkedHashMap<>();
+        encabezado.put("fechaInicio", fechaInicio != null ? fechaInicio.toString() : "N/A");
+        encabezado.put("fechaFin", fechaFin != null ? fechaFin.toString() : "N/A");
+        return encabezado;
+    }
+
+    @Override
+    protected List<String> obtenerColumnas() {
+        return COLUMNAS;
+    }
+
+    @Override
+    protected Map<String, Object> escribirFilas(EscritorReporte escritor) throws IOException {
+        long total;
+        try (Stream<Cita> citas = tieneRango()
+                ? citaRepository.streamEnRango(fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59))
+                : citaRepository.streamTodas()) {
+            total = recorrer(citas, cita -> {
+                try {
+                    escritor.escribirFila(
+                            cita.getIdCita(),
+                            cita.getMascota().getNombre(),
+                            cita.getVeterinario().getNombreCompleto(),
+                            cita.getFechaCita().toString(),
+                            cita.getHoraCita().toString(),
+                            cita.getEstado().toString());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.debug("Reporte de citas escrito con {} filas", total);
+        return Map.of("totalCitas", total);
+    }
+
+    private long recorrer(Stream<Cita> citas, Consumer<Cita> accion) {
+        if (entityManager != null) {
+            return StreamingUtils.recorrerPorLotes(citas, entityManager, accion);
+        }
+        long total = 0;
+        for (Iterator<Cita> iterador = citas.iterator(); iterador.hasNext(); total++) {
+            accion.accept(iterador.next());
+        }
+        return total;
+    }
+
+    private boolean tieneRango() {
+        return fechaInicio != null && fechaFin != null;
+    }
+
     @Override
     protected String obtenerTitulo() {
         return "Reporte de Citas" + 
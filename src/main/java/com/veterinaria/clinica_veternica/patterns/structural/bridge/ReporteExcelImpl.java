@@ -3,6 +3,9 @@ package com.veterinaria.clinica_veternica.patterns.structural.bridge;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -44,6 +47,18 @@ public class ReporteExcelImpl implements ReporteImplementor {
         return contenido.toString().getBytes();
     }
 
+    @Override
+    public EscritorReporte abrirEscritor(OutputStream salida, String titulo,
+                                         Map<String, Object> encabezado, List<String> columnas) throws IOException {
+        log.info("Generando reporte Excel en streaming: {}", titulo);
+
+        EscritorReporteTexto escritor = new EscritorReporteTexto(salida, "\t", "\t");
+        escritor.escribirLinea(titulo);
+        escritor.escribirPares(encabezado);
+        escritor.escribirColumnas(columnas);
+        return escritor;
+    }
+
     @Override
     public String getTipoMime() {
         return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
@@ -1,5 +1,8 @@
 package com.veterinaria.clinica_veternica.patterns.structural.bridge;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -13,6 +16,9 @@ import java.util.Map;
  * - Facilita agregar nuevos formatos (PDF, Excel, JSON, CSV, etc.)
  * - Separa responsabilidades: qué reportar vs cómo exportarlo
  *
+ * Los formatos que escriben por filas (abrirEscritor) generan reportes de cualquier
+ * tamaño en memoria constante; generarReporte se mantiene para datos ya agregados.
+ *
  * @author Clínica Veterinaria Team
  * @version 1.0
  * @since 2025-11-04
@@ -28,6 +34,22 @@ public interface ReporteImplementor {
      */
     byte[] generarReporte(Map<String, Object> datos, String titulo);
 
+    /**
+     * Abre un escritor que genera el reporte fila a fila directamente en la salida.
+     * La implementación por defecto acumula las filas y usa generarReporte al finalizar.
+     *
+     * @param salida Salida del reporte (no se cierra)
+     * @param titulo Título del reporte
+     * @param encabezado Parámetros del reporte conocidos antes de las filas (p. ej. el rango)
+     * @param columnas Nombres de las columnas de cada fila
+     * @return Escritor del reporte
+     * @throws IOException si falla la escritura del encabezado
+     */
+    default EscritorReporte abrirEscritor(OutputStream salida, String titulo,
+                                          Map<String, Object> encabezado, List<String> columnas) throws IOException {
+        return new EscritorReporteAcumulado(this, salida, titulo, encabezado, columnas);
+    }
+
     /**
      * Obtiene el tipo MIME del formato.
      *
@@ -1,10 +1,14 @@
 package com.veterinaria.clinica_veternica.patterns.structural.bridge;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -49,6 +53,47 @@ public class ReporteJSONImpl implements ReporteImplementor {
         }
     }
 
+    @Override
+    public EscritorReporte abrirEscritor(OutputStream salida, String titulo,
+                                         Map<String, Object> encabezado, List<String> columnas) throws IOException {
+        log.info("Generando reporte JSON en streaming: {}", titulo);
+
+        JsonGenerator generador = objectMapper.getFactory().createGenerator(salida);
+        generador.writeStartObject();
+        generador.writeStringField("titulo", titulo);
+        generador.writeStringField("fechaGeneracion", java.time.LocalDateTime.now().toString());
+        generador.writeObjectFieldStart("datos");
+        escribirCampos(generador, encabezado);
+        generador.writeArrayFieldStart("filas");
+        generador.flush();
+
+        return new EscritorReporte() {
+            @Override
+            public void escribirFila(Object... valores) throws IOException {
+                generador.writeStartObject();
+                for (int i = 0; i < columnas.size() && i < valores.length; i++) {
+                    generador.writeObjectField(columnas.get(i), valores[i]);
+                }
+                generador.writeEndObject();
+            }
+
+            @Override
+            public void finalizar(Map<String, Object> resumen) throws IOException {
+                generador.writeEndArray();
+                escribirCampos(generador, resumen);
+                generador.writeEndObject();
+                generador.writeEndObject();
+                generador.flush();
+            }
+        };
+    }
+
+    private static void escribirCampos(JsonGenerator generador, Map<String, Object> campos) throws IOException {
+        for (Map.Entry<String, Object> campo : campos.entrySet()) {
+            generador.writeObjectField(campo.getKey(), campo.getValue());
+        }
+    }
+
     @Override
     public String getTipoMime() {
         return "application/json";
@@ -3,6 +3,9 @@ package com.veterinaria.clinica_veternica.patterns.structural.bridge;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -38,6 +41,20 @@ public class ReportePDFImpl implements ReporteImplementor {
         return contenido.toString().getBytes();
     }
 
+    @Override
+    public EscritorReporte abrirEscritor(OutputStream salida, String titulo,
+                                         Map<String, Object> encabezado, List<String> columnas) throws IOException {
+        log.info("Generando reporte PDF en streaming: {}", titulo);
+
+        EscritorReporteTexto escritor = new EscritorReporteTexto(salida, " | ", ": ");
+        escritor.escribirLinea("=== " + titulo + " ===");
+        escritor.escribirLinea("");
+        escritor.escribirPares(encabezado);
+        escritor.escribirLinea("");
+        escritor.escribirColumnas(columnas);
+        return escritor;
+    }
+
     @Override
     public String getTipoMime() {
         return "application/pdf";
@@ -1,10 +1,16 @@
 package com.veterinaria.clinica_veternica.patterns.structural.bridge;
 
 import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.function.LongConsumer;
 
 /**
  * Servicio Factory para crear instancias de ReporteCitasAbstraction
@@ -26,6 +32,9 @@ public class ReporteService {
     private final ReporteJSONImpl reporteJSON;
     private final CitaRepository citaRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Crea un reporte de citas en formato PDF.
      *
@@ -34,7 +43,7 @@ public class ReporteService {
      * @return ReporteCitasAbstraction configurado para PDF
      */
     public ReporteCitasAbstraction crearReportePDF(LocalDate fechaInicio, LocalDate fechaFin) {
-        ReporteCitasAbstraction reporte = new ReporteCitasAbstraction(reportePDF, citaRepository);
+        ReporteCitasAbstraction reporte = new ReporteCitasAbstraction(reportePDF, citaRepository, entityManager);
         return reporte.setRangoFechas(fechaInicio, fechaFin);
     }
 
@@ -46,7 +55,7 @@ public class ReporteService {
      * @return ReporteCitasAbstraction configurado para Excel
      */
     public ReporteCitasAbstraction crearReporteExcel(LocalDate fechaInicio, LocalDate fechaFin) {
-        ReporteCitasAbstraction reporte = new ReporteCitasAbstraction(reporteExcel, citaRepository);
+        ReporteCitasAbstraction reporte = new ReporteCitasAbstraction(reporteExcel, citaRepository, entityManager);
         return reporte.setRangoFechas(fechaInicio, fechaFin);
     }
 
@@ -58,7 +67,7 @@ public class ReporteService {
      * @return ReporteCitasAbstraction configurado para JSON
      */
     public ReporteCitasAbstraction crearReporteJSON(LocalDate fechaInicio, LocalDate fechaFin) {
-        ReporteCitasAbstraction reporte = new ReporteCitasAbstraction(reporteJSON, citaRepository);
+        ReporteCitasAbstraction reporte = new ReporteCitasAbstraction(reporteJSON, citaRepository, entityManager);
         return reporte.setRangoFechas(fechaInicio, fechaFin);
     }
 
@@ -79,5 +88,31 @@ public class ReporteService {
             default -> throw new IllegalArgumentException("Formato no soportado: " + formato);
         };
     }
-}
 
+    /**
+     * Escribe un reporte en streaming dentro de una transacción de solo lectura, para que
+     * las filas se lean por lotes (fetch size) mientras se envían al cliente.
+     *
+     * @param reporte Reporte creado con crearReporte
+     * @param salida Salida del reporte (no se cierra)
+     * @throws IOException si falla la escritura
+     */
+    @Transactional(readOnly = true)
+    public void exportar(ReporteAbstraction reporte, OutputStream salida) throws IOException {
+        reporte.generar(salida);
+    }
+
+    /**
+     * Igual que {@link #exportar(ReporteAbstraction, OutputStream)}, informando el número
+     * de filas escritas (trabajos de reporte en segundo plano).
+     *
+     * @param reporte Reporte creado con crearReporte
+     * @param salida Salida del reporte (no se cierra)
+     * @param progreso Recibe el número de filas escritas hasta el momento
+     * @throws IOException si falla la escritura
+     */
+    @Transactional(readOnly = true)
+    public void exportar(ReporteAbstraction reporte, OutputStream salida, LongConsumer progreso) throws IOException {
+        reporte.generar(salida, progreso);
+    }
+}
@@ -1,22 +1,32 @@
 package com.veterinaria.clinica_veternica.patterns.structural.facade;
 
+import com.veterinaria.clinica_veternica.config.BusquedaProperties;
 import com.veterinaria.clinica_veternica.dto.response.facade.AlertasMedicasDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.BusquedaGlobalDTO;
 import com.veterinaria.clinica_veternica.dto.response.paciente.MascotaResponseDTO;
 import com.veterinaria.clinica_veternica.dto.response.paciente.PropietarioResponseDTO;
 import com.veterinaria.clinica_veternica.dto.response.usuario.VeterinarioResponseDTO;
+import com.veterinaria.clinica_veternica.exception.BusinessException;
 import com.veterinaria.clinica_veternica.service.interfaces.IMascotaService;
 import com.veterinaria.clinica_veternica.service.interfaces.IPropietarioService;
 import com.veterinaria.clinica_veternica.service.interfaces.IVeterinarioService;
 import com.veterinaria.clinica_veternica.util.ValidationHelper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 /**
  * Servicio especializado para operaciones de Búsqueda.
@@ -29,20 +39,38 @@ import java.util.Locale;
  *   <li>Búsquedas avanzadas con filtros</li>
  * </ul>
  *
+ * <p>La búsqueda global consulta los tres tipos de entidad en paralelo, en un executor
+ * acotado (app.busqueda.paralelismo); cada búsqueda usa el índice de trigramas.</p>
+ *
  * @author Clínica Veterinaria Team
  * @version 2.0
  * @since 2025-11-17
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class BusquedaFacadeService {
+public class BusquedaFacadeService implements DisposableBean {
 
     private final IMascotaService mascotaService;
     private final IPropietarioService propietarioService;
     private final IVeterinarioService veterinarioService;
     private final ValidationHelper validationHelper;
+    private final BusquedaProperties properties;
+    private final ExecutorService executor;
+
+    public BusquedaFacadeService(IMascotaService mascotaService,
+                                 IPropietarioService propietarioService,
+                                 IVeterinarioService veterinarioService,
+                                 ValidationHelper validationHelper,
+                                 BusquedaProperties properties) {
+        this.mascotaService = mascotaService;
+        this.propietarioService = propietarioService;
+        this.veterinarioService = veterinarioService;
+        this.validationHelper = validationHelper;
+        this.properties = properties;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getParalelismo()),
+                Thread.ofPlatform().name("busqueda-global-", 0).daemon(true).factory());
+    }
 
     /**
      * Realiza una búsqueda global en mascotas, propietarios y veterinarios.
@@ -50,16 +78,25 @@ public class BusquedaFacadeService {
      * @param termino Término de búsqueda
      * @return BusquedaGlobalDTO con resultados de todas las entidades
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BusquedaGlobalDTO busquedaGlobal(String termino) {
         log.info("BusquedaFacadeService: Búsqueda global con término: {}", termino);
 
         // Validar y sanitizar término de búsqueda
         String terminoSanitizado = validationHelper.validateAndSanitizeSearchTerm(termino, 100);
 
-        // Buscar en todas las entidades en paralelo
-        List<MascotaResponseDTO> mascotas = mascotaService.buscarPorNombre(terminoSanitizado);
-        List<PropietarioResponseDTO> propietarios = propietarioService.buscarPorNombre(terminoSanitizado);
-        List<VeterinarioResponseDTO> veterinarios = veterinarioService.buscarPorNombre(terminoSanitizado);
+        // Buscar en todas las entidades en paralelo (cada servicio abre su propia transacción)
+        CompletableFuture<List<MascotaResponseDTO>> mascotasFuturo =
+                enParalelo(() -> mascotaService.buscarPorNombre(terminoSanitizado));
+        CompletableFuture<List<PropietarioResponseDTO>> propietariosFuturo =
+                enParalelo(() -> propietarioService.buscarPorNombre(terminoSanitizado));
+        CompletableFuture<List<VeterinarioResponseDTO>> veterinariosFuturo =
+                enParalelo(() -> veterinarioService.buscarPorNombre(terminoSanitizado));
+        esperar(CompletableFuture.allOf(mascotasFuturo, propietariosFuturo, veterinariosFuturo));
+
+        List<MascotaResponseDTO> mascotas = mascotasFuturo.join();
+        List<PropietarioResponseDTO> propietarios = propietariosFuturo.join();
+        List<VeterinarioResponseDTO> veterinarios = veterinariosFuturo.join();
 
         int totalResultados = mascotas.size() + propietarios.size() + veterinarios.size();
 
@@ -78,6 +115,35 @@ public class BusquedaFacadeService {
                 .build();
     }
 
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> enParalelo(Supplier<T> busqueda) {
+        return CompletableFuture.supplyAsync(busqueda, executor);
+    }
+
+    /**
+     * Espera a que terminen las búsquedas. Si alguna falla se propaga su excepción original
+     * (ValidationException, etc.) para que el manejador global la traduzca igual que antes.
+     */
+    private void esperar(CompletableFuture<Void> todas) {
+        try {
+            todas.get(properties.getTiempoMaximo().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Búsqueda global interrumpida", e);
+        } catch (TimeoutException e) {
+            throw new BusinessException("La búsqueda global superó el tiempo máximo", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new BusinessException("Error en la búsqueda global", e.getCause());
+        }
+    }
+
     /**
      * Obtiene mascotas que requieren atención médica.
      * Identifica mascotas con:
@@ -1,27 +1,31 @@
 package com.veterinaria.clinica_veternica.patterns.structural.facade;
 
+import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
+import com.veterinaria.clinica_veternica.domain.agenda.ResumenCitasDia;
 import com.veterinaria.clinica_veternica.dto.response.agenda.CitaResponseDTO;
 import com.veterinaria.clinica_veternica.dto.response.comunicacion.NotificacionResponseDTO;
+import com.veterinaria.clinica_veternica.dto.response.facade.ActividadDashboardDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.DashboardResponseDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.EstadisticasGeneralesDTO;
 import com.veterinaria.clinica_veternica.dto.response.inventario.InventarioResponseDTO;
-import com.veterinaria.clinica_veternica.dto.response.paciente.MascotaResponseDTO;
-import com.veterinaria.clinica_veternica.dto.response.paciente.PropietarioResponseDTO;
-import com.veterinaria.clinica_veternica.dto.response.usuario.VeterinarioResponseDTO;
+import com.veterinaria.clinica_veternica.repository.ResumenDiarioCitasRepository;
 import com.veterinaria.clinica_veternica.service.interfaces.ICitaService;
 import com.veterinaria.clinica_veternica.service.interfaces.IInventarioService;
-import com.veterinaria.clinica_veternica.service.interfaces.IMascotaService;
 import com.veterinaria.clinica_veternica.service.interfaces.INotificacionService;
-import com.veterinaria.clinica_veternica.service.interfaces.IPropietarioService;
-import com.veterinaria.clinica_veternica.service.interfaces.IVeterinarioService;
+import com.veterinaria.clinica_veternica.service.reporte.AgregadorDiarioCitas;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Servicio especializado para operaciones de Dashboard.
@@ -32,6 +36,7 @@ import java.util.List;
  *   <li>Generar dashboard principal con citas, stock y notificaciones</li>
  *   <li>Calcular estadísticas generales del sistema</li>
  *   <li>Obtener resumen de inventario</li>
+ *   <li>Obtener la actividad diaria (citas e ingresos) de un rango de fechas</li>
  * </ul>
  *
  * @author Clínica Veterinaria Team
@@ -47,9 +52,9 @@ public class DashboardFacadeService {
     private final ICitaService citaService;
     private final IInventarioService inventarioService;
     private final INotificacionService notificacionService;
-    private final IMascotaService mascotaService;
-    private final IPropietarioService propietarioService;
-    private final IVeterinarioService veterinarioService;
+    private final EstadisticasDashboardSnapshot estadisticasSnapshot;
+    private final ResumenDiarioCitasRepository resumenDiarioCitasRepository;
+    private final AgregadorDiarioCitas agregadorDiarioCitas;
 
     private static final int LIMITE_NOTIFICACIONES = 10;
 
@@ -83,27 +88,67 @@ public class DashboardFacadeService {
 
     /**
      * Obtiene estadísticas generales del sistema.
+     * Se sirven desde una instantánea basada en consultas COUNT (ver EstadisticasDashboardSnapshot),
+     * sin cargar las entidades.
      *
      * @return EstadisticasGeneralesDTO con estadísticas
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public EstadisticasGeneralesDTO obtenerEstadisticasGenerales() {
         log.info("DashboardFacadeService: Calculando estadísticas generales");
+        return estadisticasSnapshot.obtener();
+    }
 
-        List<MascotaResponseDTO> mascotas = mascotaService.listarActivas();
-        List<PropietarioResponseDTO> propietarios = propietarioService.listarActivos();
-        List<VeterinarioResponseDTO> veterinarios = veterinarioService.listarActivos();
-        List<CitaResponseDTO> citasProgramadas = citaService.listarProgramadas();
-        List<CitaResponseDTO> citasHoy = obtenerCitasDelDia();
-        List<InventarioResponseDTO> stockBajo = inventarioService.listarConStockBajo();
+    /**
+     * Obtiene la actividad diaria de un rango de fechas desde el resumen diario de citas,
+     * sin recorrer las citas.
+     *
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @return ActividadDashboardDTO con los totales por día y del rango
+     */
+    @Transactional(readOnly = true)
+    public ActividadDashboardDTO obtenerActividad(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaFin.isBefore(fechaInicio)) {
+            throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la fecha de inicio");
+        }
+        log.info("DashboardFacadeService: Obteniendo actividad desde {} hasta {}", fechaInicio, fechaFin);
+
+        agregadorDiarioCitas.asegurarActualizado(fechaInicio, fechaFin);
+        List<ResumenCitasDia> resumen = resumenDiarioCitasRepository.sumarPorDiaYEstado(fechaInicio, fechaFin);
+
+        // El resumen llega ordenado por fecha: una entrada por día
+        Map<LocalDate, ActividadDashboardDTO.ActividadDiaDTO> porDia = new LinkedHashMap<>();
+        for (ResumenCitasDia fila : resumen) {
+            ActividadDashboardDTO.ActividadDiaDTO dia = porDia.computeIfAbsent(fila.fecha(),
+                    fecha -> ActividadDashboardDTO.ActividadDiaDTO.builder()
+                            .fecha(fecha)
+                            .totalCitas(0L)
+                            .citasAtendidas(0L)
+                            .citasCanceladas(0L)
+                            .ingresos(BigDecimal.ZERO)
+                            .build());
+            dia.setTotalCitas(dia.getTotalCitas() + fila.total());
+            if (fila.estado() == EstadoCita.ATENDIDA) {
+                dia.setCitasAtendidas(dia.getCitasAtendidas() + fila.total());
+                if (fila.ingresos() != null) {
+                    dia.setIngresos(dia.getIngresos().add(fila.ingresos()));
+                }
+            } else if (fila.estado() == EstadoCita.CANCELADA) {
+                dia.setCitasCanceladas(dia.getCitasCanceladas() + fila.total());
+            }
+        }
+        List<ActividadDashboardDTO.ActividadDiaDTO> dias = new ArrayList<>(porDia.values());
 
-        return EstadisticasGeneralesDTO.builder()
-                .totalPropietarios((long) propietarios.size())
-                .totalMascotas((long) mascotas.size())
-                .totalVeterinarios((long) veterinarios.size())
-                .totalCitasProgramadas((long) citasProgramadas.size())
-                .totalCitasHoy((long) citasHoy.size())
-                .insumosStockBajo(stockBajo.size())
+        return ActividadDashboardDTO.builder()
+                .fechaInicio(fechaInicio)
+                .fechaFin(fechaFin)
+                .dias(dias)
+                .totalCitas(dias.stream().mapToLong(ActividadDashboardDTO.ActividadDiaDTO::getTotalCitas).sum())
+                .totalAtendidas(dias.stream().mapToLong(ActividadDashboardDTO.ActividadDiaDTO::getCitasAtendidas).sum())
+                .totalCanceladas(dias.stream().mapToLong(ActividadDashboardDTO.ActividadDiaDTO::getCitasCanceladas).sum())
+                .totalIngresos(dias.stream().map(ActividadDashboardDTO.ActividadDiaDTO::getIngresos)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add))
                 .build();
     }
 
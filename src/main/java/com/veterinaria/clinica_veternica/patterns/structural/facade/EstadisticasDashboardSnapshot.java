@@ -0,0 +1,212 @@
+package com.veterinaria.clinica_veternica.patterns.structural.facade;
+
+import com.veterinaria.clinica_veternica.config.DashboardProperties;
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.dto.response.facade.EstadisticasGeneralesDTO;
+import com.veterinaria.clinica_veternica.exception.BusinessException;
+import com.veterinaria.clinica_veternica.patterns.behavioral.observer.CitaObserver;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import com.veterinaria.clinica_veternica.repository.InventarioRepository;
+import com.veterinaria.clinica_veternica.repository.MascotaRepository;
+import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
+import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Instantánea de las estadísticas generales del dashboard.
+ *
+ * CARACTERÍSTICAS:
+ * - Solo consultas COUNT: la memoria usada no crece con el volumen de datos
+ * - Las consultas se ejecutan en paralelo en un executor acotado (app.dashboard.parallelism)
+ * - El resultado se reutiliza hasta que vence (app.dashboard.snapshot-ttl)
+ *   o hasta que un evento de cita la invalida (se registra como CitaObserver)
+ * - Un único recálculo a la vez; las peticiones concurrentes esperan y reutilizan su resultado
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-20
+ */
+@Slf4j
+@Component
+public class EstadisticasDashboardSnapshot implements CitaObserver, DisposableBean {
+
+    private final MascotaRepository mascotaRepository;
+    private final PropietarioRepository propietarioRepository;
+    private final VeterinarioRepository veterinarioRepository;
+    private final CitaRepository citaRepository;
+    private final InventarioRepository inventarioRepository;
+    private final DashboardProperties properties;
+    private final ExecutorService executor;
+
+    /**
+     * Se incrementa en cada invalidación; una instantánea solo es válida
+     * si se calculó con la generación vigente.
+     */
+    private final AtomicLong generacion = new AtomicLong();
+    private final AtomicLong recalculos = new AtomicLong();
+
+    private volatile Instantanea actual;
+
+    public EstadisticasDashboardSnapshot(MascotaRepository mascotaRepository,
+                                         PropietarioRepository propietarioRepository,
+                                         VeterinarioRepository veterinarioRepository,
+                                         CitaRepository citaRepository,
+                                         InventarioRepository inventarioRepository,
+                                         DashboardProperties properties) {
+        this.mascotaRepository = mascotaRepository;
+        this.propietarioRepository = propietarioRepository;
+        this.veterinarioRepository = veterinarioRepository;
+        this.citaRepository = citaRepository;
+        this.inventarioRepository = inventarioRepository;
+        this.properties = properties;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()),
+                Thread.ofPlatform().name("dashboard-stats-", 0).daemon(true).factory());
+    }
+
+    /**
+     * Obtiene las estadísticas generales, recalculándolas solo si la instantánea
+     * venció o fue invalidada.
+     *
+     * @return Estadísticas generales
+     */
+    public EstadisticasGeneralesDTO obtener() {
+        Instantanea instantanea = actual;
+        if (esVigente(instantanea)) {
+            return instantanea.estadisticas();
+        }
+        synchronized (this) {
+            instantanea = actual;
+            if (esVigente(instantanea)) {
+                return instantanea.estadisticas();
+            }
+            long generacionCalculo = generacion.get();
+            EstadisticasGeneralesDTO estadisticas = calcular(instantanea);
+            actual = new Instantanea(estadisticas, generacionCalculo, System.nanoTime());
+            return estadisticas;
+        }
+    }
+
+    /**
+     * Descarta la instantánea actual. Si hay una transacción en curso se vuelve a
+     * invalidar tras el commit, para que un recálculo concurrente no fije datos previos.
+     */
+    public void invalidar() {
+        generacion.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generacion.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * @return Número de recálculos realizados desde el arranque
+     */
+    public long getRecalculos() {
+        return recalculos.get();
+    }
+
+    @Override
+    public void onCitaStateChanged(Cita cita, String estadoAnterior, String estadoNuevo) {
+        invalidar();
+    }
+
+    @Override
+    public void onCitaCreated(Cita cita) {
+        invalidar();
+    }
+
+    @Override
+    public void onCitaCancelled(Cita cita, String motivo) {
+        invalidar();
+    }
+
+    @Override
+    public void onCitaUpdated(Cita cita, LocalDate fechaOriginal, LocalTime horaOriginal) {
+        invalidar();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private boolean esVigente(Instantanea instantanea) {
+        return instantanea != null
+                && instantanea.generacion() == generacion.get()
+                && System.nanoTime() - instantanea.calculadaEn() < properties.getSnapshotTtl().toNanos();
+    }
+
+    /**
+     * Ejecuta los COUNT en paralelo. Si fallan y hay una instantánea previa, se devuelve esa.
+     */
+    private EstadisticasGeneralesDTO calcular(Instantanea anterior) {
+        long inicio = System.nanoTime();
+        LocalDate hoy = LocalDate.now();
+
+        CompletableFuture<Long> mascotas = contar(mascotaRepository::countMascotasActivas);
+        CompletableFuture<Long> propietarios = contar(propietarioRepository::countPropietariosActivos);
+        CompletableFuture<Long> veterinarios = contar(veterinarioRepository::countVeterinariosActivos);
+        CompletableFuture<Long> citasProgramadas = contar(citaRepository::countCitasProgramadas);
+        CompletableFuture<Long> citasHoy = contar(() -> citaRepository.countCitasPorFecha(hoy));
+        CompletableFuture<Long> stockBajo = contar(inventarioRepository::countInventariosConStockBajo);
+
+        try {
+            CompletableFuture.allOf(mascotas, propietarios, veterinarios, citasProgramadas, citasHoy, stockBajo)
+                    .get(properties.getQueryTimeout().toMillis(), TimeUnit.MILLISECONDS);
+
+            EstadisticasGeneralesDTO estadisticas = EstadisticasGeneralesDTO.builder()
+                    .totalMascotas(mascotas.join())
+                    .totalPropietarios(propietarios.join())
+                    .totalVeterinarios(veterinarios.join())
+                    .totalCitasProgramadas(citasProgramadas.join())
+                    .totalCitasHoy(citasHoy.join())
+                    .insumosStockBajo(Math.toIntExact(stockBajo.join()))
+                    .build();
+
+            recalculos.incrementAndGet();
+            log.debug("Estadísticas del dashboard recalculadas en {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+            return estadisticas;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return respaldo(anterior, e);
+        } catch (ExecutionException | TimeoutException e) {
+            return respaldo(anterior, e);
+        }
+    }
+
+    private CompletableFuture<Long> contar(LongSupplier consulta) {
+        return CompletableFuture.supplyAsync(consulta::getAsLong, executor);
+    }
+
+    private EstadisticasGeneralesDTO respaldo(Instantanea anterior, Exception causa) {
+        if (anterior != null) {
+            log.warn("No se pudieron recalcular las estadísticas del dashboard, se usa la instantánea anterior: {}",
+                    causa.getMessage());
+            return anterior.estadisticas();
+        }
+        throw new BusinessException("No se pudieron calcular las estadísticas del dashboard", causa);
+    }
+
+    private record Instantanea(EstadisticasGeneralesDTO estadisticas, long generacion, long calculadaEn) {
+    }
+}
@@ -1,14 +1,18 @@
 package com.veterinaria.clinica_veternica.patterns.structural.facade;
 
+import com.veterinaria.clinica_veternica.domain.agenda.ConteoCitasVeterinario;
 import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
+import com.veterinaria.clinica_veternica.domain.agenda.ResumenCitasDia;
 import com.veterinaria.clinica_veternica.dto.response.agenda.CitaResponseDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.ReporteCitasDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.ReporteInventarioDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.ReporteVeterinariosDTO;
 import com.veterinaria.clinica_veternica.dto.response.inventario.InventarioResponseDTO;
 import com.veterinaria.clinica_veternica.patterns.creational.builder.ReporteBuilder;
+import com.veterinaria.clinica_veternica.repository.ResumenDiarioCitasRepository;
 import com.veterinaria.clinica_veternica.service.interfaces.ICitaService;
 import com.veterinaria.clinica_veternica.service.interfaces.IInventarioService;
+import com.veterinaria.clinica_veternica.service.reporte.AgregadorDiarioCitas;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -16,11 +20,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Servicio especializado para generación de Reportes.
@@ -43,56 +50,82 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class ReporteFacadeService {
 
+    private static final Set<EstadoCita> ESTADOS_ATENDIDA = EnumSet.of(EstadoCita.ATENDIDA, EstadoCita.EN_ATENCION);
+    private static final Set<EstadoCita> ESTADOS_PROGRAMADA = EnumSet.of(EstadoCita.PROGRAMADA, EstadoCita.CONFIRMADA);
+
     private final ICitaService citaService;
     private final IInventarioService inventarioService;
+    private final ResumenDiarioCitasRepository resumenDiarioCitasRepository;
+    private final AgregadorDiarioCitas agregadorDiarioCitas;
 
     /**
-     * Genera reporte de citas en un rango de fechas con estadísticas.
+     * Genera reporte de citas en un rango de fechas con estadísticas y detalle.
      *
      * @param fechaInicio Fecha de inicio
      * @param fechaFin Fecha de fin
      * @return ReporteCitasDTO con el reporte completo
      */
     public ReporteCitasDTO generarReporteCitas(LocalDate fechaInicio, LocalDate fechaFin) {
-        log.info("ReporteFacadeService: Generando reporte de citas desde {} hasta {}", fechaInicio, fechaFin);
+        return generarReporteCitas(fechaInicio, fechaFin, true);
+    }
 
-        LocalDateTime inicio = fechaInicio.atStartOfDay();
-        LocalDateTime fin = fechaFin.atTime(23, 59, 59);
+    /**
+     * Genera reporte de citas en un rango de fechas con estadísticas.
+     *
+     * Los totales salen del resumen diario de citas (día x estado), sin recorrer las citas;
+     * las citas solo se cargan y mapean si se pide el detalle.
+     *
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
+     * @param incluirDetalle Si debe incluir la lista de citas
+     * @return ReporteCitasDTO con el reporte
+     */
+    public ReporteCitasDTO generarReporteCitas(LocalDate fechaInicio, LocalDate fechaFin, boolean incluirDetalle) {
+        log.info("ReporteFacadeService: Generando reporte de citas desde {} hasta {} (detalle: {})",
+                fechaInicio, fechaFin, incluirDetalle);
+
+        agregadorDiarioCitas.asegurarActualizado(fechaInicio, fechaFin);
+        List<ResumenCitasDia> resumen = resumenDiarioCitasRepository.sumarPorDiaYEstado(fechaInicio, fechaFin);
+
+        Map<EstadoCita, Long> porEstado = new EnumMap<>(EstadoCita.class);
+        Map<LocalDate, Long> porDia = new TreeMap<>();
+        BigDecimal ingresos = BigDecimal.ZERO;
+        for (ResumenCitasDia dia : resumen) {
+            porEstado.merge(dia.estado(), dia.total(), Long::sum);
+            porDia.merge(dia.fecha(), dia.total(), Long::sum);
+            if (dia.estado() == EstadoCita.ATENDIDA && dia.ingresos() != null) {
+                ingresos = ingresos.add(dia.ingresos());
+            }
+        }
+        Map<String, Long> citasPorEstado = new LinkedHashMap<>();
+        for (EstadoCita estado : EstadoCita.values()) {
+            citasPorEstado.put(estado.name(), porEstado.getOrDefault(estado, 0L));
+        }
 
-        List<CitaResponseDTO> citas = citaService.listarPorRangoFechas(inicio, fin);
+        // Las citas en atención también se cuentan como atendidas y las confirmadas como programadas
+        long citasAtendidas = sumar(porEstado, ESTADOS_ATENDIDA);
+        long citasProgramadas = sumar(porEstado, ESTADOS_PROGRAMADA);
+        long citasCanceladas = porEstado.getOrDefault(EstadoCita.CANCELADA, 0L);
+        long totalCitas = porEstado.values().stream().mapToLong(Long::longValue).sum();
 
-        // Debug: Log de estados encontrados
-        if (citas != null && !citas.isEmpty()) {
-            log.debug("Estados encontrados en citas: {}", 
-                    citas.stream()
-                            .map(c -> c.getEstado())
-                            .distinct()
-                            .collect(java.util.stream.Collectors.toList()));
-        }
+        List<CitaResponseDTO> citas = incluirDetalle
+                ? citaService.listarPorRangoFechas(fechaInicio.atStartOfDay(), fechaFin.atTime(23, 59, 59))
+                : null;
 
-        // Contar citas por estado
-        long citasAtendidas = contarCitasPorEstado(citas, com.veterinaria.clinica_veternica.util.Constants.ESTADO_CITA_ATENDIDA);
-        long citasProgramadas = contarCitasPorEstado(citas, com.veterinaria.clinica_veternica.util.Constants.ESTADO_CITA_PROGRAMADA);
-        long citasCanceladas = contarCitasPorEstado(citas, com.veterinaria.clinica_veternica.util.Constants.ESTADO_CITA_CANCELADA);
-        long citasEnAtencion = contarCitasPorEstado(citas, "EN_ATENCION");
-        long citasFinalizadas = contarCitasPorEstado(citas, "FINALIZADA");
-        long citasConfirmadas = contarCitasPorEstado(citas, "CONFIRMADA");
-        
-        // Las citas en atención, finalizadas y confirmadas también se cuentan como atendidas/programadas para el reporte
-        long totalCitasAtendidas = citasAtendidas + citasEnAtencion + citasFinalizadas;
-        long totalCitasProgramadas = citasProgramadas + citasConfirmadas;
-
-        log.info("Reporte generado: {} citas totales ({} atendidas, {} en atención, {} programadas, {} canceladas)",
-                citas != null ? citas.size() : 0, citasAtendidas, citasEnAtencion, citasProgramadas, citasCanceladas);
+        log.info("Reporte generado: {} citas totales ({} atendidas, {} programadas, {} canceladas)",
+                totalCitas, citasAtendidas, citasProgramadas, citasCanceladas);
 
         return ReporteCitasDTO.builder()
                 .fechaInicio(fechaInicio)
                 .fechaFin(fechaFin)
                 .citas(citas)
-                .totalCitas(citas != null ? citas.size() : 0)
-                .citasAtendidas(totalCitasAtendidas)
-                .citasProgramadas(totalCitasProgramadas)
+                .totalCitas((int) totalCitas)
+                .citasAtendidas(citasAtendidas)
+                .citasProgramadas(citasProgramadas)
                 .citasCanceladas(citasCanceladas)
+                .citasPorEstado(citasPorEstado)
+                .citasPorDia(porDia)
+                .ingresos(ingresos)
                 .build();
     }
 
@@ -133,6 +166,7 @@ public class ReporteFacadeService {
 
     /**
      * Genera reporte de atenciones por veterinario en un período.
+     * Los totales salen del resumen diario de citas (veterinario x estado) sin cargar citas.
      *
      * @param fechaInicio Fecha de inicio
      * @param fechaFin Fecha de fin
@@ -141,53 +175,28 @@ public class ReporteFacadeService {
     public ReporteVeterinariosDTO generarReporteVeterinarios(LocalDate fechaInicio, LocalDate fechaFin) {
         log.info("ReporteFacadeService: Generando reporte de veterinarios desde {} hasta {}", fechaInicio, fechaFin);
 
-        LocalDateTime inicio = fechaInicio.atStartOfDay();
-        LocalDateTime fin = fechaFin.atTime(23, 59, 59);
-
-        List<CitaResponseDTO> citas = citaService.listarPorRangoFechas(inicio, fin);
-
-        if (citas == null) {
-            log.warn("ReporteFacadeService: La lista de citas es null, inicializando lista vacía");
-            citas = new ArrayList<>();
+        agregadorDiarioCitas.asegurarActualizado(fechaInicio, fechaFin);
+        List<ConteoCitasVeterinario> conteos =
+                resumenDiarioCitasRepository.sumarPorVeterinarioYEstado(fechaInicio, fechaFin);
+
+        // Los conteos llegan ordenados por veterinario: una estadística por cada uno
+        Map<Long, ReporteVeterinariosDTO.EstadisticaVeterinarioDTO> porVeterinario = new LinkedHashMap<>();
+        for (ConteoCitasVeterinario conteo : conteos) {
+            ReporteVeterinariosDTO.EstadisticaVeterinarioDTO estadistica = porVeterinario.computeIfAbsent(
+                    conteo.idVeterinario(), id -> ReporteVeterinariosDTO.EstadisticaVeterinarioDTO.builder()
+                            .idVeterinario(id)
+                            .nombreVeterinario(conteo.nombreCompleto())
+                            .especialidad(conteo.especialidad())
+                            .totalCitasAtendidas(0L)
+                            .totalCitasProgramadas(0L)
+                            .build());
+            if (ESTADOS_ATENDIDA.contains(conteo.estado())) {
+                estadistica.setTotalCitasAtendidas(estadistica.getTotalCitasAtendidas() + conteo.total());
+            } else if (ESTADOS_PROGRAMADA.contains(conteo.estado())) {
+                estadistica.setTotalCitasProgramadas(estadistica.getTotalCitasProgramadas() + conteo.total());
+            }
         }
-
-        log.debug("ReporteFacadeService: {} citas encontradas en el rango de fechas", citas.size());
-
-        // Agrupar citas por veterinario
-        Map<Long, List<CitaResponseDTO>> citasPorVeterinario = citas.stream()
-                .filter(c -> c != null && c.getVeterinario() != null && c.getVeterinario().getIdPersonal() != null)
-                .collect(Collectors.groupingBy(c -> c.getVeterinario().getIdPersonal()));
-
-        // Generar estadísticas por veterinario
-        List<ReporteVeterinariosDTO.EstadisticaVeterinarioDTO> estadisticas = new ArrayList<>();
-
-        citasPorVeterinario.forEach((idVet, citasVet) -> {
-            // Contar citas atendidas: incluye ATENDIDA, EN_ATENCION, y FINALIZADA
-            long atendidas = citasVet.stream()
-                    .filter(c -> c != null && c.getEstado() != null && 
-                            (com.veterinaria.clinica_veternica.util.Constants.ESTADO_CITA_ATENDIDA.equalsIgnoreCase(c.getEstado()) ||
-                             "EN_ATENCION".equalsIgnoreCase(c.getEstado()) ||
-                             "FINALIZADA".equalsIgnoreCase(c.getEstado())))
-                    .count();
-            long programadas = citasVet.stream()
-                    .filter(c -> c != null && c.getEstado() != null && 
-                            (com.veterinaria.clinica_veternica.util.Constants.ESTADO_CITA_PROGRAMADA.equalsIgnoreCase(c.getEstado()) ||
-                             "CONFIRMADA".equalsIgnoreCase(c.getEstado())))
-                    .count();
-
-            // Obtener nombre del veterinario de la primera cita
-            CitaResponseDTO primeraCita = citasVet.get(0);
-            String nombreVet = primeraCita.getVeterinario().getNombreCompleto();
-            String especialidad = primeraCita.getVeterinario().getEspecialidad();
-
-            estadisticas.add(ReporteVeterinariosDTO.EstadisticaVeterinarioDTO.builder()
-                    .idVeterinario(idVet)
-                    .nombreVeterinario(nombreVet)
-                    .especialidad(especialidad)
-                    .totalCitasAtendidas(atendidas)
-                    .totalCitasProgramadas(programadas)
-                    .build());
-        });
+        List<ReporteVeterinariosDTO.EstadisticaVeterinarioDTO> estadisticas = new ArrayList<>(porVeterinario.values());
 
         long totalAtenciones = estadisticas.stream()
                 .mapToLong(ReporteVeterinariosDTO.EstadisticaVeterinarioDTO::getTotalCitasAtendidas)
@@ -205,19 +214,14 @@ public class ReporteFacadeService {
     }
 
     /**
-     * Cuenta citas por estado específico.
+     * Suma los conteos de un conjunto de estados.
      *
-     * @param citas Lista de citas
-     * @param estado Estado a contar
-     * @return Cantidad de citas con ese estado
+     * @param porEstado Conteos por estado
+     * @param estados Estados a sumar
+     * @return Suma de los conteos
      */
-    private long contarCitasPorEstado(List<CitaResponseDTO> citas, String estado) {
-        if (citas == null || estado == null) {
-            return 0;
-        }
-        return citas.stream()
-                .filter(c -> c != null && c.getEstado() != null && estado.equalsIgnoreCase(c.getEstado()))
-                .count();
+    private static long sumar(Map<EstadoCita, Long> porEstado, Set<EstadoCita> estados) {
+        return estados.stream().mapToLong(estado -> porEstado.getOrDefault(estado, 0L)).sum();
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.veterinaria.clinica_veternica.patterns.structural.proxy;
 
+import com.veterinaria.clinica_veternica.config.EnrutadorReplicas;
 import com.veterinaria.clinica_veternica.patterns.creational.singleton.ConfigurationManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -102,7 +103,8 @@ public class CachedServiceProxy {
 
         // Cache miss - ejecutar operación
         log.debug("Cache miss para clave: {}. Ejecutando operación...", key);
-        T result = operation.get();
+        // La lectura que llena la caché va a la base de datos principal (ver EnrutadorReplicas)
+        T result = EnrutadorReplicas.enPrincipal(operation::get);
 
         // Guardar en caché
         memoryCache.put(key, new CacheEntry(result, System.currentTimeMillis() + ttl));
@@ -144,7 +146,8 @@ public class CachedServiceProxy {
     @SuppressWarnings("unchecked")
     public <T> T executeAndCache(String key, Supplier<T> operation, long ttl) {
         log.debug("Ejecutando y actualizando caché para clave: {}", key);
-        T result = operation.get();
+        // La lectura que llena la caché va a la base de datos principal (ver EnrutadorReplicas)
+        T result = EnrutadorReplicas.enPrincipal(operation::get);
         memoryCache.put(key, new CacheEntry(result, System.currentTimeMillis() + ttl));
         return result;
     }
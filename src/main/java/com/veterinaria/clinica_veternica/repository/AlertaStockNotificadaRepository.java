@@ -0,0 +1,32 @@
+package com.veterinaria.clinica_veternica.repository;
+
+import com.veterinaria.clinica_veternica.domain.inventario.AlertaStockNotificada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repositorio para la entidad AlertaStockNotificada.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Repository
+public interface AlertaStockNotificadaRepository extends JpaRepository<AlertaStockNotificada, Long> {
+
+    /**
+     * Elimina las alertas de los inventarios que ya no están en alerta (stock recuperado
+     * por encima del mínimo) o que ya no existen, para que una nueva caída se notifique.
+     *
+     * @return Número de alertas eliminadas
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AlertaStockNotificada a WHERE NOT EXISTS (" +
+           "SELECT 1 FROM Inventario i JOIN i.insumo ins " +
+           "WHERE i.idInventario = a.idInventario AND i.cantidadActual <= ins.stockMinimo)")
+    int eliminarRecuperadas();
+}
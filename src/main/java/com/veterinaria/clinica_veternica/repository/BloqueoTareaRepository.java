@@ -0,0 +1,52 @@
+package com.veterinaria.clinica_veternica.repository;
+
+import com.veterinaria.clinica_veternica.domain.sistema.BloqueoTarea;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio para la entidad BloqueoTarea.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-23
+ */
+@Repository
+public interface BloqueoTareaRepository extends JpaRepository<BloqueoTarea, String> {
+
+    /**
+     * Adquiere el bloqueo de una tarea si está libre (bloqueadoHasta vencido).
+     * La condición y la actualización son una sola sentencia, atómica entre instancias.
+     *
+     * @return 1 si se adquirió el bloqueo, 0 si otra instancia lo tiene o la tarea no existe
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE BloqueoTarea b SET b.bloqueadoHasta = :hasta, b.bloqueadoEn = :ahora, b.bloqueadoPor = :nodo " +
+           "WHERE b.nombre = :nombre AND b.bloqueadoHasta <= :ahora")
+    int adquirir(@Param("nombre") String nombre,
+                 @Param("ahora") LocalDateTime ahora,
+                 @Param("hasta") LocalDateTime hasta,
+                 @Param("nodo") String nodo);
+
+    /**
+     * Libera el bloqueo de una tarea (lo deja vencer en la fecha indicada), solo si sigue
+     * siendo el que adquirió la instancia indicada.
+     *
+     * @return 1 si se liberó, 0 si el bloqueo venció y lo adquirió otra instancia
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE BloqueoTarea b SET b.bloqueadoHasta = :hasta " +
+           "WHERE b.nombre = :nombre AND b.bloqueadoPor = :nodo AND b.bloqueadoEn = :adquiridoEn")
+    int liberar(@Param("nombre") String nombre,
+                @Param("nodo") String nodo,
+                @Param("adquiridoEn") LocalDateTime adquiridoEn,
+                @Param("hasta") LocalDateTime hasta);
+}
@@ -3,13 +3,27 @@ package com.veterinaria.clinica_veternica.repository;
 import com.veterinaria.clinica_veternica.domain.agenda.Cita;
 import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
 import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
+import com.veterinaria.clinica_veternica.service.importacion.ClaveCita;
+import com.veterinaria.clinica_veternica.service.reporte.HuellaDatosReporte;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad Cita.
@@ -37,19 +51,70 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
     List<Cita> findByVeterinario(Veterinario veterinario);
 
     /**
-     * Busca citas por veterinario cargando las relaciones necesarias (mascota, propietario, servicio).
+     * Busca citas por veterinario cargando las relaciones de los listados (Cita.GRAFO_LISTADO).
      *
      * @param veterinario Veterinario
      * @return Lista de citas con relaciones cargadas
      */
-    @Query("SELECT DISTINCT c FROM Cita c " +
-           "LEFT JOIN FETCH c.mascota m " +
-           "LEFT JOIN FETCH m.propietario p " +
-           "LEFT JOIN FETCH c.servicio s " +
+    @EntityGraph(Cita.GRAFO_LISTADO)
+    @Query("SELECT c FROM Cita c " +
            "WHERE c.veterinario = :veterinario " +
            "ORDER BY c.fechaCita, c.horaCita")
     List<Cita> findByVeterinarioWithRelations(@Param("veterinario") Veterinario veterinario);
 
+    /**
+     * Primera página keyset de citas, ordenadas por (fecha, hora, id).
+     *
+     * @param limit Número máximo de filas
+     * @return Citas con relaciones cargadas
+     */
+    @EntityGraph(Cita.GRAFO_LISTADO)
+    @Query("SELECT c FROM Cita c " +
+           "ORDER BY c.fechaCita, c.horaCita, c.idCita")
+    List<Cita> findPrimeraPaginaKeyset(Limit limit);
+
+    /**
+     * Página keyset de citas posteriores a la clave (fecha, hora, id) indicada.
+     *
+     * @param fecha Fecha de la última cita devuelta
+     * @param hora Hora de la última cita devuelta
+     * @param id ID de la última cita devuelta
+     * @param limit Número máximo de filas
+     * @return Citas con relaciones cargadas
+     */
+    @EntityGraph(Cita.GRAFO_LISTADO)
+    @Query("SELECT c FROM Cita c " +
+           "WHERE c.fechaCita > :fecha " +
+           "OR (c.fechaCita = :fecha AND (c.horaCita > :hora OR (c.horaCita = :hora AND c.idCita > :id))) " +
+           "ORDER BY c.fechaCita, c.horaCita, c.idCita")
+    List<Cita> findPaginaKeysetDespuesDe(@Param("fecha") LocalDate fecha,
+                                         @Param("hora") LocalTime hora,
+                                         @Param("id") Long id,
+                                         Limit limit);
+
+    /**
+     * Todas las citas en streaming (usar dentro de una transacción y cerrar el Stream).
+     *
+     * @return Stream de citas con relaciones cargadas
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingUtils.FETCH_SIZE_HINT),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @EntityGraph(Cita.GRAFO_LISTADO)
+    @Query("SELECT c FROM Cita c " +
+           "ORDER BY c.fechaCita, c.horaCita, c.idCita")
+    Stream<Cita> streamTodas();
+
+    /**
+     * Todas las citas con las relaciones de los listados cargadas.
+     *
+     * @return Citas ordenadas por fecha, hora e ID
+     */
+    @EntityGraph(Cita.GRAFO_LISTADO)
+    @Query("SELECT c FROM Cita c ORDER BY c.fechaCita, c.horaCita, c.idCita")
+    List<Cita> findAllConRelaciones();
+
     /**
      * Busca citas por mascota.
      *
@@ -86,12 +151,28 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
                                               @Param("inicio") LocalDateTime inicio,
                                               @Param("fin") LocalDateTime fin);
 
+    /**
+     * Busca las citas activas (no canceladas ni no asistidas) de un veterinario en un día,
+     * con mascota y servicio cargados. Se usa para construir el índice de disponibilidad.
+     *
+     * @param idVeterinario ID del veterinario
+     * @param fecha Fecha de las citas
+     * @return Lista de citas ordenadas por hora
+     */
+    @Query("SELECT c FROM Cita c LEFT JOIN FETCH c.mascota LEFT JOIN FETCH c.servicio " +
+           "WHERE c.veterinario.idPersonal = :idVeterinario AND c.fechaCita = :fecha " +
+           "AND c.estado NOT IN ('CANCELADA', 'NO_ASISTIO') " +
+           "ORDER BY c.horaCita, c.idCita")
+    List<Cita> findCitasActivasPorVeterinarioYDia(@Param("idVeterinario") Long idVeterinario,
+                                                  @Param("fecha") LocalDate fecha);
+
     /**
      * Busca citas por mascota y ordenadas por fecha.
      *
      * @param mascota Mascota
      * @return Lista de citas ordenada
      */
+    @EntityGraph(Cita.GRAFO_LISTADO)
     @Query("SELECT c FROM Cita c WHERE c.mascota = :mascota ORDER BY c.fechaCita DESC, c.horaCita DESC")
     List<Cita> findCitasPorMascotaOrdenadas(@Param("mascota") Mascota mascota);
 
@@ -100,11 +181,30 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
      *
      * @return Lista de citas programadas
      */
+    @EntityGraph(Cita.GRAFO_LISTADO)
     @Query("SELECT c FROM Cita c WHERE c.estado IN ('PROGRAMADA', 'CONFIRMADA') " +
            "AND (c.fechaCita > CURRENT_DATE OR (c.fechaCita = CURRENT_DATE AND c.horaCita > CURRENT_TIME)) " +
            "ORDER BY c.fechaCita, c.horaCita")
     List<Cita> findCitasProgramadas();
 
+    /**
+     * Cuenta citas programadas (pendientes y confirmadas) sin cargarlas.
+     *
+     * @return Número de citas programadas
+     */
+    @Query("SELECT COUNT(c) FROM Cita c WHERE c.estado IN ('PROGRAMADA', 'CONFIRMADA') " +
+           "AND (c.fechaCita > CURRENT_DATE OR (c.fechaCita = CURRENT_DATE AND c.horaCita > CURRENT_TIME))")
+    long countCitasProgramadas();
+
+    /**
+     * Cuenta las citas de una fecha.
+     *
+     * @param fecha Fecha
+     * @return Número de citas
+     */
+    @Query("SELECT COUNT(c) FROM Cita c WHERE c.fechaCita = :fecha")
+    long countCitasPorFecha(@Param("fecha") LocalDate fecha);
+
     /**
      * Busca citas del día para un veterinario.
      *
@@ -129,6 +229,7 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
      * @param fin Fecha de fin
      * @return Lista de citas
      */
+    @EntityGraph(Cita.GRAFO_LISTADO)
     @Query("SELECT c FROM Cita c WHERE " +
            "(c.fechaCita > CAST(:inicio AS date) OR (c.fechaCita = CAST(:inicio AS date) AND c.horaCita >= CAST(:inicio AS time))) " +
            "AND (c.fechaCita < CAST(:fin AS date) OR (c.fechaCita = CAST(:fin AS date) AND c.horaCita <= CAST(:fin AS time))) " +
@@ -136,6 +237,50 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
     List<Cita> findCitasEnRango(@Param("inicio") LocalDateTime inicio,
                                  @Param("fin") LocalDateTime fin);
 
+    /**
+     * Citas de un rango de fechas en streaming, con las relaciones de los listados cargadas
+     * (usar dentro de una transacción y cerrar el Stream).
+     *
+     * @param inicio Fecha de inicio
+     * @param fin Fecha de fin
+     * @return Stream de citas ordenadas por fecha y hora
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingUtils.FETCH_SIZE_HINT),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @EntityGraph(Cita.GRAFO_LISTADO)
+    @Query("SELECT c FROM Cita c " +
+           "WHERE (c.fechaCita > CAST(:inicio AS date) OR (c.fechaCita = CAST(:inicio AS date) AND c.horaCita >= CAST(:inicio AS time))) " +
+           "AND (c.fechaCita < CAST(:fin AS date) OR (c.fechaCita = CAST(:fin AS date) AND c.horaCita <= CAST(:fin AS time))) " +
+           "ORDER BY c.fechaCita, c.horaCita, c.idCita")
+    Stream<Cita> streamEnRango(@Param("inicio") LocalDateTime inicio,
+                               @Param("fin") LocalDateTime fin);
+
+    /**
+     * Calcula en una sola consulta la huella de las citas entre dos fechas (inclusive):
+     * total, última modificación, suma de IDs y última modificación de las mascotas,
+     * propietarios, especies, veterinarios y servicios de esas citas (los datos que los
+     * reportes leen a través de ellas). Decide si un reporte ya generado con esas fechas
+     * sigue vigente.
+     *
+     * @param inicio Fecha de inicio
+     * @param fin Fecha de fin
+     * @return Huella de las citas del rango
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.service.reporte.HuellaDatosReporte(" +
+           "COUNT(c), MAX(c.fechaModificacion), COALESCE(SUM(c.idCita), 0L), " +
+           "MAX(m.fechaModificacion), MAX(p.fechaModificacion), MAX(e.fechaModificacion), " +
+           "MAX(v.fechaModificacion), MAX(s.fechaModificacion)) " +
+           "FROM Cita c " +
+           "LEFT JOIN c.mascota m " +
+           "LEFT JOIN m.propietario p " +
+           "LEFT JOIN m.especie e " +
+           "LEFT JOIN c.veterinario v " +
+           "LEFT JOIN c.servicio s " +
+           "WHERE c.fechaCita BETWEEN :inicio AND :fin")
+    HuellaDatosReporte calcularHuella(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
     /**
      * Busca citas confirmadas pendientes de atención.
      *
@@ -180,6 +325,7 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
      * @param limite Fecha y hora límite (24 horas después)
      * @return Lista de citas
      */
+    @EntityGraph(Cita.GRAFO_LISTADO)
     @Query("SELECT c FROM Cita c WHERE c.estado IN ('PROGRAMADA', 'CONFIRMADA') " +
            "AND (c.fechaCita > CAST(:ahora AS date) OR (c.fechaCita = CAST(:ahora AS date) AND c.horaCita >= CAST(:ahora AS time))) " +
            "AND (c.fechaCita < CAST(:limite AS date) OR (c.fechaCita = CAST(:limite AS date) AND c.horaCita <= CAST(:limite AS time)))")
@@ -203,65 +349,99 @@ public interface CitaRepository extends JpaRepository<Cita, Long> {
                                                   @Param("fin") LocalDateTime fin);
 
     /**
-     * Cuenta citas activas (no canceladas ni no asistidas) para un veterinario en una hora específica.
-     * Se considera el tiempo estimado de duración de las citas para detectar solapamientos.
+     * Cuenta citas activas (no canceladas ni no asistidas) de un veterinario que se solapan
+     * con el intervalo [minutoInicio, minutoFin) de un día.
+     * Usa las columnas minuto_inicio/minuto_fin y el índice idx_cita_vet_fecha_intervalo.
      *
-     * @param veterinario Veterinario
+     * @param idVeterinario ID del veterinario
      * @param fechaCita Fecha de la cita
-     * @param horaCita Hora de la cita
-     * @param duracionMinutos Duración estimada en minutos
+     * @param minutoInicio Minuto del día de inicio
+     * @param minutoFin Minuto del día de fin (exclusivo)
      * @param idCitaExcluir ID de cita a excluir (para actualizaciones, puede ser null)
      * @return Cantidad de citas que se solapan
      */
-    @Query(value = "SELECT COUNT(c) FROM citas c WHERE c.id_veterinario = :veterinarioId " +
-           "AND c.fecha_cita = :fechaCita " +
+    @Query("SELECT COUNT(c) FROM Cita c WHERE c.veterinario.idPersonal = :idVeterinario " +
+           "AND c.fechaCita = :fechaCita " +
+           "AND c.minutoInicio < :minutoFin AND c.minutoFin > :minutoInicio " +
            "AND c.estado NOT IN ('CANCELADA', 'NO_ASISTIO') " +
-           "AND (:idCitaExcluir IS NULL OR c.id_cita != :idCitaExcluir) " +
-           "AND (" +
-           "  (c.hora_cita <= :horaCita AND c.hora_cita + (COALESCE(c.duracion_estimada_minutos, 30) || ' minutes')::interval > :horaCita) " +
-           "  OR (c.hora_cita < :horaCita + (:duracionMinutos || ' minutes')::interval AND c.hora_cita >= :horaCita)" +
-           ")", nativeQuery = true)
-    long countCitasConflictivasNative(@Param("veterinarioId") Long veterinarioId,
-                                      @Param("fechaCita") java.time.LocalDate fechaCita,
-                                      @Param("horaCita") java.time.LocalTime horaCita,
-                                      @Param("duracionMinutos") Integer duracionMinutos,
-                                      @Param("idCitaExcluir") Long idCitaExcluir);
-    
+           "AND (:idCitaExcluir IS NULL OR c.idCita <> :idCitaExcluir)")
+    long countCitasSolapadasEnIntervalo(@Param("idVeterinario") Long idVeterinario,
+                                        @Param("fechaCita") LocalDate fechaCita,
+                                        @Param("minutoInicio") int minutoInicio,
+                                        @Param("minutoFin") int minutoFin,
+                                        @Param("idCitaExcluir") Long idCitaExcluir);
+
     default long countCitasConflictivas(Veterinario veterinario,
-                                        java.time.LocalDate fechaCita,
-                                        java.time.LocalTime horaCita,
+                                        LocalDate fechaCita,
+                                        LocalTime horaCita,
                                         Integer duracionMinutos,
                                         Long idCitaExcluir) {
-        return countCitasConflictivasNative(veterinario.getIdPersonal(), fechaCita, horaCita, duracionMinutos, idCitaExcluir);
+        int inicio = Cita.minutoDelDia(horaCita);
+        int duracion = duracionMinutos != null ? duracionMinutos : Cita.DURACION_POR_DEFECTO_MINUTOS;
+        return countCitasSolapadasEnIntervalo(veterinario.getIdPersonal(), fechaCita, inicio,
+                Math.min(inicio + duracion, Cita.MINUTOS_DIA), idCitaExcluir);
     }
 
     /**
-     * Busca citas activas (no canceladas ni no asistidas) que se solapan con el rango de tiempo especificado.
+     * Busca citas activas (no canceladas ni no asistidas) de un veterinario que se solapan
+     * con el intervalo [minutoInicio, minutoFin) de un día, con la mascota cargada.
+     * Usa las columnas minuto_inicio/minuto_fin y el índice idx_cita_vet_fecha_intervalo.
      *
-     * @param veterinario Veterinario
+     * @param idVeterinario ID del veterinario
      * @param fechaCita Fecha de la cita
-     * @param horaInicio Hora de inicio del rango
-     * @param horaFin Hora de fin del rango
+     * @param minutoInicio Minuto del día de inicio
+     * @param minutoFin Minuto del día de fin (exclusivo)
      * @param idCitaExcluir ID de cita a excluir (puede ser null)
-     * @return Lista de citas que se solapan
+     * @return Lista de citas que se solapan, ordenadas por hora
      */
-    @Query(value = "SELECT * FROM citas c WHERE c.id_veterinario = :veterinarioId " +
-           "AND c.fecha_cita = :fechaCita " +
+    @Query("SELECT c FROM Cita c JOIN FETCH c.mascota " +
+           "WHERE c.veterinario.idPersonal = :idVeterinario " +
+           "AND c.fechaCita = :fechaCita " +
+           "AND c.minutoInicio < :minutoFin AND c.minutoFin > :minutoInicio " +
            "AND c.estado NOT IN ('CANCELADA', 'NO_ASISTIO') " +
-           "AND (:idCitaExcluir IS NULL OR c.id_cita != :idCitaExcluir) " +
-           "AND c.hora_cita < :horaFin " +
-           "AND c.hora_cita + (COALESCE(c.duracion_estimada_minutos, 30) || ' minutes')::interval > :horaInicio", nativeQuery = true)
-    List<Cita> findCitasSolapadasNative(@Param("veterinarioId") Long veterinarioId,
-                                        @Param("fechaCita") java.time.LocalDate fechaCita,
-                                        @Param("horaInicio") java.time.LocalTime horaInicio,
-                                        @Param("horaFin") java.time.LocalTime horaFin,
-                                        @Param("idCitaExcluir") Long idCitaExcluir);
-    
+           "AND (:idCitaExcluir IS NULL OR c.idCita <> :idCitaExcluir) " +
+           "ORDER BY c.minutoInicio, c.idCita")
+    List<Cita> findCitasSolapadasEnIntervalo(@Param("idVeterinario") Long idVeterinario,
+                                             @Param("fechaCita") LocalDate fechaCita,
+                                             @Param("minutoInicio") int minutoInicio,
+                                             @Param("minutoFin") int minutoFin,
+                                             @Param("idCitaExcluir") Long idCitaExcluir);
+
     default List<Cita> findCitasSolapadas(Veterinario veterinario,
-                                          java.time.LocalDate fechaCita,
-                                          java.time.LocalTime horaInicio,
-                                          java.time.LocalTime horaFin,
+                                          LocalDate fechaCita,
+                                          LocalTime horaInicio,
+                                          LocalTime horaFin,
                                           Long idCitaExcluir) {
-        return findCitasSolapadasNative(veterinario.getIdPersonal(), fechaCita, horaInicio, horaFin, idCitaExcluir);
+        int inicio = Cita.minutoDelDia(horaInicio);
+        // Una hora de fin anterior a la de inicio indica que el intervalo cruza la medianoche
+        int fin = horaFin.isAfter(horaInicio) ? Cita.minutoDelDia(horaFin) : Cita.MINUTOS_DIA;
+        return findCitasSolapadasEnIntervalo(veterinario.getIdPersonal(), fechaCita, inicio, fin, idCitaExcluir);
     }
+
+    /**
+     * Calcula minuto_inicio/minuto_fin en las citas guardadas antes de que existieran
+     * esas columnas. Se ejecuta al arrancar; con las columnas ya completas no modifica nada.
+     *
+     * @return Número de citas actualizadas
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Cita c SET " +
+           "c.minutoInicio = HOUR(c.horaCita) * 60 + MINUTE(c.horaCita), " +
+           "c.minutoFin = LEAST(HOUR(c.horaCita) * 60 + MINUTE(c.horaCita) + COALESCE(c.duracionEstimadaMinutos, 30), 1440) " +
+           "WHERE c.minutoInicio IS NULL OR c.minutoFin IS NULL")
+    int completarIntervalosMinutos();
+
+    /**
+     * Claves de las citas existentes de las mascotas y días indicados (importación masiva).
+     *
+     * @param mascotas IDs de las mascotas
+     * @param fechas Fechas de las citas
+     * @return Mascota, veterinario, fecha y hora de cada cita encontrada
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.service.importacion.ClaveCita(" +
+           "c.mascota.idMascota, c.veterinario.idPersonal, c.fechaCita, c.horaCita) " +
+           "FROM Cita c WHERE c.mascota.idMascota IN :mascotas AND c.fechaCita IN :fechas")
+    List<ClaveCita> findClavesImportacion(@Param("mascotas") Collection<Long> mascotas,
+                                          @Param("fechas") Collection<LocalDate> fechas);
 }
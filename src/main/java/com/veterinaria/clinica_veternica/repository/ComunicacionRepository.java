@@ -1,12 +1,22 @@
 package com.veterinaria.clinica_veternica.repository;
 
 import com.veterinaria.clinica_veternica.domain.comunicacion.Comunicacion;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad Comunicacion.
@@ -40,6 +50,20 @@ public interface ComunicacionRepository extends JpaRepository<Comunicacion, Long
     @Query("SELECT c FROM Comunicacion c WHERE c.tipo = 'RECORDATORIO' AND c.enviada = false AND c.fechaProgramadaEnvio <= :ahora")
     List<Comunicacion> findRecordatoriosPendientes(LocalDateTime ahora);
 
+    /**
+     * Reclama las comunicaciones programadas por EMAIL cuyo envío ya corresponde, bloqueándolas
+     * con SELECT ... FOR UPDATE SKIP LOCKED: las filas que otro nodo tiene reclamadas se omiten
+     * en lugar de esperar. Usar dentro de una transacción.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2")) // -2: SKIP LOCKED
+    @Query("SELECT c FROM Comunicacion c WHERE c.canal = 'EMAIL' AND c.enviada = false " +
+           "AND c.intentosEnvio < c.maxIntentos AND c.destinatarioEmail IS NOT NULL " +
+           "AND c.fechaProgramadaEnvio <= :ahora " +
+           "AND (c.proximoIntento IS NULL OR c.proximoIntento <= :ahora) " +
+           "ORDER BY c.fechaProgramadaEnvio, c.idComunicacion")
+    List<Comunicacion> reclamarPendientesEnvio(@Param("ahora") LocalDateTime ahora, Limit limit);
+
     /**
      * Busca comunicaciones por destinatario.
      */
@@ -50,5 +74,23 @@ public interface ComunicacionRepository extends JpaRepository<Comunicacion, Long
      */
     @Query("SELECT COUNT(c) FROM Comunicacion c WHERE c.enviada = false")
     long countPendientes();
-}
 
+    /**
+     * Página keyset de comunicaciones de un tipo con ID mayor al indicado (0 para la primera página).
+     */
+    @Query("SELECT c FROM Comunicacion c WHERE c.tipo = :tipo AND c.idComunicacion > :despuesDe " +
+           "ORDER BY c.idComunicacion")
+    List<Comunicacion> findPaginaKeysetPorTipo(@Param("tipo") String tipo,
+                                               @Param("despuesDe") Long despuesDe,
+                                               Limit limit);
+
+    /**
+     * Comunicaciones de un tipo en streaming (usar dentro de una transacción y cerrar el Stream).
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingUtils.FETCH_SIZE_HINT),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Comunicacion c WHERE c.tipo = :tipo ORDER BY c.idComunicacion")
+    Stream<Comunicacion> streamPorTipo(@Param("tipo") String tipo);
+}
@@ -2,13 +2,21 @@ package com.veterinaria.clinica_veternica.repository;
 
 import com.veterinaria.clinica_veternica.domain.clinico.HistoriaClinica;
 import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
+import com.veterinaria.clinica_veternica.util.ConteoPorId;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad HistoriaClinica.
@@ -42,4 +50,62 @@ public interface HistoriaClinicaRepository extends JpaRepository<HistoriaClinica
            "LEFT JOIN FETCH h.mascota m " +
            "LEFT JOIN FETCH m.propietario")
     List<HistoriaClinica> findAllWithMascotaAndPropietario();
+
+    /**
+     * Página keyset de historias clínicas con ID mayor al indicado (0 para la primera página).
+     *
+     * @param despuesDe ID de la última historia devuelta
+     * @param soloActivas true para devolver solo historias activas
+     * @param limit Número máximo de filas
+     * @return Historias con mascota, especie y propietario cargados, ordenadas por ID
+     */
+    @Query("SELECT h FROM HistoriaClinica h " +
+           "LEFT JOIN FETCH h.mascota m " +
+           "LEFT JOIN FETCH m.especie " +
+           "LEFT JOIN FETCH m.propietario " +
+           "WHERE h.idHistoriaClinica > :despuesDe AND (:soloActivas = false OR h.activa = true) " +
+           "ORDER BY h.idHistoriaClinica")
+    List<HistoriaClinica> findPaginaKeyset(@Param("despuesDe") Long despuesDe,
+                                           @Param("soloActivas") boolean soloActivas,
+                                           Limit limit);
+
+    /**
+     * Historias clínicas en streaming (usar dentro de una transacción y cerrar el Stream).
+     *
+     * @param soloActivas true para devolver solo historias activas
+     * @return Stream de historias con mascota, especie y propietario cargados, ordenadas por ID
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingUtils.FETCH_SIZE_HINT),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT h FROM HistoriaClinica h " +
+           "LEFT JOIN FETCH h.mascota m " +
+           "LEFT JOIN FETCH m.especie " +
+           "LEFT JOIN FETCH m.propietario " +
+           "WHERE (:soloActivas = false OR h.activa = true) " +
+           "ORDER BY h.idHistoriaClinica")
+    Stream<HistoriaClinica> streamTodas(@Param("soloActivas") boolean soloActivas);
+
+    /**
+     * Número de evoluciones de cada historia indicada, en una sola consulta.
+     *
+     * @param ids IDs de las historias
+     * @return Conteos por historia (las que no tienen evoluciones no aparecen)
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.util.ConteoPorId(e.historiaClinica.idHistoriaClinica, COUNT(e)) " +
+           "FROM EvolucionClinica e WHERE e.historiaClinica.idHistoriaClinica IN :ids " +
+           "GROUP BY e.historiaClinica.idHistoriaClinica")
+    List<ConteoPorId> contarEvoluciones(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Número de vacunaciones de cada historia indicada, en una sola consulta.
+     *
+     * @param ids IDs de las historias
+     * @return Conteos por historia (las que no tienen vacunaciones no aparecen)
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.util.ConteoPorId(v.historiaClinica.idHistoriaClinica, COUNT(v)) " +
+           "FROM Vacunacion v WHERE v.historiaClinica.idHistoriaClinica IN :ids " +
+           "GROUP BY v.historiaClinica.idHistoriaClinica")
+    List<ConteoPorId> contarVacunaciones(@Param("ids") Collection<Long> ids);
 }
@@ -28,6 +28,10 @@ public interface HorarioRepository extends JpaRepository<Horario, Long> {
     @Query("SELECT h FROM Horario h WHERE h.veterinario = :veterinario AND h.activo = true")
     List<Horario> findHorariosActivosPorVeterinario(@Param("veterinario") Veterinario veterinario);
 
+    @Query("SELECT h FROM Horario h WHERE h.veterinario.idPersonal = :idVeterinario AND h.activo = true " +
+           "ORDER BY h.horaInicio")
+    List<Horario> findHorariosActivosPorIdVeterinario(@Param("idVeterinario") Long idVeterinario);
+
     @Query("SELECT h FROM Horario h WHERE h.diaSemana = :dia AND h.activo = true")
     List<Horario> findHorariosActivosPorDia(@Param("dia") String dia);
 }
@@ -1,14 +1,25 @@
 package com.veterinaria.clinica_veternica.repository;
 
 import com.veterinaria.clinica_veternica.domain.inventario.Insumo;
+import com.veterinaria.clinica_veternica.domain.inventario.StockInsumo;
 import com.veterinaria.clinica_veternica.domain.inventario.TipoInsumo;
+import com.veterinaria.clinica_veternica.service.importacion.ClaveImportacion;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad Insumo.
@@ -42,4 +53,114 @@ public interface InsumoRepository extends JpaRepository<Insumo, Long> {
     List<Insumo> buscarInsumos(@Param("busqueda") String busqueda);
 
     boolean existsByCodigo(String codigo);
+
+    /**
+     * Aplica una variación de stock con un UPDATE condicional, atómico en la base de datos.
+     *
+     * Solo afecta al insumo si está activo y el stock no baja de cero en ningún punto del
+     * movimiento (cantidadStock + minimo >= 0), por lo que consumos concurrentes no pueden
+     * dejarlo negativo. Incrementa la versión para invalidar las copias leídas antes.
+     * El estado se asigna antes que la cantidad: MySQL evalúa el SET en orden con los
+     * valores ya actualizados.
+     *
+     * @param id ID del insumo
+     * @param variacion Variación neta del stock (negativa en salidas)
+     * @param minimo Menor variación acumulada del movimiento (igual a variacion si es uno solo)
+     * @param ahora Fecha de modificación
+     * @return 1 si se aplicó, 0 si el insumo no existe, está inactivo o no tiene stock suficiente
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Insumo i SET " +
+           "i.estado = CASE WHEN i.cantidadStock + :variacion = 0 " +
+           "THEN com.veterinaria.clinica_veternica.domain.inventario.EstadoInsumo.AGOTADO " +
+           "WHEN i.estado = com.veterinaria.clinica_veternica.domain.inventario.EstadoInsumo.AGOTADO " +
+           "THEN com.veterinaria.clinica_veternica.domain.inventario.EstadoInsumo.DISPONIBLE " +
+           "ELSE i.estado END, " +
+           "i.cantidadStock = i.cantidadStock + :variacion, " +
+           "i.version = i.version + 1, " +
+           "i.fechaModificacion = :ahora " +
+           "WHERE i.idInsumo = :id AND i.activo = true AND i.cantidadStock + :minimo >= 0")
+    int aplicarVariacionStock(@Param("id") Long id,
+                              @Param("variacion") int variacion,
+                              @Param("minimo") int minimo,
+                              @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Lee el stock actual de varios insumos sin cargar las entidades.
+     *
+     * @param ids IDs de los insumos
+     * @return Stock de los insumos encontrados
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.domain.inventario.StockInsumo(" +
+           "i.idInsumo, i.nombre, i.activo, i.cantidadStock, i.stockMinimo, i.precioCompra) " +
+           "FROM Insumo i WHERE i.idInsumo IN :ids")
+    List<StockInsumo> findStock(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Lee el stock de los insumos sin registro de inventario o cuyo inventario no coincide
+     * con el stock del insumo.
+     *
+     * @return Stock de los insumos a reconciliar
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.domain.inventario.StockInsumo(" +
+           "i.idInsumo, i.nombre, i.activo, i.cantidadStock, i.stockMinimo, i.precioCompra) " +
+           "FROM Insumo i LEFT JOIN Inventario inv ON inv.insumo = i " +
+           "WHERE inv.idInventario IS NULL OR inv.cantidadActual <> i.cantidadStock " +
+           "ORDER BY i.idInsumo")
+    List<StockInsumo> findStockDesincronizado();
+
+    /**
+     * IDs de los insumos con los códigos indicados (importación masiva).
+     *
+     * @param codigos Códigos a buscar
+     * @return Código e ID de cada insumo encontrado
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.service.importacion.ClaveImportacion(" +
+           "i.codigo, i.idInsumo) FROM Insumo i WHERE i.codigo IN :codigos")
+    List<ClaveImportacion> findClavesPorCodigo(@Param("codigos") Collection<String> codigos);
+
+    /**
+     * Insumos activos con los códigos indicados que nunca recibieron stock: sin stock y sin
+     * ningún movimiento en el libro (importación masiva).
+     *
+     * @param codigos Códigos a buscar
+     * @return Código e ID de cada insumo encontrado
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.service.importacion.ClaveImportacion(" +
+           "i.codigo, i.idInsumo) FROM Insumo i WHERE i.codigo IN :codigos " +
+           "AND i.activo = true AND i.cantidadStock = 0 " +
+           "AND NOT EXISTS (SELECT 1 FROM MovimientoStock m WHERE m.idInsumo = i.idInsumo)")
+    List<ClaveImportacion> findClavesSinMovimientos(@Param("codigos") Collection<String> codigos);
+
+    /**
+     * Página keyset de insumos con ID mayor al indicado (0 para la primera página).
+     *
+     * @param despuesDe ID del último insumo devuelto
+     * @param soloActivos true para devolver solo insumos activos
+     * @param limit Número máximo de filas
+     * @return Insumos con tipo de insumo cargado, ordenados por ID
+     */
+    @Query("SELECT i FROM Insumo i " +
+           "LEFT JOIN FETCH i.tipoInsumo " +
+           "WHERE i.idInsumo > :despuesDe AND (:soloActivos = false OR i.activo = true) " +
+           "ORDER BY i.idInsumo")
+    List<Insumo> findPaginaKeyset(@Param("despuesDe") Long despuesDe,
+                                  @Param("soloActivos") boolean soloActivos,
+                                  Limit limit);
+
+    /**
+     * Insumos en streaming (usar dentro de una transacción y cerrar el Stream).
+     *
+     * @param soloActivos true para devolver solo insumos activos
+     * @return Stream de insumos con tipo de insumo cargado, ordenados por ID
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingUtils.FETCH_SIZE_HINT),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Insumo i " +
+           "LEFT JOIN FETCH i.tipoInsumo " +
+           "WHERE (:soloActivos = false OR i.activo = true) " +
+           "ORDER BY i.idInsumo")
+    Stream<Insumo> streamTodos(@Param("soloActivos") boolean soloActivos);
 }
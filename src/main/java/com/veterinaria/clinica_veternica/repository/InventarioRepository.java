@@ -1,16 +1,25 @@
 package com.veterinaria.clinica_veternica.repository;
 
+import com.veterinaria.clinica_veternica.domain.inventario.AlertaStock;
 import com.veterinaria.clinica_veternica.domain.inventario.Inventario;
 import com.veterinaria.clinica_veternica.domain.inventario.Insumo;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad Inventario.
@@ -30,6 +39,9 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
     @Query("SELECT i FROM Inventario i JOIN FETCH i.insumo WHERE i.cantidadActual <= i.insumo.stockMinimo")
     List<Inventario> findInventariosConStockBajo();
 
+    @Query("SELECT COUNT(i) FROM Inventario i WHERE i.cantidadActual <= i.insumo.stockMinimo")
+    long countInventariosConStockBajo();
+
     @Query("SELECT i FROM Inventario i JOIN FETCH i.insumo WHERE i.cantidadActual = 0")
     List<Inventario> findInventariosAgotados();
 
@@ -39,6 +51,108 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
     @Query("SELECT i FROM Inventario i JOIN FETCH i.insumo ORDER BY i.valorTotal DESC")
     List<Inventario> findInventariosOrdenadosPorValor();
     
-    @Query("SELECT i FROM Inventario i JOIN FETCH i.insumo")
+    @Query("SELECT i FROM Inventario i JOIN FETCH i.insumo WHERE i.insumo.idInsumo = :idInsumo")
+    Optional<Inventario> findByIdInsumoWithFetch(@Param("idInsumo") Long idInsumo);
+
+    /**
+     * Obtiene en una sola consulta el inventario de los insumos activos con su insumo cargado.
+     *
+     * @return Inventarios ordenados por nombre de insumo
+     */
+    @Query("SELECT i FROM Inventario i JOIN FETCH i.insumo ins WHERE ins.activo = true ORDER BY ins.nombre")
     List<Inventario> findAllWithInsumo();
+
+    /**
+     * Calcula en una sola consulta los inventarios en alerta de stock (agotado, crítico
+     * o bajo) junto con el último nivel notificado de cada uno.
+     *
+     * @return Alertas ordenadas por nombre de insumo
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.domain.inventario.AlertaStock(" +
+           "i.idInventario, ins.nombre, i.cantidadActual, ins.stockMinimo, ins.stockMaximo, " +
+           "CASE WHEN i.cantidadActual <= 0 " +
+           "THEN com.veterinaria.clinica_veternica.domain.inventario.NivelAlertaStock.AGOTADO " +
+           "WHEN i.cantidadActual * 2 <= ins.stockMinimo " +
+           "THEN com.veterinaria.clinica_veternica.domain.inventario.NivelAlertaStock.CRITICO " +
+           "ELSE com.veterinaria.clinica_veternica.domain.inventario.NivelAlertaStock.BAJO END, " +
+           "a.nivel) " +
+           "FROM Inventario i JOIN i.insumo ins " +
+           "LEFT JOIN AlertaStockNotificada a ON a.idInventario = i.idInventario " +
+           "WHERE i.cantidadActual <= ins.stockMinimo " +
+           "ORDER BY ins.nombre")
+    List<AlertaStock> findAlertasStock();
+
+    /**
+     * Registra en el inventario consolidado un movimiento ya aplicado al insumo.
+     *
+     * Los acumulados se incrementan en la base de datos y la cantidad se toma del stock del
+     * insumo leído en la misma transacción, de modo que no se pierden movimientos
+     * concurrentes ni se desvía del insumo. Incrementa la versión del registro.
+     *
+     * @param idInsumo ID del insumo
+     * @param cantidadActual Stock del insumo tras el movimiento
+     * @param valorTotal Valor del stock a precio de compra
+     * @param requiereReorden Si el stock quedó en el punto de reorden
+     * @param entradas Unidades ingresadas
+     * @param valorEntradas Valor de las unidades ingresadas
+     * @param salidas Unidades consumidas
+     * @param valorSalidas Valor de las unidades consumidas
+     * @param fechaEntrada Fecha de la entrada (null si no hubo)
+     * @param fechaSalida Fecha de la salida (null si no hubo)
+     * @param ahora Fecha de actualización
+     * @return 1 si se actualizó, 0 si el insumo aún no tiene registro de inventario
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventario i SET " +
+           "i.cantidadActual = :cantidadActual, " +
+           "i.valorTotal = :valorTotal, " +
+           "i.requiereReorden = :requiereReorden, " +
+           "i.totalEntradas = i.totalEntradas + :entradas, " +
+           "i.valorEntradas = COALESCE(i.valorEntradas, 0) + :valorEntradas, " +
+           "i.totalSalidas = i.totalSalidas + :salidas, " +
+           "i.valorSalidas = COALESCE(i.valorSalidas, 0) + :valorSalidas, " +
+           "i.fechaUltimaEntrada = COALESCE(:fechaEntrada, i.fechaUltimaEntrada), " +
+           "i.fechaUltimaSalida = COALESCE(:fechaSalida, i.fechaUltimaSalida), " +
+           "i.fechaActualizacion = :ahora, " +
+           "i.fechaModificacion = :ahora, " +
+           "i.version = i.version + 1 " +
+           "WHERE i.insumo.idInsumo = :idInsumo")
+    int registrarMovimiento(@Param("idInsumo") Long idInsumo,
+                            @Param("cantidadActual") int cantidadActual,
+                            @Param("valorTotal") BigDecimal valorTotal,
+                            @Param("requiereReorden") boolean requiereReorden,
+                            @Param("entradas") int entradas,
+                            @Param("valorEntradas") BigDecimal valorEntradas,
+                            @Param("salidas") int salidas,
+                            @Param("valorSalidas") BigDecimal valorSalidas,
+                            @Param("fechaEntrada") LocalDateTime fechaEntrada,
+                            @Param("fechaSalida") LocalDateTime fechaSalida,
+                            @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Página keyset del inventario de insumos activos con ID mayor al indicado
+     * (0 para la primera página). Mismo filtro que findAllWithInsumo.
+     *
+     * @param despuesDe ID del último inventario devuelto
+     * @param limit Número máximo de filas
+     * @return Inventarios con su insumo cargado, ordenados por ID
+     */
+    @Query("SELECT i FROM Inventario i JOIN FETCH i.insumo ins " +
+           "WHERE i.idInventario > :despuesDe AND ins.activo = true " +
+           "ORDER BY i.idInventario")
+    List<Inventario> findPaginaKeyset(@Param("despuesDe") Long despuesDe, Limit limit);
+
+    /**
+     * Inventario de insumos activos en streaming (usar dentro de una transacción y cerrar el Stream).
+     *
+     * @return Stream de inventarios con su insumo cargado, ordenados por ID
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingUtils.FETCH_SIZE_HINT),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Inventario i JOIN FETCH i.insumo ins " +
+           "WHERE ins.activo = true " +
+           "ORDER BY i.idInventario")
+    Stream<Inventario> streamTodos();
 }
@@ -4,13 +4,22 @@ import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
 import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
 import com.veterinaria.clinica_veternica.domain.paciente.Especie;
 import com.veterinaria.clinica_veternica.domain.paciente.Raza;
+import com.veterinaria.clinica_veternica.service.busqueda.DocumentoBusqueda;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import com.veterinaria.clinica_veternica.service.importacion.ClaveImportacion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 /**
@@ -250,4 +259,72 @@ public interface MascotaRepository extends JpaRepository<Mascota, Long> {
      */
     @Query("SELECT m FROM Mascota m WHERE m.activo = true ORDER BY m.fechaNacimiento DESC")
     List<Mascota> findMascotasOrdenadaPorEdad();
+
+    /**
+     * Página keyset de mascotas con ID mayor al indicado (0 para la primera página).
+     *
+     * @param despuesDe ID de la última mascota devuelta
+     * @param soloActivas true para devolver solo mascotas activas
+     * @param limit Número máximo de filas
+     * @return Mascotas con propietario, especie y raza cargados
+     */
+    @Query("SELECT m FROM Mascota m " +
+           "LEFT JOIN FETCH m.propietario " +
+           "LEFT JOIN FETCH m.especie " +
+           "LEFT JOIN FETCH m.raza " +
+           "WHERE m.idMascota > :despuesDe AND (:soloActivas = false OR m.activo = true) " +
+           "ORDER BY m.idMascota")
+    List<Mascota> findPaginaKeyset(@Param("despuesDe") Long despuesDe,
+                                   @Param("soloActivas") boolean soloActivas,
+                                   Limit limit);
+
+    /**
+     * Mascotas en streaming (usar dentro de una transacción y cerrar el Stream).
+     *
+     * @param soloActivas true para devolver solo mascotas activas
+     * @return Stream de mascotas con propietario, especie y raza cargados
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingUtils.FETCH_SIZE_HINT),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Mascota m " +
+           "LEFT JOIN FETCH m.propietario " +
+           "LEFT JOIN FETCH m.especie " +
+           "LEFT JOIN FETCH m.raza " +
+           "WHERE (:soloActivas = false OR m.activo = true) " +
+           "ORDER BY m.idMascota")
+    Stream<Mascota> streamTodas(@Param("soloActivas") boolean soloActivas);
+
+    /**
+     * Página keyset de nombres de mascotas para cargar el índice de búsqueda.
+     *
+     * @param despuesDe ID de la última mascota devuelta (0 para la primera página)
+     * @param limit Número máximo de filas
+     * @return ID y nombre de cada mascota, ordenados por ID
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.service.busqueda.DocumentoBusqueda(m.idMascota, m.nombre) " +
+           "FROM Mascota m WHERE m.idMascota > :despuesDe ORDER BY m.idMascota")
+    List<DocumentoBusqueda> findDocumentosBusqueda(@Param("despuesDe") Long despuesDe, Limit limit);
+
+    /**
+     * IDs de las mascotas de los propietarios indicados, con clave "documento|nombre"
+     * (importación masiva de citas).
+     *
+     * @param documentos Documentos de los propietarios
+     * @return Clave e ID de cada mascota
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.service.importacion.ClaveImportacion(" +
+           "CONCAT(p.documento, '|', m.nombre), m.idMascota) " +
+           "FROM Mascota m JOIN m.propietario p WHERE p.documento IN :documentos")
+    List<ClaveImportacion> findClavesPorDocumentoPropietario(@Param("documentos") Collection<String> documentos);
+
+    /**
+     * Números de microchip ya registrados entre los indicados (importación masiva).
+     *
+     * @param microchips Números de microchip a buscar
+     * @return Números existentes
+     */
+    @Query("SELECT m.numeroMicrochip FROM Mascota m WHERE m.numeroMicrochip IN :microchips")
+    List<String> findMicrochipsExistentes(@Param("microchips") Collection<String> microchips);
 }
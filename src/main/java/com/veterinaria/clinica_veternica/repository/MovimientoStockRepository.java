@@ -0,0 +1,41 @@
+package com.veterinaria.clinica_veternica.repository;
+
+import com.veterinaria.clinica_veternica.domain.inventario.MovimientoStock;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio para el libro de movimientos de stock (solo inserción).
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-25
+ */
+@Repository
+public interface MovimientoStockRepository extends JpaRepository<MovimientoStock, Long> {
+
+    /**
+     * Obtiene los últimos movimientos de un insumo, del más reciente al más antiguo.
+     *
+     * @param idInsumo ID del insumo
+     * @param pagina Límite de movimientos
+     * @return Movimientos del insumo
+     */
+    @Query("SELECT m FROM MovimientoStock m WHERE m.idInsumo = :idInsumo ORDER BY m.idMovimiento DESC")
+    List<MovimientoStock> findUltimosPorInsumo(@Param("idInsumo") Long idInsumo, Pageable pagina);
+
+    /**
+     * Suma las variaciones registradas de un insumo; coincide con su stock si todos los
+     * cambios pasaron por el libro.
+     *
+     * @param idInsumo ID del insumo
+     * @return Suma de las cantidades (0 si no hay movimientos)
+     */
+    @Query("SELECT COALESCE(SUM(m.cantidad), 0) FROM MovimientoStock m WHERE m.idInsumo = :idInsumo")
+    long sumarPorInsumo(@Param("idInsumo") Long idInsumo);
+}
@@ -7,6 +7,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -28,6 +30,15 @@ public interface PersonalRepository extends JpaRepository<Personal, Long> {
     @Query("SELECT p FROM Personal p WHERE p.usuario = :usuario")
     Optional<Personal> findByUsuario(@Param("usuario") Usuario usuario);
 
+    /**
+     * Busca el personal de varios usuarios en una sola consulta.
+     *
+     * @param usuarios Usuarios asociados
+     * @return Personal encontrado, con su usuario
+     */
+    @Query("SELECT p FROM Personal p JOIN FETCH p.usuario WHERE p.usuario IN :usuarios")
+    List<Personal> findByUsuarios(@Param("usuarios") Collection<Usuario> usuarios);
+
     /**
      * Verifica si existe personal con el documento especificado.
      *
@@ -1,13 +1,23 @@
 package com.veterinaria.clinica_veternica.repository;
 
 import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
+import com.veterinaria.clinica_veternica.service.busqueda.DocumentoBusqueda;
+import com.veterinaria.clinica_veternica.service.importacion.ClaveImportacion;
+import com.veterinaria.clinica_veternica.util.ConteoPorId;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad Propietario.
@@ -43,6 +53,15 @@ public interface PropietarioRepository extends JpaRepository<Propietario, Long>
     @Query("SELECT p FROM Propietario p WHERE LOWER(p.email) = LOWER(:email)")
     Optional<Propietario> findByEmail(@Param("email") String email);
 
+    /**
+     * Busca los propietarios de varios emails en una sola consulta (case-insensitive).
+     *
+     * @param emails Emails en minúsculas
+     * @return Propietarios encontrados
+     */
+    @Query("SELECT p FROM Propietario p WHERE LOWER(p.email) IN :emails")
+    List<Propietario> findByEmailsEnMinusculas(@Param("emails") Collection<String> emails);
+
     /**
      * Busca propietarios por teléfono.
      *
@@ -214,4 +233,75 @@ public interface PropietarioRepository extends JpaRepository<Propietario, Long>
      */
     @Query("SELECT p FROM Propietario p WHERE p.activo = true")
     List<Propietario> findPropietariosActivos();
+
+    /**
+     * Página keyset de nombres de propietarios para cargar el índice de búsqueda.
+     *
+     * @param despuesDe ID del último propietario devuelto (0 para la primera página)
+     * @param limit Número máximo de filas
+     * @return ID, nombres y apellidos de cada propietario, ordenados por ID
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.service.busqueda.DocumentoBusqueda(" +
+           "p.idPropietario, p.nombres, p.apellidos) " +
+           "FROM Propietario p WHERE p.idPropietario > :despuesDe ORDER BY p.idPropietario")
+    List<DocumentoBusqueda> findDocumentosBusqueda(@Param("despuesDe") Long despuesDe, Limit limit);
+
+    /**
+     * IDs de los propietarios con los documentos indicados (importación masiva).
+     *
+     * @param documentos Documentos a buscar
+     * @return Documento e ID de cada propietario encontrado
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.service.importacion.ClaveImportacion(" +
+           "p.documento, p.idPropietario) FROM Propietario p WHERE p.documento IN :documentos")
+    List<ClaveImportacion> findClavesPorDocumento(@Param("documentos") Collection<String> documentos);
+
+    /**
+     * Emails ya registrados entre los indicados (importación masiva).
+     *
+     * @param emails Emails a buscar
+     * @return Emails existentes
+     */
+    @Query("SELECT p.email FROM Propietario p WHERE p.email IN :emails")
+    List<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+
+    /**
+     * Página keyset de propietarios con ID mayor al indicado (0 para la primera página).
+     *
+     * @param despuesDe ID del último propietario devuelto
+     * @param soloActivos true para devolver solo propietarios activos
+     * @param limit Número máximo de filas
+     * @return Propietarios ordenados por ID
+     */
+    @Query("SELECT p FROM Propietario p " +
+           "WHERE p.idPropietario > :despuesDe AND (:soloActivos = false OR p.activo = true) " +
+           "ORDER BY p.idPropietario")
+    List<Propietario> findPaginaKeyset(@Param("despuesDe") Long despuesDe,
+                                       @Param("soloActivos") boolean soloActivos,
+                                       Limit limit);
+
+    /**
+     * Propietarios en streaming (usar dentro de una transacción y cerrar el Stream).
+     *
+     * @param soloActivos true para devolver solo propietarios activos
+     * @return Stream de propietarios ordenados por ID
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingUtils.FETCH_SIZE_HINT),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Propietario p " +
+           "WHERE (:soloActivos = false OR p.activo = true) " +
+           "ORDER BY p.idPropietario")
+    Stream<Propietario> streamTodos(@Param("soloActivos") boolean soloActivos);
+
+    /**
+     * Número de mascotas de cada propietario indicado, en una sola consulta.
+     *
+     * @param ids IDs de los propietarios
+     * @return Conteos por propietario (los que no tienen mascotas no aparecen)
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.util.ConteoPorId(m.propietario.idPropietario, COUNT(m)) " +
+           "FROM Mascota m WHERE m.propietario.idPropietario IN :ids GROUP BY m.propietario.idPropietario")
+    List<ConteoPorId> contarMascotas(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,35 @@
+package com.veterinaria.clinica_veternica.repository;
+
+import com.veterinaria.clinica_veternica.domain.auditoria.RegistroAuditoria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio de lectura para los registros de auditoría persistidos.
+ * Las inserciones se hacen en lote desde AuditLogger con JDBC.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-20
+ */
+@Repository
+public interface RegistroAuditoriaRepository extends JpaRepository<RegistroAuditoria, Long> {
+
+    /**
+     * Registros de una entidad (índice entidad + fecha).
+     */
+    List<RegistroAuditoria> findByEntidadOrderByFechaHoraAsc(String entidad);
+
+    /**
+     * Registros de un usuario (índice usuario + fecha).
+     */
+    List<RegistroAuditoria> findByUsuarioOrderByFechaHoraAsc(String usuario);
+
+    /**
+     * Registros en un rango de fechas, ambos extremos incluidos (índice fecha).
+     */
+    List<RegistroAuditoria> findByFechaHoraBetweenOrderByFechaHoraAsc(LocalDateTime inicio, LocalDateTime fin);
+}
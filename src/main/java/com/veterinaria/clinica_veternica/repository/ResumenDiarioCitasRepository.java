@@ -0,0 +1,97 @@
+package com.veterinaria.clinica_veternica.repository;
+
+import com.veterinaria.clinica_veternica.domain.agenda.ConteoCitasVeterinario;
+import com.veterinaria.clinica_veternica.domain.agenda.ResumenCitasDia;
+import com.veterinaria.clinica_veternica.domain.agenda.ResumenDiarioCitas;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para la entidad ResumenDiarioCitas.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+@Repository
+public interface ResumenDiarioCitasRepository extends JpaRepository<ResumenDiarioCitas, Long> {
+
+    /**
+     * Elimina el resumen de los días de un rango (inclusive).
+     *
+     * @return Número de filas eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM ResumenDiarioCitas r WHERE r.fecha BETWEEN :inicio AND :fin")
+    int eliminarRango(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
+    /**
+     * Elimina el resumen de los días fuera de un rango (citas que ya no existen).
+     *
+     * @return Número de filas eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM ResumenDiarioCitas r WHERE r.fecha < :inicio OR r.fecha > :fin")
+    int eliminarFueraDeRango(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
+    /**
+     * Recalcula el resumen de los días de un rango (inclusive) a partir de las citas, con un
+     * solo INSERT ... SELECT agrupado; debe ejecutarse después de {@link #eliminarRango}.
+     *
+     * @return Número de filas insertadas
+     */
+    @Modifying
+    @Query("INSERT INTO ResumenDiarioCitas (fecha, idVeterinario, idServicio, estado, totalCitas, ingresos, actualizadoEn) " +
+           "SELECT c.fechaCita, c.veterinario.idPersonal, c.servicio.idServicio, c.estado, COUNT(c), SUM(c.precioFinal), :ahora " +
+           "FROM Cita c WHERE c.fechaCita BETWEEN :inicio AND :fin " +
+           "GROUP BY c.fechaCita, c.veterinario.idPersonal, c.servicio.idServicio, c.estado")
+    int insertarDesdeCitas(@Param("inicio") LocalDate inicio,
+                           @Param("fin") LocalDate fin,
+                           @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Suma el resumen de un rango por día y estado.
+     *
+     * @return Totales ordenados por fecha y estado
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.domain.agenda.ResumenCitasDia(" +
+           "r.fecha, r.estado, SUM(r.totalCitas), SUM(r.ingresos)) " +
+           "FROM ResumenDiarioCitas r WHERE r.fecha BETWEEN :inicio AND :fin " +
+           "GROUP BY r.fecha, r.estado " +
+           "ORDER BY r.fecha, r.estado")
+    List<ResumenCitasDia> sumarPorDiaYEstado(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
+    /**
+     * Suma el resumen de un rango por veterinario y estado, con los datos del veterinario.
+     *
+     * @return Totales ordenados por veterinario y estado
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.domain.agenda.ConteoCitasVeterinario(" +
+           "v.idPersonal, v.nombres, v.apellidos, v.especialidad, r.estado, SUM(r.totalCitas)) " +
+           "FROM ResumenDiarioCitas r JOIN Veterinario v ON v.idPersonal = r.idVeterinario " +
+           "WHERE r.fecha BETWEEN :inicio AND :fin " +
+           "GROUP BY v.idPersonal, v.nombres, v.apellidos, v.especialidad, r.estado " +
+           "ORDER BY v.idPersonal, r.estado")
+    List<ConteoCitasVeterinario> sumarPorVeterinarioYEstado(@Param("inicio") LocalDate inicio,
+                                                            @Param("fin") LocalDate fin);
+
+    /**
+     * Obtiene la fecha de la primera cita registrada (para la reconstrucción completa).
+     */
+    @Query("SELECT MIN(c.fechaCita) FROM Cita c")
+    Optional<LocalDate> findPrimeraFechaCita();
+
+    /**
+     * Obtiene la fecha de la última cita registrada (para la reconstrucción completa).
+     */
+    @Query("SELECT MAX(c.fechaCita) FROM Cita c")
+    Optional<LocalDate> findUltimaFechaCita();
+}
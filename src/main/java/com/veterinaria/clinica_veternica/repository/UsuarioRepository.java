@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,6 +47,15 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     @Query("SELECT u FROM Usuario u WHERE LOWER(u.email) = LOWER(:email)")
     Optional<Usuario> findByEmail(@Param("email") String email);
 
+    /**
+     * Busca los usuarios de varios emails en una sola consulta (case-insensitive).
+     *
+     * @param emails Emails en minúsculas
+     * @return Usuarios encontrados
+     */
+    @Query("SELECT u FROM Usuario u WHERE LOWER(u.email) IN :emails")
+    List<Usuario> findByEmailsEnMinusculas(@Param("emails") Collection<String> emails);
+
     /**
      * Busca usuarios por rol.
      *
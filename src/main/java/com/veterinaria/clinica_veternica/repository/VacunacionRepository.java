@@ -1,15 +1,22 @@
 package com.veterinaria.clinica_veternica.repository;
 
+import com.veterinaria.clinica_veternica.domain.clinico.DosisPendiente;
 import com.veterinaria.clinica_veternica.domain.clinico.Vacunacion;
 import com.veterinaria.clinica_veternica.domain.clinico.HistoriaClinica;
 import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad Vacunacion.
@@ -36,6 +43,83 @@ public interface VacunacionRepository extends JpaRepository<Vacunacion, Long> {
     List<Vacunacion> findVacunacionesConProximaDosis(@Param("inicio") LocalDate inicio,
                                                        @Param("fin") LocalDate fin);
 
+    /**
+     * Página keyset de las próximas dosis pendientes en un rango de fechas, ordenadas por
+     * (fechaProximaDosis, idVacunacion). Recorre el rango del índice
+     * idx_vacunacion_proxima_pendiente, así que el costo depende de las dosis del rango y
+     * no del total de vacunaciones.
+     *
+     * Por mascota y vacuna solo cuenta la última aplicación: la próxima dosis de una
+     * aplicación anterior ya la reemplazó la siguiente. Las dosis de propietarios sin email
+     * se omiten: el recordatorio se envía por email y no se podría despachar.
+     *
+     * @param desde Fecha inicial (inclusive)
+     * @param hasta Fecha final (inclusive)
+     * @param despuesDeFecha Fecha de la última dosis devuelta (desde - 1 día para la primera página)
+     * @param despuesDeId ID de la última vacunación devuelta (0 para la primera página)
+     * @param limit Número máximo de filas
+     * @return Dosis pendientes con los datos del propietario
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.domain.clinico.DosisPendiente(" +
+           "v.idVacunacion, m.idMascota, m.nombre, v.nombreVacuna, v.fechaProximaDosis, " +
+           "p.nombres, p.apellidos, p.email) " +
+           "FROM Vacunacion v JOIN v.mascota m JOIN m.propietario p " +
+           "WHERE v.esquemaCompleto = false AND v.vigente = true " +
+           "AND v.fechaProximaDosis BETWEEN :desde AND :hasta " +
+           "AND (v.fechaProximaDosis > :despuesDeFecha " +
+           "     OR (v.fechaProximaDosis = :despuesDeFecha AND v.idVacunacion > :despuesDeId)) " +
+           "AND m.activo = true AND p.email IS NOT NULL " +
+           "AND NOT EXISTS (SELECT 1 FROM Vacunacion posterior WHERE posterior.mascota = v.mascota " +
+           "    AND posterior.nombreVacuna = v.nombreVacuna " +
+           "    AND (posterior.fechaAplicacion > v.fechaAplicacion " +
+           "         OR (posterior.fechaAplicacion = v.fechaAplicacion AND posterior.idVacunacion > v.idVacunacion))) " +
+           "ORDER BY v.fechaProximaDosis, v.idVacunacion")
+    List<DosisPendiente> findDosisPendientes(@Param("desde") LocalDate desde,
+                                             @Param("hasta") LocalDate hasta,
+                                             @Param("despuesDeFecha") LocalDate despuesDeFecha,
+                                             @Param("despuesDeId") Long despuesDeId,
+                                             Limit limit);
+
+    /**
+     * Primera próxima dosis pendiente posterior a una fecha, con los mismos filtros que
+     * findDosisPendientes, para no programar revisiones por dosis que no generan recordatorio.
+     *
+     * @param fecha Fecha de referencia (exclusive)
+     * @return Fecha de la primera dosis pendiente, o null si no hay
+     */
+    @Query("SELECT MIN(v.fechaProximaDosis) " +
+           "FROM Vacunacion v JOIN v.mascota m JOIN m.propietario p " +
+           "WHERE v.esquemaCompleto = false AND v.vigente = true AND v.fechaProximaDosis > :fecha " +
+           "AND m.activo = true AND p.email IS NOT NULL " +
+           "AND NOT EXISTS (SELECT 1 FROM Vacunacion posterior WHERE posterior.mascota = v.mascota " +
+           "    AND posterior.nombreVacuna = v.nombreVacuna " +
+           "    AND (posterior.fechaAplicacion > v.fechaAplicacion " +
+           "         OR (posterior.fechaAplicacion = v.fechaAplicacion AND posterior.idVacunacion > v.idVacunacion)))")
+    LocalDate findPrimeraProximaDosisDespuesDe(@Param("fecha") LocalDate fecha);
+
     @Query("SELECT v FROM Vacunacion v WHERE v.nombreVacuna LIKE %:nombre%")
     List<Vacunacion> buscarPorNombreVacuna(@Param("nombre") String nombre);
+
+    /**
+     * Página keyset de vacunaciones con ID mayor al indicado (0 para la primera página).
+     *
+     * @param despuesDe ID de la última vacunación devuelta
+     * @param limit Número máximo de filas
+     * @return Vacunaciones con veterinario cargado
+     */
+    @Query("SELECT v FROM Vacunacion v LEFT JOIN FETCH v.veterinario " +
+           "WHERE v.idVacunacion > :despuesDe ORDER BY v.idVacunacion")
+    List<Vacunacion> findPaginaKeyset(@Param("despuesDe") Long despuesDe, Limit limit);
+
+    /**
+     * Todas las vacunaciones en streaming (usar dentro de una transacción y cerrar el Stream).
+     *
+     * @return Stream de vacunaciones con veterinario cargado
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingUtils.FETCH_SIZE_HINT),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM Vacunacion v LEFT JOIN FETCH v.veterinario ORDER BY v.idVacunacion")
+    Stream<Vacunacion> streamTodas();
 }
@@ -0,0 +1,47 @@
+package com.veterinaria.clinica_veternica.repository;
+
+import com.veterinaria.clinica_veternica.domain.clinico.VersionHistoriaClinica;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio para las versiones (mementos) de historias clínicas (solo inserción).
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-26
+ */
+@Repository
+public interface VersionHistoriaClinicaRepository extends JpaRepository<VersionHistoriaClinica, Long> {
+
+    /**
+     * Obtiene el número de la última versión guardada de una historia clínica.
+     *
+     * @param idHistoriaClinica ID de la historia clínica
+     * @return Última versión, o null si no tiene versiones
+     */
+    @Query("SELECT MAX(v.version) FROM VersionHistoriaClinica v WHERE v.idHistoriaClinica = :idHistoriaClinica")
+    Integer findUltimaVersion(@Param("idHistoriaClinica") Long idHistoriaClinica);
+
+    /**
+     * Obtiene en una sola consulta lo necesario para reconstruir una versión: el último
+     * snapshot anterior o igual a ella y los deltas posteriores hasta la versión pedida.
+     *
+     * @param idHistoriaClinica ID de la historia clínica
+     * @param version Versión a reconstruir
+     * @return Filas ordenadas por versión, empezando por el snapshot
+     */
+    @Query("SELECT v FROM VersionHistoriaClinica v " +
+           "WHERE v.idHistoriaClinica = :idHistoriaClinica AND v.version <= :version " +
+           "AND v.version >= (SELECT MAX(s.version) FROM VersionHistoriaClinica s " +
+           "WHERE s.idHistoriaClinica = :idHistoriaClinica AND s.completa = true AND s.version <= :version) " +
+           "ORDER BY v.version")
+    List<VersionHistoriaClinica> findCadenaHasta(@Param("idHistoriaClinica") Long idHistoriaClinica,
+                                                 @Param("version") int version);
+
+    List<VersionHistoriaClinica> findByIdHistoriaClinicaOrderByVersion(Long idHistoriaClinica);
+}
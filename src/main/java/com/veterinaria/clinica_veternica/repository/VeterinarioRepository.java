@@ -1,13 +1,27 @@
 package com.veterinaria.clinica_veternica.repository;
 
 import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
+import com.veterinaria.clinica_veternica.service.busqueda.DocumentoBusqueda;
+import com.veterinaria.clinica_veternica.service.importacion.ClaveImportacion;
+import com.veterinaria.clinica_veternica.util.ConteoPorId;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad Veterinario.
@@ -101,6 +115,19 @@ public interface VeterinarioRepository extends JpaRepository<Veterinario, Long>
     @Query("SELECT v FROM Veterinario v WHERE v.usuario.idUsuario = :idUsuario")
     Optional<Veterinario> findByUsuarioId(@Param("idUsuario") Long idUsuario);
 
+    /**
+     * Bloquea la fila del veterinario hasta el final de la transacción actual.
+     * Serializa las reservas de un mismo veterinario: la comprobación de solapes
+     * de una reserva ve las citas confirmadas por las reservas concurrentes.
+     *
+     * @param idVeterinario ID del veterinario
+     * @return Optional con el veterinario bloqueado
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("SELECT v FROM Veterinario v WHERE v.idPersonal = :idVeterinario")
+    Optional<Veterinario> bloquearParaReserva(@Param("idVeterinario") Long idVeterinario);
+
     /**
      * Busca un veterinario por su usuario asociado, cargando la relación usuario.
      *
@@ -202,4 +229,77 @@ public interface VeterinarioRepository extends JpaRepository<Veterinario, Long>
      */
     @Query("SELECT v FROM Veterinario v WHERE v.activo = true ORDER BY v.aniosExperiencia DESC")
     List<Veterinario> findVeterinariosOrdenadosPorExperiencia();
+
+    /**
+     * Página keyset de nombres de veterinarios para cargar el índice de búsqueda.
+     *
+     * @param despuesDe ID del último veterinario devuelto (0 para la primera página)
+     * @param limit Número máximo de filas
+     * @return ID, nombres y apellidos de cada veterinario, ordenados por ID
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.service.busqueda.DocumentoBusqueda(" +
+           "v.idPersonal, v.nombres, v.apellidos) " +
+           "FROM Veterinario v WHERE v.idPersonal > :despuesDe ORDER BY v.idPersonal")
+    List<DocumentoBusqueda> findDocumentosBusqueda(@Param("despuesDe") Long despuesDe, Limit limit);
+
+    /**
+     * Documento e ID de todos los veterinarios (importación masiva de citas).
+     *
+     * @return Documento e ID de cada veterinario
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.service.importacion.ClaveImportacion(" +
+           "v.documento, v.idPersonal) FROM Veterinario v")
+    List<ClaveImportacion> findClavesPorDocumento();
+
+    /**
+     * Página keyset de veterinarios con ID mayor al indicado (0 para la primera página).
+     *
+     * @param despuesDe ID del último veterinario devuelto
+     * @param soloActivos true para devolver solo veterinarios activos
+     * @param limit Número máximo de filas
+     * @return Veterinarios con usuario cargado, ordenados por ID
+     */
+    @Query("SELECT v FROM Veterinario v " +
+           "LEFT JOIN FETCH v.usuario " +
+           "WHERE v.idPersonal > :despuesDe AND (:soloActivos = false OR v.activo = true) " +
+           "ORDER BY v.idPersonal")
+    List<Veterinario> findPaginaKeyset(@Param("despuesDe") Long despuesDe,
+                                       @Param("soloActivos") boolean soloActivos,
+                                       Limit limit);
+
+    /**
+     * Veterinarios en streaming (usar dentro de una transacción y cerrar el Stream).
+     *
+     * @param soloActivos true para devolver solo veterinarios activos
+     * @return Stream de veterinarios con usuario cargado, ordenados por ID
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingUtils.FETCH_SIZE_HINT),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM Veterinario v " +
+           "LEFT JOIN FETCH v.usuario " +
+           "WHERE (:soloActivos = false OR v.activo = true) " +
+           "ORDER BY v.idPersonal")
+    Stream<Veterinario> streamTodos(@Param("soloActivos") boolean soloActivos);
+
+    /**
+     * Número de citas de cada veterinario indicado, en una sola consulta.
+     *
+     * @param ids IDs de los veterinarios
+     * @return Conteos por veterinario (los que no tienen citas no aparecen)
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.util.ConteoPorId(c.veterinario.idPersonal, COUNT(c)) " +
+           "FROM Cita c WHERE c.veterinario.idPersonal IN :ids GROUP BY c.veterinario.idPersonal")
+    List<ConteoPorId> contarCitas(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Número de horarios de cada veterinario indicado, en una sola consulta.
+     *
+     * @param ids IDs de los veterinarios
+     * @return Conteos por veterinario (los que no tienen horarios no aparecen)
+     */
+    @Query("SELECT new com.veterinaria.clinica_veternica.util.ConteoPorId(h.veterinario.idPersonal, COUNT(h)) " +
+           "FROM Horario h WHERE h.veterinario.idPersonal IN :ids GROUP BY h.veterinario.idPersonal")
+    List<ConteoPorId> contarHorarios(@Param("ids") Collection<Long> ids);
 }
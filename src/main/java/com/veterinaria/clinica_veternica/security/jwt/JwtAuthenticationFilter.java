@@ -1,6 +1,5 @@
 package com.veterinaria.clinica_veternica.security.jwt;
 
-import com.veterinaria.clinica_veternica.security.service.UserDetailsServiceImpl;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -16,10 +15,13 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * Filtro que intercepta cada petición HTTP para validar el token JWT.
  * Se ejecuta una vez por petición.
+ * La validación de la firma y la carga del usuario se reutilizan entre peticiones
+ * mediante JwtPrincipalCache.
  */
 @Component
 @RequiredArgsConstructor
@@ -27,7 +29,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final JwtPrincipalCache principalCache;
     private final JwtProperties jwtProperties;
 
     /**
@@ -47,13 +49,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Extraer el token JWT del header
             String jwt = parseJwt(request);
 
-            // Validar y procesar el token
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                // Obtener el username del token
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
-
-                // Cargar los detalles del usuario desde la base de datos
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // Validar el token y obtener el usuario (en caché tras la primera petición)
+            Optional<UserDetails> principal = jwt != null ? principalCache.autenticar(jwt) : Optional.empty();
+            if (principal.isPresent()) {
+                UserDetails userDetails = principal.get();
 
                 // Crear el objeto de autenticación
                 UsernamePasswordAuthenticationToken authentication =
@@ -68,7 +67,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 // Establecer la autenticación en el contexto de seguridad
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                log.debug("Usuario autenticado: {}", username);
+                log.debug("Usuario autenticado: {}", userDetails.getUsername());
             }
         } catch (JwtException | IllegalArgumentException e) {
             log.error("No se puede establecer la autenticación del usuario: {}", e.getMessage(), e);
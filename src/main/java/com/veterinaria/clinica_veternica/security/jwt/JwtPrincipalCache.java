@@ -0,0 +1,119 @@
+package com.veterinaria.clinica_veternica.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.veterinaria.clinica_veternica.config.EnrutadorReplicas;
+import com.veterinaria.clinica_veternica.security.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Caché de la autenticación JWT para JwtAuthenticationFilter.
+ *
+ * CARACTERÍSTICAS:
+ * - Tokens validados: la firma de un mismo token se verifica una sola vez; la entrada
+ *   vence cuando vence el token
+ * - Usuarios autenticados por username: sin consulta a la base de datos mientras dure
+ *   la entrada (jwt.principal-cache-ttl)
+ * - Los cambios de un Usuario (bloqueo, contraseña, rol, estado) invalidan su entrada,
+ *   vía JwtPrincipalCacheListener, antes y después del commit
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Component
+public class JwtPrincipalCache {
+
+    private final JwtUtils jwtUtils;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final Cache<String, TokenValidado> tokens;
+    private final Cache<String, UserDetails> principales;
+
+    public JwtPrincipalCache(JwtUtils jwtUtils,
+                             UserDetailsServiceImpl userDetailsService,
+                             JwtProperties jwtProperties) {
+        this.jwtUtils = jwtUtils;
+        this.userDetailsService = userDetailsService;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getPrincipalCacheMaxSize())
+                .expireAfter(Expiry.creating((String token, TokenValidado validado) ->
+                        Duration.between(Instant.now(), validado.expiraEn())))
+                .build();
+        this.principales = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getPrincipalCacheMaxSize())
+                .expireAfterWrite(Duration.ofMillis(jwtProperties.getPrincipalCacheTtl()))
+                .build();
+    }
+
+    /**
+     * Obtiene el usuario autenticado por un token.
+     *
+     * @param jwt Token JWT (sin el prefijo "Bearer ")
+     * @return UserDetails del usuario, o vacío si el token no es válido o ya expiró
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException
+     *         si el usuario no existe, está inactivo o bloqueado
+     */
+    public Optional<UserDetails> autenticar(String jwt) {
+        TokenValidado token = tokens.getIfPresent(jwt);
+        if (token == null) {
+            Optional<Claims> claims = jwtUtils.parseValidClaims(jwt);
+            if (claims.isEmpty() || claims.get().getExpiration() == null) {
+                return Optional.empty();
+            }
+            token = new TokenValidado(claims.get().getSubject(), claims.get().getExpiration().toInstant());
+            tokens.put(jwt, token);
+        }
+        if (!token.expiraEn().isAfter(Instant.now())) {
+            tokens.invalidate(jwt);
+            return Optional.empty();
+        }
+        // Sin autenticación todavía no aplica la lectura propia del enrutador: un usuario bloqueado
+        // leído de una réplica con retraso quedaría en caché sin bloquear
+        return Optional.of(principales.get(token.username(),
+                username -> EnrutadorReplicas.enPrincipal(() -> userDetailsService.loadUserByUsername(username))));
+    }
+
+    /**
+     * Descarta el usuario en caché ahora y, si hay una transacción en curso, también tras el
+     * commit, para que una petición concurrente no vuelva a guardar los datos anteriores.
+     *
+     * @param username Username del usuario modificado
+     */
+    public void invalidarUsuario(String username) {
+        if (username == null) {
+            return;
+        }
+        principales.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principales.invalidate(username);
+                }
+            });
+        }
+        log.debug("Usuario autenticado invalidado en caché: {}", username);
+    }
+
+    /**
+     * Descarta todos los tokens validados y usuarios en caché.
+     */
+    public void invalidarTodo() {
+        tokens.invalidateAll();
+        principales.invalidateAll();
+    }
+
+    private record TokenValidado(String username, Instant expiraEn) {
+    }
+}
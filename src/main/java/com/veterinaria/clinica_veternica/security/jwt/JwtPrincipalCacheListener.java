@@ -0,0 +1,37 @@
+package com.veterinaria.clinica_veternica.security.jwt;
+
+import com.veterinaria.clinica_veternica.domain.usuario.Usuario;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Entity listener JPA que invalida el usuario autenticado en JwtPrincipalCache cuando
+ * cambia un Usuario (bloqueo, contraseña, rol, estado) o se elimina.
+ *
+ * Hibernate lo instancia a través del contenedor de Spring; la caché se obtiene de forma
+ * diferida para no depender de ella mientras se crea el EntityManagerFactory.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-22
+ */
+public class JwtPrincipalCacheListener {
+
+    private final ObjectProvider<JwtPrincipalCache> principalCache;
+
+    public JwtPrincipalCacheListener(ObjectProvider<JwtPrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void alCambiar(Usuario usuario) {
+        JwtPrincipalCache cache = principalCache.getIfAvailable();
+        if (cache != null) {
+            cache.invalidarUsuario(usuario.getUsername());
+        }
+    }
+}
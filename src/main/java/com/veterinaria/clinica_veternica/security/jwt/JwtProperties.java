@@ -44,4 +44,16 @@ public class JwtProperties {
      * Por defecto: 604800000 ms = 7 días
      */
     private Long refreshExpiration = 604800000L;
+
+    /**
+     * Vigencia en milisegundos de un usuario autenticado en caché (sin volver a la base de datos).
+     * Los cambios del usuario (bloqueo, contraseña, rol) la invalidan antes.
+     * Por defecto: 300000 ms = 5 minutos
+     */
+    private Long principalCacheTtl = 300000L;
+
+    /**
+     * Número máximo de usuarios y de tokens validados en caché.
+     */
+    private Long principalCacheMaxSize = 10000L;
 }
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Optional;
 
 /**
  * Utilidad para generar y validar tokens JWT.
@@ -22,6 +23,11 @@ public class JwtUtils {
 
     private final JwtProperties jwtProperties;
 
+    /**
+     * Parser reutilizable (inmutable y thread-safe), creado en el primer uso.
+     */
+    private volatile JwtParser parser;
+
     /**
      * Genera la clave secreta a partir de la cadena configurada.
      *
@@ -32,6 +38,15 @@ public class JwtUtils {
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
+    private JwtParser getParser() {
+        JwtParser actual = parser;
+        if (actual == null) {
+            actual = Jwts.parser().verifyWith(getSigningKey()).build();
+            parser = actual;
+        }
+        return actual;
+    }
+
     /**
      * Genera un token JWT para un usuario autenticado.
      *
@@ -68,9 +83,7 @@ public class JwtUtils {
      * @return Username
      */
     public String getUsernameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload()
                 .getSubject();
@@ -83,12 +96,19 @@ public class JwtUtils {
      * @return true si el token es válido
      */
     public boolean validateJwtToken(String authToken) {
+        return parseValidClaims(authToken).isPresent();
+    }
+
+    /**
+     * Valida la firma y la expiración de un token y devuelve sus claims,
+     * con una sola verificación de firma.
+     *
+     * @param authToken Token JWT a validar
+     * @return Claims del token, o vacío si no es válido
+     */
+    public Optional<Claims> parseValidClaims(String authToken) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
+            return Optional.of(getParser().parseSignedClaims(authToken).getPayload());
         } catch (MalformedJwtException e) {
             log.error("Token JWT malformado: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -100,7 +120,7 @@ public class JwtUtils {
         } catch (io.jsonwebtoken.security.SecurityException e) {
             log.error("Error de seguridad en token JWT: {}", e.getMessage());
         }
-        return false;
+        return Optional.empty();
     }
 
     /**
@@ -123,9 +143,7 @@ public class JwtUtils {
      * @return Fecha de expiración
      */
     public Date getExpirationDateFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload()
                 .getExpiration();
@@ -1,19 +1,11 @@
 package com.veterinaria.clinica_veternica.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.veterinaria.clinica_veternica.service.comunicacion.ClienteSendGrid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Servicio para envío de correos electrónicos usando SendGrid API.
@@ -26,23 +18,13 @@ import java.util.Map;
 @Service
 public class EmailService {
 
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
-
-    @Value("${sendgrid.api.key:}")
-    private String sendgridApiKey;
+    private final ClienteSendGrid clienteSendGrid;
 
     @Value("${spring.mail.username:${MAIL_USERNAME:miguelitorodriguezaranzazu@gmail.com}}")
     private String fromEmail;
 
-    @Value("${app.email.from-name:Clínica Veterinaria}")
-    private String fromName;
-
-    private static final String SENDGRID_API_URL = "https://api.sendgrid.com/v3/mail/send";
-
-    public EmailService() {
-        this.restTemplate = new RestTemplate();
-        this.objectMapper = new ObjectMapper();
+    public EmailService(ClienteSendGrid clienteSendGrid) {
+        this.clienteSendGrid = clienteSendGrid;
     }
 
     /**
@@ -76,82 +58,8 @@ public class EmailService {
      * @return true si se envió correctamente, false en caso contrario
      */
     public boolean enviarEmailHtml(String to, String subject, String htmlContent) {
-        if (sendgridApiKey == null || sendgridApiKey.trim().isEmpty()) {
-            log.error("SendGrid API Key no configurada. Configure la variable de entorno SENDGRID_API_KEY");
-            return false;
-        }
-
         try {
-            // Construir el payload para SendGrid API
-            Map<String, Object> payload = new HashMap<>();
-            
-            // From
-            Map<String, String> from = new HashMap<>();
-            from.put("email", fromEmail);
-            from.put("name", fromName);
-            payload.put("from", from);
-            
-            // To
-            Map<String, String> toEmail = new HashMap<>();
-            toEmail.put("email", to);
-            Map<String, Object> personalization = new HashMap<>();
-            personalization.put("to", List.of(toEmail));
-            payload.put("personalizations", List.of(personalization));
-            
-            // Subject
-            payload.put("subject", subject);
-            
-            // Content
-            Map<String, String> content = new HashMap<>();
-            content.put("type", "text/html");
-            content.put("value", htmlContent);
-            payload.put("content", List.of(content));
-
-            // Headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(sendgridApiKey);
-
-            // Request
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
-
-            // Enviar
-            ResponseEntity<String> response = restTemplate.exchange(
-                    SENDGRID_API_URL,
-                    HttpMethod.POST,
-                    request,
-                    String.class
-            );
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                log.info("Correo HTML enviado exitosamente a: {} - Asunto: {}", to, subject);
-                return true;
-            } else {
-                log.error("Error al enviar correo HTML a {}: Status {} - {}", 
-                        to, response.getStatusCode(), response.getBody());
-                return false;
-            }
-        } catch (org.springframework.web.client.HttpClientErrorException e) {
-            String errorBody = e.getResponseBodyAsString();
-            log.error("Error HTTP al enviar correo HTML a {}: Status {} - Response: {}", 
-                    to, e.getStatusCode(), errorBody, e);
-            
-            // Log específico para errores comunes de SendGrid
-            if (errorBody != null) {
-                if (errorBody.contains("The from address does not match a verified Sender Identity")) {
-                    log.error("⚠️ El correo remitente '{}' no está verificado en SendGrid. " +
-                            "Ve a SendGrid → Settings → Sender Authentication y verifica el correo.", fromEmail);
-                } else if (errorBody.contains("Invalid API key")) {
-                    log.error("⚠️ API Key de SendGrid inválida. Verifica la variable SENDGRID_API_KEY en Render.");
-                } else if (errorBody.contains("Forbidden")) {
-                    log.error("⚠️ Acceso denegado. Verifica que la API Key tenga permisos de envío de emails.");
-                }
-            }
-            return false;
-        } catch (org.springframework.web.client.ResourceAccessException e) {
-            log.error("Error de conexión al enviar correo HTML a {}: {}. Verifica la conectividad a internet.", 
-                    to, e.getMessage(), e);
-            return false;
+            return clienteSendGrid.enviar(List.of(to), subject, htmlContent).exitoso();
         } catch (Exception e) {
             log.error("Error inesperado al enviar correo HTML a {}: {} - Tipo: {}", 
                     to, e.getMessage(), e.getClass().getSimpleName(), e);
@@ -160,7 +68,8 @@ public class EmailService {
     }
 
     /**
-     * Envía un correo a múltiples destinatarios usando SendGrid API.
+     * Envía un correo a múltiples destinatarios usando SendGrid API, en una sola petición
+     * con una personalización por destinatario.
      *
      * @param to      Array de direcciones de correo
      * @param subject Asunto del correo
@@ -168,87 +77,12 @@ public class EmailService {
      * @return true si se envió correctamente, false en caso contrario
      */
     public boolean enviarEmailMultiple(String[] to, String subject, String text) {
-        if (sendgridApiKey == null || sendgridApiKey.trim().isEmpty()) {
-            log.error("SendGrid API Key no configurada. Configure la variable de entorno SENDGRID_API_KEY");
-            return false;
-        }
-
         try {
             // Convertir texto a HTML
             String htmlContent = text.replace("\n", "<br/>");
             String htmlFinal = generarTemplateHtml(subject, "<p>" + htmlContent + "</p>", "info");
 
-            // Construir el payload para SendGrid API
-            Map<String, Object> payload = new HashMap<>();
-            
-            // From
-            Map<String, String> from = new HashMap<>();
-            from.put("email", fromEmail);
-            from.put("name", fromName);
-            payload.put("from", from);
-            
-            // To - múltiples destinatarios
-            List<Map<String, String>> toList = java.util.Arrays.stream(to)
-                    .map(email -> {
-                        Map<String, String> emailMap = new HashMap<>();
-                        emailMap.put("email", email);
-                        return emailMap;
-                    })
-                    .toList();
-            Map<String, Object> personalization = new HashMap<>();
-            personalization.put("to", toList);
-            payload.put("personalizations", List.of(personalization));
-            
-            // Subject
-            payload.put("subject", subject);
-            
-            // Content
-            Map<String, String> content = new HashMap<>();
-            content.put("type", "text/html");
-            content.put("value", htmlFinal);
-            payload.put("content", List.of(content));
-
-            // Headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(sendgridApiKey);
-
-            // Request
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
-
-            // Enviar
-            ResponseEntity<String> response = restTemplate.exchange(
-                    SENDGRID_API_URL,
-                    HttpMethod.POST,
-                    request,
-                    String.class
-            );
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                log.info("Correo enviado exitosamente a {} destinatarios - Asunto: {}", to.length, subject);
-                return true;
-            } else {
-                log.error("Error al enviar correo a múltiples destinatarios: Status {} - {}", 
-                        response.getStatusCode(), response.getBody());
-                return false;
-            }
-        } catch (org.springframework.web.client.HttpClientErrorException e) {
-            String errorBody = e.getResponseBodyAsString();
-            log.error("Error HTTP al enviar correo a múltiples destinatarios: Status {} - Response: {}", 
-                    e.getStatusCode(), errorBody, e);
-            
-            // Log específico para errores comunes de SendGrid
-            if (errorBody != null) {
-                if (errorBody.contains("The from address does not match a verified Sender Identity")) {
-                    log.error("⚠️ El correo remitente '{}' no está verificado en SendGrid.", fromEmail);
-                } else if (errorBody.contains("Invalid API key")) {
-                    log.error("⚠️ API Key de SendGrid inválida. Verifica la variable SENDGRID_API_KEY.");
-                }
-            }
-            return false;
-        } catch (org.springframework.web.client.ResourceAccessException e) {
-            log.error("Error de conexión al enviar correo a múltiples destinatarios: {}", e.getMessage(), e);
-            return false;
+            return clienteSendGrid.enviar(List.of(to), subject, htmlFinal).exitoso();
         } catch (Exception e) {
             log.error("Error al enviar correo a múltiples destinatarios: {} - Tipo: {}", 
                     e.getMessage(), e.getClass().getSimpleName(), e);
@@ -256,6 +90,25 @@ public class EmailService {
         }
     }
 
+    /**
+     * Prepara el contenido de una comunicación para enviarlo como HTML: si ya es HTML se usa
+     * tal cual; si es texto plano se aplica el template con el asunto como título.
+     *
+     * @param asunto    Asunto de la comunicación
+     * @param contenido Contenido (HTML o texto plano)
+     * @return HTML listo para enviar
+     */
+    public String prepararContenidoHtml(String asunto, String contenido) {
+        if (contenido != null && (contenido.contains("<html")
+                || contenido.contains("<div") || contenido.contains("<p>"))) {
+            return contenido;
+        }
+        String contenidoHtml = contenido == null ? "" : contenido
+                .replace("\n\n", "</p><p>")
+                .replace("\n", "<br>");
+        return generarTemplateHtml(asunto, "<p>" + contenidoHtml + "</p>", "info");
+    }
+
     /**
      * Genera un template HTML profesional y moderno para emails.
      *
@@ -0,0 +1,18 @@
+package com.veterinaria.clinica_veternica.service.busqueda;
+
+/**
+ * Fila mínima que se carga para indexar una entidad en la búsqueda: su ID y el texto buscable.
+ *
+ * @param id ID de la entidad
+ * @param texto Texto indexado (nombre, o nombres y apellidos)
+ */
+public record DocumentoBusqueda(Long id, String texto) {
+
+    public DocumentoBusqueda(Long id, String nombres, String apellidos) {
+        this(id, nombreCompleto(nombres, apellidos));
+    }
+
+    public static String nombreCompleto(String nombres, String apellidos) {
+        return (nombres == null ? "" : nombres) + " " + (apellidos == null ? "" : apellidos);
+    }
+}
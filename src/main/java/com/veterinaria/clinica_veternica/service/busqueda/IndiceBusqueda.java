@@ -0,0 +1,222 @@
+package com.veterinaria.clinica_veternica.service.busqueda;
+
+import com.veterinaria.clinica_veternica.config.BusquedaProperties;
+import com.veterinaria.clinica_veternica.repository.MascotaRepository;
+import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
+import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Índice de búsqueda por nombre de mascotas, propietarios y veterinarios.
+ *
+ * CARACTERÍSTICAS:
+ * - Un IndiceTrigramas en memoria por tipo de entidad: las búsquedas no recorren
+ *   las tablas con LIKE '%término%'
+ * - Se carga al arrancar, en segundo plano y por páginas keyset que solo leen ID y nombre;
+ *   mientras tanto buscar() devuelve vacío y los servicios usan la consulta LIKE
+ * - Se mantiene al día con IndiceBusquedaListener: altas, cambios y bajas de las
+ *   entidades se aplican tras el commit
+ * - Resultados ordenados por relevancia (exacta, prefijo, contenida, parecida)
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Component
+public class IndiceBusqueda {
+
+    /**
+     * Tipos de entidad indexados.
+     */
+    public enum Tipo {
+        MASCOTA, PROPIETARIO, VETERINARIO
+    }
+
+    private final MascotaRepository mascotaRepository;
+    private final PropietarioRepository propietarioRepository;
+    private final VeterinarioRepository veterinarioRepository;
+    private final BusquedaProperties properties;
+    private final Map<Tipo, IndiceTrigramas> indices = new EnumMap<>(Tipo.class);
+
+    /**
+     * Bajas recibidas durante la carga inicial: se vuelven a aplicar al terminarla,
+     * por si la carga leyó la fila antes de que se eliminara.
+     */
+    private final Set<Clave> eliminadosDuranteCarga = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean listo;
+
+    public IndiceBusqueda(MascotaRepository mascotaRepository,
+                          PropietarioRepository propietarioRepository,
+                          VeterinarioRepository veterinarioRepository,
+                          BusquedaProperties properties) {
+        this.mascotaRepository = mascotaRepository;
+        this.propietarioRepository = propietarioRepository;
+        this.veterinarioRepository = veterinarioRepository;
+        this.properties = properties;
+        for (Tipo tipo : Tipo.values()) {
+            indices.put(tipo, new IndiceTrigramas());
+        }
+    }
+
+    /**
+     * Busca por nombre en el índice.
+     *
+     * @param tipo Tipo de entidad
+     * @param termino Término de búsqueda
+     * @return IDs ordenados por relevancia, o vacío si el índice está deshabilitado o cargándose
+     */
+    public Optional<List<Long>> buscar(Tipo tipo, String termino) {
+        if (!isListo()) {
+            return Optional.empty();
+        }
+        return Optional.of(indices.get(tipo).buscar(termino, properties.getMaximoResultados(),
+                properties.getSimilitudMinima()));
+    }
+
+    /**
+     * Indexa (o reindexa) una entidad tras el commit de la transacción en curso.
+     */
+    public void registrar(Tipo tipo, Long id, String texto) {
+        if (id == null) {
+            return;
+        }
+        trasCommit(() -> indices.get(tipo).indexar(id, texto));
+    }
+
+    /**
+     * Quita una entidad del índice tras el commit de la transacción en curso.
+     */
+    public void registrarEliminacion(Tipo tipo, Long id) {
+        if (id == null) {
+            return;
+        }
+        trasCommit(() -> {
+            if (!listo) {
+                eliminadosDuranteCarga.add(new Clave(tipo, id));
+            }
+            indices.get(tipo).eliminar(id);
+        });
+    }
+
+    /**
+     * @return true si el índice está habilitado y terminó la carga inicial
+     */
+    public boolean isListo() {
+        return listo && properties.isIndiceHabilitado();
+    }
+
+    /**
+     * @return Número de entidades indexadas por tipo
+     */
+    public Map<Tipo, Integer> getTamanios() {
+        Map<Tipo, Integer> tamanios = new EnumMap<>(Tipo.class);
+        indices.forEach((tipo, indice) -> tamanios.put(tipo, indice.tamanio()));
+        return tamanios;
+    }
+
+    /**
+     * Lanza la carga inicial en segundo plano cuando la aplicación está lista.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarCarga() {
+        if (!properties.isIndiceHabilitado()) {
+            log.info("Índice de búsqueda deshabilitado: se usan las consultas LIKE");
+            return;
+        }
+        Thread.ofPlatform().name("indice-busqueda-carga").daemon(true).start(this::cargar);
+    }
+
+    /**
+     * Carga todas las entidades por páginas keyset. Es idempotente y no pisa
+     * los cambios que lleguen por eventos mientras dura.
+     */
+    public void cargar() {
+        long inicio = System.nanoTime();
+        try {
+            cargarTipo(Tipo.MASCOTA, mascotaRepository::findDocumentosBusqueda);
+            cargarTipo(Tipo.PROPIETARIO, propietarioRepository::findDocumentosBusqueda);
+            cargarTipo(Tipo.VETERINARIO, veterinarioRepository::findDocumentosBusqueda);
+            for (Clave clave : eliminadosDuranteCarga) {
+                indices.get(clave.tipo()).eliminar(clave.id());
+            }
+            eliminadosDuranteCarga.clear();
+            listo = true;
+            log.info("Índice de búsqueda cargado en {} ms: {}",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio), getTamanios());
+        } catch (RuntimeException e) {
+            log.error("No se pudo cargar el índice de búsqueda; se siguen usando las consultas LIKE", e);
+        }
+    }
+
+    private void cargarTipo(Tipo tipo, BiFunction<Long, Limit, List<DocumentoBusqueda>> pagina) {
+        IndiceTrigramas indice = indices.get(tipo);
+        int lote = Math.max(1, properties.getTamanioLoteCarga());
+        long despuesDe = 0;
+        List<DocumentoBusqueda> documentos;
+        do {
+            documentos = pagina.apply(despuesDe, Limit.of(lote));
+            for (DocumentoBusqueda documento : documentos) {
+                indice.indexarSiAusente(documento.id(), documento.texto());
+                despuesDe = documento.id();
+            }
+        } while (documentos.size() == lote);
+    }
+
+    private void trasCommit(Runnable cambio) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cambio.run();
+                }
+            });
+        } else {
+            cambio.run();
+        }
+    }
+
+    /**
+     * Ordena las entidades cargadas con findAllById según el orden de relevancia de los IDs.
+     *
+     * @param ids IDs en orden de relevancia
+     * @param entidades Entidades en cualquier orden
+     * @param id Extrae el ID de una entidad
+     * @param <T> Tipo de entidad
+     * @return Entidades en el orden de los IDs (las que ya no existen se omiten)
+     */
+    public static <T> List<T> ordenarPorIds(List<Long> ids, Iterable<T> entidades, Function<T, Long> id) {
+        Map<Long, T> porId = new HashMap<>();
+        entidades.forEach(entidad -> porId.put(id.apply(entidad), entidad));
+        List<T> ordenadas = new ArrayList<>(ids.size());
+        for (Long clave : ids) {
+            T entidad = porId.get(clave);
+            if (entidad != null) {
+                ordenadas.add(entidad);
+            }
+        }
+        return ordenadas;
+    }
+
+    private record Clave(Tipo tipo, Long id) {
+    }
+}
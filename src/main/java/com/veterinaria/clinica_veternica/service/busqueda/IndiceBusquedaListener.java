@@ -0,0 +1,60 @@
+package com.veterinaria.clinica_veternica.service.busqueda;
+
+import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
+import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
+import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Entity listener JPA que mantiene IndiceBusqueda al día con las altas, cambios y bajas
+ * de Mascota, Propietario y Veterinario.
+ *
+ * Hibernate lo instancia a través del contenedor de Spring; el índice se obtiene de forma
+ * diferida porque depende de los repositorios, que a su vez necesitan el EntityManagerFactory.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-22
+ */
+public class IndiceBusquedaListener {
+
+    private final ObjectProvider<IndiceBusqueda> indiceBusqueda;
+
+    public IndiceBusquedaListener(ObjectProvider<IndiceBusqueda> indiceBusqueda) {
+        this.indiceBusqueda = indiceBusqueda;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void alGuardar(Object entidad) {
+        IndiceBusqueda indice = indiceBusqueda.getIfAvailable();
+        if (indice == null) {
+            return;
+        }
+        switch (entidad) {
+            case Mascota m -> indice.registrar(IndiceBusqueda.Tipo.MASCOTA, m.getIdMascota(), m.getNombre());
+            case Propietario p -> indice.registrar(IndiceBusqueda.Tipo.PROPIETARIO, p.getIdPropietario(),
+                    DocumentoBusqueda.nombreCompleto(p.getNombres(), p.getApellidos()));
+            case Veterinario v -> indice.registrar(IndiceBusqueda.Tipo.VETERINARIO, v.getIdPersonal(),
+                    DocumentoBusqueda.nombreCompleto(v.getNombres(), v.getApellidos()));
+            default -> { }
+        }
+    }
+
+    @PostRemove
+    public void alEliminar(Object entidad) {
+        IndiceBusqueda indice = indiceBusqueda.getIfAvailable();
+        if (indice == null) {
+            return;
+        }
+        switch (entidad) {
+            case Mascota m -> indice.registrarEliminacion(IndiceBusqueda.Tipo.MASCOTA, m.getIdMascota());
+            case Propietario p -> indice.registrarEliminacion(IndiceBusqueda.Tipo.PROPIETARIO, p.getIdPropietario());
+            case Veterinario v -> indice.registrarEliminacion(IndiceBusqueda.Tipo.VETERINARIO, v.getIdPersonal());
+            default -> { }
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.veterinaria.clinica_veternica.service.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas para un tipo de entidad.
+ *
+ * CARACTERÍSTICAS:
+ * - Cada palabra se normaliza (minúsculas, sin tildes) y se descompone en trigramas con
+ *   relleno, como pg_trgm: "luna" -> "  l", " lu", "lun", "una", "na "
+ * - Solo se evalúan los documentos que comparten suficientes trigramas con el término,
+ *   sin recorrer toda la tabla
+ * - Ranking por palabra del término: exacta > prefijo > contenida > parecida (similitud
+ *   de trigramas), y todas las palabras del término deben coincidir
+ * - Lecturas concurrentes; las escrituras toman el cerrojo exclusivo
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-22
+ */
+final class IndiceTrigramas {
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{Alnum}]+");
+
+    private static final double PUNTAJE_EXACTA = 3.0;
+    private static final double PUNTAJE_PREFIJO = 2.0;
+    private static final double PUNTAJE_CONTENIDA = 1.5;
+
+    private final Map<Long, String[]> documentos = new HashMap<>();
+    private final Map<String, Set<Long>> trigramas = new HashMap<>();
+    private final ReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+    /**
+     * Agrega o reemplaza el texto indexado de un documento.
+     */
+    void indexar(Long id, String texto) {
+        String[] palabras = palabras(texto);
+        cerrojo.writeLock().lock();
+        try {
+            quitar(id);
+            if (palabras.length == 0) {
+                return;
+            }
+            documentos.put(id, palabras);
+            for (String trigrama : trigramasDe(palabras)) {
+                trigramas.computeIfAbsent(trigrama, t -> new HashSet<>()).add(id);
+            }
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega el documento solo si no está indexado (carga inicial, que no debe pisar
+     * cambios más recientes llegados por eventos).
+     */
+    void indexarSiAusente(Long id, String texto) {
+        cerrojo.readLock().lock();
+        try {
+            if (documentos.containsKey(id)) {
+                return;
+            }
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+        indexar(id, texto);
+    }
+
+    void eliminar(Long id) {
+        cerrojo.writeLock().lock();
+        try {
+            quitar(id);
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    int tamanio() {
+        cerrojo.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los documentos que coinciden con todas las palabras del término.
+     *
+     * @param termino Texto buscado
+     * @param limite Número máximo de resultados
+     * @param similitudMinima Similitud de trigramas mínima para aceptar una palabra parecida
+     * @return IDs ordenados de mayor a menor relevancia
+     */
+    List<Long> buscar(String termino, int limite, double similitudMinima) {
+        String[] consulta = palabras(termino);
+        if (consulta.length == 0 || limite <= 0) {
+            return List.of();
+        }
+        cerrojo.readLock().lock();
+        try {
+            Map<Long, Double> puntajes = null;
+            for (String palabra : consulta) {
+                Map<Long, Double> coincidencias = buscarPalabra(palabra, similitudMinima, puntajes);
+                puntajes = puntajes == null ? coincidencias : sumar(puntajes, coincidencias);
+                if (puntajes.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<Map.Entry<Long, Double>> ordenados = new ArrayList<>(puntajes.entrySet());
+            ordenados.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                    .thenComparingInt(e -> longitud(documentos.get(e.getKey())))
+                    .thenComparing(Map.Entry.comparingByKey()));
+            return ordenados.stream().limit(limite).map(Map.Entry::getKey).toList();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Puntaje de cada documento candidato para una palabra del término.
+     *
+     * @param restringirA Documentos que coincidieron con las palabras anteriores, o null
+     */
+    private Map<Long, Double> buscarPalabra(String palabra, double similitudMinima, Map<Long, Double> restringirA) {
+        Set<String> trigramasPalabra = trigramasDe(new String[]{palabra});
+        Map<Long, Integer> compartidos = new HashMap<>();
+        for (String trigrama : trigramasPalabra) {
+            for (Long id : trigramas.getOrDefault(trigrama, Set.of())) {
+                if (restringirA == null || restringirA.containsKey(id)) {
+                    compartidos.merge(id, 1, Integer::sum);
+                }
+            }
+        }
+
+        int minimoCompartidos = minimoCompartidos(palabra, trigramasPalabra.size(), similitudMinima);
+        Map<Long, Double> puntajes = new HashMap<>();
+        for (Map.Entry<Long, Integer> candidato : compartidos.entrySet()) {
+            if (candidato.getValue() < minimoCompartidos) {
+                continue;
+            }
+            double mejor = 0;
+            for (String palabraDocumento : documentos.get(candidato.getKey())) {
+                mejor = Math.max(mejor, puntaje(palabra, trigramasPalabra, palabraDocumento, similitudMinima));
+            }
+            if (mejor > 0) {
+                puntajes.put(candidato.getKey(), mejor);
+            }
+        }
+        return puntajes;
+    }
+
+    /**
+     * Cota inferior de trigramas compartidos: por debajo no puede haber prefijo,
+     * subcadena ni similitud suficiente, y el documento se descarta sin compararlo.
+     */
+    private static int minimoCompartidos(String palabra, int totalTrigramas, double similitudMinima) {
+        if (palabra.length() < 3) {
+            return 1;
+        }
+        int porSubcadena = palabra.length() - 2;
+        int porSimilitud = (int) Math.ceil(similitudMinima * totalTrigramas);
+        return Math.max(1, Math.min(porSubcadena, porSimilitud));
+    }
+
+    private static double puntaje(String palabra, Set<String> trigramasPalabra, String palabraDocumento,
+                                  double similitudMinima) {
+        if (palabraDocumento.equals(palabra)) {
+            return PUNTAJE_EXACTA;
+        }
+        if (palabraDocumento.startsWith(palabra)) {
+            return PUNTAJE_PREFIJO;
+        }
+        if (palabra.length() >= 3 && palabraDocumento.contains(palabra)) {
+            return PUNTAJE_CONTENIDA;
+        }
+        double similitud = similitud(trigramasPalabra, trigramasDe(new String[]{palabraDocumento}));
+        return similitud >= similitudMinima ? similitud : 0;
+    }
+
+    private static double similitud(Set<String> a, Set<String> b) {
+        int comunes = 0;
+        for (String trigrama : a) {
+            if (b.contains(trigrama)) {
+                comunes++;
+            }
+        }
+        int union = a.size() + b.size() - comunes;
+        return union == 0 ? 0 : (double) comunes / union;
+    }
+
+    private static Map<Long, Double> sumar(Map<Long, Double> acumulado, Map<Long, Double> coincidencias) {
+        Map<Long, Double> resultado = new HashMap<>();
+        for (Map.Entry<Long, Double> entrada : coincidencias.entrySet()) {
+            Double previo = acumulado.get(entrada.getKey());
+            if (previo != null) {
+                resultado.put(entrada.getKey(), previo + entrada.getValue());
+            }
+        }
+        return resultado;
+    }
+
+    private void quitar(Long id) {
+        String[] previas = documentos.remove(id);
+        if (previas == null) {
+            return;
+        }
+        for (String trigrama : trigramasDe(previas)) {
+            Set<Long> ids = trigramas.get(trigrama);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    trigramas.remove(trigrama);
+                }
+            }
+        }
+    }
+
+    private static int longitud(String[] palabras) {
+        return palabras == null ? 0 : Arrays.stream(palabras).mapToInt(String::length).sum();
+    }
+
+    /**
+     * Palabras normalizadas (minúsculas, sin tildes ni signos) de un texto.
+     */
+    static String[] palabras(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return new String[0];
+        }
+        String normalizado = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARADORES.split(normalizado))
+                .filter(p -> !p.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    static Set<String> trigramasDe(String[] palabras) {
+        Set<String> resultado = new LinkedHashSet<>();
+        for (String palabra : palabras) {
+            String rellena = "  " + palabra + " ";
+            for (int i = 0; i + 3 <= rellena.length(); i++) {
+                resultado.add(rellena.substring(i, i + 3));
+            }
+        }
+        return resultado;
+    }
+}
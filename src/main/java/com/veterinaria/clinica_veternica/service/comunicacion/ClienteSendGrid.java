@@ -0,0 +1,173 @@
+package com.veterinaria.clinica_veternica.service.comunicacion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.veterinaria.clinica_veternica.config.ComunicacionesProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Cliente HTTP de la API mail/send de SendGrid.
+ *
+ * CARACTERÍSTICAS:
+ * - Un único HttpClient compartido: las conexiones (HTTP/2 o keep-alive) se reutilizan entre envíos
+ * - Envío asíncrono, con un máximo de peticiones en curso (app.comunicaciones.envios-concurrentes)
+ * - Un mismo asunto y contenido a varios destinatarios se envía en una sola petición, con una
+ *   personalización por destinatario (ninguno ve la dirección de los demás)
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Component
+public class ClienteSendGrid implements DisposableBean {
+
+    private final ComunicacionesProperties properties;
+    private final String apiKey;
+    private final String fromEmail;
+    private final String fromName;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final Semaphore enviosEnCurso;
+
+    public ClienteSendGrid(ComunicacionesProperties properties,
+                           @Value("${sendgrid.api.key:}") String apiKey,
+                           @Value("${spring.mail.username:${MAIL_USERNAME:miguelitorodriguezaranzazu@gmail.com}}") String fromEmail,
+                           @Value("${app.email.from-name:Clínica Veterinaria}") String fromName) {
+        this.properties = properties;
+        this.apiKey = apiKey;
+        this.fromEmail = fromEmail;
+        this.fromName = fromName;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getTiempoConexion())
+                .build();
+        this.enviosEnCurso = new Semaphore(Math.max(1, properties.getEnviosConcurrentes()));
+    }
+
+    /**
+     * Indica si hay una API Key de SendGrid configurada.
+     */
+    public boolean estaConfigurado() {
+        return apiKey != null && !apiKey.isBlank();
+    }
+
+    /**
+     * Envía un correo HTML y espera la respuesta de SendGrid.
+     *
+     * @param destinatarios Direcciones de correo (una personalización por cada una)
+     * @param asunto Asunto del correo
+     * @param html Contenido HTML
+     * @return Resultado del envío
+     */
+    public ResultadoEnvio enviar(List<String> destinatarios, String asunto, String html) {
+        return enviarAsync(destinatarios, asunto, html).join();
+    }
+
+    /**
+     * Envía un correo HTML sin esperar la respuesta. Si ya hay el máximo de peticiones en
+     * curso, espera a que termine una antes de enviar.
+     *
+     * @param destinatarios Direcciones de correo (máximo app.comunicaciones.destinatarios-por-peticion)
+     * @param asunto Asunto del correo
+     * @param html Contenido HTML
+     * @return Futuro con el resultado del envío; nunca termina con excepción
+     */
+    public CompletableFuture<ResultadoEnvio> enviarAsync(List<String> destinatarios, String asunto, String html) {
+        if (!estaConfigurado()) {
+            log.error("SendGrid API Key no configurada. Configure la variable de entorno SENDGRID_API_KEY");
+            return CompletableFuture.completedFuture(ResultadoEnvio.fallo("SendGrid API Key no configurada"));
+        }
+
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(properties.getSendgridUrl()))
+                    .timeout(properties.getTiempoMaximoEnvio())
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + apiKey)
+                    .POST(HttpRequest.BodyPublishers.ofString(construirPayload(destinatarios, asunto, html)))
+                    .build();
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.error("Error al construir la petición a SendGrid - Asunto: {}: {}", asunto, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ResultadoEnvio.fallo("Petición inválida: " + e.getMessage()));
+        }
+
+        try {
+            enviosEnCurso.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(ResultadoEnvio.fallo("Envío interrumpido"));
+        }
+
+        CompletableFuture<HttpResponse<String>> respuesta;
+        try {
+            respuesta = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            respuesta = CompletableFuture.failedFuture(e);
+        }
+        return respuesta.handle((response, error) -> {
+            enviosEnCurso.release();
+            if (error != null) {
+                log.error("Error de conexión al enviar correo a {} destinatario(s) - Asunto: {}: {}",
+                        destinatarios.size(), asunto, error.getMessage());
+                return ResultadoEnvio.fallo("Error de conexión: " + error.getMessage());
+            }
+            return interpretarRespuesta(response, destinatarios.size(), asunto);
+        });
+    }
+
+    private ResultadoEnvio interpretarRespuesta(HttpResponse<String> response, int destinatarios, String asunto) {
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            log.info("Correo HTML enviado exitosamente a {} destinatario(s) - Asunto: {}", destinatarios, asunto);
+            return ResultadoEnvio.exito(response.headers().firstValue("X-Message-Id").orElse(null));
+        }
+
+        String errorBody = response.body();
+        log.error("Error HTTP al enviar correo a {} destinatario(s): Status {} - Response: {}",
+                destinatarios, status, errorBody);
+
+        // Log específico para errores comunes de SendGrid
+        if (errorBody != null) {
+            if (errorBody.contains("The from address does not match a verified Sender Identity")) {
+                log.error("⚠️ El correo remitente '{}' no está verificado en SendGrid. " +
+                        "Ve a SendGrid → Settings → Sender Authentication y verifica el correo.", fromEmail);
+            } else if (errorBody.contains("Invalid API key")) {
+                log.error("⚠️ API Key de SendGrid inválida. Verifica la variable SENDGRID_API_KEY en Render.");
+            } else if (errorBody.contains("Forbidden")) {
+                log.error("⚠️ Acceso denegado. Verifica que la API Key tenga permisos de envío de emails.");
+            }
+        }
+        return ResultadoEnvio.fallo("HTTP " + status);
+    }
+
+    private String construirPayload(List<String> destinatarios, String asunto, String html)
+            throws JsonProcessingException {
+        List<Map<String, Object>> personalizaciones = destinatarios.stream()
+                .<Map<String, Object>>map(email -> Map.of("to", List.of(Map.of("email", email))))
+                .toList();
+
+        return objectMapper.writeValueAsString(Map.of(
+                "personalizations", personalizaciones,
+                "from", Map.of("email", fromEmail, "name", fromName),
+                "subject", asunto,
+                "content", List.of(Map.of("type", "text/html", "value", html))
+        ));
+    }
+
+    @Override
+    public void destroy() {
+        httpClient.shutdownNow();
+    }
+}
@@ -0,0 +1,202 @@
+package com.veterinaria.clinica_veternica.service.comunicacion;
+
+import com.veterinaria.clinica_veternica.config.ComunicacionesProperties;
+import com.veterinaria.clinica_veternica.domain.comunicacion.Comunicacion;
+import com.veterinaria.clinica_veternica.repository.ComunicacionRepository;
+import com.veterinaria.clinica_veternica.service.EmailService;
+import com.veterinaria.clinica_veternica.util.Constants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Despachador (outbox) de las comunicaciones programadas de la tabla comunicaciones.
+ *
+ * FUNCIONAMIENTO:
+ * - Reclama por lotes las comunicaciones por EMAIL cuya fecha programada ya pasó, con
+ *   SELECT ... FOR UPDATE SKIP LOCKED, y las reserva (proximo_intento) mientras las envía:
+ *   varios nodos pueden despachar a la vez sin enviar dos veces la misma
+ * - Las comunicaciones con el mismo asunto y mensaje se envían en una sola petición a
+ *   SendGrid; las peticiones del lote se envían en paralelo
+ * - Un fallo incrementa intentosEnvio y programa el reintento con espera exponencial,
+ *   hasta maxIntentos
+ *
+ * Las comunicaciones sin fecha programada (registros de envíos ya hechos) no se despachan.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Component
+public class DespachadorComunicaciones {
+
+    private static final int MAXIMO_LARGO_ERROR = 500;
+
+    private final ComunicacionRepository comunicacionRepository;
+    private final ClienteSendGrid clienteSendGrid;
+    private final EmailService emailService;
+    private final ComunicacionesProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public DespachadorComunicaciones(ComunicacionRepository comunicacionRepository,
+                                     ClienteSendGrid clienteSendGrid,
+                                     EmailService emailService,
+                                     ComunicacionesProperties properties,
+                                     PlatformTransactionManager transactionManager) {
+        this.comunicacionRepository = comunicacionRepository;
+        this.clienteSendGrid = clienteSendGrid;
+        this.emailService = emailService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Envía las comunicaciones programadas pendientes, lote a lote, hasta que no quede ninguna
+     * disponible para este nodo.
+     *
+     * @return Número de comunicaciones procesadas (enviadas o fallidas)
+     */
+    @Scheduled(fixedDelayString = "${app.comunicaciones.intervalo:15s}",
+               initialDelayString = "${app.comunicaciones.intervalo:15s}")
+    public int despachar() {
+        if (!properties.isOutboxHabilitado()) {
+            return 0;
+        }
+        if (!clienteSendGrid.estaConfigurado()) {
+            log.debug("Despacho de comunicaciones omitido: SendGrid no está configurado");
+            return 0;
+        }
+
+        int procesadas = 0;
+        List<Comunicacion> lote;
+        do {
+            lote = reclamarLote();
+            if (!lote.isEmpty()) {
+                registrarResultados(enviar(lote));
+                procesadas += lote.size();
+            }
+        } while (lote.size() >= properties.getTamanioLote());
+
+        if (procesadas > 0) {
+            log.info("Despacho de comunicaciones completado: {} procesadas", procesadas);
+        }
+        return procesadas;
+    }
+
+    /**
+     * Reclama un lote y lo reserva durante app.comunicaciones.arriendo. El bloqueo de las filas
+     * dura solo lo que tarda esta transacción; la reserva evita que otro nodo las reclame
+     * mientras se envían.
+     */
+    private List<Comunicacion> reclamarLote() {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Comunicacion> reclamadas = transactionTemplate.execute(status -> {
+            List<Comunicacion> pendientes = comunicacionRepository.reclamarPendientesEnvio(
+                    ahora, Limit.of(properties.getTamanioLote()));
+            LocalDateTime reservadaHasta = ahora.plus(properties.getArriendo());
+            pendientes.forEach(comunicacion -> comunicacion.setProximoIntento(reservadaHasta));
+            return pendientes;
+        });
+        return reclamadas != null ? reclamadas : List.of();
+    }
+
+    /**
+     * Envía el lote agrupando las comunicaciones con el mismo asunto y mensaje, y espera
+     * todas las respuestas.
+     *
+     * @return Resultado por ID de comunicación
+     */
+    private Map<Long, ResultadoEnvio> enviar(List<Comunicacion> lote) {
+        Map<List<String>, List<Comunicacion>> porContenido = lote.stream()
+                .collect(Collectors.groupingBy(c -> List.of(c.getAsunto(), c.getMensaje()),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        List<EnvioEnCurso> envios = new ArrayList<>();
+        porContenido.forEach((contenido, comunicaciones) -> {
+            String asunto = contenido.get(0);
+            String html = emailService.prepararContenidoHtml(asunto, contenido.get(1));
+            int porPeticion = Math.max(1, properties.getDestinatariosPorPeticion());
+            for (int i = 0; i < comunicaciones.size(); i += porPeticion) {
+                List<Comunicacion> grupo = comunicaciones.subList(i, Math.min(i + porPeticion, comunicaciones.size()));
+                List<String> destinatarios = grupo.stream().map(Comunicacion::getDestinatarioEmail).toList();
+                envios.add(new EnvioEnCurso(grupo, clienteSendGrid.enviarAsync(destinatarios, asunto, html)));
+            }
+        });
+
+        Map<Long, ResultadoEnvio> resultados = new HashMap<>();
+        for (EnvioEnCurso envio : envios) {
+            ResultadoEnvio resultado = envio.respuesta().join();
+            envio.comunicaciones().forEach(c -> resultados.put(c.getIdComunicacion(), resultado));
+        }
+        return resultados;
+    }
+
+    /**
+     * Marca como enviadas las comunicaciones aceptadas y programa el reintento de las fallidas.
+     */
+    private void registrarResultados(Map<Long, ResultadoEnvio> resultados) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime ahora = LocalDateTime.now();
+            for (Comunicacion comunicacion : comunicacionRepository.findAllById(resultados.keySet())) {
+                if (Constants.isTrue(comunicacion.getEnviada())) {
+                    // Cancelada mientras se enviaba
+                    continue;
+                }
+                ResultadoEnvio resultado = resultados.get(comunicacion.getIdComunicacion());
+                if (resultado.exitoso()) {
+                    comunicacion.marcarComoEnviada(resultado.idExterno() != null
+                            ? resultado.idExterno()
+                            : "EMAIL-" + UUID.randomUUID());
+                } else {
+                    comunicacion.registrarFalloEnvio(recortar(resultado.error()));
+                    if (comunicacion.puedeReintentar()) {
+                        comunicacion.setProximoIntento(ahora.plus(esperaReintento(comunicacion.getIntentosEnvio())));
+                    } else {
+                        comunicacion.setProximoIntento(null);
+                        log.warn("Comunicación {} descartada tras {} intentos fallidos: {}",
+                                comunicacion.getIdComunicacion(), comunicacion.getIntentosEnvio(), resultado.error());
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Espera antes del siguiente intento: app.comunicaciones.espera-reintento duplicada en cada
+     * intento fallido, sin superar app.comunicaciones.espera-maxima-reintento.
+     *
+     * @param intentos Intentos fallidos hasta ahora (1 o más)
+     * @return Espera hasta el siguiente intento
+     */
+    Duration esperaReintento(int intentos) {
+        Duration espera = properties.getEsperaReintento().multipliedBy(1L << Math.min(Math.max(intentos - 1, 0), 20));
+        return espera.compareTo(properties.getEsperaMaximaReintento()) > 0
+                ? properties.getEsperaMaximaReintento()
+                : espera;
+    }
+
+    private static String recortar(String error) {
+        if (error == null || error.length() <= MAXIMO_LARGO_ERROR) {
+            return error;
+        }
+        return error.substring(0, MAXIMO_LARGO_ERROR - 3) + "...";
+    }
+
+    private record EnvioEnCurso(List<Comunicacion> comunicaciones, CompletableFuture<ResultadoEnvio> respuesta) {
+    }
+}
@@ -0,0 +1,281 @@
+package com.veterinaria.clinica_veternica.service.comunicacion;
+
+import com.veterinaria.clinica_veternica.config.RecordatoriosVacunasProperties;
+import com.veterinaria.clinica_veternica.domain.clinico.DosisPendiente;
+import com.veterinaria.clinica_veternica.repository.VacunacionRepository;
+import com.veterinaria.clinica_veternica.service.programacion.BloqueoTareas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Genera los recordatorios de próximas dosis de vacunas en la tabla comunicaciones, que
+ * luego envía DespachadorComunicaciones.
+ *
+ * FUNCIONAMIENTO:
+ * - Cola por fecha: una dosis entra en la ventana de recordatorio diasAnticipacion días antes
+ *   de su fechaProximaDosis. Tras cada revisión se guarda en memoria el día en que entra la
+ *   siguiente dosis (una lectura de MIN sobre el índice); las comprobaciones periódicas
+ *   anteriores a ese día no consultan la base de datos
+ * - Registrar una vacunación con próxima dosis adelanta la revisión tras el commit, si su
+ *   ventana empieza antes
+ * - La revisión recorre con keyset solo el rango [hoy, hoy + diasAnticipacion] del índice
+ *   idx_vacunacion_proxima_pendiente: el costo depende de las dosis que vencen, no del total
+ *   de vacunaciones
+ * - Los recordatorios se insertan por lotes (un INSERT por lotes en JDBC por transacción) con
+ *   clave de deduplicación por mascota, vacuna y fecha: una dosis ya recordada no se vuelve
+ *   a insertar, y la restricción única de la clave lo garantiza entre instancias
+ * - La revisión se ejecuta en una sola instancia a la vez (BloqueoTareas)
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+@Slf4j
+@Component
+public class ProgramadorRecordatoriosVacunas {
+
+    static final String TAREA_RECORDATORIOS = "recordatorios-vacunas";
+    private static final Duration BLOQUEO_MAXIMO_REVISION = Duration.ofMinutes(30);
+    private static final Duration BLOQUEO_MINIMO_REVISION = Duration.ofMinutes(1);
+
+    private static final String TIPO_RECORDATORIO = "RECORDATORIO";
+    private static final String CANAL_EMAIL = "EMAIL";
+    private static final String ASUNTO = "Recordatorio de vacunación";
+    private static final int MAX_INTENTOS = 3;
+
+    // INSERT ... SELECT ... WHERE NOT EXISTS: las dosis ya recordadas no cuentan como filas insertadas
+    private static final String SQL_INSERTAR =
+            "INSERT INTO comunicaciones (tipo, canal, destinatario_nombre, destinatario_email, asunto, mensaje, "
+            + "fecha_programada_envio, enviada, intentos_envio, max_intentos, fecha_creacion, clave_deduplicacion) "
+            + "SELECT ?, ?, ?, ?, ?, ?, ?, FALSE, 0, ?, ?, ? "
+            + "WHERE NOT EXISTS (SELECT 1 FROM comunicaciones WHERE clave_deduplicacion = ?)";
+
+    private final VacunacionRepository vacunacionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BloqueoTareas bloqueoTareas;
+    private final RecordatoriosVacunasProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicReference<LocalDate> proximaRevision = new AtomicReference<>(LocalDate.MIN);
+    private final AtomicLong revisiones = new AtomicLong();
+    private final AtomicLong revisionesOmitidas = new AtomicLong();
+    private final AtomicLong dosisRevisadas = new AtomicLong();
+    private final AtomicLong recordatoriosCreados = new AtomicLong();
+    private final AtomicLong duplicadosOmitidos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+
+    private volatile LocalDateTime ultimaRevision;
+
+    public ProgramadorRecordatoriosVacunas(VacunacionRepository vacunacionRepository,
+                                           JdbcTemplate jdbcTemplate,
+                                           BloqueoTareas bloqueoTareas,
+                                           RecordatoriosVacunasProperties properties,
+                                           PlatformTransactionManager transactionManager) {
+        this.vacunacionRepository = vacunacionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.bloqueoTareas = bloqueoTareas;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Genera los recordatorios que vencen si ya llegó el día de la próxima revisión.
+     *
+     * @return Número de recordatorios creados
+     */
+    @Scheduled(fixedDelayString = "${app.vacunas.recordatorios.intervalo:1h}",
+               initialDelayString = "${app.vacunas.recordatorios.intervalo:1h}")
+    public int revisar() {
+        if (!properties.isHabilitado()) {
+            return 0;
+        }
+        LocalDate hoy = LocalDate.now();
+        if (hoy.isBefore(proximaRevision.get())) {
+            revisionesOmitidas.incrementAndGet();
+            return 0;
+        }
+        // Los avisos que lleguen durante la revisión vuelven a adelantar la fecha
+        proximaRevision.set(LocalDate.MAX);
+        int[] creados = {0};
+        try {
+            if (!bloqueoTareas.ejecutar(TAREA_RECORDATORIOS, BLOQUEO_MAXIMO_REVISION, BLOQUEO_MINIMO_REVISION,
+                    () -> creados[0] = generar(hoy))) {
+                // Otra instancia hace la revisión de hoy
+                adelantarRevision(hoy.plusDays(1));
+            }
+        } catch (RuntimeException e) {
+            adelantarRevision(hoy);
+            fallos.incrementAndGet();
+            log.warn("No se pudieron generar los recordatorios de vacunas: {}", e.getMessage());
+        }
+        return creados[0];
+    }
+
+    /**
+     * Inserta los recordatorios de las dosis que vencen entre hoy y hoy + diasAnticipacion
+     * y calcula el día de la próxima revisión.
+     *
+     * @param hoy Día de la revisión
+     * @return Número de recordatorios creados
+     */
+    public int generar(LocalDate hoy) {
+        int diasAnticipacion = Math.max(0, properties.getDiasAnticipacion());
+        LocalDate horizonte = hoy.plusDays(diasAnticipacion);
+        int lote = Math.max(1, properties.getTamanioLote());
+
+        LocalDate despuesDeFecha = hoy.minusDays(1);
+        long despuesDeId = 0;
+        int creados = 0;
+        List<DosisPendiente> dosis;
+        do {
+            dosis = vacunacionRepository.findDosisPendientes(hoy, horizonte, despuesDeFecha, despuesDeId,
+                    Limit.of(lote));
+            if (dosis.isEmpty()) {
+                break;
+            }
+            creados += insertar(dosis);
+            DosisPendiente ultima = dosis.get(dosis.size() - 1);
+            despuesDeFecha = ultima.fechaProximaDosis();
+            despuesDeId = ultima.idVacunacion();
+        } while (dosis.size() == lote);
+
+        LocalDate revision = hoy.plusDays(Math.max(1, properties.getDiasMaximosSinRevisar()));
+        LocalDate siguienteDosis = vacunacionRepository.findPrimeraProximaDosisDespuesDe(horizonte);
+        if (siguienteDosis != null && siguienteDosis.minusDays(diasAnticipacion).isBefore(revision)) {
+            revision = siguienteDosis.minusDays(diasAnticipacion);
+        }
+        adelantarRevision(revision);
+
+        revisiones.incrementAndGet();
+        ultimaRevision = LocalDateTime.now();
+        log.info("Recordatorios de vacunas: {} creados para dosis hasta {}; próxima revisión {}",
+                creados, horizonte, revision);
+        return creados;
+    }
+
+    /**
+     * Adelanta la próxima revisión, tras el commit de la transacción en curso, si la ventana
+     * de recordatorio de una nueva próxima dosis empieza antes.
+     *
+     * @param fechaProximaDosis Fecha de la próxima dosis registrada
+     */
+    public void programar(LocalDate fechaProximaDosis) {
+        if (fechaProximaDosis == null) {
+            return;
+        }
+        LocalDate inicioVentana = fechaProximaDosis.minusDays(Math.max(0, properties.getDiasAnticipacion()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adelantarRevision(inicioVentana);
+                }
+            });
+        } else {
+            adelantarRevision(inicioVentana);
+        }
+    }
+
+    /**
+     * Obtiene las métricas del programador.
+     *
+     * @return Mapa de métricas
+     */
+    public Map<String, Object> getEstadisticas() {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("proximaRevision", proximaRevision.get());
+        datos.put("revisiones", revisiones.get());
+        datos.put("revisionesOmitidas", revisionesOmitidas.get());
+        datos.put("dosisRevisadas", dosisRevisadas.get());
+        datos.put("recordatoriosCreados", recordatoriosCreados.get());
+        datos.put("duplicadosOmitidos", duplicadosOmitidos.get());
+        datos.put("fallos", fallos.get());
+        datos.put("ultimaRevision", ultimaRevision);
+        return datos;
+    }
+
+    /**
+     * Inserta en una transacción los recordatorios de un lote de dosis que aún no tienen uno.
+     */
+    private int insertar(List<DosisPendiente> dosis) {
+        Map<String, DosisPendiente> porClave = new LinkedHashMap<>();
+        dosis.forEach(d -> porClave.putIfAbsent(d.claveRecordatorio(), d));
+        List<DosisPendiente> unicas = new ArrayList<>(porClave.values());
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+
+        int[][] resultados = transactionTemplate.execute(estado ->
+                jdbcTemplate.batchUpdate(SQL_INSERTAR, unicas, unicas.size(), (ps, d) -> {
+                    String clave = d.claveRecordatorio();
+                    ps.setString(1, TIPO_RECORDATORIO);
+                    ps.setString(2, CANAL_EMAIL);
+                    ps.setString(3, truncar(d.nombrePropietario(), 200));
+                    ps.setString(4, d.emailPropietario());
+                    ps.setString(5, ASUNTO);
+                    ps.setString(6, truncar(construirMensaje(d), 2000));
+                    ps.setTimestamp(7, ahora);
+                    ps.setInt(8, MAX_INTENTOS);
+                    ps.setTimestamp(9, ahora);
+                    ps.setString(10, clave);
+                    ps.setString(11, clave);
+                }));
+
+        int creados = 0;
+        if (resultados != null) {
+            for (int[] loteJdbc : resultados) {
+                for (int filas : loteJdbc) {
+                    if (filas > 0 || filas == Statement.SUCCESS_NO_INFO) {
+                        creados++;
+                    }
+                }
+            }
+        }
+        dosisRevisadas.addAndGet(dosis.size());
+        recordatoriosCreados.addAndGet(creados);
+        duplicadosOmitidos.addAndGet((long) dosis.size() - creados);
+        return creados;
+    }
+
+    private void adelantarRevision(LocalDate fecha) {
+        proximaRevision.accumulateAndGet(fecha, (actual, nueva) -> nueva.isBefore(actual) ? nueva : actual);
+    }
+
+    private static String construirMensaje(DosisPendiente dosis) {
+        return String.format("""
+                Estimado/a %s,
+
+                Le recordamos que la próxima dosis de la vacuna %s de su mascota %s
+                está programada para el %s.
+
+                Por favor agende una cita con anticipación.
+
+                Saludos,
+                Clínica Veterinaria""",
+                dosis.nombrePropietario(),
+                dosis.nombreVacuna(),
+                dosis.nombreMascota(),
+                dosis.fechaProximaDosis());
+    }
+
+    private static String truncar(String valor, int maximo) {
+        return valor != null && valor.length() > maximo ? valor.substring(0, maximo) : valor;
+    }
+}
@@ -0,0 +1,19 @@
+package com.veterinaria.clinica_veternica.service.comunicacion;
+
+/**
+ * Resultado de una petición de envío a SendGrid.
+ *
+ * @param exitoso true si SendGrid aceptó el mensaje (respuesta 2xx)
+ * @param idExterno ID del mensaje asignado por SendGrid (X-Message-Id), si lo devolvió
+ * @param error Descripción del error si no fue exitoso
+ */
+public record ResultadoEnvio(boolean exitoso, String idExterno, String error) {
+
+    public static ResultadoEnvio exito(String idExterno) {
+        return new ResultadoEnvio(true, idExterno, null);
+    }
+
+    public static ResultadoEnvio fallo(String error) {
+        return new ResultadoEnvio(false, null, error);
+    }
+}
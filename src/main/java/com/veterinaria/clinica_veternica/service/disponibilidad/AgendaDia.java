@@ -0,0 +1,215 @@
+package com.veterinaria.clinica_veternica.service.disponibilidad;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Agenda de un veterinario para un día concreto, en minutos del día (0-1439).
+ *
+ * CARACTERÍSTICAS:
+ * - Inmutable: cada cambio (cita nueva, cancelada, reprogramada) produce una copia,
+ *   de modo que las lecturas no necesitan sincronización
+ * - Mapa de bits de minutos ocupados: comprobar si un hueco está libre es un
+ *   nextSetBit, sin recorrer las citas
+ * - Solo con maxCitasSimultaneas mayor que 1 se cuentan las citas que se solapan
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-21
+ */
+public final class AgendaDia {
+
+    public static final int MINUTOS_DIA = 24 * 60;
+
+    /**
+     * Límite de slots por día, igual que el cálculo anterior.
+     */
+    private static final int MAX_SLOTS = 1000;
+
+    private static final Comparator<CitaOcupada> ORDEN_CITAS =
+            Comparator.comparingInt(CitaOcupada::inicio).thenComparing(CitaOcupada::idCita);
+
+    private final List<Tramo> tramos;
+    private final List<CitaOcupada> citas;
+    private final BitSet ocupados;
+
+    public AgendaDia(List<Tramo> tramos, List<CitaOcupada> citas) {
+        this.tramos = List.copyOf(tramos);
+        List<CitaOcupada> ordenadas = new ArrayList<>(citas);
+        ordenadas.sort(ORDEN_CITAS);
+        this.citas = List.copyOf(ordenadas);
+        this.ocupados = new BitSet(MINUTOS_DIA);
+        for (CitaOcupada cita : this.citas) {
+            ocupados.set(cita.inicio(), cita.fin());
+        }
+    }
+
+    /**
+     * Tramos de atención del día (horarios activos), ordenados por hora de inicio.
+     */
+    public List<Tramo> getTramos() {
+        return tramos;
+    }
+
+    /**
+     * Citas activas del día, ordenadas por hora.
+     */
+    public List<CitaOcupada> getCitas() {
+        return citas;
+    }
+
+    public boolean tieneHorarios() {
+        return !tramos.isEmpty();
+    }
+
+    /**
+     * Devuelve una copia con la cita agregada (o reemplazada si ya estaba).
+     */
+    public AgendaDia conCita(CitaOcupada cita) {
+        List<CitaOcupada> nuevas = new ArrayList<>(citas.size() + 1);
+        for (CitaOcupada existente : citas) {
+            if (!existente.idCita().equals(cita.idCita())) {
+                nuevas.add(existente);
+            }
+        }
+        nuevas.add(cita);
+        return new AgendaDia(tramos, nuevas);
+    }
+
+    /**
+     * Devuelve una copia sin la cita indicada, o la misma agenda si no estaba.
+     */
+    public AgendaDia sinCita(Long idCita) {
+        if (citas.stream().noneMatch(c -> c.idCita().equals(idCita))) {
+            return this;
+        }
+        return new AgendaDia(tramos, citas.stream().filter(c -> !c.idCita().equals(idCita)).toList());
+    }
+
+    /**
+     * Cuenta las citas que se solapan con el intervalo [inicio, fin).
+     *
+     * @param idCitaExcluir Cita a ignorar (la que se está reprogramando), puede ser null
+     */
+    public int contarSolapadas(int inicio, int fin, Long idCitaExcluir) {
+        return citasSolapadas(inicio, fin, idCitaExcluir).size();
+    }
+
+    /**
+     * Citas que se solapan con el intervalo [inicio, fin), ordenadas por hora.
+     *
+     * @param idCitaExcluir Cita a ignorar (la que se está reprogramando), puede ser null
+     */
+    public List<CitaOcupada> citasSolapadas(int inicio, int fin, Long idCitaExcluir) {
+        if (!hayOcupacion(inicio, fin)) {
+            return List.of();
+        }
+        List<CitaOcupada> solapadas = new ArrayList<>();
+        for (CitaOcupada cita : citas) {
+            if (cita.inicio() >= fin) {
+                break;
+            }
+            if (cita.seSolapa(inicio, fin) && !cita.idCita().equals(idCitaExcluir)) {
+                solapadas.add(cita);
+            }
+        }
+        return solapadas;
+    }
+
+    /**
+     * Indica si el intervalo [inicio, fin) admite otra cita con la capacidad indicada.
+     */
+    public boolean estaLibre(int inicio, int fin, int capacidad) {
+        if (!hayOcupacion(inicio, fin)) {
+            return true;
+        }
+        return capacidad > 1 && contarSolapadas(inicio, fin, null) < capacidad;
+    }
+
+    /**
+     * Slots del día según los tramos, marcando los que ya están ocupados.
+     */
+    public List<Slot> slots() {
+        List<Slot> slots = new ArrayList<>();
+        for (Tramo tramo : tramos) {
+            for (int inicio = tramo.inicio(); inicio + tramo.paso() <= tramo.fin(); inicio += tramo.paso()) {
+                if (slots.size() >= MAX_SLOTS) {
+                    return slots;
+                }
+                slots.add(new Slot(inicio, tramo.paso(), estaLibre(inicio, inicio + tramo.paso(), tramo.capacidad())));
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Primer slot libre que empieza en el minuto indicado o después.
+     *
+     * @param desdeMinuto Minuto del día a partir del cual buscar
+     * @return El slot libre más temprano, si existe
+     */
+    public Optional<Slot> primerSlotLibre(int desdeMinuto) {
+        Slot mejor = null;
+        for (Tramo tramo : tramos) {
+            int inicio = tramo.inicio();
+            if (desdeMinuto > inicio) {
+                int pasos = (desdeMinuto - inicio + tramo.paso() - 1) / tramo.paso();
+                inicio += pasos * tramo.paso();
+            }
+            for (; inicio + tramo.paso() <= tramo.fin(); inicio += tramo.paso()) {
+                if (mejor != null && inicio >= mejor.inicio()) {
+                    break;
+                }
+                if (estaLibre(inicio, inicio + tramo.paso(), tramo.capacidad())) {
+                    mejor = new Slot(inicio, tramo.paso(), true);
+                    break;
+                }
+            }
+        }
+        return Optional.ofNullable(mejor);
+    }
+
+    private boolean hayOcupacion(int inicio, int fin) {
+        int siguiente = ocupados.nextSetBit(inicio);
+        return siguiente >= 0 && siguiente < fin;
+    }
+
+    public static int minuto(LocalTime hora) {
+        return hora.getHour() * 60 + hora.getMinute();
+    }
+
+    public static LocalTime hora(int minuto) {
+        return LocalTime.of(minuto / 60, minuto % 60);
+    }
+
+    /**
+     * Tramo de atención derivado de un Horario activo.
+     */
+    public record Tramo(Long idHorario, int inicio, int fin, int paso, int capacidad) {
+    }
+
+    /**
+     * Cita activa (no cancelada ni no asistida) que ocupa [inicio, fin).
+     */
+    public record CitaOcupada(Long idCita, int inicio, int fin, String estado,
+                              String nombreMascota, String nombreServicio) {
+
+        boolean seSolapa(int desde, int hasta) {
+            return inicio < hasta && fin > desde;
+        }
+    }
+
+    /**
+     * Slot de atención de un tramo.
+     */
+    public record Slot(int inicio, int duracion, boolean disponible) {
+
+        public LocalTime hora() {
+            return AgendaDia.hora(inicio);
+        }
+    }
+}
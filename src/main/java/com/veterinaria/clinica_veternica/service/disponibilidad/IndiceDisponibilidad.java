@@ -0,0 +1,357 @@
+package com.veterinaria.clinica_veternica.service.disponibilidad;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.veterinaria.clinica_veternica.config.DisponibilidadProperties;
+import com.veterinaria.clinica_veternica.config.EnrutadorReplicas;
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
+import com.veterinaria.clinica_veternica.domain.agenda.Horario;
+import com.veterinaria.clinica_veternica.patterns.behavioral.observer.CitaObserver;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import com.veterinaria.clinica_veternica.repository.HorarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Índice en memoria de la disponibilidad de los veterinarios.
+ *
+ * CARACTERÍSTICAS:
+ * - Una AgendaDia por veterinario y día, construida bajo demanda a partir de los
+ *   horarios activos y las citas activas de ese día (una consulta por agenda)
+ * - Los horarios semanales de cada veterinario también se guardan, de modo que los
+ *   días sin horario se descartan sin consultar la base de datos
+ * - Se registra como CitaObserver: crear, confirmar, cancelar o reprogramar una cita
+ *   actualiza la agenda afectada tras el commit, sin volver a consultarla
+ * - Los cambios de horario invalidan las agendas del veterinario (invalidarVeterinario)
+ * - Acotado en tamaño y con vencimiento (app.disponibilidad.*) como red de seguridad
+ *   para cambios que no pasan por los eventos
+ * - Agendas y horarios se leen de la base de datos principal (ver EnrutadorReplicas): los
+ *   eventos solo actualizan agendas ya en memoria, así que una leída con retraso de una
+ *   réplica seguiría mal hasta su vencimiento
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-21
+ */
+@Slf4j
+@Component
+public class IndiceDisponibilidad implements CitaObserver {
+
+    /**
+     * Paso de un horario sin duración de cita configurada.
+     */
+    private static final int PASO_POR_DEFECTO = 30;
+
+    private final HorarioRepository horarioRepository;
+    private final CitaRepository citaRepository;
+    private final Cache<Long, Map<DayOfWeek, List<AgendaDia.Tramo>>> tramosPorVeterinario;
+    private final Cache<Clave, AgendaDia> agendas;
+    private final TransactionTemplate lecturaPrincipal;
+    private final AtomicLong construcciones = new AtomicLong();
+
+    public IndiceDisponibilidad(HorarioRepository horarioRepository,
+                                CitaRepository citaRepository,
+                                DisponibilidadProperties properties,
+                                PlatformTransactionManager transactionManager) {
+        this.horarioRepository = horarioRepository;
+        this.citaRepository = citaRepository;
+        // Transacción propia: la del llamador de solo lectura ya puede tener su conexión de una réplica
+        this.lecturaPrincipal = new TransactionTemplate(transactionManager);
+        this.lecturaPrincipal.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lecturaPrincipal.setReadOnly(true);
+        this.tramosPorVeterinario = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximoAgendas())
+                .expireAfterWrite(properties.getExpiracion())
+                .build();
+        this.agendas = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximoAgendas())
+                .expireAfterWrite(properties.getExpiracion())
+                .build();
+    }
+
+    /**
+     * Obtiene la agenda de un veterinario para un día, construyéndola si no está en memoria.
+     *
+     * @param idVeterinario ID del veterinario
+     * @param fecha Día de la agenda
+     * @return Agenda del día
+     */
+    public AgendaDia agenda(Long idVeterinario, LocalDate fecha) {
+        return agendas.get(new Clave(idVeterinario, fecha), this::construir);
+    }
+
+    /**
+     * Indica si el veterinario tiene algún horario activo ese día de la semana.
+     */
+    public boolean atiende(Long idVeterinario, DayOfWeek diaSemana) {
+        return !tramos(idVeterinario).getOrDefault(diaSemana, List.of()).isEmpty();
+    }
+
+    /**
+     * Busca el primer slot libre de un veterinario a partir de un instante.
+     *
+     * @param idVeterinario ID del veterinario
+     * @param desde Instante a partir del cual buscar (los slots anteriores se descartan)
+     * @param dias Número de días a recorrer, empezando por el de "desde"
+     * @return Primer slot libre, si existe en el rango
+     */
+    public Optional<SlotLibre> buscarPrimerSlotLibre(Long idVeterinario, LocalDateTime desde, int dias) {
+        LocalDate primerDia = desde.toLocalDate();
+        for (int i = 0; i < dias; i++) {
+            LocalDate fecha = primerDia.plusDays(i);
+            if (!atiende(idVeterinario, fecha.getDayOfWeek())) {
+                continue;
+            }
+            int desdeMinuto = i == 0 ? minutoSiguiente(desde.toLocalTime()) : 0;
+            Optional<AgendaDia.Slot> slot = agenda(idVeterinario, fecha).primerSlotLibre(desdeMinuto);
+            if (slot.isPresent()) {
+                return Optional.of(new SlotLibre(idVeterinario, fecha, slot.get().hora(), slot.get().duracion()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Busca el primer slot libre de cada veterinario, ordenados del más temprano al más tardío.
+     * El primer elemento es el próximo hueco disponible entre todos ellos.
+     */
+    public List<SlotLibre> buscarPrimerosSlotsLibres(List<Long> idsVeterinarios, LocalDateTime desde, int dias) {
+        List<SlotLibre> encontrados = new ArrayList<>(idsVeterinarios.size());
+        for (Long idVeterinario : idsVeterinarios) {
+            buscarPrimerSlotLibre(idVeterinario, desde, dias).ifPresent(encontrados::add);
+        }
+        encontrados.sort(Comparator.comparing(SlotLibre::fecha)
+                .thenComparing(SlotLibre::hora)
+                .thenComparing(SlotLibre::idVeterinario));
+        return encontrados;
+    }
+
+    /**
+     * Descarta los horarios y agendas en memoria de un veterinario. Si hay una transacción
+     * en curso se vuelve a invalidar tras el commit, para no fijar datos previos.
+     *
+     * @param idVeterinario ID del veterinario cuyos horarios cambiaron
+     */
+    public void invalidarVeterinario(Long idVeterinario) {
+        if (idVeterinario == null) {
+            return;
+        }
+        descartarVeterinario(idVeterinario);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    descartarVeterinario(idVeterinario);
+                }
+            });
+        }
+    }
+
+    /**
+     * Descarta todo el índice.
+     */
+    public void invalidarTodo() {
+        tramosPorVeterinario.invalidateAll();
+        agendas.invalidateAll();
+    }
+
+    /**
+     * @return Número de agendas construidas desde la base de datos desde el arranque
+     */
+    public long getConstrucciones() {
+        return construcciones.get();
+    }
+
+    @Override
+    public void onCitaStateChanged(Cita cita, String estadoAnterior, String estadoNuevo) {
+        registrar(cita);
+    }
+
+    @Override
+    public void onCitaCreated(Cita cita) {
+        registrar(cita);
+    }
+
+    @Override
+    public void onCitaCancelled(Cita cita, String motivo) {
+        registrar(cita);
+    }
+
+    @Override
+    public void onCitaUpdated(Cita cita, LocalDate fechaOriginal, LocalTime horaOriginal) {
+        Long idVeterinario = idVeterinario(cita);
+        if (idVeterinario != null && fechaOriginal != null && !fechaOriginal.equals(cita.getFechaCita())) {
+            Long idCita = cita.getIdCita();
+            alConfirmar(new Clave(idVeterinario, fechaOriginal), agenda -> agenda.sinCita(idCita));
+        }
+        registrar(cita);
+    }
+
+    /**
+     * Refleja el estado actual de la cita en la agenda de su día, si está en memoria.
+     */
+    private void registrar(Cita cita) {
+        Long idVeterinario = idVeterinario(cita);
+        if (idVeterinario == null || cita.getIdCita() == null || cita.getFechaCita() == null) {
+            return;
+        }
+        Clave clave = new Clave(idVeterinario, cita.getFechaCita());
+        UnaryOperator<AgendaDia> cambio;
+        try {
+            if (ocupaAgenda(cita)) {
+                AgendaDia.CitaOcupada ocupada = aCitaOcupada(cita);
+                cambio = agenda -> agenda.conCita(ocupada);
+            } else {
+                Long idCita = cita.getIdCita();
+                cambio = agenda -> agenda.sinCita(idCita);
+            }
+        } catch (RuntimeException e) {
+            // Asociaciones no disponibles (p. ej. LAZY fuera de sesión): se reconstruye al consultar
+            log.debug("No se pudo actualizar la agenda con la cita {}, se descarta: {}", cita.getIdCita(), e.getMessage());
+            cambio = null;
+        }
+        alConfirmar(clave, cambio);
+    }
+
+    /**
+     * Aplica el cambio sobre la agenda en memoria tras el commit (o inmediatamente si no
+     * hay transacción). Un cambio null descarta la agenda. Los cambios son idempotentes,
+     * así que no importa si la agenda se construyó antes o después del commit.
+     */
+    private void alConfirmar(Clave clave, UnaryOperator<AgendaDia> cambio) {
+        Runnable aplicar = () -> {
+            if (cambio == null) {
+                agendas.invalidate(clave);
+            } else {
+                agendas.asMap().computeIfPresent(clave, (k, agenda) -> cambio.apply(agenda));
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar.run();
+                }
+            });
+        } else {
+            aplicar.run();
+        }
+    }
+
+    private AgendaDia construir(Clave clave) {
+        construcciones.incrementAndGet();
+        List<AgendaDia.Tramo> tramosDelDia = tramos(clave.idVeterinario())
+                .getOrDefault(clave.fecha().getDayOfWeek(), List.of());
+        List<AgendaDia.CitaOcupada> citas = leerDePrincipal(() -> citaRepository
+                .findCitasActivasPorVeterinarioYDia(clave.idVeterinario(), clave.fecha())
+                .stream()
+                .map(this::aCitaOcupada)
+                .toList());
+        log.debug("Agenda construida: veterinario {} fecha {} ({} tramos, {} citas)",
+                clave.idVeterinario(), clave.fecha(), tramosDelDia.size(), citas.size());
+        return new AgendaDia(tramosDelDia, citas);
+    }
+
+    /**
+     * Ejecuta una lectura que llena el índice en la base de datos principal. Una transacción
+     * de escritura en curso ya usa la principal (y ve sus propios cambios), así que se reutiliza.
+     */
+    private <T> T leerDePrincipal(Supplier<T> lectura) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return lectura.get();
+        }
+        return EnrutadorReplicas.enPrincipal(() -> lecturaPrincipal.execute(estado -> lectura.get()));
+    }
+
+    private Map<DayOfWeek, List<AgendaDia.Tramo>> tramos(Long idVeterinario) {
+        return tramosPorVeterinario.get(idVeterinario, this::cargarTramos);
+    }
+
+    private Map<DayOfWeek, List<AgendaDia.Tramo>> cargarTramos(Long idVeterinario) {
+        Map<DayOfWeek, List<AgendaDia.Tramo>> porDia = new EnumMap<>(DayOfWeek.class);
+        for (Horario horario : leerDePrincipal(() -> horarioRepository.findHorariosActivosPorIdVeterinario(idVeterinario))) {
+            if (horario.getDiaSemana() == null || horario.getHoraInicio() == null || horario.getHoraFin() == null
+                    || !horario.getHoraInicio().isBefore(horario.getHoraFin())) {
+                log.warn("Horario ID {} no es válido, se omite del índice de disponibilidad", horario.getIdHorario());
+                continue;
+            }
+            int paso = horario.getDuracionCitaMinutos() != null && horario.getDuracionCitaMinutos() > 0
+                    ? horario.getDuracionCitaMinutos()
+                    : PASO_POR_DEFECTO;
+            int capacidad = horario.getMaxCitasSimultaneas() != null && horario.getMaxCitasSimultaneas() > 0
+                    ? horario.getMaxCitasSimultaneas()
+                    : 1;
+            porDia.computeIfAbsent(horario.getDiaSemana(), d -> new ArrayList<>())
+                    .add(new AgendaDia.Tramo(horario.getIdHorario(), AgendaDia.minuto(horario.getHoraInicio()),
+                            AgendaDia.minuto(horario.getHoraFin()), paso, capacidad));
+        }
+        porDia.replaceAll((dia, lista) -> lista.stream()
+                .sorted(Comparator.comparingInt(AgendaDia.Tramo::inicio))
+                .toList());
+        return porDia;
+    }
+
+    private void descartarVeterinario(Long idVeterinario) {
+        tramosPorVeterinario.invalidate(idVeterinario);
+        agendas.asMap().keySet().removeIf(clave -> clave.idVeterinario().equals(idVeterinario));
+    }
+
+    private AgendaDia.CitaOcupada aCitaOcupada(Cita cita) {
+        int inicio = Cita.minutoDelDia(cita.getHoraCita());
+        return new AgendaDia.CitaOcupada(
+                cita.getIdCita(),
+                inicio,
+                Math.min(inicio + cita.getDuracionEfectivaMinutos(), Cita.MINUTOS_DIA),
+                cita.getEstado() != null ? cita.getEstado().name() : null,
+                cita.getMascota() != null ? cita.getMascota().getNombre() : "N/A",
+                cita.getServicio() != null ? cita.getServicio().getNombre() : "N/A");
+    }
+
+    private static boolean ocupaAgenda(Cita cita) {
+        return cita.getHoraCita() != null
+                && cita.getEstado() != EstadoCita.CANCELADA
+                && cita.getEstado() != EstadoCita.NO_ASISTIO;
+    }
+
+    private static Long idVeterinario(Cita cita) {
+        return cita.getVeterinario() != null ? cita.getVeterinario().getIdPersonal() : null;
+    }
+
+    /**
+     * Minuto del día del primer slot que aún no ha empezado.
+     */
+    private static int minutoSiguiente(LocalTime hora) {
+        int minuto = AgendaDia.minuto(hora);
+        return hora.getSecond() > 0 || hora.getNano() > 0 ? minuto + 1 : minuto;
+    }
+
+    /**
+     * Primer slot libre encontrado para un veterinario.
+     */
+    public record SlotLibre(Long idVeterinario, LocalDate fecha, LocalTime hora, int duracionMinutos) {
+    }
+
+    private record Clave(Long idVeterinario, LocalDate fecha) {
+    }
+}
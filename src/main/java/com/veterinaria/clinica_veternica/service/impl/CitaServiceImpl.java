@@ -7,6 +7,7 @@ import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
 import com.veterinaria.clinica_veternica.domain.usuario.Usuario;
 import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
 import com.veterinaria.clinica_veternica.dto.request.agenda.CitaRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.agenda.CitaResponseDTO;
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
 import com.veterinaria.clinica_veternica.exception.UnauthorizedException;
@@ -19,7 +20,6 @@ import com.veterinaria.clinica_veternica.patterns.behavioral.template.AtencionCi
 import com.veterinaria.clinica_veternica.patterns.behavioral.template.AtencionEmergencia;
 import com.veterinaria.clinica_veternica.patterns.creational.builder.CitaBuilder;
 import com.veterinaria.clinica_veternica.patterns.behavioral.observer.CitaObserver;
-import com.veterinaria.clinica_veternica.patterns.behavioral.observer.NotificacionObserver;
 import com.veterinaria.clinica_veternica.repository.CitaRepository;
 import com.veterinaria.clinica_veternica.repository.MascotaRepository;
 import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
@@ -28,6 +28,10 @@ import com.veterinaria.clinica_veternica.repository.UsuarioRepository;
 import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
 import com.veterinaria.clinica_veternica.service.interfaces.ICitaService;
 import com.veterinaria.clinica_veternica.util.Constants;
+import com.veterinaria.clinica_veternica.util.KeysetCursor;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -38,7 +42,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementación del servicio para gestión de Citas.
@@ -70,13 +77,15 @@ public class CitaServiceImpl implements ICitaService {
     private final CitaMediator citaMediator;
     private final CitaValidationService citaValidationService;
     private final CitaPriceCalculationService citaPriceCalculationService;
-    private final NotificacionObserver notificacionObserver;
     
     // Templates de atención
     private final AtencionConsultaGeneral atencionConsultaGeneral;
     private final AtencionCirugia atencionCirugia;
     private final AtencionEmergencia atencionEmergencia;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
     public CitaResponseDTO crear(CitaRequestDTO requestDTO) {
         log.info("Creando nueva cita para mascota ID: {}", requestDTO.getIdMascota());
@@ -214,11 +223,11 @@ public class CitaServiceImpl implements ICitaService {
         Cita citaActualizada = citaRepository.save(cita);
         log.info("Cita actualizada exitosamente");
         
-        // Enviar notificación al veterinario si hubo cambios en fecha u hora
+        // Notificar a los observadores (veterinario, agenda de disponibilidad...) si hubo cambios en fecha u hora
         if (fechaCambio || horaCambio) {
             try {
-                notificacionObserver.onCitaUpdated(citaActualizada, fechaOriginal, horaOriginal);
-                log.info("Notificación de actualización de cita enviada al veterinario");
+                citaMediator.notificarReprogramacion(citaActualizada, fechaOriginal, horaOriginal);
+                log.info("Notificación de actualización de cita enviada a los observadores");
             } catch (Exception e) {
                 // No lanzar excepción para no afectar la actualización de la cita
                 log.error("Error al enviar notificación de actualización de cita: {}", e.getMessage(), e);
@@ -239,10 +248,38 @@ public class CitaServiceImpl implements ICitaService {
     @Override
     @Transactional(readOnly = true)
     public List<CitaResponseDTO> listarTodos() {
-        List<Cita> citas = citaRepository.findAll();
+        List<Cita> citas = citaRepository.findAllConRelaciones();
         return citaMapper.toResponseDTOList(citas);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaKeysetDTO<CitaResponseDTO> listarPagina(String cursor, Integer limite) {
+        int tamanio = KeysetCursor.normalizarLimite(limite);
+        List<Cita> citas;
+        if (KeysetCursor.esPrimeraPagina(cursor)) {
+            citas = citaRepository.findPrimeraPaginaKeyset(KeysetCursor.limiteConsulta(tamanio));
+        } else {
+            String[] clave = KeysetCursor.decodificar(cursor, 3);
+            citas = citaRepository.findPaginaKeysetDespuesDe(
+                    KeysetCursor.convertir(clave[0], LocalDate::parse),
+                    KeysetCursor.convertir(clave[1], LocalTime::parse),
+                    KeysetCursor.convertir(clave[2], Long::valueOf),
+                    KeysetCursor.limiteConsulta(tamanio));
+        }
+        return KeysetCursor.pagina(citas, tamanio, citaMapper::toResponseDTO,
+                cita -> KeysetCursor.codificar(cita.getFechaCita(), cita.getHoraCita(), cita.getIdCita()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void recorrerTodos(Consumer<CitaResponseDTO> consumidor) {
+        try (Stream<Cita> citas = citaRepository.streamTodas()) {
+            StreamingUtils.recorrerPorLotes(citas, entityManager,
+                    cita -> consumidor.accept(citaMapper.toResponseDTO(cita)));
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<CitaResponseDTO> listarPorVeterinario(Long idVeterinario) {
@@ -3,6 +3,7 @@ package com.veterinaria.clinica_veternica.service.impl;
 import com.veterinaria.clinica_veternica.domain.clinico.HistoriaClinica;
 import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
 import com.veterinaria.clinica_veternica.dto.request.clinico.HistoriaClinicaRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.clinico.HistoriaClinicaResponseDTO;
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
 import com.veterinaria.clinica_veternica.exception.UnauthorizedException;
@@ -15,12 +16,20 @@ import com.veterinaria.clinica_veternica.repository.HistoriaClinicaRepository;
 import com.veterinaria.clinica_veternica.repository.MascotaRepository;
 import com.veterinaria.clinica_veternica.service.interfaces.IHistoriaClinicaService;
 import com.veterinaria.clinica_veternica.util.Constants;
+import com.veterinaria.clinica_veternica.util.ConteoPorId;
+import com.veterinaria.clinica_veternica.util.KeysetCursor;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementación del servicio para gestión de Historias Clínicas.
@@ -45,6 +54,9 @@ public class HistoriaClinicaServiceImpl implements IHistoriaClinicaService {
     private final HistoriaClinicaCaretaker historiaClinicaCaretaker;
     private final HistoriaClinicaProxy historiaClinicaProxy;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
     public HistoriaClinicaResponseDTO crear(HistoriaClinicaRequestDTO requestDTO) {
         log.info("Creando nueva historia clínica para mascota ID: {}", requestDTO.getIdMascota());
@@ -174,6 +186,57 @@ public class HistoriaClinicaServiceImpl implements IHistoriaClinicaService {
         return historiaClinicaMapper.toResponseDTOList(historias);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaKeysetDTO<HistoriaClinicaResponseDTO> listarPagina(String cursor, Integer limite, boolean soloActivas) {
+        int tamanio = KeysetCursor.normalizarLimite(limite);
+        Long despuesDe = KeysetCursor.esPrimeraPagina(cursor) ? 0L : KeysetCursor.decodificarId(cursor);
+        List<HistoriaClinica> historias = historiaClinicaRepository.findPaginaKeyset(
+                despuesDe, soloActivas, KeysetCursor.limiteConsulta(tamanio));
+        ConteosHistoria conteos = contar(historias);
+        return KeysetCursor.pagina(historias, tamanio,
+                historia -> toResponseDTO(historia, conteos),
+                historia -> KeysetCursor.codificar(historia.getIdHistoriaClinica()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void recorrerTodas(boolean soloActivas, Consumer<HistoriaClinicaResponseDTO> consumidor) {
+        try (Stream<HistoriaClinica> historias = historiaClinicaRepository.streamTodas(soloActivas)) {
+            StreamingUtils.recorrerPorBloques(historias, entityManager, bloque -> {
+                ConteosHistoria conteos = contar(bloque);
+                bloque.forEach(historia -> consumidor.accept(toResponseDTO(historia, conteos)));
+            });
+        }
+    }
+
+    /**
+     * Evoluciones y vacunas por historia de una página o bloque.
+     */
+    private record ConteosHistoria(Map<Long, Integer> evoluciones, Map<Long, Integer> vacunas) {
+    }
+
+    /**
+     * Cuenta con una consulta agrupada por colección las evoluciones y vacunas de una página
+     * o bloque de historias, en lugar de inicializar las colecciones de cada una.
+     */
+    private ConteosHistoria contar(List<HistoriaClinica> historias) {
+        if (historias.isEmpty()) {
+            return new ConteosHistoria(Map.of(), Map.of());
+        }
+        List<Long> ids = historias.stream().map(HistoriaClinica::getIdHistoriaClinica).toList();
+        return new ConteosHistoria(
+                ConteoPorId.comoMapa(historiaClinicaRepository.contarEvoluciones(ids)),
+                ConteoPorId.comoMapa(historiaClinicaRepository.contarVacunaciones(ids)));
+    }
+
+    private HistoriaClinicaResponseDTO toResponseDTO(HistoriaClinica historia, ConteosHistoria conteos) {
+        HistoriaClinicaResponseDTO dto = historiaClinicaMapper.toResponseDTOSinConteos(historia);
+        dto.setCantidadEvoluciones(conteos.evoluciones().getOrDefault(historia.getIdHistoriaClinica(), 0));
+        dto.setCantidadVacunas(conteos.vacunas().getOrDefault(historia.getIdHistoriaClinica(), 0));
+        return dto;
+    }
+
     @Override
     public void guardarMemento(Long id) {
         log.info("Guardando memento de historia clínica ID: {}", id);
@@ -1,17 +1,19 @@
 package com.veterinaria.clinica_veternica.service.impl;
 
-import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.config.DisponibilidadProperties;
 import com.veterinaria.clinica_veternica.domain.agenda.Horario;
 import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
 import com.veterinaria.clinica_veternica.dto.request.agenda.HorarioRequestDTO;
 import com.veterinaria.clinica_veternica.dto.response.agenda.DisponibilidadVeterinarioDTO;
 import com.veterinaria.clinica_veternica.dto.response.agenda.HorarioResponseDTO;
+import com.veterinaria.clinica_veternica.dto.response.agenda.ProximaDisponibilidadDTO;
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
 import com.veterinaria.clinica_veternica.exception.ValidationException;
 import com.veterinaria.clinica_veternica.mapper.agenda.HorarioMapper;
-import com.veterinaria.clinica_veternica.repository.CitaRepository;
 import com.veterinaria.clinica_veternica.repository.HorarioRepository;
 import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import com.veterinaria.clinica_veternica.service.disponibilidad.AgendaDia;
+import com.veterinaria.clinica_veternica.service.disponibilidad.IndiceDisponibilidad;
 import com.veterinaria.clinica_veternica.service.interfaces.IHorarioService;
 import com.veterinaria.clinica_veternica.util.Constants;
 import lombok.RequiredArgsConstructor;
@@ -22,9 +24,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -42,8 +45,9 @@ public class HorarioServiceImpl implements IHorarioService {
 
     private final HorarioRepository horarioRepository;
     private final VeterinarioRepository veterinarioRepository;
-    private final CitaRepository citaRepository;
     private final HorarioMapper horarioMapper;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    private final DisponibilidadProperties disponibilidadProperties;
 
     @Override
     public HorarioResponseDTO crear(HorarioRequestDTO requestDTO) {
@@ -73,6 +77,7 @@ public class HorarioServiceImpl implements IHorarioService {
         }
 
         Horario horarioGuardado = horarioRepository.save(horario);
+        invalidarDisponibilidad(horarioGuardado);
         log.info("Horario creado exitosamente con ID: {}", horarioGuardado.getIdHorario());
         return horarioMapper.toResponseDTO(horarioGuardado);
     }
@@ -91,6 +96,7 @@ public class HorarioServiceImpl implements IHorarioService {
 
         horarioMapper.updateEntityFromDTO(requestDTO, horario);
         Horario horarioActualizado = horarioRepository.save(horario);
+        invalidarDisponibilidad(horarioActualizado);
         log.info("Horario actualizado exitosamente");
         return horarioMapper.toResponseDTO(horarioActualizado);
     }
@@ -142,6 +148,7 @@ public class HorarioServiceImpl implements IHorarioService {
 
         horario.setActivo(false);
         horarioRepository.save(horario);
+        invalidarDisponibilidad(horario);
         log.info("Horario desactivado exitosamente");
     }
 
@@ -153,6 +160,7 @@ public class HorarioServiceImpl implements IHorarioService {
 
         horario.activar();
         Horario horarioActivado = horarioRepository.save(horario);
+        invalidarDisponibilidad(horarioActivado);
         return horarioMapper.toResponseDTO(horarioActivado);
     }
 
@@ -164,9 +172,19 @@ public class HorarioServiceImpl implements IHorarioService {
 
         horario.desactivar();
         Horario horarioDesactivado = horarioRepository.save(horario);
+        invalidarDisponibilidad(horarioDesactivado);
         return horarioMapper.toResponseDTO(horarioDesactivado);
     }
 
+    /**
+     * Descarta las agendas en memoria del veterinario del horario modificado.
+     */
+    private void invalidarDisponibilidad(Horario horario) {
+        if (horario != null && horario.getVeterinario() != null) {
+            indiceDisponibilidad.invalidarVeterinario(horario.getVeterinario().getIdPersonal());
+        }
+    }
+
     private void validarTraslapeHorarios(Veterinario veterinario, HorarioRequestDTO requestDTO) {
         validarTraslapeHorarios(veterinario, requestDTO, null);
     }
@@ -221,45 +239,39 @@ public class HorarioServiceImpl implements IHorarioService {
         // Obtener día de la semana
         DayOfWeek diaSemana = fecha.getDayOfWeek();
 
-        // Obtener horarios activos del veterinario para este día
-        List<Horario> horariosDelDia = horarioRepository.findByVeterinario(veterinario).stream()
-                .filter(h -> h.getDiaSemana() == diaSemana && Boolean.TRUE.equals(h.getActivo()))
-                .collect(Collectors.toList());
-
-        // Obtener citas del día
-        LocalDateTime inicioDia = fecha.atStartOfDay();
-        LocalDateTime finDia = fecha.atTime(23, 59, 59);
-        List<Cita> citasDelDia = citaRepository.findCitasPorVeterinarioYFecha(veterinario, inicioDia, finDia)
-                .stream()
-                .filter(c -> c.getFechaCita().equals(fecha))
-                .filter(c -> !"CANCELADA".equals(c.getEstado()) && !"NO_ASISTIO".equals(c.getEstado()))
-                .collect(Collectors.toList());
+        // Agenda del día (horarios activos + citas activas) desde el índice en memoria
+        AgendaDia agenda = indiceDisponibilidad.agenda(veterinario.getIdPersonal(), fecha);
 
         // Construir DTO de horarios disponibles
-        List<DisponibilidadVeterinarioDTO.HorarioDisponibleDTO> horariosDTO = horariosDelDia.stream()
-                .map(h -> DisponibilidadVeterinarioDTO.HorarioDisponibleDTO.builder()
-                        .idHorario(h.getIdHorario())
-                        .horaInicio(h.getHoraInicio())
-                        .horaFin(h.getHoraFin())
-                        .duracionCitaMinutos(h.getDuracionCitaMinutos())
-                        .activo(h.getActivo())
+        List<DisponibilidadVeterinarioDTO.HorarioDisponibleDTO> horariosDTO = agenda.getTramos().stream()
+                .map(t -> DisponibilidadVeterinarioDTO.HorarioDisponibleDTO.builder()
+                        .idHorario(t.idHorario())
+                        .horaInicio(AgendaDia.hora(t.inicio()))
+                        .horaFin(AgendaDia.hora(t.fin()))
+                        .duracionCitaMinutos(t.paso())
+                        .activo(true)
                         .build())
                 .collect(Collectors.toList());
 
         // Construir DTO de citas ocupadas
-        List<DisponibilidadVeterinarioDTO.CitaOcupadaDTO> citasOcupadasDTO = citasDelDia.stream()
+        List<DisponibilidadVeterinarioDTO.CitaOcupadaDTO> citasOcupadasDTO = agenda.getCitas().stream()
                 .map(c -> DisponibilidadVeterinarioDTO.CitaOcupadaDTO.builder()
-                        .idCita(c.getIdCita())
-                        .hora(c.getHoraCita())
-                        .estado(c.getEstado().name())
-                        .nombreMascota(c.getMascota() != null ? c.getMascota().getNombre() : "N/A")
-                        .nombreServicio(c.getServicio() != null ? c.getServicio().getNombre() : "N/A")
+                        .idCita(c.idCita())
+                        .hora(AgendaDia.hora(c.inicio()))
+                        .estado(c.estado())
+                        .nombreMascota(c.nombreMascota())
+                        .nombreServicio(c.nombreServicio())
                         .build())
                 .collect(Collectors.toList());
 
-        // Calcular slots disponibles
-        List<DisponibilidadVeterinarioDTO.SlotDisponibleDTO> slotsDisponibles = calcularSlotsDisponibles(
-                horariosDelDia, citasDelDia);
+        // Slots: ocupado si alguna cita activa se solapa con él (hasta maxCitasSimultaneas)
+        List<DisponibilidadVeterinarioDTO.SlotDisponibleDTO> slotsDisponibles = agenda.slots().stream()
+                .map(slot -> DisponibilidadVeterinarioDTO.SlotDisponibleDTO.builder()
+                        .hora(slot.hora())
+                        .disponible(slot.disponible())
+                        .motivoNoDisponible(slot.disponible() ? null : "OCUPADO")
+                        .build())
+                .collect(Collectors.toList());
 
         // Obtener nombre del día en español
         String nombreDia = switch (diaSemana) {
@@ -277,107 +289,61 @@ public class HorarioServiceImpl implements IHorarioService {
                 .nombreVeterinario(veterinario.getNombres() + " " + veterinario.getApellidos())
                 .fecha(fecha)
                 .diaSemana(nombreDia)
-                .tieneHorarios(!horariosDelDia.isEmpty())
+                .tieneHorarios(agenda.tieneHorarios())
                 .horarios(horariosDTO)
                 .slotsDisponibles(slotsDisponibles)
                 .citasOcupadas(citasOcupadasDTO)
                 .build();
     }
 
-    /**
-     * Calcula los slots de tiempo disponibles basándose en los horarios y citas ocupadas.
-     */
-    private List<DisponibilidadVeterinarioDTO.SlotDisponibleDTO> calcularSlotsDisponibles(
-            List<Horario> horarios, List<Cita> citasOcupadas) {
-        
-        List<DisponibilidadVeterinarioDTO.SlotDisponibleDTO> slots = new ArrayList<>();
-
-        if (horarios.isEmpty()) {
-            return slots;
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProximaDisponibilidadDTO> buscarProximaDisponibilidad(List<Long> idsVeterinarios,
+                                                                      LocalDateTime desde,
+                                                                      Integer dias) {
+        int diasBusqueda = dias != null ? dias : disponibilidadProperties.getDiasBusquedaPorDefecto();
+        if (diasBusqueda < 1 || diasBusqueda > disponibilidadProperties.getMaximoDiasBusqueda()) {
+            throw new ValidationException(
+                    "El número de días debe estar entre 1 y " + disponibilidadProperties.getMaximoDiasBusqueda(),
+                    "dias",
+                    "Rango de búsqueda no válido"
+            );
         }
-
-        // Límite máximo de slots para evitar OutOfMemoryError (ej: 1000 slots por día)
-        final int MAX_SLOTS = 1000;
-        int totalSlotsGenerados = 0;
-
-        // Para cada horario, generar slots
-        for (Horario horario : horarios) {
-            // Validar que el horario tenga valores válidos
-            if (horario.getHoraInicio() == null || horario.getHoraFin() == null) {
-                log.warn("Horario ID {} tiene hora inicio o fin nula, se omite", horario.getIdHorario());
-                continue;
-            }
-
-            LocalTime horaActual = horario.getHoraInicio();
-            Integer duracionMinutos = horario.getDuracionCitaMinutos();
-            
-            // Validar duración mínima (evitar bucles infinitos)
-            if (duracionMinutos == null || duracionMinutos <= 0) {
-                log.warn("Horario ID {} tiene duración inválida ({}), usando 30 minutos por defecto", 
-                        horario.getIdHorario(), duracionMinutos);
-                duracionMinutos = 30;
-            }
-
-            // Validar que horaInicio < horaFin
-            if (!horaActual.isBefore(horario.getHoraFin())) {
-                log.warn("Horario ID {} tiene hora inicio ({}) >= hora fin ({}), se omite", 
-                        horario.getIdHorario(), horaActual, horario.getHoraFin());
-                continue;
-            }
-
-            // Contador de seguridad para evitar bucles infinitos
-            int iteraciones = 0;
-            final int MAX_ITERACIONES = 10000; // Máximo razonable: 24 horas * 60 minutos / 1 minuto = 1440
-
-            while (horaActual.isBefore(horario.getHoraFin()) && 
-                   totalSlotsGenerados < MAX_SLOTS && 
-                   iteraciones < MAX_ITERACIONES) {
-
-                // Verificar que el slot no exceda el horario de fin
-                LocalTime horaFinSlot = horaActual.plusMinutes(duracionMinutos);
-                if (!horaFinSlot.isBefore(horario.getHoraFin()) && !horaFinSlot.equals(horario.getHoraFin())) {
-                    break; // El slot excedería el horario de fin
+        LocalDateTime inicio = desde != null ? desde : LocalDateTime.now();
+
+        List<Veterinario> veterinarios;
+        if (idsVeterinarios == null || idsVeterinarios.isEmpty()) {
+            veterinarios = veterinarioRepository.findByActivoTrue();
+        } else {
+            List<Long> ids = List.copyOf(new LinkedHashSet<>(idsVeterinarios));
+            Map<Long, Veterinario> encontrados = veterinarioRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Veterinario::getIdPersonal, Function.identity()));
+            for (Long id : ids) {
+                if (!encontrados.containsKey(id)) {
+                    throw new ResourceNotFoundException(Constants.ENTIDAD_VETERINARIO, "id", id);
                 }
-
-                // Crear variables finales para usar en lambda
-                final LocalTime horaActualFinal = horaActual;
-
-                // Verificar si este slot está ocupado
-                boolean ocupado = citasOcupadas.stream()
-                        .anyMatch(cita -> {
-                            if (cita.getHoraCita() == null) {
-                                return false;
-                            }
-                            // Solo bloquear el slot si la cita comienza exactamente en este slot
-                            return cita.getHoraCita().equals(horaActualFinal);
-                        });
-
-                slots.add(DisponibilidadVeterinarioDTO.SlotDisponibleDTO.builder()
-                        .hora(horaActual)
-                        .disponible(!ocupado)
-                        .motivoNoDisponible(ocupado ? "OCUPADO" : null)
-                        .build());
-
-                horaActual = horaActual.plusMinutes(duracionMinutos);
-                totalSlotsGenerados++;
-                iteraciones++;
-            }
-
-            // Advertencia si se alcanzó el límite
-            if (iteraciones >= MAX_ITERACIONES) {
-                log.warn("Se alcanzó el límite de iteraciones para horario ID {}. Posible bucle infinito detectado.", 
-                        horario.getIdHorario());
-            }
-
-            if (totalSlotsGenerados >= MAX_SLOTS) {
-                log.warn("Se alcanzó el límite máximo de slots ({}). Se detuvo la generación para evitar OutOfMemoryError.", 
-                        MAX_SLOTS);
-                break;
             }
+            veterinarios = ids.stream().map(encontrados::get).toList();
         }
+        log.debug("Buscando próxima disponibilidad de {} veterinarios desde {} ({} días)",
+                veterinarios.size(), inicio, diasBusqueda);
+
+        Map<Long, Veterinario> porId = veterinarios.stream()
+                .filter(v -> !Boolean.FALSE.equals(v.getActivo()))
+                .collect(Collectors.toMap(Veterinario::getIdPersonal, Function.identity(), (a, b) -> a));
 
-        log.debug("Total de slots generados: {}", totalSlotsGenerados);
-        return slots;
+        return indiceDisponibilidad.buscarPrimerosSlotsLibres(List.copyOf(porId.keySet()), inicio, diasBusqueda)
+                .stream()
+                .map(slot -> {
+                    Veterinario veterinario = porId.get(slot.idVeterinario());
+                    return ProximaDisponibilidadDTO.builder()
+                            .idVeterinario(slot.idVeterinario())
+                            .nombreVeterinario(veterinario.getNombres() + " " + veterinario.getApellidos())
+                            .fecha(slot.fecha())
+                            .hora(slot.hora())
+                            .duracionMinutos(slot.duracionMinutos())
+                            .build();
+                })
+                .toList();
     }
 }
-
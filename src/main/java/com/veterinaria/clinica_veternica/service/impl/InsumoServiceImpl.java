@@ -2,7 +2,9 @@ package com.veterinaria.clinica_veternica.service.impl;
 
 import com.veterinaria.clinica_veternica.domain.inventario.Insumo;
 import com.veterinaria.clinica_veternica.domain.inventario.TipoInsumo;
+import com.veterinaria.clinica_veternica.domain.inventario.TipoMovimientoStock;
 import com.veterinaria.clinica_veternica.dto.request.inventario.InsumoRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.inventario.InsumoResponseDTO;
 import com.veterinaria.clinica_veternica.exception.BusinessException;
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
@@ -11,13 +13,20 @@ import com.veterinaria.clinica_veternica.mapper.inventario.InsumoMapper;
 import com.veterinaria.clinica_veternica.repository.InsumoRepository;
 import com.veterinaria.clinica_veternica.repository.TipoInsumoRepository;
 import com.veterinaria.clinica_veternica.service.interfaces.IInsumoService;
+import com.veterinaria.clinica_veternica.service.inventario.MotorMovimientosStock;
 import com.veterinaria.clinica_veternica.util.Constants;
+import com.veterinaria.clinica_veternica.util.KeysetCursor;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementación del servicio para gestión de Insumos.
@@ -35,6 +44,13 @@ public class InsumoServiceImpl implements IInsumoService {
     private final InsumoRepository insumoRepository;
     private final TipoInsumoRepository tipoInsumoRepository;
     private final InsumoMapper insumoMapper;
+    private final MotorMovimientosStock motorMovimientosStock;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String REFERENCIA_ALTA = "ALTA_INSUMO";
+    private static final String REFERENCIA_EDICION = "EDICION_INSUMO";
 
     @Override
     public InsumoResponseDTO crear(InsumoRequestDTO requestDTO) {
@@ -66,6 +82,8 @@ public class InsumoServiceImpl implements IInsumoService {
         }
 
         Insumo insumoGuardado = insumoRepository.save(insumo);
+        motorMovimientosStock.anotar(insumoGuardado, TipoMovimientoStock.ENTRADA,
+            insumoGuardado.getCantidadStock(), REFERENCIA_ALTA);
         log.info("Insumo creado: {} ({})", insumoGuardado.getNombre(), insumoGuardado.getCodigo());
         return insumoMapper.toResponseDTO(insumoGuardado);
     }
@@ -89,6 +107,7 @@ public class InsumoServiceImpl implements IInsumoService {
         TipoInsumo tipoInsumo = tipoInsumoRepository.findById(requestDTO.getIdTipoInsumo())
             .orElseThrow(() -> new ResourceNotFoundException(Constants.ENTIDAD_TIPO_INSUMO, "id", requestDTO.getIdTipoInsumo()));
 
+        int stockAnterior = insumo.getCantidadStock();
         insumoMapper.updateEntityFromDTO(requestDTO, insumo);
         insumo.setTipoInsumo(tipoInsumo);
 
@@ -99,7 +118,11 @@ public class InsumoServiceImpl implements IInsumoService {
             insumo.marcarComoDisponible();
         }
 
+        // Con @Version, si el stock cambió desde la lectura (p. ej. una vacunación) el guardado
+        // falla con un conflicto en lugar de pisar el descuento
         Insumo insumoActualizado = insumoRepository.save(insumo);
+        motorMovimientosStock.anotar(insumoActualizado, TipoMovimientoStock.AJUSTE,
+            insumoActualizado.getCantidadStock() - stockAnterior, REFERENCIA_EDICION);
         log.info("Insumo actualizado: {} ({})", insumoActualizado.getNombre(), insumoActualizado.getCodigo());
         return insumoMapper.toResponseDTO(insumoActualizado);
     }
@@ -132,6 +155,26 @@ public class InsumoServiceImpl implements IInsumoService {
         return insumoMapper.toResponseDTOList(insumoRepository.findInsumosActivos());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaKeysetDTO<InsumoResponseDTO> listarPagina(String cursor, Integer limite, boolean soloActivos) {
+        int tamanio = KeysetCursor.normalizarLimite(limite);
+        Long despuesDe = KeysetCursor.esPrimeraPagina(cursor) ? 0L : KeysetCursor.decodificarId(cursor);
+        List<Insumo> insumos = insumoRepository.findPaginaKeyset(
+                despuesDe, soloActivos, KeysetCursor.limiteConsulta(tamanio));
+        return KeysetCursor.pagina(insumos, tamanio, insumoMapper::toResponseDTO,
+                insumo -> KeysetCursor.codificar(insumo.getIdInsumo()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void recorrerTodos(boolean soloActivos, Consumer<InsumoResponseDTO> consumidor) {
+        try (Stream<Insumo> insumos = insumoRepository.streamTodos(soloActivos)) {
+            StreamingUtils.recorrerPorLotes(insumos, entityManager,
+                    insumo -> consumidor.accept(insumoMapper.toResponseDTO(insumo)));
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<InsumoResponseDTO> listarConStockBajo() {
@@ -164,6 +207,7 @@ public class InsumoServiceImpl implements IInsumoService {
             .orElseThrow(() -> new ResourceNotFoundException(Constants.ENTIDAD_INSUMO, "id", id));
 
         insumoRepository.delete(insumo);
+        motorMovimientosStock.invalidarListado();
         log.info("Insumo eliminado: {} ({})", insumo.getNombre(), insumo.getCodigo());
     }
 
@@ -173,6 +217,7 @@ public class InsumoServiceImpl implements IInsumoService {
             .orElseThrow(() -> new ResourceNotFoundException(Constants.ENTIDAD_INSUMO, "id", id));
         insumo.activar();
         Insumo insumoActualizado = insumoRepository.save(insumo);
+        motorMovimientosStock.invalidarListado();
         log.info("Insumo activado: {} ({})", insumoActualizado.getNombre(), insumoActualizado.getCodigo());
         return insumoMapper.toResponseDTO(insumoActualizado);
     }
@@ -183,6 +228,7 @@ public class InsumoServiceImpl implements IInsumoService {
             .orElseThrow(() -> new ResourceNotFoundException(Constants.ENTIDAD_INSUMO, "id", id));
         insumo.desactivar();
         Insumo insumoActualizado = insumoRepository.save(insumo);
+        motorMovimientosStock.invalidarListado();
         log.info("Insumo desactivado: {} ({})", insumoActualizado.getNombre(), insumoActualizado.getCodigo());
         return insumoMapper.toResponseDTO(insumoActualizado);
     }
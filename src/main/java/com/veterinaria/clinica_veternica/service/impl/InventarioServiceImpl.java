@@ -1,23 +1,37 @@
 package com.veterinaria.clinica_veternica.service.impl;
 
+import com.veterinaria.clinica_veternica.config.CacheConfig;
 import com.veterinaria.clinica_veternica.domain.inventario.Inventario;
-import com.veterinaria.clinica_veternica.domain.inventario.Insumo;
+import com.veterinaria.clinica_veternica.dto.request.inventario.MovimientoStockRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.inventario.InventarioResponseDTO;
+import com.veterinaria.clinica_veternica.dto.response.inventario.MovimientoStockResponseDTO;
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
 
 import com.veterinaria.clinica_veternica.mapper.inventario.InventarioMapper;
+import com.veterinaria.clinica_veternica.mapper.inventario.MovimientoStockMapper;
 import com.veterinaria.clinica_veternica.patterns.structural.proxy.InventarioProxy;
 import com.veterinaria.clinica_veternica.repository.InventarioRepository;
 import com.veterinaria.clinica_veternica.repository.InsumoRepository;
+import com.veterinaria.clinica_veternica.repository.MovimientoStockRepository;
 import com.veterinaria.clinica_veternica.service.interfaces.IInventarioService;
+import com.veterinaria.clinica_veternica.service.inventario.MotorMovimientosStock;
 import com.veterinaria.clinica_veternica.util.Constants;
+import com.veterinaria.clinica_veternica.util.KeysetCursor;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementación del servicio para gestión de Inventario.
@@ -37,6 +51,12 @@ public class InventarioServiceImpl implements IInventarioService {
     private final InsumoRepository insumoRepository;
     private final InventarioMapper inventarioMapper;
     private final InventarioProxy inventarioProxy;
+    private final MotorMovimientosStock motorMovimientosStock;
+    private final MovimientoStockRepository movimientoStockRepository;
+    private final MovimientoStockMapper movimientoStockMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
@@ -47,146 +67,45 @@ public class InventarioServiceImpl implements IInventarioService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public InventarioResponseDTO buscarPorInsumo(Long idInsumo) {
-        Insumo insumo = insumoRepository.findById(idInsumo)
-                .orElseThrow(() -> new ResourceNotFoundException(Constants.ENTIDAD_INSUMO, "id", idInsumo));
-
-        Inventario inventario = obtenerOcrearInventario(insumo);
+        Inventario inventario = inventarioRepository.findByIdInsumoWithFetch(idInsumo)
+                .orElseThrow(() -> insumoRepository.existsById(idInsumo)
+                        ? new ResourceNotFoundException(Constants.ENTIDAD_INVENTARIO, "idInsumo", idInsumo)
+                        : new ResourceNotFoundException(Constants.ENTIDAD_INSUMO, "id", idInsumo));
         return inventarioMapper.toResponseDTO(inventario);
     }
 
-    @Override
-    @Transactional
-    public List<InventarioResponseDTO> listarTodos() {
-        // Obtener todos los insumos activos
-        List<Insumo> insumos = insumoRepository.findInsumosActivos();
-        
-        // Para cada insumo, asegurar que tenga un registro de inventario y sincronizar stock
-        List<Inventario> inventarios = insumos.stream()
-                .map(this::obtenerOcrearInventario)
-                .toList();
-        
-        // Asegurar que todos los insumos estén cargados antes de mapear
-        inventarios.forEach(inv -> {
-            if (inv.getInsumo() != null) {
-                // Forzar la carga del insumo accediendo a una propiedad
-                inv.getInsumo().getNombre();
-            }
-        });
-        
-        return inventarioMapper.toResponseDTOList(inventarios);
-    }
-
     /**
-     * Obtiene el registro de inventario para un insumo, o lo crea si no existe.
-     * Sincroniza la cantidad actual del inventario con el stock del insumo.
+     * Lista el inventario de los insumos activos con una sola consulta y sin escrituras.
      *
-     * @param insumo Insumo para el cual obtener o crear el inventario
-     * @return Registro de inventario sincronizado
+     * El inventario se sincroniza al escribir (MotorMovimientosStock), por lo que aquí solo
+     * se lee; el resultado se guarda en caché hasta el siguiente movimiento de stock.
      */
-    private Inventario obtenerOcrearInventario(Insumo insumo) {
-        // Intentar obtener el inventario con el insumo cargado
-        Inventario inventario = inventarioRepository.findByInsumoWithFetch(insumo)
-                .orElse(null);
-
-        if (inventario == null) {
-            inventario = crearNuevoInventario(insumo);
-        } else {
-            inventario = sincronizarInventarioExistente(inventario, insumo);
-        }
-        
-        // Asegurar que el insumo esté cargado y asociado (por si acaso)
-        if (inventario.getInsumo() == null) {
-            inventario.setInsumo(insumo);
-        } else {
-            // Forzar la carga del insumo accediendo a una propiedad
-            inventario.getInsumo().getNombre();
-        }
-
-        return inventario;
-    }
-
-    /**
-     * Crea un nuevo registro de inventario para un insumo.
-     *
-     * @param insumo Insumo para el cual crear el inventario
-     * @return Registro de inventario creado
-     */
-    private Inventario crearNuevoInventario(Insumo insumo) {
-        Integer stockInicial = insumo.getCantidadStock() != null ? insumo.getCantidadStock() : 0;
-        
-        Inventario inventario = Inventario.builder()
-                .insumo(insumo)
-                .cantidadActual(stockInicial)
-                .totalEntradas(0)
-                .totalSalidas(0)
-                .valorEntradas(BigDecimal.ZERO)
-                .valorSalidas(BigDecimal.ZERO)
-                .requiereReorden(false)
-                .build();
-        
-        calcularValorTotal(inventario, insumo, stockInicial);
-        
-        inventario = inventarioRepository.save(inventario);
-        // Asegurar que el insumo esté asociado después de guardar
-        inventario.setInsumo(insumo);
-        log.debug("Registro de inventario creado para insumo ID: {} - {}", insumo.getIdInsumo(), insumo.getNombre());
-        
-        return inventario;
-    }
-
-    /**
-     * Sincroniza un inventario existente con el stock del insumo.
-     *
-     * @param inventario Inventario existente
-     * @param insumo Insumo relacionado
-     * @return Inventario sincronizado
-     */
-    private Inventario sincronizarInventarioExistente(Inventario inventario, Insumo insumo) {
-        Integer stockInsumo = insumo.getCantidadStock() != null ? insumo.getCantidadStock() : 0;
-        
-        if (!stockInsumo.equals(inventario.getCantidadActual())) {
-            log.debug("Sincronizando stock del inventario para insumo ID: {}. Stock insumo: {}, Stock inventario: {}",
-                    insumo.getIdInsumo(), stockInsumo, inventario.getCantidadActual());
-            
-            inventario.setCantidadActual(stockInsumo);
-            calcularValorTotal(inventario, insumo, stockInsumo);
-            actualizarIndicadorReorden(inventario, insumo, stockInsumo);
-            
-            inventario = inventarioRepository.save(inventario);
-        }
-        
-        // Asegurar que el insumo esté asociado
-        inventario.setInsumo(insumo);
-        
-        return inventario;
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheConfig.CACHE_INVENTARIO, key = "'activos'")
+    public List<InventarioResponseDTO> listarTodos() {
+        return List.copyOf(inventarioMapper.toResponseDTOList(inventarioRepository.findAllWithInsumo()));
     }
 
-    /**
-     * Calcula y establece el valor total del inventario.
-     *
-     * @param inventario Inventario a actualizar
-     * @param insumo Insumo relacionado
-     * @param cantidad Cantidad de stock
-     */
-    private void calcularValorTotal(Inventario inventario, Insumo insumo, Integer cantidad) {
-        if (insumo.getPrecioCompra() != null && cantidad != null) {
-            BigDecimal valorTotal = insumo.getPrecioCompra().multiply(BigDecimal.valueOf(cantidad));
-            inventario.setValorTotal(valorTotal);
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaKeysetDTO<InventarioResponseDTO> listarPagina(String cursor, Integer limite) {
+        int tamanio = KeysetCursor.normalizarLimite(limite);
+        Long despuesDe = KeysetCursor.esPrimeraPagina(cursor) ? 0L : KeysetCursor.decodificarId(cursor);
+        List<Inventario> inventarios = inventarioRepository.findPaginaKeyset(
+                despuesDe, KeysetCursor.limiteConsulta(tamanio));
+        return KeysetCursor.pagina(inventarios, tamanio, inventarioMapper::toResponseDTO,
+                inventario -> KeysetCursor.codificar(inventario.getIdInventario()));
     }
 
-    /**
-     * Actualiza el indicador de reorden del inventario.
-     *
-     * @param inventario Inventario a actualizar
-     * @param insumo Insumo relacionado
-     * @param stockActual Stock actual del insumo
-     */
-    private void actualizarIndicadorReorden(Inventario inventario, Insumo insumo, Integer stockActual) {
-        if (insumo.getStockMinimo() != null) {
-            inventario.setRequiereReorden(stockActual <= insumo.getStockMinimo());
+    @Override
+    @Transactional(readOnly = true)
+    public void recorrerTodos(Consumer<InventarioResponseDTO> consumidor) {
+        try (Stream<Inventario> inventarios = inventarioRepository.streamTodos()) {
+            StreamingUtils.recorrerPorLotes(inventarios, entityManager,
+                    inventario -> consumidor.accept(inventarioMapper.toResponseDTO(inventario)));
         }
     }
 
@@ -210,5 +129,22 @@ public class InventarioServiceImpl implements IInventarioService {
         List<Inventario> inventarios = inventarioRepository.findInventariosOrdenadosPorValor();
         return inventarioMapper.toResponseDTOList(inventarios);
     }
-}
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<MovimientoStockResponseDTO> aplicarMovimientos(List<MovimientoStockRequestDTO> movimientos) {
+        // El motor abre su propia transacción para poder reintentar el lote
+        return movimientoStockMapper.toResponseDTOList(
+                motorMovimientosStock.aplicarLote(movimientoStockMapper.toSolicitudList(movimientos)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MovimientoStockResponseDTO> listarMovimientos(Long idInsumo, Integer limite) {
+        if (!insumoRepository.existsById(idInsumo)) {
+            throw new ResourceNotFoundException(Constants.ENTIDAD_INSUMO, "id", idInsumo);
+        }
+        return movimientoStockMapper.toResponseDTOList(
+                movimientoStockRepository.findUltimosPorInsumo(idInsumo, PageRequest.of(0, KeysetCursor.normalizarLimite(limite))));
+    }
+}
@@ -7,6 +7,7 @@ import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
 import com.veterinaria.clinica_veternica.domain.paciente.Raza;
 import com.veterinaria.clinica_veternica.domain.usuario.Usuario;
 import com.veterinaria.clinica_veternica.dto.request.paciente.MascotaRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.paciente.MascotaResponseDTO;
 import com.veterinaria.clinica_veternica.exception.BusinessException;
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
@@ -23,8 +24,13 @@ import com.veterinaria.clinica_veternica.repository.MascotaRepository;
 import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
 import com.veterinaria.clinica_veternica.repository.RazaRepository;
 import com.veterinaria.clinica_veternica.repository.UsuarioRepository;
+import com.veterinaria.clinica_veternica.service.busqueda.IndiceBusqueda;
 import com.veterinaria.clinica_veternica.service.interfaces.IMascotaService;
 import com.veterinaria.clinica_veternica.util.Constants;
+import com.veterinaria.clinica_veternica.util.KeysetCursor;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import com.veterinaria.clinica_veternica.util.ValidationHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +42,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.util.Optional;
 
 @Slf4j
@@ -56,6 +64,10 @@ public class MascotaServiceImpl implements IMascotaService {
     private final ValidationHelper validationHelper;
     private final CachedServiceProxy cachedServiceProxy;
     private final EmailNotificacionFactory emailFactory;
+    private final IndiceBusqueda indiceBusqueda;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     public MascotaResponseDTO crear(MascotaRequestDTO requestDTO) {
@@ -285,6 +297,26 @@ public class MascotaServiceImpl implements IMascotaService {
         );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaKeysetDTO<MascotaResponseDTO> listarPagina(String cursor, Integer limite, boolean soloActivas) {
+        int tamanio = KeysetCursor.normalizarLimite(limite);
+        Long despuesDe = KeysetCursor.esPrimeraPagina(cursor) ? 0L : KeysetCursor.decodificarId(cursor);
+        List<Mascota> mascotas = mascotaRepository.findPaginaKeyset(
+                despuesDe, soloActivas, KeysetCursor.limiteConsulta(tamanio));
+        return KeysetCursor.pagina(mascotas, tamanio, mascotaMapper::toResponseDTO,
+                mascota -> KeysetCursor.codificar(mascota.getIdMascota()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void recorrerTodas(boolean soloActivas, Consumer<MascotaResponseDTO> consumidor) {
+        try (Stream<Mascota> mascotas = mascotaRepository.streamTodas(soloActivas)) {
+            StreamingUtils.recorrerPorLotes(mascotas, entityManager,
+                    mascota -> consumidor.accept(mascotaMapper.toResponseDTO(mascota)));
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<MascotaResponseDTO> listarPorPropietario(Long idPropietario) {
@@ -319,7 +351,9 @@ public class MascotaServiceImpl implements IMascotaService {
     @Transactional(readOnly = true)
     public List<MascotaResponseDTO> buscarPorNombre(String nombre) {
         String nombreSanitizado = validationHelper.validateAndSanitizeSearchTerm(nombre, 100);
-        List<Mascota> mascotas = mascotaRepository.findByNombreContainingIgnoreCase(nombreSanitizado);
+        List<Mascota> mascotas = indiceBusqueda.buscar(IndiceBusqueda.Tipo.MASCOTA, nombreSanitizado)
+            .map(ids -> IndiceBusqueda.ordenarPorIds(ids, mascotaRepository.findAllById(ids), Mascota::getIdMascota))
+            .orElseGet(() -> mascotaRepository.findByNombreContainingIgnoreCase(nombreSanitizado));
         return mascotaMapper.toResponseDTOList(mascotas);
     }
 
@@ -1,9 +1,11 @@
 package com.veterinaria.clinica_veternica.service.impl;
 
 import com.veterinaria.clinica_veternica.domain.comunicacion.Comunicacion;
+import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
 import com.veterinaria.clinica_veternica.domain.usuario.Personal;
 import com.veterinaria.clinica_veternica.domain.usuario.Usuario;
 import com.veterinaria.clinica_veternica.dto.request.comunicacion.NotificacionRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.comunicacion.NotificacionResponseDTO;
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
 import com.veterinaria.clinica_veternica.exception.ValidationException;
@@ -14,13 +16,24 @@ import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
 import com.veterinaria.clinica_veternica.repository.UsuarioRepository;
 import com.veterinaria.clinica_veternica.service.interfaces.INotificacionService;
 import com.veterinaria.clinica_veternica.util.Constants;
+import com.veterinaria.clinica_veternica.util.KeysetCursor;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.Map;
 
 /**
@@ -49,6 +62,9 @@ public class NotificacionServiceImpl implements INotificacionService {
     private final WhatsAppNotificacionFactory whatsAppFactory;
     private final PushNotificacionFactory pushFactory;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     // Mapa de factories por canal
     private final Map<String, NotificacionFactory> factories = new HashMap<>();
 
@@ -145,7 +161,8 @@ public class NotificacionServiceImpl implements INotificacionService {
         comunicacion = comunicacionRepository.save(comunicacion);
 
         // Convertir a DTO
-        return toResponseDTO(comunicacion, usuario, enviador);
+        return toResponseDTO(comunicacion, new DatosDestinatario(usuario.getIdUsuario(),
+            nombreDestinatario, emailDestinatario, telefonoDestinatario), enviador);
     }
 
     /**
@@ -205,20 +222,38 @@ public class NotificacionServiceImpl implements INotificacionService {
     public NotificacionResponseDTO buscarPorId(Long id) {
         Comunicacion comunicacion = comunicacionRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException(Constants.ENTIDAD_NOTIFICACION, "id", id));
-        
-        Usuario usuario = obtenerUsuarioDeComunicacion(comunicacion);
-        return toResponseDTO(comunicacion, usuario, null);
+
+        return toResponseDTO(comunicacion, cargarDestinatarios(List.of(comunicacion)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<NotificacionResponseDTO> listarTodas() {
-        return comunicacionRepository.findByTipo(Constants.ENTIDAD_NOTIFICACION).stream()
-            .map(com -> {
-                Usuario usuario = obtenerUsuarioDeComunicacion(com);
-                return toResponseDTO(com, usuario, null);
-            })
-            .toList();
+        return toResponseDTOs(comunicacionRepository.findByTipo(Constants.ENTIDAD_NOTIFICACION));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaKeysetDTO<NotificacionResponseDTO> listarPagina(String cursor, Integer limite) {
+        int tamanio = KeysetCursor.normalizarLimite(limite);
+        Long despuesDe = KeysetCursor.esPrimeraPagina(cursor) ? 0L : KeysetCursor.decodificarId(cursor);
+        List<Comunicacion> comunicaciones = comunicacionRepository.findPaginaKeysetPorTipo(
+                Constants.ENTIDAD_NOTIFICACION, despuesDe, KeysetCursor.limiteConsulta(tamanio));
+        Map<String, DatosDestinatario> destinatarios = cargarDestinatarios(comunicaciones);
+        return KeysetCursor.pagina(comunicaciones, tamanio,
+                com -> toResponseDTO(com, destinatarios),
+                com -> KeysetCursor.codificar(com.getIdComunicacion()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void recorrerTodas(Consumer<NotificacionResponseDTO> consumidor) {
+        try (Stream<Comunicacion> comunicaciones = comunicacionRepository.streamPorTipo(Constants.ENTIDAD_NOTIFICACION)) {
+            StreamingUtils.recorrerPorBloques(comunicaciones, entityManager, bloque -> {
+                Map<String, DatosDestinatario> destinatarios = cargarDestinatarios(bloque);
+                bloque.forEach(com -> consumidor.accept(toResponseDTO(com, destinatarios)));
+            });
+        }
     }
 
 
@@ -228,63 +263,109 @@ public class NotificacionServiceImpl implements INotificacionService {
         Usuario usuario = usuarioRepository.findById(idUsuario)
             .orElseThrow(() -> new ResourceNotFoundException(Constants.ENTIDAD_USUARIO, "id", idUsuario));
 
+        DatosDestinatario destinatario = new DatosDestinatario(usuario.getIdUsuario(),
+            obtenerNombreDestinatario(usuario), usuario.getEmail(), obtenerTelefonoDestinatario(usuario));
         return comunicacionRepository.findByDestinatarioEmail(usuario.getEmail()).stream()
             .filter(com -> Constants.ENTIDAD_NOTIFICACION.equals(com.getTipo()))
-            .map(com -> toResponseDTO(com, usuario, null))
+            .map(com -> toResponseDTO(com, destinatario, null))
             .toList();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<NotificacionResponseDTO> listarPorCanal(String canal) {
-        return comunicacionRepository.findByCanal(canal.toUpperCase()).stream()
+        return toResponseDTOs(comunicacionRepository.findByCanal(canal.toUpperCase()).stream()
             .filter(com -> Constants.ENTIDAD_NOTIFICACION.equals(com.getTipo()))
-            .map(com -> {
-                Usuario usuario = obtenerUsuarioDeComunicacion(com);
-                return toResponseDTO(com, usuario, null);
-            })
-            .toList();
+            .toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<NotificacionResponseDTO> listarEnviadas() {
-        return comunicacionRepository.findByTipo(Constants.ENTIDAD_NOTIFICACION).stream()
+        return toResponseDTOs(comunicacionRepository.findByTipo(Constants.ENTIDAD_NOTIFICACION).stream()
             .filter(com -> Constants.isTrue(com.getEnviada()))
-            .map(com -> {
-                Usuario usuario = obtenerUsuarioDeComunicacion(com);
-                return toResponseDTO(com, usuario, null);
-            })
-            .toList();
+            .toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<NotificacionResponseDTO> listarPendientes() {
-        return comunicacionRepository.findPendientesEnvio().stream()
+        return toResponseDTOs(comunicacionRepository.findPendientesEnvio().stream()
             .filter(com -> Constants.ENTIDAD_NOTIFICACION.equals(com.getTipo()))
-            .map(com -> {
-                Usuario usuario = obtenerUsuarioDeComunicacion(com);
-                return toResponseDTO(com, usuario, null);
-            })
-            .toList();
+            .toList());
     }
 
     /**
-     * Obtiene el usuario de una comunicación.
+     * Datos del usuario destinatario que se muestran en la respuesta.
      */
-    private Usuario obtenerUsuarioDeComunicacion(Comunicacion comunicacion) {
-        if (comunicacion.getDestinatarioEmail() != null) {
-            return usuarioRepository.findByEmail(comunicacion.getDestinatarioEmail())
-                .orElse(null);
+    private record DatosDestinatario(Long idUsuario, String nombre, String email, String telefono) {
+    }
+
+    /**
+     * Carga los usuarios destinatarios de un lote de comunicaciones con tres consultas
+     * (usuarios, personal y propietarios), en lugar de varias por comunicación.
+     *
+     * @return Datos del destinatario por email en minúsculas
+     */
+    private Map<String, DatosDestinatario> cargarDestinatarios(Collection<Comunicacion> comunicaciones) {
+        Set<String> emails = comunicaciones.stream()
+            .map(Comunicacion::getDestinatarioEmail)
+            .filter(Objects::nonNull)
+            .map(NotificacionServiceImpl::clave)
+            .collect(Collectors.toSet());
+        if (emails.isEmpty()) {
+            return Map.of();
         }
-        return null;
+        List<Usuario> usuarios = usuarioRepository.findByEmailsEnMinusculas(emails);
+        if (usuarios.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Personal> personalPorUsuario = personalRepository.findByUsuarios(usuarios).stream()
+            .collect(Collectors.toMap(p -> p.getUsuario().getIdUsuario(), p -> p, (a, b) -> a));
+        Map<String, Propietario> propietarioPorEmail = propietarioRepository.findByEmailsEnMinusculas(
+                usuarios.stream().map(u -> clave(u.getEmail())).collect(Collectors.toSet())).stream()
+            .collect(Collectors.toMap(p -> clave(p.getEmail()), p -> p, (a, b) -> a));
+
+        Map<String, DatosDestinatario> destinatarios = new HashMap<>();
+        for (Usuario usuario : usuarios) {
+            // Misma prioridad que obtenerNombreDestinatario/obtenerTelefonoDestinatario: personal, propietario
+            Personal personal = personalPorUsuario.get(usuario.getIdUsuario());
+            Propietario propietario = propietarioPorEmail.get(clave(usuario.getEmail()));
+            String nombre = personal != null ? personal.getNombreCompleto()
+                : propietario != null ? propietario.getNombreCompleto()
+                : usuario.getUsername();
+            String telefono = personal != null && personal.getTelefono() != null ? personal.getTelefono()
+                : propietario != null ? propietario.getTelefono()
+                : null;
+            destinatarios.putIfAbsent(clave(usuario.getEmail()),
+                new DatosDestinatario(usuario.getIdUsuario(), nombre, usuario.getEmail(), telefono));
+        }
+        return destinatarios;
+    }
+
+    private static String clave(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private List<NotificacionResponseDTO> toResponseDTOs(List<Comunicacion> comunicaciones) {
+        Map<String, DatosDestinatario> destinatarios = cargarDestinatarios(comunicaciones);
+        return comunicaciones.stream()
+            .map(com -> toResponseDTO(com, destinatarios))
+            .toList();
+    }
+
+    private NotificacionResponseDTO toResponseDTO(Comunicacion comunicacion, Map<String, DatosDestinatario> destinatarios) {
+        DatosDestinatario destinatario = comunicacion.getDestinatarioEmail() != null
+            ? destinatarios.get(clave(comunicacion.getDestinatarioEmail()))
+            : null;
+        return toResponseDTO(comunicacion, destinatario, null);
     }
 
     /**
      * Convierte Comunicacion a NotificacionResponseDTO.
      */
-    private NotificacionResponseDTO toResponseDTO(Comunicacion comunicacion, Usuario usuario, EnviadorNotificacion enviador) {
+    private NotificacionResponseDTO toResponseDTO(Comunicacion comunicacion, DatosDestinatario destinatario,
+                                                  EnviadorNotificacion enviador) {
         NotificacionResponseDTO.NotificacionResponseDTOBuilder builder = NotificacionResponseDTO.builder()
             .idComunicacion(comunicacion.getIdComunicacion())
             .tipo(comunicacion.getTipo())
@@ -300,11 +381,11 @@ public class NotificacionServiceImpl implements INotificacionService {
             .mensajeError(comunicacion.getMensajeError())
             .fechaCreacion(comunicacion.getFechaCreacion());
 
-        if (usuario != null) {
-            builder.idUsuario(usuario.getIdUsuario())
-                .nombreUsuario(obtenerNombreDestinatario(usuario))
-                .emailUsuario(usuario.getEmail())
-                .telefonoUsuario(obtenerTelefonoDestinatario(usuario));
+        if (destinatario != null) {
+            builder.idUsuario(destinatario.idUsuario())
+                .nombreUsuario(destinatario.nombre())
+                .emailUsuario(destinatario.email())
+                .telefonoUsuario(destinatario.telefono());
         } else {
             builder.nombreUsuario(comunicacion.getDestinatarioNombre())
                 .emailUsuario(comunicacion.getDestinatarioEmail())
@@ -4,6 +4,7 @@ import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
 import com.veterinaria.clinica_veternica.domain.usuario.RolUsuario;
 import com.veterinaria.clinica_veternica.domain.usuario.Usuario;
 import com.veterinaria.clinica_veternica.dto.request.paciente.PropietarioRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.paciente.PropietarioResponseDTO;
 import com.veterinaria.clinica_veternica.exception.BusinessException;
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
@@ -12,10 +13,16 @@ import com.veterinaria.clinica_veternica.patterns.creational.abstractfactory.Ema
 import com.veterinaria.clinica_veternica.patterns.structural.proxy.CachedServiceProxy;
 import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
 import com.veterinaria.clinica_veternica.repository.UsuarioRepository;
+import com.veterinaria.clinica_veternica.service.busqueda.IndiceBusqueda;
 import com.veterinaria.clinica_veternica.service.interfaces.IPropietarioService;
 import com.veterinaria.clinica_veternica.util.Constants;
+import com.veterinaria.clinica_veternica.util.ConteoPorId;
+import com.veterinaria.clinica_veternica.util.KeysetCursor;
 import com.veterinaria.clinica_veternica.util.NameParser;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
 import com.veterinaria.clinica_veternica.util.ValidationHelper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -23,8 +30,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -40,6 +50,10 @@ public class PropietarioServiceImpl implements IPropietarioService {
     private final CachedServiceProxy cachedServiceProxy;
     private final EmailNotificacionFactory emailFactory;
     private final UsuarioRepository usuarioRepository;
+    private final IndiceBusqueda indiceBusqueda;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     public PropietarioResponseDTO crear(PropietarioRequestDTO requestDTO) {
@@ -148,11 +162,56 @@ public class PropietarioServiceImpl implements IPropietarioService {
         );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaKeysetDTO<PropietarioResponseDTO> listarPagina(String cursor, Integer limite, boolean soloActivos) {
+        int tamanio = KeysetCursor.normalizarLimite(limite);
+        Long despuesDe = KeysetCursor.esPrimeraPagina(cursor) ? 0L : KeysetCursor.decodificarId(cursor);
+        List<Propietario> propietarios = propietarioRepository.findPaginaKeyset(
+                despuesDe, soloActivos, KeysetCursor.limiteConsulta(tamanio));
+        Map<Long, Integer> mascotas = contarMascotas(propietarios);
+        return KeysetCursor.pagina(propietarios, tamanio,
+                propietario -> toResponseDTO(propietario, mascotas),
+                propietario -> KeysetCursor.codificar(propietario.getIdPropietario()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void recorrerTodos(boolean soloActivos, Consumer<PropietarioResponseDTO> consumidor) {
+        try (Stream<Propietario> propietarios = propietarioRepository.streamTodos(soloActivos)) {
+            StreamingUtils.recorrerPorBloques(propietarios, entityManager, bloque -> {
+                Map<Long, Integer> mascotas = contarMascotas(bloque);
+                bloque.forEach(propietario -> consumidor.accept(toResponseDTO(propietario, mascotas)));
+            });
+        }
+    }
+
+    /**
+     * Cuenta en una sola consulta las mascotas de una página o bloque de propietarios,
+     * en lugar de inicializar la colección de cada uno.
+     */
+    private Map<Long, Integer> contarMascotas(List<Propietario> propietarios) {
+        if (propietarios.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = propietarios.stream().map(Propietario::getIdPropietario).toList();
+        return ConteoPorId.comoMapa(propietarioRepository.contarMascotas(ids));
+    }
+
+    private PropietarioResponseDTO toResponseDTO(Propietario propietario, Map<Long, Integer> mascotas) {
+        PropietarioResponseDTO dto = propietarioMapper.toResponseDTOSinConteos(propietario);
+        dto.setCantidadMascotas(mascotas.getOrDefault(propietario.getIdPropietario(), 0));
+        return dto;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<PropietarioResponseDTO> buscarPorNombre(String nombre) {
         String nombreSanitizado = validationHelper.validateAndSanitizeSearchTerm(nombre, 200);
-        List<Propietario> propietarios = propietarioRepository.buscarPorNombreCompleto(nombreSanitizado);
+        List<Propietario> propietarios = indiceBusqueda.buscar(IndiceBusqueda.Tipo.PROPIETARIO, nombreSanitizado)
+            .map(ids -> IndiceBusqueda.ordenarPorIds(ids, propietarioRepository.findAllById(ids),
+                Propietario::getIdPropietario))
+            .orElseGet(() -> propietarioRepository.buscarPorNombreCompleto(nombreSanitizado));
         return propietarioMapper.toResponseDTOList(propietarios);
     }
 
@@ -3,31 +3,37 @@ package com.veterinaria.clinica_veternica.service.impl;
 import com.veterinaria.clinica_veternica.domain.clinico.HistoriaClinica;
 import com.veterinaria.clinica_veternica.domain.clinico.Vacunacion;
 import com.veterinaria.clinica_veternica.domain.inventario.Insumo;
-import com.veterinaria.clinica_veternica.domain.inventario.Inventario;
+import com.veterinaria.clinica_veternica.domain.inventario.MovimientoStock;
 import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
 import com.veterinaria.clinica_veternica.dto.request.clinico.VacunacionRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.clinico.VacunacionResponseDTO;
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
-import com.veterinaria.clinica_veternica.exception.ValidationException;
 import com.veterinaria.clinica_veternica.mapper.clinico.VacunacionMapper;
 import com.veterinaria.clinica_veternica.repository.HistoriaClinicaRepository;
 import com.veterinaria.clinica_veternica.repository.InsumoRepository;
-import com.veterinaria.clinica_veternica.repository.InventarioRepository;
 import com.veterinaria.clinica_veternica.repository.VacunacionRepository;
 import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
 import com.veterinaria.clinica_veternica.dto.request.clinico.EvolucionClinicaRequestDTO;
+import com.veterinaria.clinica_veternica.service.comunicacion.ProgramadorRecordatoriosVacunas;
 import com.veterinaria.clinica_veternica.service.interfaces.IEvolucionClinicaService;
 import com.veterinaria.clinica_veternica.service.interfaces.IInsumoService;
 import com.veterinaria.clinica_veternica.service.interfaces.IVacunacionService;
+import com.veterinaria.clinica_veternica.service.inventario.MotorMovimientosStock;
 import com.veterinaria.clinica_veternica.util.Constants;
+import com.veterinaria.clinica_veternica.util.KeysetCursor;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementación del servicio para gestión de Vacunaciones.
@@ -49,10 +55,14 @@ public class VacunacionServiceImpl implements IVacunacionService {
     private final HistoriaClinicaRepository historiaClinicaRepository;
     private final VeterinarioRepository veterinarioRepository;
     private final InsumoRepository insumoRepository;
-    private final InventarioRepository inventarioRepository;
+    private final MotorMovimientosStock motorMovimientosStock;
     private final IInsumoService insumoService;
     private final VacunacionMapper vacunacionMapper;
     private final IEvolucionClinicaService evolucionClinicaService;
+    private final ProgramadorRecordatoriosVacunas programadorRecordatoriosVacunas;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     public VacunacionResponseDTO crear(Long idHistoriaClinica, VacunacionRequestDTO requestDTO) {
@@ -116,12 +126,13 @@ public class VacunacionServiceImpl implements IVacunacionService {
         // Manejar insumo si se proporciona el ID
         Insumo insumo = prepararInsumoParaVacunacion(requestDTO);
         if (insumo != null) {
-            consumirInsumo(insumo, requestDTO);
+            consumirInsumo(insumo, requestDTO, idHistoriaClinica);
             vacunacion.setInsumo(insumo);
         }
 
         Vacunacion vacunacionGuardada = vacunacionRepository.save(vacunacion);
         log.info("Vacunación creada exitosamente con ID: {}", vacunacionGuardada.getIdVacunacion());
+        programadorRecordatoriosVacunas.programar(vacunacionGuardada.getFechaProximaDosis());
         
         // Crear evolución clínica automáticamente después de la vacunación
         crearEvolucionClinicaPorVacunacion(vacunacionGuardada, historiaClinica, veterinario);
@@ -230,6 +241,26 @@ public class VacunacionServiceImpl implements IVacunacionService {
         return vacunacionMapper.toResponseDTOList(vacunaciones);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaKeysetDTO<VacunacionResponseDTO> listarPagina(String cursor, Integer limite) {
+        int tamanio = KeysetCursor.normalizarLimite(limite);
+        Long despuesDe = KeysetCursor.esPrimeraPagina(cursor) ? 0L : KeysetCursor.decodificarId(cursor);
+        List<Vacunacion> vacunaciones = vacunacionRepository.findPaginaKeyset(
+                despuesDe, KeysetCursor.limiteConsulta(tamanio));
+        return KeysetCursor.pagina(vacunaciones, tamanio, vacunacionMapper::toResponseDTO,
+                vacunacion -> KeysetCursor.codificar(vacunacion.getIdVacunacion()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void recorrerTodas(Consumer<VacunacionResponseDTO> consumidor) {
+        try (Stream<Vacunacion> vacunaciones = vacunacionRepository.streamTodas()) {
+            StreamingUtils.recorrerPorLotes(vacunaciones, entityManager,
+                    vacunacion -> consumidor.accept(vacunacionMapper.toResponseDTO(vacunacion)));
+        }
+    }
+
     private Insumo prepararInsumoParaVacunacion(VacunacionRequestDTO requestDTO) {
         if (requestDTO.getIdInsumo() != null) {
             return insumoRepository.findById(requestDTO.getIdInsumo())
@@ -238,82 +269,21 @@ public class VacunacionServiceImpl implements IVacunacionService {
         return null;
     }
 
-    private void consumirInsumo(Insumo insumo, VacunacionRequestDTO requestDTO) {
-        if (insumo.getActivo() == null || !insumo.getActivo()) {
-            throw new ValidationException(
-                    "El insumo " + insumo.getNombre() + " no está activo",
-                    "idInsumo",
-                    "El insumo debe estar activo para ser utilizado"
-            );
-        }
-
+    /**
+     * Descuenta del stock del insumo la cantidad usada en la vacunación. El descuento es un
+     * UPDATE condicional (ver MotorMovimientosStock): con vacunaciones concurrentes el stock
+     * no queda negativo ni se pierden descuentos, y el inventario consolidado y el libro de
+     * movimientos se actualizan en la misma transacción.
+     */
+    private void consumirInsumo(Insumo insumo, VacunacionRequestDTO requestDTO, Long idHistoriaClinica) {
         int cantidadUsada = (requestDTO.getCantidadUsada() != null && requestDTO.getCantidadUsada() > 0)
                 ? requestDTO.getCantidadUsada()
                 : 1;
 
-        if (insumo.getCantidadStock() == null || insumo.getCantidadStock() < cantidadUsada) {
-            throw new ValidationException(
-                    "Stock insuficiente para el insumo " + insumo.getNombre() +
-                            ". Stock disponible: " + (insumo.getCantidadStock() != null ? insumo.getCantidadStock() : 0) +
-                            ", cantidad requerida: " + cantidadUsada,
-                    "idInsumo",
-                    "Stock insuficiente"
-            );
-        }
-
-        // Decrementar stock del insumo
-        insumo.decrementarStock(cantidadUsada);
-
-        if (insumo.getCantidadStock() == 0) {
-            insumo.marcarComoAgotado();
-        } else if (insumo.esStockBajo()) {
-            insumo.marcarComoDisponible();
-        }
-
-        insumoRepository.save(insumo);
+        MovimientoStock movimiento = motorMovimientosStock.registrarSalida(
+                insumo, cantidadUsada, "VACUNACION:HC-" + idHistoriaClinica);
         log.info("Insumo ID: {} asociado a vacunación. Stock decrementado en {}. Stock restante: {}",
-                insumo.getIdInsumo(), cantidadUsada, insumo.getCantidadStock());
-
-        // Actualizar el inventario consolidado
-        actualizarInventario(insumo, cantidadUsada);
-    }
-
-    /**
-     * Actualiza el registro de inventario cuando se consume un insumo.
-     * Si no existe un registro de inventario para el insumo, lo crea.
-     *
-     * @param insumo Insumo consumido
-     * @param cantidadUsada Cantidad consumida
-     */
-    private void actualizarInventario(Insumo insumo, int cantidadUsada) {
-        Inventario inventario = inventarioRepository.findByInsumo(insumo)
-                .orElse(null);
-
-        if (inventario == null) {
-            // Crear nuevo registro de inventario si no existe
-            inventario = Inventario.builder()
-                    .insumo(insumo)
-                    .cantidadActual(insumo.getCantidadStock())
-                    .totalSalidas(cantidadUsada)
-                    .build();
-            log.info("Registro de inventario creado para insumo ID: {}", insumo.getIdInsumo());
-        }
-
-        // Calcular el valor de la salida (precio de compra * cantidad)
-        BigDecimal valorSalida = null;
-        if (insumo.getPrecioCompra() != null) {
-            valorSalida = insumo.getPrecioCompra().multiply(BigDecimal.valueOf(cantidadUsada));
-        }
-
-        // Registrar la salida en el inventario
-        inventario.registrarSalida(cantidadUsada, valorSalida);
-        
-        // Sincronizar cantidad actual con el stock del insumo
-        inventario.setCantidadActual(insumo.getCantidadStock());
-
-        inventarioRepository.save(inventario);
-        log.info("Inventario actualizado para insumo ID: {}. Salida registrada: {} unidades. Stock actual: {}",
-                insumo.getIdInsumo(), cantidadUsada, inventario.getCantidadActual());
+                insumo.getIdInsumo(), cantidadUsada, movimiento.getStockResultante());
     }
 
     /**
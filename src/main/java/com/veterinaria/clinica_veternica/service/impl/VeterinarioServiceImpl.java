@@ -5,6 +5,7 @@ import com.veterinaria.clinica_veternica.domain.usuario.RolUsuario;
 import com.veterinaria.clinica_veternica.domain.usuario.Usuario;
 import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
 import com.veterinaria.clinica_veternica.dto.request.usuario.VeterinarioRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.usuario.VeterinarioResponseDTO;
 import com.veterinaria.clinica_veternica.exception.BusinessException;
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
@@ -12,9 +13,15 @@ import com.veterinaria.clinica_veternica.exception.ValidationException;
 import com.veterinaria.clinica_veternica.mapper.usuario.VeterinarioMapper;
 import com.veterinaria.clinica_veternica.repository.UsuarioRepository;
 import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import com.veterinaria.clinica_veternica.service.busqueda.IndiceBusqueda;
 import com.veterinaria.clinica_veternica.service.interfaces.IVeterinarioService;
 import com.veterinaria.clinica_veternica.util.Constants;
+import com.veterinaria.clinica_veternica.util.ConteoPorId;
+import com.veterinaria.clinica_veternica.util.KeysetCursor;
 import com.veterinaria.clinica_veternica.util.NameParser;
+import com.veterinaria.clinica_veternica.util.StreamingUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -23,7 +30,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -34,6 +44,10 @@ public class VeterinarioServiceImpl implements IVeterinarioService {
     private final VeterinarioRepository veterinarioRepository;
     private final UsuarioRepository usuarioRepository;
     private final VeterinarioMapper veterinarioMapper;
+    private final IndiceBusqueda indiceBusqueda;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     public VeterinarioResponseDTO crear(VeterinarioRequestDTO requestDTO) {
@@ -107,6 +121,57 @@ public class VeterinarioServiceImpl implements IVeterinarioService {
         return veterinarioMapper.toResponseDTOList(veterinarios);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaKeysetDTO<VeterinarioResponseDTO> listarPagina(String cursor, Integer limite, boolean soloActivos) {
+        int tamanio = KeysetCursor.normalizarLimite(limite);
+        Long despuesDe = KeysetCursor.esPrimeraPagina(cursor) ? 0L : KeysetCursor.decodificarId(cursor);
+        List<Veterinario> veterinarios = veterinarioRepository.findPaginaKeyset(
+                despuesDe, soloActivos, KeysetCursor.limiteConsulta(tamanio));
+        ConteosVeterinario conteos = contar(veterinarios);
+        return KeysetCursor.pagina(veterinarios, tamanio,
+                veterinario -> toResponseDTO(veterinario, conteos),
+                veterinario -> KeysetCursor.codificar(veterinario.getIdPersonal()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void recorrerTodos(boolean soloActivos, Consumer<VeterinarioResponseDTO> consumidor) {
+        try (Stream<Veterinario> veterinarios = veterinarioRepository.streamTodos(soloActivos)) {
+            StreamingUtils.recorrerPorBloques(veterinarios, entityManager, bloque -> {
+                ConteosVeterinario conteos = contar(bloque);
+                bloque.forEach(veterinario -> consumidor.accept(toResponseDTO(veterinario, conteos)));
+            });
+        }
+    }
+
+    /**
+     * Citas y horarios por veterinario de una página o bloque.
+     */
+    private record ConteosVeterinario(Map<Long, Integer> citas, Map<Long, Integer> horarios) {
+    }
+
+    /**
+     * Cuenta con una consulta agrupada por colección las citas y horarios de una página o
+     * bloque de veterinarios, en lugar de inicializar las colecciones de cada uno.
+     */
+    private ConteosVeterinario contar(List<Veterinario> veterinarios) {
+        if (veterinarios.isEmpty()) {
+            return new ConteosVeterinario(Map.of(), Map.of());
+        }
+        List<Long> ids = veterinarios.stream().map(Veterinario::getIdPersonal).toList();
+        return new ConteosVeterinario(
+                ConteoPorId.comoMapa(veterinarioRepository.contarCitas(ids)),
+                ConteoPorId.comoMapa(veterinarioRepository.contarHorarios(ids)));
+    }
+
+    private VeterinarioResponseDTO toResponseDTO(Veterinario veterinario, ConteosVeterinario conteos) {
+        VeterinarioResponseDTO dto = veterinarioMapper.toResponseDTOSinConteos(veterinario);
+        dto.setCantidadCitas(conteos.citas().getOrDefault(veterinario.getIdPersonal(), 0));
+        dto.setCantidadHorarios(conteos.horarios().getOrDefault(veterinario.getIdPersonal(), 0));
+        return dto;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<VeterinarioResponseDTO> listarDisponibles() {
@@ -130,7 +195,11 @@ public class VeterinarioServiceImpl implements IVeterinarioService {
         if (nombre == null || nombre.trim().isEmpty()) {
             throw new ValidationException("El nombre de búsqueda no puede estar vacío");
         }
-        List<Veterinario> veterinarios = veterinarioRepository.buscarPorNombre(nombre.trim());
+        String termino = nombre.trim();
+        List<Veterinario> veterinarios = indiceBusqueda.buscar(IndiceBusqueda.Tipo.VETERINARIO, termino)
+            .map(ids -> IndiceBusqueda.ordenarPorIds(ids, veterinarioRepository.findAllById(ids),
+                Veterinario::getIdPersonal))
+            .orElseGet(() -> veterinarioRepository.buscarPorNombre(termino));
         return veterinarioMapper.toResponseDTOList(veterinarios);
     }
 
@@ -0,0 +1,19 @@
+package com.veterinaria.clinica_veternica.service.importacion;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Clave natural de una cita importada: mascota, veterinario, día y hora.
+ *
+ * @param idMascota ID de la mascota
+ * @param idVeterinario ID del veterinario
+ * @param fecha Fecha de la cita
+ * @param hora Hora de la cita
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+public record ClaveCita(Long idMascota, Long idVeterinario, LocalDate fecha, LocalTime hora) {
+}
@@ -0,0 +1,15 @@
+package com.veterinaria.clinica_veternica.service.importacion;
+
+/**
+ * Clave natural de una entidad (documento, código, nombre...) y su ID, para resolver las
+ * referencias de los registros importados con una consulta por lote.
+ *
+ * @param clave Clave natural
+ * @param id ID de la entidad
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+public record ClaveImportacion(String clave, Long id) {
+}
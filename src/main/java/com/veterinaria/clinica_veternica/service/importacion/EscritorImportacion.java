@@ -0,0 +1,660 @@
+package com.veterinaria.clinica_veternica.service.importacion;
+
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
+import com.veterinaria.clinica_veternica.domain.agenda.Servicio;
+import com.veterinaria.clinica_veternica.domain.inventario.EstadoInsumo;
+import com.veterinaria.clinica_veternica.domain.inventario.Insumo;
+import com.veterinaria.clinica_veternica.domain.inventario.SolicitudMovimientoStock;
+import com.veterinaria.clinica_veternica.domain.inventario.TipoInsumo;
+import com.veterinaria.clinica_veternica.domain.inventario.TipoMovimientoStock;
+import com.veterinaria.clinica_veternica.domain.paciente.Especie;
+import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
+import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
+import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import com.veterinaria.clinica_veternica.repository.EspecieRepository;
+import com.veterinaria.clinica_veternica.repository.InsumoRepository;
+import com.veterinaria.clinica_veternica.repository.MascotaRepository;
+import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
+import com.veterinaria.clinica_veternica.repository.ServicioRepository;
+import com.veterinaria.clinica_veternica.repository.TipoInsumoRepository;
+import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Escribe un lote de registros importados con un único INSERT por lotes de JDBC.
+ *
+ * Por cada lote:
+ * - Cada registro se convierte en la entidad y se valida con sus mismas anotaciones
+ *   (Bean Validation); los que no son válidos se reportan como "Fila N: motivo"
+ * - Los duplicados (dentro del archivo o ya existentes en la base de datos, según la
+ *   clave natural de cada tipo) se omiten; la existencia se comprueba con una consulta IN
+ *   por lote en lugar de una por registro
+ * - Los registros restantes se insertan con JdbcTemplate#batchUpdate, sin pasar por el
+ *   contexto de persistencia (ni su caché de primer nivel ni los listeners de entidad)
+ *
+ * Las referencias se resuelven por clave natural: propietario por documento, especie,
+ * tipo de insumo y servicio por nombre (sin distinguir mayúsculas), veterinario por
+ * documento y mascota por documento del propietario + nombre de la mascota. Una cita se
+ * identifica por mascota, veterinario, fecha y hora.
+ *
+ * Reimportar el mismo archivo es seguro: completa lo que un intento anterior dejó a medias
+ * (historias clínicas de las mascotas, stock inicial de los insumos) sin duplicar nada.
+ *
+ * Debe invocarse dentro de la transacción del lote; los efectos posteriores (stock inicial
+ * de los insumos, resúmenes de citas, índices y cachés) los aplica {@link ImportadorMasivo}
+ * a partir del {@link ResultadoLote}.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+@Component
+@RequiredArgsConstructor
+public class EscritorImportacion {
+
+    private static final String SQL_PROPIETARIO = "INSERT INTO propietarios (documento, tipo_documento, nombres, "
+            + "apellidos, telefono, email, direccion, observaciones, activo, fecha_creacion, fecha_modificacion) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_MASCOTA = "INSERT INTO mascotas (nombre, sexo, fecha_nacimiento, color, peso, "
+            + "numero_microchip, esterilizado, observaciones, activo, id_propietario, id_especie, fecha_creacion, "
+            + "fecha_modificacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_HISTORIA_CLINICA = "INSERT INTO historias_clinicas (id_mascota, "
+            + "numero_historia, activa, fecha_creacion, fecha_modificacion) "
+            + "SELECT m.id_mascota, CONCAT(?, m.id_mascota), TRUE, ?, ? FROM mascotas m "
+            + "WHERE m.id_propietario IN (%s) "
+            + "AND NOT EXISTS (SELECT 1 FROM historias_clinicas h WHERE h.id_mascota = m.id_mascota)";
+    private static final String SQL_INSUMO = "INSERT INTO insumos (codigo, nombre, descripcion, id_tipo_insumo, "
+            + "unidad_medida, cantidad_stock, stock_minimo, stock_maximo, precio_compra, precio_venta, lote, "
+            + "fecha_vencimiento, ubicacion, estado, requiere_refrigeracion, requiere_receta, observaciones, activo, "
+            + "version, fecha_creacion, fecha_modificacion) "
+            + "VALUES (?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+    private static final String SQL_CITA = "INSERT INTO citas (id_mascota, id_veterinario, id_servicio, fecha_cita, "
+            + "hora_cita, duracion_estimada_minutos, minuto_inicio, minuto_fin, estado, motivo_consulta, observaciones, "
+            + "es_emergencia, es_domicilio, direccion_domicilio, precio_final, fecha_creacion, fecha_modificacion) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SEPARADOR_CLAVE = "|";
+    private static final String TIPO_DOCUMENTO_POR_DEFECTO = "CC";
+    private static final String REFERENCIA_STOCK = "IMPORTACION:";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final PropietarioRepository propietarioRepository;
+    private final MascotaRepository mascotaRepository;
+    private final InsumoRepository insumoRepository;
+    private final CitaRepository citaRepository;
+    private final EspecieRepository especieRepository;
+    private final TipoInsumoRepository tipoInsumoRepository;
+    private final ServicioRepository servicioRepository;
+    private final VeterinarioRepository veterinarioRepository;
+
+    /**
+     * Resultado de escribir un lote.
+     *
+     * @param insertados Registros insertados
+     * @param omitidos Registros omitidos por estar duplicados
+     * @param errores Mensajes "Fila N: motivo" de los registros rechazados
+     * @param entradasStock Entradas de stock inicial de los insumos insertados
+     * @param fechasCitas Días con citas insertadas
+     */
+    public record ResultadoLote(int insertados,
+                                int omitidos,
+                                List<String> errores,
+                                List<SolicitudMovimientoStock> entradasStock,
+                                Set<LocalDate> fechasCitas) {
+    }
+
+    /**
+     * Catálogos de referencia de una importación, leídos una sola vez por trabajo.
+     */
+    public static final class Catalogos {
+
+        private final Map<String, Especie> especies;
+        private final Map<String, TipoInsumo> tiposInsumo;
+        private final Map<String, Servicio> servicios;
+        private final Map<String, Long> veterinarios;
+
+        private Catalogos(Map<String, Especie> especies, Map<String, TipoInsumo> tiposInsumo,
+                          Map<String, Servicio> servicios, Map<String, Long> veterinarios) {
+            this.especies = especies;
+            this.tiposInsumo = tiposInsumo;
+            this.servicios = servicios;
+            this.veterinarios = veterinarios;
+        }
+    }
+
+    /**
+     * Carga los catálogos que necesita el tipo de importación.
+     *
+     * @param tipo Tipo de importación
+     * @return Catálogos de referencia
+     */
+    public Catalogos cargarCatalogos(TipoImportacion tipo) {
+        return new Catalogos(
+                tipo == TipoImportacion.MASCOTAS
+                        ? porNombre(especieRepository.findAll(), Especie::getNombre) : Map.of(),
+                tipo == TipoImportacion.INSUMOS
+                        ? porNombre(tipoInsumoRepository.findAll(), TipoInsumo::getNombre) : Map.of(),
+                tipo == TipoImportacion.CITAS
+                        ? porNombre(servicioRepository.findAll(), Servicio::getNombre) : Map.of(),
+                tipo == TipoImportacion.CITAS
+                        ? veterinarioRepository.findClavesPorDocumento().stream()
+                            .collect(Collectors.toMap(ClaveImportacion::clave, ClaveImportacion::id, (a, b) -> a))
+                        : Map.of());
+    }
+
+    /**
+     * Valida e inserta un lote de registros en la transacción en curso.
+     *
+     * @param tipo Tipo de importación
+     * @param registros Registros del lote
+     * @param catalogos Catálogos cargados con {@link #cargarCatalogos(TipoImportacion)}
+     * @return Insertados, omitidos y errores del lote
+     */
+    public ResultadoLote escribir(TipoImportacion tipo, List<RegistroImportacion> registros, Catalogos catalogos) {
+        return switch (tipo) {
+            case PROPIETARIOS -> escribirPropietarios(registros);
+            case MASCOTAS -> escribirMascotas(registros, catalogos);
+            case INSUMOS -> escribirInsumos(registros, catalogos);
+            case CITAS -> escribirCitas(registros, catalogos);
+        };
+    }
+
+    // ===================================================================
+    // PROPIETARIOS
+    // ===================================================================
+
+    private ResultadoLote escribirPropietarios(List<RegistroImportacion> registros) {
+        List<String> errores = new ArrayList<>();
+        Map<Propietario, Long> validos = new LinkedHashMap<>();
+        for (RegistroImportacion registro : registros) {
+            try {
+                Propietario propietario = Propietario.builder()
+                        .documento(texto(registro, "documento"))
+                        .tipoDocumento(textoOPorDefecto(registro, "tipodocumento", TIPO_DOCUMENTO_POR_DEFECTO))
+                        .nombres(texto(registro, "nombres"))
+                        .apellidos(texto(registro, "apellidos"))
+                        .telefono(texto(registro, "telefono"))
+                        .email(minusculas(texto(registro, "email")))
+                        .direccion(texto(registro, "direccion"))
+                        .observaciones(texto(registro, "observaciones"))
+                        .activo(booleano(registro, "activo", true))
+                        .build();
+                validar(propietario);
+                validos.put(propietario, registro.fila());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                errores.add(error(registro, e));
+            }
+        }
+
+        Set<String> documentosExistentes = claves(buscarEn(
+                validos.keySet().stream().map(Propietario::getDocumento).toList(),
+                propietarioRepository::findClavesPorDocumento));
+        Set<String> emailsExistentes = new HashSet<>(buscarEn(
+                validos.keySet().stream().map(Propietario::getEmail).toList(),
+                propietarioRepository::findEmailsExistentes));
+        Set<String> documentos = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<Propietario> nuevos = new ArrayList<>();
+        int omitidos = 0;
+        for (Propietario propietario : validos.keySet()) {
+            if (documentosExistentes.contains(propietario.getDocumento())
+                    || !documentos.add(propietario.getDocumento())) {
+                omitidos++;
+            } else if (emailsExistentes.contains(propietario.getEmail()) || !emails.add(propietario.getEmail())) {
+                errores.add("Fila " + validos.get(propietario) + ": el email " + propietario.getEmail()
+                        + " ya está registrado para otro propietario");
+            } else {
+                nuevos.add(propietario);
+            }
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        insertar(SQL_PROPIETARIO, nuevos, (ps, p) -> parametros(ps, p.getDocumento(), p.getTipoDocumento(),
+                p.getNombres(), p.getApellidos(), p.getTelefono(), p.getEmail(), p.getDireccion(),
+                p.getObservaciones(), p.getActivo(), ahora, ahora));
+        return new ResultadoLote(nuevos.size(), omitidos, errores, List.of(), Set.of());
+    }
+
+    // ===================================================================
+    // MASCOTAS
+    // ===================================================================
+
+    private ResultadoLote escribirMascotas(List<RegistroImportacion> registros, Catalogos catalogos) {
+        Map<String, Long> propietarios = buscarEn(documentosPropietario(registros),
+                        propietarioRepository::findClavesPorDocumento).stream()
+                .collect(Collectors.toMap(ClaveImportacion::clave, ClaveImportacion::id, (a, b) -> a));
+
+        List<String> errores = new ArrayList<>();
+        Map<Mascota, Long> validos = new LinkedHashMap<>();
+        for (RegistroImportacion registro : registros) {
+            try {
+                String documento = requerido(registro, "documentopropietario");
+                Long idPropietario = propietarios.get(documento);
+                if (idPropietario == null) {
+                    throw new IllegalArgumentException("no existe un propietario con documento " + documento);
+                }
+                Mascota mascota = Mascota.builder()
+                        .nombre(texto(registro, "nombre"))
+                        .sexo(texto(registro, "sexo"))
+                        .fechaNacimiento(fecha(registro, "fechanacimiento"))
+                        .color(texto(registro, "color"))
+                        .peso(decimal(registro, "peso") != null ? decimal(registro, "peso").doubleValue() : null)
+                        .numeroMicrochip(texto(registro, "numeromicrochip"))
+                        .esterilizado(booleano(registro, "esterilizado", false))
+                        .observaciones(texto(registro, "observaciones"))
+                        .activo(booleano(registro, "activo", true))
+                        .propietario(Propietario.builder().idPropietario(idPropietario).documento(documento).build())
+                        .especie(referencia(catalogos.especies, registro, "especie", "la especie"))
+                        .build();
+                validar(mascota);
+                validos.put(mascota, registro.fila());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                errores.add(error(registro, e));
+            }
+        }
+
+        Set<String> existentes = buscarEn(
+                        validos.keySet().stream().map(m -> m.getPropietario().getDocumento()).collect(Collectors.toSet()),
+                        mascotaRepository::findClavesPorDocumentoPropietario).stream()
+                .map(clave -> clave.clave().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        Set<String> microchipsExistentes = new HashSet<>(buscarEn(
+                validos.keySet().stream().map(Mascota::getNumeroMicrochip).filter(Objects::nonNull).toList(),
+                mascotaRepository::findMicrochipsExistentes));
+        Set<String> clavesLote = new HashSet<>();
+        Set<String> microchips = new HashSet<>();
+        List<Mascota> nuevas = new ArrayList<>();
+        int omitidos = 0;
+        for (Mascota mascota : validos.keySet()) {
+            String clave = claveMascota(mascota.getPropietario().getDocumento(), mascota.getNombre());
+            String microchip = mascota.getNumeroMicrochip();
+            if (existentes.contains(clave) || !clavesLote.add(clave)) {
+                omitidos++;
+            } else if (microchip != null && (microchipsExistentes.contains(microchip) || !microchips.add(microchip))) {
+                errores.add("Fila " + validos.get(mascota) + ": el microchip " + microchip
+                        + " ya está registrado para otra mascota");
+            } else {
+                nuevas.add(mascota);
+            }
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        insertar(SQL_MASCOTA, nuevas, (ps, m) -> parametros(ps, m.getNombre(), m.getSexo(), m.getFechaNacimiento(),
+                m.getColor(), m.getPeso(), m.getNumeroMicrochip(), m.getEsterilizado(), m.getObservaciones(),
+                m.getActivo(), m.getPropietario().getIdPropietario(), m.getEspecie().getIdEspecie(), ahora, ahora));
+        crearHistoriasClinicas(validos.keySet().stream()
+                .map(m -> m.getPropietario().getIdPropietario())
+                .collect(Collectors.toCollection(TreeSet::new)), ahora);
+        return new ResultadoLote(nuevas.size(), omitidos, errores, List.of(), Set.of());
+    }
+
+    /**
+     * Crea la historia clínica (como MascotaServiceImpl#crear) de las mascotas de los propietarios
+     * del lote que no la tengan: las recién insertadas y las de importaciones anteriores sin ella.
+     */
+    private void crearHistoriasClinicas(Set<Long> idsPropietario, LocalDateTime ahora) {
+        if (idsPropietario.isEmpty()) {
+            return;
+        }
+        String sql = SQL_HISTORIA_CLINICA.formatted(
+                idsPropietario.stream().map(id -> "?").collect(Collectors.joining(", ")));
+        List<Object> valores = new ArrayList<>();
+        valores.add("HC-" + Year.now().getValue() + "-");
+        valores.add(ahora);
+        valores.add(ahora);
+        valores.addAll(idsPropietario);
+        jdbcTemplate.update(sql, ps -> parametros(ps, valores.toArray()));
+    }
+
+    // ===================================================================
+    // INSUMOS
+    // ===================================================================
+
+    private ResultadoLote escribirInsumos(List<RegistroImportacion> registros, Catalogos catalogos) {
+        List<String> errores = new ArrayList<>();
+        Map<Insumo, Long> validos = new LinkedHashMap<>();
+        for (RegistroImportacion registro : registros) {
+            try {
+                Insumo insumo = Insumo.builder()
+                        .codigo(texto(registro, "codigo"))
+                        .nombre(texto(registro, "nombre"))
+                        .descripcion(texto(registro, "descripcion"))
+                        .tipoInsumo(referencia(catalogos.tiposInsumo, registro, "tipoinsumo", "el tipo de insumo"))
+                        .unidadMedida(texto(registro, "unidadmedida"))
+                        .cantidadStock(entero(registro, "cantidadstock", 0))
+                        .stockMinimo(entero(registro, "stockminimo", null))
+                        .stockMaximo(entero(registro, "stockmaximo", null))
+                        .precioCompra(decimal(registro, "preciocompra"))
+                        .precioVenta(decimal(registro, "precioventa"))
+                        .lote(texto(registro, "lote"))
+                        .fechaVencimiento(fecha(registro, "fechavencimiento"))
+                        .ubicacion(texto(registro, "ubicacion"))
+                        .requiereRefrigeracion(booleano(registro, "requiererefrigeracion", false))
+                        .requiereReceta(booleano(registro, "requierereceta", false))
+                        .observaciones(texto(registro, "observaciones"))
+                        .activo(booleano(registro, "activo", true))
+                        .build();
+                validar(insumo);
+                if (!insumo.getActivo() && insumo.getCantidadStock() > 0) {
+                    throw new IllegalArgumentException("un insumo inactivo no puede importarse con stock");
+                }
+                validos.put(insumo, registro.fila());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                errores.add(error(registro, e));
+            }
+        }
+
+        Set<String> existentes = claves(buscarEn(
+                validos.keySet().stream().map(Insumo::getCodigo).toList(), insumoRepository::findClavesPorCodigo));
+        Set<String> codigos = new HashSet<>();
+        List<Insumo> nuevos = new ArrayList<>();
+        List<Insumo> existentesConStock = new ArrayList<>();
+        int omitidos = 0;
+        for (Insumo insumo : validos.keySet()) {
+            boolean repetido = !codigos.add(insumo.getCodigo());
+            if (existentes.contains(insumo.getCodigo()) || repetido) {
+                omitidos++;
+                if (!repetido && insumo.getCantidadStock() > 0) {
+                    existentesConStock.add(insumo);
+                }
+            } else {
+                nuevos.add(insumo);
+            }
+        }
+
+        // El stock arranca en 0 y entra como movimiento ENTRADA: el libro de movimientos
+        // sigue sumando el stock de cada insumo
+        LocalDateTime ahora = LocalDateTime.now();
+        insertar(SQL_INSUMO, nuevos, (ps, i) -> parametros(ps, i.getCodigo(), i.getNombre(), i.getDescripcion(),
+                i.getTipoInsumo().getIdTipoInsumo(), i.getUnidadMedida(), i.getStockMinimo(), i.getStockMaximo(),
+                i.getPrecioCompra(), i.getPrecioVenta(), i.getLote(), i.getFechaVencimiento(), i.getUbicacion(),
+                EstadoInsumo.AGOTADO.name(), i.getRequiereRefrigeracion(), i.getRequiereReceta(),
+                i.getObservaciones(), i.getActivo(), ahora, ahora));
+
+        List<SolicitudMovimientoStock> entradas = new ArrayList<>();
+        List<Insumo> conStock = nuevos.stream().filter(insumo -> insumo.getCantidadStock() > 0).toList();
+        if (!conStock.isEmpty()) {
+            Map<String, Long> ids = insumoRepository.findClavesPorCodigo(
+                            conStock.stream().map(Insumo::getCodigo).toList()).stream()
+                    .collect(Collectors.toMap(ClaveImportacion::clave, ClaveImportacion::id));
+            conStock.forEach(insumo -> entradas.add(entradaInicial(ids.get(insumo.getCodigo()), insumo)));
+        }
+        // Un insumo ya existente que nunca recibió stock viene de una importación cuya entrada
+        // inicial falló (se aplica después del commit del lote): se vuelve a aplicar
+        Map<String, Long> sinMovimientos = buscarEn(existentesConStock.stream().map(Insumo::getCodigo).toList(),
+                        insumoRepository::findClavesSinMovimientos).stream()
+                .collect(Collectors.toMap(ClaveImportacion::clave, ClaveImportacion::id));
+        for (Insumo insumo : existentesConStock) {
+            Long id = sinMovimientos.get(insumo.getCodigo());
+            if (id != null) {
+                entradas.add(entradaInicial(id, insumo));
+            }
+        }
+        return new ResultadoLote(nuevos.size(), omitidos, errores, entradas, Set.of());
+    }
+
+    private static SolicitudMovimientoStock entradaInicial(Long idInsumo, Insumo insumo) {
+        return new SolicitudMovimientoStock(idInsumo, TipoMovimientoStock.ENTRADA, insumo.getCantidadStock(),
+                REFERENCIA_STOCK + idInsumo);
+    }
+
+    // ===================================================================
+    // CITAS
+    // ===================================================================
+
+    private ResultadoLote escribirCitas(List<RegistroImportacion> registros, Catalogos catalogos) {
+        Map<String, List<Long>> mascotas = new HashMap<>();
+        for (ClaveImportacion clave : buscarEn(documentosPropietario(registros),
+                mascotaRepository::findClavesPorDocumentoPropietario)) {
+            mascotas.computeIfAbsent(clave.clave().toLowerCase(Locale.ROOT), c -> new ArrayList<>()).add(clave.id());
+        }
+
+        LocalDate hoy = LocalDate.now();
+        List<String> errores = new ArrayList<>();
+        List<Cita> validas = new ArrayList<>();
+        for (RegistroImportacion registro : registros) {
+            try {
+                String documento = requerido(registro, "documentopropietario");
+                String nombreMascota = requerido(registro, "mascota");
+                List<Long> idsMascota = mascotas.getOrDefault(claveMascota(documento, nombreMascota), List.of());
+                if (idsMascota.size() != 1) {
+                    throw new IllegalArgumentException(idsMascota.isEmpty()
+                            ? "el propietario " + documento + " no tiene una mascota llamada " + nombreMascota
+                            : "el propietario " + documento + " tiene varias mascotas llamadas " + nombreMascota);
+                }
+                String documentoVeterinario = requerido(registro, "documentoveterinario");
+                Long idVeterinario = catalogos.veterinarios.get(documentoVeterinario);
+                if (idVeterinario == null) {
+                    throw new IllegalArgumentException("no existe un veterinario con documento " + documentoVeterinario);
+                }
+                Servicio servicio = referencia(catalogos.servicios, registro, "servicio", "el servicio");
+                LocalDate fechaCita = fecha(registro, "fechacita");
+                if (fechaCita != null && !fechaCita.isBefore(hoy)) {
+                    // Las citas por venir se crean con la API de citas, que valida la agenda del veterinario
+                    throw new IllegalArgumentException("solo se importan citas históricas (anteriores a hoy)");
+                }
+                String estado = texto(registro, "estado");
+                Cita cita = Cita.builder()
+                        .mascota(Mascota.builder().idMascota(idsMascota.get(0)).build())
+                        .veterinario(Veterinario.builder().idPersonal(idVeterinario).build())
+                        .servicio(servicio)
+                        .fechaCita(fechaCita)
+                        .horaCita(hora(registro, "horacita"))
+                        .duracionEstimadaMinutos(entero(registro, "duracionestimadaminutos",
+                                servicio.getDuracionEstimadaMinutos()))
+                        .estado(estado != null ? EstadoCita.valueOf(estado.toUpperCase(Locale.ROOT)) : EstadoCita.ATENDIDA)
+                        .motivoConsulta(texto(registro, "motivoconsulta"))
+                        .observaciones(texto(registro, "observaciones"))
+                        .esEmergencia(booleano(registro, "esemergencia", false))
+                        .esDomicilio(booleano(registro, "esdomicilio", false))
+                        .direccionDomicilio(texto(registro, "direcciondomicilio"))
+                        .precioFinal(decimal(registro, "preciofinal") != null
+                                ? decimal(registro, "preciofinal") : servicio.getPrecio())
+                        .build();
+                validar(cita);
+                cita.calcularIntervaloMinutos();
+                validas.add(cita);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                errores.add(error(registro, e));
+            }
+        }
+
+        Set<ClaveCita> existentes = validas.isEmpty() ? Set.of() : new HashSet<>(citaRepository.findClavesImportacion(
+                validas.stream().map(c -> c.getMascota().getIdMascota()).collect(Collectors.toSet()),
+                validas.stream().map(Cita::getFechaCita).collect(Collectors.toSet())));
+        Set<ClaveCita> clavesLote = new HashSet<>();
+        List<Cita> nuevas = new ArrayList<>();
+        int omitidos = 0;
+        for (Cita cita : validas) {
+            ClaveCita clave = new ClaveCita(cita.getMascota().getIdMascota(), cita.getVeterinario().getIdPersonal(),
+                    cita.getFechaCita(), cita.getHoraCita());
+            if (existentes.contains(clave) || !clavesLote.add(clave)) {
+                omitidos++;
+            } else {
+                nuevas.add(cita);
+            }
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        insertar(SQL_CITA, nuevas, (ps, c) -> parametros(ps, c.getMascota().getIdMascota(),
+                c.getVeterinario().getIdPersonal(), c.getServicio().getIdServicio(), c.getFechaCita(), c.getHoraCita(),
+                c.getDuracionEstimadaMinutos(), c.getMinutoInicio(), c.getMinutoFin(), c.getEstado().name(),
+                c.getMotivoConsulta(), c.getObservaciones(), c.getEsEmergencia(), c.getEsDomicilio(),
+                c.getDireccionDomicilio(), c.getPrecioFinal(), ahora, ahora));
+        Set<LocalDate> fechas = nuevas.stream().map(Cita::getFechaCita).collect(Collectors.toCollection(TreeSet::new));
+        return new ResultadoLote(nuevas.size(), omitidos, errores, List.of(), fechas);
+    }
+
+    // ===================================================================
+    // AUXILIARES
+    // ===================================================================
+
+    @FunctionalInterface
+    private interface Parametros<T> {
+        void asignar(PreparedStatement ps, T entidad) throws SQLException;
+    }
+
+    private <T> void insertar(String sql, List<T> entidades, Parametros<T> parametros) {
+        if (!entidades.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, entidades, entidades.size(), parametros::asignar);
+        }
+    }
+
+    private static void parametros(PreparedStatement ps, Object... valores) throws SQLException {
+        for (int i = 0; i < valores.length; i++) {
+            if (valores[i] == null) {
+                ps.setNull(i + 1, Types.NULL);
+            } else {
+                ps.setObject(i + 1, valores[i]);
+            }
+        }
+    }
+
+    private void validar(Object entidad) {
+        Set<ConstraintViolation<Object>> violaciones = validator.validate(entidad);
+        if (!violaciones.isEmpty()) {
+            throw new IllegalArgumentException(violaciones.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private static <T> Map<String, T> porNombre(List<T> entidades, Function<T, String> nombre) {
+        return entidades.stream().collect(Collectors.toMap(
+                entidad -> nombre.apply(entidad).trim().toLowerCase(Locale.ROOT), entidad -> entidad, (a, b) -> a));
+    }
+
+    private static <T> T referencia(Map<String, T> catalogo, RegistroImportacion registro, String campo,
+                                    String descripcion) {
+        String nombre = requerido(registro, campo);
+        T entidad = catalogo.get(nombre.toLowerCase(Locale.ROOT));
+        if (entidad == null) {
+            throw new IllegalArgumentException("no existe " + descripcion + " '" + nombre + "'");
+        }
+        return entidad;
+    }
+
+    private static Set<String> claves(List<ClaveImportacion> claves) {
+        return claves.stream().map(ClaveImportacion::clave).collect(Collectors.toSet());
+    }
+
+    /**
+     * Ejecuta una consulta IN solo si hay valores: un IN vacío no es válido en todos los motores.
+     */
+    private static <T> List<T> buscarEn(Collection<String> valores, Function<Collection<String>, List<T>> consulta) {
+        return valores.isEmpty() ? List.of() : consulta.apply(valores);
+    }
+
+    private static Set<String> documentosPropietario(List<RegistroImportacion> registros) {
+        return registros.stream()
+                .map(registro -> registro.campos().get("documentopropietario"))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static String claveMascota(String documentoPropietario, String nombre) {
+        return (documentoPropietario + SEPARADOR_CLAVE + nombre).toLowerCase(Locale.ROOT);
+    }
+
+    private static String error(RegistroImportacion registro, RuntimeException e) {
+        return "Fila " + registro.fila() + ": " + e.getMessage();
+    }
+
+    private static String texto(RegistroImportacion registro, String campo) {
+        return registro.campos().get(campo);
+    }
+
+    private static String textoOPorDefecto(RegistroImportacion registro, String campo, String porDefecto) {
+        String valor = texto(registro, campo);
+        return valor != null ? valor : porDefecto;
+    }
+
+    private static String requerido(RegistroImportacion registro, String campo) {
+        String valor = texto(registro, campo);
+        if (valor == null) {
+            throw new IllegalArgumentException("el campo " + campo + " es obligatorio");
+        }
+        return valor;
+    }
+
+    private static String minusculas(String valor) {
+        return valor != null ? valor.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static Integer entero(RegistroImportacion registro, String campo, Integer porDefecto) {
+        String valor = texto(registro, campo);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("el campo " + campo + " debe ser un número entero: " + valor);
+        }
+    }
+
+    private static BigDecimal decimal(RegistroImportacion registro, String campo) {
+        String valor = texto(registro, campo);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("el campo " + campo + " debe ser un número: " + valor);
+        }
+    }
+
+    private static LocalDate fecha(RegistroImportacion registro, String campo) {
+        String valor = texto(registro, campo);
+        return valor != null ? LocalDate.parse(valor) : null;
+    }
+
+    private static LocalTime hora(RegistroImportacion registro, String campo) {
+        String valor = texto(registro, campo);
+        return valor != null ? LocalTime.parse(valor) : null;
+    }
+
+    private static Boolean booleano(RegistroImportacion registro, String campo, boolean porDefecto) {
+        String valor = texto(registro, campo);
+        if (valor == null) {
+            return porDefecto;
+        }
+        return switch (valor.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "si", "sí", "s" -> true;
+            case "false", "0", "no", "n" -> false;
+            default -> throw new IllegalArgumentException("el campo " + campo + " debe ser true o false: " + valor);
+        };
+    }
+}
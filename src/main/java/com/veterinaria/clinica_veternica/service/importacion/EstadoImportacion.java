@@ -0,0 +1,19 @@
+package com.veterinaria.clinica_veternica.service.importacion;
+
+/**
+ * Estados de un trabajo de importación masiva.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+public enum EstadoImportacion {
+    PENDIENTE,
+    EN_PROCESO,
+    COMPLETADA,
+    FALLIDA;
+
+    public boolean isTerminado() {
+        return this == COMPLETADA || this == FALLIDA;
+    }
+}
@@ -0,0 +1,38 @@
+package com.veterinaria.clinica_veternica.service.importacion;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Formatos de archivo de importación.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+public enum FormatoImportacion {
+    /** CSV con cabecera, separado por comas y con comillas dobles opcionales */
+    CSV,
+    /** Arreglo JSON de objetos */
+    JSON;
+
+    /**
+     * Deduce el formato de la extensión del nombre del archivo.
+     *
+     * @param nombreArchivo Nombre del archivo (p. ej. propietarios.csv)
+     * @return Formato, o vacío si la extensión no es csv ni json
+     */
+    public static Optional<FormatoImportacion> desdeNombreArchivo(String nombreArchivo) {
+        if (nombreArchivo == null) {
+            return Optional.empty();
+        }
+        String nombre = nombreArchivo.toLowerCase(Locale.ROOT);
+        if (nombre.endsWith(".csv")) {
+            return Optional.of(CSV);
+        }
+        if (nombre.endsWith(".json")) {
+            return Optional.of(JSON);
+        }
+        return Optional.empty();
+    }
+}
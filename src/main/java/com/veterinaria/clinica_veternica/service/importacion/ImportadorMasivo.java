@@ -0,0 +1,399 @@
+package com.veterinaria.clinica_veternica.service.importacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.veterinaria.clinica_veternica.config.AsyncConfig;
+import com.veterinaria.clinica_veternica.config.CacheConfig;
+import com.veterinaria.clinica_veternica.config.ImportacionProperties;
+import com.veterinaria.clinica_veternica.config.InventarioProperties;
+import com.veterinaria.clinica_veternica.domain.inventario.SolicitudMovimientoStock;
+import com.veterinaria.clinica_veternica.dto.response.importacion.TrabajoImportacionDTO;
+import com.veterinaria.clinica_veternica.exception.BusinessException;
+import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
+import com.veterinaria.clinica_veternica.service.busqueda.IndiceBusqueda;
+import com.veterinaria.clinica_veternica.service.disponibilidad.IndiceDisponibilidad;
+import com.veterinaria.clinica_veternica.service.importacion.EscritorImportacion.Catalogos;
+import com.veterinaria.clinica_veternica.service.importacion.EscritorImportacion.ResultadoLote;
+import com.veterinaria.clinica_veternica.service.inventario.MotorMovimientosStock;
+import com.veterinaria.clinica_veternica.service.reporte.AgregadorDiarioCitas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Importación masiva de propietarios, mascotas, insumos y citas históricas desde CSV o JSON.
+ *
+ * El archivo se lee en streaming y se escribe por lotes de app.importacion.tamanio-lote
+ * registros, cada uno en su propia transacción con un INSERT por lotes de JDBC
+ * ({@link EscritorImportacion}):
+ * - Una fila inválida se reporta en el trabajo y no detiene la importación; si falla un
+ *   lote completo (p. ej. una restricción violada por otra escritura concurrente) se
+ *   cuentan sus filas como error y se continúa con el siguiente
+ * - El progreso se calcula con los bytes leídos del archivo y se consulta mientras corre
+ * - Al terminar se sincronizan los derivados que los INSERT directos no actualizan:
+ *   stock inicial de los insumos (movimientos ENTRADA en el libro e inventario), resumen
+ *   diario y agendas de citas, índice de búsqueda y cachés de listados
+ *
+ * Solo se importan citas anteriores a hoy, sin notificaciones ni recordatorios: se insertan
+ * sin pasar por los observadores ni por la validación de disponibilidad de las citas.
+ *
+ * El stock inicial de los insumos se aplica después del commit de su lote. Si esa entrada
+ * falla, el trabajo termina FALLIDA con los insumos en 0; al reimportar el archivo se aplica
+ * la entrada de los insumos existentes que nunca tuvieron movimientos.
+ *
+ * Los trabajos enviados por HTTP se ejecutan en el pool "mantenimiento" y se recuerdan en
+ * memoria durante app.importacion.retencion.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+@Slf4j
+@Service
+public class ImportadorMasivo {
+
+    private static final String ENTIDAD_TRABAJO = "Trabajo de importación";
+    private static final String USUARIO_SISTEMA = "sistema";
+
+    private final EscritorImportacion escritor;
+    private final MotorMovimientosStock motorMovimientosStock;
+    private final AgregadorDiarioCitas agregadorDiarioCitas;
+    private final IndiceDisponibilidad indiceDisponibilidad;
+    private final IndiceBusqueda indiceBusqueda;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final Executor ejecutor;
+    private final ImportacionProperties properties;
+    private final InventarioProperties inventarioProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache<String, TrabajoImportacion> trabajos;
+    private final Semaphore cupos;
+
+    private final AtomicLong enviados = new AtomicLong();
+    private final AtomicLong completados = new AtomicLong();
+    private final AtomicLong fallidos = new AtomicLong();
+    private final AtomicLong rechazados = new AtomicLong();
+    private final AtomicLong filasInsertadas = new AtomicLong();
+    private final AtomicLong lotesFallidos = new AtomicLong();
+
+    public ImportadorMasivo(EscritorImportacion escritor,
+                            MotorMovimientosStock motorMovimientosStock,
+                            AgregadorDiarioCitas agregadorDiarioCitas,
+                            IndiceDisponibilidad indiceDisponibilidad,
+                            IndiceBusqueda indiceBusqueda,
+                            CacheManager cacheManager,
+                            ObjectMapper objectMapper,
+                            @Qualifier(AsyncConfig.EJECUTOR_MANTENIMIENTO) Executor ejecutor,
+                            ImportacionProperties properties,
+                            InventarioProperties inventarioProperties,
+                            PlatformTransactionManager transactionManager) {
+        this.escritor = escritor;
+        this.motorMovimientosStock = motorMovimientosStock;
+        this.agregadorDiarioCitas = agregadorDiarioCitas;
+        this.indiceDisponibilidad = indiceDisponibilidad;
+        this.indiceBusqueda = indiceBusqueda;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.ejecutor = ejecutor;
+        this.properties = properties;
+        this.inventarioProperties = inventarioProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.trabajos = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximoTrabajos())
+                .expireAfterWrite(properties.getRetencion())
+                .build();
+        this.cupos = new Semaphore(Math.max(1, properties.getImportacionesSimultaneas()));
+    }
+
+    /**
+     * Guarda el archivo recibido y envía su importación al pool de mantenimiento.
+     *
+     * @param tipo Tipo de registros del archivo
+     * @param archivo Archivo CSV o JSON
+     * @return Estado inicial del trabajo (PENDIENTE)
+     * @throws IllegalArgumentException si el archivo está vacío o su extensión no es csv ni json
+     * @throws BusinessException si ya hay el máximo de importaciones en curso o la cola está llena
+     */
+    public TrabajoImportacionDTO enviar(TipoImportacion tipo, MultipartFile archivo) {
+        if (archivo == null || archivo.isEmpty()) {
+            throw new IllegalArgumentException("El archivo a importar está vacío");
+        }
+        FormatoImportacion formato = FormatoImportacion.desdeNombreArchivo(archivo.getOriginalFilename())
+                .orElseThrow(() -> new IllegalArgumentException("El archivo debe tener extensión .csv o .json"));
+        if (!cupos.tryAcquire()) {
+            rechazados.incrementAndGet();
+            throw new BusinessException("Ya hay " + properties.getImportacionesSimultaneas()
+                    + " importaciones en curso; espere a que terminen para enviar otra");
+        }
+
+        TrabajoImportacion trabajo = new TrabajoImportacion(UUID.randomUUID().toString(), usuarioActual(), tipo,
+                formato, archivo.getOriginalFilename(), archivo.getSize());
+        Path copia;
+        try {
+            Files.createDirectories(properties.getDirectorio());
+            copia = Files.createTempFile(properties.getDirectorio(), trabajo.getId() + "-",
+                    "." + formato.name().toLowerCase());
+            archivo.transferTo(copia);
+        } catch (IOException e) {
+            cupos.release();
+            throw new BusinessException("No se pudo guardar el archivo a importar: " + e.getMessage());
+        }
+
+        trabajos.put(trabajo.getId(), trabajo);
+        try {
+            ejecutor.execute(() -> {
+                try (InputStream entrada = new BufferedInputStream(Files.newInputStream(copia))) {
+                    ejecutar(trabajo, entrada);
+                } catch (IOException e) {
+                    fallidos.incrementAndGet();
+                    trabajo.fallar(e.getMessage());
+                } finally {
+                    cupos.release();
+                    eliminar(copia);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            cupos.release();
+            eliminar(copia);
+            trabajos.invalidate(trabajo.getId());
+            rechazados.incrementAndGet();
+            throw new BusinessException("La cola de tareas de mantenimiento está llena; intente de nuevo en unos minutos");
+        }
+        enviados.incrementAndGet();
+        log.info("Importación {} de {} ({}) enviada por {}", trabajo.getId(), tipo, archivo.getOriginalFilename(),
+                trabajo.getUsuario());
+        return aDto(trabajo);
+    }
+
+    /**
+     * Importa un archivo en el hilo actual.
+     *
+     * @param tipo Tipo de registros del archivo
+     * @param formato Formato del archivo
+     * @param entrada Contenido del archivo (no se cierra)
+     * @param tamanio Tamaño en bytes, para el progreso (0 si se desconoce)
+     * @param nombreArchivo Nombre con el que se registra el trabajo
+     * @return Trabajo terminado (COMPLETADA o FALLIDA)
+     */
+    public TrabajoImportacion importar(TipoImportacion tipo, FormatoImportacion formato, InputStream entrada,
+                                       long tamanio, String nombreArchivo) {
+        TrabajoImportacion trabajo = new TrabajoImportacion(UUID.randomUUID().toString(), usuarioActual(), tipo,
+                formato, nombreArchivo, tamanio);
+        trabajos.put(trabajo.getId(), trabajo);
+        enviados.incrementAndGet();
+        ejecutar(trabajo, entrada);
+        return trabajo;
+    }
+
+    /**
+     * Consulta el estado y el progreso de una importación.
+     *
+     * @param id ID del trabajo
+     * @return Estado del trabajo
+     * @throws ResourceNotFoundException si no existe o ya venció
+     */
+    public TrabajoImportacionDTO consultar(String id) {
+        TrabajoImportacion trabajo = trabajos.getIfPresent(id);
+        if (trabajo == null) {
+            throw new ResourceNotFoundException(ENTIDAD_TRABAJO, "id", id);
+        }
+        return aDto(trabajo);
+    }
+
+    /**
+     * Obtiene las métricas de las importaciones.
+     *
+     * @return Mapa de contadores
+     */
+    public Map<String, Object> getEstadisticas() {
+        long enCurso = trabajos.asMap().values().stream()
+                .filter(trabajo -> !trabajo.getEstado().isTerminado())
+                .count();
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("enviados", enviados.get());
+        datos.put("completados", completados.get());
+        datos.put("fallidos", fallidos.get());
+        datos.put("rechazados", rechazados.get());
+        datos.put("filasInsertadas", filasInsertadas.get());
+        datos.put("lotesFallidos", lotesFallidos.get());
+        datos.put("enCurso", enCurso);
+        datos.put("registrados", trabajos.estimatedSize());
+        return datos;
+    }
+
+    private void ejecutar(TrabajoImportacion trabajo, InputStream entrada) {
+        trabajo.iniciar();
+        long inicio = System.nanoTime();
+        try (LectorRegistros lector = new LectorRegistros(new NoCerrable(entrada), trabajo.getFormato(), objectMapper)) {
+            Catalogos catalogos = escritor.cargarCatalogos(trabajo.getTipo());
+            int tamanioLote = Math.max(1, properties.getTamanioLote());
+            List<RegistroImportacion> lote = new ArrayList<>(tamanioLote);
+            List<String> erroresLectura = new ArrayList<>();
+            boolean fin = false;
+            while (!fin) {
+                try {
+                    RegistroImportacion registro = lector.siguiente();
+                    if (registro == null) {
+                        fin = true;
+                    } else {
+                        lote.add(registro);
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Fila mal formada: se reporta y se sigue con la siguiente
+                    erroresLectura.add(e.getMessage());
+                }
+                if (lote.size() + erroresLectura.size() >= tamanioLote
+                        || (fin && (!lote.isEmpty() || !erroresLectura.isEmpty()))) {
+                    escribirLote(trabajo, lote, erroresLectura, catalogos, lector.getBytesLeidos());
+                    lote.clear();
+                    erroresLectura.clear();
+                }
+            }
+            sincronizarDerivados(trabajo.getTipo());
+            trabajo.completar();
+            completados.incrementAndGet();
+            log.info("Importación {} de {} terminada en {} ms: {} leídas, {} insertadas, {} omitidas, {} con error",
+                    trabajo.getId(), trabajo.getTipo(), (System.nanoTime() - inicio) / 1_000_000,
+                    trabajo.getFilasLeidas(), trabajo.getFilasInsertadas(), trabajo.getFilasOmitidas(),
+                    trabajo.getFilasConError());
+        } catch (Exception e) {
+            fallidos.incrementAndGet();
+            trabajo.fallar(e.getMessage());
+            log.error("Error en la importación {} de {}: {}", trabajo.getId(), trabajo.getTipo(), e.getMessage(), e);
+        }
+    }
+
+    private void escribirLote(TrabajoImportacion trabajo, List<RegistroImportacion> lote, List<String> erroresLectura,
+                              Catalogos catalogos, long bytesLeidos) {
+        ResultadoLote resultado;
+        try {
+            resultado = lote.isEmpty()
+                    ? new ResultadoLote(0, 0, List.of(), List.of(), Set.of())
+                    : transactionTemplate.execute(estado -> escritor.escribir(trabajo.getTipo(), lote, catalogos));
+        } catch (DataAccessException e) {
+            lotesFallidos.incrementAndGet();
+            String causa = e.getMostSpecificCause().getMessage();
+            log.warn("Importación {}: lote de {} filas rechazado: {}", trabajo.getId(), lote.size(), causa);
+            resultado = new ResultadoLote(0, 0,
+                    lote.stream().map(registro -> "Fila " + registro.fila() + ": lote rechazado (" + causa + ")").toList(),
+                    List.of(), Set.of());
+        }
+
+        aplicarEntradasStock(resultado.entradasStock());
+        resultado.fechasCitas().forEach(agregadorDiarioCitas::marcar);
+
+        List<String> errores = new ArrayList<>(erroresLectura);
+        errores.addAll(resultado.errores());
+        filasInsertadas.addAndGet(resultado.insertados());
+        trabajo.registrarLote(lote.size() + erroresLectura.size(), resultado.insertados(), resultado.omitidos(),
+                errores, bytesLeidos, properties.getMaximoErroresReportados());
+    }
+
+    private void aplicarEntradasStock(List<SolicitudMovimientoStock> entradas) {
+        int maximo = Math.max(1, inventarioProperties.getMaximoMovimientosPorLote());
+        for (int desde = 0; desde < entradas.size(); desde += maximo) {
+            motorMovimientosStock.aplicarLote(entradas.subList(desde, Math.min(entradas.size(), desde + maximo)));
+        }
+    }
+
+    private void sincronizarDerivados(TipoImportacion tipo) {
+        switch (tipo) {
+            case PROPIETARIOS, MASCOTAS -> {
+                // Los INSERT directos no pasan por los listeners que mantienen el índice
+                if (indiceBusqueda.isListo()) {
+                    indiceBusqueda.cargar();
+                }
+                limpiarCache(CacheConfig.CACHE_PROPIETARIOS);
+                limpiarCache(CacheConfig.CACHE_MASCOTAS);
+            }
+            case INSUMOS -> {
+                // Crea el inventario de los insumos importados sin stock
+                motorMovimientosStock.reconciliarInventario();
+                limpiarCache(CacheConfig.CACHE_INSUMOS);
+            }
+            case CITAS -> indiceDisponibilidad.invalidarTodo();
+        }
+    }
+
+    private void limpiarCache(String nombre) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(nombre);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static void eliminar(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo de importación {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    private static String usuarioActual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : USUARIO_SISTEMA;
+    }
+
+    private static TrabajoImportacionDTO aDto(TrabajoImportacion trabajo) {
+        return TrabajoImportacionDTO.builder()
+                .id(trabajo.getId())
+                .tipo(trabajo.getTipo())
+                .formato(trabajo.getFormato())
+                .nombreArchivo(trabajo.getNombreArchivo())
+                .estado(trabajo.getEstado())
+                .progreso(trabajo.getProgreso())
+                .filasLeidas(trabajo.getFilasLeidas())
+                .filasInsertadas(trabajo.getFilasInsertadas())
+                .filasOmitidas(trabajo.getFilasOmitidas())
+                .filasConError(trabajo.getFilasConError())
+                .lotes(trabajo.getLotes())
+                .errores(trabajo.getErrores())
+                .error(trabajo.getError())
+                .creadoEn(trabajo.getCreadoEn())
+                .iniciadoEn(trabajo.getIniciadoEn())
+                .finalizadoEn(trabajo.getFinalizadoEn())
+                .build();
+    }
+
+    /**
+     * Evita que el lector cierre un flujo que pertenece al llamador.
+     */
+    private static final class NoCerrable extends FilterInputStream {
+
+        private NoCerrable(InputStream entrada) {
+            super(entrada);
+        }
+
+        @Override
+        public void close() {
+            // El flujo lo cierra quien lo abrió
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.veterinaria.clinica_veternica.service.importacion;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lee un archivo de importación registro a registro, sin cargarlo entero en memoria.
+ *
+ * - CSV: la primera línea es la cabecera con los nombres de los campos; los valores se
+ *   separan por comas y pueden ir entre comillas dobles (con "" para una comilla y saltos
+ *   de línea dentro del valor)
+ * - JSON: un arreglo de objetos; cada propiedad es un campo y los valores se leen como texto
+ *
+ * Los nombres de los campos se comparan sin distinguir mayúsculas; los valores vacíos se
+ * tratan como ausentes.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+public class LectorRegistros implements Closeable {
+
+    private final ContadorBytes entrada;
+    private final FormatoImportacion formato;
+    private final Reader reader;
+    private final JsonParser parser;
+    private final List<String> cabecera;
+    private long fila;
+
+    public LectorRegistros(InputStream entrada, FormatoImportacion formato, ObjectMapper objectMapper)
+            throws IOException {
+        this.entrada = new ContadorBytes(entrada);
+        this.formato = formato;
+        if (formato == FormatoImportacion.CSV) {
+            this.reader = new BufferedReader(new InputStreamReader(this.entrada, StandardCharsets.UTF_8));
+            this.parser = null;
+            List<String> nombres = leerFilaCsv();
+            if (nombres == null) {
+                throw new IllegalArgumentException("El archivo CSV está vacío: falta la cabecera");
+            }
+            this.cabecera = nombres.stream()
+                    .map(nombre -> nombre.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT))
+                    .toList();
+        } else {
+            this.reader = null;
+            this.parser = objectMapper.getFactory().createParser(this.entrada);
+            this.cabecera = List.of();
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("El archivo JSON debe ser un arreglo de objetos");
+            }
+        }
+    }
+
+    /**
+     * Lee el siguiente registro.
+     *
+     * @return Registro, o null al llegar al final del archivo
+     * @throws IOException si falla la lectura
+     * @throws IllegalArgumentException si el archivo está mal formado
+     */
+    public RegistroImportacion siguiente() throws IOException {
+        return formato == FormatoImportacion.CSV ? siguienteCsv() : siguienteJson();
+    }
+
+    /**
+     * @return Bytes del archivo leídos hasta ahora
+     */
+    public long getBytesLeidos() {
+        return entrada.leidos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (parser != null) {
+            parser.close();
+        }
+        if (reader != null) {
+            reader.close();
+        }
+        entrada.close();
+    }
+
+    private RegistroImportacion siguienteCsv() throws IOException {
+        List<String> valores;
+        do {
+            valores = leerFilaCsv();
+            if (valores == null) {
+                return null;
+            }
+        } while (valores.size() == 1 && valores.get(0).isBlank());
+        fila++;
+        if (valores.size() > cabecera.size()) {
+            throw new IllegalArgumentException("Fila " + fila + ": tiene " + valores.size()
+                    + " valores y la cabecera " + cabecera.size() + " campos");
+        }
+        Map<String, String> campos = new LinkedHashMap<>();
+        for (int i = 0; i < valores.size(); i++) {
+            agregar(campos, cabecera.get(i), valores.get(i));
+        }
+        return new RegistroImportacion(fila, campos);
+    }
+
+    private RegistroImportacion siguienteJson() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        fila++;
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            throw new IllegalArgumentException("Registro " + fila + ": se esperaba un objeto JSON");
+        }
+        JsonNode objeto = parser.readValueAsTree();
+        Map<String, String> campos = new LinkedHashMap<>();
+        objeto.fields().forEachRemaining(campo -> {
+            JsonNode valor = campo.getValue();
+            if (!valor.isNull() && !valor.isContainerNode()) {
+                agregar(campos, campo.getKey().trim().toLowerCase(Locale.ROOT), valor.asText());
+            }
+        });
+        return new RegistroImportacion(fila, campos);
+    }
+
+    /**
+     * Lee una fila CSV completa (puede abarcar varias líneas si un valor entre comillas las contiene).
+     *
+     * @return Valores de la fila, o null al final del archivo
+     */
+    private List<String> leerFilaCsv() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> valores = new ArrayList<>();
+        StringBuilder valor = new StringBuilder();
+        boolean entreComillas = false;
+        while (c != -1) {
+            if (entreComillas) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int siguiente = reader.read();
+                    if (siguiente == '"') {
+                        valor.append('"');
+                    } else {
+                        entreComillas = false;
+                        if (siguiente != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    valor.append((char) c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                valores.add(valor.toString());
+                valor.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                valor.append((char) c);
+            }
+            c = reader.read();
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Fila " + (fila + 1) + ": falta cerrar las comillas de un valor");
+        }
+        valores.add(valor.toString());
+        return valores;
+    }
+
+    private static void agregar(Map<String, String> campos, String nombre, String valor) {
+        if (valor != null && !valor.isBlank()) {
+            campos.put(nombre, valor.trim());
+        }
+    }
+
+    /**
+     * Cuenta los bytes leídos del archivo para calcular el progreso.
+     */
+    private static final class ContadorBytes extends FilterInputStream {
+
+        private long leidos;
+
+        private ContadorBytes(InputStream entrada) {
+            super(entrada);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                leidos++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int largo) throws IOException {
+            int n = super.read(destino, desde, largo);
+            if (n > 0) {
+                leidos += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.veterinaria.clinica_veternica.service.importacion;
+
+import java.util.Map;
+
+/**
+ * Registro leído de un archivo de importación.
+ *
+ * @param fila Número del registro en el archivo (1 para el primero, sin contar la cabecera)
+ * @param campos Valores por nombre de campo en minúsculas; los vacíos no se incluyen
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+public record RegistroImportacion(long fila, Map<String, String> campos) {
+}
@@ -0,0 +1,19 @@
+package com.veterinaria.clinica_veternica.service.importacion;
+
+/**
+ * Entidades que admiten importación masiva desde CSV o JSON.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+public enum TipoImportacion {
+    /** Propietarios; se omiten los documentos o emails ya registrados */
+    PROPIETARIOS,
+    /** Mascotas, referenciadas por documentoPropietario y especie */
+    MASCOTAS,
+    /** Insumos, referenciados por tipoInsumo; el stock inicial entra al libro de movimientos */
+    INSUMOS,
+    /** Citas históricas, referenciadas por documentoPropietario + nombreMascota, documentoVeterinario y servicio */
+    CITAS
+}
@@ -0,0 +1,98 @@
+package com.veterinaria.clinica_veternica.service.importacion;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trabajo de importación masiva. Lo crea el hilo de la petición y lo actualiza el hilo que
+ * importa; los campos de estado son volatile para que las consultas de progreso vean siempre
+ * el último valor.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+@Getter
+public class TrabajoImportacion {
+
+    private final String id;
+    private final String usuario;
+    private final TipoImportacion tipo;
+    private final FormatoImportacion formato;
+    private final String nombreArchivo;
+    private final long tamanioArchivo;
+    private final LocalDateTime creadoEn = LocalDateTime.now();
+
+    private volatile EstadoImportacion estado = EstadoImportacion.PENDIENTE;
+    private volatile long filasLeidas;
+    private volatile long filasInsertadas;
+    private volatile long filasOmitidas;
+    private volatile long filasConError;
+    private volatile int lotes;
+    private volatile int progreso;
+    private volatile String error;
+    private volatile LocalDateTime iniciadoEn;
+    private volatile LocalDateTime finalizadoEn;
+
+    private final List<String> errores = new ArrayList<>();
+
+    public TrabajoImportacion(String id, String usuario, TipoImportacion tipo, FormatoImportacion formato,
+                              String nombreArchivo, long tamanioArchivo) {
+        this.id = id;
+        this.usuario = usuario;
+        this.tipo = tipo;
+        this.formato = formato;
+        this.nombreArchivo = nombreArchivo;
+        this.tamanioArchivo = tamanioArchivo;
+    }
+
+    /**
+     * @return Copia de los errores por fila guardados
+     */
+    public List<String> getErrores() {
+        synchronized (errores) {
+            return List.copyOf(errores);
+        }
+    }
+
+    void iniciar() {
+        this.iniciadoEn = LocalDateTime.now();
+        this.estado = EstadoImportacion.EN_PROCESO;
+    }
+
+    void registrarLote(int leidas, int insertadas, int omitidas, List<String> erroresLote, long bytesLeidos,
+                       int maximoErrores) {
+        this.filasLeidas += leidas;
+        this.filasInsertadas += insertadas;
+        this.filasOmitidas += omitidas;
+        this.filasConError += erroresLote.size();
+        this.lotes++;
+        synchronized (errores) {
+            for (String mensaje : erroresLote) {
+                if (errores.size() >= maximoErrores) {
+                    break;
+                }
+                errores.add(mensaje);
+            }
+        }
+        if (tamanioArchivo > 0) {
+            // El 100 se reserva para cuando terminan los ajustes posteriores a la carga
+            this.progreso = (int) Math.min(99, bytesLeidos * 100 / tamanioArchivo);
+        }
+    }
+
+    void completar() {
+        this.progreso = 100;
+        this.finalizadoEn = LocalDateTime.now();
+        this.estado = EstadoImportacion.COMPLETADA;
+    }
+
+    void fallar(String error) {
+        this.error = error;
+        this.finalizadoEn = LocalDateTime.now();
+        this.estado = EstadoImportacion.FALLIDA;
+    }
+}
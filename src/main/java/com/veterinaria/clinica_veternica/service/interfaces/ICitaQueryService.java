@@ -1,9 +1,11 @@
 package com.veterinaria.clinica_veternica.service.interfaces;
 
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.agenda.CitaResponseDTO;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interfaz para operaciones de consulta de citas.
@@ -19,6 +21,10 @@ public interface ICitaQueryService {
 
     List<CitaResponseDTO> listarTodos();
 
+    PaginaKeysetDTO<CitaResponseDTO> listarPagina(String cursor, Integer limite);
+
+    void recorrerTodos(Consumer<CitaResponseDTO> consumidor);
+
     List<CitaResponseDTO> listarPorVeterinario(Long idVeterinario);
 
     List<CitaResponseDTO> listarMisCitas();
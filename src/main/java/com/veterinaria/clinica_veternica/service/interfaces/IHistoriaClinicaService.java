@@ -1,9 +1,11 @@
 package com.veterinaria.clinica_veternica.service.interfaces;
 
 import com.veterinaria.clinica_veternica.dto.request.clinico.HistoriaClinicaRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.clinico.HistoriaClinicaResponseDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interfaz del servicio para gestión de Historias Clínicas.
@@ -29,6 +31,10 @@ public interface IHistoriaClinicaService {
 
     List<HistoriaClinicaResponseDTO> listarActivas();
 
+    PaginaKeysetDTO<HistoriaClinicaResponseDTO> listarPagina(String cursor, Integer limite, boolean soloActivas);
+
+    void recorrerTodas(boolean soloActivas, Consumer<HistoriaClinicaResponseDTO> consumidor);
+
     void guardarMemento(Long id);
 
     boolean restaurarUltimoMemento(Long id);
@@ -3,9 +3,11 @@ package com.veterinaria.clinica_veternica.service.interfaces;
 import com.veterinaria.clinica_veternica.dto.request.agenda.HorarioRequestDTO;
 import com.veterinaria.clinica_veternica.dto.response.agenda.DisponibilidadVeterinarioDTO;
 import com.veterinaria.clinica_veternica.dto.response.agenda.HorarioResponseDTO;
+import com.veterinaria.clinica_veternica.dto.response.agenda.ProximaDisponibilidadDTO;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -45,5 +47,14 @@ public interface IHorarioService {
      * @return Disponibilidad del veterinario con horarios y slots disponibles
      */
     DisponibilidadVeterinarioDTO obtenerDisponibilidad(Long idVeterinario, LocalDate fecha);
-}
 
+    /**
+     * Busca el próximo slot libre de varios veterinarios.
+     *
+     * @param idsVeterinarios IDs de los veterinarios (null o vacío: todos los activos)
+     * @param desde Instante a partir del cual buscar (null: ahora)
+     * @param dias Días a recorrer (null: app.disponibilidad.dias-busqueda-por-defecto)
+     * @return Primer slot libre de cada veterinario, del más temprano al más tardío
+     */
+    List<ProximaDisponibilidadDTO> buscarProximaDisponibilidad(List<Long> idsVeterinarios, LocalDateTime desde, Integer dias);
+}
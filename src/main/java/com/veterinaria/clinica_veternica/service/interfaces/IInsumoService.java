@@ -1,9 +1,11 @@
 package com.veterinaria.clinica_veternica.service.interfaces;
 
 import com.veterinaria.clinica_veternica.dto.request.inventario.InsumoRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.inventario.InsumoResponseDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interfaz del servicio para gestión de Insumos.
@@ -26,6 +28,10 @@ public interface IInsumoService {
 
     List<InsumoResponseDTO> listarActivos();
 
+    PaginaKeysetDTO<InsumoResponseDTO> listarPagina(String cursor, Integer limite, boolean soloActivos);
+
+    void recorrerTodos(boolean soloActivos, Consumer<InsumoResponseDTO> consumidor);
+
     List<InsumoResponseDTO> listarConStockBajo();
 
     List<InsumoResponseDTO> listarAgotados();
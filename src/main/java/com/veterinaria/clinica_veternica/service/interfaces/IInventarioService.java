@@ -1,8 +1,12 @@
 package com.veterinaria.clinica_veternica.service.interfaces;
 
+import com.veterinaria.clinica_veternica.dto.request.inventario.MovimientoStockRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.inventario.InventarioResponseDTO;
+import com.veterinaria.clinica_veternica.dto.response.inventario.MovimientoStockResponseDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interfaz del servicio para gestión de Inventario.
@@ -20,10 +24,30 @@ public interface IInventarioService {
 
     List<InventarioResponseDTO> listarTodos();
 
+    PaginaKeysetDTO<InventarioResponseDTO> listarPagina(String cursor, Integer limite);
+
+    void recorrerTodos(Consumer<InventarioResponseDTO> consumidor);
+
     List<InventarioResponseDTO> listarConStockBajo();
 
     List<InventarioResponseDTO> listarAgotados();
 
     List<InventarioResponseDTO> listarOrdenadosPorValor();
-}
 
+    /**
+     * Aplica un lote de movimientos de stock: todos o ninguno.
+     *
+     * @param movimientos Movimientos en el orden en que deben aplicarse
+     * @return Movimientos registrados en el libro
+     */
+    List<MovimientoStockResponseDTO> aplicarMovimientos(List<MovimientoStockRequestDTO> movimientos);
+
+    /**
+     * Lista los últimos movimientos de stock de un insumo.
+     *
+     * @param idInsumo ID del insumo
+     * @param limite Máximo de movimientos (null: tamaño por defecto)
+     * @return Movimientos del más reciente al más antiguo
+     */
+    List<MovimientoStockResponseDTO> listarMovimientos(Long idInsumo, Integer limite);
+}
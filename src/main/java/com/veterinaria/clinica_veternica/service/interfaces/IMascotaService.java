@@ -1,9 +1,11 @@
 package com.veterinaria.clinica_veternica.service.interfaces;
 
 import com.veterinaria.clinica_veternica.dto.request.paciente.MascotaRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.paciente.MascotaResponseDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interfaz del servicio para gestión de Mascotas.
@@ -24,6 +26,10 @@ public interface IMascotaService {
 
     List<MascotaResponseDTO> listarActivas();
 
+    PaginaKeysetDTO<MascotaResponseDTO> listarPagina(String cursor, Integer limite, boolean soloActivas);
+
+    void recorrerTodas(boolean soloActivas, Consumer<MascotaResponseDTO> consumidor);
+
     List<MascotaResponseDTO> listarPorPropietario(Long idPropietario);
 
     List<MascotaResponseDTO> listarPorEspecie(Long idEspecie);
@@ -1,9 +1,11 @@
 package com.veterinaria.clinica_veternica.service.interfaces;
 
 import com.veterinaria.clinica_veternica.dto.request.comunicacion.NotificacionRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.comunicacion.NotificacionResponseDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interfaz del servicio para gestión de notificaciones.
@@ -38,6 +40,22 @@ public interface INotificacionService {
      */
     List<NotificacionResponseDTO> listarTodas();
 
+    /**
+     * Lista notificaciones con paginación keyset por ID.
+     *
+     * @param cursor Cursor de la página anterior (null para la primera)
+     * @param limite Tamaño de página
+     * @return Página de notificaciones
+     */
+    PaginaKeysetDTO<NotificacionResponseDTO> listarPagina(String cursor, Integer limite);
+
+    /**
+     * Recorre todas las notificaciones en streaming, sin cargarlas en memoria a la vez.
+     *
+     * @param consumidor Recibe cada notificación en orden de ID
+     */
+    void recorrerTodas(Consumer<NotificacionResponseDTO> consumidor);
+
     /**
      * Lista notificaciones por usuario.
      *
@@ -1,9 +1,11 @@
 package com.veterinaria.clinica_veternica.service.interfaces;
 
 import com.veterinaria.clinica_veternica.dto.request.paciente.PropietarioRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.paciente.PropietarioResponseDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interfaz del servicio para gestión de Propietarios.
@@ -24,6 +26,10 @@ public interface IPropietarioService {
 
     List<PropietarioResponseDTO> listarActivos();
 
+    PaginaKeysetDTO<PropietarioResponseDTO> listarPagina(String cursor, Integer limite, boolean soloActivos);
+
+    void recorrerTodos(boolean soloActivos, Consumer<PropietarioResponseDTO> consumidor);
+
     List<PropietarioResponseDTO> buscarPorNombre(String nombre);
 
     PropietarioResponseDTO buscarPorDocumento(String tipoDocumento, String numeroDocumento);
@@ -1,9 +1,11 @@
 package com.veterinaria.clinica_veternica.service.interfaces;
 
 import com.veterinaria.clinica_veternica.dto.request.clinico.VacunacionRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.clinico.VacunacionResponseDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interfaz del servicio para gestión de Vacunaciones.
@@ -38,5 +40,21 @@ public interface IVacunacionService {
      * @return Lista de todas las vacunaciones
      */
     List<VacunacionResponseDTO> listarTodas();
+
+    /**
+     * Lista vacunaciones con paginación keyset por ID.
+     *
+     * @param cursor Cursor de la página anterior (null para la primera)
+     * @param limite Tamaño de página
+     * @return Página de vacunaciones
+     */
+    PaginaKeysetDTO<VacunacionResponseDTO> listarPagina(String cursor, Integer limite);
+
+    /**
+     * Recorre todas las vacunaciones en streaming, sin cargarlas en memoria a la vez.
+     *
+     * @param consumidor Recibe cada vacunación en orden de ID
+     */
+    void recorrerTodas(Consumer<VacunacionResponseDTO> consumidor);
 }
 
@@ -1,9 +1,11 @@
 package com.veterinaria.clinica_veternica.service.interfaces;
 
 import com.veterinaria.clinica_veternica.dto.request.usuario.VeterinarioRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.usuario.VeterinarioResponseDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interfaz del servicio para gestión de Veterinarios.
@@ -26,6 +28,10 @@ public interface IVeterinarioService {
 
     List<VeterinarioResponseDTO> listarActivos();
 
+    PaginaKeysetDTO<VeterinarioResponseDTO> listarPagina(String cursor, Integer limite, boolean soloActivos);
+
+    void recorrerTodos(boolean soloActivos, Consumer<VeterinarioResponseDTO> consumidor);
+
     List<VeterinarioResponseDTO> listarDisponibles();
 
     List<VeterinarioResponseDTO> listarPorEspecialidad(String especialidad);
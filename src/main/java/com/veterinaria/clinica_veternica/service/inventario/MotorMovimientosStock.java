@@ -0,0 +1,426 @@
+package com.veterinaria.clinica_veternica.service.inventario;
+
+import com.veterinaria.clinica_veternica.config.AsyncConfig;
+import com.veterinaria.clinica_veternica.config.CacheConfig;
+import com.veterinaria.clinica_veternica.config.InventarioProperties;
+import com.veterinaria.clinica_veternica.domain.inventario.Insumo;
+import com.veterinaria.clinica_veternica.domain.inventario.Inventario;
+import com.veterinaria.clinica_veternica.domain.inventario.MovimientoStock;
+import com.veterinaria.clinica_veternica.domain.inventario.SolicitudMovimientoStock;
+import com.veterinaria.clinica_veternica.domain.inventario.StockInsumo;
+import com.veterinaria.clinica_veternica.domain.inventario.TipoMovimientoStock;
+import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
+import com.veterinaria.clinica_veternica.exception.ValidationException;
+import com.veterinaria.clinica_veternica.repository.InsumoRepository;
+import com.veterinaria.clinica_veternica.repository.InventarioRepository;
+import com.veterinaria.clinica_veternica.repository.MovimientoStockRepository;
+import com.veterinaria.clinica_veternica.service.programacion.BloqueoTareas;
+import com.veterinaria.clinica_veternica.util.Constants;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica los movimientos de stock de los insumos (entradas, salidas y ajustes).
+ *
+ * FUNCIONAMIENTO:
+ * - El stock del insumo se modifica con un UPDATE condicional (cantidadStock + n >= 0):
+ *   no hay lectura-modificación-escritura en memoria, por lo que consumos concurrentes no
+ *   pierden actualizaciones ni dejan el stock negativo; si no alcanza, se rechaza
+ * - El inventario consolidado se actualiza en la misma transacción con la cantidad leída
+ *   del insumo tras el UPDATE (sin desviarse de él) y acumulados incrementados en la base
+ * - Cada movimiento se agrega al libro movimientos_stock con el stock resultante
+ * - Los UPDATE incrementan la versión (@Version) de Insumo e Inventario: guardar una copia
+ *   leída antes de un movimiento falla con un conflicto en lugar de pisar el stock
+ * - El inventario se sincroniza solo al escribir: tras el commit de cualquier cambio de stock
+ *   se invalida el listado de inventario en caché (CacheConfig.CACHE_INVENTARIO), de modo que
+ *   listarlo es una lectura sin escrituras. Al arrancar se reconcilian una vez los insumos sin
+ *   inventario o desviados de él (datos anteriores a este esquema o escritos por fuera)
+ *
+ * Formas de uso:
+ * - registrarSalida(): un consumo dentro de la transacción en curso (vacunaciones), que se
+ *   confirma o revierte junto con ella
+ * - anotar(): el alta o la edición de un insumo, que guarda la entidad directamente
+ * - aplicarLote(): varios movimientos en una transacción propia, todo o nada. Se agrupan
+ *   por insumo (un UPDATE por insumo) y se bloquean en orden de ID, de modo que dos lotes
+ *   no se bloquean mutuamente; ante un conflicto de concurrencia el lote se reintenta
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-25
+ */
+@Slf4j
+@Component
+public class MotorMovimientosStock {
+
+    static final String TAREA_RECONCILIACION = "reconciliacion-inventario";
+    private static final Duration BLOQUEO_MAXIMO_RECONCILIACION = Duration.ofMinutes(30);
+
+    private final InsumoRepository insumoRepository;
+    private final InventarioRepository inventarioRepository;
+    private final MovimientoStockRepository movimientoStockRepository;
+    private final InventarioProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final BloqueoTareas bloqueoTareas;
+    private final Executor ejecutorMantenimiento;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AtomicLong movimientos = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong rechazados = new AtomicLong();
+    private final AtomicLong reintentos = new AtomicLong();
+    private final AtomicLong conflictos = new AtomicLong();
+    private final AtomicLong reconciliados = new AtomicLong();
+
+    public MotorMovimientosStock(InsumoRepository insumoRepository,
+                                 InventarioRepository inventarioRepository,
+                                 MovimientoStockRepository movimientoStockRepository,
+                                 InventarioProperties properties,
+                                 PlatformTransactionManager transactionManager,
+                                 CacheManager cacheManager,
+                                 BloqueoTareas bloqueoTareas,
+                                 @Qualifier(AsyncConfig.EJECUTOR_MANTENIMIENTO) Executor ejecutorMantenimiento) {
+        this.insumoRepository = insumoRepository;
+        this.inventarioRepository = inventarioRepository;
+        this.movimientoStockRepository = movimientoStockRepository;
+        this.properties = properties;
+        // Transacción propia: un reintento solo tiene sentido si el lote no se une a otra
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cacheManager = cacheManager;
+        this.bloqueoTareas = bloqueoTareas;
+        this.ejecutorMantenimiento = ejecutorMantenimiento;
+    }
+
+    /**
+     * Descuenta stock de un insumo dentro de la transacción en curso.
+     *
+     * Si el insumo está cargado en la sesión se refresca, para que refleje el stock y la
+     * versión escritos por el UPDATE.
+     *
+     * @param insumo Insumo consumido
+     * @param cantidad Unidades consumidas
+     * @param referencia Origen del consumo
+     * @return Movimiento registrado en el libro
+     * @throws ValidationException si el insumo está inactivo o no tiene stock suficiente
+     */
+    @Transactional
+    public MovimientoStock registrarSalida(Insumo insumo, int cantidad, String referencia) {
+        MovimientoStock movimiento = aplicar(List.of(new SolicitudMovimientoStock(
+                insumo.getIdInsumo(), TipoMovimientoStock.SALIDA, cantidad, referencia))).get(0);
+        if (entityManager.contains(insumo)) {
+            entityManager.refresh(insumo);
+        }
+        return movimiento;
+    }
+
+    /**
+     * Registra un cambio hecho al guardar la entidad (alta o edición del insumo): sincroniza
+     * su inventario (creándolo en el alta) y, si el stock varió, lo anota en el libro para que
+     * la suma del libro siga coincidiendo con el stock. La versión del insumo garantiza que la
+     * variación se calculó sobre el stock vigente.
+     *
+     * @param insumo Insumo ya guardado
+     * @param tipo Tipo de movimiento
+     * @param variacion Variación del stock
+     * @param referencia Origen del cambio
+     */
+    @Transactional
+    public void anotar(Insumo insumo, TipoMovimientoStock tipo, int variacion, String referencia) {
+        LocalDateTime ahora = LocalDateTime.now();
+        int entradas = tipo == TipoMovimientoStock.ENTRADA ? Math.max(variacion, 0) : 0;
+        int salidas = tipo == TipoMovimientoStock.SALIDA ? Math.max(-variacion, 0) : 0;
+        // El UPDATE del inventario vuelca antes el guardado pendiente del insumo
+        actualizarInventario(new StockInsumo(insumo.getIdInsumo(), insumo.getNombre(), insumo.getActivo(),
+                insumo.getCantidadStock(), insumo.getStockMinimo(), insumo.getPrecioCompra()),
+                entradas, salidas, ahora);
+        invalidarListado();
+        if (variacion == 0) {
+            return;
+        }
+        movimientoStockRepository.save(MovimientoStock.builder()
+                .idInsumo(insumo.getIdInsumo())
+                .tipo(tipo)
+                .cantidad(variacion)
+                .stockResultante(insumo.getCantidadStock())
+                .referencia(referencia)
+                .fecha(ahora)
+                .build());
+        movimientos.incrementAndGet();
+    }
+
+    /**
+     * Invalida el listado de inventario en caché tras el commit de la transacción en curso
+     * (o de inmediato si no hay ninguna). Se usa también para cambios del insumo que no
+     * mueven stock pero sí lo sacan o lo devuelven al listado (activar, desactivar, eliminar).
+     */
+    public void invalidarListado() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    limpiarListado();
+                }
+            });
+        } else {
+            limpiarListado();
+        }
+    }
+
+    /**
+     * Crea el inventario de los insumos que no lo tienen y corrige los que se desviaron del
+     * stock del insumo, en una transacción propia. Los acumulados de entradas y salidas no se
+     * modifican.
+     *
+     * @return Número de inventarios creados o corregidos
+     */
+    public int reconciliarInventario() {
+        Integer corregidos = transactionTemplate.execute(estado -> {
+            LocalDateTime ahora = LocalDateTime.now();
+            List<StockInsumo> desviados = insumoRepository.findStockDesincronizado();
+            desviados.forEach(stock -> actualizarInventario(stock, 0, 0, ahora));
+            if (!desviados.isEmpty()) {
+                invalidarListado();
+            }
+            return desviados.size();
+        });
+        int total = corregidos != null ? corregidos : 0;
+        reconciliados.addAndGet(total);
+        if (total > 0) {
+            log.info("Inventario reconciliado: {} registros creados o corregidos", total);
+        }
+        return total;
+    }
+
+    /**
+     * Reconcilia el inventario en segundo plano al arrancar (app.inventario.reconciliar-al-iniciar).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!properties.isReconciliarAlIniciar()) {
+            return;
+        }
+        try {
+            ejecutorMantenimiento.execute(() -> bloqueoTareas.ejecutar(TAREA_RECONCILIACION,
+                    BLOQUEO_MAXIMO_RECONCILIACION, Duration.ZERO, this::reconciliarInventario));
+        } catch (TaskRejectedException e) {
+            log.warn("No se pudo programar la reconciliación del inventario: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica un lote de movimientos en una transacción propia: si alguno no puede aplicarse
+     * (insumo inexistente o inactivo, stock insuficiente) no se aplica ninguno.
+     *
+     * @param solicitudes Movimientos, en el orden en que deben aplicarse
+     * @return Movimientos registrados en el libro
+     * @throws ValidationException si un movimiento no es válido o no hay stock suficiente
+     * @throws ConcurrencyFailureException si el conflicto persiste tras los reintentos
+     */
+    public List<MovimientoStock> aplicarLote(List<SolicitudMovimientoStock> solicitudes) {
+        if (solicitudes.size() > properties.getMaximoMovimientosPorLote()) {
+            throw new ValidationException(
+                    "El lote supera el máximo de " + properties.getMaximoMovimientosPorLote() + " movimientos",
+                    "movimientos",
+                    "Demasiados movimientos en el lote");
+        }
+        lotes.incrementAndGet();
+        Duration espera = properties.getEsperaReintento();
+        for (int intento = 0; ; intento++) {
+            try {
+                return transactionTemplate.execute(estado -> aplicar(solicitudes));
+            } catch (ConcurrencyFailureException e) {
+                if (intento >= properties.getReintentosMaximos() || !esperar(espera.multipliedBy(1L << intento))) {
+                    conflictos.incrementAndGet();
+                    throw e;
+                }
+                reintentos.incrementAndGet();
+                log.debug("Lote de {} movimientos reintentado ({}): {}", solicitudes.size(), intento + 1, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Obtiene las métricas de los movimientos aplicados.
+     *
+     * @return Mapa con los contadores
+     */
+    public Map<String, Object> getEstadisticas() {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("movimientos", movimientos.get());
+        datos.put("lotes", lotes.get());
+        datos.put("rechazados", rechazados.get());
+        datos.put("reintentos", reintentos.get());
+        datos.put("conflictos", conflictos.get());
+        datos.put("reconciliados", reconciliados.get());
+        return datos;
+    }
+
+    private List<MovimientoStock> aplicar(List<SolicitudMovimientoStock> solicitudes) {
+        solicitudes.forEach(MotorMovimientosStock::validar);
+        Map<Long, List<SolicitudMovimientoStock>> porInsumo = solicitudes.stream()
+                .collect(Collectors.groupingBy(SolicitudMovimientoStock::idInsumo, TreeMap::new, Collectors.toList()));
+        LocalDateTime ahora = LocalDateTime.now();
+
+        // Un UPDATE condicional por insumo, en orden de ID
+        for (Map.Entry<Long, List<SolicitudMovimientoStock>> entrada : porInsumo.entrySet()) {
+            int variacion = 0;
+            int minimo = 0;
+            for (SolicitudMovimientoStock solicitud : entrada.getValue()) {
+                variacion += solicitud.variacion();
+                minimo = Math.min(minimo, variacion);
+            }
+            if (insumoRepository.aplicarVariacionStock(entrada.getKey(), variacion, minimo, ahora) == 0) {
+                rechazados.incrementAndGet();
+                throw rechazo(entrada.getKey(), minimo);
+            }
+        }
+
+        Map<Long, StockInsumo> stock = insumoRepository.findStock(porInsumo.keySet()).stream()
+                .collect(Collectors.toMap(StockInsumo::idInsumo, Function.identity()));
+        List<MovimientoStock> libro = new ArrayList<>(solicitudes.size());
+        for (Map.Entry<Long, List<SolicitudMovimientoStock>> entrada : porInsumo.entrySet()) {
+            StockInsumo actual = stock.get(entrada.getKey());
+            int corriente = actual.cantidadStock()
+                    - entrada.getValue().stream().mapToInt(SolicitudMovimientoStock::variacion).sum();
+            int entradas = 0;
+            int salidas = 0;
+            for (SolicitudMovimientoStock solicitud : entrada.getValue()) {
+                corriente += solicitud.variacion();
+                libro.add(MovimientoStock.builder()
+                        .idInsumo(solicitud.idInsumo())
+                        .tipo(solicitud.tipo())
+                        .cantidad(solicitud.variacion())
+                        .stockResultante(corriente)
+                        .referencia(solicitud.referencia())
+                        .fecha(ahora)
+                        .build());
+                if (solicitud.tipo() == TipoMovimientoStock.ENTRADA) {
+                    entradas += solicitud.cantidad();
+                } else if (solicitud.tipo() == TipoMovimientoStock.SALIDA) {
+                    salidas += solicitud.cantidad();
+                }
+            }
+            actualizarInventario(actual, entradas, salidas, ahora);
+        }
+
+        movimientos.addAndGet(libro.size());
+        invalidarListado();
+        log.debug("Aplicados {} movimientos de stock sobre {} insumos", libro.size(), porInsumo.size());
+        return movimientoStockRepository.saveAll(libro);
+    }
+
+    /**
+     * Registra el movimiento en el inventario consolidado; si el insumo aún no tiene
+     * registro lo crea (el UPDATE del insumo lo bloquea, así que no hay otra creación a la vez).
+     */
+    private void actualizarInventario(StockInsumo stock, int entradas, int salidas, LocalDateTime ahora) {
+        BigDecimal valorEntradas = valor(stock.precioCompra(), entradas);
+        BigDecimal valorSalidas = valor(stock.precioCompra(), salidas);
+        LocalDateTime fechaEntrada = entradas > 0 ? ahora : null;
+        LocalDateTime fechaSalida = salidas > 0 ? ahora : null;
+
+        int filas = inventarioRepository.registrarMovimiento(stock.idInsumo(), stock.cantidadStock(),
+                stock.valorTotal(), stock.requiereReorden(), entradas, valorEntradas, salidas, valorSalidas,
+                fechaEntrada, fechaSalida, ahora);
+        if (filas == 0) {
+            inventarioRepository.save(Inventario.builder()
+                    .insumo(insumoRepository.getReferenceById(stock.idInsumo()))
+                    .cantidadActual(stock.cantidadStock())
+                    .totalEntradas(entradas)
+                    .valorEntradas(valorEntradas)
+                    .totalSalidas(salidas)
+                    .valorSalidas(valorSalidas)
+                    .fechaUltimaEntrada(fechaEntrada)
+                    .fechaUltimaSalida(fechaSalida)
+                    .requiereReorden(stock.requiereReorden())
+                    .build());
+            log.info("Registro de inventario creado para insumo ID: {}", stock.idInsumo());
+        }
+    }
+
+    private void limpiarListado() {
+        Cache listado = cacheManager.getCache(CacheConfig.CACHE_INVENTARIO);
+        if (listado != null) {
+            listado.clear();
+        }
+    }
+
+    private RuntimeException rechazo(Long idInsumo, int minimo) {
+        StockInsumo actual = insumoRepository.findStock(List.of(idInsumo)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException(Constants.ENTIDAD_INSUMO, "id", idInsumo));
+        if (!Boolean.TRUE.equals(actual.activo())) {
+            return new ValidationException(
+                    "El insumo " + actual.nombre() + " no está activo",
+                    "idInsumo",
+                    "El insumo debe estar activo para ser utilizado");
+        }
+        return new ValidationException(
+                "Stock insuficiente para el insumo " + actual.nombre() +
+                        ". Stock disponible: " + actual.cantidadStock() +
+                        ", cantidad requerida: " + (-minimo),
+                "idInsumo",
+                "Stock insuficiente");
+    }
+
+    private static void validar(SolicitudMovimientoStock solicitud) {
+        if (solicitud.idInsumo() == null || solicitud.tipo() == null) {
+            throw new ValidationException("El insumo y el tipo del movimiento son obligatorios",
+                    "idInsumo", "Movimiento incompleto");
+        }
+        boolean valida = solicitud.tipo() == TipoMovimientoStock.AJUSTE
+                ? solicitud.cantidad() != 0
+                : solicitud.cantidad() > 0;
+        if (!valida) {
+            throw new ValidationException(
+                    "Cantidad no válida para un movimiento de tipo " + solicitud.tipo() + ": " + solicitud.cantidad(),
+                    "cantidad",
+                    "La cantidad debe ser positiva (distinta de cero en ajustes)");
+        }
+    }
+
+    private static BigDecimal valor(BigDecimal precio, int cantidad) {
+        return precio != null && cantidad > 0 ? precio.multiply(BigDecimal.valueOf(cantidad)) : BigDecimal.ZERO;
+    }
+
+    private static boolean esperar(Duration espera) {
+        try {
+            Thread.sleep(espera.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.veterinaria.clinica_veternica.service.programacion;
+
+import com.veterinaria.clinica_veternica.config.AsyncProperties;
+import com.veterinaria.clinica_veternica.domain.sistema.BloqueoTarea;
+import com.veterinaria.clinica_veternica.repository.BloqueoTareaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bloqueo de tareas programadas entre instancias, respaldado en la tabla bloqueos_tareas.
+ *
+ * Con varias instancias de la aplicación, cada una ejecuta sus @Scheduled; las tareas que
+ * deben correr una sola vez por periodo (p. ej. el monitoreo de stock, que envía correos)
+ * se envuelven en {@link #ejecutar}:
+ * - El bloqueo se adquiere con un UPDATE condicional (bloqueadoHasta vencido), atómico en
+ *   la base de datos; la primera vez se inserta la fila de la tarea
+ * - duracionMaxima: si la instancia cae, el bloqueo vence solo al llegar a ese límite
+ * - duracionMinima: el bloqueo se mantiene al menos ese tiempo aunque la tarea termine
+ *   antes, para que otra instancia con el reloj algo desfasado no la repita
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-23
+ */
+@Slf4j
+@Component
+public class BloqueoTareas {
+
+    private final BloqueoTareaRepository bloqueoTareaRepository;
+    private final String nodo;
+
+    public BloqueoTareas(BloqueoTareaRepository bloqueoTareaRepository, AsyncProperties properties) {
+        this.bloqueoTareaRepository = bloqueoTareaRepository;
+        this.nodo = StringUtils.hasText(properties.getNodo())
+                ? properties.getNodo()
+                : ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    /**
+     * Ejecuta una tarea solo si esta instancia consigue su bloqueo.
+     *
+     * @param nombre Nombre único de la tarea
+     * @param duracionMaxima Tiempo máximo que se mantiene el bloqueo si la instancia cae
+     * @param duracionMinima Tiempo mínimo que se mantiene el bloqueo tras terminar
+     * @param tarea Tarea a ejecutar
+     * @return true si la tarea se ejecutó, false si otra instancia tiene el bloqueo
+     */
+    public boolean ejecutar(String nombre, Duration duracionMaxima, Duration duracionMinima, Runnable tarea) {
+        LocalDateTime adquiridoEn = ahora();
+        if (!adquirir(nombre, adquiridoEn, adquiridoEn.plus(duracionMaxima))) {
+            log.debug("Tarea {} omitida: el bloqueo lo tiene otra instancia", nombre);
+            return false;
+        }
+        try {
+            tarea.run();
+            return true;
+        } finally {
+            LocalDateTime hasta = max(ahora(), adquiridoEn.plus(duracionMinima));
+            if (bloqueoTareaRepository.liberar(nombre, nodo, adquiridoEn, hasta) == 0) {
+                log.warn("Tarea {}: el bloqueo venció antes de terminar (duración máxima {})", nombre, duracionMaxima);
+            }
+        }
+    }
+
+    public String getNodo() {
+        return nodo;
+    }
+
+    private boolean adquirir(String nombre, LocalDateTime ahora, LocalDateTime hasta) {
+        if (bloqueoTareaRepository.adquirir(nombre, ahora, hasta, nodo) > 0) {
+            return true;
+        }
+        if (bloqueoTareaRepository.existsById(nombre)) {
+            return false;
+        }
+        try {
+            bloqueoTareaRepository.saveAndFlush(BloqueoTarea.builder()
+                    .nombre(nombre)
+                    .bloqueadoEn(ahora)
+                    .bloqueadoHasta(hasta)
+                    .bloqueadoPor(nodo)
+                    .build());
+            return true;
+        } catch (DataAccessException e) {
+            // Otra instancia insertó la fila a la vez
+            log.debug("Tarea {}: bloqueo creado por otra instancia", nombre);
+            return false;
+        }
+    }
+
+    private static LocalDateTime ahora() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,291 @@
+package com.veterinaria.clinica_veternica.service.reporte;
+
+import com.veterinaria.clinica_veternica.config.AsyncConfig;
+import com.veterinaria.clinica_veternica.config.RollupsProperties;
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.patterns.behavioral.observer.CitaObserver;
+import com.veterinaria.clinica_veternica.repository.ResumenDiarioCitasRepository;
+import com.veterinaria.clinica_veternica.service.programacion.BloqueoTareas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mantiene la tabla resumen_diario_citas (citas e ingresos por día, veterinario, servicio y estado).
+ *
+ * FUNCIONAMIENTO:
+ * - Se registra como CitaObserver: crear, cambiar de estado, cancelar o reprogramar una cita
+ *   marca su día (y el día original, si se reprogramó) como pendiente tras el commit
+ * - procesarPendientes() recalcula los días pendientes: cada día se reemplaza entero
+ *   (DELETE + INSERT ... SELECT agrupado) en una transacción, de modo que el recálculo es
+ *   idempotente y no acumula errores; si falla, el día vuelve a quedar pendiente
+ * - Antes de leer un rango, asegurarActualizado() recalcula los días pendientes del rango
+ * - La reconciliación diaria recalcula una ventana alrededor de hoy, para cambios que no
+ *   pasan por los eventos (scripts, otras instancias caídas antes de procesar); con la tabla
+ *   vacía se reconstruye entera, por lotes de días
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+@Slf4j
+@Component
+public class AgregadorDiarioCitas implements CitaObserver {
+
+    static final String TAREA_RECONCILIACION = "reconciliacion-resumen-citas";
+    private static final Duration BLOQUEO_MAXIMO_RECONCILIACION = Duration.ofHours(1);
+    private static final Duration BLOQUEO_MINIMO_RECONCILIACION = Duration.ofMinutes(5);
+
+    private final ResumenDiarioCitasRepository resumenRepository;
+    private final RollupsProperties properties;
+    private final BloqueoTareas bloqueoTareas;
+    private final Executor ejecutorMantenimiento;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<LocalDate> diasPendientes = ConcurrentHashMap.newKeySet();
+    private final AtomicLong diasRecalculados = new AtomicLong();
+    private final AtomicLong filasEscritas = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong reconciliaciones = new AtomicLong();
+
+    private volatile LocalDateTime ultimaReconciliacion;
+
+    public AgregadorDiarioCitas(ResumenDiarioCitasRepository resumenRepository,
+                                RollupsProperties properties,
+                                BloqueoTareas bloqueoTareas,
+                                @Qualifier(AsyncConfig.EJECUTOR_MANTENIMIENTO) Executor ejecutorMantenimiento,
+                                PlatformTransactionManager transactionManager) {
+        this.resumenRepository = resumenRepository;
+        this.properties = properties;
+        this.bloqueoTareas = bloqueoTareas;
+        this.ejecutorMantenimiento = ejecutorMantenimiento;
+        // Transacción propia: los recálculos se invocan también desde lecturas readOnly
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Marca un día como pendiente de recalcular tras el commit de la transacción en curso.
+     *
+     * @param fecha Día afectado
+     */
+    public void marcar(LocalDate fecha) {
+        if (fecha == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    diasPendientes.add(fecha);
+                }
+            });
+        } else {
+            diasPendientes.add(fecha);
+        }
+    }
+
+    /**
+     * Recalcula los días pendientes.
+     *
+     * @return Número de días recalculados
+     */
+    @Scheduled(fixedDelayString = "${app.rollups.intervalo:10s}",
+               initialDelayString = "${app.rollups.intervalo:10s}")
+    public int procesarPendientes() {
+        return procesar(LocalDate.MIN, LocalDate.MAX);
+    }
+
+    /**
+     * Recalcula los días pendientes de un rango antes de leerlo, para que las lecturas
+     * incluyan los cambios ya confirmados.
+     *
+     * @param inicio Fecha inicial (inclusive)
+     * @param fin Fecha final (inclusive)
+     */
+    public void asegurarActualizado(LocalDate inicio, LocalDate fin) {
+        procesar(inicio, fin);
+    }
+
+    /**
+     * Recalcula la ventana de días alrededor de hoy (app.rollups.dias-atras / dias-adelante),
+     * o la tabla entera si está vacía. Se ejecuta en una sola instancia a la vez.
+     */
+    @Scheduled(cron = "${app.rollups.cron-reconciliacion:0 30 2 * * *}")
+    public void reconciliar() {
+        bloqueoTareas.ejecutar(TAREA_RECONCILIACION, BLOQUEO_MAXIMO_RECONCILIACION, BLOQUEO_MINIMO_RECONCILIACION,
+                () -> {
+                    if (resumenRepository.count() == 0) {
+                        reconstruir();
+                        return;
+                    }
+                    LocalDate hoy = LocalDate.now();
+                    recalcularPorLotes(hoy.minusDays(properties.getDiasAtras()),
+                            hoy.plusDays(properties.getDiasAdelante()));
+                    registrarReconciliacion();
+                });
+    }
+
+    /**
+     * Reconstruye la tabla entera a partir de las citas, por lotes de días.
+     *
+     * @return Número de filas escritas
+     */
+    public long reconstruir() {
+        Optional<LocalDate> primera = resumenRepository.findPrimeraFechaCita();
+        Optional<LocalDate> ultima = resumenRepository.findUltimaFechaCita();
+        if (primera.isEmpty() || ultima.isEmpty()) {
+            transactionTemplate.executeWithoutResult(estado -> resumenRepository.deleteAllInBatch());
+            registrarReconciliacion();
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(estado ->
+                resumenRepository.eliminarFueraDeRango(primera.get(), ultima.get()));
+        long filas = recalcularPorLotes(primera.get(), ultima.get());
+        registrarReconciliacion();
+        log.info("Resumen diario de citas reconstruido: {} a {}, {} filas", primera.get(), ultima.get(), filas);
+        return filas;
+    }
+
+    /**
+     * Reconstruye la tabla en segundo plano al arrancar si está vacía
+     * (app.rollups.reconstruir-al-iniciar).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!properties.isReconstruirAlIniciar()) {
+            return;
+        }
+        try {
+            ejecutorMantenimiento.execute(() -> {
+                if (resumenRepository.count() == 0) {
+                    bloqueoTareas.ejecutar(TAREA_RECONCILIACION, BLOQUEO_MAXIMO_RECONCILIACION,
+                            Duration.ZERO, this::reconstruir);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("No se pudo programar la reconstrucción del resumen diario de citas: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene las métricas del agregador.
+     *
+     * @return Mapa de métricas
+     */
+    public Map<String, Object> getEstadisticas() {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("diasPendientes", diasPendientes.size());
+        datos.put("diasRecalculados", diasRecalculados.get());
+        datos.put("filasEscritas", filasEscritas.get());
+        datos.put("fallos", fallos.get());
+        datos.put("reconciliaciones", reconciliaciones.get());
+        datos.put("ultimaReconciliacion", ultimaReconciliacion);
+        return datos;
+    }
+
+    @Override
+    public void onCitaStateChanged(Cita cita, String estadoAnterior, String estadoNuevo) {
+        marcar(cita.getFechaCita());
+    }
+
+    @Override
+    public void onCitaCreated(Cita cita) {
+        marcar(cita.getFechaCita());
+    }
+
+    @Override
+    public void onCitaCancelled(Cita cita, String motivo) {
+        marcar(cita.getFechaCita());
+    }
+
+    @Override
+    public void onCitaUpdated(Cita cita, LocalDate fechaOriginal, LocalTime horaOriginal) {
+        marcar(fechaOriginal);
+        marcar(cita.getFechaCita());
+    }
+
+    /**
+     * Recalcula los días pendientes de un rango. Quitar el día del conjunto antes de
+     * recalcularlo evita que dos hilos lo recalculen a la vez; un evento que llegue
+     * mientras tanto lo vuelve a marcar.
+     */
+    private int procesar(LocalDate inicio, LocalDate fin) {
+        if (diasPendientes.isEmpty()) {
+            return 0;
+        }
+        List<LocalDate> dias = new ArrayList<>();
+        for (LocalDate dia : diasPendientes) {
+            if (!dia.isBefore(inicio) && !dia.isAfter(fin)) {
+                dias.add(dia);
+            }
+        }
+        dias.sort(null);
+        int recalculados = 0;
+        for (LocalDate dia : dias) {
+            if (!diasPendientes.remove(dia)) {
+                continue;
+            }
+            try {
+                recalcular(dia, dia);
+                recalculados++;
+            } catch (RuntimeException e) {
+                diasPendientes.add(dia);
+                fallos.incrementAndGet();
+                log.warn("No se pudo recalcular el resumen de citas del {}: {}", dia, e.getMessage());
+            }
+        }
+        return recalculados;
+    }
+
+    private long recalcularPorLotes(LocalDate inicio, LocalDate fin) {
+        int lote = Math.max(1, properties.getDiasPorLote());
+        long filas = 0;
+        for (LocalDate desde = inicio; !desde.isAfter(fin); desde = desde.plusDays(lote)) {
+            LocalDate hasta = desde.plusDays(lote - 1L);
+            filas += recalcular(desde, hasta.isAfter(fin) ? fin : hasta);
+        }
+        return filas;
+    }
+
+    private int recalcular(LocalDate inicio, LocalDate fin) {
+        Integer filas = transactionTemplate.execute(estado -> {
+            resumenRepository.eliminarRango(inicio, fin);
+            return resumenRepository.insertarDesdeCitas(inicio, fin,
+                    LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        });
+        int escritas = filas == null ? 0 : filas;
+        diasRecalculados.addAndGet(ChronoUnit.DAYS.between(inicio, fin) + 1);
+        filasEscritas.addAndGet(escritas);
+        return escritas;
+    }
+
+    private void registrarReconciliacion() {
+        reconciliaciones.incrementAndGet();
+        ultimaReconciliacion = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,168 @@
+package com.veterinaria.clinica_veternica.service.reporte;
+
+import com.veterinaria.clinica_veternica.config.ReportesProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Almacén local de los reportes generados en segundo plano.
+ *
+ * Cada archivo se guarda con el nombre "&lt;clave&gt;.&lt;extensión&gt;", donde la clave es el
+ * SHA-256 de los parámetros del reporte y de la huella de los datos
+ * ({@link HuellaDatosReporte}). Un trabajo con los mismos parámetros sobre los mismos
+ * datos encuentra el archivo ya generado y lo reutiliza; cuando los datos cambian, cambia
+ * la clave y se genera uno nuevo.
+ *
+ * - El archivo se escribe en un temporal y se mueve al nombre final al terminar, así
+ *   nunca se sirve un reporte a medio escribir
+ * - Los archivos sin usar durante app.reportes.retencion se eliminan periódicamente
+ *   (reutilizar un archivo renueva su fecha)
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+@Slf4j
+@Component
+public class AlmacenReportes {
+
+    private static final String SUFIJO_TEMPORAL = ".tmp";
+
+    private final ReportesProperties properties;
+
+    public AlmacenReportes(ReportesProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Escritura del contenido de un reporte en la salida del almacén.
+     */
+    @FunctionalInterface
+    public interface EscrituraReporte {
+        void escribir(OutputStream salida) throws IOException;
+    }
+
+    /**
+     * Calcula la clave de un reporte a partir de sus parámetros y de la huella de sus datos.
+     *
+     * @param partes Parámetros y huella (los null se incluyen como "null")
+     * @return SHA-256 en hexadecimal
+     */
+    public static String calcularClave(Object... partes) {
+        StringBuilder texto = new StringBuilder();
+        for (Object parte : partes) {
+            texto.append(Objects.toString(parte)).append('|');
+        }
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(texto.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Busca un reporte ya generado y renueva su fecha para que la limpieza no lo elimine.
+     *
+     * @param clave Clave del reporte
+     * @param extension Extensión del archivo
+     * @return Archivo del reporte, si existe
+     */
+    public Optional<Path> buscar(String clave, String extension) {
+        Path archivo = resolver(clave, extension);
+        if (!Files.isRegularFile(archivo)) {
+            return Optional.empty();
+        }
+        try {
+            Files.setLastModifiedTime(archivo, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // Lo pudo eliminar la limpieza en este instante
+            return Optional.empty();
+        }
+        return Optional.of(archivo);
+    }
+
+    /**
+     * Genera un reporte en un archivo temporal y lo publica con su clave al terminar.
+     *
+     * @param clave Clave del reporte
+     * @param extension Extensión del archivo
+     * @param escritura Escritura del contenido
+     * @return Archivo publicado
+     * @throws IOException si falla la escritura
+     */
+    public Path guardar(String clave, String extension, EscrituraReporte escritura) throws IOException {
+        Path directorio = properties.getDirectorio();
+        Files.createDirectories(directorio);
+        Path temporal = Files.createTempFile(directorio, clave + "-", SUFIJO_TEMPORAL);
+        try {
+            try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(temporal))) {
+                escritura.escribir(salida);
+            }
+            Path destino = resolver(clave, extension);
+            try {
+                Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return destino;
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Elimina los archivos (y temporales huérfanos) sin usar durante el periodo de retención.
+     * Cada instancia limpia su propio directorio, por eso no usa BloqueoTareas.
+     *
+     * @return Número de archivos eliminados
+     */
+    @Scheduled(fixedDelayString = "${app.reportes.intervalo-limpieza:1h}",
+               initialDelayString = "${app.reportes.intervalo-limpieza:1h}")
+    public int limpiar() {
+        Path directorio = properties.getDirectorio();
+        if (!Files.isDirectory(directorio)) {
+            return 0;
+        }
+        Instant limite = Instant.now().minus(properties.getRetencion());
+        int eliminados = 0;
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio)) {
+            for (Path archivo : archivos) {
+                if (Files.isRegularFile(archivo)
+                        && Files.getLastModifiedTime(archivo).toInstant().isBefore(limite)
+                        && Files.deleteIfExists(archivo)) {
+                    eliminados++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al limpiar el almacén de reportes " + directorio, e);
+        }
+        if (eliminados > 0) {
+            log.info("Almacén de reportes: {} archivos vencidos eliminados", eliminados);
+        }
+        return eliminados;
+    }
+
+    private Path resolver(String clave, String extension) {
+        return properties.getDirectorio().resolve(clave + "." + extension);
+    }
+}
@@ -0,0 +1,19 @@
+package com.veterinaria.clinica_veternica.service.reporte;
+
+/**
+ * Estados de un trabajo de reporte en segundo plano.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+public enum EstadoTrabajoReporte {
+    PENDIENTE,
+    EN_PROCESO,
+    COMPLETADO,
+    FALLIDO;
+
+    public boolean isTerminado() {
+        return this == COMPLETADO || this == FALLIDO;
+    }
+}
@@ -0,0 +1,305 @@
+package com.veterinaria.clinica_veternica.service.reporte;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.veterinaria.clinica_veternica.config.AsyncConfig;
+import com.veterinaria.clinica_veternica.config.ReportesProperties;
+import com.veterinaria.clinica_veternica.dto.request.reporte.TrabajoReporteRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.facade.TrabajoReporteDTO;
+import com.veterinaria.clinica_veternica.exception.BusinessException;
+import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
+import com.veterinaria.clinica_veternica.patterns.structural.bridge.ReporteAbstraction;
+import com.veterinaria.clinica_veternica.patterns.structural.bridge.ReporteService;
+import com.veterinaria.clinica_veternica.patterns.structural.facade.ReporteFacadeService;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trabajos de reportes en segundo plano: envío, consulta de estado/progreso y descarga.
+ *
+ * Los reportes de rangos grandes no caben en el tiempo de una petición HTTP; aquí se
+ * generan en el pool "reportes" (acotado, política ABORTAR) y se guardan en
+ * {@link AlmacenReportes}:
+ * - Antes de generar se calcula la huella de las citas del rango; si ya existe un archivo
+ *   con los mismos parámetros y la misma huella, el trabajo termina al instante con ese
+ *   archivo (reutilizado=true)
+ * - Cada usuario puede tener como máximo app.reportes.trabajos-por-usuario trabajos en
+ *   curso; el pool, además, limita los que se ejecutan a la vez en toda la instancia, de
+ *   modo que los reportes no compiten por conexiones con el agendamiento
+ * - Los trabajos se recuerdan en memoria durante app.reportes.retencion; solo el usuario
+ *   que los envió (o un ADMIN) puede consultarlos y descargarlos
+ *
+ * La huella cubre las citas del rango y las mascotas, propietarios, especies, veterinarios
+ * y servicios de esas citas; cambiar, p. ej., el nombre de un veterinario genera un archivo
+ * nuevo en el siguiente trabajo.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+@Slf4j
+@Service
+public class GestorTrabajosReporte {
+
+    private static final String ROL_ADMIN = "ROLE_ADMIN";
+    private static final String EXTENSION_JSON = "json";
+    private static final String ENTIDAD_TRABAJO = "Trabajo de reporte";
+    private static final String RUTA_TRABAJOS = "/api/facade/reportes/trabajos/";
+    // Rango de una exportación sin fechas, para calcular la huella de todas las citas
+    private static final LocalDate FECHA_MINIMA = LocalDate.of(1, 1, 1);
+    private static final LocalDate FECHA_MAXIMA = LocalDate.of(9999, 12, 31);
+
+    private final ReporteFacadeService reporteFacadeService;
+    private final ReporteService reporteService;
+    private final CitaRepository citaRepository;
+    private final AlmacenReportes almacen;
+    private final ObjectMapper objectMapper;
+    private final Executor ejecutor;
+    private final ReportesProperties properties;
+
+    private final Cache<String, TrabajoReporte> trabajos;
+    private final Map<String, Semaphore> cuposPorUsuario = new ConcurrentHashMap<>();
+
+    private final AtomicLong enviados = new AtomicLong();
+    private final AtomicLong reutilizados = new AtomicLong();
+    private final AtomicLong generados = new AtomicLong();
+    private final AtomicLong fallidos = new AtomicLong();
+    private final AtomicLong rechazados = new AtomicLong();
+
+    public GestorTrabajosReporte(ReporteFacadeService reporteFacadeService,
+                                 ReporteService reporteService,
+                                 CitaRepository citaRepository,
+                                 AlmacenReportes almacen,
+                                 ObjectMapper objectMapper,
+                                 @Qualifier(AsyncConfig.EJECUTOR_REPORTES) Executor ejecutor,
+                                 ReportesProperties properties) {
+        this.reporteFacadeService = reporteFacadeService;
+        this.reporteService = reporteService;
+        this.citaRepository = citaRepository;
+        this.almacen = almacen;
+        this.objectMapper = objectMapper;
+        this.ejecutor = ejecutor;
+        this.properties = properties;
+        this.trabajos = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximoTrabajos())
+                .expireAfterWrite(properties.getRetencion())
+                .build();
+    }
+
+    /**
+     * Envía un trabajo de reporte a la cola del pool de reportes.
+     *
+     * @param request Tipo, formato y rango del reporte
+     * @return Estado inicial del trabajo (PENDIENTE)
+     * @throws IllegalArgumentException si los parámetros no son válidos
+     * @throws BusinessException si el usuario ya tiene el máximo de trabajos en curso o la cola está llena
+     */
+    public TrabajoReporteDTO enviar(TrabajoReporteRequestDTO request) {
+        validar(request);
+        String usuario = usuarioActual().getName();
+        // Para exportaciones se crea aquí el reporte: un formato inválido falla en la petición
+        ReporteAbstraction exportacion = request.getTipo() == TipoTrabajoReporte.EXPORTACION_CITAS
+                ? reporteService.crearReporte(request.getFormato(), request.getFechaInicio(), request.getFechaFin())
+                : null;
+
+        Semaphore cupo = cuposPorUsuario.computeIfAbsent(usuario,
+                u -> new Semaphore(Math.max(1, properties.getTrabajosPorUsuario())));
+        if (!cupo.tryAcquire()) {
+            rechazados.incrementAndGet();
+            throw new BusinessException("Ya tiene " + properties.getTrabajosPorUsuario()
+                    + " reportes en curso; espere a que terminen para enviar otro");
+        }
+
+        TrabajoReporte trabajo = new TrabajoReporte(UUID.randomUUID().toString(), usuario, request.getTipo(),
+                exportacion != null ? request.getFormato().toLowerCase() : EXTENSION_JSON,
+                request.getFechaInicio(), request.getFechaFin());
+        trabajos.put(trabajo.getId(), trabajo);
+        try {
+            ejecutor.execute(() -> {
+                try {
+                    ejecutar(trabajo, exportacion);
+                } finally {
+                    cupo.release();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            cupo.release();
+            trabajos.invalidate(trabajo.getId());
+            rechazados.incrementAndGet();
+            throw new BusinessException("La cola de reportes está llena; intente de nuevo en unos minutos");
+        }
+        enviados.incrementAndGet();
+        log.info("Trabajo de reporte {} ({}) enviado por {}", trabajo.getId(), trabajo.getTipo(), usuario);
+        return aDto(trabajo);
+    }
+
+    /**
+     * Consulta el estado y el progreso de un trabajo.
+     *
+     * @param id ID del trabajo
+     * @return Estado del trabajo
+     * @throws ResourceNotFoundException si no existe, venció o pertenece a otro usuario
+     */
+    public TrabajoReporteDTO consultar(String id) {
+        return aDto(buscar(id));
+    }
+
+    /**
+     * Obtiene el trabajo completado cuyo archivo se va a descargar.
+     *
+     * @param id ID del trabajo
+     * @return Trabajo completado con su archivo
+     * @throws ResourceNotFoundException si no existe o su archivo ya se eliminó
+     * @throws BusinessException si el trabajo aún no termina o falló
+     */
+    public TrabajoReporte obtenerParaDescarga(String id) {
+        TrabajoReporte trabajo = buscar(id);
+        if (trabajo.getEstado() != EstadoTrabajoReporte.COMPLETADO) {
+            throw new BusinessException("El reporte no está disponible: el trabajo está " + trabajo.getEstado());
+        }
+        if (!Files.isRegularFile(trabajo.getArchivo())) {
+            throw new ResourceNotFoundException("El archivo del reporte " + id
+                    + " ya no está disponible; envíe el trabajo de nuevo");
+        }
+        return trabajo;
+    }
+
+    /**
+     * Obtiene las métricas de los trabajos de reporte.
+     *
+     * @return Mapa de contadores
+     */
+    public Map<String, Object> getEstadisticas() {
+        long enCurso = trabajos.asMap().values().stream()
+                .filter(trabajo -> !trabajo.getEstado().isTerminado())
+                .count();
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("enviados", enviados.get());
+        datos.put("generados", generados.get());
+        datos.put("reutilizados", reutilizados.get());
+        datos.put("fallidos", fallidos.get());
+        datos.put("rechazados", rechazados.get());
+        datos.put("enCurso", enCurso);
+        datos.put("registrados", trabajos.estimatedSize());
+        return datos;
+    }
+
+    private void ejecutar(TrabajoReporte trabajo, ReporteAbstraction exportacion) {
+        try {
+            HuellaDatosReporte huella = citaRepository.calcularHuella(
+                    trabajo.getFechaInicio() != null ? trabajo.getFechaInicio() : FECHA_MINIMA,
+                    trabajo.getFechaFin() != null ? trabajo.getFechaFin() : FECHA_MAXIMA);
+            trabajo.iniciar(huella.total());
+
+            String extension = exportacion != null ? exportacion.getExtension() : EXTENSION_JSON;
+            String tipoMime = exportacion != null ? exportacion.getTipoMime() : MediaType.APPLICATION_JSON_VALUE;
+            String clave = AlmacenReportes.calcularClave(trabajo.getTipo(), trabajo.getFormato(),
+                    trabajo.getFechaInicio(), trabajo.getFechaFin(),
+                    huella.total(), huella.ultimaModificacion(), huella.sumaIds(),
+                    huella.ultimaModificacionRelacionados());
+
+            Path existente = almacen.buscar(clave, extension).orElse(null);
+            if (existente != null) {
+                reutilizados.incrementAndGet();
+                trabajo.completar(existente, clave, tipoMime, extension, true);
+                log.info("Trabajo de reporte {}: reutilizado {}", trabajo.getId(), existente.getFileName());
+                return;
+            }
+            Path archivo = almacen.guardar(clave, extension, salida -> generar(trabajo, exportacion, salida));
+            generados.incrementAndGet();
+            trabajo.completar(archivo, clave, tipoMime, extension, false);
+            log.info("Trabajo de reporte {}: generado {}", trabajo.getId(), archivo.getFileName());
+        } catch (Exception e) {
+            fallidos.incrementAndGet();
+            trabajo.fallar(e.getMessage());
+            log.error("Error en el trabajo de reporte {}: {}", trabajo.getId(), e.getMessage(), e);
+        }
+    }
+
+    private void generar(TrabajoReporte trabajo, ReporteAbstraction exportacion, OutputStream salida) throws IOException {
+        switch (trabajo.getTipo()) {
+            case CITAS -> objectMapper.writeValue(salida,
+                    reporteFacadeService.generarReporteCitas(trabajo.getFechaInicio(), trabajo.getFechaFin()));
+            case VETERINARIOS -> objectMapper.writeValue(salida,
+                    reporteFacadeService.generarReporteVeterinarios(trabajo.getFechaInicio(), trabajo.getFechaFin()));
+            case EXPORTACION_CITAS -> reporteService.exportar(exportacion, salida, trabajo::registrarAvance);
+        }
+    }
+
+    private void validar(TrabajoReporteRequestDTO request) {
+        boolean requiereFechas = request.getTipo() != TipoTrabajoReporte.EXPORTACION_CITAS;
+        if (requiereFechas && (request.getFechaInicio() == null || request.getFechaFin() == null)) {
+            throw new IllegalArgumentException("El reporte " + request.getTipo() + " requiere fecha de inicio y de fin");
+        }
+        if (request.getFechaInicio() != null && request.getFechaFin() != null
+                && request.getFechaFin().isBefore(request.getFechaInicio())) {
+            throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la fecha de inicio");
+        }
+    }
+
+    private TrabajoReporte buscar(String id) {
+        TrabajoReporte trabajo = trabajos.getIfPresent(id);
+        Authentication usuario = usuarioActual();
+        // Un trabajo de otro usuario se trata como inexistente para no revelar su existencia
+        if (trabajo == null || !(trabajo.getUsuario().equals(usuario.getName()) || esAdmin(usuario))) {
+            throw new ResourceNotFoundException(ENTIDAD_TRABAJO, "id", id);
+        }
+        return trabajo;
+    }
+
+    private static Authentication usuarioActual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new BusinessException("Se requiere un usuario autenticado para gestionar trabajos de reporte");
+        }
+        return authentication;
+    }
+
+    private static boolean esAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(ROL_ADMIN::equals);
+    }
+
+    private static TrabajoReporteDTO aDto(TrabajoReporte trabajo) {
+        return TrabajoReporteDTO.builder()
+                .id(trabajo.getId())
+                .tipo(trabajo.getTipo())
+                .formato(trabajo.getFormato())
+                .fechaInicio(trabajo.getFechaInicio())
+                .fechaFin(trabajo.getFechaFin())
+                .estado(trabajo.getEstado())
+                .progreso(trabajo.getProgreso())
+                .filasProcesadas(trabajo.getFilasProcesadas())
+                .totalFilas(trabajo.getTotalFilas())
+                .reutilizado(trabajo.isReutilizado())
+                .error(trabajo.getError())
+                .creadoEn(trabajo.getCreadoEn())
+                .finalizadoEn(trabajo.getFinalizadoEn())
+                .urlDescarga(trabajo.getEstado() == EstadoTrabajoReporte.COMPLETADO
+                        ? RUTA_TRABAJOS + trabajo.getId() + "/descarga"
+                        : null)
+                .build();
+    }
+}
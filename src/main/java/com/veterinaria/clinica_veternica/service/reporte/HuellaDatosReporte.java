@@ -0,0 +1,40 @@
+package com.veterinaria.clinica_veternica.service.reporte;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Huella de las citas de un rango, calculada en una sola consulta agregada.
+ * Cambia al crear, modificar o eliminar cualquier cita del rango, o al modificar la
+ * mascota, el propietario, la especie, el veterinario o el servicio de alguna de ellas,
+ * por lo que sirve para decidir si un reporte ya generado con los mismos parámetros sigue
+ * vigente.
+ *
+ * @param total Número de citas del rango
+ * @param ultimaModificacion Fecha de la última modificación (null si no hay citas)
+ * @param sumaIds Suma de los IDs de las citas (detecta altas y bajas que compensan el total)
+ * @param ultimaModificacionRelacionados Última modificación de las entidades que el reporte
+ *                                       lee a través de las citas (null si no hay citas)
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+public record HuellaDatosReporte(Long total, LocalDateTime ultimaModificacion, Long sumaIds,
+                                 LocalDateTime ultimaModificacionRelacionados) {
+
+    /**
+     * Constructor para la consulta agregada: recibe la última modificación de cada entidad
+     * relacionada y se queda con la más reciente.
+     */
+    public HuellaDatosReporte(Long total, LocalDateTime ultimaModificacion, Long sumaIds,
+                              LocalDateTime ultimaMascota, LocalDateTime ultimoPropietario,
+                              LocalDateTime ultimaEspecie, LocalDateTime ultimoVeterinario,
+                              LocalDateTime ultimoServicio) {
+        this(total, ultimaModificacion, sumaIds,
+                Stream.of(ultimaMascota, ultimoPropietario, ultimaEspecie, ultimoVeterinario, ultimoServicio)
+                        .filter(fecha -> fecha != null)
+                        .max(LocalDateTime::compareTo)
+                        .orElse(null));
+    }
+}
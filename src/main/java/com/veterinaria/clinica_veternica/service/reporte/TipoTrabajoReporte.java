@@ -0,0 +1,17 @@
+package com.veterinaria.clinica_veternica.service.reporte;
+
+/**
+ * Reportes que pueden generarse como trabajo en segundo plano.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+public enum TipoTrabajoReporte {
+    /** ReporteCitasDTO del facade (JSON) */
+    CITAS,
+    /** ReporteVeterinariosDTO del facade (JSON) */
+    VETERINARIOS,
+    /** Exportación de citas fila a fila (pdf, excel o json) */
+    EXPORTACION_CITAS
+}
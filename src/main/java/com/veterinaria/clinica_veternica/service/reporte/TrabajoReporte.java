@@ -0,0 +1,98 @@
+package com.veterinaria.clinica_veternica.service.reporte;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Trabajo de reporte en segundo plano. Lo crea el hilo de la petición y lo actualiza el
+ * hilo del pool de reportes; los campos de estado son volatile para que las consultas de
+ * progreso vean siempre el último valor.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-24
+ */
+@Getter
+public class TrabajoReporte {
+
+    private final String id;
+    private final String usuario;
+    private final TipoTrabajoReporte tipo;
+    private final String formato;
+    private final LocalDate fechaInicio;
+    private final LocalDate fechaFin;
+    private final LocalDateTime creadoEn = LocalDateTime.now();
+
+    private volatile EstadoTrabajoReporte estado = EstadoTrabajoReporte.PENDIENTE;
+    private volatile long filasProcesadas;
+    private volatile long totalFilas;
+    private volatile int progreso;
+    private volatile boolean reutilizado;
+    private volatile String error;
+    private volatile LocalDateTime finalizadoEn;
+    private volatile Path archivo;
+    private volatile String clave;
+    private volatile String tipoMime;
+    private volatile String extension;
+
+    public TrabajoReporte(String id, String usuario, TipoTrabajoReporte tipo, String formato,
+                          LocalDate fechaInicio, LocalDate fechaFin) {
+        this.id = id;
+        this.usuario = usuario;
+        this.tipo = tipo;
+        this.formato = formato;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+    }
+
+    void iniciar(long totalFilas) {
+        this.totalFilas = totalFilas;
+        this.estado = EstadoTrabajoReporte.EN_PROCESO;
+    }
+
+    void registrarAvance(long filas) {
+        this.filasProcesadas = filas;
+        if (totalFilas > 0) {
+            // El 100 se reserva para cuando el archivo ya está guardado
+            this.progreso = (int) Math.min(99, filas * 100 / totalFilas);
+        }
+    }
+
+    void completar(Path archivo, String clave, String tipoMime, String extension, boolean reutilizado) {
+        this.archivo = archivo;
+        this.clave = clave;
+        this.tipoMime = tipoMime;
+        this.extension = extension;
+        this.reutilizado = reutilizado;
+        this.filasProcesadas = Math.max(filasProcesadas, totalFilas);
+        this.progreso = 100;
+        this.finalizadoEn = LocalDateTime.now();
+        this.estado = EstadoTrabajoReporte.COMPLETADO;
+    }
+
+    void fallar(String error) {
+        this.error = error;
+        this.finalizadoEn = LocalDateTime.now();
+        this.estado = EstadoTrabajoReporte.FALLIDO;
+    }
+
+    /**
+     * Nombre con el que se descarga el archivo, p. ej. reporte-citas-2025-01-01-2025-01-31.json
+     *
+     * @return Nombre del archivo
+     */
+    public String getNombreArchivo() {
+        StringBuilder nombre = new StringBuilder("reporte-")
+                .append(tipo.name().toLowerCase().replace('_', '-'));
+        if (fechaInicio != null) {
+            nombre.append('-').append(fechaInicio);
+        }
+        if (fechaFin != null) {
+            nombre.append('-').append(fechaFin);
+        }
+        return nombre.append('.').append(extension).toString();
+    }
+}
@@ -64,6 +64,11 @@ public final class Constants {
      */
     public static final int MAX_PAGE_SIZE = 100;
 
+    /**
+     * Filas por lote al leer en streaming (fetch size JDBC y limpieza del contexto de persistencia).
+     */
+    public static final int STREAM_FETCH_SIZE = 500;
+
     /**
      * Campo de ordenamiento por defecto.
      */
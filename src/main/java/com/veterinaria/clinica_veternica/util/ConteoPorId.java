@@ -0,0 +1,33 @@
+package com.veterinaria.clinica_veternica.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Proyección (id, total) para contar en una sola consulta agrupada las filas hijas
+ * de una página o bloque de entidades, en lugar de inicializar cada colección LAZY.
+ *
+ * @param id ID de la entidad padre
+ * @param total Número de filas hijas
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-27
+ */
+public record ConteoPorId(Long id, Long total) {
+
+    /**
+     * Convierte los conteos en un mapa id -> total.
+     *
+     * @param conteos Resultado de la consulta agrupada
+     * @return Mapa de totales por ID (los IDs sin filas no aparecen)
+     */
+    public static Map<Long, Integer> comoMapa(List<ConteoPorId> conteos) {
+        Map<Long, Integer> mapa = new HashMap<>(conteos.size() * 2);
+        for (ConteoPorId conteo : conteos) {
+            mapa.put(conteo.id(), conteo.total().intValue());
+        }
+        return mapa;
+    }
+}
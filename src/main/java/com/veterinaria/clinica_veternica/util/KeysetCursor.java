@@ -0,0 +1,154 @@
+package com.veterinaria.clinica_veternica.util;
+
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
+import com.veterinaria.clinica_veternica.exception.ValidationException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utilidades para paginación keyset (seek).
+ *
+ * En lugar de OFFSET, cada página continúa a partir de la clave de ordenación de la
+ * última fila devuelta (WHERE clave > :ultima ORDER BY clave LIMIT n), de modo que
+ * el coste de cada página no depende de su posición en la tabla.
+ *
+ * El cursor es opaco para el cliente: los valores de la clave separados por '|'
+ * y codificados en Base64 URL-safe.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-20
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARADOR = "|";
+    private static final String CAMPO_CURSOR = "cursor";
+
+    // Constructor privado para evitar instanciación
+    private KeysetCursor() {
+        throw new UnsupportedOperationException("Esta es una clase de utilidad y no puede ser instanciada");
+    }
+
+    /**
+     * Codifica los valores de la clave de ordenación en un cursor.
+     *
+     * @param valores Valores de la clave, en el orden del ORDER BY
+     * @return Cursor opaco
+     */
+    public static String codificar(Object... valores) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARADOR);
+            }
+            sb.append(valores[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor en los valores de su clave.
+     *
+     * @param cursor Cursor recibido del cliente
+     * @param partes Número de valores esperados
+     * @return Valores de la clave como texto
+     * @throws ValidationException si el cursor no es válido
+     */
+    public static String[] decodificar(String cursor, int partes) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] valores = texto.split("\\" + SEPARADOR, -1);
+            if (valores.length != partes) {
+                throw new IllegalArgumentException("Número de valores inesperado: " + valores.length);
+            }
+            return valores;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Cursor de paginación no válido", CAMPO_CURSOR, e.getMessage());
+        }
+    }
+
+    /**
+     * Decodifica un cursor formado solo por la clave primaria.
+     *
+     * @param cursor Cursor recibido del cliente
+     * @return Última clave primaria devuelta
+     */
+    public static Long decodificarId(String cursor) {
+        return convertir(decodificar(cursor, 1)[0], Long::valueOf);
+    }
+
+    /**
+     * Convierte un valor del cursor a su tipo.
+     *
+     * @param valor Valor como texto
+     * @param parser Conversión (Long::valueOf, LocalDate::parse...)
+     * @return Valor convertido
+     * @throws ValidationException si el valor no es válido
+     */
+    public static <T> T convertir(String valor, Function<String, T> parser) {
+        try {
+            return parser.apply(valor);
+        } catch (RuntimeException e) {
+            throw new ValidationException("Cursor de paginación no válido", CAMPO_CURSOR, e.getMessage());
+        }
+    }
+
+    /**
+     * @param cursor Cursor recibido del cliente
+     * @return true si se pide la primera página
+     */
+    public static boolean esPrimeraPagina(String cursor) {
+        return cursor == null || cursor.isBlank();
+    }
+
+    /**
+     * Normaliza el tamaño de página solicitado a [1, MAX_PAGE_SIZE].
+     *
+     * @param limite Tamaño solicitado (puede ser null)
+     * @return Tamaño efectivo
+     */
+    public static int normalizarLimite(Integer limite) {
+        if (limite == null || limite < 1) {
+            return Constants.DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limite, Constants.MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Límite para la consulta: una fila más que el tamaño de página,
+     * para saber si hay página siguiente sin ejecutar un COUNT.
+     *
+     * @param limite Tamaño de página efectivo
+     * @return Limit de Spring Data
+     */
+    public static Limit limiteConsulta(int limite) {
+        return Limit.of(limite + 1);
+    }
+
+    /**
+     * Construye la página a partir de las filas leídas con {@link #limiteConsulta(int)}.
+     *
+     * @param filas Filas leídas (hasta limite + 1)
+     * @param limite Tamaño de página efectivo
+     * @param mapper Conversión de entidad a DTO
+     * @param cursorDe Cursor de una fila (a partir de su clave de ordenación)
+     * @return Página keyset
+     */
+    public static <E, D> PaginaKeysetDTO<D> pagina(List<E> filas, int limite,
+                                                   Function<E, D> mapper, Function<E, String> cursorDe) {
+        boolean hayMas = filas.size() > limite;
+        List<E> visibles = hayMas ? filas.subList(0, limite) : filas;
+        List<D> contenido = visibles.stream().map(mapper).toList();
+        return PaginaKeysetDTO.<D>builder()
+                .contenido(contenido)
+                .tamanio(contenido.size())
+                .hayMas(hayMas)
+                .siguienteCursor(hayMas ? cursorDe.apply(visibles.get(visibles.size() - 1)) : null)
+                .build();
+    }
+}
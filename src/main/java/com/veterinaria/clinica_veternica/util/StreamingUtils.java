@@ -0,0 +1,126 @@
+package com.veterinaria.clinica_veternica.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Utilidades para respuestas en streaming (NDJSON).
+ *
+ * Las filas se leen de un Stream JPA con fetch size y se escriben directamente en la
+ * salida del servlet, una línea JSON por elemento, sin construir la lista completa.
+ *
+ * @author Clínica Veterinaria Team
+ * @version 1.0
+ * @since 2025-11-20
+ */
+public final class StreamingUtils {
+
+    /**
+     * Fetch size como texto, para usarlo en @QueryHint.
+     */
+    public static final String FETCH_SIZE_HINT = "" + Constants.STREAM_FETCH_SIZE;
+
+    // Constructor privado para evitar instanciación
+    private StreamingUtils() {
+        throw new UnsupportedOperationException("Esta es una clase de utilidad y no puede ser instanciada");
+    }
+
+    /**
+     * Crea una respuesta NDJSON (application/x-ndjson).
+     *
+     * @param objectMapper ObjectMapper de la aplicación
+     * @param productor Recibe el consumidor al que debe entregar cada elemento
+     * @param <T> Tipo de los elementos
+     * @return ResponseEntity con el cuerpo en streaming
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> ndjson(ObjectMapper objectMapper,
+                                                                  Consumer<Consumer<T>> productor) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody cuerpo = salida -> {
+            JsonGenerator generador = objectMapper.getFactory().createGenerator(salida);
+            long[] escritos = {0};
+            productor.accept(elemento -> {
+                try {
+                    writer.writeValue(generador, elemento);
+                    generador.writeRaw('\n');
+                    if (++escritos[0] % Constants.STREAM_FETCH_SIZE == 0) {
+                        generador.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generador.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(cuerpo);
+    }
+
+    /**
+     * Recorre un Stream de entidades limpiando el contexto de persistencia cada
+     * STREAM_FETCH_SIZE filas, para que la memoria no crezca con el tamaño de la tabla.
+     * El llamador es responsable de cerrar el Stream.
+     *
+     * @param filas Stream de entidades (dentro de una transacción)
+     * @param entityManager EntityManager de la transacción
+     * @param accion Acción por fila; no debe retener las entidades
+     * @param <E> Tipo de entidad
+     * @return Número de filas recorridas
+     */
+    public static <E> long recorrerPorLotes(Stream<E> filas, EntityManager entityManager, Consumer<E> accion) {
+        long total = 0;
+        Iterator<E> iterador = filas.iterator();
+        while (iterador.hasNext()) {
+            accion.accept(iterador.next());
+            if (++total % Constants.STREAM_FETCH_SIZE == 0) {
+                entityManager.clear();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Igual que recorrerPorLotes, pero entrega a la acción cada bloque de STREAM_FETCH_SIZE filas
+     * antes de limpiar el contexto de persistencia, para que pueda cargar en una sola consulta
+     * los datos relacionados del bloque.
+     *
+     * @param filas Stream de entidades (dentro de una transacción)
+     * @param entityManager EntityManager de la transacción
+     * @param accion Acción por bloque; no debe retener las entidades
+     * @param <E> Tipo de entidad
+     * @return Número de filas recorridas
+     */
+    public static <E> long recorrerPorBloques(Stream<E> filas, EntityManager entityManager, Consumer<List<E>> accion) {
+        long total = 0;
+        List<E> bloque = new ArrayList<>(Constants.STREAM_FETCH_SIZE);
+        Iterator<E> iterador = filas.iterator();
+        while (iterador.hasNext()) {
+            bloque.add(iterador.next());
+            total++;
+            if (bloque.size() == Constants.STREAM_FETCH_SIZE) {
+                accion.accept(bloque);
+                bloque = new ArrayList<>(Constants.STREAM_FETCH_SIZE);
+                entityManager.clear();
+            }
+        }
+        if (!bloque.isEmpty()) {
+            accion.accept(bloque);
+        }
+        return total;
+    }
+}
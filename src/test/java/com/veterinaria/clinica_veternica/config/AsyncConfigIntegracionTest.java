@@ -0,0 +1,67 @@
+package com.veterinaria.clinica_veternica.config;
+
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.patterns.behavioral.observer.RecordatorioObserver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para la ejecución de métodos @Async en los pools configurados
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000",
+    "app.async.habilitado=true"
+})
+class AsyncConfigIntegracionTest {
+
+    @Autowired
+    private RecordatorioObserver recordatorioObserver;
+
+    @Autowired
+    @Qualifier(AsyncConfig.EJECUTOR_RECORDATORIOS)
+    private EjecutorMonitorizado ejecutorRecordatorios;
+
+    @Autowired
+    @Qualifier(AsyncConfig.EJECUTOR_NOTIFICACIONES)
+    private EjecutorMonitorizado ejecutorNotificaciones;
+
+    @Test
+    @DisplayName("Debe ejecutar los métodos @Async en el pool indicado")
+    void debeEjecutarEnPoolDeRecordatorios() throws InterruptedException {
+        long antes = (long) ejecutorRecordatorios.getEstadisticas().get("completadas");
+        long notificacionesAntes = (long) ejecutorNotificaciones.getEstadisticas().get("enviadas");
+        Cita pasada = Cita.builder()
+                .idCita(Long.MAX_VALUE)
+                .fechaCita(LocalDate.now().minusDays(1))
+                .horaCita(LocalTime.NOON)
+                .build();
+
+        recordatorioObserver.programarRecordatorios(pasada);
+
+        long limite = System.currentTimeMillis() + 5000;
+        Map<String, Object> estadisticas = ejecutorRecordatorios.getEstadisticas();
+        while ((long) estadisticas.get("completadas") == antes && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            estadisticas = ejecutorRecordatorios.getEstadisticas();
+        }
+        assertEquals(antes + 1, estadisticas.get("completadas"));
+        assertEquals(notificacionesAntes, ejecutorNotificaciones.getEstadisticas().get("enviadas"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.veterinaria.clinica_veternica.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para CacheConfig (Caffeine)
+ */
+class CacheConfigTest {
+
+    private CacheConfig cacheConfig;
+    private CacheTierProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        cacheConfig = new CacheConfig();
+        properties = new CacheTierProperties();
+    }
+
+    @Test
+    @DisplayName("Debe registrar todos los cachés con Caffeine")
+    void debeRegistrarTodosLosCaches() {
+        CacheManager cacheManager = cacheConfig.cacheManager(properties, "caffeine");
+
+        assertTrue(cacheManager.getCacheNames().containsAll(CacheConfig.CACHE_NAMES));
+        assertInstanceOf(CaffeineCache.class, cacheManager.getCache(CacheConfig.CACHE_MASCOTAS));
+    }
+
+    @Test
+    @DisplayName("No debe crear cachés dinámicos no declarados")
+    void noDebeCrearCachesDinamicos() {
+        CacheManager cacheManager = cacheConfig.cacheManager(properties, "caffeine");
+
+        assertNull(cacheManager.getCache("desconocido"));
+    }
+
+    @Test
+    @DisplayName("Debe usar NoOpCacheManager con spring.cache.type=none")
+    void debeDeshabilitarCacheConTipoNone() {
+        CacheManager cacheManager = cacheConfig.cacheManager(properties, "none");
+
+        assertInstanceOf(NoOpCacheManager.class, cacheManager);
+    }
+
+    @Test
+    @DisplayName("Debe respetar el tamaño máximo configurado por caché")
+    void debeRespetarTamanoMaximo() {
+        CacheTierProperties.Spec spec = new CacheTierProperties.Spec();
+        spec.setMaximumSize(10L);
+        properties.getSpecs().put(CacheConfig.CACHE_ESPECIES, spec);
+
+        CacheManager cacheManager = cacheConfig.cacheManager(properties, "caffeine");
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfig.CACHE_ESPECIES);
+        assertNotNull(cache);
+
+        for (long i = 0; i < 100; i++) {
+            cache.put(i, "especie-" + i);
+        }
+        cache.getNativeCache().cleanUp();
+
+        assertTrue(cache.getNativeCache().estimatedSize() <= 10);
+    }
+
+    @Test
+    @DisplayName("Debe heredar valores por defecto no definidos en el caché")
+    void debeHeredarValoresPorDefecto() {
+        Map<String, String> configuracion = Map.of(
+                "app.cache.defaults.expire-after-write", "3m",
+                "app.cache.defaults.record-stats", "false",
+                "app.cache.specs.razas.maximum-size", "50");
+        properties = new Binder(new MapConfigurationPropertySource(configuracion))
+                .bind("app.cache", CacheTierProperties.class)
+                .get();
+
+        CacheTierProperties.Spec efectivo = properties.resolve(CacheConfig.CACHE_RAZAS);
+
+        assertEquals(50L, efectivo.getMaximumSize());
+        assertEquals(Duration.ofMinutes(3), efectivo.getExpireAfterWrite());
+        assertEquals(Boolean.FALSE, efectivo.getRecordStats());
+        assertEquals(1000L, properties.resolve(CacheConfig.CACHE_ESPECIES).getMaximumSize());
+    }
+
+    @Test
+    @DisplayName("Debe registrar aciertos y fallos en las estadísticas")
+    void debeRegistrarEstadisticas() {
+        CacheManager cacheManager = cacheConfig.cacheManager(properties, "caffeine");
+        Cache cache = cacheManager.getCache(CacheConfig.CACHE_SERVICIOS);
+        assertNotNull(cache);
+
+        cache.get(1L);
+        cache.put(1L, "Consulta");
+        cache.get(1L);
+
+        Map<String, Map<String, Object>> estadisticas = CacheConfig.obtenerEstadisticas(cacheManager);
+        Map<String, Object> servicios = estadisticas.get(CacheConfig.CACHE_SERVICIOS);
+
+        assertEquals(1L, servicios.get("aciertos"));
+        assertEquals(1L, servicios.get("fallos"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.veterinaria.clinica_veternica.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para los executors acotados de tareas en segundo plano
+ */
+class EjecutorMonitorizadoTest {
+
+    private EjecutorMonitorizado ejecutor;
+
+    @AfterEach
+    void tearDown() {
+        if (ejecutor != null) {
+            ejecutor.shutdown();
+        }
+        MDC.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debe propagar el MDC y el usuario autenticado al hilo del pool")
+    void debePropagarContexto() throws Exception {
+        ejecutor = crear(AsyncProperties.PoliticaRechazo.ABORTAR, 10);
+        MDC.put("peticion", "abc-123");
+        Authentication usuario = new UsernamePasswordAuthenticationToken("admin", null);
+        SecurityContextHolder.getContext().setAuthentication(usuario);
+
+        Future<String[]> resultado = ejecutor.submit(() -> new String[]{
+                Thread.currentThread().getName(),
+                MDC.get("peticion"),
+                SecurityContextHolder.getContext().getAuthentication().getName()});
+
+        String[] valores = resultado.get(5, TimeUnit.SECONDS);
+        assertTrue(valores[0].startsWith("prueba-"));
+        assertEquals("abc-123", valores[1]);
+        assertEquals("admin", valores[2]);
+
+        // El hilo reutilizado no conserva el contexto de la tarea anterior
+        MDC.clear();
+        SecurityContextHolder.clearContext();
+        Future<Object[]> siguiente = ejecutor.submit(() -> new Object[]{
+                MDC.get("peticion"), SecurityContextHolder.getContext().getAuthentication()});
+        assertArrayEquals(new Object[]{null, null}, siguiente.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar tareas con el pool saturado y política ABORTAR")
+    void debeAbortarConPoolSaturado() throws Exception {
+        ejecutor = crear(AsyncProperties.PoliticaRechazo.ABORTAR, 1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        ejecutor.execute(() -> {
+            ocupado.countDown();
+            esperar(liberar);
+        });
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+        ejecutor.execute(() -> { });
+
+        assertThrows(TaskRejectedException.class, () -> ejecutor.execute(() -> { }));
+
+        Map<String, Object> estadisticas = ejecutor.getEstadisticas();
+        assertEquals(1L, estadisticas.get("rechazadas"));
+        assertEquals(1, estadisticas.get("enCola"));
+        assertEquals(1, estadisticas.get("activas"));
+        liberar.countDown();
+    }
+
+    @Test
+    @DisplayName("Debe ejecutar en el hilo que envía la tarea con política EJECUTAR_EN_LLAMADOR")
+    void debeEjecutarEnLlamadorConPoolSaturado() throws Exception {
+        ejecutor = crear(AsyncProperties.PoliticaRechazo.EJECUTAR_EN_LLAMADOR, 0);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        ejecutor.execute(() -> {
+            ocupado.countDown();
+            esperar(liberar);
+        });
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+
+        String[] hilo = new String[1];
+        ejecutor.execute(() -> hilo[0] = Thread.currentThread().getName());
+
+        assertEquals(Thread.currentThread().getName(), hilo[0]);
+        assertEquals(1L, ejecutor.getEstadisticas().get("rechazadas"));
+        liberar.countDown();
+    }
+
+    @Test
+    @DisplayName("Debe contar las tareas completadas y fallidas")
+    void debeContarTareas() throws Exception {
+        ejecutor = crear(AsyncProperties.PoliticaRechazo.ABORTAR, 10);
+
+        ejecutor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        Future<?> fallida = ejecutor.submit(() -> {
+            throw new IllegalStateException("fallo");
+        });
+        assertThrows(Exception.class, () -> fallida.get(5, TimeUnit.SECONDS));
+        ejecutor.execute(() -> {
+            throw new IllegalStateException("fallo sin futuro");
+        });
+        ejecutor.shutdown();
+        ejecutor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS);
+
+        Map<String, Object> estadisticas = ejecutor.getEstadisticas();
+        assertEquals(3L, estadisticas.get("enviadas"));
+        // submit() guarda la excepción en el Future: la tarea del pool termina bien
+        assertEquals(2L, estadisticas.get("completadas"));
+        assertEquals(1L, estadisticas.get("fallidas"));
+    }
+
+    private EjecutorMonitorizado crear(AsyncProperties.PoliticaRechazo politica, int capacidadCola) {
+        EjecutorMonitorizado nuevo = new EjecutorMonitorizado("prueba",
+                new AsyncProperties.Pool(1, 1, capacidadCola, false, politica),
+                new PropagacionContextoDecorator());
+        nuevo.initialize();
+        return nuevo;
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
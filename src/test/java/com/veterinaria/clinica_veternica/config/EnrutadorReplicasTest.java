@@ -0,0 +1,179 @@
+package com.veterinaria.clinica_veternica.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del enrutamiento de transacciones de solo lectura a réplicas, con dos bases H2
+ * en memoria como principal y réplica
+ */
+class EnrutadorReplicasTest {
+
+    private JdbcTemplate principal;
+    private JdbcTemplate replica;
+    private EnrutadorReplicas enrutador;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate lectura;
+    private TransactionTemplate escritura;
+
+    @BeforeEach
+    void setUp() {
+        DataSource basePrincipal = baseH2("principal");
+        DataSource baseReplica = baseH2("replica");
+        principal = new JdbcTemplate(basePrincipal);
+        replica = new JdbcTemplate(baseReplica);
+        principal.execute("CREATE TABLE origen (nombre VARCHAR(20))");
+        principal.update("INSERT INTO origen VALUES ('PRINCIPAL')");
+        replica.execute("CREATE TABLE origen (nombre VARCHAR(20))");
+        replica.update("INSERT INTO origen VALUES ('REPLICA')");
+        replica.execute("CREATE TABLE retraso_replica (segundos DOUBLE)");
+        replica.update("INSERT INTO retraso_replica VALUES (0)");
+
+        ReplicasProperties properties = new ReplicasProperties();
+        properties.setRetrasoMaximo(Duration.ofSeconds(5));
+        properties.setVentanaLecturaPropia(Duration.ofMinutes(1));
+        properties.setConsultaRetraso("SELECT segundos FROM retraso_replica");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", baseReplica);
+        enrutador = new EnrutadorReplicas(replicas, properties);
+
+        DataSource enrutado = enrutador.enrutar(basePrincipal);
+        jdbcTemplate = new JdbcTemplate(enrutado);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(enrutado);
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        escritura = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        principal.execute("SHUTDOWN");
+        replica.execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("Debe enviar las transacciones de solo lectura a la réplica y el resto a la principal")
+    void debeEnrutarSegunSoloLectura() {
+        assertEquals("REPLICA", lectura.execute(estado -> origen()));
+        assertEquals("PRINCIPAL", escritura.execute(estado -> origen()));
+        assertEquals("PRINCIPAL", origen());
+        assertEquals(1L, enrutador.getEstadisticas().get("lecturasReplica"));
+    }
+
+    @Test
+    @DisplayName("Debe volver a la principal mientras la réplica supera el retraso máximo")
+    void debeUsarPrincipalConRetrasoExcesivo() {
+        replica.update("UPDATE retraso_replica SET segundos = 30");
+
+        assertEquals(0, enrutador.verificar());
+        assertEquals("PRINCIPAL", lectura.execute(estado -> origen()));
+
+        replica.update("UPDATE retraso_replica SET segundos = 1.5");
+
+        assertEquals(1, enrutador.verificar());
+        assertEquals("REPLICA", lectura.execute(estado -> origen()));
+        assertEquals(1L, enrutador.getEstadisticas().get("lecturasPrincipalSinReplica"));
+    }
+
+    @Test
+    @DisplayName("Debe volver a la principal si la comprobación de la réplica falla")
+    void debeUsarPrincipalSiLaReplicaFalla() {
+        replica.execute("DROP TABLE retraso_replica");
+
+        assertEquals(0, enrutador.verificar());
+
+        assertEquals("PRINCIPAL", lectura.execute(estado -> origen()));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> estado = ((List<Map<String, Object>>) enrutador.getEstadisticas().get("replicas")).get(0);
+        assertEquals(false, estado.get("disponible"));
+        assertTrue(estado.get("motivo").toString().startsWith("error al verificar"));
+    }
+
+    @Test
+    @DisplayName("Debe leer de la principal tras una escritura confirmada del mismo usuario")
+    void debeLeerEscriturasPropiasDeLaPrincipal() {
+        autenticar("ana");
+        escritura.executeWithoutResult(estado -> {
+            jdbcTemplate.update("INSERT INTO origen VALUES ('ZZ-NUEVA')");
+            estado.setRollbackOnly();
+        });
+        assertEquals("REPLICA", lectura.execute(e -> origen()));
+
+        escritura.executeWithoutResult(estado -> jdbcTemplate.update("INSERT INTO origen VALUES ('ZZ-NUEVA')"));
+
+        assertEquals("PRINCIPAL", lectura.execute(e -> origen()));
+        autenticar("luis");
+        assertEquals("REPLICA", lectura.execute(e -> origen()));
+        assertEquals(1L, enrutador.getEstadisticas().get("escriturasRegistradas"));
+        assertEquals(1L, enrutador.getEstadisticas().get("lecturasPrincipalLecturaPropia"));
+    }
+
+    @Test
+    @DisplayName("Debe leer de la principal en los métodos que llenan la caché")
+    void debeLlenarLaCacheDesdeLaPrincipal() {
+        ProxyFactory fabrica = new ProxyFactory(new ConsultaCacheada(lectura, this::origen));
+        fabrica.addAdvisor(ReplicasConfig.lecturaPrincipalAlCachearAdvisor());
+        ConsultaCacheada consulta = (ConsultaCacheada) fabrica.getProxy();
+
+        assertEquals("PRINCIPAL", consulta.cacheada());
+        assertEquals("REPLICA", consulta.sinCache());
+        assertEquals("PRINCIPAL", EnrutadorReplicas.enPrincipal(() -> lectura.execute(e -> origen())));
+        assertEquals("REPLICA", lectura.execute(e -> origen()));
+        assertEquals(2L, enrutador.getEstadisticas().get("lecturasPrincipalCache"));
+    }
+
+    private String origen() {
+        return jdbcTemplate.queryForObject("SELECT MIN(nombre) FROM origen", String.class);
+    }
+
+    private static void autenticar(String usuario) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, List.of()));
+    }
+
+    private static DataSource baseH2(String nombre) {
+        return new DriverManagerDataSource(
+                "jdbc:h2:mem:" + nombre + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    static class ConsultaCacheada {
+
+        private final TransactionTemplate lectura;
+        private final Supplier<String> consulta;
+
+        ConsultaCacheada(TransactionTemplate lectura, Supplier<String> consulta) {
+            this.lectura = lectura;
+            this.consulta = consulta;
+        }
+
+        @Cacheable("origen")
+        public String cacheada() {
+            return lectura.execute(e -> consulta.get());
+        }
+
+        public String sinCache() {
+            return lectura.execute(e -> consulta.get());
+        }
+    }
+}
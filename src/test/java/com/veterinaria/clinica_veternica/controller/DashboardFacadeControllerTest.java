@@ -1,5 +1,6 @@
 package com.veterinaria.clinica_veternica.controller;
 
+import com.veterinaria.clinica_veternica.dto.response.facade.ActividadDashboardDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.DashboardResponseDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.EstadisticasGeneralesDTO;
 import com.veterinaria.clinica_veternica.patterns.structural.facade.DashboardFacadeService;
@@ -18,6 +19,8 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.context.TestPropertySource;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Collections;
 
 import static org.mockito.Mockito.verify;
@@ -108,5 +111,28 @@ class DashboardFacadeControllerTest {
 
         verify(dashboardFacadeService).obtenerEstadisticasGenerales();
     }
-}
 
+    @Test
+    @DisplayName("GET - Debe obtener la actividad diaria de un rango")
+    @WithMockUser(roles = {"ADMIN"})
+    void debeObtenerActividad() throws Exception {
+        LocalDate inicio = LocalDate.of(2025, 1, 1);
+        LocalDate fin = LocalDate.of(2025, 1, 31);
+        when(dashboardFacadeService.obtenerActividad(inicio, fin)).thenReturn(ActividadDashboardDTO.builder()
+                .fechaInicio(inicio)
+                .fechaFin(fin)
+                .dias(Collections.emptyList())
+                .totalCitas(12L)
+                .totalIngresos(BigDecimal.TEN)
+                .build());
+
+        mockMvc.perform(get("/api/facade/dashboard/actividad")
+                        .param("fechaInicio", "2025-01-01")
+                        .param("fechaFin", "2025-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dias").isArray())
+                .andExpect(jsonPath("$.totalCitas").value(12));
+
+        verify(dashboardFacadeService).obtenerActividad(inicio, fin);
+    }
+}
@@ -1,6 +1,8 @@
 package com.veterinaria.clinica_veternica.controller;
 
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.inventario.InventarioResponseDTO;
+import com.veterinaria.clinica_veternica.dto.response.inventario.MovimientoStockResponseDTO;
 import com.veterinaria.clinica_veternica.security.jwt.JwtAuthenticationFilter;
 import com.veterinaria.clinica_veternica.security.jwt.JwtProperties;
 import com.veterinaria.clinica_veternica.security.jwt.JwtUtils;
@@ -14,6 +16,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.context.TestPropertySource;
 
@@ -21,6 +24,8 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -69,6 +74,25 @@ class InventarioControllerTest {
         inventarioResponseDTO.setValorTotal(new BigDecimal("500.00"));
     }
 
+    @Test
+    @DisplayName("READ - Debe listar una página keyset del inventario")
+    @WithMockUser
+    void debeListarPaginaDeInventario() throws Exception {
+        PaginaKeysetDTO<InventarioResponseDTO> pagina = PaginaKeysetDTO.<InventarioResponseDTO>builder()
+                .contenido(List.of(inventarioResponseDTO))
+                .tamanio(1)
+                .hayMas(false)
+                .build();
+        when(inventarioService.listarPagina("MQ", 20)).thenReturn(pagina);
+
+        mockMvc.perform(get("/api/inventario/pagina").param("cursor", "MQ").param("limite", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].idInventario").value(1))
+                .andExpect(jsonPath("$.hayMas").value(false));
+
+        verify(inventarioService).listarPagina("MQ", 20);
+    }
+
     @Test
     @DisplayName("READ - Debe buscar inventario por ID")
     @WithMockUser
@@ -125,5 +149,33 @@ class InventarioControllerTest {
         verify(inventarioService).listarConStockBajo();
     }
 
-}
+    @Test
+    @WithMockUser(roles = "AUXILIAR")
+    @DisplayName("POST /api/inventario/movimientos - Debe aplicar un lote de movimientos")
+    void debeAplicarLoteDeMovimientos() throws Exception {
+        when(inventarioService.aplicarMovimientos(anyList())).thenReturn(List.of(
+                MovimientoStockResponseDTO.builder().idMovimiento(1L).idInsumo(1L).stockResultante(48).build()));
+
+        mockMvc.perform(post("/api/inventario/movimientos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"movimientos\":[{\"idInsumo\":1,\"tipo\":\"SALIDA\",\"cantidad\":2}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].stockResultante").value(48));
+    }
 
+    @Test
+    @WithMockUser(roles = "AUXILIAR")
+    @DisplayName("POST /api/inventario/movimientos - Debe rechazar un lote vacío o incompleto")
+    void debeRechazarLoteInvalido() throws Exception {
+        mockMvc.perform(post("/api/inventario/movimientos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"movimientos\":[]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/inventario/movimientos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"movimientos\":[{\"idInsumo\":1,\"cantidad\":2}]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(inventarioService, never()).aplicarMovimientos(anyList());
+    }
+}
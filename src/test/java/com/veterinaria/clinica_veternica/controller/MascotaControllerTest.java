@@ -2,6 +2,7 @@ package com.veterinaria.clinica_veternica.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.veterinaria.clinica_veternica.dto.request.paciente.MascotaRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
 import com.veterinaria.clinica_veternica.dto.response.paciente.MascotaResponseDTO;
 import com.veterinaria.clinica_veternica.security.jwt.JwtAuthenticationFilter;
 import com.veterinaria.clinica_veternica.security.jwt.JwtProperties;
@@ -18,13 +19,17 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -136,6 +141,56 @@ class MascotaControllerTest {
         verify(mascotaService).listarTodas();
     }
 
+    @Test
+    @DisplayName("READ - Debe listar una página keyset de mascotas")
+    @WithMockUser
+    void debeListarPaginaDeMascotas() throws Exception {
+        PaginaKeysetDTO<MascotaResponseDTO> pagina = PaginaKeysetDTO.<MascotaResponseDTO>builder()
+                .contenido(List.of(mascotaResponseDTO))
+                .tamanio(1)
+                .hayMas(true)
+                .siguienteCursor("MQ")
+                .build();
+        when(mascotaService.listarPagina(null, 1, false)).thenReturn(pagina);
+
+        mockMvc.perform(get("/api/mascotas/pagina").param("limite", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].idMascota").value(1))
+                .andExpect(jsonPath("$.hayMas").value(true))
+                .andExpect(jsonPath("$.siguienteCursor").value("MQ"));
+
+        verify(mascotaService).listarPagina(null, 1, false);
+    }
+
+    @Test
+    @DisplayName("READ - Debe exportar mascotas en NDJSON")
+    @WithMockUser
+    void debeExportarMascotasEnNdjson() throws Exception {
+        MascotaResponseDTO otra = new MascotaResponseDTO();
+        otra.setIdMascota(2L);
+        otra.setNombre("Luna");
+        doAnswer(inv -> {
+            Consumer<MascotaResponseDTO> consumidor = inv.getArgument(1);
+            consumidor.accept(mascotaResponseDTO);
+            consumidor.accept(otra);
+            return null;
+        }).when(mascotaService).recorrerTodas(eq(true), any());
+
+        MvcResult resultado = mockMvc.perform(get("/api/mascotas/stream").param("soloActivas", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String cuerpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lineas = cuerpo.split("\n");
+        assertEquals(2, lineas.length);
+        assertEquals(1L, objectMapper.readValue(lineas[0], MascotaResponseDTO.class).getIdMascota());
+        assertEquals("Luna", objectMapper.readValue(lineas[1], MascotaResponseDTO.class).getNombre());
+    }
+
     @Test
     @DisplayName("UPDATE - Debe actualizar una mascota")
     @WithMockUser
@@ -9,10 +9,12 @@ import com.veterinaria.clinica_veternica.domain.agenda.Servicio;
 import com.veterinaria.clinica_veternica.exception.ValidationException;
 import com.veterinaria.clinica_veternica.repository.CitaRepository;
 import com.veterinaria.clinica_veternica.repository.HorarioRepository;
+import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -24,7 +26,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ValidacionDisponibilidadHandlerTest {
@@ -44,12 +46,16 @@ class ValidacionDisponibilidadHandlerTest {
     @Mock
     private CitaRepository citaRepository;
 
+    @Mock
+    private VeterinarioRepository veterinarioRepository;
+
     private ValidacionDisponibilidadHandler handler;
     private Cita citaValida;
 
     @BeforeEach
     void setUp() {
-        handler = new ValidacionDisponibilidadHandler(horarioRepository, citaRepository);
+        handler = new ValidacionDisponibilidadHandler(
+                horarioRepository, citaRepository, veterinarioRepository);
 
         citaValida = Cita.builder()
                 .idCita(1L)
@@ -139,5 +145,32 @@ class ValidacionDisponibilidadHandlerTest {
         boolean resultado = handler.validar(citaEmergencia);
         assertTrue(resultado);
     }
-}
 
+    @Test
+    @DisplayName("Chain - Debe bloquear la agenda del veterinario antes de consultar los solapes")
+    void debeBloquearAntesDeConsultarSolapes() {
+        Cita existente = Cita.builder().idCita(7L).mascota(mascota).horaCita(LocalTime.of(10, 0)).build();
+        when(horarioRepository.findByVeterinario(any())).thenReturn(List.of(horarioDelDia()));
+        when(citaRepository.findCitasSolapadas(any(), any(), any(), any(), any())).thenReturn(List.of(existente));
+
+        assertThrows(ValidationException.class, () -> handler.validar(citaValida));
+
+        InOrder orden = inOrder(veterinarioRepository, citaRepository);
+        orden.verify(veterinarioRepository).bloquearParaReserva(any());
+        orden.verify(citaRepository).findCitasSolapadas(veterinario, citaValida.getFechaCita(),
+                LocalTime.of(10, 0), LocalTime.of(10, 30), 1L);
+    }
+
+    private Horario horarioDelDia() {
+        return Horario.builder()
+                .idHorario(1L)
+                .veterinario(veterinario)
+                .diaSemana(citaValida.getFechaCita().getDayOfWeek())
+                .horaInicio(LocalTime.of(8, 0))
+                .horaFin(LocalTime.of(18, 0))
+                .duracionCitaMinutos(30)
+                .maxCitasSimultaneas(1)
+                .activo(true)
+                .build();
+    }
+}
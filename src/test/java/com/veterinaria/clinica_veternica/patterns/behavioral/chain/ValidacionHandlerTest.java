@@ -8,6 +8,7 @@ import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
 import com.veterinaria.clinica_veternica.domain.agenda.Servicio;
 import com.veterinaria.clinica_veternica.repository.CitaRepository;
 import com.veterinaria.clinica_veternica.repository.HorarioRepository;
+import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -46,6 +47,9 @@ class ValidacionHandlerTest {
     @Mock
     private CitaRepository citaRepository;
 
+    @Mock
+    private VeterinarioRepository veterinarioRepository;
+
     private Cita citaValida;
     private ValidacionDatosHandler validacionDatosHandler;
 
@@ -157,7 +161,8 @@ class ValidacionHandlerTest {
     @Test
     @DisplayName("Chain - Debe encadenar múltiples handlers")
     void debeEncadenarMultiplesHandlers() {
-        ValidacionDisponibilidadHandler disponibilidadHandler = new ValidacionDisponibilidadHandler(horarioRepository, citaRepository);
+        ValidacionDisponibilidadHandler disponibilidadHandler = new ValidacionDisponibilidadHandler(
+                horarioRepository, citaRepository, veterinarioRepository);
         
         // Configurar cadena
         validacionDatosHandler.setSiguiente(disponibilidadHandler);
@@ -193,7 +198,8 @@ class ValidacionHandlerTest {
         citaInvalida.setMascota(null); // Esto hará fallar ValidacionDatosHandler
 
         // Configurar cadena con múltiples handlers
-        ValidacionDisponibilidadHandler disponibilidadHandler = new ValidacionDisponibilidadHandler(horarioRepository, citaRepository);
+        ValidacionDisponibilidadHandler disponibilidadHandler = new ValidacionDisponibilidadHandler(
+                horarioRepository, citaRepository, veterinarioRepository);
         validacionDatosHandler.setSiguiente(disponibilidadHandler);
 
         // Aunque haya más handlers en la cadena, debe detenerse en el primero que falla
@@ -0,0 +1,163 @@
+package com.veterinaria.clinica_veternica.patterns.behavioral.memento;
+
+import com.veterinaria.clinica_veternica.config.TestMailConfig;
+import com.veterinaria.clinica_veternica.config.VersionesHistoriaProperties;
+import com.veterinaria.clinica_veternica.domain.clinico.HistoriaClinica;
+import com.veterinaria.clinica_veternica.domain.clinico.VersionHistoriaClinica;
+import com.veterinaria.clinica_veternica.repository.VersionHistoriaClinicaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para el historial de versiones de historias clínicas (Caretaker)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000"
+})
+class HistoriaClinicaCaretakerIntegracionTest {
+
+    @Autowired
+    private HistoriaClinicaCaretaker caretaker;
+
+    @Autowired
+    private VersionHistoriaClinicaRepository versionRepository;
+
+    @Autowired
+    private VersionesHistoriaProperties properties;
+
+    private HistoriaClinica historiaClinica;
+
+    @BeforeEach
+    void setUp() {
+        historiaClinica = HistoriaClinica.builder()
+                .idHistoriaClinica(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE)
+                .numeroHistoria("HC-001")
+                .antecedentesMedicos("Ninguno")
+                .antecedentesQuirurgicos("Ninguno")
+                .alergias("Ninguna")
+                .enfermedadesCronicas("Ninguna")
+                .medicamentosActuales("Ninguno")
+                .observacionesGenerales("Mascota saludable")
+                .fechaCreacion(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Caretaker - Debe guardar memento")
+    void caretakerDebeGuardarMemento() {
+        int cantidadInicial = caretaker.obtenerCantidadMementos(historiaClinica.getIdHistoriaClinica());
+
+        caretaker.guardarMemento(historiaClinica);
+
+        int cantidadFinal = caretaker.obtenerCantidadMementos(historiaClinica.getIdHistoriaClinica());
+        assertEquals(cantidadInicial + 1, cantidadFinal);
+    }
+
+    @Test
+    @DisplayName("Caretaker - Debe restaurar último memento")
+    void caretakerDebeRestaurarUltimoMemento() {
+        caretaker.guardarMemento(historiaClinica);
+        historiaClinica.setAntecedentesMedicos("Modificado");
+
+        boolean restaurado = caretaker.restaurarUltimoMemento(historiaClinica);
+
+        assertTrue(restaurado);
+        assertEquals("Ninguno", historiaClinica.getAntecedentesMedicos());
+    }
+
+    @Test
+    @DisplayName("Caretaker - Debe restaurar memento específico por índice")
+    void caretakerDebeRestaurarMementoEspecifico() {
+        caretaker.guardarMemento(historiaClinica);
+        historiaClinica.setAntecedentesMedicos("Estado 1");
+        caretaker.guardarMemento(historiaClinica);
+        historiaClinica.setAntecedentesMedicos("Estado 2");
+        caretaker.guardarMemento(historiaClinica);
+
+        boolean restaurado = caretaker.restaurarMemento(historiaClinica, 0);
+
+        assertTrue(restaurado);
+        assertEquals("Ninguno", historiaClinica.getAntecedentesMedicos());
+        assertFalse(caretaker.restaurarMemento(historiaClinica, 3));
+    }
+
+    @Test
+    @DisplayName("Caretaker - Debe retornar false si no hay mementos")
+    void caretakerDebeRetornarFalseSiNoHayMementos() {
+        boolean restaurado = caretaker.restaurarUltimoMemento(historiaClinica);
+
+        assertFalse(restaurado);
+    }
+
+    @Test
+    @DisplayName("Caretaker - Debe guardar deltas entre snapshots periódicos sin perder versiones")
+    void caretakerDebeGuardarDeltasEntreSnapshots() {
+        int versiones = properties.getSnapshotCada() + 5;
+        for (int i = 0; i < versiones; i++) {
+            historiaClinica.setAntecedentesMedicos("Estado " + i);
+            caretaker.guardarMemento(historiaClinica);
+        }
+
+        List<VersionHistoriaClinica> filas =
+                versionRepository.findByIdHistoriaClinicaOrderByVersion(historiaClinica.getIdHistoriaClinica());
+        assertEquals(versiones, caretaker.obtenerCantidadMementos(historiaClinica.getIdHistoriaClinica()));
+        assertEquals(List.of(1, properties.getSnapshotCada() + 1), filas.stream()
+                .filter(VersionHistoriaClinica::getCompleta)
+                .map(VersionHistoriaClinica::getVersion)
+                .toList());
+        assertEquals("{\"medicos\":\"Estado 1\"}", filas.get(1).getContenido());
+
+        assertTrue(caretaker.restaurarMemento(historiaClinica, properties.getSnapshotCada() + 2));
+        assertEquals("Estado " + (properties.getSnapshotCada() + 2), historiaClinica.getAntecedentesMedicos());
+        assertEquals("Ninguna", historiaClinica.getAlergias());
+    }
+
+    @Test
+    @DisplayName("Caretaker - Debe restaurar versiones guardadas por otra instancia o antes de un reinicio")
+    void caretakerDebeRestaurarDesdeLaBaseDeDatos() {
+        caretaker.guardarMemento(historiaClinica);
+        historiaClinica.setAlergias("Penicilina");
+        caretaker.guardarMemento(historiaClinica);
+        historiaClinica.setAlergias("Polen");
+
+        HistoriaClinicaCaretaker otraInstancia = new HistoriaClinicaCaretaker(versionRepository, properties);
+
+        assertEquals(2, otraInstancia.obtenerCantidadMementos(historiaClinica.getIdHistoriaClinica()));
+        assertTrue(otraInstancia.restaurarUltimoMemento(historiaClinica));
+        assertEquals("Penicilina", historiaClinica.getAlergias());
+        assertEquals(1L, otraInstancia.getEstadisticas().get("reconstrucciones"));
+    }
+
+    @Test
+    @DisplayName("Caretaker - Debe obtener historial de mementos")
+    void caretakerDebeObtenerHistorialDeMementos() {
+        caretaker.guardarMemento(historiaClinica);
+        historiaClinica.setAntecedentesMedicos("Modificado");
+        caretaker.guardarMemento(historiaClinica);
+
+        var historial = caretaker.obtenerHistorial(historiaClinica.getIdHistoriaClinica());
+
+        assertNotNull(historial);
+        assertEquals(2, historial.size());
+        assertEquals("Ninguno", historial.get(0).getAntecedentesMedicos());
+        assertEquals("Modificado", historial.get(1).getAntecedentesMedicos());
+        assertEquals(2, historial.get(1).getVersion());
+    }
+}
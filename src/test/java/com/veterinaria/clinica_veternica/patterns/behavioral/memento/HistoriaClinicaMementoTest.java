@@ -16,7 +16,6 @@ class HistoriaClinicaMementoTest {
 
     private HistoriaClinica historiaClinica;
     private HistoriaClinicaOriginator originator;
-    private HistoriaClinicaCaretaker caretaker;
 
     @BeforeEach
     void setUp() {
@@ -33,7 +32,6 @@ class HistoriaClinicaMementoTest {
                 .build();
 
         originator = new HistoriaClinicaOriginator();
-        caretaker = new HistoriaClinicaCaretaker();
     }
 
     @Test
@@ -87,83 +85,4 @@ class HistoriaClinicaMementoTest {
             originator.restaurarDesdeMemento(otraHistoria, memento);
         }, "Debe lanzar excepción si el ID no coincide");
     }
-
-    @Test
-    @DisplayName("Caretaker - Debe guardar memento")
-    void caretakerDebeGuardarMemento() {
-        int cantidadInicial = caretaker.obtenerCantidadMementos(historiaClinica.getIdHistoriaClinica());
-
-        caretaker.guardarMemento(historiaClinica);
-
-        int cantidadFinal = caretaker.obtenerCantidadMementos(historiaClinica.getIdHistoriaClinica());
-        assertEquals(cantidadInicial + 1, cantidadFinal);
-    }
-
-    @Test
-    @DisplayName("Caretaker - Debe restaurar último memento")
-    void caretakerDebeRestaurarUltimoMemento() {
-        // Guardar estado inicial
-        caretaker.guardarMemento(historiaClinica);
-
-        // Modificar
-        historiaClinica.setAntecedentesMedicos("Modificado");
-
-        // Restaurar
-        boolean restaurado = caretaker.restaurarUltimoMemento(historiaClinica);
-
-        assertTrue(restaurado);
-        assertEquals("Ninguno", historiaClinica.getAntecedentesMedicos());
-    }
-
-    @Test
-    @DisplayName("Caretaker - Debe restaurar memento específico por índice")
-    void caretakerDebeRestaurarMementoEspecifico() {
-        // Guardar varios estados
-        caretaker.guardarMemento(historiaClinica);
-        historiaClinica.setAntecedentesMedicos("Estado 1");
-        caretaker.guardarMemento(historiaClinica);
-        historiaClinica.setAntecedentesMedicos("Estado 2");
-        caretaker.guardarMemento(historiaClinica);
-
-        // Restaurar al primer estado (índice 0)
-        boolean restaurado = caretaker.restaurarMemento(historiaClinica, 0);
-
-        assertTrue(restaurado);
-        assertEquals("Ninguno", historiaClinica.getAntecedentesMedicos());
-    }
-
-    @Test
-    @DisplayName("Caretaker - Debe retornar false si no hay mementos")
-    void caretakerDebeRetornarFalseSiNoHayMementos() {
-        boolean restaurado = caretaker.restaurarUltimoMemento(historiaClinica);
-
-        assertFalse(restaurado);
-    }
-
-    @Test
-    @DisplayName("Caretaker - Debe limitar número de mementos")
-    void caretakerDebeLimitarNumeroDeMementos() {
-        // Guardar más mementos que el límite (10)
-        for (int i = 0; i < 15; i++) {
-            historiaClinica.setAntecedentesMedicos("Estado " + i);
-            caretaker.guardarMemento(historiaClinica);
-        }
-
-        int cantidad = caretaker.obtenerCantidadMementos(historiaClinica.getIdHistoriaClinica());
-        assertTrue(cantidad <= 10, "No debe exceder el límite de 10 mementos");
-    }
-
-    @Test
-    @DisplayName("Caretaker - Debe obtener historial de mementos")
-    void caretakerDebeObtenerHistorialDeMementos() {
-        caretaker.guardarMemento(historiaClinica);
-        historiaClinica.setAntecedentesMedicos("Modificado");
-        caretaker.guardarMemento(historiaClinica);
-
-        var historial = caretaker.obtenerHistorial(historiaClinica.getIdHistoriaClinica());
-
-        assertNotNull(historial);
-        assertEquals(2, historial.size());
-    }
 }
-
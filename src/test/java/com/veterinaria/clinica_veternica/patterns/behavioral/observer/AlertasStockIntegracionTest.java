@@ -0,0 +1,129 @@
+package com.veterinaria.clinica_veternica.patterns.behavioral.observer;
+
+import com.veterinaria.clinica_veternica.config.TestMailConfig;
+import com.veterinaria.clinica_veternica.domain.inventario.AlertaStock;
+import com.veterinaria.clinica_veternica.domain.inventario.AlertaStockNotificada;
+import com.veterinaria.clinica_veternica.domain.inventario.Insumo;
+import com.veterinaria.clinica_veternica.domain.inventario.Inventario;
+import com.veterinaria.clinica_veternica.domain.inventario.NivelAlertaStock;
+import com.veterinaria.clinica_veternica.domain.inventario.TipoInsumo;
+import com.veterinaria.clinica_veternica.repository.AlertaStockNotificadaRepository;
+import com.veterinaria.clinica_veternica.repository.InsumoRepository;
+import com.veterinaria.clinica_veternica.repository.InventarioRepository;
+import com.veterinaria.clinica_veternica.repository.TipoInsumoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para la consulta agregada de alertas de stock
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000"
+})
+class AlertasStockIntegracionTest {
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private InsumoRepository insumoRepository;
+
+    @Autowired
+    private TipoInsumoRepository tipoInsumoRepository;
+
+    @Autowired
+    private AlertaStockNotificadaRepository alertaStockRepository;
+
+    private TipoInsumo tipoInsumo;
+
+    @BeforeEach
+    void setUp() {
+        tipoInsumo = tipoInsumoRepository.save(TipoInsumo.builder()
+                .nombre("Tipo-" + UUID.randomUUID())
+                .build());
+    }
+
+    @Test
+    @DisplayName("Debe clasificar los niveles de alerta en una sola consulta")
+    void debeClasificarNivelesDeAlerta() {
+        Inventario normal = nuevoInventario(100, 50);
+        Inventario bajo = nuevoInventario(50, 50);
+        Inventario critico = nuevoInventario(25, 50);
+        Inventario agotado = nuevoInventario(0, 50);
+
+        Map<Long, AlertaStock> alertas = alertasPorInventario();
+
+        assertFalse(alertas.containsKey(normal.getIdInventario()));
+        assertEquals(NivelAlertaStock.BAJO, alertas.get(bajo.getIdInventario()).nivel());
+        assertEquals(NivelAlertaStock.CRITICO, alertas.get(critico.getIdInventario()).nivel());
+        assertEquals(NivelAlertaStock.AGOTADO, alertas.get(agotado.getIdInventario()).nivel());
+        assertEquals(bajo.getInsumo().getNombre(), alertas.get(bajo.getIdInventario()).insumo());
+        assertTrue(alertas.get(bajo.getIdInventario()).requiereNotificacion());
+    }
+
+    @Test
+    @DisplayName("Debe incluir el nivel notificado y descartar las alertas recuperadas")
+    void debeIncluirNivelNotificadoYDescartarRecuperadas() {
+        Inventario critico = nuevoInventario(10, 50);
+        Inventario recuperado = nuevoInventario(80, 50);
+        notificar(critico, NivelAlertaStock.CRITICO);
+        notificar(recuperado, NivelAlertaStock.AGOTADO);
+
+        AlertaStock alerta = alertasPorInventario().get(critico.getIdInventario());
+        assertEquals(NivelAlertaStock.CRITICO, alerta.nivelNotificado());
+        assertFalse(alerta.requiereNotificacion());
+
+        assertTrue(alertaStockRepository.eliminarRecuperadas() >= 1);
+        assertTrue(alertaStockRepository.existsById(critico.getIdInventario()));
+        assertFalse(alertaStockRepository.existsById(recuperado.getIdInventario()));
+    }
+
+    private Map<Long, AlertaStock> alertasPorInventario() {
+        return inventarioRepository.findAlertasStock().stream()
+                .collect(Collectors.toMap(AlertaStock::idInventario, Function.identity()));
+    }
+
+    private void notificar(Inventario inventario, NivelAlertaStock nivel) {
+        alertaStockRepository.save(AlertaStockNotificada.builder()
+                .idInventario(inventario.getIdInventario())
+                .nivel(nivel)
+                .fechaNotificacion(LocalDateTime.now())
+                .build());
+    }
+
+    private Inventario nuevoInventario(int cantidad, int stockMinimo) {
+        Insumo insumo = insumoRepository.save(Insumo.builder()
+                .codigo("INS-" + UUID.randomUUID().toString().substring(0, 8))
+                .nombre("Insumo " + UUID.randomUUID())
+                .tipoInsumo(tipoInsumo)
+                .unidadMedida("Unidad")
+                .cantidadStock(cantidad)
+                .stockMinimo(stockMinimo)
+                .precioCompra(BigDecimal.ONE)
+                .build());
+        return inventarioRepository.save(Inventario.builder()
+                .insumo(insumo)
+                .cantidadActual(cantidad)
+                .build());
+    }
+}
@@ -0,0 +1,203 @@
+package com.veterinaria.clinica_veternica.patterns.behavioral.observer;
+
+import com.veterinaria.clinica_veternica.config.ObserverDispatchProperties;
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para la entrega asíncrona de eventos del patrón Observer
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AsyncCitaEventDispatcherTest {
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CitaObserver observer;
+
+    private ObserverDispatchProperties properties;
+    private AsyncCitaEventDispatcher dispatcher;
+    private CitaSubject citaSubject;
+    private Cita cita;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ObserverDispatchProperties();
+        properties.setMode("async");
+        properties.setLanesPerObserver(2);
+
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        dispatcher = new AsyncCitaEventDispatcher(properties, citaRepository, transactionManager);
+        citaSubject = new CitaSubject(dispatcher);
+
+        cita = Cita.builder()
+                .idCita(1L)
+                .fechaCita(LocalDate.now().plusDays(1))
+                .horaCita(LocalTime.of(10, 0))
+                .estado(EstadoCita.PROGRAMADA)
+                .build();
+        when(citaRepository.findById(1L)).thenReturn(Optional.of(cita));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.destroy();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Async - Debe entregar el evento fuera del hilo que notifica")
+    void debeEntregarEventoEnOtroHilo() {
+        Thread hiloPeticion = Thread.currentThread();
+        List<Thread> hilosEntrega = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(inv -> hilosEntrega.add(Thread.currentThread())).when(observer).onCitaCreated(cita);
+
+        citaSubject.addObserver(observer);
+        citaSubject.notifyCitaCreated(cita);
+
+        verify(observer, timeout(2000)).onCitaCreated(cita);
+        assertNotSame(hiloPeticion, hilosEntrega.get(0));
+    }
+
+    @Test
+    @DisplayName("Async - Debe entregar en orden los eventos de una misma cita")
+    void debeEntregarEnOrdenPorCita() {
+        List<String> recibidos = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(inv -> recibidos.add(inv.getArgument(2))).when(observer)
+                .onCitaStateChanged(any(), any(), any());
+
+        citaSubject.addObserver(observer);
+        List<String> esperados = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            esperados.add("E" + i);
+            citaSubject.notifyStateChanged(cita, "ANTERIOR", "E" + i);
+        }
+
+        verify(observer, timeout(2000).times(50)).onCitaStateChanged(any(), any(), any());
+        assertEquals(esperados, recibidos);
+    }
+
+    @Test
+    @DisplayName("Async - Debe esperar al commit de la transacción para encolar")
+    void debeEsperarAlCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        citaSubject.addObserver(observer);
+
+        citaSubject.notifyCitaCancelled(cita, "Motivo");
+
+        verify(observer, after(200).never()).onCitaCancelled(any(), any());
+
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+
+        verify(observer, timeout(2000)).onCitaCancelled(cita, "Motivo");
+    }
+
+    @Test
+    @DisplayName("Async - Debe registrar métricas de fallos sin afectar a otros observadores")
+    void debeRegistrarMetricasDeFallos() {
+        CitaObserver observerOk = mock(CitaObserver.class);
+        doThrow(new IllegalStateException("Error")).when(observer).onCitaCreated(any());
+
+        citaSubject.addObserver(observer);
+        citaSubject.addObserver(observerOk);
+        citaSubject.notifyCitaCreated(cita);
+
+        verify(observerOk, timeout(2000)).onCitaCreated(cita);
+        verify(observer, timeout(2000)).onCitaCreated(cita);
+
+        Map<String, Map<String, Object>> estadisticas = citaSubject.getEstadisticasEntrega();
+        assertEquals(2, estadisticas.size());
+        long fallidos = estadisticas.values().stream()
+                .mapToLong(datos -> (Long) datos.get("fallidos"))
+                .sum();
+        long deadline = System.currentTimeMillis() + 2000;
+        while (fallidos == 0 && System.currentTimeMillis() < deadline) {
+            fallidos = citaSubject.getEstadisticasEntrega().values().stream()
+                    .mapToLong(datos -> (Long) datos.get("fallidos"))
+                    .sum();
+        }
+        assertEquals(1, fallidos);
+    }
+
+    @Test
+    @DisplayName("Async - Debe entregar cada evento en una transacción nueva (REQUIRES_NEW)")
+    void debeEntregarEnTransaccionNueva() {
+        citaSubject.addObserver(observer);
+        citaSubject.notifyCitaCreated(cita);
+
+        verify(observer, timeout(2000)).onCitaCreated(cita);
+        verify(transactionManager).getTransaction(argThat(definicion ->
+                definicion.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    @Test
+    @DisplayName("Async - Con la cola llena debe esperar hueco sin entregar en el hilo que notifica")
+    void debeEsperarHuecoConColaLlena() {
+        dispatcher.destroy();
+        properties.setQueueCapacity(1);
+        properties.setLanesPerObserver(1);
+        dispatcher = new AsyncCitaEventDispatcher(properties, citaRepository, transactionManager);
+        citaSubject = new CitaSubject(dispatcher);
+
+        Thread hiloPeticion = Thread.currentThread();
+        List<String> recibidos = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> hilosEntrega = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(inv -> {
+            Thread.sleep(5);
+            hilosEntrega.add(Thread.currentThread());
+            return recibidos.add(inv.getArgument(2));
+        }).when(observer).onCitaStateChanged(any(), any(), any());
+
+        citaSubject.addObserver(observer);
+        List<String> esperados = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            esperados.add("E" + i);
+            citaSubject.notifyStateChanged(cita, "ANTERIOR", "E" + i);
+        }
+
+        verify(observer, timeout(2000).times(20)).onCitaStateChanged(any(), any(), any());
+        assertEquals(esperados, recibidos);
+        assertFalse(hilosEntrega.contains(hiloPeticion));
+        Map<String, Object> estadisticas = citaSubject.getEstadisticasEntrega().values().iterator().next();
+        assertTrue((Long) estadisticas.get("rechazados") > 0);
+        assertEquals(0L, estadisticas.get("descartados"));
+    }
+}
@@ -11,8 +11,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -148,5 +158,89 @@ class CitaObserverTest {
 
         verify(notificacionObserver, times(1)).onCitaCreated(cita);
     }
-}
 
+    @Test
+    @DisplayName("Observer - Debe entregar solo los tipos de evento suscritos")
+    void debeEntregarSoloEventosSuscritos() {
+        citaSubject.addObserver(notificacionObserver, EnumSet.of(TipoEventoCita.CANCELADA),
+                EnumSet.allOf(EstadoCita.class));
+
+        citaSubject.notifyCitaCreated(cita);
+        citaSubject.notifyStateChanged(cita, EstadoCita.PROGRAMADA.name(), EstadoCita.CONFIRMADA.name());
+        citaSubject.notifyCitaUpdated(cita, cita.getFechaCita(), cita.getHoraCita());
+        citaSubject.notifyCitaCancelled(cita, "Motivo");
+
+        verify(notificacionObserver).onCitaCancelled(cita, "Motivo");
+        verifyNoMoreInteractions(notificacionObserver);
+    }
+
+    @Test
+    @DisplayName("Observer - Debe filtrar los cambios de estado por estado destino")
+    void debeFiltrarCambiosPorEstadoDestino() {
+        citaSubject.addObserver(notificacionObserver, EnumSet.allOf(TipoEventoCita.class),
+                Set.of(EstadoCita.CONFIRMADA));
+        citaSubject.addObserver(auditoriaObserver);
+
+        citaSubject.notifyStateChanged(cita, EstadoCita.PROGRAMADA.name(), EstadoCita.CONFIRMADA.name());
+        citaSubject.notifyStateChanged(cita, EstadoCita.CONFIRMADA.name(), EstadoCita.EN_ATENCION.name());
+        citaSubject.notifyStateChanged(cita, "ANTERIOR", "EVENTO_EXTERNO");
+
+        verify(notificacionObserver, times(1)).onCitaStateChanged(any(), any(), any());
+        verify(notificacionObserver).onCitaStateChanged(cita, EstadoCita.PROGRAMADA.name(), EstadoCita.CONFIRMADA.name());
+        // Suscrito a todos los estados: también recibe los que no son un EstadoCita
+        verify(auditoriaObserver, times(3)).onCitaStateChanged(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Observer - Debe registrar invocaciones y errores por observador")
+    void debeRegistrarMetricasPorObservador() {
+        doThrow(new IllegalStateException("Error")).when(auditoriaObserver).onCitaCreated(any());
+        citaSubject.addObserver(notificacionObserver);
+        citaSubject.addObserver(auditoriaObserver);
+
+        citaSubject.notifyCitaCreated(cita);
+        citaSubject.notifyCitaCreated(cita);
+
+        Map<String, Map<String, Object>> estadisticas = citaSubject.getEstadisticasEntrega();
+        assertEquals(2, estadisticas.size());
+        long invocaciones = estadisticas.values().stream().mapToLong(datos -> (Long) datos.get("invocaciones")).sum();
+        long errores = estadisticas.values().stream().mapToLong(datos -> (Long) datos.get("errores")).sum();
+        assertEquals(4, invocaciones);
+        assertEquals(2, errores);
+    }
+
+    @Test
+    @DisplayName("Observer - Debe registrar observadores concurrentes sin perder ninguno")
+    void debeRegistrarObservadoresConcurrentes() throws Exception {
+        int total = 32;
+        CitaObserver[] observers = new CitaObserver[total];
+        for (int i = 0; i < total; i++) {
+            observers[i] = mock(CitaObserver.class);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch inicio = new CountDownLatch(1);
+        try {
+            for (CitaObserver observer : observers) {
+                executor.execute(() -> {
+                    try {
+                        inicio.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    citaSubject.addObserver(observer);
+                    citaSubject.notifyCitaCancelled(cita, "Concurrente");
+                });
+            }
+            inicio.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        citaSubject.notifyCitaCreated(cita);
+        for (CitaObserver observer : observers) {
+            verify(observer).onCitaCreated(cita);
+        }
+        assertEquals(total, citaSubject.getEstadisticasEntrega().size());
+    }
+}
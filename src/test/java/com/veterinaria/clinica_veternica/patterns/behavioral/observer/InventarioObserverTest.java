@@ -1,31 +1,44 @@
 package com.veterinaria.clinica_veternica.patterns.behavioral.observer;
 
 import com.veterinaria.clinica_veternica.domain.agenda.Cita;
-import com.veterinaria.clinica_veternica.domain.inventario.Insumo;
-import com.veterinaria.clinica_veternica.domain.inventario.Inventario;
+import com.veterinaria.clinica_veternica.domain.comunicacion.Comunicacion;
+import com.veterinaria.clinica_veternica.domain.inventario.AlertaStock;
+import com.veterinaria.clinica_veternica.domain.inventario.AlertaStockNotificada;
+import com.veterinaria.clinica_veternica.domain.inventario.NivelAlertaStock;
+import com.veterinaria.clinica_veternica.domain.usuario.RolUsuario;
+import com.veterinaria.clinica_veternica.domain.usuario.Usuario;
 import com.veterinaria.clinica_veternica.patterns.creational.abstractfactory.EmailNotificacionFactory;
 import com.veterinaria.clinica_veternica.patterns.creational.abstractfactory.EnviadorNotificacion;
 import com.veterinaria.clinica_veternica.patterns.creational.abstractfactory.MensajeNotificacion;
+import com.veterinaria.clinica_veternica.repository.AlertaStockNotificadaRepository;
+import com.veterinaria.clinica_veternica.repository.ComunicacionRepository;
 import com.veterinaria.clinica_veternica.repository.InventarioRepository;
+import com.veterinaria.clinica_veternica.repository.PersonalRepository;
+import com.veterinaria.clinica_veternica.repository.UsuarioRepository;
 import com.veterinaria.clinica_veternica.service.interfaces.IInventarioService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -43,26 +56,39 @@ class InventarioObserverTest {
     @Mock
     private IInventarioService inventarioService;
 
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private ComunicacionRepository comunicacionRepository;
+
+    @Mock
+    private PersonalRepository personalRepository;
+
+    @Mock
+    private AlertaStockNotificadaRepository alertaStockRepository;
+
     @InjectMocks
     private InventarioObserver inventarioObserver;
 
-    private Inventario inventario;
-    private Insumo insumo;
+    private Usuario admin;
+    private Usuario auxiliar;
     private Cita cita;
 
     @BeforeEach
     void setUp() {
-        insumo = Insumo.builder()
-                .idInsumo(1L)
-                .nombre("Jeringa 5ml")
-                .stockMinimo(50)
-                .stockMaximo(500)
+        admin = Usuario.builder()
+                .idUsuario(1L)
+                .username("admin")
+                .email("admin@clinica.com")
+                .rol(RolUsuario.ADMIN)
                 .build();
 
-        inventario = Inventario.builder()
-                .idInventario(1L)
-                .insumo(insumo)
-                .cantidadActual(100)
+        auxiliar = Usuario.builder()
+                .idUsuario(2L)
+                .username("auxiliar")
+                .email("auxiliar@clinica.com")
+                .rol(RolUsuario.AUXILIAR)
                 .build();
 
         cita = Cita.builder()
@@ -90,183 +116,175 @@ class InventarioObserverTest {
         verify(inventarioRepository, never()).save(any());
     }
 
-    @ParameterizedTest(name = "Debe enviar alerta con texto \"{1}\" cuando stock es {0}")
-    @MethodSource("stockAlertScenarios")
-    void debeDetectarAlertasDeStock(int cantidadActual, String textoEsperado) {
+    @ParameterizedTest(name = "Debe enviar resumen de {0}")
+    @EnumSource(NivelAlertaStock.class)
+    void debeEnviarResumenPorNivel(NivelAlertaStock nivel) {
         // Arrange
-        inventario.setCantidadActual(cantidadActual);
-        when(inventarioRepository.findAll()).thenReturn(Collections.singletonList(inventario));
-
-        MensajeNotificacion mensaje = mock(MensajeNotificacion.class);
-        EnviadorNotificacion enviador = mock(EnviadorNotificacion.class);
-        when(emailFactory.crearMensaje(anyString(), anyString(), anyString()))
-                .thenReturn(mensaje);
-        when(emailFactory.crearEnviador()).thenReturn(enviador);
+        when(inventarioRepository.findAlertasStock()).thenReturn(List.of(alerta(1L, "Jeringa 5ml", nivel, null)));
+        when(usuarioRepository.findByRolAndEstado(RolUsuario.ADMIN, true)).thenReturn(List.of(admin));
+        EnviadorNotificacion enviador = prepararEnvio(true);
 
         // Act
         inventarioObserver.monitorearStock();
 
         // Assert
         verify(emailFactory, times(1)).crearMensaje(
-                anyString(),
-                contains(textoEsperado),
-                anyString()
+                eq("admin@clinica.com"),
+                contains(nivel.getDisplayName().toLowerCase()),
+                contains("Jeringa 5ml")
         );
-        verify(enviador, times(1)).enviar(mensaje);
+        verify(enviador, times(1)).enviar(any());
+        verify(alertaStockRepository).saveAll(argThat(niveles(nivel)));
     }
 
     @Test
-    @DisplayName("No debe enviar alertas cuando stock está por encima del mínimo")
-    void noDebeEnviarAlertasCuandoStockEstaPorEncimaDelMinimo() {
+    @DisplayName("Debe enviar un único resumen por destinatario con todas las alertas")
+    void debeEnviarUnResumenPorDestinatario() {
         // Arrange
-        inventario.setCantidadActual(100);
-        when(inventarioRepository.findAll()).thenReturn(Collections.singletonList(inventario));
+        when(inventarioRepository.findAlertasStock()).thenReturn(List.of(
+                alerta(1L, "Insumo 1", NivelAlertaStock.AGOTADO, null),
+                alerta(2L, "Insumo 2", NivelAlertaStock.CRITICO, null),
+                alerta(3L, "Insumo 3", NivelAlertaStock.BAJO, null)));
+        when(usuarioRepository.findByRolAndEstado(RolUsuario.ADMIN, true)).thenReturn(List.of(admin));
+        when(usuarioRepository.findByRolAndEstado(RolUsuario.AUXILIAR, true)).thenReturn(List.of(auxiliar));
+        EnviadorNotificacion enviador = prepararEnvio(true);
 
         // Act
         inventarioObserver.monitorearStock();
 
         // Assert
-        verify(emailFactory, never()).crearMensaje(anyString(), anyString(), anyString());
-        verify(emailFactory, never()).crearEnviador();
+        ArgumentCaptor<String> mensajes = ArgumentCaptor.forClass(String.class);
+        verify(emailFactory, times(2)).crearMensaje(anyString(), anyString(), mensajes.capture());
+        assertTrue(mensajes.getValue().contains("Insumo 1"));
+        assertTrue(mensajes.getValue().contains("Insumo 2"));
+        assertTrue(mensajes.getValue().contains("Insumo 3"));
+        verify(enviador, times(2)).enviar(any());
+        verify(comunicacionRepository, times(2)).save(any(Comunicacion.class));
+        verify(alertaStockRepository).saveAll(argThat(niveles(
+                NivelAlertaStock.AGOTADO, NivelAlertaStock.CRITICO, NivelAlertaStock.BAJO)));
     }
 
     @Test
-    @DisplayName("Debe monitorear múltiples inventarios correctamente")
-    void debeMonitorearMultiplesInventariosCorrectamente() {
+    @DisplayName("No debe volver a notificar alertas ya notificadas con el mismo nivel")
+    void noDebeRepetirAlertasNotificadas() {
         // Arrange
-        Inventario inventario1 = Inventario.builder()
-                .idInventario(1L)
-                .insumo(Insumo.builder().idInsumo(1L).nombre("Insumo 1").stockMinimo(50).build())
-                .cantidadActual(100)
-                .build();
-
-        Inventario inventario2 = Inventario.builder()
-                .idInventario(2L)
-                .insumo(Insumo.builder().idInsumo(2L).nombre("Insumo 2").stockMinimo(30).build())
-                .cantidadActual(20)
-                .build();
-
-        Inventario inventario3 = Inventario.builder()
-                .idInventario(3L)
-                .insumo(Insumo.builder().idInsumo(3L).nombre("Insumo 3").stockMinimo(20).build())
-                .cantidadActual(0)
-                .build();
-
-        when(inventarioRepository.findAll()).thenReturn(Arrays.asList(inventario1, inventario2, inventario3));
-
-        MensajeNotificacion mensaje = mock(MensajeNotificacion.class);
-        EnviadorNotificacion enviador = mock(EnviadorNotificacion.class);
-        when(emailFactory.crearMensaje(anyString(), anyString(), anyString()))
-                .thenReturn(mensaje);
-        when(emailFactory.crearEnviador()).thenReturn(enviador);
+        when(inventarioRepository.findAlertasStock()).thenReturn(List.of(
+                alerta(1L, "Jeringa 5ml", NivelAlertaStock.CRITICO, NivelAlertaStock.CRITICO)));
 
         // Act
         inventarioObserver.monitorearStock();
 
         // Assert
-        // Debe enviar 2 alertas (inventario2 crítico e inventario3 agotado)
-        verify(emailFactory, times(2)).crearMensaje(anyString(), anyString(), anyString());
-        verify(enviador, times(2)).enviar(mensaje);
+        verify(emailFactory, never()).crearMensaje(anyString(), anyString(), anyString());
+        verify(alertaStockRepository, never()).saveAll(any());
+        verify(alertaStockRepository).eliminarRecuperadas();
     }
 
     @Test
-    @DisplayName("Debe manejar error al enviar notificación de stock bajo")
-    void debeManejarErrorAlEnviarNotificacionDeStockBajo() {
+    @DisplayName("Debe notificar de nuevo cuando el nivel de alerta empeora")
+    void debeNotificarCuandoNivelEmpeora() {
         // Arrange
-        inventario.setCantidadActual(50);
-        when(inventarioRepository.findAll()).thenReturn(Collections.singletonList(inventario));
-        when(emailFactory.crearMensaje(anyString(), anyString(), anyString()))
-                .thenThrow(new IllegalArgumentException("Email inválido"));
+        when(inventarioRepository.findAlertasStock()).thenReturn(List.of(
+                alerta(1L, "Jeringa 5ml", NivelAlertaStock.AGOTADO, NivelAlertaStock.BAJO)));
+        when(usuarioRepository.findByRolAndEstado(RolUsuario.ADMIN, true)).thenReturn(List.of(admin));
+        prepararEnvio(true);
 
-        // Act & Assert - No debe lanzar excepción
+        // Act
         inventarioObserver.monitorearStock();
 
-        verify(emailFactory, times(1)).crearMensaje(anyString(), anyString(), anyString());
+        // Assert
+        verify(emailFactory, times(1)).crearMensaje(anyString(), contains("agotado"), anyString());
+        verify(alertaStockRepository).saveAll(argThat(niveles(NivelAlertaStock.AGOTADO)));
     }
 
     @Test
-    @DisplayName("Debe manejar error al enviar notificación de stock agotado")
-    void debeManejarErrorAlEnviarNotificacionDeStockAgotado() {
+    @DisplayName("Debe registrar sin notificar cuando el nivel de alerta mejora")
+    void debeRegistrarSinNotificarCuandoNivelMejora() {
         // Arrange
-        inventario.setCantidadActual(0);
-        when(inventarioRepository.findAll()).thenReturn(Collections.singletonList(inventario));
-        when(emailFactory.crearMensaje(anyString(), anyString(), anyString()))
-                .thenThrow(new RuntimeException("Error de conexión"));
+        when(inventarioRepository.findAlertasStock()).thenReturn(List.of(
+                alerta(1L, "Jeringa 5ml", NivelAlertaStock.BAJO, NivelAlertaStock.AGOTADO)));
 
-        // Act & Assert - No debe lanzar excepción
+        // Act
         inventarioObserver.monitorearStock();
 
-        verify(emailFactory, times(1)).crearMensaje(anyString(), anyString(), anyString());
+        // Assert
+        verify(emailFactory, never()).crearMensaje(anyString(), anyString(), anyString());
+        verify(alertaStockRepository).saveAll(argThat(niveles(NivelAlertaStock.BAJO)));
     }
 
     @Test
-    @DisplayName("Debe monitorear inventario cuando no hay inventarios")
-    void debeMonitorearInventarioCuandoNoHayInventarios() {
+    @DisplayName("No debe enviar alertas cuando no hay inventarios en alerta")
+    void noDebeEnviarAlertasSinInventariosEnAlerta() {
         // Arrange
-        when(inventarioRepository.findAll()).thenReturn(Collections.emptyList());
+        when(inventarioRepository.findAlertasStock()).thenReturn(List.of());
 
         // Act
         inventarioObserver.monitorearStock();
 
         // Assert
-        verify(inventarioRepository, times(1)).findAll();
+        verify(inventarioRepository, never()).findAll();
+        verify(alertaStockRepository).eliminarRecuperadas();
         verify(emailFactory, never()).crearMensaje(anyString(), anyString(), anyString());
+        verify(emailFactory, never()).crearEnviador();
     }
 
     @Test
-    @DisplayName("Debe detectar stock crítico exactamente en el límite (50% del mínimo)")
-    void debeDetectarStockCriticoEnElLimite() {
+    @DisplayName("Debe dejar pendientes las alertas cuando falla el envío")
+    void debeDejarPendientesLasAlertasCuandoFallaElEnvio() {
         // Arrange
-        inventario.setCantidadActual(25); // Exactamente 50% del mínimo (50)
-        when(inventarioRepository.findAll()).thenReturn(Collections.singletonList(inventario));
-
-        MensajeNotificacion mensaje = mock(MensajeNotificacion.class);
-        EnviadorNotificacion enviador = mock(EnviadorNotificacion.class);
+        when(inventarioRepository.findAlertasStock()).thenReturn(List.of(
+                alerta(1L, "Jeringa 5ml", NivelAlertaStock.AGOTADO, null)));
+        when(usuarioRepository.findByRolAndEstado(RolUsuario.ADMIN, true)).thenReturn(List.of(admin));
         when(emailFactory.crearMensaje(anyString(), anyString(), anyString()))
-                .thenReturn(mensaje);
-        when(emailFactory.crearEnviador()).thenReturn(enviador);
+                .thenThrow(new RuntimeException("Error de conexión"));
 
-        // Act
+        // Act & Assert - No debe lanzar excepción
         inventarioObserver.monitorearStock();
 
-        // Assert
-        verify(emailFactory, times(1)).crearMensaje(
-                anyString(),
-                contains("Crítica"),
-                anyString()
-        );
+        verify(emailFactory, times(1)).crearMensaje(anyString(), anyString(), anyString());
+        verify(alertaStockRepository, never()).saveAll(any());
     }
 
     @Test
-    @DisplayName("Debe incluir información del insumo en mensaje de alerta")
-    void debeIncluirInformacionDelInsumoEnMensajeDeAlerta() {
+    @DisplayName("Debe dejar pendientes las alertas cuando no hay destinatarios")
+    void debeDejarPendientesLasAlertasSinDestinatarios() {
         // Arrange
-        inventario.setCantidadActual(0);
-        when(inventarioRepository.findAll()).thenReturn(Collections.singletonList(inventario));
-
-        MensajeNotificacion mensaje = mock(MensajeNotificacion.class);
-        EnviadorNotificacion enviador = mock(EnviadorNotificacion.class);
-        when(emailFactory.crearMensaje(anyString(), anyString(), anyString()))
-                .thenReturn(mensaje);
-        when(emailFactory.crearEnviador()).thenReturn(enviador);
+        when(inventarioRepository.findAlertasStock()).thenReturn(List.of(
+                alerta(1L, "Jeringa 5ml", NivelAlertaStock.BAJO, null)));
 
         // Act
         inventarioObserver.monitorearStock();
 
         // Assert
-        verify(emailFactory, times(1)).crearMensaje(
-                anyString(),
-                anyString(),
-                contains("Jeringa 5ml")
-        );
+        verify(emailFactory, never()).crearMensaje(anyString(), anyString(), anyString());
+        verify(alertaStockRepository, never()).saveAll(any());
     }
 
-    private static Stream<Arguments> stockAlertScenarios() {
-        return Stream.of(
-                Arguments.of(50, "Stock Bajo"),
-                Arguments.of(20, "Crítica"),
-                Arguments.of(0, "Agotado")
-        );
+    private EnviadorNotificacion prepararEnvio(boolean resultado) {
+        MensajeNotificacion mensaje = mock(MensajeNotificacion.class);
+        EnviadorNotificacion enviador = mock(EnviadorNotificacion.class);
+        when(emailFactory.crearMensaje(anyString(), anyString(), anyString())).thenReturn(mensaje);
+        when(emailFactory.crearEnviador()).thenReturn(enviador);
+        when(enviador.enviar(mensaje)).thenReturn(resultado);
+        return enviador;
+    }
+
+    private static AlertaStock alerta(Long idInventario, String insumo,
+                                      NivelAlertaStock nivel, NivelAlertaStock nivelNotificado) {
+        int cantidad = switch (nivel) {
+            case AGOTADO -> 0;
+            case CRITICO -> 20;
+            case BAJO -> 50;
+        };
+        return new AlertaStock(idInventario, insumo, cantidad, 50, 500, nivel, nivelNotificado);
+    }
+
+    private static ArgumentMatcher<Iterable<AlertaStockNotificada>> niveles(NivelAlertaStock... esperados) {
+        return registradas -> {
+            List<NivelAlertaStock> niveles = new ArrayList<>();
+            registradas.forEach(registrada -> niveles.add(registrada.getNivel()));
+            return niveles.equals(List.of(esperados));
+        };
     }
 
     private static Stream<Arguments> estadoCitaScenarios() {
@@ -11,6 +11,7 @@ import com.veterinaria.clinica_veternica.patterns.creational.abstractfactory.Ema
 import com.veterinaria.clinica_veternica.patterns.creational.abstractfactory.EnviadorNotificacion;
 import com.veterinaria.clinica_veternica.patterns.creational.abstractfactory.MensajeNotificacion;
 import com.veterinaria.clinica_veternica.patterns.creational.singleton.ConfigurationManager;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
 import com.veterinaria.clinica_veternica.repository.ComunicacionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -40,6 +41,9 @@ class RecordatorioObserverTest {
     @Mock
     private ComunicacionRepository comunicacionRepository;
 
+    @Mock
+    private CitaRepository citaRepository;
+
     @Mock
     private EmailNotificacionFactory emailFactory;
 
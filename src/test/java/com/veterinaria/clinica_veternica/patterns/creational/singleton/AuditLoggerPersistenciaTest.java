@@ -0,0 +1,98 @@
+package com.veterinaria.clinica_veternica.patterns.creational.singleton;
+
+import com.veterinaria.clinica_veternica.config.TestMailConfig;
+import com.veterinaria.clinica_veternica.repository.RegistroAuditoriaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para la persistencia write-behind del AuditLogger
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000",
+    "app.audit.persistence-enabled=true",
+    "app.audit.flush-interval=1h",
+    "app.audit.batch-size=3"
+})
+class AuditLoggerPersistenciaTest {
+
+    @Autowired
+    private AuditLogger auditLogger;
+
+    @Autowired
+    private RegistroAuditoriaRepository registroAuditoriaRepository;
+
+    @BeforeEach
+    void setUp() {
+        auditLogger.flush();
+        registroAuditoriaRepository.deleteAll();
+        auditLogger.clearLogs();
+    }
+
+    @Test
+    @DisplayName("Debe persistir en lotes los logs pendientes")
+    void debePersistirEnLotes() {
+        for (long i = 0; i < 10; i++) {
+            auditLogger.logCreate("Cita", i, "admin");
+        }
+
+        assertEquals(0, registroAuditoriaRepository.count());
+        assertEquals(10, auditLogger.flush());
+        assertEquals(10, registroAuditoriaRepository.count());
+        assertEquals(0, auditLogger.flush());
+    }
+
+    @Test
+    @DisplayName("Debe consultar por entidad y usuario desde la tabla")
+    void debeConsultarPorEntidadYUsuario() {
+        auditLogger.logCreate("Cita", 1L, "admin");
+        auditLogger.logCreate("Mascota", 1L, "veterinario");
+        auditLogger.logUpdate("Cita", 1L, "veterinario", "Cambio de hora");
+
+        List<AuditLogger.AuditLog> logsCita = auditLogger.getLogsByEntidad("Cita");
+        assertEquals(2, logsCita.size());
+        assertEquals("CREATE", logsCita.get(0).getAccion());
+
+        List<AuditLogger.AuditLog> logsVeterinario = auditLogger.getLogsByUsuario("veterinario");
+        assertEquals(2, logsVeterinario.size());
+    }
+
+    @Test
+    @DisplayName("Debe conservar el historial persistido al limpiar la memoria")
+    void debeConservarHistorialAlLimpiarMemoria() {
+        auditLogger.logDelete("Factura", 5L, "admin");
+        auditLogger.flush();
+        auditLogger.clearLogs();
+
+        assertEquals(0, auditLogger.getLogCount());
+        List<AuditLogger.AuditLog> logs = auditLogger.getLogsByDateRange(
+                LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1));
+        assertEquals(1, logs.size());
+        assertEquals(5L, logs.get(0).getEntidadId());
+    }
+
+    @Test
+    @DisplayName("Debe truncar detalles que exceden la columna")
+    void debeTruncarDetallesLargos() {
+        auditLogger.log("UPDATE", "HistoriaClinica", 1L, "admin", "x".repeat(5000));
+
+        List<AuditLogger.AuditLog> logs = auditLogger.getLogsByEntidad("HistoriaClinica");
+        assertEquals(2000, logs.get(0).getDetalles().length());
+    }
+}
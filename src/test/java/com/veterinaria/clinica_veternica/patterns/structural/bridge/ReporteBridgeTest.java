@@ -1,5 +1,11 @@
 package com.veterinaria.clinica_veternica.patterns.structural.bridge;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
+import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
+import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
 import com.veterinaria.clinica_veternica.repository.CitaRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,11 +14,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 
 /**
@@ -114,6 +128,66 @@ class ReporteBridgeTest {
         assertTrue(titulo.contains("2025-01-31"));
     }
 
+    @Test
+    @DisplayName("Debe escribir el reporte JSON en streaming fila a fila")
+    void debeEscribirReporteJsonEnStreaming() throws IOException {
+        when(citaRepository.streamEnRango(any(), any())).thenReturn(Stream.of(cita(1L, "Luna"), cita(2L, "Max")));
+        ReporteCitasAbstraction reporte = new ReporteCitasAbstraction(new ReporteJSONImpl(), citaRepository)
+                .setRangoFechas(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        reporte.generar(salida);
+
+        JsonNode json = new ObjectMapper().readTree(salida.toByteArray());
+        assertEquals("Reporte de Citas (2025-01-01 - 2025-01-31)", json.get("titulo").asText());
+        JsonNode datos = json.get("datos");
+        assertEquals("2025-01-01", datos.get("fechaInicio").asText());
+        assertEquals(2, datos.get("filas").size());
+        assertEquals("Luna", datos.get("filas").get(0).get("mascota").asText());
+        assertEquals("Dr. García", datos.get("filas").get(1).get("veterinario").asText());
+        assertEquals(2, datos.get("totalCitas").asInt());
+    }
+
+    @Test
+    @DisplayName("Debe escribir una línea por cita en el formato Excel y consultar todas sin rango")
+    void debeEscribirReporteExcelEnStreaming() throws IOException {
+        when(citaRepository.streamTodas()).thenReturn(Stream.of(cita(1L, "Luna\tBlanca"), cita(2L, "Max")));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        new ReporteCitasAbstraction(new ReporteExcelImpl(), citaRepository).generar(salida);
+
+        List<String> lineas = salida.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals("Reporte de Citas", lineas.get(0));
+        assertTrue(lineas.contains("id\tmascota\tveterinario\tfecha\thora\testado"));
+        assertTrue(lineas.contains("1\tLuna Blanca\tDr. García\t2025-01-10\t09:30\tCONFIRMADA"));
+        assertEquals("totalCitas\t2", lineas.get(lineas.size() - 1));
+        verify(citaRepository, never()).findAllConRelaciones();
+    }
+
+    @Test
+    @DisplayName("Debe acumular las filas para los formatos sin escritor incremental")
+    void debeAcumularFilasConEscritorPorDefecto() throws IOException {
+        when(citaRepository.streamTodas()).thenReturn(Stream.of(cita(1L, "Luna")));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        reporteCitas.generar(salida);
+
+        assertEquals("Reporte generado", salida.toString(StandardCharsets.UTF_8));
+        assertEquals(1L, implementorTest.datosRecibidos.get("totalCitas"));
+        assertEquals(1, ((List<?>) implementorTest.datosRecibidos.get("filas")).size());
+    }
+
+    private Cita cita(Long id, String nombreMascota) {
+        return Cita.builder()
+                .idCita(id)
+                .mascota(Mascota.builder().nombre(nombreMascota).build())
+                .veterinario(Veterinario.builder().nombres("Dr.").apellidos("García").build())
+                .fechaCita(LocalDate.of(2025, 1, 10))
+                .horaCita(LocalTime.of(9, 30))
+                .estado(EstadoCita.CONFIRMADA)
+                .build();
+    }
+
     // Implementación de prueba para el Bridge
     private static class TestReporteImplementor implements ReporteImplementor {
         boolean fueLlamado = false;
@@ -1,21 +1,24 @@
 package com.veterinaria.clinica_veternica.patterns.structural.facade;
 
+import com.veterinaria.clinica_veternica.config.BusquedaProperties;
 import com.veterinaria.clinica_veternica.dto.response.facade.BusquedaGlobalDTO;
 import com.veterinaria.clinica_veternica.dto.response.paciente.MascotaResponseDTO;
 import com.veterinaria.clinica_veternica.dto.response.paciente.PropietarioResponseDTO;
 import com.veterinaria.clinica_veternica.dto.response.usuario.VeterinarioResponseDTO;
+import com.veterinaria.clinica_veternica.exception.ValidationException;
 import com.veterinaria.clinica_veternica.service.interfaces.IMascotaService;
 import com.veterinaria.clinica_veternica.service.interfaces.IPropietarioService;
 import com.veterinaria.clinica_veternica.service.interfaces.IVeterinarioService;
 import com.veterinaria.clinica_veternica.util.ValidationHelper;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -38,11 +41,12 @@ class BusquedaFacadeServiceTest {
     @Mock
     private ValidationHelper validationHelper;
 
-    @InjectMocks
     private BusquedaFacadeService busquedaFacadeService;
 
     @BeforeEach
     void setUp() {
+        busquedaFacadeService = new BusquedaFacadeService(mascotaService, propietarioService,
+                veterinarioService, validationHelper, new BusquedaProperties());
         when(validationHelper.validateAndSanitizeSearchTerm(anyString(), anyInt()))
                 .thenAnswer(invocation -> invocation.getArgument(0));
     }
@@ -86,4 +90,47 @@ class BusquedaFacadeServiceTest {
         assertEquals(0, result.getTotalResultados());
         assertEquals(0, result.getTotalMascotas());
     }
+
+    @Test
+    @DisplayName("Debe consultar las tres entidades en paralelo")
+    void debeConsultarEntidadesEnParalelo() {
+        String termino = "luna";
+        String hiloLlamada = Thread.currentThread().getName();
+        List<String> hilos = Collections.synchronizedList(new ArrayList<>());
+
+        when(mascotaService.buscarPorNombre(termino)).thenAnswer(inv -> {
+            hilos.add(Thread.currentThread().getName());
+            return Collections.emptyList();
+        });
+        when(propietarioService.buscarPorNombre(termino)).thenAnswer(inv -> {
+            hilos.add(Thread.currentThread().getName());
+            return Collections.emptyList();
+        });
+        when(veterinarioService.buscarPorNombre(termino)).thenAnswer(inv -> {
+            hilos.add(Thread.currentThread().getName());
+            return Collections.emptyList();
+        });
+
+        busquedaFacadeService.busquedaGlobal(termino);
+
+        assertEquals(3, hilos.size());
+        assertTrue(hilos.stream().allMatch(h -> h.startsWith("busqueda-global-")));
+        assertFalse(hilos.contains(hiloLlamada));
+    }
+
+    @Test
+    @DisplayName("Debe propagar la excepción original de una de las búsquedas")
+    void debePropagarExcepcionOriginal() {
+        String termino = "x";
+        when(mascotaService.buscarPorNombre(termino)).thenReturn(Collections.emptyList());
+        when(propietarioService.buscarPorNombre(termino)).thenReturn(Collections.emptyList());
+        when(veterinarioService.buscarPorNombre(termino)).thenThrow(new ValidationException("Término no válido"));
+
+        assertThrows(ValidationException.class, () -> busquedaFacadeService.busquedaGlobal(termino));
+    }
+
+    @AfterEach
+    void tearDown() {
+        busquedaFacadeService.destroy();
+    }
 }
@@ -0,0 +1,144 @@
+package com.veterinaria.clinica_veternica.patterns.structural.facade;
+
+import com.veterinaria.clinica_veternica.config.DashboardProperties;
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.dto.response.facade.EstadisticasGeneralesDTO;
+import com.veterinaria.clinica_veternica.exception.BusinessException;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import com.veterinaria.clinica_veternica.repository.InventarioRepository;
+import com.veterinaria.clinica_veternica.repository.MascotaRepository;
+import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
+import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para la instantánea de estadísticas del dashboard
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("EstadisticasDashboardSnapshot Tests")
+class EstadisticasDashboardSnapshotTest {
+
+    @Mock
+    private MascotaRepository mascotaRepository;
+
+    @Mock
+    private PropietarioRepository propietarioRepository;
+
+    @Mock
+    private VeterinarioRepository veterinarioRepository;
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private InventarioRepository inventarioRepository;
+
+    private DashboardProperties properties;
+    private EstadisticasDashboardSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DashboardProperties();
+        properties.setSnapshotTtl(Duration.ofHours(1));
+
+        when(mascotaRepository.countMascotasActivas()).thenReturn(12L);
+        when(propietarioRepository.countPropietariosActivos()).thenReturn(8L);
+        when(veterinarioRepository.countVeterinariosActivos()).thenReturn(3L);
+        when(citaRepository.countCitasProgramadas()).thenReturn(5L);
+        when(citaRepository.countCitasPorFecha(LocalDate.now())).thenReturn(2L);
+        when(inventarioRepository.countInventariosConStockBajo()).thenReturn(4L);
+
+        snapshot = new EstadisticasDashboardSnapshot(mascotaRepository, propietarioRepository,
+                veterinarioRepository, citaRepository, inventarioRepository, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshot.destroy();
+    }
+
+    @Test
+    @DisplayName("Debe calcular las estadísticas con consultas COUNT")
+    void debeCalcularEstadisticasConConteos() {
+        EstadisticasGeneralesDTO result = snapshot.obtener();
+
+        assertEquals(12L, result.getTotalMascotas());
+        assertEquals(8L, result.getTotalPropietarios());
+        assertEquals(3L, result.getTotalVeterinarios());
+        assertEquals(5L, result.getTotalCitasProgramadas());
+        assertEquals(2L, result.getTotalCitasHoy());
+        assertEquals(4, result.getInsumosStockBajo());
+        verify(citaRepository, never()).findCitasProgramadas();
+        verify(inventarioRepository, never()).findInventariosConStockBajo();
+    }
+
+    @Test
+    @DisplayName("Debe reutilizar la instantánea mientras esté vigente")
+    void debeReutilizarInstantaneaVigente() {
+        snapshot.obtener();
+        snapshot.obtener();
+        snapshot.obtener();
+
+        assertEquals(1, snapshot.getRecalculos());
+        verify(mascotaRepository, times(1)).countMascotasActivas();
+    }
+
+    @Test
+    @DisplayName("Debe recalcular cuando un evento de cita invalida la instantánea")
+    void debeRecalcularTrasEventoDeCita() {
+        snapshot.obtener();
+        when(citaRepository.countCitasProgramadas()).thenReturn(6L);
+
+        snapshot.onCitaCreated(Cita.builder().idCita(1L).build());
+        EstadisticasGeneralesDTO result = snapshot.obtener();
+
+        assertEquals(6L, result.getTotalCitasProgramadas());
+        assertEquals(2, snapshot.getRecalculos());
+    }
+
+    @Test
+    @DisplayName("Debe recalcular cuando la instantánea vence")
+    void debeRecalcularAlVencer() {
+        properties.setSnapshotTtl(Duration.ZERO);
+
+        snapshot.obtener();
+        snapshot.obtener();
+
+        assertEquals(2, snapshot.getRecalculos());
+    }
+
+    @Test
+    @DisplayName("Debe devolver la instantánea anterior si el recálculo falla")
+    void debeDevolverInstantaneaAnteriorSiFalla() {
+        snapshot.obtener();
+        when(mascotaRepository.countMascotasActivas()).thenThrow(new IllegalStateException("BD no disponible"));
+
+        snapshot.invalidar();
+        EstadisticasGeneralesDTO result = snapshot.obtener();
+
+        assertEquals(12L, result.getTotalMascotas());
+    }
+
+    @Test
+    @DisplayName("Debe lanzar excepción si falla el primer cálculo")
+    void debeLanzarExcepcionSinInstantaneaPrevia() {
+        when(mascotaRepository.countMascotasActivas()).thenThrow(new IllegalStateException("BD no disponible"));
+
+        assertThrows(BusinessException.class, () -> snapshot.obtener());
+    }
+}
@@ -1,17 +1,23 @@
 package com.veterinaria.clinica_veternica.patterns.structural.facade;
 
+import com.veterinaria.clinica_veternica.domain.agenda.ConteoCitasVeterinario;
+import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
+import com.veterinaria.clinica_veternica.domain.agenda.ResumenCitasDia;
 import com.veterinaria.clinica_veternica.dto.response.agenda.CitaResponseDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.ReporteCitasDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.ReporteInventarioDTO;
 import com.veterinaria.clinica_veternica.dto.response.facade.ReporteVeterinariosDTO;
 import com.veterinaria.clinica_veternica.dto.response.inventario.InventarioResponseDTO;
 import com.veterinaria.clinica_veternica.patterns.creational.builder.ReporteBuilder;
+import com.veterinaria.clinica_veternica.repository.ResumenDiarioCitasRepository;
 import com.veterinaria.clinica_veternica.service.interfaces.ICitaService;
 import com.veterinaria.clinica_veternica.service.interfaces.IInventarioService;
+import com.veterinaria.clinica_veternica.service.reporte.AgregadorDiarioCitas;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -50,12 +56,19 @@ class ReporteFacadeServiceTest {
     @Mock
     private IInventarioService inventarioService;
 
+    @Mock
+    private ResumenDiarioCitasRepository resumenDiarioCitasRepository;
+
+    @Mock
+    private AgregadorDiarioCitas agregadorDiarioCitas;
+
     @InjectMocks
     private ReporteFacadeService reporteFacadeService;
 
     private LocalDate fechaInicio;
     private LocalDate fechaFin;
     private List<CitaResponseDTO> citasMock;
+    private List<ResumenCitasDia> conteosMock;
     private List<InventarioResponseDTO> inventariosMock;
 
     @BeforeEach
@@ -65,6 +78,7 @@ class ReporteFacadeServiceTest {
 
         // Preparar datos de prueba para citas
         citasMock = crearCitasMock();
+        conteosMock = crearConteosMock();
         inventariosMock = crearInventariosMock();
     }
 
@@ -75,6 +89,7 @@ class ReporteFacadeServiceTest {
     @Test
     @DisplayName("Debe generar reporte de citas con fechas válidas")
     void debeGenerarReporteCitasConFechasValidas() {
+        when(resumenDiarioCitasRepository.sumarPorDiaYEstado(fechaInicio, fechaFin)).thenReturn(conteosMock);
         when(citaService.listarPorRangoFechas(any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(citasMock);
 
@@ -94,6 +109,7 @@ class ReporteFacadeServiceTest {
     @Test
     @DisplayName("Debe contar correctamente citas por estado")
     void debeContarCorrectamenteCitasPorEstado() {
+        when(resumenDiarioCitasRepository.sumarPorDiaYEstado(fechaInicio, fechaFin)).thenReturn(conteosMock);
         when(citaService.listarPorRangoFechas(any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(citasMock);
 
@@ -103,11 +119,17 @@ class ReporteFacadeServiceTest {
         assertEquals(1L, resultado.getCitasAtendidas(), "Debe haber 1 cita atendida");
         assertEquals(1L, resultado.getCitasProgramadas(), "Debe haber 1 cita programada");
         assertEquals(1L, resultado.getCitasCanceladas(), "Debe haber 1 cita cancelada");
+        assertEquals(EstadoCita.values().length, resultado.getCitasPorEstado().size(),
+                "Debe incluir todos los estados");
+        assertEquals(0L, resultado.getCitasPorEstado().get("NO_ASISTIO"), "Los estados sin citas deben valer cero");
+        assertEquals(List.of(fechaInicio, fechaInicio.plusDays(1), fechaInicio.plusDays(2)),
+                List.copyOf(resultado.getCitasPorDia().keySet()), "Los días deben estar en orden");
     }
 
     @Test
     @DisplayName("Debe retornar reporte vacío cuando no hay citas")
     void debeRetornarReporteVacioSinCitas() {
+        when(resumenDiarioCitasRepository.sumarPorDiaYEstado(fechaInicio, fechaFin)).thenReturn(Collections.emptyList());
         when(citaService.listarPorRangoFechas(any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(Collections.emptyList());
 
@@ -119,6 +141,7 @@ class ReporteFacadeServiceTest {
         assertEquals(0L, resultado.getCitasProgramadas(), "No debe haber citas programadas");
         assertEquals(0L, resultado.getCitasCanceladas(), "No debe haber citas canceladas");
         assertTrue(resultado.getCitas().isEmpty(), "La lista de citas debe estar vacía");
+        assertTrue(resultado.getCitasPorDia().isEmpty(), "No debe haber días con citas");
 
         verify(citaService, times(1)).listarPorRangoFechas(any(LocalDateTime.class), any(LocalDateTime.class));
     }
@@ -126,6 +149,7 @@ class ReporteFacadeServiceTest {
     @Test
     @DisplayName("Debe convertir correctamente las fechas a LocalDateTime")
     void debeConvertirFechasALocalDateTime() {
+        when(resumenDiarioCitasRepository.sumarPorDiaYEstado(fechaInicio, fechaFin)).thenReturn(conteosMock);
         when(citaService.listarPorRangoFechas(any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(citasMock);
 
@@ -140,24 +164,70 @@ class ReporteFacadeServiceTest {
     @Test
     @DisplayName("Debe manejar múltiples citas con diferentes estados")
     void debeManejartMultiplesCitasConDiferentesEstados() {
-        List<CitaResponseDTO> citasVariadas = List.of(
-                CitaResponseDTO.builder().idCita(1L).estado("ATENDIDA").build(),
-                CitaResponseDTO.builder().idCita(2L).estado("ATENDIDA").build(),
-                CitaResponseDTO.builder().idCita(3L).estado("ATENDIDA").build(),
-                CitaResponseDTO.builder().idCita(4L).estado("PROGRAMADA").build(),
-                CitaResponseDTO.builder().idCita(5L).estado("PROGRAMADA").build(),
-                CitaResponseDTO.builder().idCita(6L).estado("CANCELADA").build()
+        List<ResumenCitasDia> conteosVariados = List.of(
+                new ResumenCitasDia(fechaInicio, EstadoCita.ATENDIDA, 2L, new BigDecimal("20.00")),
+                new ResumenCitasDia(fechaInicio, EstadoCita.ATENDIDA, 1L, new BigDecimal("10.00")),
+                new ResumenCitasDia(fechaInicio.plusDays(1), EstadoCita.PROGRAMADA, 2L, new BigDecimal("20.00")),
+                new ResumenCitasDia(fechaInicio.plusDays(1), EstadoCita.CANCELADA, 1L, new BigDecimal("10.00"))
         );
 
-        when(citaService.listarPorRangoFechas(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(citasVariadas);
+        when(resumenDiarioCitasRepository.sumarPorDiaYEstado(fechaInicio, fechaFin)).thenReturn(conteosVariados);
 
-        ReporteCitasDTO resultado = reporteFacadeService.generarReporteCitas(fechaInicio, fechaFin);
+        ReporteCitasDTO resultado = reporteFacadeService.generarReporteCitas(fechaInicio, fechaFin, false);
 
         assertEquals(6, resultado.getTotalCitas(), "Debe haber 6 citas totales");
         assertEquals(3L, resultado.getCitasAtendidas(), "Debe haber 3 citas atendidas");
         assertEquals(2L, resultado.getCitasProgramadas(), "Debe haber 2 citas programadas");
         assertEquals(1L, resultado.getCitasCanceladas(), "Debe haber 1 cita cancelada");
+        assertEquals(3L, resultado.getCitasPorDia().get(fechaInicio), "Debe sumar las citas de ambos veterinarios");
+        assertEquals(3L, resultado.getCitasPorDia().get(fechaInicio.plusDays(1)), "Debe sumar todos los estados del día");
+    }
+
+    @Test
+    @DisplayName("Debe contar en atención como atendidas y confirmadas como programadas")
+    void debeAgruparEstadosEquivalentes() {
+        when(resumenDiarioCitasRepository.sumarPorDiaYEstado(fechaInicio, fechaFin)).thenReturn(List.of(
+                new ResumenCitasDia(fechaInicio, EstadoCita.EN_ATENCION, 1L, new BigDecimal("10.00")),
+                new ResumenCitasDia(fechaInicio, EstadoCita.ATENDIDA, 1L, new BigDecimal("10.00")),
+                new ResumenCitasDia(fechaInicio, EstadoCita.CONFIRMADA, 2L, new BigDecimal("20.00")),
+                new ResumenCitasDia(fechaInicio, EstadoCita.NO_ASISTIO, 1L, new BigDecimal("10.00"))
+        ));
+
+        ReporteCitasDTO resultado = reporteFacadeService.generarReporteCitas(fechaInicio, fechaFin, false);
+
+        assertEquals(5, resultado.getTotalCitas(), "El total debe incluir todos los estados");
+        assertEquals(2L, resultado.getCitasAtendidas(), "Debe haber 2 citas atendidas");
+        assertEquals(2L, resultado.getCitasProgramadas(), "Debe haber 2 citas programadas");
+        assertEquals(1L, resultado.getCitasPorEstado().get("NO_ASISTIO"), "Debe contar las inasistencias");
+    }
+
+    @Test
+    @DisplayName("Debe omitir el detalle sin cargar las citas")
+    void debeOmitirDetalleSinCargarCitas() {
+        when(resumenDiarioCitasRepository.sumarPorDiaYEstado(fechaInicio, fechaFin)).thenReturn(conteosMock);
+
+        ReporteCitasDTO resultado = reporteFacadeService.generarReporteCitas(fechaInicio, fechaFin, false);
+
+        assertNull(resultado.getCitas(), "No debe incluir la lista de citas");
+        assertEquals(3, resultado.getTotalCitas(), "Los totales no dependen del detalle");
+        verifyNoInteractions(citaService);
+    }
+
+    @Test
+    @DisplayName("Debe actualizar el resumen del rango y sumar los ingresos de las citas atendidas")
+    void debeSumarIngresosDelResumenActualizado() {
+        when(resumenDiarioCitasRepository.sumarPorDiaYEstado(fechaInicio, fechaFin)).thenReturn(List.of(
+                new ResumenCitasDia(fechaInicio, EstadoCita.ATENDIDA, 2L, new BigDecimal("50.00")),
+                new ResumenCitasDia(fechaInicio, EstadoCita.CANCELADA, 1L, new BigDecimal("25.00")),
+                new ResumenCitasDia(fechaInicio.plusDays(1), EstadoCita.ATENDIDA, 1L, new BigDecimal("30.00"))
+        ));
+
+        ReporteCitasDTO resultado = reporteFacadeService.generarReporteCitas(fechaInicio, fechaFin, false);
+
+        assertEquals(new BigDecimal("80.00"), resultado.getIngresos(), "Solo deben sumar las citas atendidas");
+        InOrder orden = inOrder(agregadorDiarioCitas, resumenDiarioCitasRepository);
+        orden.verify(agregadorDiarioCitas).asegurarActualizado(fechaInicio, fechaFin);
+        orden.verify(resumenDiarioCitasRepository).sumarPorDiaYEstado(fechaInicio, fechaFin);
     }
 
     // ===================================================================
@@ -262,10 +332,8 @@ class ReporteFacadeServiceTest {
     @Test
     @DisplayName("Debe generar reporte de veterinarios con estadísticas")
     void debeGenerarReporteVeterinarios() {
-        List<CitaResponseDTO> citasConVeterinario = crearCitasConVeterinarioMock();
-
-        when(citaService.listarPorRangoFechas(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(citasConVeterinario);
+        when(resumenDiarioCitasRepository.sumarPorVeterinarioYEstado(fechaInicio, fechaFin))
+                .thenReturn(crearConteosVeterinarioMock());
 
         ReporteVeterinariosDTO resultado = reporteFacadeService.generarReporteVeterinarios(fechaInicio, fechaFin);
 
@@ -273,18 +341,23 @@ class ReporteFacadeServiceTest {
         assertEquals(fechaInicio, resultado.getFechaInicio(), "La fecha de inicio debe coincidir");
         assertEquals(fechaFin, resultado.getFechaFin(), "La fecha de fin debe coincidir");
         assertNotNull(resultado.getEstadisticasPorVeterinario(), "Las estadísticas no deben ser nulas");
-        assertTrue(resultado.getEstadisticasPorVeterinario().size() > 0, "Debe haber al menos un veterinario");
+        assertEquals(2, resultado.getEstadisticasPorVeterinario().size(), "Debe haber 2 veterinarios");
 
-        verify(citaService, times(1)).listarPorRangoFechas(any(LocalDateTime.class), any(LocalDateTime.class));
+        ReporteVeterinariosDTO.EstadisticaVeterinarioDTO primero = resultado.getEstadisticasPorVeterinario().get(0);
+        assertEquals(1L, primero.getIdVeterinario());
+        assertEquals("Juan Pérez", primero.getNombreVeterinario());
+        assertEquals("Cirugía", primero.getEspecialidad());
+        assertEquals(2L, primero.getTotalCitasAtendidas());
+        assertEquals(0L, primero.getTotalCitasProgramadas());
+
+        verifyNoInteractions(citaService);
     }
 
     @Test
     @DisplayName("Debe calcular correctamente atenciones por veterinario")
     void debeCalcularAtencionesPorVeterinario() {
-        List<CitaResponseDTO> citasConVeterinario = crearCitasConVeterinarioMock();
-
-        when(citaService.listarPorRangoFechas(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(citasConVeterinario);
+        when(resumenDiarioCitasRepository.sumarPorVeterinarioYEstado(fechaInicio, fechaFin))
+                .thenReturn(crearConteosVeterinarioMock());
 
         ReporteVeterinariosDTO resultado = reporteFacadeService.generarReporteVeterinarios(fechaInicio, fechaFin);
 
@@ -293,13 +366,13 @@ class ReporteFacadeServiceTest {
                 .sum();
 
         assertEquals(resultado.getTotalAtenciones(), totalAtenciones, "El total de atenciones debe ser consistente");
+        assertEquals(3L, resultado.getTotalAtenciones(), "Debe haber 3 atenciones");
     }
 
     @Test
     @DisplayName("Debe retornar reporte vacío sin veterinarios")
     void debeRetornarReporteVacioSinVeterinarios() {
-        when(citaService.listarPorRangoFechas(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Collections.emptyList());
+        when(resumenDiarioCitasRepository.sumarPorVeterinarioYEstado(fechaInicio, fechaFin)).thenReturn(Collections.emptyList());
 
         ReporteVeterinariosDTO resultado = reporteFacadeService.generarReporteVeterinarios(fechaInicio, fechaFin);
 
@@ -309,32 +382,25 @@ class ReporteFacadeServiceTest {
         assertEquals(0, resultado.getEstadisticasPorVeterinario().size(), "No debe haber veterinarios");
         assertEquals(0L, resultado.getTotalAtenciones(), "El total de atenciones debe ser cero");
 
-        verify(citaService, times(1)).listarPorRangoFechas(any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(resumenDiarioCitasRepository, times(1)).sumarPorVeterinarioYEstado(fechaInicio, fechaFin);
     }
 
     @Test
-    @DisplayName("Debe ignorar citas sin veterinario")
-    void debeIgnorarCitasSinVeterinario() {
-        List<CitaResponseDTO> citasConYSinVeterinario = List.of(
-                CitaResponseDTO.builder()
-                        .idCita(1L)
-                        .estado("ATENDIDA")
-                        .veterinario(null)
-                        .build(),
-                CitaResponseDTO.builder()
-                        .idCita(2L)
-                        .estado("ATENDIDA")
-                        .veterinario(crearVeterinarioMock(1L, "Dr. Juan", "Cirugía"))
-                        .build()
-        );
-
-        when(citaService.listarPorRangoFechas(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(citasConYSinVeterinario);
+    @DisplayName("Debe agrupar los estados de cada veterinario")
+    void debeAgruparEstadosPorVeterinario() {
+        when(resumenDiarioCitasRepository.sumarPorVeterinarioYEstado(fechaInicio, fechaFin)).thenReturn(List.of(
+                new ConteoCitasVeterinario(1L, "Juan", "Pérez", "Cirugía", EstadoCita.EN_ATENCION, 1L),
+                new ConteoCitasVeterinario(1L, "Juan", "Pérez", "Cirugía", EstadoCita.CONFIRMADA, 2L),
+                new ConteoCitasVeterinario(1L, "Juan", "Pérez", "Cirugía", EstadoCita.PROGRAMADA, 1L),
+                new ConteoCitasVeterinario(1L, "Juan", "Pérez", "Cirugía", EstadoCita.CANCELADA, 4L)
+        ));
 
         ReporteVeterinariosDTO resultado = reporteFacadeService.generarReporteVeterinarios(fechaInicio, fechaFin);
 
-        assertEquals(1, resultado.getEstadisticasPorVeterinario().size(),
-                "Debe haber solo 1 veterinario (ignorando citas sin veterinario)");
+        assertEquals(1, resultado.getEstadisticasPorVeterinario().size(), "Debe haber un solo veterinario");
+        ReporteVeterinariosDTO.EstadisticaVeterinarioDTO estadistica = resultado.getEstadisticasPorVeterinario().get(0);
+        assertEquals(1L, estadistica.getTotalCitasAtendidas(), "En atención cuenta como atendida");
+        assertEquals(3L, estadistica.getTotalCitasProgramadas(), "Confirmadas cuentan como programadas");
     }
 
     // ===================================================================
@@ -644,41 +710,24 @@ class ReporteFacadeServiceTest {
     }
 
     /**
-     * Crea citas con información de veterinario para pruebas.
+     * Crea el resumen diario equivalente a crearCitasMock.
      */
-    private List<CitaResponseDTO> crearCitasConVeterinarioMock() {
+    private List<ResumenCitasDia> crearConteosMock() {
         return List.of(
-                CitaResponseDTO.builder()
-                        .idCita(1L)
-                        .estado("ATENDIDA")
-                        .veterinario(crearVeterinarioMock(1L, "Dr. Juan", "Cirugía"))
-                        .build(),
-                CitaResponseDTO.builder()
-                        .idCita(2L)
-                        .estado("ATENDIDA")
-                        .veterinario(crearVeterinarioMock(1L, "Dr. Juan", "Cirugía"))
-                        .build(),
-                CitaResponseDTO.builder()
-                        .idCita(3L)
-                        .estado("PROGRAMADA")
-                        .veterinario(crearVeterinarioMock(2L, "Dra. María", "Medicina Interna"))
-                        .build(),
-                CitaResponseDTO.builder()
-                        .idCita(4L)
-                        .estado("ATENDIDA")
-                        .veterinario(crearVeterinarioMock(2L, "Dra. María", "Medicina Interna"))
-                        .build()
+                new ResumenCitasDia(fechaInicio, EstadoCita.ATENDIDA, 1L, new BigDecimal("10.00")),
+                new ResumenCitasDia(fechaInicio.plusDays(1), EstadoCita.PROGRAMADA, 1L, new BigDecimal("10.00")),
+                new ResumenCitasDia(fechaInicio.plusDays(2), EstadoCita.CANCELADA, 1L, new BigDecimal("10.00"))
         );
     }
 
     /**
-     * Crea un DTO de veterinario mock.
+     * Crea conteos por veterinario y estado para pruebas.
      */
-    private CitaResponseDTO.VeterinarioSimpleDTO crearVeterinarioMock(Long id, String nombre, String especialidad) {
-        return CitaResponseDTO.VeterinarioSimpleDTO.builder()
-                .idPersonal(id)
-                .nombreCompleto(nombre)
-                .especialidad(especialidad)
-                .build();
+    private List<ConteoCitasVeterinario> crearConteosVeterinarioMock() {
+        return List.of(
+                new ConteoCitasVeterinario(1L, "Juan", "Pérez", "Cirugía", EstadoCita.ATENDIDA, 2L),
+                new ConteoCitasVeterinario(2L, "María", "Gómez", "Medicina Interna", EstadoCita.ATENDIDA, 1L),
+                new ConteoCitasVeterinario(2L, "María", "Gómez", "Medicina Interna", EstadoCita.PROGRAMADA, 1L)
+        );
     }
 }
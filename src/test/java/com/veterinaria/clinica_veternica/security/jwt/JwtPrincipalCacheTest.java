@@ -0,0 +1,105 @@
+package com.veterinaria.clinica_veternica.security.jwt;
+
+import com.veterinaria.clinica_veternica.security.service.UserDetailsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para la caché de autenticación JWT
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JwtPrincipalCache Tests")
+class JwtPrincipalCacheTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    private JwtProperties jwtProperties;
+    private JwtUtils jwtUtils;
+    private JwtPrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRET);
+        jwtUtils = spy(new JwtUtils(jwtProperties));
+        principalCache = new JwtPrincipalCache(jwtUtils, userDetailsService, jwtProperties);
+    }
+
+    @Test
+    @DisplayName("Debe validar la firma y cargar el usuario una sola vez por token")
+    void debeReutilizarTokenYUsuario() {
+        String token = jwtUtils.generateTokenFromUsername("admin");
+        when(userDetailsService.loadUserByUsername("admin")).thenReturn(usuario("admin"));
+
+        Optional<UserDetails> primera = principalCache.autenticar(token);
+        Optional<UserDetails> segunda = principalCache.autenticar(token);
+
+        assertTrue(primera.isPresent());
+        assertSame(primera.get(), segunda.get());
+        verify(jwtUtils, times(1)).parseValidClaims(token);
+        verify(userDetailsService, times(1)).loadUserByUsername("admin");
+    }
+
+    @Test
+    @DisplayName("Debe volver a cargar el usuario tras invalidarlo")
+    void debeRecargarUsuarioInvalidado() {
+        String token = jwtUtils.generateTokenFromUsername("admin");
+        when(userDetailsService.loadUserByUsername("admin")).thenReturn(usuario("admin"));
+        principalCache.autenticar(token);
+
+        principalCache.invalidarUsuario("admin");
+        principalCache.autenticar(token);
+
+        verify(userDetailsService, times(2)).loadUserByUsername("admin");
+        verify(jwtUtils, times(1)).parseValidClaims(token);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un usuario bloqueado sin guardarlo en caché")
+    void debeRechazarUsuarioBloqueado() {
+        String token = jwtUtils.generateTokenFromUsername("bloqueado");
+        when(userDetailsService.loadUserByUsername("bloqueado"))
+                .thenThrow(new UsernameNotFoundException("Usuario bloqueado: bloqueado"));
+
+        assertThrows(UsernameNotFoundException.class, () -> principalCache.autenticar(token));
+        assertThrows(UsernameNotFoundException.class, () -> principalCache.autenticar(token));
+        verify(userDetailsService, times(2)).loadUserByUsername("bloqueado");
+    }
+
+    @Test
+    @DisplayName("No debe autenticar tokens expirados ni con firma inválida")
+    void noDebeAutenticarTokensInvalidos() {
+        jwtProperties.setExpiration(-1000L);
+        String expirado = jwtUtils.generateTokenFromUsername("admin");
+        String manipulado = expirado.substring(0, expirado.length() - 2) + "xx";
+
+        assertTrue(principalCache.autenticar(expirado).isEmpty());
+        assertTrue(principalCache.autenticar(manipulado).isEmpty());
+        assertTrue(principalCache.autenticar("no-es-un-token").isEmpty());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    private UserDetails usuario(String username) {
+        return User.builder()
+                .username(username)
+                .password("hash")
+                .roles("ADMIN")
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.veterinaria.clinica_veternica.service;
+
+import com.veterinaria.clinica_veternica.config.TestMailConfig;
+import com.veterinaria.clinica_veternica.domain.agenda.CategoriaServicio;
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.Servicio;
+import com.veterinaria.clinica_veternica.domain.agenda.TipoServicio;
+import com.veterinaria.clinica_veternica.domain.paciente.Especie;
+import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
+import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
+import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
+import com.veterinaria.clinica_veternica.dto.response.agenda.CitaResponseDTO;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import com.veterinaria.clinica_veternica.repository.EspecieRepository;
+import com.veterinaria.clinica_veternica.repository.MascotaRepository;
+import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
+import com.veterinaria.clinica_veternica.repository.ServicioRepository;
+import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import com.veterinaria.clinica_veternica.service.interfaces.ICitaService;
+import com.veterinaria.clinica_veternica.util.LimiteSentenciasSql;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración que limitan las sentencias SQL de los listados de citas (sin N+1)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000"
+})
+class CitaListadosIntegracionTest {
+
+    private static final int CITAS = 5;
+
+    @Autowired
+    private ICitaService citaService;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private VeterinarioRepository veterinarioRepository;
+
+    @Autowired
+    private MascotaRepository mascotaRepository;
+
+    @Autowired
+    private PropietarioRepository propietarioRepository;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private LimiteSentenciasSql limite;
+    private final List<Cita> citas = new ArrayList<>();
+    private LocalDate primeraFecha;
+
+    @BeforeEach
+    void setUp() {
+        limite = new LimiteSentenciasSql(entityManagerFactory);
+        primeraFecha = LocalDate.now().plusYears(7).plusDays(UUID.randomUUID().hashCode() & 0xFFF);
+        // Cada cita con relaciones distintas: un N+1 haría una consulta por fila
+        for (int i = 0; i < CITAS; i++) {
+            citas.add(citaRepository.save(nuevaCita(primeraFecha.plusDays(i))));
+        }
+    }
+
+    @Test
+    @DisplayName("Debe listar citas por rango, programadas y para recordatorio con una sola consulta")
+    void debeListarConUnaConsulta() {
+        List<CitaResponseDTO> enRango = limite.verificar(1, "listarPorRangoFechas", () ->
+                citaService.listarPorRangoFechas(primeraFecha.atStartOfDay(), primeraFecha.plusDays(CITAS).atStartOfDay()));
+        assertEquals(CITAS, enRango.size());
+        assertNotNull(enRango.get(0).getMascota().getPropietarioNombre());
+        assertNotNull(enRango.get(0).getMascota().getEspecie());
+        assertNotNull(enRango.get(0).getVeterinario().getNombreCompleto());
+        assertNotNull(enRango.get(0).getServicio().getNombre());
+
+        assertTrue(limite.verificar(1, "listarProgramadas", citaService::listarProgramadas).size() >= CITAS);
+        assertEquals(CITAS, limite.verificar(1, "listarParaRecordatorio", () ->
+                citaService.listarParaRecordatorio(primeraFecha.atStartOfDay(), primeraFecha.plusDays(CITAS).atStartOfDay())).size());
+        assertTrue(limite.verificar(1, "listarTodos", citaService::listarTodos).size() >= CITAS);
+        assertFalse(limite.verificar(1, "listarPagina", () -> citaService.listarPagina(null, 50)).getContenido().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe listar citas por mascota y por veterinario sin una consulta por fila")
+    void debeListarPorRelacionSinConsultaPorFila() {
+        Cita cita = citas.get(0);
+
+        assertEquals(1, limite.verificar(2, "listarPorMascota", () ->
+                citaService.listarPorMascota(cita.getMascota().getIdMascota())).size());
+        assertEquals(1, limite.verificar(2, "listarPorVeterinario", () ->
+                citaService.listarPorVeterinario(cita.getVeterinario().getIdPersonal())).size());
+    }
+
+    private Cita nuevaCita(LocalDate fecha) {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        Especie especie = especieRepository.save(Especie.builder().nombre("Especie-" + sufijo).activo(true).build());
+        Propietario propietario = propietarioRepository.save(Propietario.builder()
+                .documento(sufijo)
+                .tipoDocumento("CC")
+                .nombres("Ana")
+                .apellidos("Pérez")
+                .telefono("3001234567")
+                .email(sufijo + "@test.com")
+                .activo(true)
+                .build());
+        Mascota mascota = mascotaRepository.save(Mascota.builder()
+                .nombre("Luna")
+                .sexo("Hembra")
+                .esterilizado(false)
+                .activo(true)
+                .propietario(propietario)
+                .especie(especie)
+                .build());
+        Veterinario veterinario = veterinarioRepository.save(Veterinario.builder()
+                .nombres("Carlos")
+                .apellidos("Ruiz")
+                .documento("V" + sufijo)
+                .correo("v" + sufijo + "@test.com")
+                .telefono("3009876543")
+                .especialidad("General")
+                .registroProfesional("RP-" + sufijo)
+                .build());
+        Servicio servicio = servicioRepository.save(Servicio.builder()
+                .nombre("Consulta " + sufijo)
+                .tipoServicio(TipoServicio.CONSULTA_GENERAL)
+                .categoria(CategoriaServicio.CLINICO)
+                .precio(BigDecimal.TEN)
+                .duracionEstimadaMinutos(30)
+                .build());
+        return Cita.builder()
+                .mascota(mascota)
+                .veterinario(veterinario)
+                .servicio(servicio)
+                .fechaCita(fecha)
+                .horaCita(LocalTime.of(10, 0))
+                .duracionEstimadaMinutos(30)
+                .motivoConsulta("Control general de rutina")
+                .precioFinal(BigDecimal.TEN)
+                .build();
+    }
+}
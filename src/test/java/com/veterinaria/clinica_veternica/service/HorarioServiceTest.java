@@ -3,11 +3,16 @@ package com.veterinaria.clinica_veternica.service;
 import com.veterinaria.clinica_veternica.domain.agenda.Horario;
 import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
 import com.veterinaria.clinica_veternica.dto.request.agenda.HorarioRequestDTO;
+import com.veterinaria.clinica_veternica.config.DisponibilidadProperties;
+import com.veterinaria.clinica_veternica.dto.response.agenda.DisponibilidadVeterinarioDTO;
 import com.veterinaria.clinica_veternica.dto.response.agenda.HorarioResponseDTO;
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
+import com.veterinaria.clinica_veternica.exception.ValidationException;
 import com.veterinaria.clinica_veternica.mapper.agenda.HorarioMapper;
 import com.veterinaria.clinica_veternica.repository.HorarioRepository;
 import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import com.veterinaria.clinica_veternica.service.disponibilidad.AgendaDia;
+import com.veterinaria.clinica_veternica.service.disponibilidad.IndiceDisponibilidad;
 import com.veterinaria.clinica_veternica.service.impl.HorarioServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,6 +23,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
@@ -39,6 +46,12 @@ class HorarioServiceTest {
     @Mock
     private HorarioMapper horarioMapper;
 
+    @Mock
+    private IndiceDisponibilidad indiceDisponibilidad;
+
+    @Mock
+    private DisponibilidadProperties disponibilidadProperties;
+
     @InjectMocks
     private HorarioServiceImpl horarioService;
 
@@ -94,6 +107,7 @@ class HorarioServiceTest {
         assertNotNull(resultado);
         assertEquals(1L, resultado.getIdHorario());
         verify(horarioRepository, times(1)).save(any(Horario.class));
+        verify(indiceDisponibilidad).invalidarVeterinario(1L);
     }
 
     @Test
@@ -138,5 +152,37 @@ class HorarioServiceTest {
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
     }
-}
 
+    @Test
+    @DisplayName("DISPONIBILIDAD - Debe construir la disponibilidad desde el índice")
+    void testObtenerDisponibilidadDesdeIndice() {
+        LocalDate lunes = LocalDate.of(2030, 1, 7);
+        AgendaDia agenda = new AgendaDia(
+                List.of(new AgendaDia.Tramo(1L, 9 * 60, 10 * 60, 30, 1)),
+                List.of(new AgendaDia.CitaOcupada(5L, 9 * 60, 9 * 60 + 30, "PROGRAMADA", "Firulais", "Consulta")));
+        when(veterinarioRepository.findById(1L)).thenReturn(Optional.of(veterinario));
+        when(indiceDisponibilidad.agenda(1L, lunes)).thenReturn(agenda);
+
+        DisponibilidadVeterinarioDTO resultado = horarioService.obtenerDisponibilidad(1L, lunes);
+
+        assertTrue(resultado.getTieneHorarios());
+        assertEquals("Lunes", resultado.getDiaSemana());
+        assertEquals(2, resultado.getSlotsDisponibles().size());
+        assertFalse(resultado.getSlotsDisponibles().get(0).getDisponible());
+        assertTrue(resultado.getSlotsDisponibles().get(1).getDisponible());
+        assertEquals("Firulais", resultado.getCitasOcupadas().get(0).getNombreMascota());
+        verifyNoInteractions(horarioRepository);
+    }
+
+    @Test
+    @DisplayName("DISPONIBILIDAD - Debe rechazar un rango de días no válido")
+    void testBuscarProximaDisponibilidadRangoInvalido() {
+        when(disponibilidadProperties.getMaximoDiasBusqueda()).thenReturn(90);
+        LocalDateTime ahora = LocalDateTime.now();
+
+        assertThrows(ValidationException.class,
+                () -> horarioService.buscarProximaDisponibilidad(List.of(1L), ahora, 0));
+        assertThrows(ValidationException.class,
+                () -> horarioService.buscarProximaDisponibilidad(List.of(1L), ahora, 91));
+    }
+}
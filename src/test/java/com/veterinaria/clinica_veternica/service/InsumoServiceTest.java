@@ -3,6 +3,7 @@ package com.veterinaria.clinica_veternica.service;
 import com.veterinaria.clinica_veternica.domain.inventario.EstadoInsumo;
 import com.veterinaria.clinica_veternica.domain.inventario.Insumo;
 import com.veterinaria.clinica_veternica.domain.inventario.TipoInsumo;
+import com.veterinaria.clinica_veternica.domain.inventario.TipoMovimientoStock;
 import com.veterinaria.clinica_veternica.dto.request.inventario.InsumoRequestDTO;
 import com.veterinaria.clinica_veternica.dto.response.inventario.InsumoResponseDTO;
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
@@ -11,6 +12,7 @@ import com.veterinaria.clinica_veternica.mapper.inventario.InsumoMapper;
 import com.veterinaria.clinica_veternica.repository.InsumoRepository;
 import com.veterinaria.clinica_veternica.repository.TipoInsumoRepository;
 import com.veterinaria.clinica_veternica.service.impl.InsumoServiceImpl;
+import com.veterinaria.clinica_veternica.service.inventario.MotorMovimientosStock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -40,6 +42,9 @@ class InsumoServiceTest {
     @Mock
     private InsumoMapper insumoMapper;
 
+    @Mock
+    private MotorMovimientosStock motorMovimientosStock;
+
     @InjectMocks
     private InsumoServiceImpl insumoService;
 
@@ -102,6 +107,7 @@ class InsumoServiceTest {
         assertEquals(1L, resultado.getIdInsumo());
         assertEquals("Jeringas", resultado.getNombre());
         verify(insumoRepository, times(1)).save(any(Insumo.class));
+        verify(motorMovimientosStock).anotar(insumo, TipoMovimientoStock.ENTRADA, 100, "ALTA_INSUMO");
     }
 
     @Test
@@ -2,13 +2,21 @@ package com.veterinaria.clinica_veternica.service;
 
 import com.veterinaria.clinica_veternica.domain.inventario.Inventario;
 import com.veterinaria.clinica_veternica.domain.inventario.Insumo;
+import com.veterinaria.clinica_veternica.domain.inventario.MovimientoStock;
+import com.veterinaria.clinica_veternica.domain.inventario.SolicitudMovimientoStock;
+import com.veterinaria.clinica_veternica.domain.inventario.TipoMovimientoStock;
+import com.veterinaria.clinica_veternica.dto.request.inventario.MovimientoStockRequestDTO;
 import com.veterinaria.clinica_veternica.dto.response.inventario.InventarioResponseDTO;
+import com.veterinaria.clinica_veternica.dto.response.inventario.MovimientoStockResponseDTO;
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
 import com.veterinaria.clinica_veternica.mapper.inventario.InventarioMapper;
+import com.veterinaria.clinica_veternica.mapper.inventario.MovimientoStockMapper;
 import com.veterinaria.clinica_veternica.patterns.structural.proxy.InventarioProxy;
 import com.veterinaria.clinica_veternica.repository.InventarioRepository;
 import com.veterinaria.clinica_veternica.repository.InsumoRepository;
+import com.veterinaria.clinica_veternica.repository.MovimientoStockRepository;
 import com.veterinaria.clinica_veternica.service.impl.InventarioServiceImpl;
+import com.veterinaria.clinica_veternica.service.inventario.MotorMovimientosStock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,6 +24,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.Arrays;
 import java.util.List;
@@ -39,6 +48,15 @@ class InventarioServiceTest {
     @Mock
     private InventarioProxy inventarioProxy;
 
+    @Mock
+    private MotorMovimientosStock motorMovimientosStock;
+
+    @Mock
+    private MovimientoStockRepository movimientoStockRepository;
+
+    @Mock
+    private MovimientoStockMapper movimientoStockMapper;
+
     @InjectMocks
     private InventarioServiceImpl inventarioService;
 
@@ -88,46 +106,70 @@ class InventarioServiceTest {
     @Test
     @DisplayName("READ - Debe buscar inventario por insumo exitosamente")
     void testBuscarInventarioPorInsumoExitoso() {
-        when(insumoRepository.findById(1L)).thenReturn(Optional.of(insumo));
-        // El servicio usa findByInsumoWithFetch
-        when(inventarioRepository.findByInsumoWithFetch(insumo)).thenReturn(Optional.of(inventario));
-        // El servicio puede llamar a save si crea un nuevo inventario, pero en este caso ya existe
-        when(inventarioRepository.save(any(Inventario.class))).thenReturn(inventario);
+        when(inventarioRepository.findByIdInsumoWithFetch(1L)).thenReturn(Optional.of(inventario));
         when(inventarioMapper.toResponseDTO(inventario)).thenReturn(responseDTO);
 
         InventarioResponseDTO resultado = inventarioService.buscarPorInsumo(1L);
 
         assertNotNull(resultado);
         assertEquals(1L, resultado.getIdInventario());
+        verify(inventarioRepository, never()).save(any(Inventario.class));
     }
 
     @Test
     @DisplayName("READ - Debe lanzar excepción cuando insumo no existe")
     void testBuscarInventarioPorInsumoNoExiste() {
-        when(insumoRepository.findById(999L)).thenReturn(Optional.empty());
+        when(inventarioRepository.findByIdInsumoWithFetch(999L)).thenReturn(Optional.empty());
+        when(insumoRepository.existsById(999L)).thenReturn(false);
 
-        assertThrows(ResourceNotFoundException.class, () -> inventarioService.buscarPorInsumo(999L));
+        ResourceNotFoundException error = assertThrows(ResourceNotFoundException.class,
+                () -> inventarioService.buscarPorInsumo(999L));
+        assertTrue(error.getMessage().contains("Insumo"));
     }
 
     @Test
-    @DisplayName("READ - Debe listar todos los inventarios")
+    @DisplayName("READ - Debe listar todos los inventarios con una sola consulta y sin escrituras")
     void testListarTodosLosInventarios() {
-        List<Insumo> insumos = Arrays.asList(insumo);
         List<Inventario> inventarios = Arrays.asList(inventario);
         List<InventarioResponseDTO> responseDTOs = Arrays.asList(responseDTO);
-        
-        // El servicio llama a findInsumosActivos() y luego crea/obtiene inventarios
-        when(insumoRepository.findInsumosActivos()).thenReturn(insumos);
-        // El servicio usa findByInsumoWithFetch dentro de obtenerOcrearInventario
-        when(inventarioRepository.findByInsumoWithFetch(insumo)).thenReturn(Optional.of(inventario));
-        // El servicio puede llamar a save para sincronizar
-        when(inventarioRepository.save(any(Inventario.class))).thenReturn(inventario);
-        when(inventarioMapper.toResponseDTOList(anyList())).thenReturn(responseDTOs);
+        when(inventarioRepository.findAllWithInsumo()).thenReturn(inventarios);
+        when(inventarioMapper.toResponseDTOList(inventarios)).thenReturn(responseDTOs);
 
         List<InventarioResponseDTO> resultado = inventarioService.listarTodos();
 
-        assertNotNull(resultado);
         assertEquals(1, resultado.size());
+        verify(inventarioRepository, never()).save(any(Inventario.class));
+        verifyNoInteractions(insumoRepository);
+    }
+
+    @Test
+    @DisplayName("MOVIMIENTOS - Debe aplicar el lote de movimientos con el motor de stock")
+    void debeAplicarLoteDeMovimientos() {
+        List<MovimientoStockRequestDTO> requestDTOs = List.of(MovimientoStockRequestDTO.builder()
+                .idInsumo(1L).tipo(TipoMovimientoStock.SALIDA).cantidad(2).build());
+        List<SolicitudMovimientoStock> solicitudes = List.of(
+                new SolicitudMovimientoStock(1L, TipoMovimientoStock.SALIDA, 2, null));
+        List<MovimientoStock> movimientos = List.of(MovimientoStock.builder()
+                .idMovimiento(7L).idInsumo(1L).tipo(TipoMovimientoStock.SALIDA).cantidad(-2).stockResultante(98).build());
+        List<MovimientoStockResponseDTO> responseDTOs = List.of(MovimientoStockResponseDTO.builder()
+                .idMovimiento(7L).stockResultante(98).build());
+        when(movimientoStockMapper.toSolicitudList(requestDTOs)).thenReturn(solicitudes);
+        when(motorMovimientosStock.aplicarLote(solicitudes)).thenReturn(movimientos);
+        when(movimientoStockMapper.toResponseDTOList(movimientos)).thenReturn(responseDTOs);
+
+        List<MovimientoStockResponseDTO> resultado = inventarioService.aplicarMovimientos(requestDTOs);
+
+        assertEquals(98, resultado.get(0).getStockResultante());
     }
-}
 
+    @Test
+    @DisplayName("MOVIMIENTOS - Debe listar los movimientos de un insumo con el límite normalizado")
+    void debeListarMovimientosDeInsumo() {
+        when(insumoRepository.existsById(1L)).thenReturn(true);
+        when(movimientoStockRepository.findUltimosPorInsumo(1L, PageRequest.of(0, 100))).thenReturn(List.of());
+        when(movimientoStockMapper.toResponseDTOList(List.of())).thenReturn(List.of());
+
+        assertTrue(inventarioService.listarMovimientos(1L, 5000).isEmpty());
+        assertThrows(ResourceNotFoundException.class, () -> inventarioService.listarMovimientos(999L, null));
+    }
+}
@@ -6,6 +6,7 @@ import com.veterinaria.clinica_veternica.dto.response.paciente.MascotaResponseDT
 import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
 import com.veterinaria.clinica_veternica.mapper.paciente.MascotaMapper;
 import com.veterinaria.clinica_veternica.repository.*;
+import com.veterinaria.clinica_veternica.service.busqueda.IndiceBusqueda;
 import com.veterinaria.clinica_veternica.service.impl.MascotaServiceImpl;
 import com.veterinaria.clinica_veternica.util.ValidationHelper;
 import org.junit.jupiter.api.BeforeEach;
@@ -60,6 +61,9 @@ class MascotaServiceTest {
     private com.veterinaria.clinica_veternica.patterns.creational.abstractfactory.EmailNotificacionFactory emailFactory;
 
 
+    @Mock
+    private IndiceBusqueda indiceBusqueda;
+
     @InjectMocks
     private MascotaServiceImpl mascotaService;
 
@@ -25,6 +25,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -141,7 +142,7 @@ class NotificacionServiceTest {
     @DisplayName("READ - Debe buscar notificación por ID exitosamente")
     void testBuscarNotificacionPorIdExitoso() {
         when(comunicacionRepository.findById(1L)).thenReturn(Optional.of(comunicacion));
-        when(usuarioRepository.findByEmail(anyString())).thenReturn(Optional.of(usuario));
+        when(usuarioRepository.findByEmailsEnMinusculas(anyCollection())).thenReturn(List.of(usuario));
 
         NotificacionResponseDTO resultado = notificacionService.buscarPorId(1L);
 
@@ -161,12 +162,38 @@ class NotificacionServiceTest {
     void testListarTodasLasNotificaciones() {
         List<Comunicacion> comunicaciones = Arrays.asList(comunicacion);
         when(comunicacionRepository.findByTipo(anyString())).thenReturn(comunicaciones);
-        when(usuarioRepository.findByEmail(anyString())).thenReturn(Optional.of(usuario));
+        when(usuarioRepository.findByEmailsEnMinusculas(anyCollection())).thenReturn(List.of(usuario));
 
         List<NotificacionResponseDTO> resultado = notificacionService.listarTodas();
 
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
+        assertEquals(1L, resultado.get(0).getIdUsuario());
+    }
+
+    @Test
+    @DisplayName("READ - Debe cargar los destinatarios de una página con una sola consulta")
+    void testListarPaginaCargaDestinatariosEnLote() {
+        Comunicacion otra = Comunicacion.builder()
+                .idComunicacion(2L)
+                .canal("EMAIL")
+                .destinatarioEmail("TEST@example.com")
+                .asunto("Recordatorio de cita")
+                .mensaje("Tienes una cita mañana")
+                .enviada(false)
+                .build();
+        when(comunicacionRepository.findPaginaKeysetPorTipo(anyString(), anyLong(), any()))
+                .thenReturn(List.of(comunicacion, otra));
+        when(usuarioRepository.findByEmailsEnMinusculas(anyCollection())).thenReturn(List.of(usuario));
+
+        List<NotificacionResponseDTO> resultado = notificacionService.listarPagina(null, 10).getContenido();
+
+        assertEquals(2, resultado.size());
+        assertTrue(resultado.stream().allMatch(n -> Long.valueOf(1L).equals(n.getIdUsuario())));
+        verify(usuarioRepository).findByEmailsEnMinusculas(Set.of("test@example.com"));
+        verify(usuarioRepository, never()).findByEmail(anyString());
+        verify(personalRepository).findByUsuarios(List.of(usuario));
+        verify(propietarioRepository).findByEmailsEnMinusculas(Set.of("test@example.com"));
     }
 }
 
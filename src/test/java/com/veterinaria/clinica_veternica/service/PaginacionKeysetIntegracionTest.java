@@ -0,0 +1,167 @@
+package com.veterinaria.clinica_veternica.service;
+
+import com.veterinaria.clinica_veternica.config.TestMailConfig;
+import com.veterinaria.clinica_veternica.domain.paciente.Especie;
+import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
+import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
+import com.veterinaria.clinica_veternica.dto.response.PaginaKeysetDTO;
+import com.veterinaria.clinica_veternica.dto.response.paciente.MascotaResponseDTO;
+import com.veterinaria.clinica_veternica.dto.response.paciente.PropietarioResponseDTO;
+import com.veterinaria.clinica_veternica.exception.ValidationException;
+import com.veterinaria.clinica_veternica.repository.EspecieRepository;
+import com.veterinaria.clinica_veternica.repository.MascotaRepository;
+import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
+import com.veterinaria.clinica_veternica.service.interfaces.IMascotaService;
+import com.veterinaria.clinica_veternica.service.interfaces.IPropietarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para la paginación keyset y el recorrido en streaming
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000"
+})
+class PaginacionKeysetIntegracionTest {
+
+    @Autowired
+    private IMascotaService mascotaService;
+
+    @Autowired
+    private IPropietarioService propietarioService;
+
+    @Autowired
+    private MascotaRepository mascotaRepository;
+
+    @Autowired
+    private PropietarioRepository propietarioRepository;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+
+    private final List<Long> idsCreados = new ArrayList<>();
+    private Long idPropietario;
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        Especie especie = especieRepository.save(Especie.builder()
+                .nombre("Especie-" + sufijo)
+                .activo(true)
+                .build());
+        Propietario propietario = propietarioRepository.save(Propietario.builder()
+                .documento(sufijo)
+                .tipoDocumento("CC")
+                .nombres("Ana")
+                .apellidos("Pérez")
+                .telefono("3001234567")
+                .email(sufijo + "@test.com")
+                .activo(true)
+                .build());
+        idPropietario = propietario.getIdPropietario();
+        for (int i = 0; i < 7; i++) {
+            Mascota mascota = mascotaRepository.save(Mascota.builder()
+                    .nombre("Mascota " + i)
+                    .sexo("Macho")
+                    .esterilizado(false)
+                    .activo(i % 2 == 0)
+                    .propietario(propietario)
+                    .especie(especie)
+                    .build());
+            idsCreados.add(mascota.getIdMascota());
+        }
+    }
+
+    @Test
+    @DisplayName("Debe recorrer todas las páginas sin repetir ni omitir filas")
+    void debeRecorrerTodasLasPaginas() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaKeysetDTO<MascotaResponseDTO> pagina = mascotaService.listarPagina(cursor, 3, false);
+            assertTrue(pagina.getTamanio() <= 3);
+            pagina.getContenido().forEach(m -> ids.add(m.getIdMascota()));
+            cursor = pagina.getSiguienteCursor();
+            assertEquals(pagina.isHayMas(), cursor != null);
+            paginas++;
+        } while (cursor != null && paginas < 1000);
+
+        assertEquals(mascotaRepository.count(), ids.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertTrue(ids.containsAll(idsCreados));
+    }
+
+    @Test
+    @DisplayName("Debe filtrar mascotas activas en la paginación")
+    void debeFiltrarActivas() {
+        PaginaKeysetDTO<MascotaResponseDTO> pagina = mascotaService.listarPagina(null, 100, true);
+
+        assertTrue(pagina.getContenido().stream().allMatch(MascotaResponseDTO::getActivo));
+    }
+
+    @Test
+    @DisplayName("Debe recorrer en streaming las mismas mascotas que la paginación")
+    void debeRecorrerEnStreaming() {
+        List<Long> ids = new ArrayList<>();
+
+        mascotaService.recorrerTodas(false, mascota -> ids.add(mascota.getIdMascota()));
+
+        assertEquals(mascotaRepository.count(), ids.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertTrue(ids.containsAll(idsCreados));
+    }
+
+    @Test
+    @DisplayName("Debe contar las mascotas de cada propietario en la paginación y en streaming")
+    void debeContarMascotasDePropietarios() {
+        List<PropietarioResponseDTO> recorridos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaKeysetDTO<PropietarioResponseDTO> pagina = propietarioService.listarPagina(cursor, 2, false);
+            recorridos.addAll(pagina.getContenido());
+            cursor = pagina.getSiguienteCursor();
+            paginas++;
+        } while (cursor != null && paginas < 1000);
+        List<PropietarioResponseDTO> enStreaming = new ArrayList<>();
+        propietarioService.recorrerTodos(false, enStreaming::add);
+
+        assertEquals(propietarioRepository.count(), recorridos.size());
+        assertEquals(recorridos.stream().map(PropietarioResponseDTO::getIdPropietario).toList(),
+                enStreaming.stream().map(PropietarioResponseDTO::getIdPropietario).toList());
+        assertEquals(7, cantidadMascotas(recorridos));
+        assertEquals(7, cantidadMascotas(enStreaming));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un cursor no válido")
+    void debeRechazarCursorInvalido() {
+        assertThrows(ValidationException.class, () -> mascotaService.listarPagina("no-es-un-cursor", 3, false));
+    }
+
+    private int cantidadMascotas(List<PropietarioResponseDTO> propietarios) {
+        return propietarios.stream()
+                .filter(propietario -> propietario.getIdPropietario().equals(idPropietario))
+                .findFirst()
+                .orElseThrow()
+                .getCantidadMascotas();
+    }
+}
@@ -7,6 +7,7 @@ import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
 
 import com.veterinaria.clinica_veternica.mapper.paciente.PropietarioMapper;
 import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
+import com.veterinaria.clinica_veternica.service.busqueda.IndiceBusqueda;
 import com.veterinaria.clinica_veternica.service.impl.PropietarioServiceImpl;
 import com.veterinaria.clinica_veternica.util.ValidationHelper;
 import org.junit.jupiter.api.BeforeEach;
@@ -41,6 +42,9 @@ class PropietarioServiceTest {
     @Mock
     private com.veterinaria.clinica_veternica.patterns.structural.proxy.CachedServiceProxy cachedServiceProxy;
 
+    @Mock
+    private IndiceBusqueda indiceBusqueda;
+
     @InjectMocks
     private PropietarioServiceImpl propietarioService;
 
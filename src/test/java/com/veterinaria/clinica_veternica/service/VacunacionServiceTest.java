@@ -11,6 +11,7 @@ import com.veterinaria.clinica_veternica.mapper.clinico.VacunacionMapper;
 import com.veterinaria.clinica_veternica.repository.HistoriaClinicaRepository;
 import com.veterinaria.clinica_veternica.repository.VacunacionRepository;
 import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import com.veterinaria.clinica_veternica.service.comunicacion.ProgramadorRecordatoriosVacunas;
 import com.veterinaria.clinica_veternica.service.impl.VacunacionServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -44,6 +45,9 @@ class VacunacionServiceTest {
     @Mock
     private VacunacionMapper vacunacionMapper;
 
+    @Mock
+    private ProgramadorRecordatoriosVacunas programadorRecordatoriosVacunas;
+
     @InjectMocks
     private VacunacionServiceImpl vacunacionService;
 
@@ -111,6 +115,7 @@ class VacunacionServiceTest {
         assertEquals(1L, resultado.getIdVacunacion());
         assertEquals("Rabia", resultado.getNombreVacuna());
         verify(vacunacionRepository, times(1)).save(any(Vacunacion.class));
+        verify(programadorRecordatoriosVacunas).programar(vacunacion.getFechaProximaDosis());
     }
 
     @Test
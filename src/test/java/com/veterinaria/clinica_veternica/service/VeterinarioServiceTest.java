@@ -8,6 +8,7 @@ import com.veterinaria.clinica_veternica.exception.ValidationException;
 import com.veterinaria.clinica_veternica.mapper.usuario.VeterinarioMapper;
 import com.veterinaria.clinica_veternica.repository.UsuarioRepository;
 import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import com.veterinaria.clinica_veternica.service.busqueda.IndiceBusqueda;
 import com.veterinaria.clinica_veternica.service.impl.VeterinarioServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -37,6 +38,9 @@ class VeterinarioServiceTest {
     @Mock
     private VeterinarioMapper veterinarioMapper;
 
+    @Mock
+    private IndiceBusqueda indiceBusqueda;
+
     @InjectMocks
     private VeterinarioServiceImpl veterinarioService;
 
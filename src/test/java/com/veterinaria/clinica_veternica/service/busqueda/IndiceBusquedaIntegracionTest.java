@@ -0,0 +1,132 @@
+package com.veterinaria.clinica_veternica.service.busqueda;
+
+import com.veterinaria.clinica_veternica.config.TestMailConfig;
+import com.veterinaria.clinica_veternica.domain.paciente.Especie;
+import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
+import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
+import com.veterinaria.clinica_veternica.dto.response.paciente.MascotaResponseDTO;
+import com.veterinaria.clinica_veternica.repository.EspecieRepository;
+import com.veterinaria.clinica_veternica.repository.MascotaRepository;
+import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
+import com.veterinaria.clinica_veternica.service.interfaces.IMascotaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para el índice de búsqueda y su sincronización con las entidades
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000"
+})
+class IndiceBusquedaIntegracionTest {
+
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    @Autowired
+    private IMascotaService mascotaService;
+
+    @Autowired
+    private MascotaRepository mascotaRepository;
+
+    @Autowired
+    private PropietarioRepository propietarioRepository;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+
+    private String sufijo;
+    private Propietario propietario;
+    private Especie especie;
+
+    @BeforeEach
+    void setUp() {
+        indiceBusqueda.cargar();
+        sufijo = letrasAleatorias();
+        especie = especieRepository.save(Especie.builder().nombre("Especie-" + sufijo).activo(true).build());
+        propietario = propietarioRepository.save(Propietario.builder()
+                .documento(UUID.randomUUID().toString().substring(0, 8))
+                .tipoDocumento("CC")
+                .nombres("Ana" + sufijo)
+                .apellidos("Pérez")
+                .telefono("3001234567")
+                .email(sufijo + "@test.com")
+                .activo(true)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Debe indexar altas y cambios de entidades guardadas")
+    void debeIndexarAltasYCambios() {
+        Mascota mascota = mascotaRepository.save(nuevaMascota("Toby" + sufijo));
+
+        assertEquals(List.of(mascota.getIdMascota()),
+                indiceBusqueda.buscar(IndiceBusqueda.Tipo.MASCOTA, "toby" + sufijo).orElseThrow());
+        assertEquals(List.of(propietario.getIdPropietario()),
+                indiceBusqueda.buscar(IndiceBusqueda.Tipo.PROPIETARIO, "ana" + sufijo).orElseThrow());
+
+        String nuevoNombre = "Rex" + letrasAleatorias();
+        mascota.setNombre(nuevoNombre);
+        mascotaRepository.save(mascota);
+
+        assertTrue(indiceBusqueda.buscar(IndiceBusqueda.Tipo.MASCOTA, "toby" + sufijo).orElseThrow().isEmpty());
+        assertEquals(List.of(mascota.getIdMascota()),
+                indiceBusqueda.buscar(IndiceBusqueda.Tipo.MASCOTA, nuevoNombre).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Debe quitar del índice las entidades eliminadas")
+    void debeQuitarEliminadas() {
+        Mascota mascota = mascotaRepository.save(nuevaMascota("Kira" + sufijo));
+
+        mascotaRepository.delete(mascota);
+
+        assertTrue(indiceBusqueda.buscar(IndiceBusqueda.Tipo.MASCOTA, "kira" + sufijo).orElseThrow().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe devolver las mascotas ordenadas por relevancia")
+    void debeOrdenarResultadosDelServicio() {
+        Mascota contenida = mascotaRepository.save(nuevaMascota("Pa" + sufijo + "zafiro"));
+        Mascota exacta = mascotaRepository.save(nuevaMascota(sufijo + "zafiro"));
+
+        List<MascotaResponseDTO> resultado = mascotaService.buscarPorNombre(sufijo + "zafiro");
+
+        assertEquals(List.of(exacta.getIdMascota(), contenida.getIdMascota()),
+                resultado.stream().map(MascotaResponseDTO::getIdMascota).toList());
+    }
+
+    private Mascota nuevaMascota(String nombre) {
+        return Mascota.builder()
+                .nombre(nombre)
+                .sexo("Macho")
+                .esterilizado(false)
+                .activo(true)
+                .propietario(propietario)
+                .especie(especie)
+                .build();
+    }
+
+    private static String letrasAleatorias() {
+        return ThreadLocalRandom.current().ints(6, 'a', 'z' + 1)
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString();
+    }
+}
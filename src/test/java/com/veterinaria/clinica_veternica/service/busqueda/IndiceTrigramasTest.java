@@ -0,0 +1,82 @@
+package com.veterinaria.clinica_veternica.service.busqueda;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para el índice invertido de trigramas
+ */
+@DisplayName("IndiceTrigramas Tests")
+class IndiceTrigramasTest {
+
+    private static final double SIMILITUD = 0.3;
+
+    private IndiceTrigramas indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceTrigramas();
+        indice.indexar(1L, "Luna");
+        indice.indexar(2L, "Lunares");
+        indice.indexar(3L, "Paluna");
+        indice.indexar(4L, "Max");
+        indice.indexar(5L, "María José Gómez");
+    }
+
+    @Test
+    @DisplayName("Debe ordenar por exacta, prefijo y contenida")
+    void debeOrdenarPorRelevancia() {
+        assertEquals(List.of(1L, 2L, 3L), indice.buscar("luna", 10, SIMILITUD).subList(0, 3));
+    }
+
+    @Test
+    @DisplayName("Debe encontrar por prefijo corto")
+    void debeEncontrarPorPrefijoCorto() {
+        assertEquals(List.of(4L, 5L), indice.buscar("ma", 10, SIMILITUD));
+    }
+
+    @Test
+    @DisplayName("Debe tolerar errores de escritura")
+    void debeTolerarErroresDeEscritura() {
+        assertTrue(indice.buscar("lunna", 10, SIMILITUD).contains(1L));
+        assertTrue(indice.buscar("gomes", 10, SIMILITUD).contains(5L));
+    }
+
+    @Test
+    @DisplayName("Debe ignorar tildes y mayúsculas y exigir todas las palabras")
+    void debeExigirTodasLasPalabras() {
+        assertEquals(List.of(5L), indice.buscar("JOSE gomez", 10, SIMILITUD));
+        assertTrue(indice.buscar("jose luna", 10, SIMILITUD).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe reflejar cambios y bajas")
+    void debeReflejarCambiosYBajas() {
+        indice.indexar(4L, "Rocky");
+        indice.eliminar(1L);
+
+        assertTrue(indice.buscar("max", 10, SIMILITUD).isEmpty());
+        assertEquals(List.of(4L), indice.buscar("rocky", 10, SIMILITUD));
+        assertFalse(indice.buscar("luna", 10, SIMILITUD).contains(1L));
+        assertEquals(4, indice.tamanio());
+    }
+
+    @Test
+    @DisplayName("No debe pisar un documento ya indexado en la carga inicial")
+    void noDebePisarDocumentoEnCarga() {
+        indice.indexarSiAusente(4L, "Texto viejo");
+
+        assertEquals(List.of(4L), indice.buscar("max", 10, SIMILITUD));
+    }
+
+    @Test
+    @DisplayName("Debe respetar el límite de resultados")
+    void debeRespetarLimite() {
+        assertEquals(List.of(1L), indice.buscar("luna", 1, SIMILITUD));
+    }
+}
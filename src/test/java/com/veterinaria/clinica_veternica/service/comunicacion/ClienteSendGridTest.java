@@ -0,0 +1,84 @@
+package com.veterinaria.clinica_veternica.service.comunicacion;
+
+import com.veterinaria.clinica_veternica.config.ComunicacionesProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para el cliente HTTP de SendGrid contra un servidor local
+ */
+@DisplayName("ClienteSendGrid Tests")
+class ClienteSendGridTest {
+
+    private ServidorSendGridStub servidor;
+    private ComunicacionesProperties properties;
+    private ClienteSendGrid cliente;
+
+    @BeforeEach
+    void setUp() {
+        servidor = new ServidorSendGridStub();
+        properties = new ComunicacionesProperties();
+        properties.setSendgridUrl(servidor.url());
+        cliente = new ClienteSendGrid(properties, "clave-prueba", "clinica@test.com", "Clínica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        cliente.destroy();
+        servidor.close();
+    }
+
+    @Test
+    @DisplayName("Debe enviar una personalización por destinatario en una sola petición")
+    void debeEnviarUnaPersonalizacionPorDestinatario() {
+        ResultadoEnvio resultado = cliente.enviar(List.of("a@test.com", "b@test.com"), "Asunto", "<p>Hola</p>");
+
+        assertTrue(resultado.exitoso());
+        assertEquals("msg-1", resultado.idExterno());
+        assertEquals(1, servidor.peticiones().size());
+        ServidorSendGridStub.Peticion peticion = servidor.peticiones().get(0);
+        assertEquals("Bearer clave-prueba", peticion.autorizacion());
+        assertEquals(2, peticion.cuerpo().path("personalizations").size());
+        assertEquals(List.of("a@test.com", "b@test.com"), peticion.destinatarios());
+        assertEquals("clinica@test.com", peticion.cuerpo().path("from").path("email").asText());
+        assertEquals("<p>Hola</p>", peticion.cuerpo().path("content").get(0).path("value").asText());
+    }
+
+    @Test
+    @DisplayName("Debe devolver fallo cuando SendGrid responde con error")
+    void debeDevolverFalloConRespuestaDeError() {
+        servidor.fallarSiAsunto("Asunto"::equals);
+
+        ResultadoEnvio resultado = cliente.enviar(List.of("a@test.com"), "Asunto", "<p>Hola</p>");
+
+        assertFalse(resultado.exitoso());
+        assertEquals("HTTP 500", resultado.error());
+    }
+
+    @Test
+    @DisplayName("Debe devolver fallo de conexión sin lanzar excepción")
+    void debeDevolverFalloDeConexion() {
+        properties.setSendgridUrl("http://127.0.0.1:1/v3/mail/send");
+
+        ResultadoEnvio resultado = cliente.enviarAsync(List.of("a@test.com"), "Asunto", "<p>Hola</p>").join();
+
+        assertFalse(resultado.exitoso());
+        assertTrue(resultado.error().startsWith("Error de conexión"));
+    }
+
+    @Test
+    @DisplayName("No debe enviar sin API Key configurada")
+    void noDebeEnviarSinApiKey() {
+        ClienteSendGrid sinClave = new ClienteSendGrid(properties, "", "clinica@test.com", "Clínica");
+
+        assertFalse(sinClave.enviar(List.of("a@test.com"), "Asunto", "<p>Hola</p>").exitoso());
+        assertTrue(servidor.peticiones().isEmpty());
+        sinClave.destroy();
+    }
+}
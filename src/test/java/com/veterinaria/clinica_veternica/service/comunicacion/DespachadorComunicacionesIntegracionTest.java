@@ -0,0 +1,164 @@
+package com.veterinaria.clinica_veternica.service.comunicacion;
+
+import com.veterinaria.clinica_veternica.config.TestMailConfig;
+import com.veterinaria.clinica_veternica.domain.comunicacion.Comunicacion;
+import com.veterinaria.clinica_veternica.repository.ComunicacionRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para el despachador de comunicaciones programadas contra un
+ * servidor SendGrid simulado
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000",
+    "sendgrid.api.key=clave-prueba"
+})
+class DespachadorComunicacionesIntegracionTest {
+
+    private static final ServidorSendGridStub SERVIDOR = new ServidorSendGridStub();
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registry) {
+        registry.add("app.comunicaciones.sendgrid-url", SERVIDOR::url);
+    }
+
+    @AfterAll
+    static void cerrarServidor() {
+        SERVIDOR.close();
+    }
+
+    @Autowired
+    private DespachadorComunicaciones despachador;
+
+    @Autowired
+    private ComunicacionRepository comunicacionRepository;
+
+    private String asunto;
+
+    @BeforeEach
+    void setUp() {
+        SERVIDOR.reiniciar();
+        asunto = "Recordatorio " + UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Debe enviar las comunicaciones vencidas agrupando las de igual contenido")
+    void debeEnviarVencidasAgrupandoPorContenido() {
+        LocalDateTime pasada = LocalDateTime.now().minusMinutes(5);
+        Comunicacion a = guardar("a@test.com", "Mensaje común", pasada);
+        Comunicacion b = guardar("b@test.com", "Mensaje común", pasada);
+        Comunicacion c = guardar("c@test.com", "Mensaje distinto", pasada);
+        Comunicacion futura = guardar("d@test.com", "Mensaje común", LocalDateTime.now().plusHours(1));
+        Comunicacion sinProgramar = guardar("e@test.com", "Mensaje común", null);
+
+        despachador.despachar();
+
+        List<ServidorSendGridStub.Peticion> peticiones = peticionesPropias();
+        assertEquals(2, peticiones.size());
+        assertEquals(Set.of(List.of("a@test.com", "b@test.com"), List.of("c@test.com")),
+                Set.copyOf(peticiones.stream().map(ServidorSendGridStub.Peticion::destinatarios).toList()));
+
+        for (Comunicacion enviada : List.of(a, b, c)) {
+            Comunicacion actual = recargar(enviada);
+            assertTrue(actual.getEnviada());
+            assertTrue(actual.getIdExterno().startsWith("msg-"));
+            assertNull(actual.getProximoIntento());
+        }
+        assertFalse(recargar(futura).getEnviada());
+        assertFalse(recargar(sinProgramar).getEnviada());
+    }
+
+    @Test
+    @DisplayName("Debe programar el reintento con espera y descartar al agotar los intentos")
+    void debeReintentarConEsperaHastaMaxIntentos() {
+        SERVIDOR.fallarSiAsunto(asunto::equals);
+        Comunicacion comunicacion = guardar("a@test.com", "Mensaje", LocalDateTime.now().minusMinutes(1));
+
+        despachador.despachar();
+        despachador.despachar();
+
+        Comunicacion fallida = recargar(comunicacion);
+        assertEquals(1, peticionesPropias().size());
+        assertFalse(fallida.getEnviada());
+        assertEquals(1, fallida.getIntentosEnvio());
+        assertEquals("HTTP 500", fallida.getMensajeError());
+        assertTrue(fallida.getProximoIntento().isAfter(LocalDateTime.now().plusSeconds(30)));
+
+        fallida.setIntentosEnvio(fallida.getMaxIntentos() - 1);
+        fallida.setProximoIntento(LocalDateTime.now().minusSeconds(1));
+        comunicacionRepository.save(fallida);
+
+        despachador.despachar();
+
+        Comunicacion descartada = recargar(comunicacion);
+        assertEquals(2, peticionesPropias().size());
+        assertEquals(descartada.getMaxIntentos(), descartada.getIntentosEnvio());
+        assertNull(descartada.getProximoIntento());
+        assertFalse(descartada.puedeReintentar());
+    }
+
+    @Test
+    @DisplayName("Debe omitir las comunicaciones reservadas por otro nodo hasta que venza la reserva")
+    void debeOmitirComunicacionesReservadasPorOtroNodo() {
+        Comunicacion comunicacion = guardar("a@test.com", "Mensaje", LocalDateTime.now().minusMinutes(1));
+        comunicacion.setProximoIntento(LocalDateTime.now().plusMinutes(5));
+        comunicacionRepository.save(comunicacion);
+
+        despachador.despachar();
+
+        assertTrue(peticionesPropias().isEmpty());
+
+        comunicacion = recargar(comunicacion);
+        comunicacion.setProximoIntento(LocalDateTime.now().minusSeconds(1));
+        comunicacionRepository.save(comunicacion);
+
+        despachador.despachar();
+
+        assertEquals(1, peticionesPropias().size());
+        assertTrue(recargar(comunicacion).getEnviada());
+    }
+
+    private List<ServidorSendGridStub.Peticion> peticionesPropias() {
+        return SERVIDOR.peticiones().stream()
+                .filter(peticion -> asunto.equals(peticion.asunto()))
+                .toList();
+    }
+
+    private Comunicacion recargar(Comunicacion comunicacion) {
+        return comunicacionRepository.findById(comunicacion.getIdComunicacion()).orElseThrow();
+    }
+
+    private Comunicacion guardar(String email, String mensaje, LocalDateTime fechaProgramada) {
+        return comunicacionRepository.save(Comunicacion.builder()
+                .tipo("RECORDATORIO")
+                .canal("EMAIL")
+                .destinatarioNombre("Destinatario")
+                .destinatarioEmail(email)
+                .asunto(asunto)
+                .mensaje(mensaje)
+                .fechaProgramadaEnvio(fechaProgramada)
+                .build());
+    }
+}
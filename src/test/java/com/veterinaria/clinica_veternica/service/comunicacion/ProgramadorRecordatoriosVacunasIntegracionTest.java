@@ -0,0 +1,212 @@
+package com.veterinaria.clinica_veternica.service.comunicacion;
+
+import com.veterinaria.clinica_veternica.config.TestMailConfig;
+import com.veterinaria.clinica_veternica.domain.clinico.HistoriaClinica;
+import com.veterinaria.clinica_veternica.domain.clinico.Vacunacion;
+import com.veterinaria.clinica_veternica.domain.comunicacion.Comunicacion;
+import com.veterinaria.clinica_veternica.domain.paciente.Especie;
+import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
+import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
+import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
+import com.veterinaria.clinica_veternica.repository.ComunicacionRepository;
+import com.veterinaria.clinica_veternica.repository.EspecieRepository;
+import com.veterinaria.clinica_veternica.repository.HistoriaClinicaRepository;
+import com.veterinaria.clinica_veternica.repository.MascotaRepository;
+import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
+import com.veterinaria.clinica_veternica.repository.VacunacionRepository;
+import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para los recordatorios de próximas dosis de vacunas
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000",
+    "app.vacunas.recordatorios.dias-anticipacion=7"
+})
+class ProgramadorRecordatoriosVacunasIntegracionTest {
+
+    @Autowired
+    private ProgramadorRecordatoriosVacunas programador;
+
+    @Autowired
+    private ComunicacionRepository comunicacionRepository;
+
+    @Autowired
+    private VacunacionRepository vacunacionRepository;
+
+    @Autowired
+    private HistoriaClinicaRepository historiaClinicaRepository;
+
+    @Autowired
+    private MascotaRepository mascotaRepository;
+
+    @Autowired
+    private PropietarioRepository propietarioRepository;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+
+    @Autowired
+    private VeterinarioRepository veterinarioRepository;
+
+    private Veterinario veterinario;
+    private LocalDate hoy;
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        veterinario = veterinarioRepository.save(Veterinario.builder()
+                .nombres("Carlos")
+                .apellidos("Ruiz")
+                .documento("V" + sufijo)
+                .correo("v" + sufijo + "@test.com")
+                .telefono("3009876543")
+                .especialidad("General")
+                .registroProfesional("RP-" + sufijo)
+                .build());
+        // Fechas lejanas y distintas por test: las revisiones no ven las dosis de otros tests
+        hoy = LocalDate.now().plusYears(20).plusDays(UUID.randomUUID().hashCode() & 0xFFF);
+    }
+
+    @Test
+    @DisplayName("Debe crear un recordatorio por mascota y vacuna solo para las dosis de la ventana")
+    void debeCrearRecordatoriosDeduplicadosDeLaVentana() {
+        HistoriaClinica luna = nuevaHistoria("Luna");
+        HistoriaClinica max = nuevaHistoria("Max");
+        // La próxima dosis de la primera aplicación la reemplaza la de la segunda
+        vacunar(luna, "Rabia", hoy.minusDays(40), hoy.plusDays(1), false);
+        vacunar(luna, "Rabia", hoy.minusDays(10), hoy.plusDays(5), false);
+        vacunar(luna, "Parvovirus", hoy.minusDays(20), hoy.plusDays(3), false);
+        vacunar(max, "Rabia", hoy.minusDays(20), hoy.plusDays(10), false);
+        vacunar(max, "Moquillo", hoy.minusDays(20), hoy.plusDays(2), true);
+
+        assertEquals(2, programador.generar(hoy));
+
+        List<Comunicacion> deLuna = recordatorios(luna);
+        assertEquals(List.of(clave(luna, "PARVOVIRUS", hoy.plusDays(3)), clave(luna, "RABIA", hoy.plusDays(5))),
+                deLuna.stream().map(Comunicacion::getClaveDeduplicacion).sorted().toList());
+        Comunicacion rabia = deLuna.stream().filter(c -> c.getClaveDeduplicacion().contains("RABIA")).findFirst().orElseThrow();
+        assertEquals("RECORDATORIO", rabia.getTipo());
+        assertEquals("EMAIL", rabia.getCanal());
+        assertEquals(luna.getMascota().getPropietario().getEmail(), rabia.getDestinatarioEmail());
+        assertTrue(rabia.getMensaje().contains("Rabia") && rabia.getMensaje().contains("Luna"));
+        assertNotNull(rabia.getFechaProgramadaEnvio());
+        assertFalse(rabia.getEnviada());
+        assertTrue(recordatorios(max).isEmpty());
+
+        assertEquals(0, programador.generar(hoy));
+
+        assertEquals(1, programador.generar(hoy.plusDays(3)));
+        assertEquals(List.of(clave(max, "RABIA", hoy.plusDays(10))),
+                recordatorios(max).stream().map(Comunicacion::getClaveDeduplicacion).toList());
+        assertEquals(2, recordatorios(luna).size());
+    }
+
+    @Test
+    @DisplayName("Debe omitir las revisiones sin dosis por vencer y adelantarlas al registrar una próxima dosis")
+    void debeRevisarSoloCuandoVenceAlgunaDosis() {
+        LocalDate hoyReal = LocalDate.now();
+        programador.revisar();
+        long omitidas = (Long) programador.getEstadisticas().get("revisionesOmitidas");
+
+        assertEquals(0, programador.revisar());
+
+        assertEquals(omitidas + 1, programador.getEstadisticas().get("revisionesOmitidas"));
+        assertTrue(((LocalDate) programador.getEstadisticas().get("proximaRevision")).isAfter(hoyReal));
+
+        programador.programar(hoyReal.plusDays(2));
+
+        assertEquals(hoyReal.minusDays(5), programador.getEstadisticas().get("proximaRevision"));
+    }
+
+    @Test
+    @DisplayName("Debe ignorar dosis reemplazadas y de mascotas inactivas al buscar la próxima dosis")
+    void debeBuscarProximaDosisConLosFiltrosDeLosRecordatorios() {
+        // Ningún otro test registra dosis tan lejanas
+        LocalDate base = hoy.plusYears(100);
+        HistoriaClinica luna = nuevaHistoria("Luna");
+        HistoriaClinica inactiva = nuevaHistoria("Toby", false);
+        vacunar(luna, "Rabia", base.minusDays(40), base.plusDays(8), false);
+        vacunar(luna, "Rabia", base.minusDays(10), base.plusDays(30), false);
+        vacunar(inactiva, "Rabia", base.minusDays(10), base.plusDays(9), false);
+
+        assertEquals(base.plusDays(30), vacunacionRepository.findPrimeraProximaDosisDespuesDe(base.plusDays(7)));
+    }
+
+    private HistoriaClinica nuevaHistoria(String nombreMascota) {
+        return nuevaHistoria(nombreMascota, true);
+    }
+
+    private HistoriaClinica nuevaHistoria(String nombreMascota, boolean mascotaActiva) {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        Especie especie = especieRepository.save(Especie.builder().nombre("Especie-" + sufijo).activo(true).build());
+        Propietario propietario = propietarioRepository.save(Propietario.builder()
+                .documento(sufijo)
+                .tipoDocumento("CC")
+                .nombres("Ana")
+                .apellidos("Pérez")
+                .telefono("3001234567")
+                .email(sufijo + "@test.com")
+                .activo(true)
+                .build());
+        Mascota mascota = mascotaRepository.save(Mascota.builder()
+                .nombre(nombreMascota)
+                .sexo("Hembra")
+                .esterilizado(false)
+                .activo(mascotaActiva)
+                .propietario(propietario)
+                .especie(especie)
+                .build());
+        return historiaClinicaRepository.save(HistoriaClinica.builder()
+                .mascota(mascota)
+                .numeroHistoria("HC-" + sufijo)
+                .build());
+    }
+
+    private void vacunar(HistoriaClinica historia, String vacuna, LocalDate aplicacion, LocalDate proximaDosis,
+                         boolean esquemaCompleto) {
+        vacunacionRepository.save(Vacunacion.builder()
+                .historiaClinica(historia)
+                .mascota(historia.getMascota())
+                .veterinario(veterinario)
+                .nombreVacuna(vacuna)
+                .tipoVacuna("VIRAL")
+                .enfermedadesPrevenidas("Enfermedad " + vacuna)
+                .lote("LOTE-1")
+                .fechaAplicacion(aplicacion)
+                .viaAdministracion("SUBCUTANEA")
+                .fechaProximaDosis(proximaDosis)
+                .esquemaCompleto(esquemaCompleto)
+                .build());
+    }
+
+    private List<Comunicacion> recordatorios(HistoriaClinica historia) {
+        String prefijo = "VACUNA:" + historia.getMascota().getIdMascota() + ":";
+        return comunicacionRepository.findByTipo("RECORDATORIO").stream()
+                .filter(c -> c.getClaveDeduplicacion() != null && c.getClaveDeduplicacion().startsWith(prefijo))
+                .toList();
+    }
+
+    private static String clave(HistoriaClinica historia, String vacuna, LocalDate fecha) {
+        return "VACUNA:" + historia.getMascota().getIdMascota() + ":" + vacuna + ":" + fecha;
+    }
+}
@@ -0,0 +1,84 @@
+package com.veterinaria.clinica_veternica.service.comunicacion;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Servidor HTTP local que simula el endpoint mail/send de SendGrid para los tests.
+ * Responde 202 con un X-Message-Id, o 500 a las peticiones cuyo asunto cumpla la condición de fallo.
+ */
+class ServidorSendGridStub implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer servidor;
+    private final List<Peticion> peticiones = new CopyOnWriteArrayList<>();
+    private final AtomicInteger secuencia = new AtomicInteger();
+    private volatile Predicate<String> fallaSiAsunto = asunto -> false;
+
+    record Peticion(String autorizacion, JsonNode cuerpo) {
+
+        String asunto() {
+            return cuerpo.path("subject").asText();
+        }
+
+        List<String> destinatarios() {
+            return cuerpo.path("personalizations").findValuesAsText("email");
+        }
+    }
+
+    ServidorSendGridStub() {
+        try {
+            servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        servidor.createContext("/v3/mail/send", exchange -> {
+            Peticion peticion = new Peticion(exchange.getRequestHeaders().getFirst("Authorization"),
+                    MAPPER.readTree(exchange.getRequestBody()));
+            peticiones.add(peticion);
+            if (fallaSiAsunto.test(peticion.asunto())) {
+                byte[] error = "{\"errors\":[{\"message\":\"Error simulado\"}]}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(500, error.length);
+                exchange.getResponseBody().write(error);
+            } else {
+                exchange.getResponseHeaders().add("X-Message-Id", "msg-" + secuencia.incrementAndGet());
+                exchange.sendResponseHeaders(202, -1);
+            }
+            exchange.close();
+        });
+        servidor.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort() + "/v3/mail/send";
+    }
+
+    List<Peticion> peticiones() {
+        return peticiones;
+    }
+
+    void fallarSiAsunto(Predicate<String> condicion) {
+        this.fallaSiAsunto = condicion;
+    }
+
+    void reiniciar() {
+        peticiones.clear();
+        fallaSiAsunto = asunto -> false;
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+    }
+}
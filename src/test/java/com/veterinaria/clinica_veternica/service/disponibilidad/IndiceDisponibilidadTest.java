@@ -0,0 +1,200 @@
+package com.veterinaria.clinica_veternica.service.disponibilidad;
+
+import com.veterinaria.clinica_veternica.config.DisponibilidadProperties;
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
+import com.veterinaria.clinica_veternica.domain.agenda.Horario;
+import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import com.veterinaria.clinica_veternica.repository.HorarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para el índice de disponibilidad en memoria
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("IndiceDisponibilidad Tests")
+class IndiceDisponibilidadTest {
+
+    private static final LocalDate LUNES = LocalDate.of(2030, 1, 7);
+    private static final LocalDate MARTES = LUNES.plusDays(1);
+
+    @Mock
+    private HorarioRepository horarioRepository;
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IndiceDisponibilidad indice;
+    private Veterinario veterinario;
+
+    @BeforeEach
+    void setUp() {
+        veterinario = Veterinario.builder().idPersonal(1L).nombres("Ana").apellidos("Gómez").build();
+        when(horarioRepository.findHorariosActivosPorIdVeterinario(1L)).thenReturn(List.of(
+                horario(10L, DayOfWeek.MONDAY, 1),
+                horario(11L, DayOfWeek.TUESDAY, 1)));
+        when(citaRepository.findCitasActivasPorVeterinarioYDia(eq(1L), any())).thenReturn(List.of());
+
+        indice = new IndiceDisponibilidad(horarioRepository, citaRepository, new DisponibilidadProperties(),
+                transactionManager);
+    }
+
+    @Test
+    @DisplayName("Debe marcar ocupados todos los slots que solapa una cita y reutilizar la agenda")
+    void debeMarcarSlotsSolapadosYReutilizarAgenda() {
+        when(citaRepository.findCitasActivasPorVeterinarioYDia(1L, LUNES))
+                .thenReturn(List.of(cita(1L, LUNES, LocalTime.of(9, 0), 60, EstadoCita.PROGRAMADA)));
+
+        List<AgendaDia.Slot> slots = indice.agenda(1L, LUNES).slots();
+        indice.agenda(1L, LUNES);
+
+        assertEquals(4, slots.size());
+        assertFalse(slots.get(0).disponible());
+        assertFalse(slots.get(1).disponible());
+        assertTrue(slots.get(2).disponible());
+        assertEquals(1, indice.getConstrucciones());
+    }
+
+    @Test
+    @DisplayName("Debe actualizar la agenda en memoria al crear y cancelar citas sin reconstruirla")
+    void debeActualizarAgendaConEventos() {
+        indice.agenda(1L, LUNES);
+        Cita cita = cita(1L, LUNES, LocalTime.of(9, 30), 30, EstadoCita.PROGRAMADA);
+
+        indice.onCitaCreated(cita);
+        assertFalse(indice.agenda(1L, LUNES).slots().get(1).disponible());
+
+        cita.setEstado(EstadoCita.CANCELADA);
+        indice.onCitaCancelled(cita, "Motivo");
+        assertTrue(indice.agenda(1L, LUNES).slots().get(1).disponible());
+        assertEquals(1, indice.getConstrucciones());
+    }
+
+    @Test
+    @DisplayName("Debe mover la cita de día al reprogramarla")
+    void debeMoverCitaAlReprogramar() {
+        indice.agenda(1L, LUNES);
+        indice.agenda(1L, MARTES);
+        Cita cita = cita(1L, LUNES, LocalTime.of(9, 0), 30, EstadoCita.PROGRAMADA);
+        indice.onCitaCreated(cita);
+
+        cita.setFechaCita(MARTES);
+        indice.onCitaUpdated(cita, LUNES, LocalTime.of(9, 0));
+
+        assertTrue(indice.agenda(1L, LUNES).getCitas().isEmpty());
+        assertEquals(1, indice.agenda(1L, MARTES).getCitas().size());
+    }
+
+    @Test
+    @DisplayName("Debe admitir citas simultáneas hasta maxCitasSimultaneas")
+    void debeRespetarCapacidadDelHorario() {
+        when(horarioRepository.findHorariosActivosPorIdVeterinario(2L))
+                .thenReturn(List.of(horario(20L, DayOfWeek.MONDAY, 2)));
+        when(citaRepository.findCitasActivasPorVeterinarioYDia(2L, LUNES))
+                .thenReturn(List.of(cita(1L, LUNES, LocalTime.of(9, 0), 30, EstadoCita.PROGRAMADA)));
+
+        assertTrue(indice.agenda(2L, LUNES).slots().get(0).disponible());
+        assertEquals(1, indice.agenda(2L, LUNES).contarSolapadas(9 * 60, 9 * 60 + 30, null));
+        assertEquals(0, indice.agenda(2L, LUNES).contarSolapadas(9 * 60, 9 * 60 + 30, 1L));
+    }
+
+    @Test
+    @DisplayName("Debe encontrar el primer slot libre entre varios veterinarios sin consultar días sin horario")
+    void debeBuscarPrimerSlotLibreEntreVeterinarios() {
+        when(horarioRepository.findHorariosActivosPorIdVeterinario(2L))
+                .thenReturn(List.of(horario(20L, DayOfWeek.TUESDAY, 1)));
+        when(citaRepository.findCitasActivasPorVeterinarioYDia(1L, LUNES)).thenReturn(List.of(
+                cita(1L, LUNES, LocalTime.of(9, 0), 120, EstadoCita.CONFIRMADA)));
+
+        List<IndiceDisponibilidad.SlotLibre> slots =
+                indice.buscarPrimerosSlotsLibres(List.of(2L, 1L), LUNES.atTime(8, 0), 7);
+
+        assertEquals(2, slots.size());
+        assertEquals(1L, slots.get(0).idVeterinario());
+        assertEquals(MARTES, slots.get(0).fecha());
+        assertEquals(LocalTime.of(9, 0), slots.get(0).hora());
+        assertEquals(2L, slots.get(1).idVeterinario());
+        verify(citaRepository, never()).findCitasActivasPorVeterinarioYDia(2L, LUNES);
+    }
+
+    @Test
+    @DisplayName("Debe descartar los slots que ya empezaron")
+    void debeDescartarSlotsPasados() {
+        Optional<IndiceDisponibilidad.SlotLibre> slot =
+                indice.buscarPrimerSlotLibre(1L, LUNES.atTime(9, 10), 1);
+
+        assertTrue(slot.isPresent());
+        assertEquals(LocalTime.of(9, 30), slot.get().hora());
+    }
+
+    @Test
+    @DisplayName("Debe reconstruir las agendas del veterinario cuando cambian sus horarios")
+    void debeReconstruirAlInvalidarVeterinario() {
+        indice.agenda(1L, LUNES);
+
+        indice.invalidarVeterinario(1L);
+        indice.agenda(1L, LUNES);
+
+        assertEquals(2, indice.getConstrucciones());
+        verify(horarioRepository, times(2)).findHorariosActivosPorIdVeterinario(1L);
+    }
+
+    @Test
+    @DisplayName("Debe leer horarios y citas en una transacción propia de solo lectura")
+    void debeLeerEnTransaccionPropia() {
+        indice.agenda(1L, LUNES);
+
+        verify(transactionManager, times(2)).getTransaction(argThat(definicion -> definicion.isReadOnly()
+                && definicion.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    private Horario horario(Long id, DayOfWeek dia, int capacidad) {
+        return Horario.builder()
+                .idHorario(id)
+                .veterinario(veterinario)
+                .diaSemana(dia)
+                .horaInicio(LocalTime.of(9, 0))
+                .horaFin(LocalTime.of(11, 0))
+                .duracionCitaMinutos(30)
+                .maxCitasSimultaneas(capacidad)
+                .activo(true)
+                .build();
+    }
+
+    private Cita cita(Long id, LocalDate fecha, LocalTime hora, int duracion, EstadoCita estado) {
+        return Cita.builder()
+                .idCita(id)
+                .veterinario(veterinario)
+                .fechaCita(fecha)
+                .horaCita(hora)
+                .duracionEstimadaMinutos(duracion)
+                .estado(estado)
+                .build();
+    }
+}
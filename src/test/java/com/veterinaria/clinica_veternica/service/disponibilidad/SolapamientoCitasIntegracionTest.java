@@ -0,0 +1,195 @@
+package com.veterinaria.clinica_veternica.service.disponibilidad;
+
+import com.veterinaria.clinica_veternica.config.TestMailConfig;
+import com.veterinaria.clinica_veternica.domain.agenda.CategoriaServicio;
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
+import com.veterinaria.clinica_veternica.domain.agenda.Servicio;
+import com.veterinaria.clinica_veternica.domain.agenda.TipoServicio;
+import com.veterinaria.clinica_veternica.domain.paciente.Especie;
+import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
+import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
+import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import com.veterinaria.clinica_veternica.repository.EspecieRepository;
+import com.veterinaria.clinica_veternica.repository.MascotaRepository;
+import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
+import com.veterinaria.clinica_veternica.repository.ServicioRepository;
+import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para la detección de solapes por intervalo de minutos
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000"
+})
+class SolapamientoCitasIntegracionTest {
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private VeterinarioRepository veterinarioRepository;
+
+    @Autowired
+    private MascotaRepository mascotaRepository;
+
+    @Autowired
+    private PropietarioRepository propietarioRepository;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDate fecha = LocalDate.now().plusYears(5);
+    private Veterinario veterinario;
+    private Mascota mascota;
+    private Servicio servicio;
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        Especie especie = especieRepository.save(Especie.builder().nombre("Especie-" + sufijo).activo(true).build());
+        Propietario propietario = propietarioRepository.save(Propietario.builder()
+                .documento(sufijo)
+                .tipoDocumento("CC")
+                .nombres("Ana")
+                .apellidos("Pérez")
+                .telefono("3001234567")
+                .email(sufijo + "@test.com")
+                .activo(true)
+                .build());
+        mascota = mascotaRepository.save(Mascota.builder()
+                .nombre("Luna")
+                .sexo("Hembra")
+                .esterilizado(false)
+                .activo(true)
+                .propietario(propietario)
+                .especie(especie)
+                .build());
+        veterinario = veterinarioRepository.save(Veterinario.builder()
+                .nombres("Carlos")
+                .apellidos("Ruiz")
+                .documento("V" + sufijo)
+                .correo("v" + sufijo + "@test.com")
+                .telefono("3009876543")
+                .especialidad("General")
+                .registroProfesional("RP-" + sufijo)
+                .build());
+        servicio = servicioRepository.save(Servicio.builder()
+                .nombre("Consulta " + sufijo)
+                .tipoServicio(TipoServicio.CONSULTA_GENERAL)
+                .categoria(CategoriaServicio.CLINICO)
+                .precio(BigDecimal.TEN)
+                .duracionEstimadaMinutos(30)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Debe detectar solapes con el intervalo en minutos guardado")
+    void debeDetectarSolapesPorIntervalo() {
+        Cita cita = citaRepository.save(nuevaCita(LocalTime.of(10, 0), 60));
+
+        assertEquals(600, cita.getMinutoInicio());
+        assertEquals(660, cita.getMinutoFin());
+        assertEquals(1, citaRepository.countCitasConflictivas(veterinario, fecha, LocalTime.of(10, 30), 30, null));
+        assertEquals(0, citaRepository.countCitasConflictivas(veterinario, fecha, LocalTime.of(11, 0), 30, null));
+        assertEquals(0, citaRepository.countCitasConflictivas(veterinario, fecha, LocalTime.of(9, 30), 30, null));
+        assertEquals(0, citaRepository.countCitasConflictivas(veterinario, fecha, LocalTime.of(10, 30), 30,
+                cita.getIdCita()));
+        assertEquals(1, citaRepository.findCitasSolapadas(veterinario, fecha, LocalTime.of(9, 45),
+                LocalTime.of(10, 15), null).size());
+    }
+
+    @Test
+    @DisplayName("Debe ignorar las citas canceladas")
+    void debeIgnorarCitasCanceladas() {
+        Cita cita = nuevaCita(LocalTime.of(12, 0), 30);
+        cita.setEstado(EstadoCita.CANCELADA);
+        citaRepository.save(cita);
+
+        assertEquals(0, citaRepository.countCitasConflictivas(veterinario, fecha, LocalTime.of(12, 0), 30, null));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar la segunda de dos reservas concurrentes del mismo slot")
+    void debeSerializarReservasConcurrentes() throws Exception {
+        CountDownLatch primeraBloqueada = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> primera = CompletableFuture.supplyAsync(() -> reservar(LocalTime.of(15, 0), () -> {
+            primeraBloqueada.countDown();
+            esperar(300);
+        }));
+        assertTrue(primeraBloqueada.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> segunda = CompletableFuture.supplyAsync(() -> reservar(LocalTime.of(15, 0), () -> { }));
+
+        assertTrue(primera.get(10, TimeUnit.SECONDS));
+        assertFalse(segunda.get(10, TimeUnit.SECONDS));
+        assertEquals(1, citaRepository.countCitasConflictivas(veterinario, fecha, LocalTime.of(15, 0), 30, null));
+    }
+
+    /**
+     * Misma secuencia que la validación de disponibilidad: bloqueo, consulta de solapes y guardado.
+     */
+    private boolean reservar(LocalTime hora, Runnable trasBloquear) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            veterinarioRepository.bloquearParaReserva(veterinario.getIdPersonal());
+            trasBloquear.run();
+            if (citaRepository.countCitasConflictivas(veterinario, fecha, hora, 30, null) > 0) {
+                return false;
+            }
+            citaRepository.save(nuevaCita(hora, 30));
+            return true;
+        }));
+    }
+
+    private Cita nuevaCita(LocalTime hora, int duracion) {
+        return Cita.builder()
+                .mascota(mascota)
+                .veterinario(veterinario)
+                .servicio(servicio)
+                .fechaCita(fecha)
+                .horaCita(hora)
+                .duracionEstimadaMinutos(duracion)
+                .motivoConsulta("Control general de rutina")
+                .precioFinal(BigDecimal.TEN)
+                .build();
+    }
+
+    private static void esperar(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
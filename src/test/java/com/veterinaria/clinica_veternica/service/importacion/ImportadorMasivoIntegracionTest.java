@@ -0,0 +1,347 @@
+package com.veterinaria.clinica_veternica.service.importacion;
+
+import com.veterinaria.clinica_veternica.config.TestMailConfig;
+import com.veterinaria.clinica_veternica.domain.agenda.CategoriaServicio;
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
+import com.veterinaria.clinica_veternica.domain.agenda.Servicio;
+import com.veterinaria.clinica_veternica.domain.agenda.TipoServicio;
+import com.veterinaria.clinica_veternica.domain.inventario.EstadoInsumo;
+import com.veterinaria.clinica_veternica.domain.inventario.Insumo;
+import com.veterinaria.clinica_veternica.domain.inventario.TipoInsumo;
+import com.veterinaria.clinica_veternica.domain.paciente.Especie;
+import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
+import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
+import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import com.veterinaria.clinica_veternica.repository.EspecieRepository;
+import com.veterinaria.clinica_veternica.repository.HistoriaClinicaRepository;
+import com.veterinaria.clinica_veternica.repository.InsumoRepository;
+import com.veterinaria.clinica_veternica.repository.InventarioRepository;
+import com.veterinaria.clinica_veternica.repository.MascotaRepository;
+import com.veterinaria.clinica_veternica.repository.MovimientoStockRepository;
+import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
+import com.veterinaria.clinica_veternica.repository.ServicioRepository;
+import com.veterinaria.clinica_veternica.repository.TipoInsumoRepository;
+import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para la importación masiva por lotes de JDBC
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000",
+    "app.importacion.tamanio-lote=2"
+})
+class ImportadorMasivoIntegracionTest {
+
+    @Autowired
+    private ImportadorMasivo importador;
+
+    @Autowired
+    private PropietarioRepository propietarioRepository;
+
+    @Autowired
+    private MascotaRepository mascotaRepository;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+
+    @Autowired
+    private InsumoRepository insumoRepository;
+
+    @Autowired
+    private TipoInsumoRepository tipoInsumoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private MovimientoStockRepository movimientoStockRepository;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private VeterinarioRepository veterinarioRepository;
+
+    @Autowired
+    private HistoriaClinicaRepository historiaClinicaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String sufijo;
+
+    @BeforeEach
+    void setUp() {
+        sufijo = UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    @DisplayName("Debe insertar propietarios por lotes omitiendo existentes y repetidos y reportando filas inválidas")
+    void debeImportarPropietariosPorLotes() {
+        Propietario existente = propietario("E" + sufijo);
+        String csv = """
+                documento,nombres,apellidos,telefono,email,direccion
+                A%1$s,Ana,Pérez,3001234567,A%1$s@test.com,"Calle 1, ""Casa"" 2"
+                B%1$s,Luis,Gómez,3001234568,B%1$s@test.com,
+                A%1$s,Ana,Repetida,3001234567,otro%1$s@test.com,
+                C%1$s,Eva,Ruiz,3001234569,no-es-email,
+                %2$s,Otro,Nombre,3001234570,E2%1$s@test.com,
+                """.formatted(sufijo, existente.getDocumento());
+
+        TrabajoImportacion trabajo = importar(TipoImportacion.PROPIETARIOS, FormatoImportacion.CSV, csv);
+
+        assertEquals(EstadoImportacion.COMPLETADA, trabajo.getEstado());
+        assertEquals(100, trabajo.getProgreso());
+        assertEquals(5, trabajo.getFilasLeidas());
+        assertEquals(2, trabajo.getFilasInsertadas());
+        assertEquals(2, trabajo.getFilasOmitidas());
+        assertEquals(1, trabajo.getFilasConError());
+        assertEquals(3, trabajo.getLotes());
+        assertEquals(List.of("Fila 4: Formato de email inválido"), trabajo.getErrores());
+        Propietario ana = propietarioRepository.findByDocumento("A" + sufijo).orElseThrow();
+        assertEquals("Calle 1, \"Casa\" 2", ana.getDireccion());
+        assertEquals("CC", ana.getTipoDocumento());
+        assertEquals(("a" + sufijo + "@test.com").toLowerCase(), ana.getEmail());
+        assertNotNull(ana.getFechaCreacion());
+        assertTrue(propietarioRepository.findByDocumento("C" + sufijo).isEmpty());
+        assertEquals("Ana", propietarioRepository.findByDocumento(existente.getDocumento()).orElseThrow().getNombres());
+    }
+
+    @Test
+    @DisplayName("Debe importar mascotas desde JSON resolviendo propietario y especie por clave natural")
+    void debeImportarMascotasDesdeJson() {
+        Propietario propietario = propietario("P" + sufijo);
+        Especie especie = especieRepository.save(Especie.builder().nombre("Felino " + sufijo).activo(true).build());
+        String json = """
+                [
+                  {"documentoPropietario": "%1$s", "nombre": "Michi", "sexo": "Hembra", "especie": "FELINO %2$s",
+                   "peso": 4.5, "esterilizado": true, "fechaNacimiento": "2020-05-01"},
+                  {"documentoPropietario": "%1$s", "nombre": "michi", "sexo": "Hembra", "especie": "Felino %2$s"},
+                  {"documentoPropietario": "NO-%2$s", "nombre": "Tom", "sexo": "Macho", "especie": "Felino %2$s"},
+                  {"documentoPropietario": "%1$s", "nombre": "Garfield", "sexo": "Otro", "especie": "Felino %2$s"}
+                ]
+                """.formatted(propietario.getDocumento(), sufijo);
+
+        TrabajoImportacion trabajo = importar(TipoImportacion.MASCOTAS, FormatoImportacion.JSON, json);
+
+        assertEquals(EstadoImportacion.COMPLETADA, trabajo.getEstado());
+        assertEquals(1, trabajo.getFilasInsertadas());
+        assertEquals(1, trabajo.getFilasOmitidas());
+        assertEquals(List.of(
+                "Fila 3: no existe un propietario con documento NO-" + sufijo,
+                "Fila 4: El sexo debe ser 'Macho' o 'Hembra'"), trabajo.getErrores());
+        List<Mascota> mascotas = mascotaRepository.findByPropietarioId(propietario.getIdPropietario());
+        assertEquals(1, mascotas.size());
+        Mascota michi = mascotas.get(0);
+        assertEquals("Michi", michi.getNombre());
+        assertEquals(4.5, michi.getPeso());
+        assertTrue(michi.getEsterilizado());
+        assertEquals(LocalDate.of(2020, 5, 1), michi.getFechaNacimiento());
+        assertNotNull(especie.getIdEspecie());
+        assertEquals("HC-" + LocalDate.now().getYear() + "-" + michi.getIdMascota(),
+                historiaClinicaRepository.findByMascota(michi).orElseThrow().getNumeroHistoria());
+    }
+
+    @Test
+    @DisplayName("Debe crear al reimportar la historia clínica de las mascotas que no la tienen")
+    void debeCompletarHistoriasClinicasAlReimportar() {
+        Propietario propietario = propietario("H" + sufijo);
+        especieRepository.save(Especie.builder().nombre("Ave " + sufijo).activo(true).build());
+        String csv = """
+                documentoPropietario,nombre,sexo,especie
+                %1$s,Piolín,Macho,Ave %2$s
+                """.formatted(propietario.getDocumento(), sufijo);
+        importar(TipoImportacion.MASCOTAS, FormatoImportacion.CSV, csv);
+        Mascota piolin = mascotaRepository.findByPropietarioId(propietario.getIdPropietario()).get(0);
+        jdbcTemplate.update("DELETE FROM historias_clinicas WHERE id_mascota = ?", piolin.getIdMascota());
+
+        TrabajoImportacion repetido = importar(TipoImportacion.MASCOTAS, FormatoImportacion.CSV, csv);
+
+        assertEquals(1, repetido.getFilasOmitidas());
+        assertTrue(historiaClinicaRepository.findByMascota(piolin).isPresent());
+    }
+
+    @Test
+    @DisplayName("Debe importar insumos con su stock inicial como entrada en el libro y crear su inventario")
+    void debeImportarInsumosConStockEnElLibro() {
+        tipoInsumoRepository.save(TipoInsumo.builder().nombre("Vacunas " + sufijo).build());
+        String csv = """
+                codigo,nombre,tipoInsumo,unidadMedida,cantidadStock,stockMinimo,precioCompra
+                S%1$s,Vacuna rabia,vacunas %1$s,Dosis,12,2,10.50
+                V%1$s,Vacuna parvo,Vacunas %1$s,Dosis,,2,8
+                X%1$s,Sin tipo,Desconocido,Dosis,1,2,8
+                """.formatted(sufijo);
+
+        TrabajoImportacion trabajo = importar(TipoImportacion.INSUMOS, FormatoImportacion.CSV, csv);
+
+        assertEquals(EstadoImportacion.COMPLETADA, trabajo.getEstado());
+        assertEquals(2, trabajo.getFilasInsertadas());
+        assertEquals(List.of("Fila 3: no existe el tipo de insumo 'Desconocido'"), trabajo.getErrores());
+        Insumo conStock = insumoRepository.findByCodigo("S" + sufijo).orElseThrow();
+        assertEquals(12, conStock.getCantidadStock());
+        assertEquals(EstadoInsumo.DISPONIBLE, conStock.getEstado());
+        assertEquals(0, new BigDecimal("10.50").compareTo(conStock.getPrecioCompra()));
+        assertEquals(12L, movimientoStockRepository.sumarPorInsumo(conStock.getIdInsumo()));
+        assertEquals(12, inventarioRepository.findByInsumo(conStock).orElseThrow().getCantidadActual());
+        Insumo sinStock = insumoRepository.findByCodigo("V" + sufijo).orElseThrow();
+        assertEquals(0, sinStock.getCantidadStock());
+        assertEquals(EstadoInsumo.AGOTADO, sinStock.getEstado());
+        assertEquals(0, inventarioRepository.findByInsumo(sinStock).orElseThrow().getCantidadActual());
+
+        TrabajoImportacion repetido = importar(TipoImportacion.INSUMOS, FormatoImportacion.CSV, csv);
+
+        assertEquals(0, repetido.getFilasInsertadas());
+        assertEquals(2, repetido.getFilasOmitidas());
+        assertEquals(12L, movimientoStockRepository.sumarPorInsumo(conStock.getIdInsumo()));
+    }
+
+    @Test
+    @DisplayName("Debe aplicar al reimportar el stock inicial que no llegó a aplicarse")
+    void debeReaplicarStockInicialAlReimportar() {
+        tipoInsumoRepository.save(TipoInsumo.builder().nombre("Jeringas " + sufijo).build());
+        String csv = """
+                codigo,nombre,tipoInsumo,unidadMedida,cantidadStock,stockMinimo,precioCompra
+                J%1$s,Jeringa 5 ml,Jeringas %1$s,Unidad,40,5,0.30
+                """.formatted(sufijo);
+        importar(TipoImportacion.INSUMOS, FormatoImportacion.CSV, csv);
+        Insumo jeringa = insumoRepository.findByCodigo("J" + sufijo).orElseThrow();
+        // Estado que deja una entrada inicial fallida: el insumo insertado sin stock ni movimientos
+        jdbcTemplate.update("DELETE FROM movimientos_stock WHERE id_insumo = ?", jeringa.getIdInsumo());
+        jdbcTemplate.update("UPDATE insumos SET cantidad_stock = 0, estado = 'AGOTADO' WHERE id_insumo = ?",
+                jeringa.getIdInsumo());
+
+        TrabajoImportacion reintento = importar(TipoImportacion.INSUMOS, FormatoImportacion.CSV, csv);
+
+        assertEquals(EstadoImportacion.COMPLETADA, reintento.getEstado());
+        assertEquals(1, reintento.getFilasOmitidas());
+        assertEquals(40, insumoRepository.findByCodigo("J" + sufijo).orElseThrow().getCantidadStock());
+        assertEquals(40L, movimientoStockRepository.sumarPorInsumo(jeringa.getIdInsumo()));
+
+        importar(TipoImportacion.INSUMOS, FormatoImportacion.CSV, csv);
+
+        assertEquals(40L, movimientoStockRepository.sumarPorInsumo(jeringa.getIdInsumo()));
+    }
+
+    @Test
+    @DisplayName("Debe importar citas históricas con estado, intervalo y precio por defecto")
+    void debeImportarCitasHistoricas() {
+        Propietario propietario = propietario("C" + sufijo);
+        Especie especie = especieRepository.save(Especie.builder().nombre("Canino " + sufijo).activo(true).build());
+        Mascota mascota = mascotaRepository.save(Mascota.builder()
+                .nombre("Rex")
+                .sexo("Macho")
+                .esterilizado(false)
+                .activo(true)
+                .propietario(propietario)
+                .especie(especie)
+                .build());
+        Veterinario veterinario = veterinarioRepository.save(Veterinario.builder()
+                .nombres("Carlos")
+                .apellidos("Ruiz")
+                .documento("V" + sufijo)
+                .correo("v" + sufijo + "@test.com")
+                .telefono("3009876543")
+                .especialidad("General")
+                .registroProfesional("RP-" + sufijo)
+                .build());
+        servicioRepository.save(Servicio.builder()
+                .nombre("Consulta " + sufijo)
+                .tipoServicio(TipoServicio.CONSULTA_GENERAL)
+                .categoria(CategoriaServicio.CLINICO)
+                .precio(new BigDecimal("45000"))
+                .duracionEstimadaMinutos(30)
+                .build());
+        String csv = """
+                documentoPropietario,mascota,documentoVeterinario,servicio,fechaCita,horaCita,motivoConsulta,estado
+                %1$s,rex,%2$s,Consulta %3$s,2020-01-15,09:30,Control anual de rutina,
+                %1$s,Rex,%2$s,Consulta %3$s,2020-02-15,10:00,Paciente no se presentó,NO_ASISTIO
+                %1$s,Rex,NO-%3$s,Consulta %3$s,2020-03-15,10:00,Control anual de rutina,
+                %1$s,Rex,%2$s,Consulta %3$s,2020-01-15,09:30,Control anual repetido,
+                %1$s,Rex,%2$s,Consulta %3$s,%4$s,11:00,Control anual de rutina,
+                """.formatted(propietario.getDocumento(), veterinario.getDocumento(), sufijo, LocalDate.now());
+
+        TrabajoImportacion trabajo = importar(TipoImportacion.CITAS, FormatoImportacion.CSV, csv);
+
+        assertEquals(EstadoImportacion.COMPLETADA, trabajo.getEstado());
+        assertEquals(2, trabajo.getFilasInsertadas());
+        assertEquals(1, trabajo.getFilasOmitidas());
+        assertEquals(List.of(
+                "Fila 3: no existe un veterinario con documento NO-" + sufijo,
+                "Fila 5: solo se importan citas históricas (anteriores a hoy)"), trabajo.getErrores());
+        List<Cita> citas = citaRepository.findByMascota(mascota).stream()
+                .sorted((a, b) -> a.getFechaCita().compareTo(b.getFechaCita()))
+                .toList();
+        assertEquals(2, citas.size());
+        Cita atendida = citas.get(0);
+        assertEquals(EstadoCita.ATENDIDA, atendida.getEstado());
+        assertEquals(LocalTime.of(9, 30), atendida.getHoraCita());
+        assertEquals(30, atendida.getDuracionEstimadaMinutos());
+        assertEquals(570, atendida.getMinutoInicio());
+        assertEquals(600, atendida.getMinutoFin());
+        assertEquals(0, new BigDecimal("45000").compareTo(atendida.getPrecioFinal()));
+        assertEquals(EstadoCita.NO_ASISTIO, citas.get(1).getEstado());
+
+        TrabajoImportacion repetido = importar(TipoImportacion.CITAS, FormatoImportacion.CSV, csv);
+
+        assertEquals(0, repetido.getFilasInsertadas());
+        assertEquals(3, repetido.getFilasOmitidas());
+        assertEquals(2, citaRepository.findByMascota(mascota).size());
+    }
+
+    @Test
+    @DisplayName("Debe fallar el trabajo si el archivo no es un arreglo JSON")
+    void debeFallarConArchivoMalFormado() {
+        TrabajoImportacion trabajo = importar(TipoImportacion.PROPIETARIOS, FormatoImportacion.JSON, "{\"a\": 1}");
+
+        assertEquals(EstadoImportacion.FALLIDA, trabajo.getEstado());
+        assertEquals("El archivo JSON debe ser un arreglo de objetos", trabajo.getError());
+        assertEquals(EstadoImportacion.FALLIDA, importador.consultar(trabajo.getId()).getEstado());
+    }
+
+    private TrabajoImportacion importar(TipoImportacion tipo, FormatoImportacion formato, String contenido) {
+        byte[] bytes = contenido.getBytes(StandardCharsets.UTF_8);
+        return importador.importar(tipo, formato, new ByteArrayInputStream(bytes), bytes.length,
+                "prueba." + formato.name().toLowerCase());
+    }
+
+    private Propietario propietario(String documento) {
+        return propietarioRepository.save(Propietario.builder()
+                .documento(documento)
+                .tipoDocumento("CC")
+                .nombres("Ana")
+                .apellidos("Pérez")
+                .telefono("3001234567")
+                .email(documento + "@test.com")
+                .activo(true)
+                .build());
+    }
+}
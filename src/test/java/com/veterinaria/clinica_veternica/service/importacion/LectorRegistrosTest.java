@@ -0,0 +1,82 @@
+package com.veterinaria.clinica_veternica.service.importacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para la lectura en streaming de archivos de importación
+ */
+class LectorRegistrosTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Debe leer CSV con comillas, saltos de línea en valores, BOM y líneas vacías")
+    void debeLeerCsvConComillas() throws IOException {
+        String csv = "\uFEFFDocumento, Nombres ,Direccion\r\n"
+                + "123456,\"Pérez, Ana\",\"Calle 1\nApto \"\"2\"\"\"\r\n"
+                + "\r\n"
+                + "654321,Luis,\n";
+
+        List<RegistroImportacion> registros = leerTodos(csv, FormatoImportacion.CSV);
+
+        assertEquals(2, registros.size());
+        assertEquals(new RegistroImportacion(1, Map.of("documento", "123456", "nombres", "Pérez, Ana",
+                "direccion", "Calle 1\nApto \"2\"")), registros.get(0));
+        assertEquals(new RegistroImportacion(2, Map.of("documento", "654321", "nombres", "Luis")), registros.get(1));
+    }
+
+    @Test
+    @DisplayName("Debe reportar una fila CSV con más valores que la cabecera y seguir con la siguiente")
+    void debeReportarFilaConValoresDeMas() throws IOException {
+        String csv = "a,b\n1,2,3\n4,5\n";
+
+        try (LectorRegistros lector = lector(csv, FormatoImportacion.CSV)) {
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class, lector::siguiente);
+            assertEquals("Fila 1: tiene 3 valores y la cabecera 2 campos", error.getMessage());
+            assertEquals(Map.of("a", "4", "b", "5"), lector.siguiente().campos());
+            assertNull(lector.siguiente());
+        }
+    }
+
+    @Test
+    @DisplayName("Debe leer un arreglo JSON como texto e ignorar nulos y valores anidados")
+    void debeLeerArregloJson() throws IOException {
+        String json = "[{\"Nombre\": \"Michi\", \"peso\": 4.5, \"activo\": true, \"raza\": null, \"tags\": [1]}, 5,"
+                + " {\"nombre\": \"Tom\"}]";
+
+        try (LectorRegistros lector = lector(json, FormatoImportacion.JSON)) {
+            assertEquals(Map.of("nombre", "Michi", "peso", "4.5", "activo", "true"), lector.siguiente().campos());
+            assertThrows(IllegalArgumentException.class, lector::siguiente);
+            assertEquals(new RegistroImportacion(3, Map.of("nombre", "Tom")), lector.siguiente());
+            assertNull(lector.siguiente());
+            assertEquals(json.getBytes(StandardCharsets.UTF_8).length, lector.getBytesLeidos());
+        }
+    }
+
+    private List<RegistroImportacion> leerTodos(String contenido, FormatoImportacion formato) throws IOException {
+        List<RegistroImportacion> registros = new ArrayList<>();
+        try (LectorRegistros lector = lector(contenido, formato)) {
+            RegistroImportacion registro;
+            while ((registro = lector.siguiente()) != null) {
+                registros.add(registro);
+            }
+        }
+        return registros;
+    }
+
+    private LectorRegistros lector(String contenido, FormatoImportacion formato) throws IOException {
+        return new LectorRegistros(new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)), formato,
+                objectMapper);
+    }
+}
@@ -0,0 +1,219 @@
+package com.veterinaria.clinica_veternica.service.inventario;
+
+import com.veterinaria.clinica_veternica.config.TestMailConfig;
+import com.veterinaria.clinica_veternica.dto.response.inventario.InventarioResponseDTO;
+import com.veterinaria.clinica_veternica.domain.inventario.EstadoInsumo;
+import com.veterinaria.clinica_veternica.domain.inventario.Insumo;
+import com.veterinaria.clinica_veternica.domain.inventario.Inventario;
+import com.veterinaria.clinica_veternica.domain.inventario.MovimientoStock;
+import com.veterinaria.clinica_veternica.domain.inventario.SolicitudMovimientoStock;
+import com.veterinaria.clinica_veternica.domain.inventario.TipoInsumo;
+import com.veterinaria.clinica_veternica.domain.inventario.TipoMovimientoStock;
+import com.veterinaria.clinica_veternica.exception.ValidationException;
+import com.veterinaria.clinica_veternica.repository.InsumoRepository;
+import com.veterinaria.clinica_veternica.repository.InventarioRepository;
+import com.veterinaria.clinica_veternica.repository.MovimientoStockRepository;
+import com.veterinaria.clinica_veternica.repository.TipoInsumoRepository;
+import com.veterinaria.clinica_veternica.service.interfaces.IInventarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para los movimientos de stock (UPDATE condicional, libro y versión)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000"
+})
+class MotorMovimientosStockIntegracionTest {
+
+    @Autowired
+    private MotorMovimientosStock motorMovimientosStock;
+
+    @Autowired
+    private InsumoRepository insumoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private MovimientoStockRepository movimientoStockRepository;
+
+    @Autowired
+    private TipoInsumoRepository tipoInsumoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private IInventarioService inventarioService;
+
+    private TipoInsumo tipoInsumo;
+
+    @BeforeEach
+    void setUp() {
+        tipoInsumo = tipoInsumoRepository.save(TipoInsumo.builder()
+                .nombre("Vacunas " + UUID.randomUUID().toString().substring(0, 8))
+                .build());
+    }
+
+    @Test
+    @DisplayName("Debe descontar con consumos concurrentes sin dejar el stock negativo ni desviarse")
+    void debeDescontarConcurrentementeSinPerderActualizaciones() throws Exception {
+        Insumo insumo = nuevoInsumo(0);
+        motorMovimientosStock.aplicarLote(List.of(solicitud(insumo, TipoMovimientoStock.ENTRADA, 50)));
+
+        int hilos = 8;
+        int consumosPorHilo = 10;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<Integer>> resultados = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            resultados.add(ejecutor.submit(() -> {
+                inicio.await(5, TimeUnit.SECONDS);
+                int aplicados = 0;
+                for (int c = 0; c < consumosPorHilo; c++) {
+                    try {
+                        motorMovimientosStock.aplicarLote(List.of(solicitud(insumo, TipoMovimientoStock.SALIDA, 1)));
+                        aplicados++;
+                    } catch (ValidationException e) {
+                        // Stock insuficiente: esperado una vez agotado
+                    }
+                }
+                return aplicados;
+            }));
+        }
+        inicio.countDown();
+        int aplicados = 0;
+        for (Future<Integer> resultado : resultados) {
+            aplicados += resultado.get(60, TimeUnit.SECONDS);
+        }
+        ejecutor.shutdown();
+
+        Insumo agotado = insumoRepository.findById(insumo.getIdInsumo()).orElseThrow();
+        Inventario inventario = inventarioRepository.findByInsumo(agotado).orElseThrow();
+        assertEquals(50, aplicados);
+        assertEquals(0, agotado.getCantidadStock());
+        assertEquals(EstadoInsumo.AGOTADO, agotado.getEstado());
+        assertEquals(0, inventario.getCantidadActual());
+        assertEquals(50, inventario.getTotalSalidas());
+        assertEquals(50, inventario.getTotalEntradas());
+        assertEquals(0L, movimientoStockRepository.sumarPorInsumo(insumo.getIdInsumo()));
+    }
+
+    @Test
+    @DisplayName("Debe aplicar el lote completo o ninguno de sus movimientos")
+    void debeAplicarLoteTodoONada() {
+        Insumo conStock = nuevoInsumo(10);
+        Insumo escaso = nuevoInsumo(3);
+
+        ValidationException error = assertThrows(ValidationException.class, () -> motorMovimientosStock.aplicarLote(List.of(
+                solicitud(conStock, TipoMovimientoStock.SALIDA, 4),
+                solicitud(escaso, TipoMovimientoStock.SALIDA, 5))));
+
+        assertTrue(error.getMessage().contains("Stock disponible: 3, cantidad requerida: 5"));
+        assertEquals(10, insumoRepository.findById(conStock.getIdInsumo()).orElseThrow().getCantidadStock());
+        assertEquals(0L, movimientoStockRepository.sumarPorInsumo(conStock.getIdInsumo()));
+    }
+
+    @Test
+    @DisplayName("Debe validar el stock en el orden de los movimientos y registrar el stock resultante")
+    void debeRegistrarStockResultanteEnOrden() {
+        Insumo insumo = nuevoInsumo(0);
+
+        assertThrows(ValidationException.class, () -> motorMovimientosStock.aplicarLote(List.of(
+                solicitud(insumo, TipoMovimientoStock.SALIDA, 5),
+                solicitud(insumo, TipoMovimientoStock.ENTRADA, 5))));
+
+        List<MovimientoStock> libro = motorMovimientosStock.aplicarLote(List.of(
+                solicitud(insumo, TipoMovimientoStock.ENTRADA, 5),
+                solicitud(insumo, TipoMovimientoStock.SALIDA, 2),
+                solicitud(insumo, TipoMovimientoStock.AJUSTE, -1)));
+
+        assertEquals(List.of(5, 3, 2), libro.stream().map(MovimientoStock::getStockResultante).toList());
+        assertEquals(List.of(5, -2, -1), libro.stream().map(MovimientoStock::getCantidad).toList());
+        Insumo actual = insumoRepository.findById(insumo.getIdInsumo()).orElseThrow();
+        assertEquals(2, actual.getCantidadStock());
+        assertEquals(EstadoInsumo.DISPONIBLE, actual.getEstado());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar guardar un insumo leído antes de un movimiento de stock")
+    void debeRechazarGuardadoConVersionDesactualizada() {
+        Insumo insumo = nuevoInsumo(10);
+        Insumo copiaAntigua = insumoRepository.findById(insumo.getIdInsumo()).orElseThrow();
+
+        transactionTemplate.executeWithoutResult(estado -> motorMovimientosStock.registrarSalida(
+                insumoRepository.findById(insumo.getIdInsumo()).orElseThrow(), 4, "VACUNACION:HC-1"));
+
+        copiaAntigua.setCantidadStock(10);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> insumoRepository.save(copiaAntigua));
+        assertEquals(6, insumoRepository.findById(insumo.getIdInsumo()).orElseThrow().getCantidadStock());
+    }
+
+    @Test
+    @DisplayName("Debe reconciliar el inventario faltante y refrescar el listado en caché tras un movimiento")
+    void debeListarInventarioSincronizadoAlEscribir() {
+        Insumo insumo = nuevoInsumo(7);
+        assertTrue(inventarioRepository.findByInsumo(insumo).isEmpty());
+
+        assertTrue(motorMovimientosStock.reconciliarInventario() >= 1);
+        assertEquals(7, cantidadListada(insumo));
+        assertSame(inventarioService.listarTodos(), inventarioService.listarTodos());
+
+        motorMovimientosStock.aplicarLote(List.of(solicitud(insumo, TipoMovimientoStock.ENTRADA, 3)));
+
+        assertEquals(10, cantidadListada(insumo));
+        assertEquals(0, motorMovimientosStock.reconciliarInventario());
+    }
+
+    private Integer cantidadListada(Insumo insumo) {
+        return inventarioService.listarTodos().stream()
+                .filter(inventario -> insumo.getIdInsumo().equals(inventario.getIdInsumo()))
+                .map(InventarioResponseDTO::getCantidadActual)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Insumo nuevoInsumo(int stock) {
+        String codigo = "INS-" + UUID.randomUUID().toString().substring(0, 8);
+        return insumoRepository.save(Insumo.builder()
+                .codigo(codigo)
+                .nombre("Vacuna " + codigo)
+                .tipoInsumo(tipoInsumo)
+                .unidadMedida("Dosis")
+                .cantidadStock(stock)
+                .stockMinimo(2)
+                .precioCompra(new BigDecimal("10.00"))
+                .build());
+    }
+
+    private static SolicitudMovimientoStock solicitud(Insumo insumo, TipoMovimientoStock tipo, int cantidad) {
+        return new SolicitudMovimientoStock(insumo.getIdInsumo(), tipo,
+                tipo == TipoMovimientoStock.AJUSTE ? cantidad : Math.abs(cantidad), "PRUEBA");
+    }
+}
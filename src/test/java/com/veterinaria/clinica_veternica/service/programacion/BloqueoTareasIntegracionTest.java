@@ -0,0 +1,110 @@
+package com.veterinaria.clinica_veternica.service.programacion;
+
+import com.veterinaria.clinica_veternica.config.TestMailConfig;
+import com.veterinaria.clinica_veternica.domain.sistema.BloqueoTarea;
+import com.veterinaria.clinica_veternica.repository.BloqueoTareaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para el bloqueo de tareas programadas entre instancias
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000"
+})
+class BloqueoTareasIntegracionTest {
+
+    private static final Duration MAXIMO = Duration.ofMinutes(10);
+
+    @Autowired
+    private BloqueoTareas bloqueoTareas;
+
+    @Autowired
+    private BloqueoTareaRepository bloqueoTareaRepository;
+
+    private String tarea;
+    private AtomicInteger ejecuciones;
+
+    @BeforeEach
+    void setUp() {
+        tarea = "prueba-" + UUID.randomUUID();
+        ejecuciones = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("No debe ejecutar la tarea mientras otra ejecución tiene el bloqueo")
+    void noDebeEjecutarConBloqueoTomado() {
+        boolean[] anidada = new boolean[1];
+
+        boolean ejecutada = bloqueoTareas.ejecutar(tarea, MAXIMO, Duration.ZERO, () -> {
+            ejecuciones.incrementAndGet();
+            anidada[0] = bloqueoTareas.ejecutar(tarea, MAXIMO, Duration.ZERO, ejecuciones::incrementAndGet);
+        });
+
+        assertTrue(ejecutada);
+        assertFalse(anidada[0]);
+        assertEquals(1, ejecuciones.get());
+        // Sin duración mínima, el bloqueo queda libre al terminar
+        assertTrue(bloqueoTareas.ejecutar(tarea, MAXIMO, Duration.ZERO, ejecuciones::incrementAndGet));
+        assertEquals(2, ejecuciones.get());
+    }
+
+    @Test
+    @DisplayName("Debe mantener el bloqueo la duración mínima aunque la tarea termine antes")
+    void debeRespetarDuracionMinima() {
+        assertTrue(bloqueoTareas.ejecutar(tarea, MAXIMO, Duration.ofMinutes(5), ejecuciones::incrementAndGet));
+
+        assertFalse(bloqueoTareas.ejecutar(tarea, MAXIMO, Duration.ZERO, ejecuciones::incrementAndGet));
+        assertEquals(1, ejecuciones.get());
+        BloqueoTarea bloqueo = bloqueoTareaRepository.findById(tarea).orElseThrow();
+        assertTrue(bloqueo.getBloqueadoHasta().isAfter(LocalDateTime.now().plusMinutes(4)));
+        assertEquals(bloqueoTareas.getNodo(), bloqueo.getBloqueadoPor());
+    }
+
+    @Test
+    @DisplayName("Debe tomar el bloqueo vencido de una instancia caída")
+    void debeTomarBloqueoVencido() {
+        bloqueoTareaRepository.saveAndFlush(BloqueoTarea.builder()
+                .nombre(tarea)
+                .bloqueadoEn(LocalDateTime.now().minusHours(1))
+                .bloqueadoHasta(LocalDateTime.now().minusMinutes(1))
+                .bloqueadoPor("otra-instancia")
+                .build());
+
+        assertTrue(bloqueoTareas.ejecutar(tarea, MAXIMO, Duration.ZERO, ejecuciones::incrementAndGet));
+        assertEquals(1, ejecuciones.get());
+        assertEquals(bloqueoTareas.getNodo(), bloqueoTareaRepository.findById(tarea).orElseThrow().getBloqueadoPor());
+    }
+
+    @Test
+    @DisplayName("No debe ejecutar la tarea si otra instancia tiene un bloqueo vigente")
+    void noDebeEjecutarConBloqueoDeOtraInstancia() {
+        bloqueoTareaRepository.saveAndFlush(BloqueoTarea.builder()
+                .nombre(tarea)
+                .bloqueadoEn(LocalDateTime.now())
+                .bloqueadoHasta(LocalDateTime.now().plusMinutes(10))
+                .bloqueadoPor("otra-instancia")
+                .build());
+
+        assertFalse(bloqueoTareas.ejecutar(tarea, MAXIMO, Duration.ZERO, ejecuciones::incrementAndGet));
+        assertEquals(0, ejecuciones.get());
+    }
+}
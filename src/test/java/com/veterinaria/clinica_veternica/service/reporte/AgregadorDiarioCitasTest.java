@@ -0,0 +1,157 @@
+package com.veterinaria.clinica_veternica.service.reporte;
+
+import com.veterinaria.clinica_veternica.config.RollupsProperties;
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.repository.ResumenDiarioCitasRepository;
+import com.veterinaria.clinica_veternica.service.programacion.BloqueoTareas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para el mantenimiento incremental del resumen diario de citas
+ */
+@ExtendWith(MockitoExtension.class)
+class AgregadorDiarioCitasTest {
+
+    private static final LocalDate DIA = LocalDate.of(2025, 3, 10);
+
+    @Mock
+    private ResumenDiarioCitasRepository resumenRepository;
+
+    @Mock
+    private BloqueoTareas bloqueoTareas;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RollupsProperties properties;
+    private AgregadorDiarioCitas agregador;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RollupsProperties();
+        agregador = new AgregadorDiarioCitas(resumenRepository, properties, bloqueoTareas, Runnable::run,
+                transactionManager);
+    }
+
+    @Test
+    @DisplayName("Debe recalcular una sola vez cada día marcado")
+    void debeRecalcularDiasMarcados() {
+        agregador.marcar(DIA);
+        agregador.marcar(DIA);
+        agregador.marcar(DIA.plusDays(1));
+
+        assertEquals(2, agregador.procesarPendientes());
+        assertEquals(0, agregador.procesarPendientes());
+
+        verify(resumenRepository).eliminarRango(DIA, DIA);
+        verify(resumenRepository).insertarDesdeCitas(eq(DIA), eq(DIA), any(LocalDateTime.class));
+        verify(resumenRepository).eliminarRango(DIA.plusDays(1), DIA.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("Debe marcar el día solo tras el commit de la transacción en curso")
+    void debeMarcarTrasCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            agregador.onCitaCreated(Cita.builder().fechaCita(DIA).build());
+            assertEquals(0, agregador.procesarPendientes());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, agregador.procesarPendientes());
+    }
+
+    @Test
+    @DisplayName("Debe marcar la fecha original y la nueva al reprogramar")
+    void debeMarcarAmbasFechasAlReprogramar() {
+        agregador.onCitaUpdated(Cita.builder().fechaCita(DIA.plusDays(5)).build(), DIA, LocalTime.NOON);
+
+        agregador.asegurarActualizado(DIA, DIA);
+
+        verify(resumenRepository).eliminarRango(DIA, DIA);
+        verify(resumenRepository, never()).eliminarRango(DIA.plusDays(5), DIA.plusDays(5));
+        assertEquals(1, agregador.getEstadisticas().get("diasPendientes"));
+    }
+
+    @Test
+    @DisplayName("Debe dejar pendiente un día cuyo recálculo falla")
+    void debeReintentarDiaFallido() {
+        when(resumenRepository.insertarDesdeCitas(eq(DIA), eq(DIA), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicado"))
+                .thenReturn(3);
+        agregador.marcar(DIA);
+
+        assertEquals(0, agregador.procesarPendientes());
+        assertEquals(1L, agregador.getEstadisticas().get("fallos"));
+        assertEquals(1, agregador.getEstadisticas().get("diasPendientes"));
+
+        assertEquals(1, agregador.procesarPendientes());
+        assertEquals(3L, agregador.getEstadisticas().get("filasEscritas"));
+    }
+
+    @Test
+    @DisplayName("Debe reconstruir todo el rango de citas por lotes de días")
+    void debeReconstruirPorLotes() {
+        properties.setDiasPorLote(10);
+        LocalDate primera = LocalDate.of(2025, 1, 1);
+        LocalDate ultima = LocalDate.of(2025, 1, 25);
+        when(resumenRepository.findPrimeraFechaCita()).thenReturn(Optional.of(primera));
+        when(resumenRepository.findUltimaFechaCita()).thenReturn(Optional.of(ultima));
+        when(resumenRepository.insertarDesdeCitas(any(), any(), any())).thenReturn(4);
+
+        assertEquals(12L, agregador.reconstruir());
+
+        verify(resumenRepository).eliminarFueraDeRango(primera, ultima);
+        for (List<LocalDate> lote : List.of(
+                List.of(primera, LocalDate.of(2025, 1, 10)),
+                List.of(LocalDate.of(2025, 1, 11), LocalDate.of(2025, 1, 20)),
+                List.of(LocalDate.of(2025, 1, 21), ultima))) {
+            verify(resumenRepository).eliminarRango(lote.get(0), lote.get(1));
+        }
+        assertEquals(25L, agregador.getEstadisticas().get("diasRecalculados"));
+    }
+
+    @Test
+    @DisplayName("Debe reconciliar la ventana alrededor de hoy bajo el bloqueo de la tarea")
+    void debeReconciliarVentana() {
+        properties.setDiasAtras(2);
+        properties.setDiasAdelante(3);
+        properties.setDiasPorLote(100);
+        when(resumenRepository.count()).thenReturn(10L);
+        when(bloqueoTareas.ejecutar(eq(AgregadorDiarioCitas.TAREA_RECONCILIACION), any(), any(), any()))
+                .thenAnswer(invocacion -> {
+                    invocacion.<Runnable>getArgument(3).run();
+                    return true;
+                });
+
+        agregador.reconciliar();
+
+        LocalDate hoy = LocalDate.now();
+        verify(resumenRepository).eliminarRango(hoy.minusDays(2), hoy.plusDays(3));
+        verify(resumenRepository, never()).findPrimeraFechaCita();
+        assertEquals(1L, agregador.getEstadisticas().get("reconciliaciones"));
+    }
+}
@@ -0,0 +1,259 @@
+package com.veterinaria.clinica_veternica.service.reporte;
+
+import com.veterinaria.clinica_veternica.config.TestMailConfig;
+import com.veterinaria.clinica_veternica.domain.agenda.CategoriaServicio;
+import com.veterinaria.clinica_veternica.domain.agenda.Cita;
+import com.veterinaria.clinica_veternica.domain.agenda.ConteoCitasVeterinario;
+import com.veterinaria.clinica_veternica.domain.agenda.EstadoCita;
+import com.veterinaria.clinica_veternica.domain.agenda.ResumenCitasDia;
+import com.veterinaria.clinica_veternica.domain.agenda.Servicio;
+import com.veterinaria.clinica_veternica.domain.agenda.TipoServicio;
+import com.veterinaria.clinica_veternica.domain.paciente.Especie;
+import com.veterinaria.clinica_veternica.domain.paciente.Mascota;
+import com.veterinaria.clinica_veternica.domain.paciente.Propietario;
+import com.veterinaria.clinica_veternica.domain.usuario.Veterinario;
+import com.veterinaria.clinica_veternica.dto.request.reporte.TrabajoReporteRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.facade.ReporteCitasDTO;
+import com.veterinaria.clinica_veternica.dto.response.facade.TrabajoReporteDTO;
+import com.veterinaria.clinica_veternica.patterns.structural.facade.ReporteFacadeService;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import com.veterinaria.clinica_veternica.repository.EspecieRepository;
+import com.veterinaria.clinica_veternica.repository.MascotaRepository;
+import com.veterinaria.clinica_veternica.repository.PropietarioRepository;
+import com.veterinaria.clinica_veternica.repository.ResumenDiarioCitasRepository;
+import com.veterinaria.clinica_veternica.repository.ServicioRepository;
+import com.veterinaria.clinica_veternica.repository.VeterinarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para los reportes: resumen diario de citas, huella de datos y generación en el pool de reportes
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestMailConfig.class)
+@TestPropertySource(properties = {
+    "spring.dotenv.enabled=false",
+    "JWT_SECRET=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+    "JWT_EXPIRATION=86400000"
+})
+class GestorTrabajosReporteIntegracionTest {
+
+    @Autowired
+    private GestorTrabajosReporte gestorTrabajosReporte;
+
+    @Autowired
+    private AgregadorDiarioCitas agregadorDiarioCitas;
+
+    @Autowired
+    private ReporteFacadeService reporteFacadeService;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private ResumenDiarioCitasRepository resumenDiarioCitasRepository;
+
+    @Autowired
+    private VeterinarioRepository veterinarioRepository;
+
+    @Autowired
+    private MascotaRepository mascotaRepository;
+
+    @Autowired
+    private PropietarioRepository propietarioRepository;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    // Un día propio por test, lejos de las citas de otros tests
+    private final LocalDate fecha = LocalDate.now().plusYears(20).plusDays(ThreadLocalRandom.current().nextInt(3650));
+    private Cita cita;
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        Especie especie = especieRepository.save(Especie.builder().nombre("Especie-" + sufijo).activo(true).build());
+        Propietario propietario = propietarioRepository.save(Propietario.builder()
+                .documento(sufijo)
+                .tipoDocumento("CC")
+                .nombres("Ana")
+                .apellidos("Pérez")
+                .telefono("3001234567")
+                .email(sufijo + "@test.com")
+                .activo(true)
+                .build());
+        Mascota mascota = mascotaRepository.save(Mascota.builder()
+                .nombre("Luna")
+                .sexo("Hembra")
+                .esterilizado(false)
+                .activo(true)
+                .propietario(propietario)
+                .especie(especie)
+                .build());
+        Veterinario veterinario = veterinarioRepository.save(Veterinario.builder()
+                .nombres("Carlos")
+                .apellidos("Ruiz")
+                .documento("V" + sufijo)
+                .correo("v" + sufijo + "@test.com")
+                .telefono("3009876543")
+                .especialidad("General")
+                .registroProfesional("RP-" + sufijo)
+                .build());
+        Servicio servicio = servicioRepository.save(Servicio.builder()
+                .nombre("Consulta " + sufijo)
+                .tipoServicio(TipoServicio.CONSULTA_GENERAL)
+                .categoria(CategoriaServicio.CLINICO)
+                .precio(BigDecimal.TEN)
+                .duracionEstimadaMinutos(30)
+                .build());
+        cita = Cita.builder()
+                .mascota(mascota)
+                .veterinario(veterinario)
+                .servicio(servicio)
+                .fechaCita(fecha)
+                .horaCita(LocalTime.of(10, 0))
+                .duracionEstimadaMinutos(30)
+                .motivoConsulta("Control general de rutina")
+                .precioFinal(BigDecimal.TEN)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "vet-" + sufijo, null, List.of(new SimpleGrantedAuthority("ROLE_VETERINARIO"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debe calcular la huella de las citas del rango en una consulta")
+    void debeCalcularHuella() {
+        HuellaDatosReporte vacia = citaRepository.calcularHuella(fecha, fecha);
+        assertEquals(0L, vacia.total());
+        assertEquals(0L, vacia.sumaIds());
+        assertNull(vacia.ultimaModificacion());
+
+        cita = citaRepository.save(cita);
+
+        HuellaDatosReporte huella = citaRepository.calcularHuella(fecha, fecha);
+        assertEquals(1L, huella.total());
+        assertEquals(cita.getIdCita(), huella.sumaIds());
+        assertNotNull(huella.ultimaModificacion());
+        assertNotNull(huella.ultimaModificacionRelacionados());
+        assertNull(vacia.ultimaModificacionRelacionados());
+    }
+
+    @Test
+    @DisplayName("Debe cambiar la huella al modificar la mascota de una cita del rango")
+    void debeCambiarHuellaAlModificarMascota() throws InterruptedException {
+        cita = citaRepository.save(cita);
+        HuellaDatosReporte antes = citaRepository.calcularHuella(fecha, fecha);
+
+        Thread.sleep(5);
+        Mascota mascota = mascotaRepository.findById(cita.getMascota().getIdMascota()).orElseThrow();
+        mascota.setNombre("Luna II");
+        mascotaRepository.saveAndFlush(mascota);
+
+        HuellaDatosReporte despues = citaRepository.calcularHuella(fecha, fecha);
+        assertEquals(antes.total(), despues.total());
+        assertEquals(antes.ultimaModificacion(), despues.ultimaModificacion());
+        assertTrue(despues.ultimaModificacionRelacionados().isAfter(antes.ultimaModificacionRelacionados()));
+    }
+
+    @Test
+    @DisplayName("Debe recalcular el resumen diario de los días marcados y servir los reportes desde él")
+    void debeRecalcularResumenDiario() {
+        citaRepository.save(cita);
+        Cita otra = citaRepository.save(Cita.builder()
+                .mascota(cita.getMascota())
+                .veterinario(cita.getVeterinario())
+                .servicio(cita.getServicio())
+                .fechaCita(fecha)
+                .horaCita(LocalTime.of(11, 0))
+                .duracionEstimadaMinutos(30)
+                .motivoConsulta("Control general de rutina")
+                .precioFinal(BigDecimal.TEN)
+                .build());
+        otra.setEstado(EstadoCita.CONFIRMADA);
+        citaRepository.save(otra);
+        agregadorDiarioCitas.marcar(fecha);
+
+        agregadorDiarioCitas.asegurarActualizado(fecha, fecha);
+        List<ResumenCitasDia> resumen = resumenDiarioCitasRepository.sumarPorDiaYEstado(fecha, fecha);
+        assertEquals(2, resumen.size());
+        assertTrue(resumen.stream().allMatch(dia -> dia.total() == 1L && fecha.equals(dia.fecha())
+                && dia.ingresos().compareTo(BigDecimal.TEN) == 0));
+
+        List<ConteoCitasVeterinario> porVeterinario = resumenDiarioCitasRepository.sumarPorVeterinarioYEstado(fecha, fecha);
+        assertEquals(2, porVeterinario.size());
+        assertEquals("Carlos Ruiz", porVeterinario.get(0).nombreCompleto());
+        assertEquals("General", porVeterinario.get(0).especialidad());
+
+        // Recalcular otra vez el mismo día reemplaza sus filas en lugar de sumarlas
+        otra.setEstado(EstadoCita.ATENDIDA);
+        citaRepository.save(otra);
+        agregadorDiarioCitas.marcar(fecha);
+
+        ReporteCitasDTO reporte = reporteFacadeService.generarReporteCitas(fecha, fecha, false);
+        assertEquals(2, reporte.getTotalCitas());
+        assertEquals(1L, reporte.getCitasAtendidas());
+        assertEquals(0, BigDecimal.TEN.compareTo(reporte.getIngresos()));
+    }
+
+    @Test
+    @DisplayName("Debe generar la exportación en segundo plano y reutilizarla con los mismos datos")
+    void debeGenerarYReutilizarExportacion() throws Exception {
+        citaRepository.save(cita);
+        TrabajoReporteRequestDTO request = TrabajoReporteRequestDTO.builder()
+                .tipo(TipoTrabajoReporte.EXPORTACION_CITAS)
+                .formato("json")
+                .fechaInicio(fecha)
+                .fechaFin(fecha)
+                .build();
+
+        TrabajoReporteDTO primero = esperarFin(gestorTrabajosReporte.enviar(request).getId());
+        assertEquals(EstadoTrabajoReporte.COMPLETADO, primero.getEstado(), primero.getError());
+        assertFalse(primero.getReutilizado());
+        assertEquals(1L, primero.getFilasProcesadas());
+        String contenido = Files.readString(gestorTrabajosReporte.obtenerParaDescarga(primero.getId()).getArchivo());
+        assertTrue(contenido.contains("Luna"));
+
+        TrabajoReporteDTO segundo = esperarFin(gestorTrabajosReporte.enviar(request).getId());
+        assertEquals(EstadoTrabajoReporte.COMPLETADO, segundo.getEstado());
+        assertTrue(segundo.getReutilizado());
+    }
+
+    private TrabajoReporteDTO esperarFin(String id) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        TrabajoReporteDTO trabajo = gestorTrabajosReporte.consultar(id);
+        while (!trabajo.getEstado().isTerminado() && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+            trabajo = gestorTrabajosReporte.consultar(id);
+        }
+        return trabajo;
+    }
+}
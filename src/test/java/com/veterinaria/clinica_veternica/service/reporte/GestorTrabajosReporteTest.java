@@ -0,0 +1,290 @@
+package com.veterinaria.clinica_veternica.service.reporte;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.veterinaria.clinica_veternica.config.ReportesProperties;
+import com.veterinaria.clinica_veternica.dto.request.reporte.TrabajoReporteRequestDTO;
+import com.veterinaria.clinica_veternica.dto.response.facade.ReporteCitasDTO;
+import com.veterinaria.clinica_veternica.dto.response.facade.TrabajoReporteDTO;
+import com.veterinaria.clinica_veternica.exception.BusinessException;
+import com.veterinaria.clinica_veternica.exception.ResourceNotFoundException;
+import com.veterinaria.clinica_veternica.patterns.structural.bridge.ReporteCitasAbstraction;
+import com.veterinaria.clinica_veternica.patterns.structural.bridge.ReporteService;
+import com.veterinaria.clinica_veternica.patterns.structural.facade.ReporteFacadeService;
+import com.veterinaria.clinica_veternica.repository.CitaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para los trabajos de reportes en segundo plano y su almacén de archivos
+ */
+@ExtendWith(MockitoExtension.class)
+class GestorTrabajosReporteTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 1);
+    private static final LocalDate FIN = LocalDate.of(2025, 1, 31);
+    private static final LocalDateTime MODIFICACION = LocalDateTime.of(2025, 1, 15, 10, 0);
+
+    @Mock
+    private ReporteFacadeService reporteFacadeService;
+
+    @Mock
+    private ReporteService reporteService;
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @TempDir
+    Path directorio;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final List<Runnable> enCola = new ArrayList<>();
+    private ReportesProperties properties;
+    private AlmacenReportes almacen;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReportesProperties();
+        properties.setDirectorio(directorio);
+        almacen = new AlmacenReportes(properties);
+        autenticar("vet1", "ROLE_VETERINARIO");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debe generar el reporte y reutilizar el archivo mientras los datos no cambien")
+    void debeReutilizarReporteConMismosDatos() throws Exception {
+        GestorTrabajosReporte gestor = crearGestor(Runnable::run);
+        when(citaRepository.calcularHuella(INICIO, FIN)).thenReturn(new HuellaDatosReporte(3L, MODIFICACION, 6L, MODIFICACION));
+        when(reporteFacadeService.generarReporteCitas(INICIO, FIN))
+                .thenReturn(ReporteCitasDTO.builder().fechaInicio(INICIO).fechaFin(FIN).totalCitas(3).build());
+
+        TrabajoReporteDTO primero = gestor.enviar(solicitud(TipoTrabajoReporte.CITAS));
+        TrabajoReporteDTO segundo = gestor.enviar(solicitud(TipoTrabajoReporte.CITAS));
+
+        TrabajoReporteDTO estado = gestor.consultar(primero.getId());
+        assertEquals(EstadoTrabajoReporte.COMPLETADO, estado.getEstado());
+        assertEquals(100, estado.getProgreso());
+        assertFalse(estado.getReutilizado());
+        assertEquals("/api/facade/reportes/trabajos/" + primero.getId() + "/descarga", estado.getUrlDescarga());
+        assertTrue(gestor.consultar(segundo.getId()).getReutilizado());
+        verify(reporteFacadeService, times(1)).generarReporteCitas(INICIO, FIN);
+
+        TrabajoReporte descarga = gestor.obtenerParaDescarga(segundo.getId());
+        assertEquals(gestor.obtenerParaDescarga(primero.getId()).getArchivo(), descarga.getArchivo());
+        assertEquals("reporte-citas-2025-01-01-2025-01-31.json", descarga.getNombreArchivo());
+        assertEquals(3, objectMapper.readTree(descarga.getArchivo().toFile()).path("totalCitas").asInt());
+        assertEquals(1L, gestor.getEstadisticas().get("reutilizados"));
+    }
+
+    @Test
+    @DisplayName("Debe generar de nuevo el reporte cuando cambian los datos del rango")
+    void debeRegenerarCuandoCambianLosDatos() {
+        GestorTrabajosReporte gestor = crearGestor(Runnable::run);
+        when(citaRepository.calcularHuella(INICIO, FIN))
+                .thenReturn(new HuellaDatosReporte(3L, MODIFICACION, 6L, MODIFICACION))
+                .thenReturn(new HuellaDatosReporte(3L, MODIFICACION.plusMinutes(1), 6L, MODIFICACION));
+        when(reporteFacadeService.generarReporteCitas(INICIO, FIN)).thenReturn(new ReporteCitasDTO());
+
+        TrabajoReporteDTO primero = gestor.enviar(solicitud(TipoTrabajoReporte.CITAS));
+        TrabajoReporteDTO segundo = gestor.enviar(solicitud(TipoTrabajoReporte.CITAS));
+
+        assertFalse(gestor.consultar(segundo.getId()).getReutilizado());
+        assertNotEquals(gestor.obtenerParaDescarga(primero.getId()).getClave(),
+                gestor.obtenerParaDescarga(segundo.getId()).getClave());
+        verify(reporteFacadeService, times(2)).generarReporteCitas(INICIO, FIN);
+    }
+
+    @Test
+    @DisplayName("Debe generar de nuevo el reporte cuando cambian los datos relacionados con las citas")
+    void debeRegenerarCuandoCambianLosDatosRelacionados() {
+        GestorTrabajosReporte gestor = crearGestor(Runnable::run);
+        when(citaRepository.calcularHuella(INICIO, FIN))
+                .thenReturn(new HuellaDatosReporte(3L, MODIFICACION, 6L, MODIFICACION))
+                .thenReturn(new HuellaDatosReporte(3L, MODIFICACION, 6L, MODIFICACION.plusMinutes(1)));
+        when(reporteFacadeService.generarReporteCitas(INICIO, FIN)).thenReturn(new ReporteCitasDTO());
+
+        TrabajoReporteDTO primero = gestor.enviar(solicitud(TipoTrabajoReporte.CITAS));
+        TrabajoReporteDTO segundo = gestor.enviar(solicitud(TipoTrabajoReporte.CITAS));
+
+        assertFalse(gestor.consultar(segundo.getId()).getReutilizado());
+        assertNotEquals(gestor.obtenerParaDescarga(primero.getId()).getClave(),
+                gestor.obtenerParaDescarga(segundo.getId()).getClave());
+    }
+
+    @Test
+    @DisplayName("Debe informar el progreso de una exportación y usar el formato del reporte")
+    void debeInformarProgresoDeExportacion() throws Exception {
+        GestorTrabajosReporte gestor = crearGestor(enCola::add);
+        ReporteCitasAbstraction reporte = mock(ReporteCitasAbstraction.class);
+        when(reporteService.crearReporte("excel", null, null)).thenReturn(reporte);
+        when(reporte.getExtension()).thenReturn("xlsx");
+        when(reporte.getTipoMime()).thenReturn("application/vnd.ms-excel");
+        when(citaRepository.calcularHuella(any(), any())).thenReturn(new HuellaDatosReporte(1000L, MODIFICACION, 500500L, MODIFICACION));
+        List<Integer> progresos = new ArrayList<>();
+        TrabajoReporteDTO[] trabajo = new TrabajoReporteDTO[1];
+        doAnswer(invocacion -> {
+            OutputStream salida = invocacion.getArgument(1);
+            LongConsumer progreso = invocacion.getArgument(2);
+            salida.write("contenido".getBytes(StandardCharsets.UTF_8));
+            progreso.accept(500);
+            progresos.add(gestor.consultar(trabajo[0].getId()).getProgreso());
+            progreso.accept(1000);
+            progresos.add(gestor.consultar(trabajo[0].getId()).getProgreso());
+            return null;
+        }).when(reporteService).exportar(eq(reporte), any(OutputStream.class), any(LongConsumer.class));
+
+        trabajo[0] = gestor.enviar(TrabajoReporteRequestDTO.builder()
+                .tipo(TipoTrabajoReporte.EXPORTACION_CITAS).formato("excel").build());
+        assertEquals(EstadoTrabajoReporte.PENDIENTE, trabajo[0].getEstado());
+        enCola.forEach(Runnable::run);
+
+        assertEquals(List.of(50, 99), progresos);
+        TrabajoReporte completado = gestor.obtenerParaDescarga(trabajo[0].getId());
+        assertEquals("application/vnd.ms-excel", completado.getTipoMime());
+        assertEquals("reporte-exportacion-citas.xlsx", completado.getNombreArchivo());
+        assertEquals(1000L, completado.getFilasProcesadas());
+        assertEquals("contenido", Files.readString(completado.getArchivo()));
+        verify(citaRepository).calcularHuella(LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31));
+    }
+
+    @Test
+    @DisplayName("Debe limitar los trabajos en curso por usuario")
+    void debeLimitarTrabajosPorUsuario() {
+        GestorTrabajosReporte gestor = crearGestor(enCola::add);
+        when(citaRepository.calcularHuella(INICIO, FIN)).thenReturn(new HuellaDatosReporte(0L, null, 0L, null));
+        when(reporteFacadeService.generarReporteCitas(INICIO, FIN)).thenReturn(new ReporteCitasDTO());
+
+        gestor.enviar(solicitud(TipoTrabajoReporte.CITAS));
+        gestor.enviar(solicitud(TipoTrabajoReporte.CITAS));
+        assertThrows(BusinessException.class, () -> gestor.enviar(solicitud(TipoTrabajoReporte.CITAS)));
+
+        // Otro usuario tiene su propio cupo
+        autenticar("vet2", "ROLE_VETERINARIO");
+        assertDoesNotThrow(() -> gestor.enviar(solicitud(TipoTrabajoReporte.CITAS)));
+
+        // Al terminar un trabajo se libera el cupo
+        autenticar("vet1", "ROLE_VETERINARIO");
+        enCola.remove(0).run();
+        assertDoesNotThrow(() -> gestor.enviar(solicitud(TipoTrabajoReporte.CITAS)));
+        assertEquals(1L, gestor.getEstadisticas().get("rechazados"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar el trabajo y liberar el cupo si la cola de reportes está llena")
+    void debeRechazarConColaLlena() {
+        GestorTrabajosReporte gestor = crearGestor(tarea -> {
+            throw new TaskRejectedException("cola llena");
+        });
+        properties.setTrabajosPorUsuario(1);
+
+        assertThrows(BusinessException.class, () -> gestor.enviar(solicitud(TipoTrabajoReporte.CITAS)));
+        // El cupo se liberó: el siguiente intento vuelve a llegar al pool
+        assertThrows(BusinessException.class, () -> gestor.enviar(solicitud(TipoTrabajoReporte.CITAS)));
+        assertEquals(0L, gestor.getEstadisticas().get("registrados"));
+        verifyNoInteractions(citaRepository);
+    }
+
+    @Test
+    @DisplayName("Debe ocultar el trabajo a otros usuarios salvo al administrador")
+    void debeOcultarTrabajoAOtrosUsuarios() {
+        GestorTrabajosReporte gestor = crearGestor(enCola::add);
+        String id = gestor.enviar(solicitud(TipoTrabajoReporte.VETERINARIOS)).getId();
+
+        autenticar("vet2", "ROLE_VETERINARIO");
+        assertThrows(ResourceNotFoundException.class, () -> gestor.consultar(id));
+
+        autenticar("admin", "ROLE_ADMIN");
+        assertEquals(EstadoTrabajoReporte.PENDIENTE, gestor.consultar(id).getEstado());
+        assertThrows(BusinessException.class, () -> gestor.obtenerParaDescarga(id));
+    }
+
+    @Test
+    @DisplayName("Debe marcar el trabajo como fallido si la generación falla")
+    void debeMarcarTrabajoFallido() {
+        GestorTrabajosReporte gestor = crearGestor(Runnable::run);
+        when(citaRepository.calcularHuella(INICIO, FIN)).thenReturn(new HuellaDatosReporte(1L, MODIFICACION, 1L, MODIFICACION));
+        when(reporteFacadeService.generarReporteVeterinarios(INICIO, FIN)).thenThrow(new IllegalStateException("sin conexión"));
+
+        TrabajoReporteDTO trabajo = gestor.consultar(gestor.enviar(solicitud(TipoTrabajoReporte.VETERINARIOS)).getId());
+
+        assertEquals(EstadoTrabajoReporte.FALLIDO, trabajo.getEstado());
+        assertEquals("sin conexión", trabajo.getError());
+        assertNull(trabajo.getUrlDescarga());
+        assertEquals(1L, gestor.getEstadisticas().get("fallidos"));
+    }
+
+    @Test
+    @DisplayName("Debe exigir fechas válidas para los reportes del facade")
+    void debeValidarFechas() {
+        GestorTrabajosReporte gestor = crearGestor(Runnable::run);
+
+        assertThrows(IllegalArgumentException.class, () -> gestor.enviar(TrabajoReporteRequestDTO.builder()
+                .tipo(TipoTrabajoReporte.CITAS).fechaInicio(INICIO).build()));
+        assertThrows(IllegalArgumentException.class, () -> gestor.enviar(TrabajoReporteRequestDTO.builder()
+                .tipo(TipoTrabajoReporte.CITAS).fechaInicio(FIN).fechaFin(INICIO).build()));
+        verifyNoInteractions(citaRepository);
+    }
+
+    @Test
+    @DisplayName("Debe eliminar del almacén solo los archivos vencidos")
+    void debeLimpiarArchivosVencidos() throws Exception {
+        properties.setRetencion(Duration.ofHours(1));
+        Path vencido = almacen.guardar("vencido", "json", salida -> salida.write('1'));
+        Path vigente = almacen.guardar("vigente", "json", salida -> salida.write('2'));
+        Files.setLastModifiedTime(vencido, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        assertEquals(1, almacen.limpiar());
+        assertFalse(Files.exists(vencido));
+        assertTrue(almacen.buscar("vigente", "json").isPresent());
+        assertEquals(vigente, almacen.buscar("vigente", "json").get());
+        assertTrue(almacen.buscar("vencido", "json").isEmpty());
+    }
+
+    private GestorTrabajosReporte crearGestor(Executor ejecutor) {
+        return new GestorTrabajosReporte(reporteFacadeService, reporteService, citaRepository, almacen,
+                objectMapper, ejecutor, properties);
+    }
+
+    private static TrabajoReporteRequestDTO solicitud(TipoTrabajoReporte tipo) {
+        return TrabajoReporteRequestDTO.builder().tipo(tipo).fechaInicio(INICIO).fechaFin(FIN).build();
+    }
+
+    private static void autenticar(String usuario, String rol) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                usuario, null, List.of(new SimpleGrantedAuthority(rol))));
+    }
+}
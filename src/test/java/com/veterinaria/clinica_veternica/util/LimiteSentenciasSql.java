@@ -0,0 +1,46 @@
+package com.veterinaria.clinica_veternica.util;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guarda para tests de integración: falla si una operación ejecuta más sentencias SQL
+ * que el máximo indicado (detecta consultas N+1 en listados).
+ *
+ * Usa las estadísticas de Hibernate, que se activan solo mientras dura la operación.
+ */
+public final class LimiteSentenciasSql {
+
+    private final Statistics estadisticas;
+
+    public LimiteSentenciasSql(EntityManagerFactory entityManagerFactory) {
+        this.estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Ejecuta la operación y verifica el número de sentencias preparadas.
+     *
+     * @param maximo Máximo de sentencias permitidas
+     * @param descripcion Operación, para el mensaje de error
+     * @param operacion Operación a ejecutar (con su propia transacción)
+     * @return Resultado de la operación
+     */
+    public <T> T verificar(int maximo, String descripcion, Supplier<T> operacion) {
+        estadisticas.clear();
+        estadisticas.setStatisticsEnabled(true);
+        try {
+            T resultado = operacion.get();
+            long sentencias = estadisticas.getPrepareStatementCount();
+            assertTrue(sentencias <= maximo,
+                    descripcion + " ejecutó " + sentencias + " sentencias SQL (máximo " + maximo + ")");
+            return resultado;
+        } finally {
+            estadisticas.setStatisticsEnabled(false);
+        }
+    }
+}